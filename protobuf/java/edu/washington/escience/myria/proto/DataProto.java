@@ -1250,6 +1250,94 @@ public final class DataProto {
      * <code>optional .BlobColumnMessage blob_column = 10;</code>
      */
     edu.washington.escience.myria.proto.DataProto.BlobColumnMessageOrBuilder getBlobColumnOrBuilder();
+
+    /**
+     * <code>optional .DictionaryStringColumnMessage dictionary_string_column = 11;</code>
+     *
+     * <pre>
+     * STRING, dictionary-encoded
+     * </pre>
+     */
+    boolean hasDictionaryStringColumn();
+    /**
+     * <code>optional .DictionaryStringColumnMessage dictionary_string_column = 11;</code>
+     *
+     * <pre>
+     * STRING, dictionary-encoded
+     * </pre>
+     */
+    edu.washington.escience.myria.proto.DataProto.DictionaryStringColumnMessage getDictionaryStringColumn();
+    /**
+     * <code>optional .DictionaryStringColumnMessage dictionary_string_column = 11;</code>
+     *
+     * <pre>
+     * STRING, dictionary-encoded
+     * </pre>
+     */
+    edu.washington.escience.myria.proto.DataProto.DictionaryStringColumnMessageOrBuilder getDictionaryStringColumnOrBuilder();
+
+    /**
+     * <code>optional .ConstantColumnMessage constant_column = 12;</code>
+     *
+     * <pre>
+     * Encodings of a column of any of the types above. At most one is set, instead of the members above.
+     * </pre>
+     */
+    boolean hasConstantColumn();
+    /**
+     * <code>optional .ConstantColumnMessage constant_column = 12;</code>
+     *
+     * <pre>
+     * Encodings of a column of any of the types above. At most one is set, instead of the members above.
+     * </pre>
+     */
+    edu.washington.escience.myria.proto.DataProto.ConstantColumnMessage getConstantColumn();
+    /**
+     * <code>optional .ConstantColumnMessage constant_column = 12;</code>
+     *
+     * <pre>
+     * Encodings of a column of any of the types above. At most one is set, instead of the members above.
+     * </pre>
+     */
+    edu.washington.escience.myria.proto.DataProto.ConstantColumnMessageOrBuilder getConstantColumnOrBuilder();
+
+    /**
+     * <code>optional .RunLengthColumnMessage run_length_column = 13;</code>
+     */
+    boolean hasRunLengthColumn();
+    /**
+     * <code>optional .RunLengthColumnMessage run_length_column = 13;</code>
+     */
+    edu.washington.escience.myria.proto.DataProto.RunLengthColumnMessage getRunLengthColumn();
+    /**
+     * <code>optional .RunLengthColumnMessage run_length_column = 13;</code>
+     */
+    edu.washington.escience.myria.proto.DataProto.RunLengthColumnMessageOrBuilder getRunLengthColumnOrBuilder();
+
+    /**
+     * <code>optional .DeltaColumnMessage delta_column = 14;</code>
+     *
+     * <pre>
+     * INT and LONG only
+     * </pre>
+     */
+    boolean hasDeltaColumn();
+    /**
+     * <code>optional .DeltaColumnMessage delta_column = 14;</code>
+     *
+     * <pre>
+     * INT and LONG only
+     * </pre>
+     */
+    edu.washington.escience.myria.proto.DataProto.DeltaColumnMessage getDeltaColumn();
+    /**
+     * <code>optional .DeltaColumnMessage delta_column = 14;</code>
+     *
+     * <pre>
+     * INT and LONG only
+     * </pre>
+     */
+    edu.washington.escience.myria.proto.DataProto.DeltaColumnMessageOrBuilder getDeltaColumnOrBuilder();
   }
   /**
    * Protobuf type {@code ColumnMessage}
@@ -1418,6 +1506,58 @@ public final class DataProto {
               bitField0_ |= 0x00000100;
               break;
             }
+            case 90: {
+              edu.washington.escience.myria.proto.DataProto.DictionaryStringColumnMessage.Builder subBuilder = null;
+              if (((bitField0_ & 0x00000200) == 0x00000200)) {
+                subBuilder = dictionaryStringColumn_.toBuilder();
+              }
+              dictionaryStringColumn_ = input.readMessage(edu.washington.escience.myria.proto.DataProto.DictionaryStringColumnMessage.PARSER, extensionRegistry);
+              if (subBuilder != null) {
+                subBuilder.mergeFrom(dictionaryStringColumn_);
+                dictionaryStringColumn_ = subBuilder.buildPartial();
+              }
+              bitField0_ |= 0x00000200;
+              break;
+            }
+            case 98: {
+              edu.washington.escience.myria.proto.DataProto.ConstantColumnMessage.Builder subBuilder = null;
+              if (((bitField0_ & 0x00000400) == 0x00000400)) {
+                subBuilder = constantColumn_.toBuilder();
+              }
+              constantColumn_ = input.readMessage(edu.washington.escience.myria.proto.DataProto.ConstantColumnMessage.PARSER, extensionRegistry);
+              if (subBuilder != null) {
+                subBuilder.mergeFrom(constantColumn_);
+                constantColumn_ = subBuilder.buildPartial();
+              }
+              bitField0_ |= 0x00000400;
+              break;
+            }
+            case 106: {
+              edu.washington.escience.myria.proto.DataProto.RunLengthColumnMessage.Builder subBuilder = null;
+              if (((bitField0_ & 0x00000800) == 0x00000800)) {
+                subBuilder = runLengthColumn_.toBuilder();
+              }
+              runLengthColumn_ = input.readMessage(edu.washington.escience.myria.proto.DataProto.RunLengthColumnMessage.PARSER, extensionRegistry);
+              if (subBuilder != null) {
+                subBuilder.mergeFrom(runLengthColumn_);
+                runLengthColumn_ = subBuilder.buildPartial();
+              }
+              bitField0_ |= 0x00000800;
+              break;
+            }
+            case 114: {
+              edu.washington.escience.myria.proto.DataProto.DeltaColumnMessage.Builder subBuilder = null;
+              if (((bitField0_ & 0x00001000) == 0x00001000)) {
+                subBuilder = deltaColumn_.toBuilder();
+              }
+              deltaColumn_ = input.readMessage(edu.washington.escience.myria.proto.DataProto.DeltaColumnMessage.PARSER, extensionRegistry);
+              if (subBuilder != null) {
+                subBuilder.mergeFrom(deltaColumn_);
+                deltaColumn_ = subBuilder.buildPartial();
+              }
+              bitField0_ |= 0x00001000;
+              break;
+            }
           }
         }
       } catch (com.google.protobuf.InvalidProtocolBufferException e) {
@@ -1785,6 +1925,126 @@ public final class DataProto {
       return blobColumn_;
     }
 
+    public static final int DICTIONARY_STRING_COLUMN_FIELD_NUMBER = 11;
+    private edu.washington.escience.myria.proto.DataProto.DictionaryStringColumnMessage dictionaryStringColumn_;
+    /**
+     * <code>optional .DictionaryStringColumnMessage dictionary_string_column = 11;</code>
+     *
+     * <pre>
+     * STRING, dictionary-encoded
+     * </pre>
+     */
+    public boolean hasDictionaryStringColumn() {
+      return ((bitField0_ & 0x00000200) == 0x00000200);
+    }
+    /**
+     * <code>optional .DictionaryStringColumnMessage dictionary_string_column = 11;</code>
+     *
+     * <pre>
+     * STRING, dictionary-encoded
+     * </pre>
+     */
+    public edu.washington.escience.myria.proto.DataProto.DictionaryStringColumnMessage getDictionaryStringColumn() {
+      return dictionaryStringColumn_;
+    }
+    /**
+     * <code>optional .DictionaryStringColumnMessage dictionary_string_column = 11;</code>
+     *
+     * <pre>
+     * STRING, dictionary-encoded
+     * </pre>
+     */
+    public edu.washington.escience.myria.proto.DataProto.DictionaryStringColumnMessageOrBuilder getDictionaryStringColumnOrBuilder() {
+      return dictionaryStringColumn_;
+    }
+
+    public static final int CONSTANT_COLUMN_FIELD_NUMBER = 12;
+    private edu.washington.escience.myria.proto.DataProto.ConstantColumnMessage constantColumn_;
+    /**
+     * <code>optional .ConstantColumnMessage constant_column = 12;</code>
+     *
+     * <pre>
+     * Encodings of a column of any of the types above. At most one is set, instead of the members above.
+     * </pre>
+     */
+    public boolean hasConstantColumn() {
+      return ((bitField0_ & 0x00000400) == 0x00000400);
+    }
+    /**
+     * <code>optional .ConstantColumnMessage constant_column = 12;</code>
+     *
+     * <pre>
+     * Encodings of a column of any of the types above. At most one is set, instead of the members above.
+     * </pre>
+     */
+    public edu.washington.escience.myria.proto.DataProto.ConstantColumnMessage getConstantColumn() {
+      return constantColumn_;
+    }
+    /**
+     * <code>optional .ConstantColumnMessage constant_column = 12;</code>
+     *
+     * <pre>
+     * Encodings of a column of any of the types above. At most one is set, instead of the members above.
+     * </pre>
+     */
+    public edu.washington.escience.myria.proto.DataProto.ConstantColumnMessageOrBuilder getConstantColumnOrBuilder() {
+      return constantColumn_;
+    }
+
+    public static final int RUN_LENGTH_COLUMN_FIELD_NUMBER = 13;
+    private edu.washington.escience.myria.proto.DataProto.RunLengthColumnMessage runLengthColumn_;
+    /**
+     * <code>optional .RunLengthColumnMessage run_length_column = 13;</code>
+     */
+    public boolean hasRunLengthColumn() {
+      return ((bitField0_ & 0x00000800) == 0x00000800);
+    }
+    /**
+     * <code>optional .RunLengthColumnMessage run_length_column = 13;</code>
+     */
+    public edu.washington.escience.myria.proto.DataProto.RunLengthColumnMessage getRunLengthColumn() {
+      return runLengthColumn_;
+    }
+    /**
+     * <code>optional .RunLengthColumnMessage run_length_column = 13;</code>
+     */
+    public edu.washington.escience.myria.proto.DataProto.RunLengthColumnMessageOrBuilder getRunLengthColumnOrBuilder() {
+      return runLengthColumn_;
+    }
+
+    public static final int DELTA_COLUMN_FIELD_NUMBER = 14;
+    private edu.washington.escience.myria.proto.DataProto.DeltaColumnMessage deltaColumn_;
+    /**
+     * <code>optional .DeltaColumnMessage delta_column = 14;</code>
+     *
+     * <pre>
+     * INT and LONG only
+     * </pre>
+     */
+    public boolean hasDeltaColumn() {
+      return ((bitField0_ & 0x00001000) == 0x00001000);
+    }
+    /**
+     * <code>optional .DeltaColumnMessage delta_column = 14;</code>
+     *
+     * <pre>
+     * INT and LONG only
+     * </pre>
+     */
+    public edu.washington.escience.myria.proto.DataProto.DeltaColumnMessage getDeltaColumn() {
+      return deltaColumn_;
+    }
+    /**
+     * <code>optional .DeltaColumnMessage delta_column = 14;</code>
+     *
+     * <pre>
+     * INT and LONG only
+     * </pre>
+     */
+    public edu.washington.escience.myria.proto.DataProto.DeltaColumnMessageOrBuilder getDeltaColumnOrBuilder() {
+      return deltaColumn_;
+    }
+
     private void initFields() {
       type_ = edu.washington.escience.myria.proto.DataProto.ColumnMessage.Type.INT;
       intColumn_ = edu.washington.escience.myria.proto.DataProto.IntColumnMessage.getDefaultInstance();
@@ -1795,6 +2055,10 @@ public final class DataProto {
       booleanColumn_ = edu.washington.escience.myria.proto.DataProto.BooleanColumnMessage.getDefaultInstance();
       dateColumn_ = edu.washington.escience.myria.proto.DataProto.DateTimeColumnMessage.getDefaultInstance();
       blobColumn_ = edu.washington.escience.myria.proto.DataProto.BlobColumnMessage.getDefaultInstance();
+      dictionaryStringColumn_ = edu.washington.escience.myria.proto.DataProto.DictionaryStringColumnMessage.getDefaultInstance();
+      constantColumn_ = edu.washington.escience.myria.proto.DataProto.ConstantColumnMessage.getDefaultInstance();
+      runLengthColumn_ = edu.washington.escience.myria.proto.DataProto.RunLengthColumnMessage.getDefaultInstance();
+      deltaColumn_ = edu.washington.escience.myria.proto.DataProto.DeltaColumnMessage.getDefaultInstance();
     }
     private byte memoizedIsInitialized = -1;
     public final boolean isInitialized() {
@@ -1854,6 +2118,30 @@ public final class DataProto {
           return false;
         }
       }
+      if (hasDictionaryStringColumn()) {
+        if (!getDictionaryStringColumn().isInitialized()) {
+          memoizedIsInitialized = 0;
+          return false;
+        }
+      }
+      if (hasConstantColumn()) {
+        if (!getConstantColumn().isInitialized()) {
+          memoizedIsInitialized = 0;
+          return false;
+        }
+      }
+      if (hasRunLengthColumn()) {
+        if (!getRunLengthColumn().isInitialized()) {
+          memoizedIsInitialized = 0;
+          return false;
+        }
+      }
+      if (hasDeltaColumn()) {
+        if (!getDeltaColumn().isInitialized()) {
+          memoizedIsInitialized = 0;
+          return false;
+        }
+      }
       memoizedIsInitialized = 1;
       return true;
     }
@@ -1888,6 +2176,18 @@ public final class DataProto {
       if (((bitField0_ & 0x00000100) == 0x00000100)) {
         output.writeMessage(10, blobColumn_);
       }
+      if (((bitField0_ & 0x00000200) == 0x00000200)) {
+        output.writeMessage(11, dictionaryStringColumn_);
+      }
+      if (((bitField0_ & 0x00000400) == 0x00000400)) {
+        output.writeMessage(12, constantColumn_);
+      }
+      if (((bitField0_ & 0x00000800) == 0x00000800)) {
+        output.writeMessage(13, runLengthColumn_);
+      }
+      if (((bitField0_ & 0x00001000) == 0x00001000)) {
+        output.writeMessage(14, deltaColumn_);
+      }
       getUnknownFields().writeTo(output);
     }
 
@@ -1933,6 +2233,22 @@ public final class DataProto {
         size += com.google.protobuf.CodedOutputStream
           .computeMessageSize(10, blobColumn_);
       }
+      if (((bitField0_ & 0x00000200) == 0x00000200)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(11, dictionaryStringColumn_);
+      }
+      if (((bitField0_ & 0x00000400) == 0x00000400)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(12, constantColumn_);
+      }
+      if (((bitField0_ & 0x00000800) == 0x00000800)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(13, runLengthColumn_);
+      }
+      if (((bitField0_ & 0x00001000) == 0x00001000)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(14, deltaColumn_);
+      }
       size += getUnknownFields().getSerializedSize();
       memoizedSerializedSize = size;
       return size;
@@ -2050,6 +2366,10 @@ public final class DataProto {
           getBooleanColumnFieldBuilder();
           getDateColumnFieldBuilder();
           getBlobColumnFieldBuilder();
+          getDictionaryStringColumnFieldBuilder();
+          getConstantColumnFieldBuilder();
+          getRunLengthColumnFieldBuilder();
+          getDeltaColumnFieldBuilder();
         }
       }
       private static Builder create() {
@@ -2108,6 +2428,30 @@ public final class DataProto {
           blobColumnBuilder_.clear();
         }
         bitField0_ = (bitField0_ & ~0x00000100);
+        if (dictionaryStringColumnBuilder_ == null) {
+          dictionaryStringColumn_ = edu.washington.escience.myria.proto.DataProto.DictionaryStringColumnMessage.getDefaultInstance();
+        } else {
+          dictionaryStringColumnBuilder_.clear();
+        }
+        bitField0_ = (bitField0_ & ~0x00000200);
+        if (constantColumnBuilder_ == null) {
+          constantColumn_ = edu.washington.escience.myria.proto.DataProto.ConstantColumnMessage.getDefaultInstance();
+        } else {
+          constantColumnBuilder_.clear();
+        }
+        bitField0_ = (bitField0_ & ~0x00000400);
+        if (runLengthColumnBuilder_ == null) {
+          runLengthColumn_ = edu.washington.escience.myria.proto.DataProto.RunLengthColumnMessage.getDefaultInstance();
+        } else {
+          runLengthColumnBuilder_.clear();
+        }
+        bitField0_ = (bitField0_ & ~0x00000800);
+        if (deltaColumnBuilder_ == null) {
+          deltaColumn_ = edu.washington.escience.myria.proto.DataProto.DeltaColumnMessage.getDefaultInstance();
+        } else {
+          deltaColumnBuilder_.clear();
+        }
+        bitField0_ = (bitField0_ & ~0x00001000);
         return this;
       }
 
@@ -2204,6 +2548,38 @@ public final class DataProto {
         } else {
           result.blobColumn_ = blobColumnBuilder_.build();
         }
+        if (((from_bitField0_ & 0x00000200) == 0x00000200)) {
+          to_bitField0_ |= 0x00000200;
+        }
+        if (dictionaryStringColumnBuilder_ == null) {
+          result.dictionaryStringColumn_ = dictionaryStringColumn_;
+        } else {
+          result.dictionaryStringColumn_ = dictionaryStringColumnBuilder_.build();
+        }
+        if (((from_bitField0_ & 0x00000400) == 0x00000400)) {
+          to_bitField0_ |= 0x00000400;
+        }
+        if (constantColumnBuilder_ == null) {
+          result.constantColumn_ = constantColumn_;
+        } else {
+          result.constantColumn_ = constantColumnBuilder_.build();
+        }
+        if (((from_bitField0_ & 0x00000800) == 0x00000800)) {
+          to_bitField0_ |= 0x00000800;
+        }
+        if (runLengthColumnBuilder_ == null) {
+          result.runLengthColumn_ = runLengthColumn_;
+        } else {
+          result.runLengthColumn_ = runLengthColumnBuilder_.build();
+        }
+        if (((from_bitField0_ & 0x00001000) == 0x00001000)) {
+          to_bitField0_ |= 0x00001000;
+        }
+        if (deltaColumnBuilder_ == null) {
+          result.deltaColumn_ = deltaColumn_;
+        } else {
+          result.deltaColumn_ = deltaColumnBuilder_.build();
+        }
         result.bitField0_ = to_bitField0_;
         onBuilt();
         return result;
@@ -2247,6 +2623,18 @@ public final class DataProto {
         if (other.hasBlobColumn()) {
           mergeBlobColumn(other.getBlobColumn());
         }
+        if (other.hasDictionaryStringColumn()) {
+          mergeDictionaryStringColumn(other.getDictionaryStringColumn());
+        }
+        if (other.hasConstantColumn()) {
+          mergeConstantColumn(other.getConstantColumn());
+        }
+        if (other.hasRunLengthColumn()) {
+          mergeRunLengthColumn(other.getRunLengthColumn());
+        }
+        if (other.hasDeltaColumn()) {
+          mergeDeltaColumn(other.getDeltaColumn());
+        }
         this.mergeUnknownFields(other.getUnknownFields());
         return this;
       }
@@ -2304,6 +2692,30 @@ public final class DataProto {
             return false;
           }
         }
+        if (hasDictionaryStringColumn()) {
+          if (!getDictionaryStringColumn().isInitialized()) {
+            
+            return false;
+          }
+        }
+        if (hasConstantColumn()) {
+          if (!getConstantColumn().isInitialized()) {
+            
+            return false;
+          }
+        }
+        if (hasRunLengthColumn()) {
+          if (!getRunLengthColumn().isInitialized()) {
+            
+            return false;
+          }
+        }
+        if (hasDeltaColumn()) {
+          if (!getDeltaColumn().isInitialized()) {
+            
+            return false;
+          }
+        }
         return true;
       }
 
@@ -3305,52 +3717,3093 @@ public final class DataProto {
         return blobColumnBuilder_;
       }
 
-      // @@protoc_insertion_point(builder_scope:ColumnMessage)
-    }
-
-    static {
-      defaultInstance = new ColumnMessage(true);
-      defaultInstance.initFields();
-    }
-
-    // @@protoc_insertion_point(class_scope:ColumnMessage)
-  }
-
-  public interface IntColumnMessageOrBuilder extends
-      // @@protoc_insertion_point(interface_extends:IntColumnMessage)
-      com.google.protobuf.MessageOrBuilder {
-
-    /**
-     * <code>required bytes data = 1;</code>
-     */
-    boolean hasData();
-    /**
-     * <code>required bytes data = 1;</code>
-     */
-    com.google.protobuf.ByteString getData();
-  }
-  /**
-   * Protobuf type {@code IntColumnMessage}
-   */
-  public static final class IntColumnMessage extends
-      com.google.protobuf.GeneratedMessage implements
-      // @@protoc_insertion_point(message_implements:IntColumnMessage)
-      IntColumnMessageOrBuilder {
-    // Use IntColumnMessage.newBuilder() to construct.
-    private IntColumnMessage(com.google.protobuf.GeneratedMessage.Builder<?> builder) {
-      super(builder);
-      this.unknownFields = builder.getUnknownFields();
-    }
-    private IntColumnMessage(boolean noInit) { this.unknownFields = com.google.protobuf.UnknownFieldSet.getDefaultInstance(); }
-
-    private static final IntColumnMessage defaultInstance;
-    public static IntColumnMessage getDefaultInstance() {
-      return defaultInstance;
-    }
-
-    public IntColumnMessage getDefaultInstanceForType() {
-      return defaultInstance;
-    }
+      private edu.washington.escience.myria.proto.DataProto.DictionaryStringColumnMessage dictionaryStringColumn_ = edu.washington.escience.myria.proto.DataProto.DictionaryStringColumnMessage.getDefaultInstance();
+      private com.google.protobuf.SingleFieldBuilder<
+          edu.washington.escience.myria.proto.DataProto.DictionaryStringColumnMessage, edu.washington.escience.myria.proto.DataProto.DictionaryStringColumnMessage.Builder, edu.washington.escience.myria.proto.DataProto.DictionaryStringColumnMessageOrBuilder> dictionaryStringColumnBuilder_;
+      /**
+       * <code>optional .DictionaryStringColumnMessage dictionary_string_column = 11;</code>
+       *
+       * <pre>
+       * STRING, dictionary-encoded
+       * </pre>
+       */
+      public boolean hasDictionaryStringColumn() {
+        return ((bitField0_ & 0x00000200) == 0x00000200);
+      }
+      /**
+       * <code>optional .DictionaryStringColumnMessage dictionary_string_column = 11;</code>
+       *
+       * <pre>
+       * STRING, dictionary-encoded
+       * </pre>
+       */
+      public edu.washington.escience.myria.proto.DataProto.DictionaryStringColumnMessage getDictionaryStringColumn() {
+        if (dictionaryStringColumnBuilder_ == null) {
+          return dictionaryStringColumn_;
+        } else {
+          return dictionaryStringColumnBuilder_.getMessage();
+        }
+      }
+      /**
+       * <code>optional .DictionaryStringColumnMessage dictionary_string_column = 11;</code>
+       *
+       * <pre>
+       * STRING, dictionary-encoded
+       * </pre>
+       */
+      public Builder setDictionaryStringColumn(edu.washington.escience.myria.proto.DataProto.DictionaryStringColumnMessage value) {
+        if (dictionaryStringColumnBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          dictionaryStringColumn_ = value;
+          onChanged();
+        } else {
+          dictionaryStringColumnBuilder_.setMessage(value);
+        }
+        bitField0_ |= 0x00000200;
+        return this;
+      }
+      /**
+       * <code>optional .DictionaryStringColumnMessage dictionary_string_column = 11;</code>
+       *
+       * <pre>
+       * STRING, dictionary-encoded
+       * </pre>
+       */
+      public Builder setDictionaryStringColumn(
+          edu.washington.escience.myria.proto.DataProto.DictionaryStringColumnMessage.Builder builderForValue) {
+        if (dictionaryStringColumnBuilder_ == null) {
+          dictionaryStringColumn_ = builderForValue.build();
+          onChanged();
+        } else {
+          dictionaryStringColumnBuilder_.setMessage(builderForValue.build());
+        }
+        bitField0_ |= 0x00000200;
+        return this;
+      }
+      /**
+       * <code>optional .DictionaryStringColumnMessage dictionary_string_column = 11;</code>
+       *
+       * <pre>
+       * STRING, dictionary-encoded
+       * </pre>
+       */
+      public Builder mergeDictionaryStringColumn(edu.washington.escience.myria.proto.DataProto.DictionaryStringColumnMessage value) {
+        if (dictionaryStringColumnBuilder_ == null) {
+          if (((bitField0_ & 0x00000200) == 0x00000200) &&
+              dictionaryStringColumn_ != edu.washington.escience.myria.proto.DataProto.DictionaryStringColumnMessage.getDefaultInstance()) {
+            dictionaryStringColumn_ =
+              edu.washington.escience.myria.proto.DataProto.DictionaryStringColumnMessage.newBuilder(dictionaryStringColumn_).mergeFrom(value).buildPartial();
+          } else {
+            dictionaryStringColumn_ = value;
+          }
+          onChanged();
+        } else {
+          dictionaryStringColumnBuilder_.mergeFrom(value);
+        }
+        bitField0_ |= 0x00000200;
+        return this;
+      }
+      /**
+       * <code>optional .DictionaryStringColumnMessage dictionary_string_column = 11;</code>
+       *
+       * <pre>
+       * STRING, dictionary-encoded
+       * </pre>
+       */
+      public Builder clearDictionaryStringColumn() {
+        if (dictionaryStringColumnBuilder_ == null) {
+          dictionaryStringColumn_ = edu.washington.escience.myria.proto.DataProto.DictionaryStringColumnMessage.getDefaultInstance();
+          onChanged();
+        } else {
+          dictionaryStringColumnBuilder_.clear();
+        }
+        bitField0_ = (bitField0_ & ~0x00000200);
+        return this;
+      }
+      /**
+       * <code>optional .DictionaryStringColumnMessage dictionary_string_column = 11;</code>
+       *
+       * <pre>
+       * STRING, dictionary-encoded
+       * </pre>
+       */
+      public edu.washington.escience.myria.proto.DataProto.DictionaryStringColumnMessage.Builder getDictionaryStringColumnBuilder() {
+        bitField0_ |= 0x00000200;
+        onChanged();
+        return getDictionaryStringColumnFieldBuilder().getBuilder();
+      }
+      /**
+       * <code>optional .DictionaryStringColumnMessage dictionary_string_column = 11;</code>
+       *
+       * <pre>
+       * STRING, dictionary-encoded
+       * </pre>
+       */
+      public edu.washington.escience.myria.proto.DataProto.DictionaryStringColumnMessageOrBuilder getDictionaryStringColumnOrBuilder() {
+        if (dictionaryStringColumnBuilder_ != null) {
+          return dictionaryStringColumnBuilder_.getMessageOrBuilder();
+        } else {
+          return dictionaryStringColumn_;
+        }
+      }
+      /**
+       * <code>optional .DictionaryStringColumnMessage dictionary_string_column = 11;</code>
+       *
+       * <pre>
+       * STRING, dictionary-encoded
+       * </pre>
+       */
+      private com.google.protobuf.SingleFieldBuilder<
+          edu.washington.escience.myria.proto.DataProto.DictionaryStringColumnMessage, edu.washington.escience.myria.proto.DataProto.DictionaryStringColumnMessage.Builder, edu.washington.escience.myria.proto.DataProto.DictionaryStringColumnMessageOrBuilder> 
+          getDictionaryStringColumnFieldBuilder() {
+        if (dictionaryStringColumnBuilder_ == null) {
+          dictionaryStringColumnBuilder_ = new com.google.protobuf.SingleFieldBuilder<
+              edu.washington.escience.myria.proto.DataProto.DictionaryStringColumnMessage, edu.washington.escience.myria.proto.DataProto.DictionaryStringColumnMessage.Builder, edu.washington.escience.myria.proto.DataProto.DictionaryStringColumnMessageOrBuilder>(
+                  getDictionaryStringColumn(),
+                  getParentForChildren(),
+                  isClean());
+          dictionaryStringColumn_ = null;
+        }
+        return dictionaryStringColumnBuilder_;
+      }
+
+      private edu.washington.escience.myria.proto.DataProto.ConstantColumnMessage constantColumn_ = edu.washington.escience.myria.proto.DataProto.ConstantColumnMessage.getDefaultInstance();
+      private com.google.protobuf.SingleFieldBuilder<
+          edu.washington.escience.myria.proto.DataProto.ConstantColumnMessage, edu.washington.escience.myria.proto.DataProto.ConstantColumnMessage.Builder, edu.washington.escience.myria.proto.DataProto.ConstantColumnMessageOrBuilder> constantColumnBuilder_;
+      /**
+       * <code>optional .ConstantColumnMessage constant_column = 12;</code>
+       *
+       * <pre>
+       * Encodings of a column of any of the types above. At most one is set, instead of the members above.
+       * </pre>
+       */
+      public boolean hasConstantColumn() {
+        return ((bitField0_ & 0x00000400) == 0x00000400);
+      }
+      /**
+       * <code>optional .ConstantColumnMessage constant_column = 12;</code>
+       *
+       * <pre>
+       * Encodings of a column of any of the types above. At most one is set, instead of the members above.
+       * </pre>
+       */
+      public edu.washington.escience.myria.proto.DataProto.ConstantColumnMessage getConstantColumn() {
+        if (constantColumnBuilder_ == null) {
+          return constantColumn_;
+        } else {
+          return constantColumnBuilder_.getMessage();
+        }
+      }
+      /**
+       * <code>optional .ConstantColumnMessage constant_column = 12;</code>
+       *
+       * <pre>
+       * Encodings of a column of any of the types above. At most one is set, instead of the members above.
+       * </pre>
+       */
+      public Builder setConstantColumn(edu.washington.escience.myria.proto.DataProto.ConstantColumnMessage value) {
+        if (constantColumnBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          constantColumn_ = value;
+          onChanged();
+        } else {
+          constantColumnBuilder_.setMessage(value);
+        }
+        bitField0_ |= 0x00000400;
+        return this;
+      }
+      /**
+       * <code>optional .ConstantColumnMessage constant_column = 12;</code>
+       *
+       * <pre>
+       * Encodings of a column of any of the types above. At most one is set, instead of the members above.
+       * </pre>
+       */
+      public Builder setConstantColumn(
+          edu.washington.escience.myria.proto.DataProto.ConstantColumnMessage.Builder builderForValue) {
+        if (constantColumnBuilder_ == null) {
+          constantColumn_ = builderForValue.build();
+          onChanged();
+        } else {
+          constantColumnBuilder_.setMessage(builderForValue.build());
+        }
+        bitField0_ |= 0x00000400;
+        return this;
+      }
+      /**
+       * <code>optional .ConstantColumnMessage constant_column = 12;</code>
+       *
+       * <pre>
+       * Encodings of a column of any of the types above. At most one is set, instead of the members above.
+       * </pre>
+       */
+      public Builder mergeConstantColumn(edu.washington.escience.myria.proto.DataProto.ConstantColumnMessage value) {
+        if (constantColumnBuilder_ == null) {
+          if (((bitField0_ & 0x00000400) == 0x00000400) &&
+              constantColumn_ != edu.washington.escience.myria.proto.DataProto.ConstantColumnMessage.getDefaultInstance()) {
+            constantColumn_ =
+              edu.washington.escience.myria.proto.DataProto.ConstantColumnMessage.newBuilder(constantColumn_).mergeFrom(value).buildPartial();
+          } else {
+            constantColumn_ = value;
+          }
+          onChanged();
+        } else {
+          constantColumnBuilder_.mergeFrom(value);
+        }
+        bitField0_ |= 0x00000400;
+        return this;
+      }
+      /**
+       * <code>optional .ConstantColumnMessage constant_column = 12;</code>
+       *
+       * <pre>
+       * Encodings of a column of any of the types above. At most one is set, instead of the members above.
+       * </pre>
+       */
+      public Builder clearConstantColumn() {
+        if (constantColumnBuilder_ == null) {
+          constantColumn_ = edu.washington.escience.myria.proto.DataProto.ConstantColumnMessage.getDefaultInstance();
+          onChanged();
+        } else {
+          constantColumnBuilder_.clear();
+        }
+        bitField0_ = (bitField0_ & ~0x00000400);
+        return this;
+      }
+      /**
+       * <code>optional .ConstantColumnMessage constant_column = 12;</code>
+       *
+       * <pre>
+       * Encodings of a column of any of the types above. At most one is set, instead of the members above.
+       * </pre>
+       */
+      public edu.washington.escience.myria.proto.DataProto.ConstantColumnMessage.Builder getConstantColumnBuilder() {
+        bitField0_ |= 0x00000400;
+        onChanged();
+        return getConstantColumnFieldBuilder().getBuilder();
+      }
+      /**
+       * <code>optional .ConstantColumnMessage constant_column = 12;</code>
+       *
+       * <pre>
+       * Encodings of a column of any of the types above. At most one is set, instead of the members above.
+       * </pre>
+       */
+      public edu.washington.escience.myria.proto.DataProto.ConstantColumnMessageOrBuilder getConstantColumnOrBuilder() {
+        if (constantColumnBuilder_ != null) {
+          return constantColumnBuilder_.getMessageOrBuilder();
+        } else {
+          return constantColumn_;
+        }
+      }
+      /**
+       * <code>optional .ConstantColumnMessage constant_column = 12;</code>
+       *
+       * <pre>
+       * Encodings of a column of any of the types above. At most one is set, instead of the members above.
+       * </pre>
+       */
+      private com.google.protobuf.SingleFieldBuilder<
+          edu.washington.escience.myria.proto.DataProto.ConstantColumnMessage, edu.washington.escience.myria.proto.DataProto.ConstantColumnMessage.Builder, edu.washington.escience.myria.proto.DataProto.ConstantColumnMessageOrBuilder> 
+          getConstantColumnFieldBuilder() {
+        if (constantColumnBuilder_ == null) {
+          constantColumnBuilder_ = new com.google.protobuf.SingleFieldBuilder<
+              edu.washington.escience.myria.proto.DataProto.ConstantColumnMessage, edu.washington.escience.myria.proto.DataProto.ConstantColumnMessage.Builder, edu.washington.escience.myria.proto.DataProto.ConstantColumnMessageOrBuilder>(
+                  getConstantColumn(),
+                  getParentForChildren(),
+                  isClean());
+          constantColumn_ = null;
+        }
+        return constantColumnBuilder_;
+      }
+
+      private edu.washington.escience.myria.proto.DataProto.RunLengthColumnMessage runLengthColumn_ = edu.washington.escience.myria.proto.DataProto.RunLengthColumnMessage.getDefaultInstance();
+      private com.google.protobuf.SingleFieldBuilder<
+          edu.washington.escience.myria.proto.DataProto.RunLengthColumnMessage, edu.washington.escience.myria.proto.DataProto.RunLengthColumnMessage.Builder, edu.washington.escience.myria.proto.DataProto.RunLengthColumnMessageOrBuilder> runLengthColumnBuilder_;
+      /**
+       * <code>optional .RunLengthColumnMessage run_length_column = 13;</code>
+       */
+      public boolean hasRunLengthColumn() {
+        return ((bitField0_ & 0x00000800) == 0x00000800);
+      }
+      /**
+       * <code>optional .RunLengthColumnMessage run_length_column = 13;</code>
+       */
+      public edu.washington.escience.myria.proto.DataProto.RunLengthColumnMessage getRunLengthColumn() {
+        if (runLengthColumnBuilder_ == null) {
+          return runLengthColumn_;
+        } else {
+          return runLengthColumnBuilder_.getMessage();
+        }
+      }
+      /**
+       * <code>optional .RunLengthColumnMessage run_length_column = 13;</code>
+       */
+      public Builder setRunLengthColumn(edu.washington.escience.myria.proto.DataProto.RunLengthColumnMessage value) {
+        if (runLengthColumnBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          runLengthColumn_ = value;
+          onChanged();
+        } else {
+          runLengthColumnBuilder_.setMessage(value);
+        }
+        bitField0_ |= 0x00000800;
+        return this;
+      }
+      /**
+       * <code>optional .RunLengthColumnMessage run_length_column = 13;</code>
+       */
+      public Builder setRunLengthColumn(
+          edu.washington.escience.myria.proto.DataProto.RunLengthColumnMessage.Builder builderForValue) {
+        if (runLengthColumnBuilder_ == null) {
+          runLengthColumn_ = builderForValue.build();
+          onChanged();
+        } else {
+          runLengthColumnBuilder_.setMessage(builderForValue.build());
+        }
+        bitField0_ |= 0x00000800;
+        return this;
+      }
+      /**
+       * <code>optional .RunLengthColumnMessage run_length_column = 13;</code>
+       */
+      public Builder mergeRunLengthColumn(edu.washington.escience.myria.proto.DataProto.RunLengthColumnMessage value) {
+        if (runLengthColumnBuilder_ == null) {
+          if (((bitField0_ & 0x00000800) == 0x00000800) &&
+              runLengthColumn_ != edu.washington.escience.myria.proto.DataProto.RunLengthColumnMessage.getDefaultInstance()) {
+            runLengthColumn_ =
+              edu.washington.escience.myria.proto.DataProto.RunLengthColumnMessage.newBuilder(runLengthColumn_).mergeFrom(value).buildPartial();
+          } else {
+            runLengthColumn_ = value;
+          }
+          onChanged();
+        } else {
+          runLengthColumnBuilder_.mergeFrom(value);
+        }
+        bitField0_ |= 0x00000800;
+        return this;
+      }
+      /**
+       * <code>optional .RunLengthColumnMessage run_length_column = 13;</code>
+       */
+      public Builder clearRunLengthColumn() {
+        if (runLengthColumnBuilder_ == null) {
+          runLengthColumn_ = edu.washington.escience.myria.proto.DataProto.RunLengthColumnMessage.getDefaultInstance();
+          onChanged();
+        } else {
+          runLengthColumnBuilder_.clear();
+        }
+        bitField0_ = (bitField0_ & ~0x00000800);
+        return this;
+      }
+      /**
+       * <code>optional .RunLengthColumnMessage run_length_column = 13;</code>
+       */
+      public edu.washington.escience.myria.proto.DataProto.RunLengthColumnMessage.Builder getRunLengthColumnBuilder() {
+        bitField0_ |= 0x00000800;
+        onChanged();
+        return getRunLengthColumnFieldBuilder().getBuilder();
+      }
+      /**
+       * <code>optional .RunLengthColumnMessage run_length_column = 13;</code>
+       */
+      public edu.washington.escience.myria.proto.DataProto.RunLengthColumnMessageOrBuilder getRunLengthColumnOrBuilder() {
+        if (runLengthColumnBuilder_ != null) {
+          return runLengthColumnBuilder_.getMessageOrBuilder();
+        } else {
+          return runLengthColumn_;
+        }
+      }
+      /**
+       * <code>optional .RunLengthColumnMessage run_length_column = 13;</code>
+       */
+      private com.google.protobuf.SingleFieldBuilder<
+          edu.washington.escience.myria.proto.DataProto.RunLengthColumnMessage, edu.washington.escience.myria.proto.DataProto.RunLengthColumnMessage.Builder, edu.washington.escience.myria.proto.DataProto.RunLengthColumnMessageOrBuilder> 
+          getRunLengthColumnFieldBuilder() {
+        if (runLengthColumnBuilder_ == null) {
+          runLengthColumnBuilder_ = new com.google.protobuf.SingleFieldBuilder<
+              edu.washington.escience.myria.proto.DataProto.RunLengthColumnMessage, edu.washington.escience.myria.proto.DataProto.RunLengthColumnMessage.Builder, edu.washington.escience.myria.proto.DataProto.RunLengthColumnMessageOrBuilder>(
+                  getRunLengthColumn(),
+                  getParentForChildren(),
+                  isClean());
+          runLengthColumn_ = null;
+        }
+        return runLengthColumnBuilder_;
+      }
+
+      private edu.washington.escience.myria.proto.DataProto.DeltaColumnMessage deltaColumn_ = edu.washington.escience.myria.proto.DataProto.DeltaColumnMessage.getDefaultInstance();
+      private com.google.protobuf.SingleFieldBuilder<
+          edu.washington.escience.myria.proto.DataProto.DeltaColumnMessage, edu.washington.escience.myria.proto.DataProto.DeltaColumnMessage.Builder, edu.washington.escience.myria.proto.DataProto.DeltaColumnMessageOrBuilder> deltaColumnBuilder_;
+      /**
+       * <code>optional .DeltaColumnMessage delta_column = 14;</code>
+       *
+       * <pre>
+       * INT and LONG only
+       * </pre>
+       */
+      public boolean hasDeltaColumn() {
+        return ((bitField0_ & 0x00001000) == 0x00001000);
+      }
+      /**
+       * <code>optional .DeltaColumnMessage delta_column = 14;</code>
+       *
+       * <pre>
+       * INT and LONG only
+       * </pre>
+       */
+      public edu.washington.escience.myria.proto.DataProto.DeltaColumnMessage getDeltaColumn() {
+        if (deltaColumnBuilder_ == null) {
+          return deltaColumn_;
+        } else {
+          return deltaColumnBuilder_.getMessage();
+        }
+      }
+      /**
+       * <code>optional .DeltaColumnMessage delta_column = 14;</code>
+       *
+       * <pre>
+       * INT and LONG only
+       * </pre>
+       */
+      public Builder setDeltaColumn(edu.washington.escience.myria.proto.DataProto.DeltaColumnMessage value) {
+        if (deltaColumnBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          deltaColumn_ = value;
+          onChanged();
+        } else {
+          deltaColumnBuilder_.setMessage(value);
+        }
+        bitField0_ |= 0x00001000;
+        return this;
+      }
+      /**
+       * <code>optional .DeltaColumnMessage delta_column = 14;</code>
+       *
+       * <pre>
+       * INT and LONG only
+       * </pre>
+       */
+      public Builder setDeltaColumn(
+          edu.washington.escience.myria.proto.DataProto.DeltaColumnMessage.Builder builderForValue) {
+        if (deltaColumnBuilder_ == null) {
+          deltaColumn_ = builderForValue.build();
+          onChanged();
+        } else {
+          deltaColumnBuilder_.setMessage(builderForValue.build());
+        }
+        bitField0_ |= 0x00001000;
+        return this;
+      }
+      /**
+       * <code>optional .DeltaColumnMessage delta_column = 14;</code>
+       *
+       * <pre>
+       * INT and LONG only
+       * </pre>
+       */
+      public Builder mergeDeltaColumn(edu.washington.escience.myria.proto.DataProto.DeltaColumnMessage value) {
+        if (deltaColumnBuilder_ == null) {
+          if (((bitField0_ & 0x00001000) == 0x00001000) &&
+              deltaColumn_ != edu.washington.escience.myria.proto.DataProto.DeltaColumnMessage.getDefaultInstance()) {
+            deltaColumn_ =
+              edu.washington.escience.myria.proto.DataProto.DeltaColumnMessage.newBuilder(deltaColumn_).mergeFrom(value).buildPartial();
+          } else {
+            deltaColumn_ = value;
+          }
+          onChanged();
+        } else {
+          deltaColumnBuilder_.mergeFrom(value);
+        }
+        bitField0_ |= 0x00001000;
+        return this;
+      }
+      /**
+       * <code>optional .DeltaColumnMessage delta_column = 14;</code>
+       *
+       * <pre>
+       * INT and LONG only
+       * </pre>
+       */
+      public Builder clearDeltaColumn() {
+        if (deltaColumnBuilder_ == null) {
+          deltaColumn_ = edu.washington.escience.myria.proto.DataProto.DeltaColumnMessage.getDefaultInstance();
+          onChanged();
+        } else {
+          deltaColumnBuilder_.clear();
+        }
+        bitField0_ = (bitField0_ & ~0x00001000);
+        return this;
+      }
+      /**
+       * <code>optional .DeltaColumnMessage delta_column = 14;</code>
+       *
+       * <pre>
+       * INT and LONG only
+       * </pre>
+       */
+      public edu.washington.escience.myria.proto.DataProto.DeltaColumnMessage.Builder getDeltaColumnBuilder() {
+        bitField0_ |= 0x00001000;
+        onChanged();
+        return getDeltaColumnFieldBuilder().getBuilder();
+      }
+      /**
+       * <code>optional .DeltaColumnMessage delta_column = 14;</code>
+       *
+       * <pre>
+       * INT and LONG only
+       * </pre>
+       */
+      public edu.washington.escience.myria.proto.DataProto.DeltaColumnMessageOrBuilder getDeltaColumnOrBuilder() {
+        if (deltaColumnBuilder_ != null) {
+          return deltaColumnBuilder_.getMessageOrBuilder();
+        } else {
+          return deltaColumn_;
+        }
+      }
+      /**
+       * <code>optional .DeltaColumnMessage delta_column = 14;</code>
+       *
+       * <pre>
+       * INT and LONG only
+       * </pre>
+       */
+      private com.google.protobuf.SingleFieldBuilder<
+          edu.washington.escience.myria.proto.DataProto.DeltaColumnMessage, edu.washington.escience.myria.proto.DataProto.DeltaColumnMessage.Builder, edu.washington.escience.myria.proto.DataProto.DeltaColumnMessageOrBuilder> 
+          getDeltaColumnFieldBuilder() {
+        if (deltaColumnBuilder_ == null) {
+          deltaColumnBuilder_ = new com.google.protobuf.SingleFieldBuilder<
+              edu.washington.escience.myria.proto.DataProto.DeltaColumnMessage, edu.washington.escience.myria.proto.DataProto.DeltaColumnMessage.Builder, edu.washington.escience.myria.proto.DataProto.DeltaColumnMessageOrBuilder>(
+                  getDeltaColumn(),
+                  getParentForChildren(),
+                  isClean());
+          deltaColumn_ = null;
+        }
+        return deltaColumnBuilder_;
+      }
+
+      // @@protoc_insertion_point(builder_scope:ColumnMessage)
+    }
+
+    static {
+      defaultInstance = new ColumnMessage(true);
+      defaultInstance.initFields();
+    }
+
+    // @@protoc_insertion_point(class_scope:ColumnMessage)
+  }
+
+  public interface ConstantColumnMessageOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:ConstantColumnMessage)
+      com.google.protobuf.MessageOrBuilder {
+
+    /**
+     * <code>required .ColumnMessage value = 1;</code>
+     *
+     * <pre>
+     * a column of one row holding the value of every row
+     * </pre>
+     */
+    boolean hasValue();
+    /**
+     * <code>required .ColumnMessage value = 1;</code>
+     *
+     * <pre>
+     * a column of one row holding the value of every row
+     * </pre>
+     */
+    edu.washington.escience.myria.proto.DataProto.ColumnMessage getValue();
+    /**
+     * <code>required .ColumnMessage value = 1;</code>
+     *
+     * <pre>
+     * a column of one row holding the value of every row
+     * </pre>
+     */
+    edu.washington.escience.myria.proto.DataProto.ColumnMessageOrBuilder getValueOrBuilder();
+  }
+  /**
+   * Protobuf type {@code ConstantColumnMessage}
+   */
+  public static final class ConstantColumnMessage extends
+      com.google.protobuf.GeneratedMessage implements
+      // @@protoc_insertion_point(message_implements:ConstantColumnMessage)
+      ConstantColumnMessageOrBuilder {
+    // Use ConstantColumnMessage.newBuilder() to construct.
+    private ConstantColumnMessage(com.google.protobuf.GeneratedMessage.Builder<?> builder) {
+      super(builder);
+      this.unknownFields = builder.getUnknownFields();
+    }
+    private ConstantColumnMessage(boolean noInit) { this.unknownFields = com.google.protobuf.UnknownFieldSet.getDefaultInstance(); }
+
+    private static final ConstantColumnMessage defaultInstance;
+    public static ConstantColumnMessage getDefaultInstance() {
+      return defaultInstance;
+    }
+
+    public ConstantColumnMessage getDefaultInstanceForType() {
+      return defaultInstance;
+    }
+
+    private final com.google.protobuf.UnknownFieldSet unknownFields;
+    @java.lang.Override
+    public final com.google.protobuf.UnknownFieldSet
+        getUnknownFields() {
+      return this.unknownFields;
+    }
+    private ConstantColumnMessage(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      initFields();
+      int mutable_bitField0_ = 0;
+      com.google.protobuf.UnknownFieldSet.Builder unknownFields =
+          com.google.protobuf.UnknownFieldSet.newBuilder();
+      try {
+        boolean done = false;
+        while (!done) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              done = true;
+              break;
+            default: {
+              if (!parseUnknownField(input, unknownFields,
+                                     extensionRegistry, tag)) {
+                done = true;
+              }
+              break;
+            }
+            case 10: {
+              edu.washington.escience.myria.proto.DataProto.ColumnMessage.Builder subBuilder = null;
+              if (((bitField0_ & 0x00000001) == 0x00000001)) {
+                subBuilder = value_.toBuilder();
+              }
+              value_ = input.readMessage(edu.washington.escience.myria.proto.DataProto.ColumnMessage.PARSER, extensionRegistry);
+              if (subBuilder != null) {
+                subBuilder.mergeFrom(value_);
+                value_ = subBuilder.buildPartial();
+              }
+              bitField0_ |= 0x00000001;
+              break;
+            }
+          }
+        }
+      } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+        throw e.setUnfinishedMessage(this);
+      } catch (java.io.IOException e) {
+        throw new com.google.protobuf.InvalidProtocolBufferException(
+            e.getMessage()).setUnfinishedMessage(this);
+      } finally {
+        this.unknownFields = unknownFields.build();
+        makeExtensionsImmutable();
+      }
+    }
+    public static final com.google.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return edu.washington.escience.myria.proto.DataProto.internal_static_ConstantColumnMessage_descriptor;
+    }
+
+    protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return edu.washington.escience.myria.proto.DataProto.internal_static_ConstantColumnMessage_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              edu.washington.escience.myria.proto.DataProto.ConstantColumnMessage.class, edu.washington.escience.myria.proto.DataProto.ConstantColumnMessage.Builder.class);
+    }
+
+    public static com.google.protobuf.Parser<ConstantColumnMessage> PARSER =
+        new com.google.protobuf.AbstractParser<ConstantColumnMessage>() {
+      public ConstantColumnMessage parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return new ConstantColumnMessage(input, extensionRegistry);
+      }
+    };
+
+    @java.lang.Override
+    public com.google.protobuf.Parser<ConstantColumnMessage> getParserForType() {
+      return PARSER;
+    }
+
+    private int bitField0_;
+    public static final int VALUE_FIELD_NUMBER = 1;
+    private edu.washington.escience.myria.proto.DataProto.ColumnMessage value_;
+    /**
+     * <code>required .ColumnMessage value = 1;</code>
+     *
+     * <pre>
+     * a column of one row holding the value of every row
+     * </pre>
+     */
+    public boolean hasValue() {
+      return ((bitField0_ & 0x00000001) == 0x00000001);
+    }
+    /**
+     * <code>required .ColumnMessage value = 1;</code>
+     *
+     * <pre>
+     * a column of one row holding the value of every row
+     * </pre>
+     */
+    public edu.washington.escience.myria.proto.DataProto.ColumnMessage getValue() {
+      return value_;
+    }
+    /**
+     * <code>required .ColumnMessage value = 1;</code>
+     *
+     * <pre>
+     * a column of one row holding the value of every row
+     * </pre>
+     */
+    public edu.washington.escience.myria.proto.DataProto.ColumnMessageOrBuilder getValueOrBuilder() {
+      return value_;
+    }
+
+    private void initFields() {
+      value_ = edu.washington.escience.myria.proto.DataProto.ColumnMessage.getDefaultInstance();
+    }
+    private byte memoizedIsInitialized = -1;
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
+
+      if (!hasValue()) {
+        memoizedIsInitialized = 0;
+        return false;
+      }
+      if (!getValue().isInitialized()) {
+        memoizedIsInitialized = 0;
+        return false;
+      }
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      getSerializedSize();
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        output.writeMessage(1, value_);
+      }
+      getUnknownFields().writeTo(output);
+    }
+
+    private int memoizedSerializedSize = -1;
+    public int getSerializedSize() {
+      int size = memoizedSerializedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(1, value_);
+      }
+      size += getUnknownFields().getSerializedSize();
+      memoizedSerializedSize = size;
+      return size;
+    }
+
+    private static final long serialVersionUID = 0L;
+    @java.lang.Override
+    protected java.lang.Object writeReplace()
+        throws java.io.ObjectStreamException {
+      return super.writeReplace();
+    }
+
+    public static edu.washington.escience.myria.proto.DataProto.ConstantColumnMessage parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static edu.washington.escience.myria.proto.DataProto.ConstantColumnMessage parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static edu.washington.escience.myria.proto.DataProto.ConstantColumnMessage parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static edu.washington.escience.myria.proto.DataProto.ConstantColumnMessage parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static edu.washington.escience.myria.proto.DataProto.ConstantColumnMessage parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input);
+    }
+    public static edu.washington.escience.myria.proto.DataProto.ConstantColumnMessage parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input, extensionRegistry);
+    }
+    public static edu.washington.escience.myria.proto.DataProto.ConstantColumnMessage parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return PARSER.parseDelimitedFrom(input);
+    }
+    public static edu.washington.escience.myria.proto.DataProto.ConstantColumnMessage parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseDelimitedFrom(input, extensionRegistry);
+    }
+    public static edu.washington.escience.myria.proto.DataProto.ConstantColumnMessage parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input);
+    }
+    public static edu.washington.escience.myria.proto.DataProto.ConstantColumnMessage parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input, extensionRegistry);
+    }
+
+    public static Builder newBuilder() { return Builder.create(); }
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder(edu.washington.escience.myria.proto.DataProto.ConstantColumnMessage prototype) {
+      return newBuilder().mergeFrom(prototype);
+    }
+    public Builder toBuilder() { return newBuilder(this); }
+
+    @java.lang.Override
+    protected Builder newBuilderForType(
+        com.google.protobuf.GeneratedMessage.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * Protobuf type {@code ConstantColumnMessage}
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessage.Builder<Builder> implements
+        // @@protoc_insertion_point(builder_implements:ConstantColumnMessage)
+        edu.washington.escience.myria.proto.DataProto.ConstantColumnMessageOrBuilder {
+      public static final com.google.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return edu.washington.escience.myria.proto.DataProto.internal_static_ConstantColumnMessage_descriptor;
+      }
+
+      protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return edu.washington.escience.myria.proto.DataProto.internal_static_ConstantColumnMessage_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                edu.washington.escience.myria.proto.DataProto.ConstantColumnMessage.class, edu.washington.escience.myria.proto.DataProto.ConstantColumnMessage.Builder.class);
+      }
+
+      // Construct using edu.washington.escience.myria.proto.DataProto.ConstantColumnMessage.newBuilder()
+      private Builder() {
+        maybeForceBuilderInitialization();
+      }
+
+      private Builder(
+          com.google.protobuf.GeneratedMessage.BuilderParent parent) {
+        super(parent);
+        maybeForceBuilderInitialization();
+      }
+      private void maybeForceBuilderInitialization() {
+        if (com.google.protobuf.GeneratedMessage.alwaysUseFieldBuilders) {
+          getValueFieldBuilder();
+        }
+      }
+      private static Builder create() {
+        return new Builder();
+      }
+
+      public Builder clear() {
+        super.clear();
+        if (valueBuilder_ == null) {
+          value_ = edu.washington.escience.myria.proto.DataProto.ColumnMessage.getDefaultInstance();
+        } else {
+          valueBuilder_.clear();
+        }
+        bitField0_ = (bitField0_ & ~0x00000001);
+        return this;
+      }
+
+      public Builder clone() {
+        return create().mergeFrom(buildPartial());
+      }
+
+      public com.google.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return edu.washington.escience.myria.proto.DataProto.internal_static_ConstantColumnMessage_descriptor;
+      }
+
+      public edu.washington.escience.myria.proto.DataProto.ConstantColumnMessage getDefaultInstanceForType() {
+        return edu.washington.escience.myria.proto.DataProto.ConstantColumnMessage.getDefaultInstance();
+      }
+
+      public edu.washington.escience.myria.proto.DataProto.ConstantColumnMessage build() {
+        edu.washington.escience.myria.proto.DataProto.ConstantColumnMessage result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      public edu.washington.escience.myria.proto.DataProto.ConstantColumnMessage buildPartial() {
+        edu.washington.escience.myria.proto.DataProto.ConstantColumnMessage result = new edu.washington.escience.myria.proto.DataProto.ConstantColumnMessage(this);
+        int from_bitField0_ = bitField0_;
+        int to_bitField0_ = 0;
+        if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
+          to_bitField0_ |= 0x00000001;
+        }
+        if (valueBuilder_ == null) {
+          result.value_ = value_;
+        } else {
+          result.value_ = valueBuilder_.build();
+        }
+        result.bitField0_ = to_bitField0_;
+        onBuilt();
+        return result;
+      }
+
+      public Builder mergeFrom(com.google.protobuf.Message other) {
+        if (other instanceof edu.washington.escience.myria.proto.DataProto.ConstantColumnMessage) {
+          return mergeFrom((edu.washington.escience.myria.proto.DataProto.ConstantColumnMessage)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(edu.washington.escience.myria.proto.DataProto.ConstantColumnMessage other) {
+        if (other == edu.washington.escience.myria.proto.DataProto.ConstantColumnMessage.getDefaultInstance()) return this;
+        if (other.hasValue()) {
+          mergeValue(other.getValue());
+        }
+        this.mergeUnknownFields(other.getUnknownFields());
+        return this;
+      }
+
+      public final boolean isInitialized() {
+        if (!hasValue()) {
+          
+          return false;
+        }
+        if (!getValue().isInitialized()) {
+          
+          return false;
+        }
+        return true;
+      }
+
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        edu.washington.escience.myria.proto.DataProto.ConstantColumnMessage parsedMessage = null;
+        try {
+          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          parsedMessage = (edu.washington.escience.myria.proto.DataProto.ConstantColumnMessage) e.getUnfinishedMessage();
+          throw e;
+        } finally {
+          if (parsedMessage != null) {
+            mergeFrom(parsedMessage);
+          }
+        }
+        return this;
+      }
+      private int bitField0_;
+
+      private edu.washington.escience.myria.proto.DataProto.ColumnMessage value_ = edu.washington.escience.myria.proto.DataProto.ColumnMessage.getDefaultInstance();
+      private com.google.protobuf.SingleFieldBuilder<
+          edu.washington.escience.myria.proto.DataProto.ColumnMessage, edu.washington.escience.myria.proto.DataProto.ColumnMessage.Builder, edu.washington.escience.myria.proto.DataProto.ColumnMessageOrBuilder> valueBuilder_;
+      /**
+       * <code>required .ColumnMessage value = 1;</code>
+       *
+       * <pre>
+       * a column of one row holding the value of every row
+       * </pre>
+       */
+      public boolean hasValue() {
+        return ((bitField0_ & 0x00000001) == 0x00000001);
+      }
+      /**
+       * <code>required .ColumnMessage value = 1;</code>
+       *
+       * <pre>
+       * a column of one row holding the value of every row
+       * </pre>
+       */
+      public edu.washington.escience.myria.proto.DataProto.ColumnMessage getValue() {
+        if (valueBuilder_ == null) {
+          return value_;
+        } else {
+          return valueBuilder_.getMessage();
+        }
+      }
+      /**
+       * <code>required .ColumnMessage value = 1;</code>
+       *
+       * <pre>
+       * a column of one row holding the value of every row
+       * </pre>
+       */
+      public Builder setValue(edu.washington.escience.myria.proto.DataProto.ColumnMessage value) {
+        if (valueBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          value_ = value;
+          onChanged();
+        } else {
+          valueBuilder_.setMessage(value);
+        }
+        bitField0_ |= 0x00000001;
+        return this;
+      }
+      /**
+       * <code>required .ColumnMessage value = 1;</code>
+       *
+       * <pre>
+       * a column of one row holding the value of every row
+       * </pre>
+       */
+      public Builder setValue(
+          edu.washington.escience.myria.proto.DataProto.ColumnMessage.Builder builderForValue) {
+        if (valueBuilder_ == null) {
+          value_ = builderForValue.build();
+          onChanged();
+        } else {
+          valueBuilder_.setMessage(builderForValue.build());
+        }
+        bitField0_ |= 0x00000001;
+        return this;
+      }
+      /**
+       * <code>required .ColumnMessage value = 1;</code>
+       *
+       * <pre>
+       * a column of one row holding the value of every row
+       * </pre>
+       */
+      public Builder mergeValue(edu.washington.escience.myria.proto.DataProto.ColumnMessage value) {
+        if (valueBuilder_ == null) {
+          if (((bitField0_ & 0x00000001) == 0x00000001) &&
+              value_ != edu.washington.escience.myria.proto.DataProto.ColumnMessage.getDefaultInstance()) {
+            value_ =
+              edu.washington.escience.myria.proto.DataProto.ColumnMessage.newBuilder(value_).mergeFrom(value).buildPartial();
+          } else {
+            value_ = value;
+          }
+          onChanged();
+        } else {
+          valueBuilder_.mergeFrom(value);
+        }
+        bitField0_ |= 0x00000001;
+        return this;
+      }
+      /**
+       * <code>required .ColumnMessage value = 1;</code>
+       *
+       * <pre>
+       * a column of one row holding the value of every row
+       * </pre>
+       */
+      public Builder clearValue() {
+        if (valueBuilder_ == null) {
+          value_ = edu.washington.escience.myria.proto.DataProto.ColumnMessage.getDefaultInstance();
+          onChanged();
+        } else {
+          valueBuilder_.clear();
+        }
+        bitField0_ = (bitField0_ & ~0x00000001);
+        return this;
+      }
+      /**
+       * <code>required .ColumnMessage value = 1;</code>
+       *
+       * <pre>
+       * a column of one row holding the value of every row
+       * </pre>
+       */
+      public edu.washington.escience.myria.proto.DataProto.ColumnMessage.Builder getValueBuilder() {
+        bitField0_ |= 0x00000001;
+        onChanged();
+        return getValueFieldBuilder().getBuilder();
+      }
+      /**
+       * <code>required .ColumnMessage value = 1;</code>
+       *
+       * <pre>
+       * a column of one row holding the value of every row
+       * </pre>
+       */
+      public edu.washington.escience.myria.proto.DataProto.ColumnMessageOrBuilder getValueOrBuilder() {
+        if (valueBuilder_ != null) {
+          return valueBuilder_.getMessageOrBuilder();
+        } else {
+          return value_;
+        }
+      }
+      /**
+       * <code>required .ColumnMessage value = 1;</code>
+       *
+       * <pre>
+       * a column of one row holding the value of every row
+       * </pre>
+       */
+      private com.google.protobuf.SingleFieldBuilder<
+          edu.washington.escience.myria.proto.DataProto.ColumnMessage, edu.washington.escience.myria.proto.DataProto.ColumnMessage.Builder, edu.washington.escience.myria.proto.DataProto.ColumnMessageOrBuilder> 
+          getValueFieldBuilder() {
+        if (valueBuilder_ == null) {
+          valueBuilder_ = new com.google.protobuf.SingleFieldBuilder<
+              edu.washington.escience.myria.proto.DataProto.ColumnMessage, edu.washington.escience.myria.proto.DataProto.ColumnMessage.Builder, edu.washington.escience.myria.proto.DataProto.ColumnMessageOrBuilder>(
+                  getValue(),
+                  getParentForChildren(),
+                  isClean());
+          value_ = null;
+        }
+        return valueBuilder_;
+      }
+
+      // @@protoc_insertion_point(builder_scope:ConstantColumnMessage)
+    }
+
+    static {
+      defaultInstance = new ConstantColumnMessage(true);
+      defaultInstance.initFields();
+    }
+
+    // @@protoc_insertion_point(class_scope:ConstantColumnMessage)
+  }
+
+  public interface RunLengthColumnMessageOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:RunLengthColumnMessage)
+      com.google.protobuf.MessageOrBuilder {
+
+    /**
+     * <code>required .ColumnMessage values = 1;</code>
+     *
+     * <pre>
+     * a column of one row per run
+     * </pre>
+     */
+    boolean hasValues();
+    /**
+     * <code>required .ColumnMessage values = 1;</code>
+     *
+     * <pre>
+     * a column of one row per run
+     * </pre>
+     */
+    edu.washington.escience.myria.proto.DataProto.ColumnMessage getValues();
+    /**
+     * <code>required .ColumnMessage values = 1;</code>
+     *
+     * <pre>
+     * a column of one row per run
+     * </pre>
+     */
+    edu.washington.escience.myria.proto.DataProto.ColumnMessageOrBuilder getValuesOrBuilder();
+
+    /**
+     * <code>repeated int32 run_ends = 2 [packed = true];</code>
+     *
+     * <pre>
+     * the row after the last row of each run
+     * </pre>
+     */
+    java.util.List<java.lang.Integer> getRunEndsList();
+    /**
+     * <code>repeated int32 run_ends = 2 [packed = true];</code>
+     *
+     * <pre>
+     * the row after the last row of each run
+     * </pre>
+     */
+    int getRunEndsCount();
+    /**
+     * <code>repeated int32 run_ends = 2 [packed = true];</code>
+     *
+     * <pre>
+     * the row after the last row of each run
+     * </pre>
+     */
+    int getRunEnds(int index);
+  }
+  /**
+   * Protobuf type {@code RunLengthColumnMessage}
+   */
+  public static final class RunLengthColumnMessage extends
+      com.google.protobuf.GeneratedMessage implements
+      // @@protoc_insertion_point(message_implements:RunLengthColumnMessage)
+      RunLengthColumnMessageOrBuilder {
+    // Use RunLengthColumnMessage.newBuilder() to construct.
+    private RunLengthColumnMessage(com.google.protobuf.GeneratedMessage.Builder<?> builder) {
+      super(builder);
+      this.unknownFields = builder.getUnknownFields();
+    }
+    private RunLengthColumnMessage(boolean noInit) { this.unknownFields = com.google.protobuf.UnknownFieldSet.getDefaultInstance(); }
+
+    private static final RunLengthColumnMessage defaultInstance;
+    public static RunLengthColumnMessage getDefaultInstance() {
+      return defaultInstance;
+    }
+
+    public RunLengthColumnMessage getDefaultInstanceForType() {
+      return defaultInstance;
+    }
+
+    private final com.google.protobuf.UnknownFieldSet unknownFields;
+    @java.lang.Override
+    public final com.google.protobuf.UnknownFieldSet
+        getUnknownFields() {
+      return this.unknownFields;
+    }
+    private RunLengthColumnMessage(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      initFields();
+      int mutable_bitField0_ = 0;
+      com.google.protobuf.UnknownFieldSet.Builder unknownFields =
+          com.google.protobuf.UnknownFieldSet.newBuilder();
+      try {
+        boolean done = false;
+        while (!done) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              done = true;
+              break;
+            default: {
+              if (!parseUnknownField(input, unknownFields,
+                                     extensionRegistry, tag)) {
+                done = true;
+              }
+              break;
+            }
+            case 10: {
+              edu.washington.escience.myria.proto.DataProto.ColumnMessage.Builder subBuilder = null;
+              if (((bitField0_ & 0x00000001) == 0x00000001)) {
+                subBuilder = values_.toBuilder();
+              }
+              values_ = input.readMessage(edu.washington.escience.myria.proto.DataProto.ColumnMessage.PARSER, extensionRegistry);
+              if (subBuilder != null) {
+                subBuilder.mergeFrom(values_);
+                values_ = subBuilder.buildPartial();
+              }
+              bitField0_ |= 0x00000001;
+              break;
+            }
+            case 16: {
+              if (!((mutable_bitField0_ & 0x00000002) == 0x00000002)) {
+                runEnds_ = new java.util.ArrayList<java.lang.Integer>();
+                mutable_bitField0_ |= 0x00000002;
+              }
+              runEnds_.add(input.readInt32());
+              break;
+            }
+            case 18: {
+              int length = input.readRawVarint32();
+              int limit = input.pushLimit(length);
+              if (!((mutable_bitField0_ & 0x00000002) == 0x00000002) && input.getBytesUntilLimit() > 0) {
+                runEnds_ = new java.util.ArrayList<java.lang.Integer>();
+                mutable_bitField0_ |= 0x00000002;
+              }
+              while (input.getBytesUntilLimit() > 0) {
+                runEnds_.add(input.readInt32());
+              }
+              input.popLimit(limit);
+              break;
+            }
+          }
+        }
+      } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+        throw e.setUnfinishedMessage(this);
+      } catch (java.io.IOException e) {
+        throw new com.google.protobuf.InvalidProtocolBufferException(
+            e.getMessage()).setUnfinishedMessage(this);
+      } finally {
+        if (((mutable_bitField0_ & 0x00000002) == 0x00000002)) {
+          runEnds_ = java.util.Collections.unmodifiableList(runEnds_);
+        }
+        this.unknownFields = unknownFields.build();
+        makeExtensionsImmutable();
+      }
+    }
+    public static final com.google.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return edu.washington.escience.myria.proto.DataProto.internal_static_RunLengthColumnMessage_descriptor;
+    }
+
+    protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return edu.washington.escience.myria.proto.DataProto.internal_static_RunLengthColumnMessage_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              edu.washington.escience.myria.proto.DataProto.RunLengthColumnMessage.class, edu.washington.escience.myria.proto.DataProto.RunLengthColumnMessage.Builder.class);
+    }
+
+    public static com.google.protobuf.Parser<RunLengthColumnMessage> PARSER =
+        new com.google.protobuf.AbstractParser<RunLengthColumnMessage>() {
+      public RunLengthColumnMessage parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return new RunLengthColumnMessage(input, extensionRegistry);
+      }
+    };
+
+    @java.lang.Override
+    public com.google.protobuf.Parser<RunLengthColumnMessage> getParserForType() {
+      return PARSER;
+    }
+
+    private int bitField0_;
+    public static final int VALUES_FIELD_NUMBER = 1;
+    private edu.washington.escience.myria.proto.DataProto.ColumnMessage values_;
+    /**
+     * <code>required .ColumnMessage values = 1;</code>
+     *
+     * <pre>
+     * a column of one row per run
+     * </pre>
+     */
+    public boolean hasValues() {
+      return ((bitField0_ & 0x00000001) == 0x00000001);
+    }
+    /**
+     * <code>required .ColumnMessage values = 1;</code>
+     *
+     * <pre>
+     * a column of one row per run
+     * </pre>
+     */
+    public edu.washington.escience.myria.proto.DataProto.ColumnMessage getValues() {
+      return values_;
+    }
+    /**
+     * <code>required .ColumnMessage values = 1;</code>
+     *
+     * <pre>
+     * a column of one row per run
+     * </pre>
+     */
+    public edu.washington.escience.myria.proto.DataProto.ColumnMessageOrBuilder getValuesOrBuilder() {
+      return values_;
+    }
+
+    public static final int RUN_ENDS_FIELD_NUMBER = 2;
+    private java.util.List<java.lang.Integer> runEnds_;
+    /**
+     * <code>repeated int32 run_ends = 2 [packed = true];</code>
+     *
+     * <pre>
+     * the row after the last row of each run
+     * </pre>
+     */
+    public java.util.List<java.lang.Integer>
+        getRunEndsList() {
+      return runEnds_;
+    }
+    /**
+     * <code>repeated int32 run_ends = 2 [packed = true];</code>
+     *
+     * <pre>
+     * the row after the last row of each run
+     * </pre>
+     */
+    public int getRunEndsCount() {
+      return runEnds_.size();
+    }
+    /**
+     * <code>repeated int32 run_ends = 2 [packed = true];</code>
+     *
+     * <pre>
+     * the row after the last row of each run
+     * </pre>
+     */
+    public int getRunEnds(int index) {
+      return runEnds_.get(index);
+    }
+    private int runEndsMemoizedSerializedSize = -1;
+
+    private void initFields() {
+      values_ = edu.washington.escience.myria.proto.DataProto.ColumnMessage.getDefaultInstance();
+      runEnds_ = java.util.Collections.emptyList();
+    }
+    private byte memoizedIsInitialized = -1;
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
+
+      if (!hasValues()) {
+        memoizedIsInitialized = 0;
+        return false;
+      }
+      if (!getValues().isInitialized()) {
+        memoizedIsInitialized = 0;
+        return false;
+      }
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      getSerializedSize();
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        output.writeMessage(1, values_);
+      }
+      if (getRunEndsList().size() > 0) {
+        output.writeRawVarint32(18);
+        output.writeRawVarint32(runEndsMemoizedSerializedSize);
+      }
+      for (int i = 0; i < runEnds_.size(); i++) {
+        output.writeInt32NoTag(runEnds_.get(i));
+      }
+      getUnknownFields().writeTo(output);
+    }
+
+    private int memoizedSerializedSize = -1;
+    public int getSerializedSize() {
+      int size = memoizedSerializedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(1, values_);
+      }
+      {
+        int dataSize = 0;
+        for (int i = 0; i < runEnds_.size(); i++) {
+          dataSize += com.google.protobuf.CodedOutputStream
+            .computeInt32SizeNoTag(runEnds_.get(i));
+        }
+        size += dataSize;
+        if (!getRunEndsList().isEmpty()) {
+          size += 1;
+          size += com.google.protobuf.CodedOutputStream
+              .computeInt32SizeNoTag(dataSize);
+        }
+        runEndsMemoizedSerializedSize = dataSize;
+      }
+      size += getUnknownFields().getSerializedSize();
+      memoizedSerializedSize = size;
+      return size;
+    }
+
+    private static final long serialVersionUID = 0L;
+    @java.lang.Override
+    protected java.lang.Object writeReplace()
+        throws java.io.ObjectStreamException {
+      return super.writeReplace();
+    }
+
+    public static edu.washington.escience.myria.proto.DataProto.RunLengthColumnMessage parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static edu.washington.escience.myria.proto.DataProto.RunLengthColumnMessage parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static edu.washington.escience.myria.proto.DataProto.RunLengthColumnMessage parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static edu.washington.escience.myria.proto.DataProto.RunLengthColumnMessage parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static edu.washington.escience.myria.proto.DataProto.RunLengthColumnMessage parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input);
+    }
+    public static edu.washington.escience.myria.proto.DataProto.RunLengthColumnMessage parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input, extensionRegistry);
+    }
+    public static edu.washington.escience.myria.proto.DataProto.RunLengthColumnMessage parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return PARSER.parseDelimitedFrom(input);
+    }
+    public static edu.washington.escience.myria.proto.DataProto.RunLengthColumnMessage parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseDelimitedFrom(input, extensionRegistry);
+    }
+    public static edu.washington.escience.myria.proto.DataProto.RunLengthColumnMessage parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input);
+    }
+    public static edu.washington.escience.myria.proto.DataProto.RunLengthColumnMessage parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input, extensionRegistry);
+    }
+
+    public static Builder newBuilder() { return Builder.create(); }
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder(edu.washington.escience.myria.proto.DataProto.RunLengthColumnMessage prototype) {
+      return newBuilder().mergeFrom(prototype);
+    }
+    public Builder toBuilder() { return newBuilder(this); }
+
+    @java.lang.Override
+    protected Builder newBuilderForType(
+        com.google.protobuf.GeneratedMessage.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * Protobuf type {@code RunLengthColumnMessage}
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessage.Builder<Builder> implements
+        // @@protoc_insertion_point(builder_implements:RunLengthColumnMessage)
+        edu.washington.escience.myria.proto.DataProto.RunLengthColumnMessageOrBuilder {
+      public static final com.google.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return edu.washington.escience.myria.proto.DataProto.internal_static_RunLengthColumnMessage_descriptor;
+      }
+
+      protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return edu.washington.escience.myria.proto.DataProto.internal_static_RunLengthColumnMessage_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                edu.washington.escience.myria.proto.DataProto.RunLengthColumnMessage.class, edu.washington.escience.myria.proto.DataProto.RunLengthColumnMessage.Builder.class);
+      }
+
+      // Construct using edu.washington.escience.myria.proto.DataProto.RunLengthColumnMessage.newBuilder()
+      private Builder() {
+        maybeForceBuilderInitialization();
+      }
+
+      private Builder(
+          com.google.protobuf.GeneratedMessage.BuilderParent parent) {
+        super(parent);
+        maybeForceBuilderInitialization();
+      }
+      private void maybeForceBuilderInitialization() {
+        if (com.google.protobuf.GeneratedMessage.alwaysUseFieldBuilders) {
+          getValuesFieldBuilder();
+        }
+      }
+      private static Builder create() {
+        return new Builder();
+      }
+
+      public Builder clear() {
+        super.clear();
+        if (valuesBuilder_ == null) {
+          values_ = edu.washington.escience.myria.proto.DataProto.ColumnMessage.getDefaultInstance();
+        } else {
+          valuesBuilder_.clear();
+        }
+        bitField0_ = (bitField0_ & ~0x00000001);
+        runEnds_ = java.util.Collections.emptyList();
+        bitField0_ = (bitField0_ & ~0x00000002);
+        return this;
+      }
+
+      public Builder clone() {
+        return create().mergeFrom(buildPartial());
+      }
+
+      public com.google.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return edu.washington.escience.myria.proto.DataProto.internal_static_RunLengthColumnMessage_descriptor;
+      }
+
+      public edu.washington.escience.myria.proto.DataProto.RunLengthColumnMessage getDefaultInstanceForType() {
+        return edu.washington.escience.myria.proto.DataProto.RunLengthColumnMessage.getDefaultInstance();
+      }
+
+      public edu.washington.escience.myria.proto.DataProto.RunLengthColumnMessage build() {
+        edu.washington.escience.myria.proto.DataProto.RunLengthColumnMessage result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      public edu.washington.escience.myria.proto.DataProto.RunLengthColumnMessage buildPartial() {
+        edu.washington.escience.myria.proto.DataProto.RunLengthColumnMessage result = new edu.washington.escience.myria.proto.DataProto.RunLengthColumnMessage(this);
+        int from_bitField0_ = bitField0_;
+        int to_bitField0_ = 0;
+        if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
+          to_bitField0_ |= 0x00000001;
+        }
+        if (valuesBuilder_ == null) {
+          result.values_ = values_;
+        } else {
+          result.values_ = valuesBuilder_.build();
+        }
+        if (((bitField0_ & 0x00000002) == 0x00000002)) {
+          runEnds_ = java.util.Collections.unmodifiableList(runEnds_);
+          bitField0_ = (bitField0_ & ~0x00000002);
+        }
+        result.runEnds_ = runEnds_;
+        result.bitField0_ = to_bitField0_;
+        onBuilt();
+        return result;
+      }
+
+      public Builder mergeFrom(com.google.protobuf.Message other) {
+        if (other instanceof edu.washington.escience.myria.proto.DataProto.RunLengthColumnMessage) {
+          return mergeFrom((edu.washington.escience.myria.proto.DataProto.RunLengthColumnMessage)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(edu.washington.escience.myria.proto.DataProto.RunLengthColumnMessage other) {
+        if (other == edu.washington.escience.myria.proto.DataProto.RunLengthColumnMessage.getDefaultInstance()) return this;
+        if (other.hasValues()) {
+          mergeValues(other.getValues());
+        }
+        if (!other.runEnds_.isEmpty()) {
+          if (runEnds_.isEmpty()) {
+            runEnds_ = other.runEnds_;
+            bitField0_ = (bitField0_ & ~0x00000002);
+          } else {
+            ensureRunEndsIsMutable();
+            runEnds_.addAll(other.runEnds_);
+          }
+          onChanged();
+        }
+        this.mergeUnknownFields(other.getUnknownFields());
+        return this;
+      }
+
+      public final boolean isInitialized() {
+        if (!hasValues()) {
+          
+          return false;
+        }
+        if (!getValues().isInitialized()) {
+          
+          return false;
+        }
+        return true;
+      }
+
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        edu.washington.escience.myria.proto.DataProto.RunLengthColumnMessage parsedMessage = null;
+        try {
+          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          parsedMessage = (edu.washington.escience.myria.proto.DataProto.RunLengthColumnMessage) e.getUnfinishedMessage();
+          throw e;
+        } finally {
+          if (parsedMessage != null) {
+            mergeFrom(parsedMessage);
+          }
+        }
+        return this;
+      }
+      private int bitField0_;
+
+      private edu.washington.escience.myria.proto.DataProto.ColumnMessage values_ = edu.washington.escience.myria.proto.DataProto.ColumnMessage.getDefaultInstance();
+      private com.google.protobuf.SingleFieldBuilder<
+          edu.washington.escience.myria.proto.DataProto.ColumnMessage, edu.washington.escience.myria.proto.DataProto.ColumnMessage.Builder, edu.washington.escience.myria.proto.DataProto.ColumnMessageOrBuilder> valuesBuilder_;
+      /**
+       * <code>required .ColumnMessage values = 1;</code>
+       *
+       * <pre>
+       * a column of one row per run
+       * </pre>
+       */
+      public boolean hasValues() {
+        return ((bitField0_ & 0x00000001) == 0x00000001);
+      }
+      /**
+       * <code>required .ColumnMessage values = 1;</code>
+       *
+       * <pre>
+       * a column of one row per run
+       * </pre>
+       */
+      public edu.washington.escience.myria.proto.DataProto.ColumnMessage getValues() {
+        if (valuesBuilder_ == null) {
+          return values_;
+        } else {
+          return valuesBuilder_.getMessage();
+        }
+      }
+      /**
+       * <code>required .ColumnMessage values = 1;</code>
+       *
+       * <pre>
+       * a column of one row per run
+       * </pre>
+       */
+      public Builder setValues(edu.washington.escience.myria.proto.DataProto.ColumnMessage value) {
+        if (valuesBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          values_ = value;
+          onChanged();
+        } else {
+          valuesBuilder_.setMessage(value);
+        }
+        bitField0_ |= 0x00000001;
+        return this;
+      }
+      /**
+       * <code>required .ColumnMessage values = 1;</code>
+       *
+       * <pre>
+       * a column of one row per run
+       * </pre>
+       */
+      public Builder setValues(
+          edu.washington.escience.myria.proto.DataProto.ColumnMessage.Builder builderForValue) {
+        if (valuesBuilder_ == null) {
+          values_ = builderForValue.build();
+          onChanged();
+        } else {
+          valuesBuilder_.setMessage(builderForValue.build());
+        }
+        bitField0_ |= 0x00000001;
+        return this;
+      }
+      /**
+       * <code>required .ColumnMessage values = 1;</code>
+       *
+       * <pre>
+       * a column of one row per run
+       * </pre>
+       */
+      public Builder mergeValues(edu.washington.escience.myria.proto.DataProto.ColumnMessage value) {
+        if (valuesBuilder_ == null) {
+          if (((bitField0_ & 0x00000001) == 0x00000001) &&
+              values_ != edu.washington.escience.myria.proto.DataProto.ColumnMessage.getDefaultInstance()) {
+            values_ =
+              edu.washington.escience.myria.proto.DataProto.ColumnMessage.newBuilder(values_).mergeFrom(value).buildPartial();
+          } else {
+            values_ = value;
+          }
+          onChanged();
+        } else {
+          valuesBuilder_.mergeFrom(value);
+        }
+        bitField0_ |= 0x00000001;
+        return this;
+      }
+      /**
+       * <code>required .ColumnMessage values = 1;</code>
+       *
+       * <pre>
+       * a column of one row per run
+       * </pre>
+       */
+      public Builder clearValues() {
+        if (valuesBuilder_ == null) {
+          values_ = edu.washington.escience.myria.proto.DataProto.ColumnMessage.getDefaultInstance();
+          onChanged();
+        } else {
+          valuesBuilder_.clear();
+        }
+        bitField0_ = (bitField0_ & ~0x00000001);
+        return this;
+      }
+      /**
+       * <code>required .ColumnMessage values = 1;</code>
+       *
+       * <pre>
+       * a column of one row per run
+       * </pre>
+       */
+      public edu.washington.escience.myria.proto.DataProto.ColumnMessage.Builder getValuesBuilder() {
+        bitField0_ |= 0x00000001;
+        onChanged();
+        return getValuesFieldBuilder().getBuilder();
+      }
+      /**
+       * <code>required .ColumnMessage values = 1;</code>
+       *
+       * <pre>
+       * a column of one row per run
+       * </pre>
+       */
+      public edu.washington.escience.myria.proto.DataProto.ColumnMessageOrBuilder getValuesOrBuilder() {
+        if (valuesBuilder_ != null) {
+          return valuesBuilder_.getMessageOrBuilder();
+        } else {
+          return values_;
+        }
+      }
+      /**
+       * <code>required .ColumnMessage values = 1;</code>
+       *
+       * <pre>
+       * a column of one row per run
+       * </pre>
+       */
+      private com.google.protobuf.SingleFieldBuilder<
+          edu.washington.escience.myria.proto.DataProto.ColumnMessage, edu.washington.escience.myria.proto.DataProto.ColumnMessage.Builder, edu.washington.escience.myria.proto.DataProto.ColumnMessageOrBuilder> 
+          getValuesFieldBuilder() {
+        if (valuesBuilder_ == null) {
+          valuesBuilder_ = new com.google.protobuf.SingleFieldBuilder<
+              edu.washington.escience.myria.proto.DataProto.ColumnMessage, edu.washington.escience.myria.proto.DataProto.ColumnMessage.Builder, edu.washington.escience.myria.proto.DataProto.ColumnMessageOrBuilder>(
+                  getValues(),
+                  getParentForChildren(),
+                  isClean());
+          values_ = null;
+        }
+        return valuesBuilder_;
+      }
+
+      private java.util.List<java.lang.Integer> runEnds_ = java.util.Collections.emptyList();
+      private void ensureRunEndsIsMutable() {
+        if (!((bitField0_ & 0x00000002) == 0x00000002)) {
+          runEnds_ = new java.util.ArrayList<java.lang.Integer>(runEnds_);
+          bitField0_ |= 0x00000002;
+         }
+      }
+      /**
+       * <code>repeated int32 run_ends = 2 [packed = true];</code>
+       *
+       * <pre>
+       * the row after the last row of each run
+       * </pre>
+       */
+      public java.util.List<java.lang.Integer>
+          getRunEndsList() {
+        return java.util.Collections.unmodifiableList(runEnds_);
+      }
+      /**
+       * <code>repeated int32 run_ends = 2 [packed = true];</code>
+       *
+       * <pre>
+       * the row after the last row of each run
+       * </pre>
+       */
+      public int getRunEndsCount() {
+        return runEnds_.size();
+      }
+      /**
+       * <code>repeated int32 run_ends = 2 [packed = true];</code>
+       *
+       * <pre>
+       * the row after the last row of each run
+       * </pre>
+       */
+      public int getRunEnds(int index) {
+        return runEnds_.get(index);
+      }
+      /**
+       * <code>repeated int32 run_ends = 2 [packed = true];</code>
+       *
+       * <pre>
+       * the row after the last row of each run
+       * </pre>
+       */
+      public Builder setRunEnds(
+          int index, int value) {
+        ensureRunEndsIsMutable();
+        runEnds_.set(index, value);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated int32 run_ends = 2 [packed = true];</code>
+       *
+       * <pre>
+       * the row after the last row of each run
+       * </pre>
+       */
+      public Builder addRunEnds(int value) {
+        ensureRunEndsIsMutable();
+        runEnds_.add(value);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated int32 run_ends = 2 [packed = true];</code>
+       *
+       * <pre>
+       * the row after the last row of each run
+       * </pre>
+       */
+      public Builder addAllRunEnds(
+          java.lang.Iterable<? extends java.lang.Integer> values) {
+        ensureRunEndsIsMutable();
+        com.google.protobuf.AbstractMessageLite.Builder.addAll(
+            values, runEnds_);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated int32 run_ends = 2 [packed = true];</code>
+       *
+       * <pre>
+       * the row after the last row of each run
+       * </pre>
+       */
+      public Builder clearRunEnds() {
+        runEnds_ = java.util.Collections.emptyList();
+        bitField0_ = (bitField0_ & ~0x00000002);
+        onChanged();
+        return this;
+      }
+
+      // @@protoc_insertion_point(builder_scope:RunLengthColumnMessage)
+    }
+
+    static {
+      defaultInstance = new RunLengthColumnMessage(true);
+      defaultInstance.initFields();
+    }
+
+    // @@protoc_insertion_point(class_scope:RunLengthColumnMessage)
+  }
+
+  public interface DeltaColumnMessageOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:DeltaColumnMessage)
+      com.google.protobuf.MessageOrBuilder {
+
+    /**
+     * <code>required int64 first = 1;</code>
+     *
+     * <pre>
+     * the value of the first row
+     * </pre>
+     */
+    boolean hasFirst();
+    /**
+     * <code>required int64 first = 1;</code>
+     *
+     * <pre>
+     * the value of the first row
+     * </pre>
+     */
+    long getFirst();
+
+    /**
+     * <code>required int32 bit_width = 2;</code>
+     *
+     * <pre>
+     * the number of bits of each difference
+     * </pre>
+     */
+    boolean hasBitWidth();
+    /**
+     * <code>required int32 bit_width = 2;</code>
+     *
+     * <pre>
+     * the number of bits of each difference
+     * </pre>
+     */
+    int getBitWidth();
+
+    /**
+     * <code>required bytes data = 3;</code>
+     *
+     * <pre>
+     * the zigzag-encoded difference between each row and the previous one, bit-packed
+     * </pre>
+     */
+    boolean hasData();
+    /**
+     * <code>required bytes data = 3;</code>
+     *
+     * <pre>
+     * the zigzag-encoded difference between each row and the previous one, bit-packed
+     * </pre>
+     */
+    com.google.protobuf.ByteString getData();
+  }
+  /**
+   * Protobuf type {@code DeltaColumnMessage}
+   */
+  public static final class DeltaColumnMessage extends
+      com.google.protobuf.GeneratedMessage implements
+      // @@protoc_insertion_point(message_implements:DeltaColumnMessage)
+      DeltaColumnMessageOrBuilder {
+    // Use DeltaColumnMessage.newBuilder() to construct.
+    private DeltaColumnMessage(com.google.protobuf.GeneratedMessage.Builder<?> builder) {
+      super(builder);
+      this.unknownFields = builder.getUnknownFields();
+    }
+    private DeltaColumnMessage(boolean noInit) { this.unknownFields = com.google.protobuf.UnknownFieldSet.getDefaultInstance(); }
+
+    private static final DeltaColumnMessage defaultInstance;
+    public static DeltaColumnMessage getDefaultInstance() {
+      return defaultInstance;
+    }
+
+    public DeltaColumnMessage getDefaultInstanceForType() {
+      return defaultInstance;
+    }
+
+    private final com.google.protobuf.UnknownFieldSet unknownFields;
+    @java.lang.Override
+    public final com.google.protobuf.UnknownFieldSet
+        getUnknownFields() {
+      return this.unknownFields;
+    }
+    private DeltaColumnMessage(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      initFields();
+      int mutable_bitField0_ = 0;
+      com.google.protobuf.UnknownFieldSet.Builder unknownFields =
+          com.google.protobuf.UnknownFieldSet.newBuilder();
+      try {
+        boolean done = false;
+        while (!done) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              done = true;
+              break;
+            default: {
+              if (!parseUnknownField(input, unknownFields,
+                                     extensionRegistry, tag)) {
+                done = true;
+              }
+              break;
+            }
+            case 8: {
+              bitField0_ |= 0x00000001;
+              first_ = input.readInt64();
+              break;
+            }
+            case 16: {
+              bitField0_ |= 0x00000002;
+              bitWidth_ = input.readInt32();
+              break;
+            }
+            case 26: {
+              bitField0_ |= 0x00000004;
+              data_ = input.readBytes();
+              break;
+            }
+          }
+        }
+      } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+        throw e.setUnfinishedMessage(this);
+      } catch (java.io.IOException e) {
+        throw new com.google.protobuf.InvalidProtocolBufferException(
+            e.getMessage()).setUnfinishedMessage(this);
+      } finally {
+        this.unknownFields = unknownFields.build();
+        makeExtensionsImmutable();
+      }
+    }
+    public static final com.google.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return edu.washington.escience.myria.proto.DataProto.internal_static_DeltaColumnMessage_descriptor;
+    }
+
+    protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return edu.washington.escience.myria.proto.DataProto.internal_static_DeltaColumnMessage_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              edu.washington.escience.myria.proto.DataProto.DeltaColumnMessage.class, edu.washington.escience.myria.proto.DataProto.DeltaColumnMessage.Builder.class);
+    }
+
+    public static com.google.protobuf.Parser<DeltaColumnMessage> PARSER =
+        new com.google.protobuf.AbstractParser<DeltaColumnMessage>() {
+      public DeltaColumnMessage parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return new DeltaColumnMessage(input, extensionRegistry);
+      }
+    };
+
+    @java.lang.Override
+    public com.google.protobuf.Parser<DeltaColumnMessage> getParserForType() {
+      return PARSER;
+    }
+
+    private int bitField0_;
+    public static final int FIRST_FIELD_NUMBER = 1;
+    private long first_;
+    /**
+     * <code>required int64 first = 1;</code>
+     *
+     * <pre>
+     * the value of the first row
+     * </pre>
+     */
+    public boolean hasFirst() {
+      return ((bitField0_ & 0x00000001) == 0x00000001);
+    }
+    /**
+     * <code>required int64 first = 1;</code>
+     *
+     * <pre>
+     * the value of the first row
+     * </pre>
+     */
+    public long getFirst() {
+      return first_;
+    }
+
+    public static final int BIT_WIDTH_FIELD_NUMBER = 2;
+    private int bitWidth_;
+    /**
+     * <code>required int32 bit_width = 2;</code>
+     *
+     * <pre>
+     * the number of bits of each difference
+     * </pre>
+     */
+    public boolean hasBitWidth() {
+      return ((bitField0_ & 0x00000002) == 0x00000002);
+    }
+    /**
+     * <code>required int32 bit_width = 2;</code>
+     *
+     * <pre>
+     * the number of bits of each difference
+     * </pre>
+     */
+    public int getBitWidth() {
+      return bitWidth_;
+    }
+
+    public static final int DATA_FIELD_NUMBER = 3;
+    private com.google.protobuf.ByteString data_;
+    /**
+     * <code>required bytes data = 3;</code>
+     *
+     * <pre>
+     * the zigzag-encoded difference between each row and the previous one, bit-packed
+     * </pre>
+     */
+    public boolean hasData() {
+      return ((bitField0_ & 0x00000004) == 0x00000004);
+    }
+    /**
+     * <code>required bytes data = 3;</code>
+     *
+     * <pre>
+     * the zigzag-encoded difference between each row and the previous one, bit-packed
+     * </pre>
+     */
+    public com.google.protobuf.ByteString getData() {
+      return data_;
+    }
+
+    private void initFields() {
+      first_ = 0L;
+      bitWidth_ = 0;
+      data_ = com.google.protobuf.ByteString.EMPTY;
+    }
+    private byte memoizedIsInitialized = -1;
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
+
+      if (!hasFirst()) {
+        memoizedIsInitialized = 0;
+        return false;
+      }
+      if (!hasBitWidth()) {
+        memoizedIsInitialized = 0;
+        return false;
+      }
+      if (!hasData()) {
+        memoizedIsInitialized = 0;
+        return false;
+      }
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      getSerializedSize();
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        output.writeInt64(1, first_);
+      }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        output.writeInt32(2, bitWidth_);
+      }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        output.writeBytes(3, data_);
+      }
+      getUnknownFields().writeTo(output);
+    }
+
+    private int memoizedSerializedSize = -1;
+    public int getSerializedSize() {
+      int size = memoizedSerializedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt64Size(1, first_);
+      }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt32Size(2, bitWidth_);
+      }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeBytesSize(3, data_);
+      }
+      size += getUnknownFields().getSerializedSize();
+      memoizedSerializedSize = size;
+      return size;
+    }
+
+    private static final long serialVersionUID = 0L;
+    @java.lang.Override
+    protected java.lang.Object writeReplace()
+        throws java.io.ObjectStreamException {
+      return super.writeReplace();
+    }
+
+    public static edu.washington.escience.myria.proto.DataProto.DeltaColumnMessage parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static edu.washington.escience.myria.proto.DataProto.DeltaColumnMessage parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static edu.washington.escience.myria.proto.DataProto.DeltaColumnMessage parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static edu.washington.escience.myria.proto.DataProto.DeltaColumnMessage parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static edu.washington.escience.myria.proto.DataProto.DeltaColumnMessage parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input);
+    }
+    public static edu.washington.escience.myria.proto.DataProto.DeltaColumnMessage parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input, extensionRegistry);
+    }
+    public static edu.washington.escience.myria.proto.DataProto.DeltaColumnMessage parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return PARSER.parseDelimitedFrom(input);
+    }
+    public static edu.washington.escience.myria.proto.DataProto.DeltaColumnMessage parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseDelimitedFrom(input, extensionRegistry);
+    }
+    public static edu.washington.escience.myria.proto.DataProto.DeltaColumnMessage parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input);
+    }
+    public static edu.washington.escience.myria.proto.DataProto.DeltaColumnMessage parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input, extensionRegistry);
+    }
+
+    public static Builder newBuilder() { return Builder.create(); }
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder(edu.washington.escience.myria.proto.DataProto.DeltaColumnMessage prototype) {
+      return newBuilder().mergeFrom(prototype);
+    }
+    public Builder toBuilder() { return newBuilder(this); }
+
+    @java.lang.Override
+    protected Builder newBuilderForType(
+        com.google.protobuf.GeneratedMessage.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * Protobuf type {@code DeltaColumnMessage}
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessage.Builder<Builder> implements
+        // @@protoc_insertion_point(builder_implements:DeltaColumnMessage)
+        edu.washington.escience.myria.proto.DataProto.DeltaColumnMessageOrBuilder {
+      public static final com.google.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return edu.washington.escience.myria.proto.DataProto.internal_static_DeltaColumnMessage_descriptor;
+      }
+
+      protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return edu.washington.escience.myria.proto.DataProto.internal_static_DeltaColumnMessage_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                edu.washington.escience.myria.proto.DataProto.DeltaColumnMessage.class, edu.washington.escience.myria.proto.DataProto.DeltaColumnMessage.Builder.class);
+      }
+
+      // Construct using edu.washington.escience.myria.proto.DataProto.DeltaColumnMessage.newBuilder()
+      private Builder() {
+        maybeForceBuilderInitialization();
+      }
+
+      private Builder(
+          com.google.protobuf.GeneratedMessage.BuilderParent parent) {
+        super(parent);
+        maybeForceBuilderInitialization();
+      }
+      private void maybeForceBuilderInitialization() {
+        if (com.google.protobuf.GeneratedMessage.alwaysUseFieldBuilders) {
+        }
+      }
+      private static Builder create() {
+        return new Builder();
+      }
+
+      public Builder clear() {
+        super.clear();
+        first_ = 0L;
+        bitField0_ = (bitField0_ & ~0x00000001);
+        bitWidth_ = 0;
+        bitField0_ = (bitField0_ & ~0x00000002);
+        data_ = com.google.protobuf.ByteString.EMPTY;
+        bitField0_ = (bitField0_ & ~0x00000004);
+        return this;
+      }
+
+      public Builder clone() {
+        return create().mergeFrom(buildPartial());
+      }
+
+      public com.google.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return edu.washington.escience.myria.proto.DataProto.internal_static_DeltaColumnMessage_descriptor;
+      }
+
+      public edu.washington.escience.myria.proto.DataProto.DeltaColumnMessage getDefaultInstanceForType() {
+        return edu.washington.escience.myria.proto.DataProto.DeltaColumnMessage.getDefaultInstance();
+      }
+
+      public edu.washington.escience.myria.proto.DataProto.DeltaColumnMessage build() {
+        edu.washington.escience.myria.proto.DataProto.DeltaColumnMessage result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      public edu.washington.escience.myria.proto.DataProto.DeltaColumnMessage buildPartial() {
+        edu.washington.escience.myria.proto.DataProto.DeltaColumnMessage result = new edu.washington.escience.myria.proto.DataProto.DeltaColumnMessage(this);
+        int from_bitField0_ = bitField0_;
+        int to_bitField0_ = 0;
+        if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
+          to_bitField0_ |= 0x00000001;
+        }
+        result.first_ = first_;
+        if (((from_bitField0_ & 0x00000002) == 0x00000002)) {
+          to_bitField0_ |= 0x00000002;
+        }
+        result.bitWidth_ = bitWidth_;
+        if (((from_bitField0_ & 0x00000004) == 0x00000004)) {
+          to_bitField0_ |= 0x00000004;
+        }
+        result.data_ = data_;
+        result.bitField0_ = to_bitField0_;
+        onBuilt();
+        return result;
+      }
+
+      public Builder mergeFrom(com.google.protobuf.Message other) {
+        if (other instanceof edu.washington.escience.myria.proto.DataProto.DeltaColumnMessage) {
+          return mergeFrom((edu.washington.escience.myria.proto.DataProto.DeltaColumnMessage)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(edu.washington.escience.myria.proto.DataProto.DeltaColumnMessage other) {
+        if (other == edu.washington.escience.myria.proto.DataProto.DeltaColumnMessage.getDefaultInstance()) return this;
+        if (other.hasFirst()) {
+          setFirst(other.getFirst());
+        }
+        if (other.hasBitWidth()) {
+          setBitWidth(other.getBitWidth());
+        }
+        if (other.hasData()) {
+          setData(other.getData());
+        }
+        this.mergeUnknownFields(other.getUnknownFields());
+        return this;
+      }
+
+      public final boolean isInitialized() {
+        if (!hasFirst()) {
+          
+          return false;
+        }
+        if (!hasBitWidth()) {
+          
+          return false;
+        }
+        if (!hasData()) {
+          
+          return false;
+        }
+        return true;
+      }
+
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        edu.washington.escience.myria.proto.DataProto.DeltaColumnMessage parsedMessage = null;
+        try {
+          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          parsedMessage = (edu.washington.escience.myria.proto.DataProto.DeltaColumnMessage) e.getUnfinishedMessage();
+          throw e;
+        } finally {
+          if (parsedMessage != null) {
+            mergeFrom(parsedMessage);
+          }
+        }
+        return this;
+      }
+      private int bitField0_;
+
+      private long first_ ;
+      /**
+       * <code>required int64 first = 1;</code>
+       *
+       * <pre>
+       * the value of the first row
+       * </pre>
+       */
+      public boolean hasFirst() {
+        return ((bitField0_ & 0x00000001) == 0x00000001);
+      }
+      /**
+       * <code>required int64 first = 1;</code>
+       *
+       * <pre>
+       * the value of the first row
+       * </pre>
+       */
+      public long getFirst() {
+        return first_;
+      }
+      /**
+       * <code>required int64 first = 1;</code>
+       *
+       * <pre>
+       * the value of the first row
+       * </pre>
+       */
+      public Builder setFirst(long value) {
+        bitField0_ |= 0x00000001;
+        first_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>required int64 first = 1;</code>
+       *
+       * <pre>
+       * the value of the first row
+       * </pre>
+       */
+      public Builder clearFirst() {
+        bitField0_ = (bitField0_ & ~0x00000001);
+        first_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      private int bitWidth_ ;
+      /**
+       * <code>required int32 bit_width = 2;</code>
+       *
+       * <pre>
+       * the number of bits of each difference
+       * </pre>
+       */
+      public boolean hasBitWidth() {
+        return ((bitField0_ & 0x00000002) == 0x00000002);
+      }
+      /**
+       * <code>required int32 bit_width = 2;</code>
+       *
+       * <pre>
+       * the number of bits of each difference
+       * </pre>
+       */
+      public int getBitWidth() {
+        return bitWidth_;
+      }
+      /**
+       * <code>required int32 bit_width = 2;</code>
+       *
+       * <pre>
+       * the number of bits of each difference
+       * </pre>
+       */
+      public Builder setBitWidth(int value) {
+        bitField0_ |= 0x00000002;
+        bitWidth_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>required int32 bit_width = 2;</code>
+       *
+       * <pre>
+       * the number of bits of each difference
+       * </pre>
+       */
+      public Builder clearBitWidth() {
+        bitField0_ = (bitField0_ & ~0x00000002);
+        bitWidth_ = 0;
+        onChanged();
+        return this;
+      }
+
+      private com.google.protobuf.ByteString data_ = com.google.protobuf.ByteString.EMPTY;
+      /**
+       * <code>required bytes data = 3;</code>
+       *
+       * <pre>
+       * the zigzag-encoded difference between each row and the previous one, bit-packed
+       * </pre>
+       */
+      public boolean hasData() {
+        return ((bitField0_ & 0x00000004) == 0x00000004);
+      }
+      /**
+       * <code>required bytes data = 3;</code>
+       *
+       * <pre>
+       * the zigzag-encoded difference between each row and the previous one, bit-packed
+       * </pre>
+       */
+      public com.google.protobuf.ByteString getData() {
+        return data_;
+      }
+      /**
+       * <code>required bytes data = 3;</code>
+       *
+       * <pre>
+       * the zigzag-encoded difference between each row and the previous one, bit-packed
+       * </pre>
+       */
+      public Builder setData(com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000004;
+        data_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>required bytes data = 3;</code>
+       *
+       * <pre>
+       * the zigzag-encoded difference between each row and the previous one, bit-packed
+       * </pre>
+       */
+      public Builder clearData() {
+        bitField0_ = (bitField0_ & ~0x00000004);
+        data_ = getDefaultInstance().getData();
+        onChanged();
+        return this;
+      }
+
+      // @@protoc_insertion_point(builder_scope:DeltaColumnMessage)
+    }
+
+    static {
+      defaultInstance = new DeltaColumnMessage(true);
+      defaultInstance.initFields();
+    }
+
+    // @@protoc_insertion_point(class_scope:DeltaColumnMessage)
+  }
+
+  public interface IntColumnMessageOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:IntColumnMessage)
+      com.google.protobuf.MessageOrBuilder {
+
+    /**
+     * <code>required bytes data = 1;</code>
+     */
+    boolean hasData();
+    /**
+     * <code>required bytes data = 1;</code>
+     */
+    com.google.protobuf.ByteString getData();
+  }
+  /**
+   * Protobuf type {@code IntColumnMessage}
+   */
+  public static final class IntColumnMessage extends
+      com.google.protobuf.GeneratedMessage implements
+      // @@protoc_insertion_point(message_implements:IntColumnMessage)
+      IntColumnMessageOrBuilder {
+    // Use IntColumnMessage.newBuilder() to construct.
+    private IntColumnMessage(com.google.protobuf.GeneratedMessage.Builder<?> builder) {
+      super(builder);
+      this.unknownFields = builder.getUnknownFields();
+    }
+    private IntColumnMessage(boolean noInit) { this.unknownFields = com.google.protobuf.UnknownFieldSet.getDefaultInstance(); }
+
+    private static final IntColumnMessage defaultInstance;
+    public static IntColumnMessage getDefaultInstance() {
+      return defaultInstance;
+    }
+
+    public IntColumnMessage getDefaultInstanceForType() {
+      return defaultInstance;
+    }
+
+    private final com.google.protobuf.UnknownFieldSet unknownFields;
+    @java.lang.Override
+    public final com.google.protobuf.UnknownFieldSet
+        getUnknownFields() {
+      return this.unknownFields;
+    }
+    private IntColumnMessage(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      initFields();
+      int mutable_bitField0_ = 0;
+      com.google.protobuf.UnknownFieldSet.Builder unknownFields =
+          com.google.protobuf.UnknownFieldSet.newBuilder();
+      try {
+        boolean done = false;
+        while (!done) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              done = true;
+              break;
+            default: {
+              if (!parseUnknownField(input, unknownFields,
+                                     extensionRegistry, tag)) {
+                done = true;
+              }
+              break;
+            }
+            case 10: {
+              bitField0_ |= 0x00000001;
+              data_ = input.readBytes();
+              break;
+            }
+          }
+        }
+      } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+        throw e.setUnfinishedMessage(this);
+      } catch (java.io.IOException e) {
+        throw new com.google.protobuf.InvalidProtocolBufferException(
+            e.getMessage()).setUnfinishedMessage(this);
+      } finally {
+        this.unknownFields = unknownFields.build();
+        makeExtensionsImmutable();
+      }
+    }
+    public static final com.google.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return edu.washington.escience.myria.proto.DataProto.internal_static_IntColumnMessage_descriptor;
+    }
+
+    protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return edu.washington.escience.myria.proto.DataProto.internal_static_IntColumnMessage_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              edu.washington.escience.myria.proto.DataProto.IntColumnMessage.class, edu.washington.escience.myria.proto.DataProto.IntColumnMessage.Builder.class);
+    }
+
+    public static com.google.protobuf.Parser<IntColumnMessage> PARSER =
+        new com.google.protobuf.AbstractParser<IntColumnMessage>() {
+      public IntColumnMessage parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return new IntColumnMessage(input, extensionRegistry);
+      }
+    };
+
+    @java.lang.Override
+    public com.google.protobuf.Parser<IntColumnMessage> getParserForType() {
+      return PARSER;
+    }
+
+    private int bitField0_;
+    public static final int DATA_FIELD_NUMBER = 1;
+    private com.google.protobuf.ByteString data_;
+    /**
+     * <code>required bytes data = 1;</code>
+     */
+    public boolean hasData() {
+      return ((bitField0_ & 0x00000001) == 0x00000001);
+    }
+    /**
+     * <code>required bytes data = 1;</code>
+     */
+    public com.google.protobuf.ByteString getData() {
+      return data_;
+    }
+
+    private void initFields() {
+      data_ = com.google.protobuf.ByteString.EMPTY;
+    }
+    private byte memoizedIsInitialized = -1;
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
+
+      if (!hasData()) {
+        memoizedIsInitialized = 0;
+        return false;
+      }
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      getSerializedSize();
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        output.writeBytes(1, data_);
+      }
+      getUnknownFields().writeTo(output);
+    }
+
+    private int memoizedSerializedSize = -1;
+    public int getSerializedSize() {
+      int size = memoizedSerializedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeBytesSize(1, data_);
+      }
+      size += getUnknownFields().getSerializedSize();
+      memoizedSerializedSize = size;
+      return size;
+    }
+
+    private static final long serialVersionUID = 0L;
+    @java.lang.Override
+    protected java.lang.Object writeReplace()
+        throws java.io.ObjectStreamException {
+      return super.writeReplace();
+    }
+
+    public static edu.washington.escience.myria.proto.DataProto.IntColumnMessage parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static edu.washington.escience.myria.proto.DataProto.IntColumnMessage parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static edu.washington.escience.myria.proto.DataProto.IntColumnMessage parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static edu.washington.escience.myria.proto.DataProto.IntColumnMessage parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static edu.washington.escience.myria.proto.DataProto.IntColumnMessage parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input);
+    }
+    public static edu.washington.escience.myria.proto.DataProto.IntColumnMessage parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input, extensionRegistry);
+    }
+    public static edu.washington.escience.myria.proto.DataProto.IntColumnMessage parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return PARSER.parseDelimitedFrom(input);
+    }
+    public static edu.washington.escience.myria.proto.DataProto.IntColumnMessage parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseDelimitedFrom(input, extensionRegistry);
+    }
+    public static edu.washington.escience.myria.proto.DataProto.IntColumnMessage parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input);
+    }
+    public static edu.washington.escience.myria.proto.DataProto.IntColumnMessage parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input, extensionRegistry);
+    }
+
+    public static Builder newBuilder() { return Builder.create(); }
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder(edu.washington.escience.myria.proto.DataProto.IntColumnMessage prototype) {
+      return newBuilder().mergeFrom(prototype);
+    }
+    public Builder toBuilder() { return newBuilder(this); }
+
+    @java.lang.Override
+    protected Builder newBuilderForType(
+        com.google.protobuf.GeneratedMessage.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * Protobuf type {@code IntColumnMessage}
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessage.Builder<Builder> implements
+        // @@protoc_insertion_point(builder_implements:IntColumnMessage)
+        edu.washington.escience.myria.proto.DataProto.IntColumnMessageOrBuilder {
+      public static final com.google.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return edu.washington.escience.myria.proto.DataProto.internal_static_IntColumnMessage_descriptor;
+      }
+
+      protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return edu.washington.escience.myria.proto.DataProto.internal_static_IntColumnMessage_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                edu.washington.escience.myria.proto.DataProto.IntColumnMessage.class, edu.washington.escience.myria.proto.DataProto.IntColumnMessage.Builder.class);
+      }
+
+      // Construct using edu.washington.escience.myria.proto.DataProto.IntColumnMessage.newBuilder()
+      private Builder() {
+        maybeForceBuilderInitialization();
+      }
+
+      private Builder(
+          com.google.protobuf.GeneratedMessage.BuilderParent parent) {
+        super(parent);
+        maybeForceBuilderInitialization();
+      }
+      private void maybeForceBuilderInitialization() {
+        if (com.google.protobuf.GeneratedMessage.alwaysUseFieldBuilders) {
+        }
+      }
+      private static Builder create() {
+        return new Builder();
+      }
+
+      public Builder clear() {
+        super.clear();
+        data_ = com.google.protobuf.ByteString.EMPTY;
+        bitField0_ = (bitField0_ & ~0x00000001);
+        return this;
+      }
+
+      public Builder clone() {
+        return create().mergeFrom(buildPartial());
+      }
+
+      public com.google.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return edu.washington.escience.myria.proto.DataProto.internal_static_IntColumnMessage_descriptor;
+      }
+
+      public edu.washington.escience.myria.proto.DataProto.IntColumnMessage getDefaultInstanceForType() {
+        return edu.washington.escience.myria.proto.DataProto.IntColumnMessage.getDefaultInstance();
+      }
+
+      public edu.washington.escience.myria.proto.DataProto.IntColumnMessage build() {
+        edu.washington.escience.myria.proto.DataProto.IntColumnMessage result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      public edu.washington.escience.myria.proto.DataProto.IntColumnMessage buildPartial() {
+        edu.washington.escience.myria.proto.DataProto.IntColumnMessage result = new edu.washington.escience.myria.proto.DataProto.IntColumnMessage(this);
+        int from_bitField0_ = bitField0_;
+        int to_bitField0_ = 0;
+        if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
+          to_bitField0_ |= 0x00000001;
+        }
+        result.data_ = data_;
+        result.bitField0_ = to_bitField0_;
+        onBuilt();
+        return result;
+      }
+
+      public Builder mergeFrom(com.google.protobuf.Message other) {
+        if (other instanceof edu.washington.escience.myria.proto.DataProto.IntColumnMessage) {
+          return mergeFrom((edu.washington.escience.myria.proto.DataProto.IntColumnMessage)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(edu.washington.escience.myria.proto.DataProto.IntColumnMessage other) {
+        if (other == edu.washington.escience.myria.proto.DataProto.IntColumnMessage.getDefaultInstance()) return this;
+        if (other.hasData()) {
+          setData(other.getData());
+        }
+        this.mergeUnknownFields(other.getUnknownFields());
+        return this;
+      }
+
+      public final boolean isInitialized() {
+        if (!hasData()) {
+          
+          return false;
+        }
+        return true;
+      }
+
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        edu.washington.escience.myria.proto.DataProto.IntColumnMessage parsedMessage = null;
+        try {
+          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          parsedMessage = (edu.washington.escience.myria.proto.DataProto.IntColumnMessage) e.getUnfinishedMessage();
+          throw e;
+        } finally {
+          if (parsedMessage != null) {
+            mergeFrom(parsedMessage);
+          }
+        }
+        return this;
+      }
+      private int bitField0_;
+
+      private com.google.protobuf.ByteString data_ = com.google.protobuf.ByteString.EMPTY;
+      /**
+       * <code>required bytes data = 1;</code>
+       */
+      public boolean hasData() {
+        return ((bitField0_ & 0x00000001) == 0x00000001);
+      }
+      /**
+       * <code>required bytes data = 1;</code>
+       */
+      public com.google.protobuf.ByteString getData() {
+        return data_;
+      }
+      /**
+       * <code>required bytes data = 1;</code>
+       */
+      public Builder setData(com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000001;
+        data_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>required bytes data = 1;</code>
+       */
+      public Builder clearData() {
+        bitField0_ = (bitField0_ & ~0x00000001);
+        data_ = getDefaultInstance().getData();
+        onChanged();
+        return this;
+      }
+
+      // @@protoc_insertion_point(builder_scope:IntColumnMessage)
+    }
+
+    static {
+      defaultInstance = new IntColumnMessage(true);
+      defaultInstance.initFields();
+    }
+
+    // @@protoc_insertion_point(class_scope:IntColumnMessage)
+  }
+
+  public interface LongColumnMessageOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:LongColumnMessage)
+      com.google.protobuf.MessageOrBuilder {
+
+    /**
+     * <code>required bytes data = 1;</code>
+     */
+    boolean hasData();
+    /**
+     * <code>required bytes data = 1;</code>
+     */
+    com.google.protobuf.ByteString getData();
+  }
+  /**
+   * Protobuf type {@code LongColumnMessage}
+   */
+  public static final class LongColumnMessage extends
+      com.google.protobuf.GeneratedMessage implements
+      // @@protoc_insertion_point(message_implements:LongColumnMessage)
+      LongColumnMessageOrBuilder {
+    // Use LongColumnMessage.newBuilder() to construct.
+    private LongColumnMessage(com.google.protobuf.GeneratedMessage.Builder<?> builder) {
+      super(builder);
+      this.unknownFields = builder.getUnknownFields();
+    }
+    private LongColumnMessage(boolean noInit) { this.unknownFields = com.google.protobuf.UnknownFieldSet.getDefaultInstance(); }
+
+    private static final LongColumnMessage defaultInstance;
+    public static LongColumnMessage getDefaultInstance() {
+      return defaultInstance;
+    }
+
+    public LongColumnMessage getDefaultInstanceForType() {
+      return defaultInstance;
+    }
 
     private final com.google.protobuf.UnknownFieldSet unknownFields;
     @java.lang.Override
@@ -3358,7 +6811,7 @@ public final class DataProto {
         getUnknownFields() {
       return this.unknownFields;
     }
-    private IntColumnMessage(
+    private LongColumnMessage(
         com.google.protobuf.CodedInputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
@@ -3400,28 +6853,28 @@ public final class DataProto {
     }
     public static final com.google.protobuf.Descriptors.Descriptor
         getDescriptor() {
-      return edu.washington.escience.myria.proto.DataProto.internal_static_IntColumnMessage_descriptor;
+      return edu.washington.escience.myria.proto.DataProto.internal_static_LongColumnMessage_descriptor;
     }
 
     protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
         internalGetFieldAccessorTable() {
-      return edu.washington.escience.myria.proto.DataProto.internal_static_IntColumnMessage_fieldAccessorTable
+      return edu.washington.escience.myria.proto.DataProto.internal_static_LongColumnMessage_fieldAccessorTable
           .ensureFieldAccessorsInitialized(
-              edu.washington.escience.myria.proto.DataProto.IntColumnMessage.class, edu.washington.escience.myria.proto.DataProto.IntColumnMessage.Builder.class);
+              edu.washington.escience.myria.proto.DataProto.LongColumnMessage.class, edu.washington.escience.myria.proto.DataProto.LongColumnMessage.Builder.class);
     }
 
-    public static com.google.protobuf.Parser<IntColumnMessage> PARSER =
-        new com.google.protobuf.AbstractParser<IntColumnMessage>() {
-      public IntColumnMessage parsePartialFrom(
+    public static com.google.protobuf.Parser<LongColumnMessage> PARSER =
+        new com.google.protobuf.AbstractParser<LongColumnMessage>() {
+      public LongColumnMessage parsePartialFrom(
           com.google.protobuf.CodedInputStream input,
           com.google.protobuf.ExtensionRegistryLite extensionRegistry)
           throws com.google.protobuf.InvalidProtocolBufferException {
-        return new IntColumnMessage(input, extensionRegistry);
+        return new LongColumnMessage(input, extensionRegistry);
       }
     };
 
     @java.lang.Override
-    public com.google.protobuf.Parser<IntColumnMessage> getParserForType() {
+    public com.google.protobuf.Parser<LongColumnMessage> getParserForType() {
       return PARSER;
     }
 
@@ -3489,53 +6942,53 @@ public final class DataProto {
       return super.writeReplace();
     }
 
-    public static edu.washington.escience.myria.proto.DataProto.IntColumnMessage parseFrom(
+    public static edu.washington.escience.myria.proto.DataProto.LongColumnMessage parseFrom(
         com.google.protobuf.ByteString data)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data);
     }
-    public static edu.washington.escience.myria.proto.DataProto.IntColumnMessage parseFrom(
+    public static edu.washington.escience.myria.proto.DataProto.LongColumnMessage parseFrom(
         com.google.protobuf.ByteString data,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data, extensionRegistry);
     }
-    public static edu.washington.escience.myria.proto.DataProto.IntColumnMessage parseFrom(byte[] data)
+    public static edu.washington.escience.myria.proto.DataProto.LongColumnMessage parseFrom(byte[] data)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data);
     }
-    public static edu.washington.escience.myria.proto.DataProto.IntColumnMessage parseFrom(
+    public static edu.washington.escience.myria.proto.DataProto.LongColumnMessage parseFrom(
         byte[] data,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data, extensionRegistry);
     }
-    public static edu.washington.escience.myria.proto.DataProto.IntColumnMessage parseFrom(java.io.InputStream input)
+    public static edu.washington.escience.myria.proto.DataProto.LongColumnMessage parseFrom(java.io.InputStream input)
         throws java.io.IOException {
       return PARSER.parseFrom(input);
     }
-    public static edu.washington.escience.myria.proto.DataProto.IntColumnMessage parseFrom(
+    public static edu.washington.escience.myria.proto.DataProto.LongColumnMessage parseFrom(
         java.io.InputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
       return PARSER.parseFrom(input, extensionRegistry);
     }
-    public static edu.washington.escience.myria.proto.DataProto.IntColumnMessage parseDelimitedFrom(java.io.InputStream input)
+    public static edu.washington.escience.myria.proto.DataProto.LongColumnMessage parseDelimitedFrom(java.io.InputStream input)
         throws java.io.IOException {
       return PARSER.parseDelimitedFrom(input);
     }
-    public static edu.washington.escience.myria.proto.DataProto.IntColumnMessage parseDelimitedFrom(
+    public static edu.washington.escience.myria.proto.DataProto.LongColumnMessage parseDelimitedFrom(
         java.io.InputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
       return PARSER.parseDelimitedFrom(input, extensionRegistry);
     }
-    public static edu.washington.escience.myria.proto.DataProto.IntColumnMessage parseFrom(
+    public static edu.washington.escience.myria.proto.DataProto.LongColumnMessage parseFrom(
         com.google.protobuf.CodedInputStream input)
         throws java.io.IOException {
       return PARSER.parseFrom(input);
     }
-    public static edu.washington.escience.myria.proto.DataProto.IntColumnMessage parseFrom(
+    public static edu.washington.escience.myria.proto.DataProto.LongColumnMessage parseFrom(
         com.google.protobuf.CodedInputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
@@ -3544,7 +6997,7 @@ public final class DataProto {
 
     public static Builder newBuilder() { return Builder.create(); }
     public Builder newBuilderForType() { return newBuilder(); }
-    public static Builder newBuilder(edu.washington.escience.myria.proto.DataProto.IntColumnMessage prototype) {
+    public static Builder newBuilder(edu.washington.escience.myria.proto.DataProto.LongColumnMessage prototype) {
       return newBuilder().mergeFrom(prototype);
     }
     public Builder toBuilder() { return newBuilder(this); }
@@ -3556,25 +7009,25 @@ public final class DataProto {
       return builder;
     }
     /**
-     * Protobuf type {@code IntColumnMessage}
+     * Protobuf type {@code LongColumnMessage}
      */
     public static final class Builder extends
         com.google.protobuf.GeneratedMessage.Builder<Builder> implements
-        // @@protoc_insertion_point(builder_implements:IntColumnMessage)
-        edu.washington.escience.myria.proto.DataProto.IntColumnMessageOrBuilder {
+        // @@protoc_insertion_point(builder_implements:LongColumnMessage)
+        edu.washington.escience.myria.proto.DataProto.LongColumnMessageOrBuilder {
       public static final com.google.protobuf.Descriptors.Descriptor
           getDescriptor() {
-        return edu.washington.escience.myria.proto.DataProto.internal_static_IntColumnMessage_descriptor;
+        return edu.washington.escience.myria.proto.DataProto.internal_static_LongColumnMessage_descriptor;
       }
 
       protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
           internalGetFieldAccessorTable() {
-        return edu.washington.escience.myria.proto.DataProto.internal_static_IntColumnMessage_fieldAccessorTable
+        return edu.washington.escience.myria.proto.DataProto.internal_static_LongColumnMessage_fieldAccessorTable
             .ensureFieldAccessorsInitialized(
-                edu.washington.escience.myria.proto.DataProto.IntColumnMessage.class, edu.washington.escience.myria.proto.DataProto.IntColumnMessage.Builder.class);
+                edu.washington.escience.myria.proto.DataProto.LongColumnMessage.class, edu.washington.escience.myria.proto.DataProto.LongColumnMessage.Builder.class);
       }
 
-      // Construct using edu.washington.escience.myria.proto.DataProto.IntColumnMessage.newBuilder()
+      // Construct using edu.washington.escience.myria.proto.DataProto.LongColumnMessage.newBuilder()
       private Builder() {
         maybeForceBuilderInitialization();
       }
@@ -3605,23 +7058,23 @@ public final class DataProto {
 
       public com.google.protobuf.Descriptors.Descriptor
           getDescriptorForType() {
-        return edu.washington.escience.myria.proto.DataProto.internal_static_IntColumnMessage_descriptor;
+        return edu.washington.escience.myria.proto.DataProto.internal_static_LongColumnMessage_descriptor;
       }
 
-      public edu.washington.escience.myria.proto.DataProto.IntColumnMessage getDefaultInstanceForType() {
-        return edu.washington.escience.myria.proto.DataProto.IntColumnMessage.getDefaultInstance();
+      public edu.washington.escience.myria.proto.DataProto.LongColumnMessage getDefaultInstanceForType() {
+        return edu.washington.escience.myria.proto.DataProto.LongColumnMessage.getDefaultInstance();
       }
 
-      public edu.washington.escience.myria.proto.DataProto.IntColumnMessage build() {
-        edu.washington.escience.myria.proto.DataProto.IntColumnMessage result = buildPartial();
+      public edu.washington.escience.myria.proto.DataProto.LongColumnMessage build() {
+        edu.washington.escience.myria.proto.DataProto.LongColumnMessage result = buildPartial();
         if (!result.isInitialized()) {
           throw newUninitializedMessageException(result);
         }
         return result;
       }
 
-      public edu.washington.escience.myria.proto.DataProto.IntColumnMessage buildPartial() {
-        edu.washington.escience.myria.proto.DataProto.IntColumnMessage result = new edu.washington.escience.myria.proto.DataProto.IntColumnMessage(this);
+      public edu.washington.escience.myria.proto.DataProto.LongColumnMessage buildPartial() {
+        edu.washington.escience.myria.proto.DataProto.LongColumnMessage result = new edu.washington.escience.myria.proto.DataProto.LongColumnMessage(this);
         int from_bitField0_ = bitField0_;
         int to_bitField0_ = 0;
         if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
@@ -3634,16 +7087,16 @@ public final class DataProto {
       }
 
       public Builder mergeFrom(com.google.protobuf.Message other) {
-        if (other instanceof edu.washington.escience.myria.proto.DataProto.IntColumnMessage) {
-          return mergeFrom((edu.washington.escience.myria.proto.DataProto.IntColumnMessage)other);
+        if (other instanceof edu.washington.escience.myria.proto.DataProto.LongColumnMessage) {
+          return mergeFrom((edu.washington.escience.myria.proto.DataProto.LongColumnMessage)other);
         } else {
           super.mergeFrom(other);
           return this;
         }
       }
 
-      public Builder mergeFrom(edu.washington.escience.myria.proto.DataProto.IntColumnMessage other) {
-        if (other == edu.washington.escience.myria.proto.DataProto.IntColumnMessage.getDefaultInstance()) return this;
+      public Builder mergeFrom(edu.washington.escience.myria.proto.DataProto.LongColumnMessage other) {
+        if (other == edu.washington.escience.myria.proto.DataProto.LongColumnMessage.getDefaultInstance()) return this;
         if (other.hasData()) {
           setData(other.getData());
         }
@@ -3663,11 +7116,11 @@ public final class DataProto {
           com.google.protobuf.CodedInputStream input,
           com.google.protobuf.ExtensionRegistryLite extensionRegistry)
           throws java.io.IOException {
-        edu.washington.escience.myria.proto.DataProto.IntColumnMessage parsedMessage = null;
+        edu.washington.escience.myria.proto.DataProto.LongColumnMessage parsedMessage = null;
         try {
           parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
         } catch (com.google.protobuf.InvalidProtocolBufferException e) {
-          parsedMessage = (edu.washington.escience.myria.proto.DataProto.IntColumnMessage) e.getUnfinishedMessage();
+          parsedMessage = (edu.washington.escience.myria.proto.DataProto.LongColumnMessage) e.getUnfinishedMessage();
           throw e;
         } finally {
           if (parsedMessage != null) {
@@ -3713,19 +7166,19 @@ public final class DataProto {
         return this;
       }
 
-      // @@protoc_insertion_point(builder_scope:IntColumnMessage)
+      // @@protoc_insertion_point(builder_scope:LongColumnMessage)
     }
 
     static {
-      defaultInstance = new IntColumnMessage(true);
+      defaultInstance = new LongColumnMessage(true);
       defaultInstance.initFields();
     }
 
-    // @@protoc_insertion_point(class_scope:IntColumnMessage)
+    // @@protoc_insertion_point(class_scope:LongColumnMessage)
   }
 
-  public interface LongColumnMessageOrBuilder extends
-      // @@protoc_insertion_point(interface_extends:LongColumnMessage)
+  public interface FloatColumnMessageOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:FloatColumnMessage)
       com.google.protobuf.MessageOrBuilder {
 
     /**
@@ -3738,25 +7191,25 @@ public final class DataProto {
     com.google.protobuf.ByteString getData();
   }
   /**
-   * Protobuf type {@code LongColumnMessage}
+   * Protobuf type {@code FloatColumnMessage}
    */
-  public static final class LongColumnMessage extends
+  public static final class FloatColumnMessage extends
       com.google.protobuf.GeneratedMessage implements
-      // @@protoc_insertion_point(message_implements:LongColumnMessage)
-      LongColumnMessageOrBuilder {
-    // Use LongColumnMessage.newBuilder() to construct.
-    private LongColumnMessage(com.google.protobuf.GeneratedMessage.Builder<?> builder) {
+      // @@protoc_insertion_point(message_implements:FloatColumnMessage)
+      FloatColumnMessageOrBuilder {
+    // Use FloatColumnMessage.newBuilder() to construct.
+    private FloatColumnMessage(com.google.protobuf.GeneratedMessage.Builder<?> builder) {
       super(builder);
       this.unknownFields = builder.getUnknownFields();
     }
-    private LongColumnMessage(boolean noInit) { this.unknownFields = com.google.protobuf.UnknownFieldSet.getDefaultInstance(); }
+    private FloatColumnMessage(boolean noInit) { this.unknownFields = com.google.protobuf.UnknownFieldSet.getDefaultInstance(); }
 
-    private static final LongColumnMessage defaultInstance;
-    public static LongColumnMessage getDefaultInstance() {
+    private static final FloatColumnMessage defaultInstance;
+    public static FloatColumnMessage getDefaultInstance() {
       return defaultInstance;
     }
 
-    public LongColumnMessage getDefaultInstanceForType() {
+    public FloatColumnMessage getDefaultInstanceForType() {
       return defaultInstance;
     }
 
@@ -3766,7 +7219,7 @@ public final class DataProto {
         getUnknownFields() {
       return this.unknownFields;
     }
-    private LongColumnMessage(
+    private FloatColumnMessage(
         com.google.protobuf.CodedInputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
@@ -3808,28 +7261,28 @@ public final class DataProto {
     }
     public static final com.google.protobuf.Descriptors.Descriptor
         getDescriptor() {
-      return edu.washington.escience.myria.proto.DataProto.internal_static_LongColumnMessage_descriptor;
+      return edu.washington.escience.myria.proto.DataProto.internal_static_FloatColumnMessage_descriptor;
     }
 
     protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
         internalGetFieldAccessorTable() {
-      return edu.washington.escience.myria.proto.DataProto.internal_static_LongColumnMessage_fieldAccessorTable
+      return edu.washington.escience.myria.proto.DataProto.internal_static_FloatColumnMessage_fieldAccessorTable
           .ensureFieldAccessorsInitialized(
-              edu.washington.escience.myria.proto.DataProto.LongColumnMessage.class, edu.washington.escience.myria.proto.DataProto.LongColumnMessage.Builder.class);
+              edu.washington.escience.myria.proto.DataProto.FloatColumnMessage.class, edu.washington.escience.myria.proto.DataProto.FloatColumnMessage.Builder.class);
     }
 
-    public static com.google.protobuf.Parser<LongColumnMessage> PARSER =
-        new com.google.protobuf.AbstractParser<LongColumnMessage>() {
-      public LongColumnMessage parsePartialFrom(
+    public static com.google.protobuf.Parser<FloatColumnMessage> PARSER =
+        new com.google.protobuf.AbstractParser<FloatColumnMessage>() {
+      public FloatColumnMessage parsePartialFrom(
           com.google.protobuf.CodedInputStream input,
           com.google.protobuf.ExtensionRegistryLite extensionRegistry)
           throws com.google.protobuf.InvalidProtocolBufferException {
-        return new LongColumnMessage(input, extensionRegistry);
+        return new FloatColumnMessage(input, extensionRegistry);
       }
     };
 
     @java.lang.Override
-    public com.google.protobuf.Parser<LongColumnMessage> getParserForType() {
+    public com.google.protobuf.Parser<FloatColumnMessage> getParserForType() {
       return PARSER;
     }
 
@@ -3897,53 +7350,53 @@ public final class DataProto {
       return super.writeReplace();
     }
 
-    public static edu.washington.escience.myria.proto.DataProto.LongColumnMessage parseFrom(
+    public static edu.washington.escience.myria.proto.DataProto.FloatColumnMessage parseFrom(
         com.google.protobuf.ByteString data)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data);
     }
-    public static edu.washington.escience.myria.proto.DataProto.LongColumnMessage parseFrom(
+    public static edu.washington.escience.myria.proto.DataProto.FloatColumnMessage parseFrom(
         com.google.protobuf.ByteString data,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data, extensionRegistry);
     }
-    public static edu.washington.escience.myria.proto.DataProto.LongColumnMessage parseFrom(byte[] data)
+    public static edu.washington.escience.myria.proto.DataProto.FloatColumnMessage parseFrom(byte[] data)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data);
     }
-    public static edu.washington.escience.myria.proto.DataProto.LongColumnMessage parseFrom(
+    public static edu.washington.escience.myria.proto.DataProto.FloatColumnMessage parseFrom(
         byte[] data,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data, extensionRegistry);
     }
-    public static edu.washington.escience.myria.proto.DataProto.LongColumnMessage parseFrom(java.io.InputStream input)
+    public static edu.washington.escience.myria.proto.DataProto.FloatColumnMessage parseFrom(java.io.InputStream input)
         throws java.io.IOException {
       return PARSER.parseFrom(input);
     }
-    public static edu.washington.escience.myria.proto.DataProto.LongColumnMessage parseFrom(
+    public static edu.washington.escience.myria.proto.DataProto.FloatColumnMessage parseFrom(
         java.io.InputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
       return PARSER.parseFrom(input, extensionRegistry);
     }
-    public static edu.washington.escience.myria.proto.DataProto.LongColumnMessage parseDelimitedFrom(java.io.InputStream input)
+    public static edu.washington.escience.myria.proto.DataProto.FloatColumnMessage parseDelimitedFrom(java.io.InputStream input)
         throws java.io.IOException {
       return PARSER.parseDelimitedFrom(input);
     }
-    public static edu.washington.escience.myria.proto.DataProto.LongColumnMessage parseDelimitedFrom(
+    public static edu.washington.escience.myria.proto.DataProto.FloatColumnMessage parseDelimitedFrom(
         java.io.InputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
       return PARSER.parseDelimitedFrom(input, extensionRegistry);
     }
-    public static edu.washington.escience.myria.proto.DataProto.LongColumnMessage parseFrom(
+    public static edu.washington.escience.myria.proto.DataProto.FloatColumnMessage parseFrom(
         com.google.protobuf.CodedInputStream input)
         throws java.io.IOException {
       return PARSER.parseFrom(input);
     }
-    public static edu.washington.escience.myria.proto.DataProto.LongColumnMessage parseFrom(
+    public static edu.washington.escience.myria.proto.DataProto.FloatColumnMessage parseFrom(
         com.google.protobuf.CodedInputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
@@ -3952,7 +7405,7 @@ public final class DataProto {
 
     public static Builder newBuilder() { return Builder.create(); }
     public Builder newBuilderForType() { return newBuilder(); }
-    public static Builder newBuilder(edu.washington.escience.myria.proto.DataProto.LongColumnMessage prototype) {
+    public static Builder newBuilder(edu.washington.escience.myria.proto.DataProto.FloatColumnMessage prototype) {
       return newBuilder().mergeFrom(prototype);
     }
     public Builder toBuilder() { return newBuilder(this); }
@@ -3964,25 +7417,25 @@ public final class DataProto {
       return builder;
     }
     /**
-     * Protobuf type {@code LongColumnMessage}
+     * Protobuf type {@code FloatColumnMessage}
      */
     public static final class Builder extends
         com.google.protobuf.GeneratedMessage.Builder<Builder> implements
-        // @@protoc_insertion_point(builder_implements:LongColumnMessage)
-        edu.washington.escience.myria.proto.DataProto.LongColumnMessageOrBuilder {
+        // @@protoc_insertion_point(builder_implements:FloatColumnMessage)
+        edu.washington.escience.myria.proto.DataProto.FloatColumnMessageOrBuilder {
       public static final com.google.protobuf.Descriptors.Descriptor
           getDescriptor() {
-        return edu.washington.escience.myria.proto.DataProto.internal_static_LongColumnMessage_descriptor;
+        return edu.washington.escience.myria.proto.DataProto.internal_static_FloatColumnMessage_descriptor;
       }
 
       protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
           internalGetFieldAccessorTable() {
-        return edu.washington.escience.myria.proto.DataProto.internal_static_LongColumnMessage_fieldAccessorTable
+        return edu.washington.escience.myria.proto.DataProto.internal_static_FloatColumnMessage_fieldAccessorTable
             .ensureFieldAccessorsInitialized(
-                edu.washington.escience.myria.proto.DataProto.LongColumnMessage.class, edu.washington.escience.myria.proto.DataProto.LongColumnMessage.Builder.class);
+                edu.washington.escience.myria.proto.DataProto.FloatColumnMessage.class, edu.washington.escience.myria.proto.DataProto.FloatColumnMessage.Builder.class);
       }
 
-      // Construct using edu.washington.escience.myria.proto.DataProto.LongColumnMessage.newBuilder()
+      // Construct using edu.washington.escience.myria.proto.DataProto.FloatColumnMessage.newBuilder()
       private Builder() {
         maybeForceBuilderInitialization();
       }
@@ -4013,23 +7466,23 @@ public final class DataProto {
 
       public com.google.protobuf.Descriptors.Descriptor
           getDescriptorForType() {
-        return edu.washington.escience.myria.proto.DataProto.internal_static_LongColumnMessage_descriptor;
+        return edu.washington.escience.myria.proto.DataProto.internal_static_FloatColumnMessage_descriptor;
       }
 
-      public edu.washington.escience.myria.proto.DataProto.LongColumnMessage getDefaultInstanceForType() {
-        return edu.washington.escience.myria.proto.DataProto.LongColumnMessage.getDefaultInstance();
+      public edu.washington.escience.myria.proto.DataProto.FloatColumnMessage getDefaultInstanceForType() {
+        return edu.washington.escience.myria.proto.DataProto.FloatColumnMessage.getDefaultInstance();
       }
 
-      public edu.washington.escience.myria.proto.DataProto.LongColumnMessage build() {
-        edu.washington.escience.myria.proto.DataProto.LongColumnMessage result = buildPartial();
+      public edu.washington.escience.myria.proto.DataProto.FloatColumnMessage build() {
+        edu.washington.escience.myria.proto.DataProto.FloatColumnMessage result = buildPartial();
         if (!result.isInitialized()) {
           throw newUninitializedMessageException(result);
         }
         return result;
       }
 
-      public edu.washington.escience.myria.proto.DataProto.LongColumnMessage buildPartial() {
-        edu.washington.escience.myria.proto.DataProto.LongColumnMessage result = new edu.washington.escience.myria.proto.DataProto.LongColumnMessage(this);
+      public edu.washington.escience.myria.proto.DataProto.FloatColumnMessage buildPartial() {
+        edu.washington.escience.myria.proto.DataProto.FloatColumnMessage result = new edu.washington.escience.myria.proto.DataProto.FloatColumnMessage(this);
         int from_bitField0_ = bitField0_;
         int to_bitField0_ = 0;
         if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
@@ -4042,16 +7495,16 @@ public final class DataProto {
       }
 
       public Builder mergeFrom(com.google.protobuf.Message other) {
-        if (other instanceof edu.washington.escience.myria.proto.DataProto.LongColumnMessage) {
-          return mergeFrom((edu.washington.escience.myria.proto.DataProto.LongColumnMessage)other);
+        if (other instanceof edu.washington.escience.myria.proto.DataProto.FloatColumnMessage) {
+          return mergeFrom((edu.washington.escience.myria.proto.DataProto.FloatColumnMessage)other);
         } else {
           super.mergeFrom(other);
           return this;
         }
       }
 
-      public Builder mergeFrom(edu.washington.escience.myria.proto.DataProto.LongColumnMessage other) {
-        if (other == edu.washington.escience.myria.proto.DataProto.LongColumnMessage.getDefaultInstance()) return this;
+      public Builder mergeFrom(edu.washington.escience.myria.proto.DataProto.FloatColumnMessage other) {
+        if (other == edu.washington.escience.myria.proto.DataProto.FloatColumnMessage.getDefaultInstance()) return this;
         if (other.hasData()) {
           setData(other.getData());
         }
@@ -4071,11 +7524,11 @@ public final class DataProto {
           com.google.protobuf.CodedInputStream input,
           com.google.protobuf.ExtensionRegistryLite extensionRegistry)
           throws java.io.IOException {
-        edu.washington.escience.myria.proto.DataProto.LongColumnMessage parsedMessage = null;
+        edu.washington.escience.myria.proto.DataProto.FloatColumnMessage parsedMessage = null;
         try {
           parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
         } catch (com.google.protobuf.InvalidProtocolBufferException e) {
-          parsedMessage = (edu.washington.escience.myria.proto.DataProto.LongColumnMessage) e.getUnfinishedMessage();
+          parsedMessage = (edu.washington.escience.myria.proto.DataProto.FloatColumnMessage) e.getUnfinishedMessage();
           throw e;
         } finally {
           if (parsedMessage != null) {
@@ -4121,19 +7574,19 @@ public final class DataProto {
         return this;
       }
 
-      // @@protoc_insertion_point(builder_scope:LongColumnMessage)
+      // @@protoc_insertion_point(builder_scope:FloatColumnMessage)
     }
 
     static {
-      defaultInstance = new LongColumnMessage(true);
+      defaultInstance = new FloatColumnMessage(true);
       defaultInstance.initFields();
     }
 
-    // @@protoc_insertion_point(class_scope:LongColumnMessage)
+    // @@protoc_insertion_point(class_scope:FloatColumnMessage)
   }
 
-  public interface FloatColumnMessageOrBuilder extends
-      // @@protoc_insertion_point(interface_extends:FloatColumnMessage)
+  public interface DoubleColumnMessageOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:DoubleColumnMessage)
       com.google.protobuf.MessageOrBuilder {
 
     /**
@@ -4146,25 +7599,25 @@ public final class DataProto {
     com.google.protobuf.ByteString getData();
   }
   /**
-   * Protobuf type {@code FloatColumnMessage}
+   * Protobuf type {@code DoubleColumnMessage}
    */
-  public static final class FloatColumnMessage extends
+  public static final class DoubleColumnMessage extends
       com.google.protobuf.GeneratedMessage implements
-      // @@protoc_insertion_point(message_implements:FloatColumnMessage)
-      FloatColumnMessageOrBuilder {
-    // Use FloatColumnMessage.newBuilder() to construct.
-    private FloatColumnMessage(com.google.protobuf.GeneratedMessage.Builder<?> builder) {
+      // @@protoc_insertion_point(message_implements:DoubleColumnMessage)
+      DoubleColumnMessageOrBuilder {
+    // Use DoubleColumnMessage.newBuilder() to construct.
+    private DoubleColumnMessage(com.google.protobuf.GeneratedMessage.Builder<?> builder) {
       super(builder);
       this.unknownFields = builder.getUnknownFields();
     }
-    private FloatColumnMessage(boolean noInit) { this.unknownFields = com.google.protobuf.UnknownFieldSet.getDefaultInstance(); }
+    private DoubleColumnMessage(boolean noInit) { this.unknownFields = com.google.protobuf.UnknownFieldSet.getDefaultInstance(); }
 
-    private static final FloatColumnMessage defaultInstance;
-    public static FloatColumnMessage getDefaultInstance() {
+    private static final DoubleColumnMessage defaultInstance;
+    public static DoubleColumnMessage getDefaultInstance() {
       return defaultInstance;
     }
 
-    public FloatColumnMessage getDefaultInstanceForType() {
+    public DoubleColumnMessage getDefaultInstanceForType() {
       return defaultInstance;
     }
 
@@ -4174,7 +7627,7 @@ public final class DataProto {
         getUnknownFields() {
       return this.unknownFields;
     }
-    private FloatColumnMessage(
+    private DoubleColumnMessage(
         com.google.protobuf.CodedInputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
@@ -4216,28 +7669,28 @@ public final class DataProto {
     }
     public static final com.google.protobuf.Descriptors.Descriptor
         getDescriptor() {
-      return edu.washington.escience.myria.proto.DataProto.internal_static_FloatColumnMessage_descriptor;
+      return edu.washington.escience.myria.proto.DataProto.internal_static_DoubleColumnMessage_descriptor;
     }
 
     protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
         internalGetFieldAccessorTable() {
-      return edu.washington.escience.myria.proto.DataProto.internal_static_FloatColumnMessage_fieldAccessorTable
+      return edu.washington.escience.myria.proto.DataProto.internal_static_DoubleColumnMessage_fieldAccessorTable
           .ensureFieldAccessorsInitialized(
-              edu.washington.escience.myria.proto.DataProto.FloatColumnMessage.class, edu.washington.escience.myria.proto.DataProto.FloatColumnMessage.Builder.class);
+              edu.washington.escience.myria.proto.DataProto.DoubleColumnMessage.class, edu.washington.escience.myria.proto.DataProto.DoubleColumnMessage.Builder.class);
     }
 
-    public static com.google.protobuf.Parser<FloatColumnMessage> PARSER =
-        new com.google.protobuf.AbstractParser<FloatColumnMessage>() {
-      public FloatColumnMessage parsePartialFrom(
+    public static com.google.protobuf.Parser<DoubleColumnMessage> PARSER =
+        new com.google.protobuf.AbstractParser<DoubleColumnMessage>() {
+      public DoubleColumnMessage parsePartialFrom(
           com.google.protobuf.CodedInputStream input,
           com.google.protobuf.ExtensionRegistryLite extensionRegistry)
           throws com.google.protobuf.InvalidProtocolBufferException {
-        return new FloatColumnMessage(input, extensionRegistry);
+        return new DoubleColumnMessage(input, extensionRegistry);
       }
     };
 
     @java.lang.Override
-    public com.google.protobuf.Parser<FloatColumnMessage> getParserForType() {
+    public com.google.protobuf.Parser<DoubleColumnMessage> getParserForType() {
       return PARSER;
     }
 
@@ -4305,53 +7758,53 @@ public final class DataProto {
       return super.writeReplace();
     }
 
-    public static edu.washington.escience.myria.proto.DataProto.FloatColumnMessage parseFrom(
+    public static edu.washington.escience.myria.proto.DataProto.DoubleColumnMessage parseFrom(
         com.google.protobuf.ByteString data)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data);
     }
-    public static edu.washington.escience.myria.proto.DataProto.FloatColumnMessage parseFrom(
+    public static edu.washington.escience.myria.proto.DataProto.DoubleColumnMessage parseFrom(
         com.google.protobuf.ByteString data,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data, extensionRegistry);
     }
-    public static edu.washington.escience.myria.proto.DataProto.FloatColumnMessage parseFrom(byte[] data)
+    public static edu.washington.escience.myria.proto.DataProto.DoubleColumnMessage parseFrom(byte[] data)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data);
     }
-    public static edu.washington.escience.myria.proto.DataProto.FloatColumnMessage parseFrom(
+    public static edu.washington.escience.myria.proto.DataProto.DoubleColumnMessage parseFrom(
         byte[] data,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data, extensionRegistry);
     }
-    public static edu.washington.escience.myria.proto.DataProto.FloatColumnMessage parseFrom(java.io.InputStream input)
+    public static edu.washington.escience.myria.proto.DataProto.DoubleColumnMessage parseFrom(java.io.InputStream input)
         throws java.io.IOException {
       return PARSER.parseFrom(input);
     }
-    public static edu.washington.escience.myria.proto.DataProto.FloatColumnMessage parseFrom(
+    public static edu.washington.escience.myria.proto.DataProto.DoubleColumnMessage parseFrom(
         java.io.InputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
       return PARSER.parseFrom(input, extensionRegistry);
     }
-    public static edu.washington.escience.myria.proto.DataProto.FloatColumnMessage parseDelimitedFrom(java.io.InputStream input)
+    public static edu.washington.escience.myria.proto.DataProto.DoubleColumnMessage parseDelimitedFrom(java.io.InputStream input)
         throws java.io.IOException {
       return PARSER.parseDelimitedFrom(input);
     }
-    public static edu.washington.escience.myria.proto.DataProto.FloatColumnMessage parseDelimitedFrom(
+    public static edu.washington.escience.myria.proto.DataProto.DoubleColumnMessage parseDelimitedFrom(
         java.io.InputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
       return PARSER.parseDelimitedFrom(input, extensionRegistry);
     }
-    public static edu.washington.escience.myria.proto.DataProto.FloatColumnMessage parseFrom(
+    public static edu.washington.escience.myria.proto.DataProto.DoubleColumnMessage parseFrom(
         com.google.protobuf.CodedInputStream input)
         throws java.io.IOException {
       return PARSER.parseFrom(input);
     }
-    public static edu.washington.escience.myria.proto.DataProto.FloatColumnMessage parseFrom(
+    public static edu.washington.escience.myria.proto.DataProto.DoubleColumnMessage parseFrom(
         com.google.protobuf.CodedInputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
@@ -4360,7 +7813,7 @@ public final class DataProto {
 
     public static Builder newBuilder() { return Builder.create(); }
     public Builder newBuilderForType() { return newBuilder(); }
-    public static Builder newBuilder(edu.washington.escience.myria.proto.DataProto.FloatColumnMessage prototype) {
+    public static Builder newBuilder(edu.washington.escience.myria.proto.DataProto.DoubleColumnMessage prototype) {
       return newBuilder().mergeFrom(prototype);
     }
     public Builder toBuilder() { return newBuilder(this); }
@@ -4372,25 +7825,25 @@ public final class DataProto {
       return builder;
     }
     /**
-     * Protobuf type {@code FloatColumnMessage}
+     * Protobuf type {@code DoubleColumnMessage}
      */
     public static final class Builder extends
         com.google.protobuf.GeneratedMessage.Builder<Builder> implements
-        // @@protoc_insertion_point(builder_implements:FloatColumnMessage)
-        edu.washington.escience.myria.proto.DataProto.FloatColumnMessageOrBuilder {
+        // @@protoc_insertion_point(builder_implements:DoubleColumnMessage)
+        edu.washington.escience.myria.proto.DataProto.DoubleColumnMessageOrBuilder {
       public static final com.google.protobuf.Descriptors.Descriptor
           getDescriptor() {
-        return edu.washington.escience.myria.proto.DataProto.internal_static_FloatColumnMessage_descriptor;
+        return edu.washington.escience.myria.proto.DataProto.internal_static_DoubleColumnMessage_descriptor;
       }
 
       protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
           internalGetFieldAccessorTable() {
-        return edu.washington.escience.myria.proto.DataProto.internal_static_FloatColumnMessage_fieldAccessorTable
+        return edu.washington.escience.myria.proto.DataProto.internal_static_DoubleColumnMessage_fieldAccessorTable
             .ensureFieldAccessorsInitialized(
-                edu.washington.escience.myria.proto.DataProto.FloatColumnMessage.class, edu.washington.escience.myria.proto.DataProto.FloatColumnMessage.Builder.class);
+                edu.washington.escience.myria.proto.DataProto.DoubleColumnMessage.class, edu.washington.escience.myria.proto.DataProto.DoubleColumnMessage.Builder.class);
       }
 
-      // Construct using edu.washington.escience.myria.proto.DataProto.FloatColumnMessage.newBuilder()
+      // Construct using edu.washington.escience.myria.proto.DataProto.DoubleColumnMessage.newBuilder()
       private Builder() {
         maybeForceBuilderInitialization();
       }
@@ -4421,23 +7874,23 @@ public final class DataProto {
 
       public com.google.protobuf.Descriptors.Descriptor
           getDescriptorForType() {
-        return edu.washington.escience.myria.proto.DataProto.internal_static_FloatColumnMessage_descriptor;
+        return edu.washington.escience.myria.proto.DataProto.internal_static_DoubleColumnMessage_descriptor;
       }
 
-      public edu.washington.escience.myria.proto.DataProto.FloatColumnMessage getDefaultInstanceForType() {
-        return edu.washington.escience.myria.proto.DataProto.FloatColumnMessage.getDefaultInstance();
+      public edu.washington.escience.myria.proto.DataProto.DoubleColumnMessage getDefaultInstanceForType() {
+        return edu.washington.escience.myria.proto.DataProto.DoubleColumnMessage.getDefaultInstance();
       }
 
-      public edu.washington.escience.myria.proto.DataProto.FloatColumnMessage build() {
-        edu.washington.escience.myria.proto.DataProto.FloatColumnMessage result = buildPartial();
+      public edu.washington.escience.myria.proto.DataProto.DoubleColumnMessage build() {
+        edu.washington.escience.myria.proto.DataProto.DoubleColumnMessage result = buildPartial();
         if (!result.isInitialized()) {
           throw newUninitializedMessageException(result);
         }
         return result;
       }
 
-      public edu.washington.escience.myria.proto.DataProto.FloatColumnMessage buildPartial() {
-        edu.washington.escience.myria.proto.DataProto.FloatColumnMessage result = new edu.washington.escience.myria.proto.DataProto.FloatColumnMessage(this);
+      public edu.washington.escience.myria.proto.DataProto.DoubleColumnMessage buildPartial() {
+        edu.washington.escience.myria.proto.DataProto.DoubleColumnMessage result = new edu.washington.escience.myria.proto.DataProto.DoubleColumnMessage(this);
         int from_bitField0_ = bitField0_;
         int to_bitField0_ = 0;
         if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
@@ -4450,16 +7903,16 @@ public final class DataProto {
       }
 
       public Builder mergeFrom(com.google.protobuf.Message other) {
-        if (other instanceof edu.washington.escience.myria.proto.DataProto.FloatColumnMessage) {
-          return mergeFrom((edu.washington.escience.myria.proto.DataProto.FloatColumnMessage)other);
+        if (other instanceof edu.washington.escience.myria.proto.DataProto.DoubleColumnMessage) {
+          return mergeFrom((edu.washington.escience.myria.proto.DataProto.DoubleColumnMessage)other);
         } else {
           super.mergeFrom(other);
           return this;
         }
       }
 
-      public Builder mergeFrom(edu.washington.escience.myria.proto.DataProto.FloatColumnMessage other) {
-        if (other == edu.washington.escience.myria.proto.DataProto.FloatColumnMessage.getDefaultInstance()) return this;
+      public Builder mergeFrom(edu.washington.escience.myria.proto.DataProto.DoubleColumnMessage other) {
+        if (other == edu.washington.escience.myria.proto.DataProto.DoubleColumnMessage.getDefaultInstance()) return this;
         if (other.hasData()) {
           setData(other.getData());
         }
@@ -4479,11 +7932,11 @@ public final class DataProto {
           com.google.protobuf.CodedInputStream input,
           com.google.protobuf.ExtensionRegistryLite extensionRegistry)
           throws java.io.IOException {
-        edu.washington.escience.myria.proto.DataProto.FloatColumnMessage parsedMessage = null;
+        edu.washington.escience.myria.proto.DataProto.DoubleColumnMessage parsedMessage = null;
         try {
           parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
         } catch (com.google.protobuf.InvalidProtocolBufferException e) {
-          parsedMessage = (edu.washington.escience.myria.proto.DataProto.FloatColumnMessage) e.getUnfinishedMessage();
+          parsedMessage = (edu.washington.escience.myria.proto.DataProto.DoubleColumnMessage) e.getUnfinishedMessage();
           throw e;
         } finally {
           if (parsedMessage != null) {
@@ -4529,19 +7982,19 @@ public final class DataProto {
         return this;
       }
 
-      // @@protoc_insertion_point(builder_scope:FloatColumnMessage)
+      // @@protoc_insertion_point(builder_scope:DoubleColumnMessage)
     }
 
     static {
-      defaultInstance = new FloatColumnMessage(true);
+      defaultInstance = new DoubleColumnMessage(true);
       defaultInstance.initFields();
     }
 
-    // @@protoc_insertion_point(class_scope:FloatColumnMessage)
+    // @@protoc_insertion_point(class_scope:DoubleColumnMessage)
   }
 
-  public interface DoubleColumnMessageOrBuilder extends
-      // @@protoc_insertion_point(interface_extends:DoubleColumnMessage)
+  public interface StringColumnMessageOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:StringColumnMessage)
       com.google.protobuf.MessageOrBuilder {
 
     /**
@@ -4552,27 +8005,53 @@ public final class DataProto {
      * <code>required bytes data = 1;</code>
      */
     com.google.protobuf.ByteString getData();
+
+    /**
+     * <code>repeated int32 start_indices = 2;</code>
+     */
+    java.util.List<java.lang.Integer> getStartIndicesList();
+    /**
+     * <code>repeated int32 start_indices = 2;</code>
+     */
+    int getStartIndicesCount();
+    /**
+     * <code>repeated int32 start_indices = 2;</code>
+     */
+    int getStartIndices(int index);
+
+    /**
+     * <code>repeated int32 end_indices = 3;</code>
+     */
+    java.util.List<java.lang.Integer> getEndIndicesList();
+    /**
+     * <code>repeated int32 end_indices = 3;</code>
+     */
+    int getEndIndicesCount();
+    /**
+     * <code>repeated int32 end_indices = 3;</code>
+     */
+    int getEndIndices(int index);
   }
   /**
-   * Protobuf type {@code DoubleColumnMessage}
+   * Protobuf type {@code StringColumnMessage}
    */
-  public static final class DoubleColumnMessage extends
+  public static final class StringColumnMessage extends
       com.google.protobuf.GeneratedMessage implements
-      // @@protoc_insertion_point(message_implements:DoubleColumnMessage)
-      DoubleColumnMessageOrBuilder {
-    // Use DoubleColumnMessage.newBuilder() to construct.
-    private DoubleColumnMessage(com.google.protobuf.GeneratedMessage.Builder<?> builder) {
+      // @@protoc_insertion_point(message_implements:StringColumnMessage)
+      StringColumnMessageOrBuilder {
+    // Use StringColumnMessage.newBuilder() to construct.
+    private StringColumnMessage(com.google.protobuf.GeneratedMessage.Builder<?> builder) {
       super(builder);
       this.unknownFields = builder.getUnknownFields();
     }
-    private DoubleColumnMessage(boolean noInit) { this.unknownFields = com.google.protobuf.UnknownFieldSet.getDefaultInstance(); }
+    private StringColumnMessage(boolean noInit) { this.unknownFields = com.google.protobuf.UnknownFieldSet.getDefaultInstance(); }
 
-    private static final DoubleColumnMessage defaultInstance;
-    public static DoubleColumnMessage getDefaultInstance() {
+    private static final StringColumnMessage defaultInstance;
+    public static StringColumnMessage getDefaultInstance() {
       return defaultInstance;
     }
 
-    public DoubleColumnMessage getDefaultInstanceForType() {
+    public StringColumnMessage getDefaultInstanceForType() {
       return defaultInstance;
     }
 
@@ -4582,7 +8061,7 @@ public final class DataProto {
         getUnknownFields() {
       return this.unknownFields;
     }
-    private DoubleColumnMessage(
+    private StringColumnMessage(
         com.google.protobuf.CodedInputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
@@ -4610,6 +8089,48 @@ public final class DataProto {
               data_ = input.readBytes();
               break;
             }
+            case 16: {
+              if (!((mutable_bitField0_ & 0x00000002) == 0x00000002)) {
+                startIndices_ = new java.util.ArrayList<java.lang.Integer>();
+                mutable_bitField0_ |= 0x00000002;
+              }
+              startIndices_.add(input.readInt32());
+              break;
+            }
+            case 18: {
+              int length = input.readRawVarint32();
+              int limit = input.pushLimit(length);
+              if (!((mutable_bitField0_ & 0x00000002) == 0x00000002) && input.getBytesUntilLimit() > 0) {
+                startIndices_ = new java.util.ArrayList<java.lang.Integer>();
+                mutable_bitField0_ |= 0x00000002;
+              }
+              while (input.getBytesUntilLimit() > 0) {
+                startIndices_.add(input.readInt32());
+              }
+              input.popLimit(limit);
+              break;
+            }
+            case 24: {
+              if (!((mutable_bitField0_ & 0x00000004) == 0x00000004)) {
+                endIndices_ = new java.util.ArrayList<java.lang.Integer>();
+                mutable_bitField0_ |= 0x00000004;
+              }
+              endIndices_.add(input.readInt32());
+              break;
+            }
+            case 26: {
+              int length = input.readRawVarint32();
+              int limit = input.pushLimit(length);
+              if (!((mutable_bitField0_ & 0x00000004) == 0x00000004) && input.getBytesUntilLimit() > 0) {
+                endIndices_ = new java.util.ArrayList<java.lang.Integer>();
+                mutable_bitField0_ |= 0x00000004;
+              }
+              while (input.getBytesUntilLimit() > 0) {
+                endIndices_.add(input.readInt32());
+              }
+              input.popLimit(limit);
+              break;
+            }
           }
         }
       } catch (com.google.protobuf.InvalidProtocolBufferException e) {
@@ -4618,34 +8139,40 @@ public final class DataProto {
         throw new com.google.protobuf.InvalidProtocolBufferException(
             e.getMessage()).setUnfinishedMessage(this);
       } finally {
+        if (((mutable_bitField0_ & 0x00000002) == 0x00000002)) {
+          startIndices_ = java.util.Collections.unmodifiableList(startIndices_);
+        }
+        if (((mutable_bitField0_ & 0x00000004) == 0x00000004)) {
+          endIndices_ = java.util.Collections.unmodifiableList(endIndices_);
+        }
         this.unknownFields = unknownFields.build();
         makeExtensionsImmutable();
       }
     }
     public static final com.google.protobuf.Descriptors.Descriptor
         getDescriptor() {
-      return edu.washington.escience.myria.proto.DataProto.internal_static_DoubleColumnMessage_descriptor;
+      return edu.washington.escience.myria.proto.DataProto.internal_static_StringColumnMessage_descriptor;
     }
 
     protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
         internalGetFieldAccessorTable() {
-      return edu.washington.escience.myria.proto.DataProto.internal_static_DoubleColumnMessage_fieldAccessorTable
+      return edu.washington.escience.myria.proto.DataProto.internal_static_StringColumnMessage_fieldAccessorTable
           .ensureFieldAccessorsInitialized(
-              edu.washington.escience.myria.proto.DataProto.DoubleColumnMessage.class, edu.washington.escience.myria.proto.DataProto.DoubleColumnMessage.Builder.class);
+              edu.washington.escience.myria.proto.DataProto.StringColumnMessage.class, edu.washington.escience.myria.proto.DataProto.StringColumnMessage.Builder.class);
     }
 
-    public static com.google.protobuf.Parser<DoubleColumnMessage> PARSER =
-        new com.google.protobuf.AbstractParser<DoubleColumnMessage>() {
-      public DoubleColumnMessage parsePartialFrom(
+    public static com.google.protobuf.Parser<StringColumnMessage> PARSER =
+        new com.google.protobuf.AbstractParser<StringColumnMessage>() {
+      public StringColumnMessage parsePartialFrom(
           com.google.protobuf.CodedInputStream input,
           com.google.protobuf.ExtensionRegistryLite extensionRegistry)
           throws com.google.protobuf.InvalidProtocolBufferException {
-        return new DoubleColumnMessage(input, extensionRegistry);
+        return new StringColumnMessage(input, extensionRegistry);
       }
     };
 
     @java.lang.Override
-    public com.google.protobuf.Parser<DoubleColumnMessage> getParserForType() {
+    public com.google.protobuf.Parser<StringColumnMessage> getParserForType() {
       return PARSER;
     }
 
@@ -4659,14 +8186,60 @@ public final class DataProto {
       return ((bitField0_ & 0x00000001) == 0x00000001);
     }
     /**
-     * <code>required bytes data = 1;</code>
+     * <code>required bytes data = 1;</code>
+     */
+    public com.google.protobuf.ByteString getData() {
+      return data_;
+    }
+
+    public static final int START_INDICES_FIELD_NUMBER = 2;
+    private java.util.List<java.lang.Integer> startIndices_;
+    /**
+     * <code>repeated int32 start_indices = 2;</code>
+     */
+    public java.util.List<java.lang.Integer>
+        getStartIndicesList() {
+      return startIndices_;
+    }
+    /**
+     * <code>repeated int32 start_indices = 2;</code>
+     */
+    public int getStartIndicesCount() {
+      return startIndices_.size();
+    }
+    /**
+     * <code>repeated int32 start_indices = 2;</code>
+     */
+    public int getStartIndices(int index) {
+      return startIndices_.get(index);
+    }
+
+    public static final int END_INDICES_FIELD_NUMBER = 3;
+    private java.util.List<java.lang.Integer> endIndices_;
+    /**
+     * <code>repeated int32 end_indices = 3;</code>
+     */
+    public java.util.List<java.lang.Integer>
+        getEndIndicesList() {
+      return endIndices_;
+    }
+    /**
+     * <code>repeated int32 end_indices = 3;</code>
+     */
+    public int getEndIndicesCount() {
+      return endIndices_.size();
+    }
+    /**
+     * <code>repeated int32 end_indices = 3;</code>
      */
-    public com.google.protobuf.ByteString getData() {
-      return data_;
+    public int getEndIndices(int index) {
+      return endIndices_.get(index);
     }
 
     private void initFields() {
       data_ = com.google.protobuf.ByteString.EMPTY;
+      startIndices_ = java.util.Collections.emptyList();
+      endIndices_ = java.util.Collections.emptyList();
     }
     private byte memoizedIsInitialized = -1;
     public final boolean isInitialized() {
@@ -4688,6 +8261,12 @@ public final class DataProto {
       if (((bitField0_ & 0x00000001) == 0x00000001)) {
         output.writeBytes(1, data_);
       }
+      for (int i = 0; i < startIndices_.size(); i++) {
+        output.writeInt32(2, startIndices_.get(i));
+      }
+      for (int i = 0; i < endIndices_.size(); i++) {
+        output.writeInt32(3, endIndices_.get(i));
+      }
       getUnknownFields().writeTo(output);
     }
 
@@ -4701,6 +8280,24 @@ public final class DataProto {
         size += com.google.protobuf.CodedOutputStream
           .computeBytesSize(1, data_);
       }
+      {
+        int dataSize = 0;
+        for (int i = 0; i < startIndices_.size(); i++) {
+          dataSize += com.google.protobuf.CodedOutputStream
+            .computeInt32SizeNoTag(startIndices_.get(i));
+        }
+        size += dataSize;
+        size += 1 * getStartIndicesList().size();
+      }
+      {
+        int dataSize = 0;
+        for (int i = 0; i < endIndices_.size(); i++) {
+          dataSize += com.google.protobuf.CodedOutputStream
+            .computeInt32SizeNoTag(endIndices_.get(i));
+        }
+        size += dataSize;
+        size += 1 * getEndIndicesList().size();
+      }
       size += getUnknownFields().getSerializedSize();
       memoizedSerializedSize = size;
       return size;
@@ -4713,53 +8310,53 @@ public final class DataProto {
       return super.writeReplace();
     }
 
-    public static edu.washington.escience.myria.proto.DataProto.DoubleColumnMessage parseFrom(
+    public static edu.washington.escience.myria.proto.DataProto.StringColumnMessage parseFrom(
         com.google.protobuf.ByteString data)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data);
     }
-    public static edu.washington.escience.myria.proto.DataProto.DoubleColumnMessage parseFrom(
+    public static edu.washington.escience.myria.proto.DataProto.StringColumnMessage parseFrom(
         com.google.protobuf.ByteString data,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data, extensionRegistry);
     }
-    public static edu.washington.escience.myria.proto.DataProto.DoubleColumnMessage parseFrom(byte[] data)
+    public static edu.washington.escience.myria.proto.DataProto.StringColumnMessage parseFrom(byte[] data)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data);
     }
-    public static edu.washington.escience.myria.proto.DataProto.DoubleColumnMessage parseFrom(
+    public static edu.washington.escience.myria.proto.DataProto.StringColumnMessage parseFrom(
         byte[] data,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data, extensionRegistry);
     }
-    public static edu.washington.escience.myria.proto.DataProto.DoubleColumnMessage parseFrom(java.io.InputStream input)
+    public static edu.washington.escience.myria.proto.DataProto.StringColumnMessage parseFrom(java.io.InputStream input)
         throws java.io.IOException {
       return PARSER.parseFrom(input);
     }
-    public static edu.washington.escience.myria.proto.DataProto.DoubleColumnMessage parseFrom(
+    public static edu.washington.escience.myria.proto.DataProto.StringColumnMessage parseFrom(
         java.io.InputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
       return PARSER.parseFrom(input, extensionRegistry);
     }
-    public static edu.washington.escience.myria.proto.DataProto.DoubleColumnMessage parseDelimitedFrom(java.io.InputStream input)
+    public static edu.washington.escience.myria.proto.DataProto.StringColumnMessage parseDelimitedFrom(java.io.InputStream input)
         throws java.io.IOException {
       return PARSER.parseDelimitedFrom(input);
     }
-    public static edu.washington.escience.myria.proto.DataProto.DoubleColumnMessage parseDelimitedFrom(
+    public static edu.washington.escience.myria.proto.DataProto.StringColumnMessage parseDelimitedFrom(
         java.io.InputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
       return PARSER.parseDelimitedFrom(input, extensionRegistry);
     }
-    public static edu.washington.escience.myria.proto.DataProto.DoubleColumnMessage parseFrom(
+    public static edu.washington.escience.myria.proto.DataProto.StringColumnMessage parseFrom(
         com.google.protobuf.CodedInputStream input)
         throws java.io.IOException {
       return PARSER.parseFrom(input);
     }
-    public static edu.washington.escience.myria.proto.DataProto.DoubleColumnMessage parseFrom(
+    public static edu.washington.escience.myria.proto.DataProto.StringColumnMessage parseFrom(
         com.google.protobuf.CodedInputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
@@ -4768,7 +8365,7 @@ public final class DataProto {
 
     public static Builder newBuilder() { return Builder.create(); }
     public Builder newBuilderForType() { return newBuilder(); }
-    public static Builder newBuilder(edu.washington.escience.myria.proto.DataProto.DoubleColumnMessage prototype) {
+    public static Builder newBuilder(edu.washington.escience.myria.proto.DataProto.StringColumnMessage prototype) {
       return newBuilder().mergeFrom(prototype);
     }
     public Builder toBuilder() { return newBuilder(this); }
@@ -4780,25 +8377,25 @@ public final class DataProto {
       return builder;
     }
     /**
-     * Protobuf type {@code DoubleColumnMessage}
+     * Protobuf type {@code StringColumnMessage}
      */
     public static final class Builder extends
         com.google.protobuf.GeneratedMessage.Builder<Builder> implements
-        // @@protoc_insertion_point(builder_implements:DoubleColumnMessage)
-        edu.washington.escience.myria.proto.DataProto.DoubleColumnMessageOrBuilder {
+        // @@protoc_insertion_point(builder_implements:StringColumnMessage)
+        edu.washington.escience.myria.proto.DataProto.StringColumnMessageOrBuilder {
       public static final com.google.protobuf.Descriptors.Descriptor
           getDescriptor() {
-        return edu.washington.escience.myria.proto.DataProto.internal_static_DoubleColumnMessage_descriptor;
+        return edu.washington.escience.myria.proto.DataProto.internal_static_StringColumnMessage_descriptor;
       }
 
       protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
           internalGetFieldAccessorTable() {
-        return edu.washington.escience.myria.proto.DataProto.internal_static_DoubleColumnMessage_fieldAccessorTable
+        return edu.washington.escience.myria.proto.DataProto.internal_static_StringColumnMessage_fieldAccessorTable
             .ensureFieldAccessorsInitialized(
-                edu.washington.escience.myria.proto.DataProto.DoubleColumnMessage.class, edu.washington.escience.myria.proto.DataProto.DoubleColumnMessage.Builder.class);
+                edu.washington.escience.myria.proto.DataProto.StringColumnMessage.class, edu.washington.escience.myria.proto.DataProto.StringColumnMessage.Builder.class);
       }
 
-      // Construct using edu.washington.escience.myria.proto.DataProto.DoubleColumnMessage.newBuilder()
+      // Construct using edu.washington.escience.myria.proto.DataProto.StringColumnMessage.newBuilder()
       private Builder() {
         maybeForceBuilderInitialization();
       }
@@ -4820,6 +8417,10 @@ public final class DataProto {
         super.clear();
         data_ = com.google.protobuf.ByteString.EMPTY;
         bitField0_ = (bitField0_ & ~0x00000001);
+        startIndices_ = java.util.Collections.emptyList();
+        bitField0_ = (bitField0_ & ~0x00000002);
+        endIndices_ = java.util.Collections.emptyList();
+        bitField0_ = (bitField0_ & ~0x00000004);
         return this;
       }
 
@@ -4829,48 +8430,78 @@ public final class DataProto {
 
       public com.google.protobuf.Descriptors.Descriptor
           getDescriptorForType() {
-        return edu.washington.escience.myria.proto.DataProto.internal_static_DoubleColumnMessage_descriptor;
+        return edu.washington.escience.myria.proto.DataProto.internal_static_StringColumnMessage_descriptor;
       }
 
-      public edu.washington.escience.myria.proto.DataProto.DoubleColumnMessage getDefaultInstanceForType() {
-        return edu.washington.escience.myria.proto.DataProto.DoubleColumnMessage.getDefaultInstance();
+      public edu.washington.escience.myria.proto.DataProto.StringColumnMessage getDefaultInstanceForType() {
+        return edu.washington.escience.myria.proto.DataProto.StringColumnMessage.getDefaultInstance();
       }
 
-      public edu.washington.escience.myria.proto.DataProto.DoubleColumnMessage build() {
-        edu.washington.escience.myria.proto.DataProto.DoubleColumnMessage result = buildPartial();
+      public edu.washington.escience.myria.proto.DataProto.StringColumnMessage build() {
+        edu.washington.escience.myria.proto.DataProto.StringColumnMessage result = buildPartial();
         if (!result.isInitialized()) {
           throw newUninitializedMessageException(result);
         }
         return result;
       }
 
-      public edu.washington.escience.myria.proto.DataProto.DoubleColumnMessage buildPartial() {
-        edu.washington.escience.myria.proto.DataProto.DoubleColumnMessage result = new edu.washington.escience.myria.proto.DataProto.DoubleColumnMessage(this);
+      public edu.washington.escience.myria.proto.DataProto.StringColumnMessage buildPartial() {
+        edu.washington.escience.myria.proto.DataProto.StringColumnMessage result = new edu.washington.escience.myria.proto.DataProto.StringColumnMessage(this);
         int from_bitField0_ = bitField0_;
         int to_bitField0_ = 0;
         if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
           to_bitField0_ |= 0x00000001;
         }
         result.data_ = data_;
+        if (((bitField0_ & 0x00000002) == 0x00000002)) {
+          startIndices_ = java.util.Collections.unmodifiableList(startIndices_);
+          bitField0_ = (bitField0_ & ~0x00000002);
+        }
+        result.startIndices_ = startIndices_;
+        if (((bitField0_ & 0x00000004) == 0x00000004)) {
+          endIndices_ = java.util.Collections.unmodifiableList(endIndices_);
+          bitField0_ = (bitField0_ & ~0x00000004);
+        }
+        result.endIndices_ = endIndices_;
         result.bitField0_ = to_bitField0_;
         onBuilt();
         return result;
       }
 
       public Builder mergeFrom(com.google.protobuf.Message other) {
-        if (other instanceof edu.washington.escience.myria.proto.DataProto.DoubleColumnMessage) {
-          return mergeFrom((edu.washington.escience.myria.proto.DataProto.DoubleColumnMessage)other);
+        if (other instanceof edu.washington.escience.myria.proto.DataProto.StringColumnMessage) {
+          return mergeFrom((edu.washington.escience.myria.proto.DataProto.StringColumnMessage)other);
         } else {
           super.mergeFrom(other);
           return this;
         }
       }
 
-      public Builder mergeFrom(edu.washington.escience.myria.proto.DataProto.DoubleColumnMessage other) {
-        if (other == edu.washington.escience.myria.proto.DataProto.DoubleColumnMessage.getDefaultInstance()) return this;
+      public Builder mergeFrom(edu.washington.escience.myria.proto.DataProto.StringColumnMessage other) {
+        if (other == edu.washington.escience.myria.proto.DataProto.StringColumnMessage.getDefaultInstance()) return this;
         if (other.hasData()) {
           setData(other.getData());
         }
+        if (!other.startIndices_.isEmpty()) {
+          if (startIndices_.isEmpty()) {
+            startIndices_ = other.startIndices_;
+            bitField0_ = (bitField0_ & ~0x00000002);
+          } else {
+            ensureStartIndicesIsMutable();
+            startIndices_.addAll(other.startIndices_);
+          }
+          onChanged();
+        }
+        if (!other.endIndices_.isEmpty()) {
+          if (endIndices_.isEmpty()) {
+            endIndices_ = other.endIndices_;
+            bitField0_ = (bitField0_ & ~0x00000004);
+          } else {
+            ensureEndIndicesIsMutable();
+            endIndices_.addAll(other.endIndices_);
+          }
+          onChanged();
+        }
         this.mergeUnknownFields(other.getUnknownFields());
         return this;
       }
@@ -4887,11 +8518,11 @@ public final class DataProto {
           com.google.protobuf.CodedInputStream input,
           com.google.protobuf.ExtensionRegistryLite extensionRegistry)
           throws java.io.IOException {
-        edu.washington.escience.myria.proto.DataProto.DoubleColumnMessage parsedMessage = null;
+        edu.washington.escience.myria.proto.DataProto.StringColumnMessage parsedMessage = null;
         try {
           parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
         } catch (com.google.protobuf.InvalidProtocolBufferException e) {
-          parsedMessage = (edu.washington.escience.myria.proto.DataProto.DoubleColumnMessage) e.getUnfinishedMessage();
+          parsedMessage = (edu.washington.escience.myria.proto.DataProto.StringColumnMessage) e.getUnfinishedMessage();
           throw e;
         } finally {
           if (parsedMessage != null) {
@@ -4916,50 +8547,190 @@ public final class DataProto {
         return data_;
       }
       /**
-       * <code>required bytes data = 1;</code>
+       * <code>required bytes data = 1;</code>
+       */
+      public Builder setData(com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000001;
+        data_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>required bytes data = 1;</code>
+       */
+      public Builder clearData() {
+        bitField0_ = (bitField0_ & ~0x00000001);
+        data_ = getDefaultInstance().getData();
+        onChanged();
+        return this;
+      }
+
+      private java.util.List<java.lang.Integer> startIndices_ = java.util.Collections.emptyList();
+      private void ensureStartIndicesIsMutable() {
+        if (!((bitField0_ & 0x00000002) == 0x00000002)) {
+          startIndices_ = new java.util.ArrayList<java.lang.Integer>(startIndices_);
+          bitField0_ |= 0x00000002;
+         }
+      }
+      /**
+       * <code>repeated int32 start_indices = 2;</code>
+       */
+      public java.util.List<java.lang.Integer>
+          getStartIndicesList() {
+        return java.util.Collections.unmodifiableList(startIndices_);
+      }
+      /**
+       * <code>repeated int32 start_indices = 2;</code>
+       */
+      public int getStartIndicesCount() {
+        return startIndices_.size();
+      }
+      /**
+       * <code>repeated int32 start_indices = 2;</code>
+       */
+      public int getStartIndices(int index) {
+        return startIndices_.get(index);
+      }
+      /**
+       * <code>repeated int32 start_indices = 2;</code>
+       */
+      public Builder setStartIndices(
+          int index, int value) {
+        ensureStartIndicesIsMutable();
+        startIndices_.set(index, value);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated int32 start_indices = 2;</code>
+       */
+      public Builder addStartIndices(int value) {
+        ensureStartIndicesIsMutable();
+        startIndices_.add(value);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated int32 start_indices = 2;</code>
+       */
+      public Builder addAllStartIndices(
+          java.lang.Iterable<? extends java.lang.Integer> values) {
+        ensureStartIndicesIsMutable();
+        com.google.protobuf.AbstractMessageLite.Builder.addAll(
+            values, startIndices_);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated int32 start_indices = 2;</code>
+       */
+      public Builder clearStartIndices() {
+        startIndices_ = java.util.Collections.emptyList();
+        bitField0_ = (bitField0_ & ~0x00000002);
+        onChanged();
+        return this;
+      }
+
+      private java.util.List<java.lang.Integer> endIndices_ = java.util.Collections.emptyList();
+      private void ensureEndIndicesIsMutable() {
+        if (!((bitField0_ & 0x00000004) == 0x00000004)) {
+          endIndices_ = new java.util.ArrayList<java.lang.Integer>(endIndices_);
+          bitField0_ |= 0x00000004;
+         }
+      }
+      /**
+       * <code>repeated int32 end_indices = 3;</code>
+       */
+      public java.util.List<java.lang.Integer>
+          getEndIndicesList() {
+        return java.util.Collections.unmodifiableList(endIndices_);
+      }
+      /**
+       * <code>repeated int32 end_indices = 3;</code>
+       */
+      public int getEndIndicesCount() {
+        return endIndices_.size();
+      }
+      /**
+       * <code>repeated int32 end_indices = 3;</code>
+       */
+      public int getEndIndices(int index) {
+        return endIndices_.get(index);
+      }
+      /**
+       * <code>repeated int32 end_indices = 3;</code>
+       */
+      public Builder setEndIndices(
+          int index, int value) {
+        ensureEndIndicesIsMutable();
+        endIndices_.set(index, value);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated int32 end_indices = 3;</code>
+       */
+      public Builder addEndIndices(int value) {
+        ensureEndIndicesIsMutable();
+        endIndices_.add(value);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated int32 end_indices = 3;</code>
        */
-      public Builder setData(com.google.protobuf.ByteString value) {
-        if (value == null) {
-    throw new NullPointerException();
-  }
-  bitField0_ |= 0x00000001;
-        data_ = value;
+      public Builder addAllEndIndices(
+          java.lang.Iterable<? extends java.lang.Integer> values) {
+        ensureEndIndicesIsMutable();
+        com.google.protobuf.AbstractMessageLite.Builder.addAll(
+            values, endIndices_);
         onChanged();
         return this;
       }
       /**
-       * <code>required bytes data = 1;</code>
+       * <code>repeated int32 end_indices = 3;</code>
        */
-      public Builder clearData() {
-        bitField0_ = (bitField0_ & ~0x00000001);
-        data_ = getDefaultInstance().getData();
+      public Builder clearEndIndices() {
+        endIndices_ = java.util.Collections.emptyList();
+        bitField0_ = (bitField0_ & ~0x00000004);
         onChanged();
         return this;
       }
 
-      // @@protoc_insertion_point(builder_scope:DoubleColumnMessage)
+      // @@protoc_insertion_point(builder_scope:StringColumnMessage)
     }
 
     static {
-      defaultInstance = new DoubleColumnMessage(true);
+      defaultInstance = new StringColumnMessage(true);
       defaultInstance.initFields();
     }
 
-    // @@protoc_insertion_point(class_scope:DoubleColumnMessage)
+    // @@protoc_insertion_point(class_scope:StringColumnMessage)
   }
 
-  public interface StringColumnMessageOrBuilder extends
-      // @@protoc_insertion_point(interface_extends:StringColumnMessage)
+  public interface DictionaryStringColumnMessageOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:DictionaryStringColumnMessage)
       com.google.protobuf.MessageOrBuilder {
 
     /**
-     * <code>required bytes data = 1;</code>
+     * <code>required bytes values = 1;</code>
+     *
+     * <pre>
+     * UTF-8 bytes of the distinct values
+     * </pre>
      */
-    boolean hasData();
+    boolean hasValues();
     /**
-     * <code>required bytes data = 1;</code>
+     * <code>required bytes values = 1;</code>
+     *
+     * <pre>
+     * UTF-8 bytes of the distinct values
+     * </pre>
      */
-    com.google.protobuf.ByteString getData();
+    com.google.protobuf.ByteString getValues();
 
     /**
      * <code>repeated int32 start_indices = 2;</code>
@@ -4986,27 +8757,44 @@ public final class DataProto {
      * <code>repeated int32 end_indices = 3;</code>
      */
     int getEndIndices(int index);
+
+    /**
+     * <code>required bytes codes = 4;</code>
+     *
+     * <pre>
+     * index into the values of each row
+     * </pre>
+     */
+    boolean hasCodes();
+    /**
+     * <code>required bytes codes = 4;</code>
+     *
+     * <pre>
+     * index into the values of each row
+     * </pre>
+     */
+    com.google.protobuf.ByteString getCodes();
   }
   /**
-   * Protobuf type {@code StringColumnMessage}
+   * Protobuf type {@code DictionaryStringColumnMessage}
    */
-  public static final class StringColumnMessage extends
+  public static final class DictionaryStringColumnMessage extends
       com.google.protobuf.GeneratedMessage implements
-      // @@protoc_insertion_point(message_implements:StringColumnMessage)
-      StringColumnMessageOrBuilder {
-    // Use StringColumnMessage.newBuilder() to construct.
-    private StringColumnMessage(com.google.protobuf.GeneratedMessage.Builder<?> builder) {
+      // @@protoc_insertion_point(message_implements:DictionaryStringColumnMessage)
+      DictionaryStringColumnMessageOrBuilder {
+    // Use DictionaryStringColumnMessage.newBuilder() to construct.
+    private DictionaryStringColumnMessage(com.google.protobuf.GeneratedMessage.Builder<?> builder) {
       super(builder);
       this.unknownFields = builder.getUnknownFields();
     }
-    private StringColumnMessage(boolean noInit) { this.unknownFields = com.google.protobuf.UnknownFieldSet.getDefaultInstance(); }
+    private DictionaryStringColumnMessage(boolean noInit) { this.unknownFields = com.google.protobuf.UnknownFieldSet.getDefaultInstance(); }
 
-    private static final StringColumnMessage defaultInstance;
-    public static StringColumnMessage getDefaultInstance() {
+    private static final DictionaryStringColumnMessage defaultInstance;
+    public static DictionaryStringColumnMessage getDefaultInstance() {
       return defaultInstance;
     }
 
-    public StringColumnMessage getDefaultInstanceForType() {
+    public DictionaryStringColumnMessage getDefaultInstanceForType() {
       return defaultInstance;
     }
 
@@ -5016,7 +8804,7 @@ public final class DataProto {
         getUnknownFields() {
       return this.unknownFields;
     }
-    private StringColumnMessage(
+    private DictionaryStringColumnMessage(
         com.google.protobuf.CodedInputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
@@ -5041,7 +8829,7 @@ public final class DataProto {
             }
             case 10: {
               bitField0_ |= 0x00000001;
-              data_ = input.readBytes();
+              values_ = input.readBytes();
               break;
             }
             case 16: {
@@ -5086,6 +8874,11 @@ public final class DataProto {
               input.popLimit(limit);
               break;
             }
+            case 34: {
+              bitField0_ |= 0x00000002;
+              codes_ = input.readBytes();
+              break;
+            }
           }
         }
       } catch (com.google.protobuf.InvalidProtocolBufferException e) {
@@ -5106,45 +8899,53 @@ public final class DataProto {
     }
     public static final com.google.protobuf.Descriptors.Descriptor
         getDescriptor() {
-      return edu.washington.escience.myria.proto.DataProto.internal_static_StringColumnMessage_descriptor;
+      return edu.washington.escience.myria.proto.DataProto.internal_static_DictionaryStringColumnMessage_descriptor;
     }
 
     protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
         internalGetFieldAccessorTable() {
-      return edu.washington.escience.myria.proto.DataProto.internal_static_StringColumnMessage_fieldAccessorTable
+      return edu.washington.escience.myria.proto.DataProto.internal_static_DictionaryStringColumnMessage_fieldAccessorTable
           .ensureFieldAccessorsInitialized(
-              edu.washington.escience.myria.proto.DataProto.StringColumnMessage.class, edu.washington.escience.myria.proto.DataProto.StringColumnMessage.Builder.class);
+              edu.washington.escience.myria.proto.DataProto.DictionaryStringColumnMessage.class, edu.washington.escience.myria.proto.DataProto.DictionaryStringColumnMessage.Builder.class);
     }
 
-    public static com.google.protobuf.Parser<StringColumnMessage> PARSER =
-        new com.google.protobuf.AbstractParser<StringColumnMessage>() {
-      public StringColumnMessage parsePartialFrom(
+    public static com.google.protobuf.Parser<DictionaryStringColumnMessage> PARSER =
+        new com.google.protobuf.AbstractParser<DictionaryStringColumnMessage>() {
+      public DictionaryStringColumnMessage parsePartialFrom(
           com.google.protobuf.CodedInputStream input,
           com.google.protobuf.ExtensionRegistryLite extensionRegistry)
           throws com.google.protobuf.InvalidProtocolBufferException {
-        return new StringColumnMessage(input, extensionRegistry);
+        return new DictionaryStringColumnMessage(input, extensionRegistry);
       }
     };
 
     @java.lang.Override
-    public com.google.protobuf.Parser<StringColumnMessage> getParserForType() {
+    public com.google.protobuf.Parser<DictionaryStringColumnMessage> getParserForType() {
       return PARSER;
     }
 
     private int bitField0_;
-    public static final int DATA_FIELD_NUMBER = 1;
-    private com.google.protobuf.ByteString data_;
+    public static final int VALUES_FIELD_NUMBER = 1;
+    private com.google.protobuf.ByteString values_;
     /**
-     * <code>required bytes data = 1;</code>
+     * <code>required bytes values = 1;</code>
+     *
+     * <pre>
+     * UTF-8 bytes of the distinct values
+     * </pre>
      */
-    public boolean hasData() {
+    public boolean hasValues() {
       return ((bitField0_ & 0x00000001) == 0x00000001);
     }
     /**
-     * <code>required bytes data = 1;</code>
+     * <code>required bytes values = 1;</code>
+     *
+     * <pre>
+     * UTF-8 bytes of the distinct values
+     * </pre>
      */
-    public com.google.protobuf.ByteString getData() {
-      return data_;
+    public com.google.protobuf.ByteString getValues() {
+      return values_;
     }
 
     public static final int START_INDICES_FIELD_NUMBER = 2;
@@ -5191,10 +8992,34 @@ public final class DataProto {
       return endIndices_.get(index);
     }
 
+    public static final int CODES_FIELD_NUMBER = 4;
+    private com.google.protobuf.ByteString codes_;
+    /**
+     * <code>required bytes codes = 4;</code>
+     *
+     * <pre>
+     * index into the values of each row
+     * </pre>
+     */
+    public boolean hasCodes() {
+      return ((bitField0_ & 0x00000002) == 0x00000002);
+    }
+    /**
+     * <code>required bytes codes = 4;</code>
+     *
+     * <pre>
+     * index into the values of each row
+     * </pre>
+     */
+    public com.google.protobuf.ByteString getCodes() {
+      return codes_;
+    }
+
     private void initFields() {
-      data_ = com.google.protobuf.ByteString.EMPTY;
+      values_ = com.google.protobuf.ByteString.EMPTY;
       startIndices_ = java.util.Collections.emptyList();
       endIndices_ = java.util.Collections.emptyList();
+      codes_ = com.google.protobuf.ByteString.EMPTY;
     }
     private byte memoizedIsInitialized = -1;
     public final boolean isInitialized() {
@@ -5202,7 +9027,11 @@ public final class DataProto {
       if (isInitialized == 1) return true;
       if (isInitialized == 0) return false;
 
-      if (!hasData()) {
+      if (!hasValues()) {
+        memoizedIsInitialized = 0;
+        return false;
+      }
+      if (!hasCodes()) {
         memoizedIsInitialized = 0;
         return false;
       }
@@ -5214,7 +9043,7 @@ public final class DataProto {
                         throws java.io.IOException {
       getSerializedSize();
       if (((bitField0_ & 0x00000001) == 0x00000001)) {
-        output.writeBytes(1, data_);
+        output.writeBytes(1, values_);
       }
       for (int i = 0; i < startIndices_.size(); i++) {
         output.writeInt32(2, startIndices_.get(i));
@@ -5222,6 +9051,9 @@ public final class DataProto {
       for (int i = 0; i < endIndices_.size(); i++) {
         output.writeInt32(3, endIndices_.get(i));
       }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        output.writeBytes(4, codes_);
+      }
       getUnknownFields().writeTo(output);
     }
 
@@ -5233,7 +9065,7 @@ public final class DataProto {
       size = 0;
       if (((bitField0_ & 0x00000001) == 0x00000001)) {
         size += com.google.protobuf.CodedOutputStream
-          .computeBytesSize(1, data_);
+          .computeBytesSize(1, values_);
       }
       {
         int dataSize = 0;
@@ -5253,6 +9085,10 @@ public final class DataProto {
         size += dataSize;
         size += 1 * getEndIndicesList().size();
       }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeBytesSize(4, codes_);
+      }
       size += getUnknownFields().getSerializedSize();
       memoizedSerializedSize = size;
       return size;
@@ -5265,53 +9101,53 @@ public final class DataProto {
       return super.writeReplace();
     }
 
-    public static edu.washington.escience.myria.proto.DataProto.StringColumnMessage parseFrom(
+    public static edu.washington.escience.myria.proto.DataProto.DictionaryStringColumnMessage parseFrom(
         com.google.protobuf.ByteString data)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data);
     }
-    public static edu.washington.escience.myria.proto.DataProto.StringColumnMessage parseFrom(
+    public static edu.washington.escience.myria.proto.DataProto.DictionaryStringColumnMessage parseFrom(
         com.google.protobuf.ByteString data,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data, extensionRegistry);
     }
-    public static edu.washington.escience.myria.proto.DataProto.StringColumnMessage parseFrom(byte[] data)
+    public static edu.washington.escience.myria.proto.DataProto.DictionaryStringColumnMessage parseFrom(byte[] data)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data);
     }
-    public static edu.washington.escience.myria.proto.DataProto.StringColumnMessage parseFrom(
+    public static edu.washington.escience.myria.proto.DataProto.DictionaryStringColumnMessage parseFrom(
         byte[] data,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data, extensionRegistry);
     }
-    public static edu.washington.escience.myria.proto.DataProto.StringColumnMessage parseFrom(java.io.InputStream input)
+    public static edu.washington.escience.myria.proto.DataProto.DictionaryStringColumnMessage parseFrom(java.io.InputStream input)
         throws java.io.IOException {
       return PARSER.parseFrom(input);
     }
-    public static edu.washington.escience.myria.proto.DataProto.StringColumnMessage parseFrom(
+    public static edu.washington.escience.myria.proto.DataProto.DictionaryStringColumnMessage parseFrom(
         java.io.InputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
       return PARSER.parseFrom(input, extensionRegistry);
     }
-    public static edu.washington.escience.myria.proto.DataProto.StringColumnMessage parseDelimitedFrom(java.io.InputStream input)
+    public static edu.washington.escience.myria.proto.DataProto.DictionaryStringColumnMessage parseDelimitedFrom(java.io.InputStream input)
         throws java.io.IOException {
       return PARSER.parseDelimitedFrom(input);
     }
-    public static edu.washington.escience.myria.proto.DataProto.StringColumnMessage parseDelimitedFrom(
+    public static edu.washington.escience.myria.proto.DataProto.DictionaryStringColumnMessage parseDelimitedFrom(
         java.io.InputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
       return PARSER.parseDelimitedFrom(input, extensionRegistry);
     }
-    public static edu.washington.escience.myria.proto.DataProto.StringColumnMessage parseFrom(
+    public static edu.washington.escience.myria.proto.DataProto.DictionaryStringColumnMessage parseFrom(
         com.google.protobuf.CodedInputStream input)
         throws java.io.IOException {
       return PARSER.parseFrom(input);
     }
-    public static edu.washington.escience.myria.proto.DataProto.StringColumnMessage parseFrom(
+    public static edu.washington.escience.myria.proto.DataProto.DictionaryStringColumnMessage parseFrom(
         com.google.protobuf.CodedInputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
@@ -5320,7 +9156,7 @@ public final class DataProto {
 
     public static Builder newBuilder() { return Builder.create(); }
     public Builder newBuilderForType() { return newBuilder(); }
-    public static Builder newBuilder(edu.washington.escience.myria.proto.DataProto.StringColumnMessage prototype) {
+    public static Builder newBuilder(edu.washington.escience.myria.proto.DataProto.DictionaryStringColumnMessage prototype) {
       return newBuilder().mergeFrom(prototype);
     }
     public Builder toBuilder() { return newBuilder(this); }
@@ -5332,25 +9168,25 @@ public final class DataProto {
       return builder;
     }
     /**
-     * Protobuf type {@code StringColumnMessage}
+     * Protobuf type {@code DictionaryStringColumnMessage}
      */
     public static final class Builder extends
         com.google.protobuf.GeneratedMessage.Builder<Builder> implements
-        // @@protoc_insertion_point(builder_implements:StringColumnMessage)
-        edu.washington.escience.myria.proto.DataProto.StringColumnMessageOrBuilder {
+        // @@protoc_insertion_point(builder_implements:DictionaryStringColumnMessage)
+        edu.washington.escience.myria.proto.DataProto.DictionaryStringColumnMessageOrBuilder {
       public static final com.google.protobuf.Descriptors.Descriptor
           getDescriptor() {
-        return edu.washington.escience.myria.proto.DataProto.internal_static_StringColumnMessage_descriptor;
+        return edu.washington.escience.myria.proto.DataProto.internal_static_DictionaryStringColumnMessage_descriptor;
       }
 
       protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
           internalGetFieldAccessorTable() {
-        return edu.washington.escience.myria.proto.DataProto.internal_static_StringColumnMessage_fieldAccessorTable
+        return edu.washington.escience.myria.proto.DataProto.internal_static_DictionaryStringColumnMessage_fieldAccessorTable
             .ensureFieldAccessorsInitialized(
-                edu.washington.escience.myria.proto.DataProto.StringColumnMessage.class, edu.washington.escience.myria.proto.DataProto.StringColumnMessage.Builder.class);
+                edu.washington.escience.myria.proto.DataProto.DictionaryStringColumnMessage.class, edu.washington.escience.myria.proto.DataProto.DictionaryStringColumnMessage.Builder.class);
       }
 
-      // Construct using edu.washington.escience.myria.proto.DataProto.StringColumnMessage.newBuilder()
+      // Construct using edu.washington.escience.myria.proto.DataProto.DictionaryStringColumnMessage.newBuilder()
       private Builder() {
         maybeForceBuilderInitialization();
       }
@@ -5370,12 +9206,14 @@ public final class DataProto {
 
       public Builder clear() {
         super.clear();
-        data_ = com.google.protobuf.ByteString.EMPTY;
+        values_ = com.google.protobuf.ByteString.EMPTY;
         bitField0_ = (bitField0_ & ~0x00000001);
         startIndices_ = java.util.Collections.emptyList();
         bitField0_ = (bitField0_ & ~0x00000002);
         endIndices_ = java.util.Collections.emptyList();
         bitField0_ = (bitField0_ & ~0x00000004);
+        codes_ = com.google.protobuf.ByteString.EMPTY;
+        bitField0_ = (bitField0_ & ~0x00000008);
         return this;
       }
 
@@ -5385,29 +9223,29 @@ public final class DataProto {
 
       public com.google.protobuf.Descriptors.Descriptor
           getDescriptorForType() {
-        return edu.washington.escience.myria.proto.DataProto.internal_static_StringColumnMessage_descriptor;
+        return edu.washington.escience.myria.proto.DataProto.internal_static_DictionaryStringColumnMessage_descriptor;
       }
 
-      public edu.washington.escience.myria.proto.DataProto.StringColumnMessage getDefaultInstanceForType() {
-        return edu.washington.escience.myria.proto.DataProto.StringColumnMessage.getDefaultInstance();
+      public edu.washington.escience.myria.proto.DataProto.DictionaryStringColumnMessage getDefaultInstanceForType() {
+        return edu.washington.escience.myria.proto.DataProto.DictionaryStringColumnMessage.getDefaultInstance();
       }
 
-      public edu.washington.escience.myria.proto.DataProto.StringColumnMessage build() {
-        edu.washington.escience.myria.proto.DataProto.StringColumnMessage result = buildPartial();
+      public edu.washington.escience.myria.proto.DataProto.DictionaryStringColumnMessage build() {
+        edu.washington.escience.myria.proto.DataProto.DictionaryStringColumnMessage result = buildPartial();
         if (!result.isInitialized()) {
           throw newUninitializedMessageException(result);
         }
         return result;
       }
 
-      public edu.washington.escience.myria.proto.DataProto.StringColumnMessage buildPartial() {
-        edu.washington.escience.myria.proto.DataProto.StringColumnMessage result = new edu.washington.escience.myria.proto.DataProto.StringColumnMessage(this);
+      public edu.washington.escience.myria.proto.DataProto.DictionaryStringColumnMessage buildPartial() {
+        edu.washington.escience.myria.proto.DataProto.DictionaryStringColumnMessage result = new edu.washington.escience.myria.proto.DataProto.DictionaryStringColumnMessage(this);
         int from_bitField0_ = bitField0_;
         int to_bitField0_ = 0;
         if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
           to_bitField0_ |= 0x00000001;
         }
-        result.data_ = data_;
+        result.values_ = values_;
         if (((bitField0_ & 0x00000002) == 0x00000002)) {
           startIndices_ = java.util.Collections.unmodifiableList(startIndices_);
           bitField0_ = (bitField0_ & ~0x00000002);
@@ -5418,24 +9256,28 @@ public final class DataProto {
           bitField0_ = (bitField0_ & ~0x00000004);
         }
         result.endIndices_ = endIndices_;
+        if (((from_bitField0_ & 0x00000008) == 0x00000008)) {
+          to_bitField0_ |= 0x00000002;
+        }
+        result.codes_ = codes_;
         result.bitField0_ = to_bitField0_;
         onBuilt();
         return result;
       }
 
       public Builder mergeFrom(com.google.protobuf.Message other) {
-        if (other instanceof edu.washington.escience.myria.proto.DataProto.StringColumnMessage) {
-          return mergeFrom((edu.washington.escience.myria.proto.DataProto.StringColumnMessage)other);
+        if (other instanceof edu.washington.escience.myria.proto.DataProto.DictionaryStringColumnMessage) {
+          return mergeFrom((edu.washington.escience.myria.proto.DataProto.DictionaryStringColumnMessage)other);
         } else {
           super.mergeFrom(other);
           return this;
         }
       }
 
-      public Builder mergeFrom(edu.washington.escience.myria.proto.DataProto.StringColumnMessage other) {
-        if (other == edu.washington.escience.myria.proto.DataProto.StringColumnMessage.getDefaultInstance()) return this;
-        if (other.hasData()) {
-          setData(other.getData());
+      public Builder mergeFrom(edu.washington.escience.myria.proto.DataProto.DictionaryStringColumnMessage other) {
+        if (other == edu.washington.escience.myria.proto.DataProto.DictionaryStringColumnMessage.getDefaultInstance()) return this;
+        if (other.hasValues()) {
+          setValues(other.getValues());
         }
         if (!other.startIndices_.isEmpty()) {
           if (startIndices_.isEmpty()) {
@@ -5457,12 +9299,19 @@ public final class DataProto {
           }
           onChanged();
         }
+        if (other.hasCodes()) {
+          setCodes(other.getCodes());
+        }
         this.mergeUnknownFields(other.getUnknownFields());
         return this;
       }
 
       public final boolean isInitialized() {
-        if (!hasData()) {
+        if (!hasValues()) {
+          
+          return false;
+        }
+        if (!hasCodes()) {
           
           return false;
         }
@@ -5473,11 +9322,11 @@ public final class DataProto {
           com.google.protobuf.CodedInputStream input,
           com.google.protobuf.ExtensionRegistryLite extensionRegistry)
           throws java.io.IOException {
-        edu.washington.escience.myria.proto.DataProto.StringColumnMessage parsedMessage = null;
+        edu.washington.escience.myria.proto.DataProto.DictionaryStringColumnMessage parsedMessage = null;
         try {
           parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
         } catch (com.google.protobuf.InvalidProtocolBufferException e) {
-          parsedMessage = (edu.washington.escience.myria.proto.DataProto.StringColumnMessage) e.getUnfinishedMessage();
+          parsedMessage = (edu.washington.escience.myria.proto.DataProto.DictionaryStringColumnMessage) e.getUnfinishedMessage();
           throw e;
         } finally {
           if (parsedMessage != null) {
@@ -5488,37 +9337,53 @@ public final class DataProto {
       }
       private int bitField0_;
 
-      private com.google.protobuf.ByteString data_ = com.google.protobuf.ByteString.EMPTY;
+      private com.google.protobuf.ByteString values_ = com.google.protobuf.ByteString.EMPTY;
       /**
-       * <code>required bytes data = 1;</code>
+       * <code>required bytes values = 1;</code>
+       *
+       * <pre>
+       * UTF-8 bytes of the distinct values
+       * </pre>
        */
-      public boolean hasData() {
+      public boolean hasValues() {
         return ((bitField0_ & 0x00000001) == 0x00000001);
       }
       /**
-       * <code>required bytes data = 1;</code>
+       * <code>required bytes values = 1;</code>
+       *
+       * <pre>
+       * UTF-8 bytes of the distinct values
+       * </pre>
        */
-      public com.google.protobuf.ByteString getData() {
-        return data_;
+      public com.google.protobuf.ByteString getValues() {
+        return values_;
       }
       /**
-       * <code>required bytes data = 1;</code>
+       * <code>required bytes values = 1;</code>
+       *
+       * <pre>
+       * UTF-8 bytes of the distinct values
+       * </pre>
        */
-      public Builder setData(com.google.protobuf.ByteString value) {
+      public Builder setValues(com.google.protobuf.ByteString value) {
         if (value == null) {
     throw new NullPointerException();
   }
   bitField0_ |= 0x00000001;
-        data_ = value;
+        values_ = value;
         onChanged();
         return this;
       }
       /**
-       * <code>required bytes data = 1;</code>
+       * <code>required bytes values = 1;</code>
+       *
+       * <pre>
+       * UTF-8 bytes of the distinct values
+       * </pre>
        */
-      public Builder clearData() {
+      public Builder clearValues() {
         bitField0_ = (bitField0_ & ~0x00000001);
-        data_ = getDefaultInstance().getData();
+        values_ = getDefaultInstance().getValues();
         onChanged();
         return this;
       }
@@ -5655,15 +9520,66 @@ public final class DataProto {
         return this;
       }
 
-      // @@protoc_insertion_point(builder_scope:StringColumnMessage)
+      private com.google.protobuf.ByteString codes_ = com.google.protobuf.ByteString.EMPTY;
+      /**
+       * <code>required bytes codes = 4;</code>
+       *
+       * <pre>
+       * index into the values of each row
+       * </pre>
+       */
+      public boolean hasCodes() {
+        return ((bitField0_ & 0x00000008) == 0x00000008);
+      }
+      /**
+       * <code>required bytes codes = 4;</code>
+       *
+       * <pre>
+       * index into the values of each row
+       * </pre>
+       */
+      public com.google.protobuf.ByteString getCodes() {
+        return codes_;
+      }
+      /**
+       * <code>required bytes codes = 4;</code>
+       *
+       * <pre>
+       * index into the values of each row
+       * </pre>
+       */
+      public Builder setCodes(com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000008;
+        codes_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>required bytes codes = 4;</code>
+       *
+       * <pre>
+       * index into the values of each row
+       * </pre>
+       */
+      public Builder clearCodes() {
+        bitField0_ = (bitField0_ & ~0x00000008);
+        codes_ = getDefaultInstance().getCodes();
+        onChanged();
+        return this;
+      }
+
+      // @@protoc_insertion_point(builder_scope:DictionaryStringColumnMessage)
     }
 
     static {
-      defaultInstance = new StringColumnMessage(true);
+      defaultInstance = new DictionaryStringColumnMessage(true);
       defaultInstance.initFields();
     }
 
-    // @@protoc_insertion_point(class_scope:StringColumnMessage)
+    // @@protoc_insertion_point(class_scope:DictionaryStringColumnMessage)
   }
 
   public interface BooleanColumnMessageOrBuilder extends
@@ -7210,6 +11126,21 @@ public final class DataProto {
   private static
     com.google.protobuf.GeneratedMessage.FieldAccessorTable
       internal_static_ColumnMessage_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_ConstantColumnMessage_descriptor;
+  private static
+    com.google.protobuf.GeneratedMessage.FieldAccessorTable
+      internal_static_ConstantColumnMessage_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_RunLengthColumnMessage_descriptor;
+  private static
+    com.google.protobuf.GeneratedMessage.FieldAccessorTable
+      internal_static_RunLengthColumnMessage_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_DeltaColumnMessage_descriptor;
+  private static
+    com.google.protobuf.GeneratedMessage.FieldAccessorTable
+      internal_static_DeltaColumnMessage_fieldAccessorTable;
   private static final com.google.protobuf.Descriptors.Descriptor
     internal_static_IntColumnMessage_descriptor;
   private static
@@ -7235,6 +11166,11 @@ public final class DataProto {
   private static
     com.google.protobuf.GeneratedMessage.FieldAccessorTable
       internal_static_StringColumnMessage_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_DictionaryStringColumnMessage_descriptor;
+  private static
+    com.google.protobuf.GeneratedMessage.FieldAccessorTable
+      internal_static_DictionaryStringColumnMessage_fieldAccessorTable;
   private static final com.google.protobuf.Descriptors.Descriptor
     internal_static_BooleanColumnMessage_descriptor;
   private static
@@ -7263,7 +11199,7 @@ public final class DataProto {
       " \002(\0162\021.DataMessage.Type\022\022\n\noperatorID\030\002 " +
       "\001(\004\022\037\n\007columns\030\003 \003(\0132\016.ColumnMessage\022\022\n\n" +
       "num_tuples\030\004 \001(\r\022\013\n\003seq\030\005 \001(\004\"\033\n\004Type\022\n\n" +
-      "\006NORMAL\020\001\022\007\n\003EOI\020\002\"\357\003\n\rColumnMessage\022!\n\004" +
+      "\006NORMAL\020\001\022\007\n\003EOI\020\002\"\301\005\n\rColumnMessage\022!\n\004" +
       "type\030\001 \002(\0162\023.ColumnMessage.Type\022%\n\nint_c" +
       "olumn\030\003 \001(\0132\021.IntColumnMessage\022\'\n\013long_c" +
       "olumn\030\004 \001(\0132\022.LongColumnMessage\022)\n\014float" +
@@ -7273,20 +11209,33 @@ public final class DataProto {
       "sage\022-\n\016boolean_column\030\010 \001(\0132\025.BooleanCo" +
       "lumnMessage\022+\n\013date_column\030\t \001(\0132\026.DateT" +
       "imeColumnMessage\022\'\n\013blob_column\030\n \001(\0132\022." +
-      "BlobColumnMessage\"a\n\004Type\022\007\n\003INT\020\000\022\010\n\004LO" +
-      "NG\020\001\022\t\n\005FLOAT\020\002\022\n\n\006DOUBLE\020\003\022\n\n\006STRING\020\004\022" +
-      "\013\n\007BOOLEAN\020\005\022\014\n\010DATETIME\020\006\022\010\n\004BLOB\020\007\" \n\020" +
-      "IntColumnMessage\022\014\n\004data\030\001 \002(\014\"!\n\021LongCo" +
-      "lumnMessage\022\014\n\004data\030\001 \002(\014\"\"\n\022FloatColumn" +
-      "Message\022\014\n\004data\030\001 \002(\014\"#\n\023DoubleColumnMes",
-      "sage\022\014\n\004data\030\001 \002(\014\"O\n\023StringColumnMessag" +
+      "BlobColumnMessage\022@\n\030dictionary_string_c" +
+      "olumn\030\013 \001(\0132\036.DictionaryStringColumnMess" +
+      "age\022/\n\017constant_column\030\014 \001(\0132\026.ConstantC" +
+      "olumnMessage\0222\n\021run_length_column\030\r \001(\0132" +
+      "\027.RunLengthColumnMessage\022)\n\014delta_column" +
+      "\030\016 \001(\0132\023.DeltaColumnMessage\"a\n\004Type\022\007\n\003I",
+      "NT\020\000\022\010\n\004LONG\020\001\022\t\n\005FLOAT\020\002\022\n\n\006DOUBLE\020\003\022\n\n" +
+      "\006STRING\020\004\022\013\n\007BOOLEAN\020\005\022\014\n\010DATETIME\020\006\022\010\n\004" +
+      "BLOB\020\007\"6\n\025ConstantColumnMessage\022\035\n\005value" +
+      "\030\001 \002(\0132\016.ColumnMessage\"N\n\026RunLengthColum" +
+      "nMessage\022\036\n\006values\030\001 \002(\0132\016.ColumnMessage" +
+      "\022\024\n\010run_ends\030\002 \003(\005B\002\020\001\"D\n\022DeltaColumnMes" +
+      "sage\022\r\n\005first\030\001 \002(\003\022\021\n\tbit_width\030\002 \002(\005\022\014" +
+      "\n\004data\030\003 \002(\014\" \n\020IntColumnMessage\022\014\n\004data" +
+      "\030\001 \002(\014\"!\n\021LongColumnMessage\022\014\n\004data\030\001 \002(" +
+      "\014\"\"\n\022FloatColumnMessage\022\014\n\004data\030\001 \002(\014\"#\n",
+      "\023DoubleColumnMessage\022\014\n\004data\030\001 \002(\014\"O\n\023St" +
+      "ringColumnMessage\022\014\n\004data\030\001 \002(\014\022\025\n\rstart" +
+      "_indices\030\002 \003(\005\022\023\n\013end_indices\030\003 \003(\005\"j\n\035D" +
+      "ictionaryStringColumnMessage\022\016\n\006values\030\001" +
+      " \002(\014\022\025\n\rstart_indices\030\002 \003(\005\022\023\n\013end_indic" +
+      "es\030\003 \003(\005\022\r\n\005codes\030\004 \002(\014\"$\n\024BooleanColumn" +
+      "Message\022\014\n\004data\030\001 \002(\014\"%\n\025DateTimeColumnM" +
+      "essage\022\014\n\004data\030\001 \002(\014\"M\n\021BlobColumnMessag" +
       "e\022\014\n\004data\030\001 \002(\014\022\025\n\rstart_indices\030\002 \003(\005\022\023" +
-      "\n\013end_indices\030\003 \003(\005\"$\n\024BooleanColumnMess" +
-      "age\022\014\n\004data\030\001 \002(\014\"%\n\025DateTimeColumnMessa" +
-      "ge\022\014\n\004data\030\001 \002(\014\"M\n\021BlobColumnMessage\022\014\n" +
-      "\004data\030\001 \002(\014\022\025\n\rstart_indices\030\002 \003(\005\022\023\n\013en" +
-      "d_indices\030\003 \003(\005B0\n#edu.washington.escien" +
-      "ce.myria.protoB\tDataProto"
+      "\n\013end_indices\030\003 \003(\005B0\n#edu.washington.es",
+      "cience.myria.protoB\tDataProto"
     };
     com.google.protobuf.Descriptors.FileDescriptor.InternalDescriptorAssigner assigner =
         new com.google.protobuf.Descriptors.FileDescriptor.    InternalDescriptorAssigner() {
@@ -7311,51 +11260,75 @@ public final class DataProto {
     internal_static_ColumnMessage_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessage.FieldAccessorTable(
         internal_static_ColumnMessage_descriptor,
-        new java.lang.String[] { "Type", "IntColumn", "LongColumn", "FloatColumn", "DoubleColumn", "StringColumn", "BooleanColumn", "DateColumn", "BlobColumn", });
-    internal_static_IntColumnMessage_descriptor =
+        new java.lang.String[] { "Type", "IntColumn", "LongColumn", "FloatColumn", "DoubleColumn", "StringColumn", "BooleanColumn", "DateColumn", "BlobColumn", "DictionaryStringColumn", "ConstantColumn", "RunLengthColumn", "DeltaColumn", });
+    internal_static_ConstantColumnMessage_descriptor =
       getDescriptor().getMessageTypes().get(2);
+    internal_static_ConstantColumnMessage_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessage.FieldAccessorTable(
+        internal_static_ConstantColumnMessage_descriptor,
+        new java.lang.String[] { "Value", });
+    internal_static_RunLengthColumnMessage_descriptor =
+      getDescriptor().getMessageTypes().get(3);
+    internal_static_RunLengthColumnMessage_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessage.FieldAccessorTable(
+        internal_static_RunLengthColumnMessage_descriptor,
+        new java.lang.String[] { "Values", "RunEnds", });
+    internal_static_DeltaColumnMessage_descriptor =
+      getDescriptor().getMessageTypes().get(4);
+    internal_static_DeltaColumnMessage_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessage.FieldAccessorTable(
+        internal_static_DeltaColumnMessage_descriptor,
+        new java.lang.String[] { "First", "BitWidth", "Data", });
+    internal_static_IntColumnMessage_descriptor =
+      getDescriptor().getMessageTypes().get(5);
     internal_static_IntColumnMessage_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessage.FieldAccessorTable(
         internal_static_IntColumnMessage_descriptor,
         new java.lang.String[] { "Data", });
     internal_static_LongColumnMessage_descriptor =
-      getDescriptor().getMessageTypes().get(3);
+      getDescriptor().getMessageTypes().get(6);
     internal_static_LongColumnMessage_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessage.FieldAccessorTable(
         internal_static_LongColumnMessage_descriptor,
         new java.lang.String[] { "Data", });
     internal_static_FloatColumnMessage_descriptor =
-      getDescriptor().getMessageTypes().get(4);
+      getDescriptor().getMessageTypes().get(7);
     internal_static_FloatColumnMessage_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessage.FieldAccessorTable(
         internal_static_FloatColumnMessage_descriptor,
         new java.lang.String[] { "Data", });
     internal_static_DoubleColumnMessage_descriptor =
-      getDescriptor().getMessageTypes().get(5);
+      getDescriptor().getMessageTypes().get(8);
     internal_static_DoubleColumnMessage_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessage.FieldAccessorTable(
         internal_static_DoubleColumnMessage_descriptor,
         new java.lang.String[] { "Data", });
     internal_static_StringColumnMessage_descriptor =
-      getDescriptor().getMessageTypes().get(6);
+      getDescriptor().getMessageTypes().get(9);
     internal_static_StringColumnMessage_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessage.FieldAccessorTable(
         internal_static_StringColumnMessage_descriptor,
         new java.lang.String[] { "Data", "StartIndices", "EndIndices", });
+    internal_static_DictionaryStringColumnMessage_descriptor =
+      getDescriptor().getMessageTypes().get(10);
+    internal_static_DictionaryStringColumnMessage_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessage.FieldAccessorTable(
+        internal_static_DictionaryStringColumnMessage_descriptor,
+        new java.lang.String[] { "Values", "StartIndices", "EndIndices", "Codes", });
     internal_static_BooleanColumnMessage_descriptor =
-      getDescriptor().getMessageTypes().get(7);
+      getDescriptor().getMessageTypes().get(11);
     internal_static_BooleanColumnMessage_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessage.FieldAccessorTable(
         internal_static_BooleanColumnMessage_descriptor,
         new java.lang.String[] { "Data", });
     internal_static_DateTimeColumnMessage_descriptor =
-      getDescriptor().getMessageTypes().get(8);
+      getDescriptor().getMessageTypes().get(12);
     internal_static_DateTimeColumnMessage_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessage.FieldAccessorTable(
         internal_static_DateTimeColumnMessage_descriptor,
         new java.lang.String[] { "Data", });
     internal_static_BlobColumnMessage_descriptor =
-      getDescriptor().getMessageTypes().get(9);
+      getDescriptor().getMessageTypes().get(13);
     internal_static_BlobColumnMessage_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessage.FieldAccessorTable(
         internal_static_BlobColumnMessage_descriptor,
@@ -18,7 +18,7 @@ _sym_db = _symbol_database.Default()
 DESCRIPTOR = _descriptor.FileDescriptor(
   name='column.proto',
   package='',
-  serialized_pb=_b('\n\x0c\x63olumn.proto\"\xa1\x01\n\x0b\x44\x61taMessage\x12\x1f\n\x04type\x18\x01 \x02(\x0e\x32\x11.DataMessage.Type\x12\x12\n\noperatorID\x18\x02 \x01(\x04\x12\x1f\n\x07\x63olumns\x18\x03 \x03(\x0b\x32\x0e.ColumnMessage\x12\x12\n\nnum_tuples\x18\x04 \x01(\r\x12\x0b\n\x03seq\x18\x05 \x01(\x04\"\x1b\n\x04Type\x12\n\n\x06NORMAL\x10\x01\x12\x07\n\x03\x45OI\x10\x02\"\xef\x03\n\rColumnMessage\x12!\n\x04type\x18\x01 \x02(\x0e\x32\x13.ColumnMessage.Type\x12%\n\nint_column\x18\x03 \x01(\x0b\x32\x11.IntColumnMessage\x12\'\n\x0blong_column\x18\x04 \x01(\x0b\x32\x12.LongColumnMessage\x12)\n\x0c\x66loat_column\x18\x05 \x01(\x0b\x32\x13.FloatColumnMessage\x12+\n\rdouble_column\x18\x06 \x01(\x0b\x32\x14.DoubleColumnMessage\x12+\n\rstring_column\x18\x07 \x01(\x0b\x32\x14.StringColumnMessage\x12-\n\x0e\x62oolean_column\x18\x08 \x01(\x0b\x32\x15.BooleanColumnMessage\x12+\n\x0b\x64\x61te_column\x18\t \x01(\x0b\x32\x16.DateTimeColumnMessage\x12\'\n\x0b\x62lob_column\x18\n \x01(\x0b\x32\x12.BlobColumnMessage\"a\n\x04Type\x12\x07\n\x03INT\x10\x00\x12\x08\n\x04LONG\x10\x01\x12\t\n\x05\x46LOAT\x10\x02\x12\n\n\x06\x44OUBLE\x10\x03\x12\n\n\x06STRING\x10\x04\x12\x0b\n\x07\x42OOLEAN\x10\x05\x12\x0c\n\x08\x44\x41TETIME\x10\x06\x12\x08\n\x04\x42LOB\x10\x07\" \n\x10IntColumnMessage\x12\x0c\n\x04\x64\x61ta\x18\x01 \x02(\x0c\"!\n\x11LongColumnMessage\x12\x0c\n\x04\x64\x61ta\x18\x01 \x02(\x0c\"\"\n\x12\x46loatColumnMessage\x12\x0c\n\x04\x64\x61ta\x18\x01 \x02(\x0c\"#\n\x13\x44oubleColumnMessage\x12\x0c\n\x04\x64\x61ta\x18\x01 \x02(\x0c\"O\n\x13StringColumnMessage\x12\x0c\n\x04\x64\x61ta\x18\x01 \x02(\x0c\x12\x15\n\rstart_indices\x18\x02 \x03(\x05\x12\x13\n\x0b\x65nd_indices\x18\x03 \x03(\x05\"$\n\x14\x42ooleanColumnMessage\x12\x0c\n\x04\x64\x61ta\x18\x01 \x02(\x0c\"%\n\x15\x44\x61teTimeColumnMessage\x12\x0c\n\x04\x64\x61ta\x18\x01 \x02(\x0c\"M\n\x11\x42lobColumnMessage\x12\x0c\n\x04\x64\x61ta\x18\x01 \x02(\x0c\x12\x15\n\rstart_indices\x18\x02 \x03(\x05\x12\x13\n\x0b\x65nd_indices\x18\x03 \x03(\x05\x42\x30\n#edu.washington.escience.myria.protoB\tDataProto')
+  serialized_pb=_b('\n\x0c\x63olumn.proto\"\xa1\x01\n\x0b\x44\x61taMessage\x12\x1f\n\x04type\x18\x01 \x02(\x0e\x32\x11.DataMessage.Type\x12\x12\n\noperatorID\x18\x02 \x01(\x04\x12\x1f\n\x07\x63olumns\x18\x03 \x03(\x0b\x32\x0e.ColumnMessage\x12\x12\n\nnum_tuples\x18\x04 \x01(\r\x12\x0b\n\x03seq\x18\x05 \x01(\x04\"\x1b\n\x04Type\x12\n\n\x06NORMAL\x10\x01\x12\x07\n\x03\x45OI\x10\x02\"\xc1\x05\n\rColumnMessage\x12!\n\x04type\x18\x01 \x02(\x0e\x32\x13.ColumnMessage.Type\x12%\n\nint_column\x18\x03 \x01(\x0b\x32\x11.IntColumnMessage\x12\'\n\x0blong_column\x18\x04 \x01(\x0b\x32\x12.LongColumnMessage\x12)\n\x0c\x66loat_column\x18\x05 \x01(\x0b\x32\x13.FloatColumnMessage\x12+\n\rdouble_column\x18\x06 \x01(\x0b\x32\x14.DoubleColumnMessage\x12+\n\rstring_column\x18\x07 \x01(\x0b\x32\x14.StringColumnMessage\x12-\n\x0e\x62oolean_column\x18\x08 \x01(\x0b\x32\x15.BooleanColumnMessage\x12+\n\x0b\x64\x61te_column\x18\t \x01(\x0b\x32\x16.DateTimeColumnMessage\x12\'\n\x0b\x62lob_column\x18\n \x01(\x0b\x32\x12.BlobColumnMessage\x12@\n\x18\x64ictionary_string_column\x18\x0b \x01(\x0b\x32\x1e.DictionaryStringColumnMessage\x12/\n\x0f\x63onstant_column\x18\x0c \x01(\x0b\x32\x16.ConstantColumnMessage\x12\x32\n\x11run_length_column\x18\r \x01(\x0b\x32\x17.RunLengthColumnMessage\x12)\n\x0c\x64\x65lta_column\x18\x0e \x01(\x0b\x32\x13.DeltaColumnMessage\"a\n\x04Type\x12\x07\n\x03INT\x10\x00\x12\x08\n\x04LONG\x10\x01\x12\t\n\x05\x46LOAT\x10\x02\x12\n\n\x06\x44OUBLE\x10\x03\x12\n\n\x06STRING\x10\x04\x12\x0b\n\x07\x42OOLEAN\x10\x05\x12\x0c\n\x08\x44\x41TETIME\x10\x06\x12\x08\n\x04\x42LOB\x10\x07\"6\n\x15\x43onstantColumnMessage\x12\x1d\n\x05value\x18\x01 \x02(\x0b\x32\x0e.ColumnMessage\"N\n\x16RunLengthColumnMessage\x12\x1e\n\x06values\x18\x01 \x02(\x0b\x32\x0e.ColumnMessage\x12\x14\n\x08run_ends\x18\x02 \x03(\x05\x42\x02\x10\x01\"D\n\x12\x44\x65ltaColumnMessage\x12\r\n\x05\x66irst\x18\x01 \x02(\x03\x12\x11\n\tbit_width\x18\x02 \x02(\x05\x12\x0c\n\x04\x64\x61ta\x18\x03 \x02(\x0c\" \n\x10IntColumnMessage\x12\x0c\n\x04\x64\x61ta\x18\x01 \x02(\x0c\"!\n\x11LongColumnMessage\x12\x0c\n\x04\x64\x61ta\x18\x01 \x02(\x0c\"\"\n\x12\x46loatColumnMessage\x12\x0c\n\x04\x64\x61ta\x18\x01 \x02(\x0c\"#\n\x13\x44oubleColumnMessage\x12\x0c\n\x04\x64\x61ta\x18\x01 \x02(\x0c\"O\n\x13StringColumnMessage\x12\x0c\n\x04\x64\x61ta\x18\x01 \x02(\x0c\x12\x15\n\rstart_indices\x18\x02 \x03(\x05\x12\x13\n\x0b\x65nd_indices\x18\x03 \x03(\x05\"j\n\x1d\x44ictionaryStringColumnMessage\x12\x0e\n\x06values\x18\x01 \x02(\x0c\x12\x15\n\rstart_indices\x18\x02 \x03(\x05\x12\x13\n\x0b\x65nd_indices\x18\x03 \x03(\x05\x12\r\n\x05\x63odes\x18\x04 \x02(\x0c\"$\n\x14\x42ooleanColumnMessage\x12\x0c\n\x04\x64\x61ta\x18\x01 \x02(\x0c\"%\n\x15\x44\x61teTimeColumnMessage\x12\x0c\n\x04\x64\x61ta\x18\x01 \x02(\x0c\"M\n\x11\x42lobColumnMessage\x12\x0c\n\x04\x64\x61ta\x18\x01 \x02(\x0c\x12\x15\n\rstart_indices\x18\x02 \x03(\x05\x12\x13\n\x0b\x65nd_indices\x18\x03 \x03(\x05\x42\x30\n#edu.washington.escience.myria.protoB\tDataProto')
 )
 _sym_db.RegisterFileDescriptor(DESCRIPTOR)
 
@@ -87,8 +87,8 @@ _COLUMNMESSAGE_TYPE = _descriptor.EnumDescriptor(
   ],
   containing_type=None,
   options=None,
-  serialized_start=579,
-  serialized_end=676,
+  serialized_start=789,
+  serialized_end=886,
 )
 _sym_db.RegisterEnumDescriptor(_COLUMNMESSAGE_TYPE)
 
@@ -222,6 +222,34 @@ _COLUMNMESSAGE = _descriptor.Descriptor(
       message_type=None, enum_type=None, containing_type=None,
       is_extension=False, extension_scope=None,
       options=None),
+    _descriptor.FieldDescriptor(
+      name='dictionary_string_column', full_name='ColumnMessage.dictionary_string_column', index=9,
+      number=11, type=11, cpp_type=10, label=1,
+      has_default_value=False, default_value=None,
+      message_type=None, enum_type=None, containing_type=None,
+      is_extension=False, extension_scope=None,
+      options=None),
+    _descriptor.FieldDescriptor(
+      name='constant_column', full_name='ColumnMessage.constant_column', index=10,
+      number=12, type=11, cpp_type=10, label=1,
+      has_default_value=False, default_value=None,
+      message_type=None, enum_type=None, containing_type=None,
+      is_extension=False, extension_scope=None,
+      options=None),
+    _descriptor.FieldDescriptor(
+      name='run_length_column', full_name='ColumnMessage.run_length_column', index=11,
+      number=13, type=11, cpp_type=10, label=1,
+      has_default_value=False, default_value=None,
+      message_type=None, enum_type=None, containing_type=None,
+      is_extension=False, extension_scope=None,
+      options=None),
+    _descriptor.FieldDescriptor(
+      name='delta_column', full_name='ColumnMessage.delta_column', index=12,
+      number=14, type=11, cpp_type=10, label=1,
+      has_default_value=False, default_value=None,
+      message_type=None, enum_type=None, containing_type=None,
+      is_extension=False, extension_scope=None,
+      options=None),
   ],
   extensions=[
   ],
@@ -235,7 +263,118 @@ _COLUMNMESSAGE = _descriptor.Descriptor(
   oneofs=[
   ],
   serialized_start=181,
-  serialized_end=676,
+  serialized_end=886,
+)
+
+
+_CONSTANTCOLUMNMESSAGE = _descriptor.Descriptor(
+  name='ConstantColumnMessage',
+  full_name='ConstantColumnMessage',
+  filename=None,
+  file=DESCRIPTOR,
+  containing_type=None,
+  fields=[
+    _descriptor.FieldDescriptor(
+      name='value', full_name='ConstantColumnMessage.value', index=0,
+      number=1, type=11, cpp_type=10, label=2,
+      has_default_value=False, default_value=None,
+      message_type=None, enum_type=None, containing_type=None,
+      is_extension=False, extension_scope=None,
+      options=None),
+  ],
+  extensions=[
+  ],
+  nested_types=[],
+  enum_types=[
+  ],
+  options=None,
+  is_extendable=False,
+  extension_ranges=[],
+  oneofs=[
+  ],
+  serialized_start=888,
+  serialized_end=942,
+)
+
+
+_RUNLENGTHCOLUMNMESSAGE = _descriptor.Descriptor(
+  name='RunLengthColumnMessage',
+  full_name='RunLengthColumnMessage',
+  filename=None,
+  file=DESCRIPTOR,
+  containing_type=None,
+  fields=[
+    _descriptor.FieldDescriptor(
+      name='values', full_name='RunLengthColumnMessage.values', index=0,
+      number=1, type=11, cpp_type=10, label=2,
+      has_default_value=False, default_value=None,
+      message_type=None, enum_type=None, containing_type=None,
+      is_extension=False, extension_scope=None,
+      options=None),
+    _descriptor.FieldDescriptor(
+      name='run_ends', full_name='RunLengthColumnMessage.run_ends', index=1,
+      number=2, type=5, cpp_type=1, label=3,
+      has_default_value=False, default_value=[],
+      message_type=None, enum_type=None, containing_type=None,
+      is_extension=False, extension_scope=None,
+      options=_descriptor._ParseOptions(descriptor_pb2.FieldOptions(), _b('\020\001'))),
+  ],
+  extensions=[
+  ],
+  nested_types=[],
+  enum_types=[
+  ],
+  options=None,
+  is_extendable=False,
+  extension_ranges=[],
+  oneofs=[
+  ],
+  serialized_start=944,
+  serialized_end=1022,
+)
+
+
+_DELTACOLUMNMESSAGE = _descriptor.Descriptor(
+  name='DeltaColumnMessage',
+  full_name='DeltaColumnMessage',
+  filename=None,
+  file=DESCRIPTOR,
+  containing_type=None,
+  fields=[
+    _descriptor.FieldDescriptor(
+      name='first', full_name='DeltaColumnMessage.first', index=0,
+      number=1, type=3, cpp_type=2, label=2,
+      has_default_value=False, default_value=0,
+      message_type=None, enum_type=None, containing_type=None,
+      is_extension=False, extension_scope=None,
+      options=None),
+    _descriptor.FieldDescriptor(
+      name='bit_width', full_name='DeltaColumnMessage.bit_width', index=1,
+      number=2, type=5, cpp_type=1, label=2,
+      has_default_value=False, default_value=0,
+      message_type=None, enum_type=None, containing_type=None,
+      is_extension=False, extension_scope=None,
+      options=None),
+    _descriptor.FieldDescriptor(
+      name='data', full_name='DeltaColumnMessage.data', index=2,
+      number=3, type=12, cpp_type=9, label=2,
+      has_default_value=False, default_value=_b(""),
+      message_type=None, enum_type=None, containing_type=None,
+      is_extension=False, extension_scope=None,
+      options=None),
+  ],
+  extensions=[
+  ],
+  nested_types=[],
+  enum_types=[
+  ],
+  options=None,
+  is_extendable=False,
+  extension_ranges=[],
+  oneofs=[
+  ],
+  serialized_start=1024,
+  serialized_end=1092,
 )
 
 
@@ -264,8 +403,8 @@ _INTCOLUMNMESSAGE = _descriptor.Descriptor(
   extension_ranges=[],
   oneofs=[
   ],
-  serialized_start=678,
-  serialized_end=710,
+  serialized_start=1094,
+  serialized_end=1126,
 )
 
 
@@ -294,8 +433,8 @@ _LONGCOLUMNMESSAGE = _descriptor.Descriptor(
   extension_ranges=[],
   oneofs=[
   ],
-  serialized_start=712,
-  serialized_end=745,
+  serialized_start=1128,
+  serialized_end=1161,
 )
 
 
@@ -324,8 +463,8 @@ _FLOATCOLUMNMESSAGE = _descriptor.Descriptor(
   extension_ranges=[],
   oneofs=[
   ],
-  serialized_start=747,
-  serialized_end=781,
+  serialized_start=1163,
+  serialized_end=1197,
 )
 
 
@@ -354,8 +493,8 @@ _DOUBLECOLUMNMESSAGE = _descriptor.Descriptor(
   extension_ranges=[],
   oneofs=[
   ],
-  serialized_start=783,
-  serialized_end=818,
+  serialized_start=1199,
+  serialized_end=1234,
 )
 
 
@@ -398,8 +537,59 @@ _STRINGCOLUMNMESSAGE = _descriptor.Descriptor(
   extension_ranges=[],
   oneofs=[
   ],
-  serialized_start=820,
-  serialized_end=899,
+  serialized_start=1236,
+  serialized_end=1315,
+)
+
+
+_DICTIONARYSTRINGCOLUMNMESSAGE = _descriptor.Descriptor(
+  name='DictionaryStringColumnMessage',
+  full_name='DictionaryStringColumnMessage',
+  filename=None,
+  file=DESCRIPTOR,
+  containing_type=None,
+  fields=[
+    _descriptor.FieldDescriptor(
+      name='values', full_name='DictionaryStringColumnMessage.values', index=0,
+      number=1, type=12, cpp_type=9, label=2,
+      has_default_value=False, default_value=_b(""),
+      message_type=None, enum_type=None, containing_type=None,
+      is_extension=False, extension_scope=None,
+      options=None),
+    _descriptor.FieldDescriptor(
+      name='start_indices', full_name='DictionaryStringColumnMessage.start_indices', index=1,
+      number=2, type=5, cpp_type=1, label=3,
+      has_default_value=False, default_value=[],
+      message_type=None, enum_type=None, containing_type=None,
+      is_extension=False, extension_scope=None,
+      options=None),
+    _descriptor.FieldDescriptor(
+      name='end_indices', full_name='DictionaryStringColumnMessage.end_indices', index=2,
+      number=3, type=5, cpp_type=1, label=3,
+      has_default_value=False, default_value=[],
+      message_type=None, enum_type=None, containing_type=None,
+      is_extension=False, extension_scope=None,
+      options=None),
+    _descriptor.FieldDescriptor(
+      name='codes', full_name='DictionaryStringColumnMessage.codes', index=3,
+      number=4, type=12, cpp_type=9, label=2,
+      has_default_value=False, default_value=_b(""),
+      message_type=None, enum_type=None, containing_type=None,
+      is_extension=False, extension_scope=None,
+      options=None),
+  ],
+  extensions=[
+  ],
+  nested_types=[],
+  enum_types=[
+  ],
+  options=None,
+  is_extendable=False,
+  extension_ranges=[],
+  oneofs=[
+  ],
+  serialized_start=1317,
+  serialized_end=1423,
 )
 
 
@@ -428,8 +618,8 @@ _BOOLEANCOLUMNMESSAGE = _descriptor.Descriptor(
   extension_ranges=[],
   oneofs=[
   ],
-  serialized_start=901,
-  serialized_end=937,
+  serialized_start=1425,
+  serialized_end=1461,
 )
 
 
@@ -458,8 +648,8 @@ _DATETIMECOLUMNMESSAGE = _descriptor.Descriptor(
   extension_ranges=[],
   oneofs=[
   ],
-  serialized_start=939,
-  serialized_end=976,
+  serialized_start=1463,
+  serialized_end=1500,
 )
 
 
@@ -502,8 +692,8 @@ _BLOBCOLUMNMESSAGE = _descriptor.Descriptor(
   extension_ranges=[],
   oneofs=[
   ],
-  serialized_start=978,
-  serialized_end=1055,
+  serialized_start=1502,
+  serialized_end=1579,
 )
 
 _DATAMESSAGE.fields_by_name['type'].enum_type = _DATAMESSAGE_TYPE
@@ -518,14 +708,24 @@ _COLUMNMESSAGE.fields_by_name['string_column'].message_type = _STRINGCOLUMNMESSA
 _COLUMNMESSAGE.fields_by_name['boolean_column'].message_type = _BOOLEANCOLUMNMESSAGE
 _COLUMNMESSAGE.fields_by_name['date_column'].message_type = _DATETIMECOLUMNMESSAGE
 _COLUMNMESSAGE.fields_by_name['blob_column'].message_type = _BLOBCOLUMNMESSAGE
+_COLUMNMESSAGE.fields_by_name['dictionary_string_column'].message_type = _DICTIONARYSTRINGCOLUMNMESSAGE
+_COLUMNMESSAGE.fields_by_name['constant_column'].message_type = _CONSTANTCOLUMNMESSAGE
+_COLUMNMESSAGE.fields_by_name['run_length_column'].message_type = _RUNLENGTHCOLUMNMESSAGE
+_COLUMNMESSAGE.fields_by_name['delta_column'].message_type = _DELTACOLUMNMESSAGE
 _COLUMNMESSAGE_TYPE.containing_type = _COLUMNMESSAGE
+_CONSTANTCOLUMNMESSAGE.fields_by_name['value'].message_type = _COLUMNMESSAGE
+_RUNLENGTHCOLUMNMESSAGE.fields_by_name['values'].message_type = _COLUMNMESSAGE
 DESCRIPTOR.message_types_by_name['DataMessage'] = _DATAMESSAGE
 DESCRIPTOR.message_types_by_name['ColumnMessage'] = _COLUMNMESSAGE
+DESCRIPTOR.message_types_by_name['ConstantColumnMessage'] = _CONSTANTCOLUMNMESSAGE
+DESCRIPTOR.message_types_by_name['RunLengthColumnMessage'] = _RUNLENGTHCOLUMNMESSAGE
+DESCRIPTOR.message_types_by_name['DeltaColumnMessage'] = _DELTACOLUMNMESSAGE
 DESCRIPTOR.message_types_by_name['IntColumnMessage'] = _INTCOLUMNMESSAGE
 DESCRIPTOR.message_types_by_name['LongColumnMessage'] = _LONGCOLUMNMESSAGE
 DESCRIPTOR.message_types_by_name['FloatColumnMessage'] = _FLOATCOLUMNMESSAGE
 DESCRIPTOR.message_types_by_name['DoubleColumnMessage'] = _DOUBLECOLUMNMESSAGE
 DESCRIPTOR.message_types_by_name['StringColumnMessage'] = _STRINGCOLUMNMESSAGE
+DESCRIPTOR.message_types_by_name['DictionaryStringColumnMessage'] = _DICTIONARYSTRINGCOLUMNMESSAGE
 DESCRIPTOR.message_types_by_name['BooleanColumnMessage'] = _BOOLEANCOLUMNMESSAGE
 DESCRIPTOR.message_types_by_name['DateTimeColumnMessage'] = _DATETIMECOLUMNMESSAGE
 DESCRIPTOR.message_types_by_name['BlobColumnMessage'] = _BLOBCOLUMNMESSAGE
@@ -544,6 +744,27 @@ ColumnMessage = _reflection.GeneratedProtocolMessageType('ColumnMessage', (_mess
   ))
 _sym_db.RegisterMessage(ColumnMessage)
 
+ConstantColumnMessage = _reflection.GeneratedProtocolMessageType('ConstantColumnMessage', (_message.Message,), dict(
+  DESCRIPTOR = _CONSTANTCOLUMNMESSAGE,
+  __module__ = 'column_pb2'
+  # @@protoc_insertion_point(class_scope:ConstantColumnMessage)
+  ))
+_sym_db.RegisterMessage(ConstantColumnMessage)
+
+RunLengthColumnMessage = _reflection.GeneratedProtocolMessageType('RunLengthColumnMessage', (_message.Message,), dict(
+  DESCRIPTOR = _RUNLENGTHCOLUMNMESSAGE,
+  __module__ = 'column_pb2'
+  # @@protoc_insertion_point(class_scope:RunLengthColumnMessage)
+  ))
+_sym_db.RegisterMessage(RunLengthColumnMessage)
+
+DeltaColumnMessage = _reflection.GeneratedProtocolMessageType('DeltaColumnMessage', (_message.Message,), dict(
+  DESCRIPTOR = _DELTACOLUMNMESSAGE,
+  __module__ = 'column_pb2'
+  # @@protoc_insertion_point(class_scope:DeltaColumnMessage)
+  ))
+_sym_db.RegisterMessage(DeltaColumnMessage)
+
 IntColumnMessage = _reflection.GeneratedProtocolMessageType('IntColumnMessage', (_message.Message,), dict(
   DESCRIPTOR = _INTCOLUMNMESSAGE,
   __module__ = 'column_pb2'
@@ -579,6 +800,13 @@ StringColumnMessage = _reflection.GeneratedProtocolMessageType('StringColumnMess
   ))
 _sym_db.RegisterMessage(StringColumnMessage)
 
+DictionaryStringColumnMessage = _reflection.GeneratedProtocolMessageType('DictionaryStringColumnMessage', (_message.Message,), dict(
+  DESCRIPTOR = _DICTIONARYSTRINGCOLUMNMESSAGE,
+  __module__ = 'column_pb2'
+  # @@protoc_insertion_point(class_scope:DictionaryStringColumnMessage)
+  ))
+_sym_db.RegisterMessage(DictionaryStringColumnMessage)
+
 BooleanColumnMessage = _reflection.GeneratedProtocolMessageType('BooleanColumnMessage', (_message.Message,), dict(
   DESCRIPTOR = _BOOLEANCOLUMNMESSAGE,
   __module__ = 'column_pb2'
@@ -603,4 +831,6 @@ _sym_db.RegisterMessage(BlobColumnMessage)
 
 DESCRIPTOR.has_options = True
 DESCRIPTOR._options = _descriptor._ParseOptions(descriptor_pb2.FileOptions(), _b('\n#edu.washington.escience.myria.protoB\tDataProto'))
+_RUNLENGTHCOLUMNMESSAGE.fields_by_name['run_ends'].has_options = True
+_RUNLENGTHCOLUMNMESSAGE.fields_by_name['run_ends']._options = _descriptor._ParseOptions(descriptor_pb2.FieldOptions(), _b('\020\001'))
 # @@protoc_insertion_point(module_scope)
@@ -6,10 +6,20 @@ import java.io.DataInputStream;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 
+import org.joda.time.DateTime;
+
 import com.google.common.io.LittleEndianDataInputStream;
 
+import edu.washington.escience.myria.column.Column;
+import edu.washington.escience.myria.column.builder.ColumnBuilder;
+import edu.washington.escience.myria.column.builder.ColumnFactory;
+import edu.washington.escience.myria.io.MappedFileInputStream;
 import edu.washington.escience.myria.storage.TupleBatch;
 import edu.washington.escience.myria.storage.TupleBatchBuffer;
 import edu.washington.escience.myria.storage.TupleUtils;
@@ -28,6 +38,10 @@ public class BinaryTupleReader implements TupleReader {
   private final boolean isLittleEndian;
   /** Data input to read data from the bin file. */
   private transient DataInput dataInput;
+  /** The memory-mapped bin file, if the input is one and the records have a fixed width. */
+  private transient MappedFileInputStream mappedInput;
+  /** The number of bytes of a record, if all the columns have a fixed width. */
+  private transient int recordWidth;
 
   /**
    * Construct a new BinaryTupleReader object that reads the given binary file and creates tuples from the file data
@@ -54,6 +68,21 @@ public class BinaryTupleReader implements TupleReader {
   @Override
   public void open(final InputStream stream) throws IOException, DbException {
     buffer = new TupleBatchBuffer(schema);
+    recordWidth = 0;
+    for (Type type : schema.getColumnTypes()) {
+      final int width = fixedWidth(type);
+      if (width < 0) {
+        recordWidth = -1;
+        break;
+      }
+      recordWidth += width;
+    }
+    if (stream instanceof MappedFileInputStream && recordWidth > 0) {
+      mappedInput = (MappedFileInputStream) stream;
+      dataInput = null;
+      return;
+    }
+    mappedInput = null;
     InputStream inputStream = new BufferedInputStream(stream);
 
     if (isLittleEndian) {
@@ -68,8 +97,106 @@ public class BinaryTupleReader implements TupleReader {
     return schema;
   }
 
+  /**
+   * @param type a column type.
+   * @return the number of bytes of its values, or -1 if they do not have a fixed width.
+   */
+  private static int fixedWidth(final Type type) {
+    switch (type) {
+      case BOOLEAN_TYPE:
+        return 1;
+      case INT_TYPE:
+      case FLOAT_TYPE:
+        return 4;
+      case LONG_TYPE:
+      case DOUBLE_TYPE:
+      case DATETIME_TYPE:
+        return 8;
+      default:
+        return -1;
+    }
+  }
+
+  /**
+   * Decode a batch of fixed-width records from the memory-mapped file, one column at a time.
+   *
+   * @return the batch, or null at the end of the file.
+   * @throws IOException if the file cannot be mapped.
+   * @throws DbException if the file ends in the middle of a record.
+   */
+  private TupleBatch readMappedTuples() throws IOException, DbException {
+    final List<ColumnBuilder<?>> builders = ColumnFactory.allocateColumns(schema);
+    final int batchSize = buffer.getBatchSize();
+    int numTuples = 0;
+    while (numTuples < batchSize) {
+      final ByteBuffer window = mappedInput.window(recordWidth);
+      final int n = Math.min(batchSize - numTuples, window.remaining() / recordWidth);
+      if (n == 0) {
+        if (window.hasRemaining()) {
+          throw new DbException("Ran out of binary data in the middle of a row");
+        }
+        break;
+      }
+      window.order(isLittleEndian ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+      final int start = window.position();
+      int offset = start;
+      for (int column = 0; column < schema.numColumns(); ++column) {
+        final ColumnBuilder<?> builder = builders.get(column);
+        final int end = offset + n * recordWidth;
+        switch (schema.getColumnType(column)) {
+          case BOOLEAN_TYPE:
+            for (int i = offset; i < end; i += recordWidth) {
+              builder.appendBoolean(window.get(i) != 0);
+            }
+            break;
+          case DOUBLE_TYPE:
+            for (int i = offset; i < end; i += recordWidth) {
+              builder.appendDouble(window.getDouble(i));
+            }
+            break;
+          case FLOAT_TYPE:
+            for (int i = offset; i < end; i += recordWidth) {
+              builder.appendFloat(window.getFloat(i));
+            }
+            break;
+          case INT_TYPE:
+            for (int i = offset; i < end; i += recordWidth) {
+              builder.appendInt(window.getInt(i));
+            }
+            break;
+          case LONG_TYPE:
+            for (int i = offset; i < end; i += recordWidth) {
+              builder.appendLong(window.getLong(i));
+            }
+            break;
+          case DATETIME_TYPE:
+            for (int i = offset; i < end; i += recordWidth) {
+              builder.appendDateTime(new DateTime(window.getLong(i)));
+            }
+            break;
+          default:
+            throw new IllegalStateException(schema.getColumnType(column) + " has no fixed width");
+        }
+        offset += fixedWidth(schema.getColumnType(column));
+      }
+      window.position(start + n * recordWidth);
+      numTuples += n;
+    }
+    if (numTuples == 0) {
+      return null;
+    }
+    final List<Column<?>> columns = new ArrayList<Column<?>>(builders.size());
+    for (ColumnBuilder<?> builder : builders) {
+      columns.add(builder.build());
+    }
+    return new TupleBatch(schema, columns, numTuples);
+  }
+
   @Override
   public TupleBatch readTuples() throws IOException, DbException {
+    if (mappedInput != null) {
+      return readMappedTuples();
+    }
     boolean building = false;
     try {
 
@@ -92,7 +219,10 @@ public class BinaryTupleReader implements TupleReader {
               buffer.putLong(count, dataInput.readLong());
               break;
             case STRING_TYPE:
-              buffer.putString(count, dataInput.readUTF());
+              buffer.putString(count, readString(dataInput));
+              break;
+            case DATETIME_TYPE:
+              buffer.putDateTime(count, new DateTime(dataInput.readLong()));
               break;
             default:
               throw new UnsupportedOperationException(
@@ -116,10 +246,26 @@ public class BinaryTupleReader implements TupleReader {
     return tb;
   }
 
+  /**
+   * Reads a string field, as written by {@link BinaryTupleWriter#writeString}. The default is
+   * {@link DataInput#readUTF}.
+   *
+   * @param input the input to read from.
+   * @return the string.
+   * @throws IOException if the input cannot be read.
+   */
+  protected String readString(final DataInput input) throws IOException {
+    return input.readUTF();
+  }
+
   @Override
   public void close() throws IOException {
     while (buffer.numTuples() > 0) {
       buffer.popAny();
     }
+    if (mappedInput != null) {
+      mappedInput.close();
+      mappedInput = null;
+    }
   }
 }
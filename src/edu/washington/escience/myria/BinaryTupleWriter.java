@@ -0,0 +1,119 @@
+package edu.washington.escience.myria;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+import com.google.common.io.LittleEndianDataOutputStream;
+
+import edu.washington.escience.myria.storage.ReadableTable;
+
+/**
+ * BinaryTupleWriter is a {@link TupleWriter} that serializes tuples to the format read by {@link BinaryTupleReader}:
+ * the fields of each tuple one after the other, with no header and no separators.
+ */
+public class BinaryTupleWriter implements TupleWriter {
+
+  /** Required for Java serialization. */
+  private static final long serialVersionUID = 1L;
+
+  /** Indicates the endianess of the output. */
+  private final boolean isLittleEndian;
+  /** The stream to write the output. */
+  private transient OutputStream outputStream;
+  /** Data output to write the fields. */
+  private transient DataOutput dataOutput;
+
+  /**
+   * Construct a new BinaryTupleWriter that writes big endian data.
+   */
+  public BinaryTupleWriter() {
+    this(false);
+  }
+
+  /**
+   * Construct a new BinaryTupleWriter.
+   *
+   * @param isLittleEndian The flag that indicates the endianess of the output.
+   */
+  public BinaryTupleWriter(final boolean isLittleEndian) {
+    this.isLittleEndian = isLittleEndian;
+  }
+
+  @Override
+  public void open(final OutputStream stream) throws IOException {
+    outputStream = new BufferedOutputStream(stream);
+    if (isLittleEndian) {
+      dataOutput = new LittleEndianDataOutputStream(outputStream);
+    } else {
+      dataOutput = new DataOutputStream(outputStream);
+    }
+  }
+
+  /*
+   * No-op
+   */
+  @Override
+  public void writeColumnHeaders(final List<String> columnNames) throws IOException {}
+
+  @Override
+  public void writeTuples(final ReadableTable tuples) throws IOException {
+    List<Type> columnTypes = tuples.getSchema().getColumnTypes();
+    for (int i = 0; i < tuples.numTuples(); ++i) {
+      for (int j = 0; j < columnTypes.size(); ++j) {
+        switch (columnTypes.get(j)) {
+          case BOOLEAN_TYPE:
+            dataOutput.writeBoolean(tuples.getBoolean(j, i));
+            break;
+          case DOUBLE_TYPE:
+            dataOutput.writeDouble(tuples.getDouble(j, i));
+            break;
+          case FLOAT_TYPE:
+            dataOutput.writeFloat(tuples.getFloat(j, i));
+            break;
+          case INT_TYPE:
+            dataOutput.writeInt(tuples.getInt(j, i));
+            break;
+          case LONG_TYPE:
+            dataOutput.writeLong(tuples.getLong(j, i));
+            break;
+          case STRING_TYPE:
+            writeString(dataOutput, tuples.getString(j, i));
+            break;
+          case DATETIME_TYPE:
+            dataOutput.writeLong(tuples.getDateTime(j, i).getMillis());
+            break;
+          default:
+            throw new UnsupportedOperationException(
+                "BinaryTupleWriter does not support the type " + columnTypes.get(j));
+        }
+      }
+    }
+  }
+
+  /**
+   * Writes a string field. The default is {@link DataOutput#writeUTF}, which is limited to 65535 bytes of modified
+   * UTF-8.
+   *
+   * @param output the output to write to.
+   * @param value the string.
+   * @throws IOException if the output cannot be written.
+   */
+  protected void writeString(final DataOutput output, final String value) throws IOException {
+    output.writeUTF(value);
+  }
+
+  @Override
+  public void done() throws IOException {
+    outputStream.flush();
+    outputStream.close();
+  }
+
+  @Override
+  public void error() throws IOException {
+    outputStream.close();
+  }
+}
@@ -0,0 +1,564 @@
+package edu.washington.escience.myria;
+
+import java.nio.charset.StandardCharsets;
+
+import javax.annotation.Nullable;
+
+import org.apache.commons.lang.BooleanUtils;
+
+import com.google.common.base.Preconditions;
+import com.google.common.primitives.Floats;
+
+import edu.washington.escience.myria.storage.TupleBatchBuffer;
+import edu.washington.escience.myria.util.DateTimeUtils;
+
+/**
+ * Parses CSV records straight from bytes into a {@link TupleBatchBuffer}, with the dialect of {@link CsvTupleReader}:
+ * a field that starts with the quotation mark is quoted, a doubled quotation mark inside a quoted field stands for one
+ * quotation mark, and the optional escape character escapes the next character. Records end with LF, CR or CRLF.
+ *
+ * Unlike {@link CsvTupleReader}, no String is built for numeric fields: integers are accumulated digit by digit and
+ * decimals without exponent of up to 15 (double) or 7 (float) significant digits are computed exactly from their
+ * mantissa, falling back to {@link Double#parseDouble(String)} for the other forms. The input must be UTF-8, and the
+ * delimiter, quotation mark and escape character must be ASCII.
+ *
+ * A parser is not thread-safe, parsing in parallel uses one parser per thread.
+ */
+public final class CsvByteParser {
+
+  /** Exact powers of ten as doubles. */
+  private static final double[] POW10 = {
+    1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16,
+    1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+  };
+  /** Exact powers of ten as floats. */
+  private static final float[] POW10F = {
+    1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f
+  };
+  /** The most significant digits of a double computed from its mantissa, which is then below 2^53. */
+  private static final int MAX_DOUBLE_DIGITS = 15;
+  /** The most significant digits of a float computed from its mantissa, which is then below 2^24. */
+  private static final int MAX_FLOAT_DIGITS = 7;
+
+  /** The escape character when there is none, which matches no byte. */
+  private static final int NO_ESCAPE = 256;
+
+  /** The schema of the records. */
+  private final Schema schema;
+  /** The field delimiter. */
+  private final byte delimiter;
+  /** The quotation mark. */
+  private final byte quote;
+  /** The escape character, or {@link #NO_ESCAPE}. */
+  private final int escape;
+
+  /** The offset of each field of the current record, in the input or in {@link #scratch}. */
+  private final int[] starts;
+  /** The end offset of each field of the current record. */
+  private final int[] ends;
+  /** Whether each field of the current record is in {@link #scratch}, i.e., was quoted or escaped. */
+  private final boolean[] inScratch;
+  /** The number of fields of the current record. */
+  private int numFields;
+  /** Holds the unquoted and unescaped fields of the current record. */
+  private byte[] scratch = new byte[256];
+  /** The number of used bytes of {@link #scratch}. */
+  private int scratchLength;
+  /** The number of records parsed so far. */
+  private long numRecords = 0;
+
+  /**
+   * @param schema the schema of the records.
+   * @param delimiter the field delimiter.
+   * @param quote the quotation mark.
+   * @param escape the escape character, if any.
+   */
+  public CsvByteParser(
+      final Schema schema,
+      final char delimiter,
+      final char quote,
+      @Nullable final Character escape) {
+    this.schema = Preconditions.checkNotNull(schema, "schema");
+    Preconditions.checkArgument(delimiter < 128, "delimiter must be ASCII");
+    Preconditions.checkArgument(quote < 128, "quote must be ASCII");
+    Preconditions.checkArgument(escape == null || escape < 128, "escape must be ASCII");
+    this.delimiter = (byte) delimiter;
+    this.quote = (byte) quote;
+    this.escape = escape == null ? NO_ESCAPE : escape;
+    starts = new int[schema.numColumns()];
+    ends = new int[schema.numColumns()];
+    inScratch = new boolean[schema.numColumns()];
+  }
+
+  /**
+   * @return the number of records parsed so far.
+   */
+  public long getNumRecords() {
+    return numRecords;
+  }
+
+  /**
+   * Parse the complete records of <code>data[from, to)</code>, which must start at the beginning of a record, and
+   * append them to the buffer.
+   *
+   * @param data the input.
+   * @param from the offset of the first record.
+   * @param to the end offset of the input.
+   * @param last whether the input ends at <code>to</code>, so that the last record needs no line terminator.
+   * @param buffer the buffer the tuples are appended to.
+   * @return the offset after the last parsed record, where the next call should start once more input is available.
+   * @throws DbException if a record is malformed or does not match the schema.
+   */
+  public int parse(
+      final byte[] data,
+      final int from,
+      final int to,
+      final boolean last,
+      final TupleBatchBuffer buffer)
+      throws DbException {
+    int pos = from;
+    while (pos < to) {
+      final int end = tokenize(data, pos, to, last);
+      if (end < 0) {
+        break;
+      }
+      ++numRecords;
+      append(data, buffer);
+      pos = end;
+    }
+    return pos;
+  }
+
+  /**
+   * @param length the number of bytes that will be appended to {@link #scratch}.
+   */
+  private void ensureScratch(final int length) {
+    if (scratchLength + length > scratch.length) {
+      final byte[] larger = new byte[Math.max(scratchLength + length, 2 * scratch.length)];
+      System.arraycopy(scratch, 0, larger, 0, scratchLength);
+      scratch = larger;
+    }
+  }
+
+  /**
+   * @param data the input.
+   * @param from the first byte to copy.
+   * @param to the end of the bytes to copy.
+   */
+  private void copyToScratch(final byte[] data, final int from, final int to) {
+    ensureScratch(to - from);
+    System.arraycopy(data, from, scratch, scratchLength, to - from);
+    scratchLength += to - from;
+  }
+
+  /**
+   * Append the character escaped by the escape character to {@link #scratch}, as commons-csv does.
+   *
+   * @param c the escaped character.
+   */
+  private void appendEscaped(final byte c) {
+    ensureScratch(2);
+    switch (c) {
+      case 'r':
+        scratch[scratchLength++] = '\r';
+        return;
+      case 'n':
+        scratch[scratchLength++] = '\n';
+        return;
+      case 't':
+        scratch[scratchLength++] = '\t';
+        return;
+      case 'b':
+        scratch[scratchLength++] = '\b';
+        return;
+      case 'f':
+        scratch[scratchLength++] = '\f';
+        return;
+      case '\r':
+      case '\n':
+      case '\t':
+      case '\b':
+      case '\f':
+        scratch[scratchLength++] = c;
+        return;
+      default:
+        if (c != delimiter && c != quote && c != escape) {
+          scratch[scratchLength++] = (byte) escape;
+        }
+        scratch[scratchLength++] = c;
+    }
+  }
+
+  /**
+   * Record the bounds of the next field of the current record.
+   *
+   * @param start the start of the field.
+   * @param end the end of the field.
+   * @param fromScratch whether the field is in {@link #scratch}.
+   */
+  private void addField(final int start, final int end, final boolean fromScratch) {
+    if (numFields < starts.length) {
+      starts[numFields] = start;
+      ends[numFields] = end;
+      inScratch[numFields] = fromScratch;
+    }
+    ++numFields;
+  }
+
+  /**
+   * Find the fields of the record starting at <code>from</code>.
+   *
+   * @param data the input.
+   * @param from the start of the record.
+   * @param to the end offset of the input.
+   * @param last whether the input ends at <code>to</code>.
+   * @return the offset after the record and its line terminator, or -1 if the record is not complete.
+   * @throws DbException if a quoted field is malformed.
+   */
+  private int tokenize(final byte[] data, final int from, final int to, final boolean last)
+      throws DbException {
+    numFields = 0;
+    scratchLength = 0;
+    int p = from;
+    while (true) {
+      if (p < to && data[p] == quote) {
+        /* Quoted field, always unquoted into the scratch space. */
+        final int start = scratchLength;
+        int segment = ++p;
+        while (true) {
+          if (p >= to) {
+            if (last) {
+              throw new DbException(
+                  "Error parsing record "
+                      + (numRecords + 1)
+                      + ": EOF reached before encapsulated token finished");
+            }
+            return -1;
+          }
+          final byte c = data[p];
+          if (c == quote) {
+            if (p + 1 < to && data[p + 1] == quote) {
+              copyToScratch(data, segment, p + 1);
+              p += 2;
+              segment = p;
+              continue;
+            }
+            if (p + 1 >= to && !last) {
+              return -1;
+            }
+            copyToScratch(data, segment, p);
+            ++p;
+            break;
+          } else if (c == escape) {
+            if (p + 1 >= to) {
+              if (last) {
+                throw new DbException(
+                    "Error parsing record " + (numRecords + 1) + ": EOF reached after escape");
+              }
+              return -1;
+            }
+            copyToScratch(data, segment, p);
+            appendEscaped(data[p + 1]);
+            p += 2;
+            segment = p;
+          } else {
+            ++p;
+          }
+        }
+        addField(start, scratchLength, true);
+        if (p < to && data[p] != delimiter && data[p] != '\r' && data[p] != '\n') {
+          throw new DbException(
+              "Error parsing record "
+                  + (numRecords + 1)
+                  + ": invalid char between encapsulated token and delimiter");
+        }
+      } else {
+        /* Unquoted field, used in place unless it contains escapes. */
+        final int start = p;
+        while (p < to) {
+          final byte c = data[p];
+          if (c == delimiter || c == '\n' || c == '\r' || c == escape) {
+            break;
+          }
+          ++p;
+        }
+        if (p < to && data[p] == escape) {
+          final int scratchStart = scratchLength;
+          int segment = start;
+          while (p < to) {
+            final byte c = data[p];
+            if (c == delimiter || c == '\n' || c == '\r') {
+              break;
+            }
+            if (c == escape) {
+              if (p + 1 >= to) {
+                if (!last) {
+                  return -1;
+                }
+                /* A trailing escape character is kept as is. */
+                ++p;
+                break;
+              }
+              copyToScratch(data, segment, p);
+              appendEscaped(data[p + 1]);
+              p += 2;
+              segment = p;
+            } else {
+              ++p;
+            }
+          }
+          copyToScratch(data, segment, p);
+          addField(scratchStart, scratchLength, true);
+        } else {
+          addField(start, p, false);
+        }
+      }
+
+      /* After the field: end of input, delimiter or line terminator. */
+      if (p >= to) {
+        return last ? to : -1;
+      }
+      final byte c = data[p];
+      if (c == delimiter) {
+        ++p;
+        continue;
+      }
+      if (c == '\r') {
+        if (p + 1 < to) {
+          return data[p + 1] == '\n' ? p + 2 : p + 1;
+        }
+        return last ? to : -1;
+      }
+      return p + 1;
+    }
+  }
+
+  /**
+   * Append the current record to the buffer.
+   *
+   * @param data the input.
+   * @param buffer the buffer.
+   * @throws DbException if the record does not match the schema.
+   */
+  private void append(final byte[] data, final TupleBatchBuffer buffer) throws DbException {
+    final int numColumns = schema.numColumns();
+    if (numFields != numColumns) {
+      throw new DbException(
+          "Error parsing record "
+              + numRecords
+              + ": Found "
+              + numFields
+              + " column(s) but expected "
+              + numColumns
+              + " column(s).");
+    }
+    for (int column = 0; column < numColumns; ++column) {
+      final byte[] b = inScratch[column] ? scratch : data;
+      final int s = starts[column];
+      final int e = ends[column];
+      try {
+        switch (schema.getColumnType(column)) {
+          case BOOLEAN_TYPE:
+            final String cell = new String(b, s, e - s, StandardCharsets.UTF_8);
+            final Float number = Floats.tryParse(cell);
+            buffer.putBoolean(column, number != null ? number != 0 : BooleanUtils.toBoolean(cell));
+            break;
+          case DOUBLE_TYPE:
+            buffer.putDouble(column, parseDouble(b, s, e));
+            break;
+          case FLOAT_TYPE:
+            buffer.putFloat(column, parseFloat(b, s, e));
+            break;
+          case INT_TYPE:
+            buffer.putInt(column, parseInt(b, s, e));
+            break;
+          case LONG_TYPE:
+            buffer.putLong(column, parseLong(b, s, e));
+            break;
+          case STRING_TYPE:
+            buffer.putString(column, new String(b, s, e - s, StandardCharsets.UTF_8));
+            break;
+          case DATETIME_TYPE:
+            buffer.putDateTime(
+                column, DateTimeUtils.parse(new String(b, s, e - s, StandardCharsets.UTF_8)));
+            break;
+          case BLOB_TYPE:
+            throw new DbException("Reading BLOB type from csv file is not supported!");
+        }
+      } catch (final IllegalArgumentException ex) {
+        throw new DbException(
+            "Error parsing column "
+                + column
+                + " of record "
+                + numRecords
+                + ", expected type: "
+                + schema.getColumnType(column)
+                + ", scanned value: "
+                + new String(b, s, e - s, StandardCharsets.UTF_8),
+            ex);
+      }
+    }
+  }
+
+  /**
+   * @param b the bytes.
+   * @param s the start of the value.
+   * @param e the end of the value.
+   * @return the value as a String, for error messages and the slow paths.
+   */
+  private static String toAscii(final byte[] b, final int s, final int e) {
+    return new String(b, s, e - s, StandardCharsets.ISO_8859_1);
+  }
+
+  /**
+   * Parse a decimal long as {@link Long#parseLong(String)} does.
+   *
+   * @param b the bytes.
+   * @param s the start of the value.
+   * @param e the end of the value.
+   * @return the value.
+   * @throws NumberFormatException if the bytes are not a long.
+   */
+  public static long parseLong(final byte[] b, final int s, final int e) {
+    int p = s;
+    boolean negative = false;
+    if (p < e && (b[p] == '-' || b[p] == '+')) {
+      negative = b[p] == '-';
+      ++p;
+    }
+    if (p >= e) {
+      throw new NumberFormatException("For input string: \"" + toAscii(b, s, e) + "\"");
+    }
+    /* Accumulate negatively, as Long.parseLong, so that Long.MIN_VALUE fits. */
+    final long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+    final long multmin = limit / 10;
+    long result = 0;
+    for (; p < e; ++p) {
+      final int digit = b[p] - '0';
+      if (digit < 0 || digit > 9 || result < multmin) {
+        throw new NumberFormatException("For input string: \"" + toAscii(b, s, e) + "\"");
+      }
+      result *= 10;
+      if (result < limit + digit) {
+        throw new NumberFormatException("For input string: \"" + toAscii(b, s, e) + "\"");
+      }
+      result -= digit;
+    }
+    return negative ? result : -result;
+  }
+
+  /**
+   * Parse a decimal int as {@link Integer#parseInt(String)} does.
+   *
+   * @param b the bytes.
+   * @param s the start of the value.
+   * @param e the end of the value.
+   * @return the value.
+   * @throws NumberFormatException if the bytes are not an int.
+   */
+  public static int parseInt(final byte[] b, final int s, final int e) {
+    final long value = parseLong(b, s, e);
+    if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+      throw new NumberFormatException("For input string: \"" + toAscii(b, s, e) + "\"");
+    }
+    return (int) value;
+  }
+
+  /**
+   * Parse a double as {@link Double#parseDouble(String)} does.
+   *
+   * @param b the bytes.
+   * @param s the start of the value.
+   * @param e the end of the value.
+   * @return the value.
+   * @throws NumberFormatException if the bytes are not a double.
+   */
+  public static double parseDouble(final byte[] b, final int s, final int e) {
+    final long mantissa = parseMantissa(b, s, e, MAX_DOUBLE_DIGITS);
+    if (mantissa < 0) {
+      return Double.parseDouble(toAscii(b, s, e));
+    }
+    /* Both operands are exact, so the division rounds correctly. */
+    final double value = mantissa / POW10[fractionDigits(b, s, e)];
+    return b[s] == '-' ? -value : value;
+  }
+
+  /**
+   * Parse a float as {@link Float#parseFloat(String)} does.
+   *
+   * @param b the bytes.
+   * @param s the start of the value.
+   * @param e the end of the value.
+   * @return the value.
+   * @throws NumberFormatException if the bytes are not a float.
+   */
+  public static float parseFloat(final byte[] b, final int s, final int e) {
+    final long mantissa = parseMantissa(b, s, e, MAX_FLOAT_DIGITS);
+    if (mantissa < 0 || fractionDigits(b, s, e) >= POW10F.length) {
+      return Float.parseFloat(toAscii(b, s, e));
+    }
+    final float value = mantissa / POW10F[fractionDigits(b, s, e)];
+    return b[s] == '-' ? -value : value;
+  }
+
+  /**
+   * @param b the bytes.
+   * @param s the start of the value.
+   * @param e the end of the value.
+   * @return the number of digits after the decimal point.
+   */
+  private static int fractionDigits(final byte[] b, final int s, final int e) {
+    for (int p = s; p < e; ++p) {
+      if (b[p] == '.') {
+        return e - p - 1;
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * The digits of a plain decimal <code>[+-]digits[.digits]</code>, without the decimal point, if there are at most
+   * <code>maxDigits</code> significant digits and at most 22 after the decimal point.
+   *
+   * @param b the bytes.
+   * @param s the start of the value.
+   * @param e the end of the value.
+   * @param maxDigits the most significant digits.
+   * @return the digits as a long, or -1 if the value has another form.
+   */
+  private static long parseMantissa(final byte[] b, final int s, final int e, final int maxDigits) {
+    int p = s;
+    if (p < e && (b[p] == '-' || b[p] == '+')) {
+      ++p;
+    }
+    long mantissa = 0;
+    int significant = 0;
+    int fraction = 0;
+    boolean anyDigit = false;
+    boolean point = false;
+    for (; p < e; ++p) {
+      final byte c = b[p];
+      if (c >= '0' && c <= '9') {
+        anyDigit = true;
+        if (point) {
+          ++fraction;
+        }
+        if (mantissa == 0 && c == '0') {
+          continue;
+        }
+        if (++significant > maxDigits) {
+          return -1;
+        }
+        mantissa = mantissa * 10 + (c - '0');
+      } else if (c == '.' && !point) {
+        point = true;
+      } else {
+        return -1;
+      }
+    }
+    if (!anyDigit || fraction >= POW10.length) {
+      return -1;
+    }
+    return mantissa;
+  }
+}
@@ -89,7 +89,7 @@ public class CsvTupleReader implements TupleReader {
 
   @Override
   public void open(final InputStream stream) throws IOException, DbException {
-    buffer = new TupleBatchBuffer(schema);
+    buffer = new TupleBatchBuffer(schema, true);
     try {
       parser =
           new CSVParser(
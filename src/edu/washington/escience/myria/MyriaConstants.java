@@ -82,6 +82,18 @@ public final class MyriaConstants {
    */
   public static final String EXEC_ENV_VAR_PROFILING_MODE = "profiling_mode";
 
+  /**
+   * The kind of hash tables used by hash-based operators, see
+   * {@link edu.washington.escience.myria.operator.TupleHashTable.Kind}.
+   */
+  public static final String EXEC_ENV_VAR_HASH_TABLE_KIND = "hashTableKind";
+
+  /**
+   * How long consumers may hold small incoming batches to merge them, in milliseconds, or negative if they do not merge
+   * them.
+   */
+  public static final String EXEC_ENV_VAR_CONSUMER_COALESCE_DEADLINE_MS = "consumerCoalesceDeadlineMs";
+
   /** Time interval between two heartbeats. */
   public static final int HEARTBEAT_INTERVAL = 1000;
 
@@ -167,6 +179,11 @@ public final class MyriaConstants {
    */
   public static final String STORAGE_SYSTEM_POSTGRESQL = "postgresql";
 
+  /**
+   * Myria's own columnar files, see {@link edu.washington.escience.myria.accessmethod.ColumnarAccessMethod}.
+   */
+  public static final String STORAGE_SYSTEM_COLUMNAR = "columnar";
+
   /** Worker config file name. */
   public static final String WORKER_CONFIG_FILE = "worker.cfg";
 
@@ -31,6 +31,47 @@ public final class MyriaSystemConfigKeys {
   public static final String OPERATOR_INPUT_BUFFER_RECOVER_TRIGGER =
       "operator.consumer.inputbuffer.recover.trigger";
 
+  /**
+   * The kind of hash tables used by hash joins, aggregates and duplicate elimination, see
+   * {@link edu.washington.escience.myria.operator.TupleHashTable.Kind}.
+   */
+  public static final String OPERATOR_HASH_TABLE_KIND = "operator.hashtable.kind";
+
+  /**
+   * The maximum number of compiled expression evaluators a process keeps, 0 to compile every expression anew, see
+   * {@link edu.washington.escience.myria.expression.evaluate.EvaluatorCache}.
+   */
+  public static final String OPERATOR_EVALUATOR_CACHE_SIZE = "operator.evaluator.cache.size";
+
+  /**
+   * How long, in milliseconds, a consumer may hold small incoming batches to merge them into a full batch. Negative to
+   * not merge them, 0 to merge only the batches already waiting in the input buffer.
+   */
+  public static final String OPERATOR_CONSUMER_COALESCE_DEADLINE_MS =
+      "operator.consumer.coalesce.deadline.ms";
+
+  /**
+   * The number of bytes a batch of tuples aims for, given the estimated width of its rows, see
+   * {@link edu.washington.escience.myria.storage.BatchSizePolicy}.
+   */
+  public static final String OPERATOR_BATCH_TARGET_BYTES = "operator.batch.target.bytes";
+
+  /** The maximum number of tuples of a batch, which narrow schemas reach. */
+  public static final String OPERATOR_BATCH_MAX_TUPLES = "operator.batch.max.tuples";
+
+  /**
+   * The block compression of the data sent between workers: none, lz4 or zstd, see
+   * {@link edu.washington.escience.myria.parallel.ipc.IPCCompression}.
+   */
+  public static final String IPC_COMPRESSION = "ipc.compression";
+
+  /**
+   * The bytes of the shared-memory ring through which a worker sends large data messages to a worker on the same host,
+   * 0 to send them through the loopback socket, see
+   * {@link edu.washington.escience.myria.parallel.ipc.SharedMemoryHandler}.
+   */
+  public static final String IPC_SHARED_MEMORY_RING_BYTES = "ipc.sharedmemory.ring.bytes";
+
   public static final String TCP_SEND_BUFFER_SIZE_BYTES = "tcp.sendbuffer.size.bytes";
 
   public static final String TCP_RECEIVE_BUFFER_SIZE_BYTES = "tcp.receivebuffer.size.bytes";
@@ -47,6 +88,13 @@ public final class MyriaSystemConfigKeys {
   public static final String FLOW_CONTROL_WRITE_BUFFER_HIGH_MARK_BYTES =
       "flowcontrol.writebuffer.watermark.high";
 
+  /**
+   * The number of data messages a producer may send through each of its channels before the consumer grants more, see
+   * {@link edu.washington.escience.myria.parallel.ipc.StreamOutputChannel}. 0 or negative to pause the read of all the
+   * channels of a consumer when its input buffer is full instead.
+   */
+  public static final String FLOW_CONTROL_CHANNEL_CREDITS = "flowcontrol.channel.credits";
+
   public static final String TCP_CONNECTION_TIMEOUT_MILLIS = "tcp.connection.timeout.milliseconds";
 
   public static final String WORKER_STORAGE_DATABASE_SYSTEM = "dbms";
@@ -0,0 +1,279 @@
+package edu.washington.escience.myria;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.joda.time.DateTimeZone;
+import org.joda.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.base.Preconditions;
+
+import edu.washington.escience.myria.column.Column;
+import edu.washington.escience.myria.column.builder.ColumnBuilder;
+import edu.washington.escience.myria.column.builder.ColumnFactory;
+import edu.washington.escience.myria.storage.TupleBatch;
+import edu.washington.escience.myria.storage.TupleUtils;
+
+/**
+ * PostgresBinaryTupleReader is a {@link TupleReader} that parses tuples from the binary format of PostgreSQL, e.g., the
+ * output of <code>COPY ... TO STDOUT WITH BINARY</code> or of a {@link PostgresBinaryTupleWriter}. See
+ * http://www.postgresql.org/docs/current/interactive/sql-copy.html.
+ *
+ * The values are decoded straight into the column builders, without going through JDBC. The PostgreSQL types of the
+ * columns must be those of the schema, as created by Myria, e.g., <code>INTEGER</code> for {@link Type#INT_TYPE}.
+ * NULL values are read as JDBC reads them, e.g., 0 for numbers, and NULL time stamps and blobs are rejected. Time
+ * stamps must be integer time stamps without time zone.
+ */
+public class PostgresBinaryTupleReader implements TupleReader {
+
+  /** Required for Java serialization. */
+  private static final long serialVersionUID = 1L;
+
+  /** The 11 bytes of the required header. */
+  private static final byte[] SIGNATURE =
+      "PGCOPY\n\377\r\n\0".getBytes(StandardCharsets.ISO_8859_1);
+
+  /** The schema of the tuples. */
+  @JsonProperty private final Schema schema;
+
+  /** The input. */
+  private transient DataInputStream input;
+  /** Whether the trailer has been read. */
+  private transient boolean done;
+  /** Holds the bytes of a string or blob value, grown as needed. */
+  private transient byte[] bytes;
+
+  /**
+   * @param schema the schema of the tuples.
+   */
+  public PostgresBinaryTupleReader(
+      @JsonProperty(value = "schema", required = true) final Schema schema) {
+    this.schema = Preconditions.checkNotNull(schema, "schema");
+  }
+
+  @Override
+  public void open(final InputStream stream) throws IOException, DbException {
+    input = new DataInputStream(new BufferedInputStream(stream));
+    done = false;
+    bytes = new byte[64];
+    final byte[] signature = new byte[SIGNATURE.length];
+    input.readFully(signature);
+    if (!Arrays.equals(signature, SIGNATURE)) {
+      throw new DbException("Not in the binary format of PostgreSQL");
+    }
+    // 32 bit flags, bit 16 is whether there are OIDs
+    if ((input.readInt() & (1 << 16)) != 0) {
+      throw new DbException("Tuples with OIDs are not supported");
+    }
+    // 32 bit header extension area length, and the area
+    final int extensionLength = input.readInt();
+    if (input.skipBytes(extensionLength) != extensionLength) {
+      throw new EOFException("Ran out of binary data in the header extension area");
+    }
+  }
+
+  @Override
+  public Schema getSchema() {
+    return schema;
+  }
+
+  /**
+   * Converts the given postgresql seconds to java seconds. The inverse of the conversion of
+   * {@link PostgresBinaryTupleWriter}.
+   *
+   * from /org/postgresql/jdbc2/TimestampUtils.java
+   *
+   * @param seconds Postgresql seconds.
+   * @return Java seconds.
+   */
+  @SuppressWarnings("checkstyle:magicnumber")
+  private static long toJavaSecs(final long seconds) {
+    long secs = seconds;
+    // postgres epoc to java epoc
+    secs += 946684800L;
+
+    // Julian/Gregorian calendar cutoff point
+    if (secs < -12219292800L) { // October 4, 1582 -> October 15, 1582
+      secs += 86400 * 10;
+      if (secs < -14825808000L) { // 1500-02-28 -> 1500-03-01
+        int extraLeaps = (int) ((secs + 14825808000L) / 3155760000L);
+        extraLeaps--;
+        extraLeaps -= extraLeaps / 4;
+        secs += extraLeaps * 86400L;
+      }
+    }
+
+    return secs;
+  }
+
+  /**
+   * @param column the index of the column.
+   * @param length the length of its value.
+   * @param expected the length of the values of its type.
+   * @throws DbException if the lengths differ.
+   */
+  private void checkLength(final int column, final int length, final int expected)
+      throws DbException {
+    if (length != expected) {
+      throw new DbException(
+          "Column "
+              + schema.getColumnName(column)
+              + " of type "
+              + schema.getColumnType(column)
+              + " has a value of "
+              + length
+              + " bytes instead of "
+              + expected);
+    }
+  }
+
+  /**
+   * Read the bytes of a variable-length value into {@link #bytes}.
+   *
+   * @param length the length of the value.
+   * @throws IOException if the value cannot be read.
+   */
+  private void readBytes(final int length) throws IOException {
+    if (bytes.length < length) {
+      bytes = new byte[Math.max(length, 2 * bytes.length)];
+    }
+    input.readFully(bytes, 0, length);
+  }
+
+  /**
+   * Append a NULL value the way the JDBC scan of {@link edu.washington.escience.myria.accessmethod.JdbcAccessMethod}
+   * reads it: 0 or false for numbers and booleans, and a null string.
+   *
+   * @param builder the builder of the column.
+   * @param column the index of the column.
+   * @throws DbException if the column is of a type whose NULL values JDBC scans cannot read either.
+   */
+  private void appendNull(final ColumnBuilder<?> builder, final int column) throws DbException {
+    switch (schema.getColumnType(column)) {
+      case BOOLEAN_TYPE:
+        builder.appendBoolean(false);
+        break;
+      case DOUBLE_TYPE:
+        builder.appendDouble(0);
+        break;
+      case FLOAT_TYPE:
+        builder.appendFloat(0);
+        break;
+      case INT_TYPE:
+        builder.appendInt(0);
+        break;
+      case LONG_TYPE:
+        builder.appendLong(0);
+        break;
+      case STRING_TYPE:
+        builder.appendString(null);
+        break;
+      default:
+        throw new DbException(
+            "NULL value in column "
+                + schema.getColumnName(column)
+                + " of type "
+                + schema.getColumnType(column));
+    }
+  }
+
+  @Override
+  public TupleBatch readTuples() throws IOException, DbException {
+    if (done) {
+      return null;
+    }
+    final int numColumns = schema.numColumns();
+    final List<ColumnBuilder<?>> builders = ColumnFactory.allocateColumns(schema);
+    final int batchSize = TupleUtils.getBatchSize(schema);
+    int numTuples = 0;
+    while (numTuples < batchSize) {
+      // 16 bit integer number of columns, -1 for the file trailer
+      final short numFields = input.readShort();
+      if (numFields == -1) {
+        done = true;
+        break;
+      }
+      if (numFields != numColumns) {
+        throw new DbException(
+            "Tuple of " + numFields + " columns instead of the " + numColumns + " of the schema");
+      }
+      for (int j = 0; j < numColumns; ++j) {
+        // 32 bit integer for length of value, -1 for NULL
+        final int length = input.readInt();
+        final ColumnBuilder<?> builder = builders.get(j);
+        if (length < 0) {
+          appendNull(builder, j);
+          continue;
+        }
+        switch (schema.getColumnType(j)) {
+          case BOOLEAN_TYPE:
+            checkLength(j, length, 1);
+            builder.appendBoolean(input.readByte() != 0);
+            break;
+          case DOUBLE_TYPE:
+            checkLength(j, length, 8);
+            builder.appendDouble(input.readDouble());
+            break;
+          case FLOAT_TYPE:
+            checkLength(j, length, 4);
+            builder.appendFloat(input.readFloat());
+            break;
+          case INT_TYPE:
+            checkLength(j, length, 4);
+            builder.appendInt(input.readInt());
+            break;
+          case LONG_TYPE:
+            checkLength(j, length, 8);
+            builder.appendLong(input.readLong());
+            break;
+          case DATETIME_TYPE:
+            checkLength(j, length, 8);
+            // microseconds since 2000-01-01 00:00:00, in local time
+            final long micros = input.readLong();
+            final long secs = toJavaSecs(Math.floorDiv(micros, TimeUnit.SECONDS.toMicros(1)));
+            final long millis =
+                TimeUnit.SECONDS.toMillis(secs)
+                    + TimeUnit.MICROSECONDS.toMillis(
+                        Math.floorMod(micros, TimeUnit.SECONDS.toMicros(1)));
+            builder.appendDateTime(new LocalDateTime(millis, DateTimeZone.UTC).toDateTime());
+            break;
+          case STRING_TYPE:
+            readBytes(length);
+            builder.appendString(new String(bytes, 0, length, StandardCharsets.UTF_8));
+            break;
+          case BLOB_TYPE:
+            readBytes(length);
+            builder.appendBlob(ByteBuffer.wrap(Arrays.copyOf(bytes, length)));
+            break;
+        }
+      }
+      ++numTuples;
+    }
+    if (numTuples == 0) {
+      return null;
+    }
+    final List<Column<?>> columns = new ArrayList<Column<?>>(numColumns);
+    for (ColumnBuilder<?> builder : builders) {
+      columns.add(builder.build());
+    }
+    return new TupleBatch(schema, columns, numTuples);
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (input != null) {
+      input.close();
+      input = null;
+    }
+  }
+}
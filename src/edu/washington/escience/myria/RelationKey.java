@@ -150,6 +150,9 @@ public final class RelationKey implements Serializable {
       case MyriaConstants.STORAGE_SYSTEM_MYSQL:
         /* TODO: can we switch the other DBMS to : as well? */
         return toString('`', ' ', '`');
+      case MyriaConstants.STORAGE_SYSTEM_COLUMNAR:
+        /* Columnar relations are directories named by the parts of the key, so this is only used in messages. */
+        return toString();
       default:
         throw new IllegalArgumentException("Unsupported dbms " + dbms);
     }
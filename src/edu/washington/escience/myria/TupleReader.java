@@ -24,7 +24,8 @@ import edu.washington.escience.myria.storage.TupleBatch;
 )
 @JsonSubTypes({
   @Type(name = "CSV", value = CsvTupleReader.class),
-  @Type(name = "Binary", value = BinaryTupleReader.class)
+  @Type(name = "Binary", value = BinaryTupleReader.class),
+  @Type(name = "PostgresBinary", value = PostgresBinaryTupleReader.class)
 })
 public interface TupleReader extends Serializable {
   /**
@@ -34,7 +34,8 @@ import edu.washington.escience.myria.storage.ReadableTable;
 @JsonSubTypes({
   @Type(name = "CSV", value = CsvTupleWriter.class),
   @Type(name = "JSON", value = JsonTupleWriter.class),
-  @Type(name = "PostgresBinary", value = PostgresBinaryTupleWriter.class)
+  @Type(name = "PostgresBinary", value = PostgresBinaryTupleWriter.class),
+  @Type(name = "Binary", value = BinaryTupleWriter.class)
 })
 public interface TupleWriter extends Serializable {
   /**
@@ -44,6 +44,8 @@ public abstract class AccessMethod {
       case MyriaConstants.STORAGE_SYSTEM_MYSQL:
       case MyriaConstants.STORAGE_SYSTEM_POSTGRESQL:
         return new JdbcAccessMethod((JdbcInfo) connectionInfo, readOnly);
+      case MyriaConstants.STORAGE_SYSTEM_COLUMNAR:
+        return new ColumnarAccessMethod((ColumnarInfo) connectionInfo, readOnly);
     }
     return null;
   }
@@ -77,6 +79,29 @@ public abstract class AccessMethod {
   public abstract void tupleBatchInsert(final RelationKey relationKey, final TupleBatch tupleBatch)
       throws DbException;
 
+  /**
+   * Keep the inserts into the given relation open across the calls to {@link #tupleBatchInsert}, e.g., as a single
+   * bulk load, until {@link #endInserts()} or {@link #abortInserts()}. By default, each batch is inserted on its own.
+   *
+   * @param relationKey the table to insert into.
+   * @throws DbException if there is an error in the database.
+   */
+  public void beginInserts(final RelationKey relationKey) throws DbException {}
+
+  /**
+   * Finish the inserts begun by {@link #beginInserts}, so that all the inserted tuples are in the database.
+   *
+   * @throws DbException if there is an error inserting the tuples.
+   */
+  public void endInserts() throws DbException {}
+
+  /**
+   * Discard the tuples inserted since {@link #beginInserts} that are not in the database yet, e.g., after a failure.
+   *
+   * @throws DbException if there is an error in the database.
+   */
+  public void abortInserts() throws DbException {}
+
   /**
    * Runs a query and expose the results as an Iterator<TupleBatch>.
    *
@@ -215,6 +240,36 @@ public abstract class AccessMethod {
    */
   public abstract void runCommand(String command) throws DbException;
 
+  /**
+   * Returns the quoted name of the given column for use in SQL statements on the given DBMS.
+   *
+   * @param dbms the DBMS that will run the statement.
+   * @param column the name of the column to be quoted.
+   * @return the quoted name of the given column for use in SQL statements.
+   */
+  public static String quoteColumn(final String dbms, final String column) {
+    char open;
+    char close;
+    switch (dbms) {
+      case MyriaConstants.STORAGE_SYSTEM_SQLITE:
+        open = '[';
+        close = ']';
+        break;
+      case MyriaConstants.STORAGE_SYSTEM_MYSQL:
+        open = '`';
+        close = '`';
+        break;
+      case MyriaConstants.STORAGE_SYSTEM_POSTGRESQL:
+      case MyriaConstants.STORAGE_SYSTEM_MONETDB:
+        open = '\"';
+        close = '\"';
+        break;
+      default:
+        throw new UnsupportedOperationException("Don't know how to quote DBMS " + dbms);
+    }
+    return new StringBuilder().append(open).append(column).append(close).toString();
+  }
+
   /**
    * Holds a reference to a column and whether it is ascending or descending.
    */
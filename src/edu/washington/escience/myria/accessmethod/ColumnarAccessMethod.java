@@ -0,0 +1,458 @@
+package edu.washington.escience.myria.accessmethod;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.AbstractIterator;
+
+import edu.washington.escience.myria.DbException;
+import edu.washington.escience.myria.RelationKey;
+import edu.washington.escience.myria.Schema;
+import edu.washington.escience.myria.SimplePredicate;
+import edu.washington.escience.myria.storage.TupleBatch;
+
+/**
+ * Access method for relations stored in Myria's own columnar files, see {@link ColumnarFileWriter}. Each relation is a
+ * directory <code>user/program/relation</code> under the directory of the {@link ColumnarInfo}, holding immutable
+ * segment files. The tuples inserted between {@link #beginInserts} and {@link #endInserts} form one segment, and a
+ * batch inserted on its own forms another. Scans read the segments directly, without SQL, and can read only some
+ * columns and skip row groups, see {@link #tupleBatchIteratorFromRelation}.
+ */
+public final class ColumnarAccessMethod extends AccessMethod {
+
+  /** The logger for this class. */
+  private static final Logger LOGGER = LoggerFactory.getLogger(ColumnarAccessMethod.class);
+  /** The suffix of segment files. */
+  private static final String SEGMENT_SUFFIX = ".col";
+  /** The suffix of segment files that are still being written. */
+  private static final String TEMPORARY_SUFFIX = ".tmp";
+  /** The connection information. **/
+  private ColumnarInfo columnarInfo;
+  /** Flag that identifies the connection type (read-only or not). **/
+  private Boolean readOnly;
+  /** True between {@link #beginInserts} and {@link #endInserts} or {@link #abortInserts}. */
+  private boolean bulkInserts;
+  /** The segment being written, or null. */
+  private ColumnarFileWriter writer;
+  /** The relation that {@link #writer} inserts into. */
+  private RelationKey writerRelation;
+  /** The temporary file of {@link #writer}. */
+  private Path writerPath;
+
+  /**
+   * The constructor. Creates an object and makes sure that the directory exists.
+   *
+   * @param columnarInfo connection information
+   * @param readOnly whether read-only connection or not
+   * @throws DbException if the directory cannot be created.
+   */
+  public ColumnarAccessMethod(final ColumnarInfo columnarInfo, final Boolean readOnly)
+      throws DbException {
+    Objects.requireNonNull(columnarInfo);
+    connect(columnarInfo, readOnly);
+  }
+
+  @Override
+  void connect(final ConnectionInfo connectionInfo, final Boolean readOnly) throws DbException {
+    Objects.requireNonNull(connectionInfo);
+
+    this.readOnly = readOnly;
+    columnarInfo = (ColumnarInfo) connectionInfo;
+    final File directory = new File(columnarInfo.getDirectory());
+    if (!directory.isDirectory()) {
+      if (readOnly) {
+        throw new DbException("Directory " + columnarInfo.getDirectory() + " does not exist!");
+      }
+      if (!directory.mkdirs() && !directory.isDirectory()) {
+        throw new DbException("Could not create directory " + directory.getAbsolutePath());
+      }
+    }
+  }
+
+  @Override
+  void setReadOnly(final Boolean readOnly) throws DbException {
+    this.readOnly = readOnly;
+  }
+
+  /**
+   * @throws DbException if this access method is read-only.
+   */
+  private void checkWritable() throws DbException {
+    if (readOnly) {
+      throw new DbException(
+          "The columnar storage at " + columnarInfo.getDirectory() + " is read-only");
+    }
+  }
+
+  /**
+   * @param relationKey a relation.
+   * @return the directory of its segments.
+   */
+  private Path relationPath(final RelationKey relationKey) {
+    return Paths.get(
+        columnarInfo.getDirectory(),
+        relationKey.getUserName(),
+        relationKey.getProgramName(),
+        relationKey.getRelationName());
+  }
+
+  /**
+   * @param relationKey a relation.
+   * @return the directory of its segments, which must exist.
+   * @throws DbException if the relation does not exist.
+   */
+  private Path existingRelationPath(final RelationKey relationKey) throws DbException {
+    final Path path = relationPath(relationKey);
+    if (!Files.isDirectory(path)) {
+      throw new DbException(
+          "Relation " + relationKey + " does not exist in " + columnarInfo.getDirectory());
+    }
+    return path;
+  }
+
+  /**
+   * Create a new segment of a relation.
+   *
+   * @param relationKey the relation, which must exist.
+   * @param schema the schema of the tuples.
+   * @throws DbException if the segment cannot be created.
+   */
+  private void openWriter(final RelationKey relationKey, final Schema schema) throws DbException {
+    final String name = UUID.randomUUID().toString();
+    writerPath = existingRelationPath(relationKey).resolve(name + TEMPORARY_SUFFIX);
+    writerRelation = relationKey;
+    try {
+      writer = new ColumnarFileWriter(writerPath, schema, columnarInfo.getCompression());
+    } catch (IOException e) {
+      writerPath = null;
+      throw new DbException("Could not create a segment of " + relationKey, e);
+    }
+  }
+
+  /**
+   * Finish the current segment and make it visible to scans.
+   *
+   * @throws DbException if the segment cannot be written.
+   */
+  private void closeWriter() throws DbException {
+    final String name = writerPath.getFileName().toString();
+    final Path segment =
+        writerPath.resolveSibling(
+            name.substring(0, name.length() - TEMPORARY_SUFFIX.length()) + SEGMENT_SUFFIX);
+    try {
+      writer.close();
+      Files.move(writerPath, segment, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      try {
+        Files.deleteIfExists(writerPath);
+      } catch (IOException suppressed) {
+        e.addSuppressed(suppressed);
+      }
+      throw new DbException("Could not write a segment of " + writerRelation, e);
+    } finally {
+      writer = null;
+      writerPath = null;
+    }
+  }
+
+  @Override
+  public void tupleBatchInsert(final RelationKey relationKey, final TupleBatch tupleBatch)
+      throws DbException {
+    Objects.requireNonNull(relationKey);
+    Objects.requireNonNull(tupleBatch);
+    checkWritable();
+    if (bulkInserts) {
+      Preconditions.checkArgument(
+          relationKey.equals(writerRelation),
+          "Inserting into %s while the inserts into %s are open",
+          relationKey,
+          writerRelation);
+    }
+    if (writer == null) {
+      openWriter(relationKey, tupleBatch.getSchema());
+    }
+    try {
+      writer.write(tupleBatch);
+    } catch (IOException | IllegalArgumentException e) {
+      abortInserts();
+      throw new DbException("Could not insert into " + relationKey, e);
+    }
+    if (!bulkInserts) {
+      closeWriter();
+    }
+  }
+
+  @Override
+  public void beginInserts(final RelationKey relationKey) throws DbException {
+    Objects.requireNonNull(relationKey);
+    Preconditions.checkState(!bulkInserts, "The inserts into %s are open", writerRelation);
+    checkWritable();
+    /* The schema is only known from the first batch, so the segment is created with it. */
+    bulkInserts = true;
+    writerRelation = relationKey;
+  }
+
+  @Override
+  public void endInserts() throws DbException {
+    if (writer != null) {
+      closeWriter();
+    }
+    bulkInserts = false;
+    writerRelation = null;
+  }
+
+  @Override
+  public void abortInserts() throws DbException {
+    bulkInserts = false;
+    if (writer != null) {
+      try {
+        writer.abort();
+      } catch (IOException e) {
+        throw new DbException("Could not delete a partial segment of " + writerRelation, e);
+      } finally {
+        writer = null;
+        writerPath = null;
+      }
+    }
+    writerRelation = null;
+  }
+
+  /**
+   * Scan a relation. Only the projected columns and the columns in predicates are read from disk, and the row groups
+   * whose smallest and largest values show that no tuple satisfies all the predicates are skipped.
+   *
+   * @param relationKey the relation.
+   * @param schema the schema of the relation, which names the columns of the returned tuples.
+   * @param columns the projected columns, or null for all of them.
+   * @param predicates the filter, or null for all the tuples. Their fields index the columns of the relation.
+   * @return the tuples that satisfy all the predicates, projected on the columns.
+   * @throws DbException if the relation does not exist or cannot be read.
+   */
+  public Iterator<TupleBatch> tupleBatchIteratorFromRelation(
+      final RelationKey relationKey,
+      final Schema schema,
+      final int[] columns,
+      final List<SimplePredicate> predicates)
+      throws DbException {
+    Objects.requireNonNull(relationKey);
+    Objects.requireNonNull(schema);
+    final List<Path> segments = new ArrayList<>();
+    try (DirectoryStream<Path> stream =
+        Files.newDirectoryStream(existingRelationPath(relationKey), "*" + SEGMENT_SUFFIX)) {
+      for (Path segment : stream) {
+        segments.add(segment);
+      }
+    } catch (IOException e) {
+      throw new DbException("Could not list the segments of " + relationKey, e);
+    }
+    Collections.sort(segments);
+    final Schema outputSchema = columns == null ? schema : schema.getSubSchema(columns);
+    return new SegmentIterator(relationKey, schema, segments, columns, predicates, outputSchema);
+  }
+
+  @Override
+  public Iterator<TupleBatch> tupleBatchIteratorFromQuery(
+      final String queryString, final Schema schema) throws DbException {
+    throw new UnsupportedOperationException(
+        "SQL queries are not supported in columnar storage, scan a relation instead");
+  }
+
+  @Override
+  void execute(final String ddlCommand) throws DbException {
+    throw new UnsupportedOperationException("SQL commands are not supported in columnar storage");
+  }
+
+  @Override
+  public void close() throws DbException {
+    abortInserts();
+  }
+
+  @Override
+  public String insertStatementFromSchema(final Schema schema, final RelationKey relationKey) {
+    throw new UnsupportedOperationException("Columnar storage has no SQL statements");
+  }
+
+  @Override
+  public String createIfNotExistsStatementFromSchema(
+      final Schema schema, final RelationKey relationKey) {
+    throw new UnsupportedOperationException("Columnar storage has no SQL statements");
+  }
+
+  @Override
+  public void createTableIfNotExists(final RelationKey relationKey, final Schema schema)
+      throws DbException {
+    Objects.requireNonNull(relationKey);
+    Objects.requireNonNull(schema);
+    checkWritable();
+    try {
+      Files.createDirectories(relationPath(relationKey));
+    } catch (IOException e) {
+      throw new DbException("Could not create relation " + relationKey, e);
+    }
+  }
+
+  @Override
+  public void dropAndRenameTables(final RelationKey oldRelation, final RelationKey newRelation)
+      throws DbException {
+    dropTableIfExists(oldRelation);
+    try {
+      Files.createDirectories(relationPath(oldRelation).getParent());
+      Files.move(
+          existingRelationPath(newRelation),
+          relationPath(oldRelation),
+          StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      throw new DbException("Could not rename " + newRelation + " to " + oldRelation, e);
+    }
+  }
+
+  @Override
+  public void dropTableIfExists(final RelationKey relationKey) throws DbException {
+    Objects.requireNonNull(relationKey);
+    checkWritable();
+    try {
+      FileUtils.deleteDirectory(relationPath(relationKey).toFile());
+    } catch (IOException e) {
+      throw new DbException("Could not drop relation " + relationKey, e);
+    }
+  }
+
+  @Override
+  public void dropTableIfExistsCascade(final RelationKey relationKey) throws DbException {
+    dropTableIfExists(relationKey);
+  }
+
+  @Override
+  public void createIndexes(
+      final RelationKey relationKey, final Schema schema, final List<List<IndexRef>> indexes)
+      throws DbException {
+    if (!indexes.isEmpty()) {
+      LOGGER.warn(
+          "Columnar storage has no indexes, scans of {} will rely on the min/max of its row groups",
+          relationKey);
+    }
+  }
+
+  @Override
+  public void createIndexIfNotExists(
+      final RelationKey relationKey, final Schema schema, final List<IndexRef> index)
+      throws DbException {
+    throw new UnsupportedOperationException("create index is not supported in columnar storage");
+  }
+
+  @Override
+  public void createView(final String viewName, final String viewDefinition) throws DbException {
+    throw new UnsupportedOperationException("create view is not supported in columnar storage");
+  }
+
+  @Override
+  public void createMaterializedView(final String viewName, final String viewDefinition)
+      throws DbException {
+    throw new UnsupportedOperationException(
+        "create materialized view is not supported in columnar storage");
+  }
+
+  @Override
+  public void runCommand(final String command) throws DbException {
+    throw new UnsupportedOperationException(
+        "execute sql command is not supported in columnar storage");
+  }
+
+  /**
+   * Scans the segments of a relation one after the other, opening each one only when the previous one is done.
+   */
+  private static final class SegmentIterator extends AbstractIterator<TupleBatch> {
+    /** The relation. */
+    private final RelationKey relationKey;
+    /** The schema of the relation. */
+    private final Schema schema;
+    /** The segments that are not opened yet. */
+    private final Iterator<Path> segments;
+    /** The projected columns, or null. */
+    private final int[] columns;
+    /** The filter, or null. */
+    private final List<SimplePredicate> predicates;
+    /** The schema of the returned tuples. */
+    private final Schema outputSchema;
+    /** The open segment, or null. */
+    private ColumnarFileReader reader;
+    /** The scan of the open segment, or null. */
+    private Iterator<TupleBatch> tuples;
+
+    /**
+     * @param relationKey the relation.
+     * @param schema the schema of the relation.
+     * @param segments the segments of the relation.
+     * @param columns the projected columns, or null.
+     * @param predicates the filter, or null.
+     * @param outputSchema the schema of the returned tuples.
+     */
+    SegmentIterator(
+        final RelationKey relationKey,
+        final Schema schema,
+        final List<Path> segments,
+        final int[] columns,
+        final List<SimplePredicate> predicates,
+        final Schema outputSchema) {
+      this.relationKey = relationKey;
+      this.schema = schema;
+      this.segments = segments.iterator();
+      this.columns = columns;
+      this.predicates = predicates;
+      this.outputSchema = outputSchema;
+    }
+
+    @Override
+    protected TupleBatch computeNext() {
+      try {
+        while (tuples == null || !tuples.hasNext()) {
+          if (reader != null) {
+            reader.close();
+            reader = null;
+            tuples = null;
+          }
+          if (!segments.hasNext()) {
+            return endOfData();
+          }
+          final Path segment = segments.next();
+          reader = new ColumnarFileReader(segment);
+          if (!reader.getSchema().getColumnTypes().equals(schema.getColumnTypes())) {
+            throw new DbException(
+                "Segment "
+                    + segment
+                    + " of "
+                    + relationKey
+                    + " has types "
+                    + reader.getSchema().getColumnTypes()
+                    + " instead of "
+                    + schema.getColumnTypes());
+          }
+          tuples = reader.scan(columns, predicates);
+        }
+        final TupleBatch tb = tuples.next();
+        if (tb.getSchema().getColumnNames().equals(outputSchema.getColumnNames())) {
+          return tb;
+        }
+        return tb.rename(outputSchema.getColumnNames());
+      } catch (IOException | DbException e) {
+        throw new RuntimeException(e);
+      }
+    }
+  }
+}
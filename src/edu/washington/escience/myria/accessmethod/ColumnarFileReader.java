@@ -0,0 +1,468 @@
+package edu.washington.escience.myria.accessmethod;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
+
+import org.joda.time.DateTime;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.ImmutableList;
+
+import edu.washington.escience.myria.Schema;
+import edu.washington.escience.myria.SimplePredicate;
+import edu.washington.escience.myria.Type;
+import edu.washington.escience.myria.column.Column;
+import edu.washington.escience.myria.column.StringDictionary;
+import edu.washington.escience.myria.column.builder.ColumnBuilder;
+import edu.washington.escience.myria.column.builder.ColumnFactory;
+import edu.washington.escience.myria.storage.TupleBatch;
+import edu.washington.escience.myria.storage.TupleUtils;
+import edu.washington.escience.myria.util.BlockCompression;
+
+/**
+ * Reads a file written by a {@link ColumnarFileWriter}. The footer is read when the file is opened; a scan then reads
+ * the chunks of the requested columns only, and skips the row groups whose smallest and largest values show that no
+ * tuple satisfies the filter.
+ */
+public final class ColumnarFileReader implements AutoCloseable {
+  /** The open file. */
+  private final FileChannel channel;
+  /** The schema of the tuples. */
+  private final Schema schema;
+  /** The codec of the chunks. */
+  private final BlockCompression compression;
+  /** The number of tuples in each row group. */
+  private final int[] numRows;
+  /** The offset of each chunk in the file, by row group and column. */
+  private final long[][] offsets;
+  /** The compressed size of each chunk, by row group and column. */
+  private final int[][] compressedLengths;
+  /** The decompressed size of each chunk, by row group and column. */
+  private final int[][] lengths;
+  /** The smallest value of each chunk, by row group and column, or null if the column has no stats. */
+  private final Comparable<?>[][] mins;
+  /** The largest value of each chunk, by row group and column, or null if the column has no stats. */
+  private final Comparable<?>[][] maxs;
+
+  /**
+   * Open a file and read its footer.
+   *
+   * @param path the file.
+   * @throws IOException if the file cannot be read or is not a columnar file.
+   */
+  public ColumnarFileReader(final Path path) throws IOException {
+    channel = FileChannel.open(path, StandardOpenOption.READ);
+    try {
+      final long size = channel.size();
+      if (size < ColumnarFormat.MAGIC.length + ColumnarFormat.TRAILER_LENGTH) {
+        throw new IOException(path + " is too short to be a columnar file");
+      }
+      final ByteBuffer trailer =
+          read(size - ColumnarFormat.TRAILER_LENGTH, ColumnarFormat.TRAILER_LENGTH);
+      final int footerLength = trailer.getInt();
+      final byte[] magic = new byte[ColumnarFormat.MAGIC.length];
+      trailer.get(magic);
+      if (!Arrays.equals(magic, ColumnarFormat.MAGIC)
+          || footerLength < 0
+          || footerLength > size - ColumnarFormat.MAGIC.length - ColumnarFormat.TRAILER_LENGTH) {
+        throw new IOException(path + " is not a columnar file, or it was not closed");
+      }
+      final ByteBuffer footerBytes =
+          read(size - ColumnarFormat.TRAILER_LENGTH - footerLength, footerLength);
+      final DataInputStream footer =
+          new DataInputStream(
+              new ByteArrayInputStream(footerBytes.array(), 0, footerBytes.remaining()));
+
+      final int numColumns = footer.readInt();
+      final List<String> names = new ArrayList<>(numColumns);
+      final List<Type> types = new ArrayList<>(numColumns);
+      for (int column = 0; column < numColumns; ++column) {
+        names.add(footer.readUTF());
+        types.add(Type.valueOf(footer.readUTF()));
+      }
+      schema = new Schema(types, names);
+      compression = BlockCompression.valueOf(footer.readUTF());
+
+      final int numRowGroups = footer.readInt();
+      numRows = new int[numRowGroups];
+      offsets = new long[numRowGroups][numColumns];
+      compressedLengths = new int[numRowGroups][numColumns];
+      lengths = new int[numRowGroups][numColumns];
+      mins = new Comparable<?>[numRowGroups][numColumns];
+      maxs = new Comparable<?>[numRowGroups][numColumns];
+      for (int group = 0; group < numRowGroups; ++group) {
+        numRows[group] = footer.readInt();
+        for (int column = 0; column < numColumns; ++column) {
+          offsets[group][column] = footer.readLong();
+          compressedLengths[group][column] = footer.readInt();
+          lengths[group][column] = footer.readInt();
+          if (footer.readBoolean()) {
+            mins[group][column] = ColumnarFormat.readStat(footer, types.get(column));
+            maxs[group][column] = ColumnarFormat.readStat(footer, types.get(column));
+          }
+        }
+      }
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * @param position the offset in the file.
+   * @param length the number of bytes to read.
+   * @return the bytes, in a heap buffer.
+   * @throws IOException if the bytes cannot be read.
+   */
+  private ByteBuffer read(final long position, final int length) throws IOException {
+    final ByteBuffer buffer = ByteBuffer.allocate(length);
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, position + buffer.position()) < 0) {
+        throw new IOException("Unexpected end of columnar file");
+      }
+    }
+    buffer.flip();
+    return buffer;
+  }
+
+  /**
+   * @return the schema of the tuples.
+   */
+  public Schema getSchema() {
+    return schema;
+  }
+
+  /**
+   * @return the number of row groups.
+   */
+  public int numRowGroups() {
+    return numRows.length;
+  }
+
+  /**
+   * @return the number of tuples.
+   */
+  public long numTuples() {
+    long total = 0;
+    for (int n : numRows) {
+      total += n;
+    }
+    return total;
+  }
+
+  /**
+   * Decide from the smallest and largest values of its chunks whether any tuple of a row group may satisfy all the
+   * predicates.
+   *
+   * @param group the row group.
+   * @param predicates the predicates.
+   * @param operands the operand of each predicate, of the class returned by {@link Type#fromString(String)}.
+   * @return false if no tuple of the row group satisfies the predicates.
+   */
+  @SuppressWarnings("unchecked")
+  boolean mayMatch(
+      final int group, final List<SimplePredicate> predicates, final Comparable<?>[] operands) {
+    for (int i = 0; i < predicates.size(); ++i) {
+      final int column = predicates.get(i).getField();
+      if (mins[group][column] == null) {
+        continue;
+      }
+      final Comparable<Object> min = (Comparable<Object>) mins[group][column];
+      final Comparable<Object> max = (Comparable<Object>) maxs[group][column];
+      final Object operand = operands[i];
+      final boolean match;
+      switch (predicates.get(i).getOp()) {
+        case EQUALS:
+          match = min.compareTo(operand) <= 0 && max.compareTo(operand) >= 0;
+          break;
+        case NOT_EQUALS:
+          match = min.compareTo(operand) != 0 || max.compareTo(operand) != 0;
+          break;
+        case GREATER_THAN:
+          match = max.compareTo(operand) > 0;
+          break;
+        case GREATER_THAN_OR_EQ:
+          match = max.compareTo(operand) >= 0;
+          break;
+        case LESS_THAN:
+          match = min.compareTo(operand) < 0;
+          break;
+        case LESS_THAN_OR_EQ:
+          match = min.compareTo(operand) <= 0;
+          break;
+        default:
+          match = true;
+          break;
+      }
+      if (!match) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Scan some of the columns of the tuples that satisfy all the predicates. Only the chunks of the projected columns
+   * and of the columns in predicates are read, and row groups that cannot hold a matching tuple are skipped. The
+   * returned iterator throws a {@link RuntimeException} around any {@link IOException}.
+   *
+   * @param columns the projected columns, or null for all of them.
+   * @param predicates the filter, or null or empty for all the tuples. Their fields index the columns of the file.
+   * @return the tuples, in batches of at most {@link TupleUtils#getBatchSize(Schema)} tuples.
+   */
+  public Iterator<TupleBatch> scan(final int[] columns, final List<SimplePredicate> predicates) {
+    final int[] projection;
+    if (columns == null) {
+      projection = new int[schema.numColumns()];
+      for (int column = 0; column < projection.length; ++column) {
+        projection[column] = column;
+      }
+    } else {
+      projection = columns.clone();
+    }
+    final List<SimplePredicate> filter =
+        predicates == null ? ImmutableList.<SimplePredicate>of() : ImmutableList.copyOf(predicates);
+    for (int column : projection) {
+      Preconditions.checkElementIndex(column, schema.numColumns(), "projected column");
+    }
+    final Comparable<?>[] operands = new Comparable<?>[filter.size()];
+    for (int i = 0; i < operands.length; ++i) {
+      final SimplePredicate predicate = filter.get(i);
+      Preconditions.checkElementIndex(predicate.getField(), schema.numColumns(), "filtered column");
+      operands[i] = schema.getColumnType(predicate.getField()).fromString(predicate.getOperand());
+    }
+    return new ScanIterator(projection, filter, operands);
+  }
+
+  /**
+   * Read and decompress a chunk.
+   *
+   * @param group the row group.
+   * @param column the column.
+   * @return the encoded values of the chunk.
+   * @throws IOException if the chunk cannot be read.
+   */
+  private ByteBuffer readChunk(final int group, final int column) throws IOException {
+    final ByteBuffer stored = read(offsets[group][column], compressedLengths[group][column]);
+    if (compression == BlockCompression.NONE) {
+      return stored;
+    }
+    final byte[] chunk = new byte[lengths[group][column]];
+    compression.decompress(stored.array(), 0, stored.remaining(), chunk, chunk.length);
+    return ByteBuffer.wrap(chunk);
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  /**
+   * Decodes the row groups of a scan into tuple batches.
+   */
+  private final class ScanIterator extends AbstractIterator<TupleBatch> {
+    /** The columns of the file that are read: the projected ones, then the other filtered ones. */
+    private final int[] readColumns;
+    /** The schema of the read columns. */
+    private final Schema readSchema;
+    /** The index in {@link #readColumns} of each projected column, or null if they are the same. */
+    private final int[] outputColumns;
+    /** The filter. */
+    private final List<SimplePredicate> predicates;
+    /** The operand of each predicate. */
+    private final Comparable<?>[] operands;
+    /** The index in {@link #readColumns} of the column of each predicate. */
+    private final int[] predicateColumns;
+    /** The largest number of tuples in a batch. */
+    private final int batchSize;
+    /** The current row group, or the last one once the scan is done. */
+    private int group;
+    /** The number of tuples of the current row group still to be returned. */
+    private int rowsLeft;
+    /** The chunks of the current row group, positioned at the next value, for each read column. */
+    private final ByteBuffer[] chunks;
+    /** The dictionary of each read String column, shared by the returned batches. */
+    private final StringDictionary[] dictionaries;
+
+    /**
+     * @param projection the projected columns.
+     * @param predicates the filter.
+     * @param operands the operand of each predicate.
+     */
+    ScanIterator(
+        final int[] projection,
+        final List<SimplePredicate> predicates,
+        final Comparable<?>[] operands) {
+      this.predicates = predicates;
+      this.operands = operands;
+      final List<Integer> read = new ArrayList<>();
+      final int[] output = new int[projection.length];
+      boolean identity = true;
+      for (int i = 0; i < projection.length; ++i) {
+        int index = read.indexOf(projection[i]);
+        if (index < 0) {
+          index = read.size();
+          read.add(projection[i]);
+        }
+        output[i] = index;
+        identity &= index == i;
+      }
+      predicateColumns = new int[predicates.size()];
+      for (int i = 0; i < predicateColumns.length; ++i) {
+        int index = read.indexOf(predicates.get(i).getField());
+        if (index < 0) {
+          index = read.size();
+          read.add(predicates.get(i).getField());
+          identity = false;
+        }
+        predicateColumns[i] = index;
+      }
+      readColumns = new int[read.size()];
+      for (int i = 0; i < readColumns.length; ++i) {
+        readColumns[i] = read.get(i);
+      }
+      readSchema = schema.getSubSchema(readColumns);
+      outputColumns = identity && output.length == readColumns.length ? null : output;
+      batchSize = TupleUtils.getBatchSize(readSchema);
+      chunks = new ByteBuffer[readColumns.length];
+      dictionaries = ColumnFactory.allocateDictionaries(readSchema);
+      group = -1;
+    }
+
+    @Override
+    protected TupleBatch computeNext() {
+      try {
+        while (true) {
+          while (rowsLeft == 0) {
+            if (group + 1 >= numRows.length) {
+              return endOfData();
+            }
+            ++group;
+            if (numRows[group] == 0 || !mayMatch(group, predicates, operands)) {
+              continue;
+            }
+            for (int i = 0; i < readColumns.length; ++i) {
+              chunks[i] = readChunk(group, readColumns[i]);
+            }
+            rowsLeft = numRows[group];
+          }
+          final int n = Math.min(rowsLeft, batchSize);
+          rowsLeft -= n;
+          TupleBatch tb = decode(n);
+          if (!predicates.isEmpty()) {
+            tb = tb.filter(evaluate(tb));
+            if (tb.numTuples() == 0) {
+              continue;
+            }
+          }
+          if (outputColumns != null) {
+            tb = tb.selectColumns(outputColumns);
+          }
+          return tb;
+        }
+      } catch (IOException e) {
+        throw new RuntimeException(e);
+      }
+    }
+
+    /**
+     * @param tb tuples of the read columns.
+     * @return the tuples that satisfy all the predicates.
+     */
+    private BitSet evaluate(final TupleBatch tb) {
+      final BitSet matches = new BitSet(tb.numTuples());
+      matches.set(0, tb.numTuples());
+      for (int i = 0; i < predicateColumns.length; ++i) {
+        final int column = predicateColumns[i];
+        final Type type = readSchema.getColumnType(column);
+        final Column<?> values = tb.getDataColumns().get(column);
+        final SimplePredicate.Op op = predicates.get(i).getOp();
+        for (int row = matches.nextSetBit(0); row >= 0; row = matches.nextSetBit(row + 1)) {
+          if (!type.filter(op, values, row, operands[i])) {
+            matches.clear(row);
+          }
+        }
+      }
+      return matches;
+    }
+
+    /**
+     * @param n the number of tuples to decode from the current chunks.
+     * @return the tuples.
+     */
+    private TupleBatch decode(final int n) {
+      final List<Column<?>> columns = new ArrayList<>(readColumns.length);
+      final List<ColumnBuilder<?>> builders =
+          ColumnFactory.allocateColumns(readSchema, dictionaries);
+      for (int i = 0; i < readColumns.length; ++i) {
+        final ByteBuffer chunk = chunks[i];
+        final ColumnBuilder<?> builder = builders.get(i);
+        switch (readSchema.getColumnType(i)) {
+          case BOOLEAN_TYPE:
+            for (int row = 0; row < n; ++row) {
+              builder.appendBoolean(chunk.get() != 0);
+            }
+            break;
+          case DOUBLE_TYPE:
+            for (int row = 0; row < n; ++row) {
+              builder.appendDouble(chunk.getDouble());
+            }
+            break;
+          case FLOAT_TYPE:
+            for (int row = 0; row < n; ++row) {
+              builder.appendFloat(chunk.getFloat());
+            }
+            break;
+          case INT_TYPE:
+            for (int row = 0; row < n; ++row) {
+              builder.appendInt(chunk.getInt());
+            }
+            break;
+          case LONG_TYPE:
+            for (int row = 0; row < n; ++row) {
+              builder.appendLong(chunk.getLong());
+            }
+            break;
+          case DATETIME_TYPE:
+            for (int row = 0; row < n; ++row) {
+              builder.appendDateTime(new DateTime(chunk.getLong()));
+            }
+            break;
+          case STRING_TYPE:
+            for (int row = 0; row < n; ++row) {
+              final int length = chunk.getInt();
+              builder.appendString(
+                  new String(
+                      chunk.array(),
+                      chunk.arrayOffset() + chunk.position(),
+                      length,
+                      StandardCharsets.UTF_8));
+              chunk.position(chunk.position() + length);
+            }
+            break;
+          case BLOB_TYPE:
+            for (int row = 0; row < n; ++row) {
+              final byte[] blob = new byte[chunk.getInt()];
+              chunk.get(blob);
+              builder.appendBlob(ByteBuffer.wrap(blob));
+            }
+            break;
+        }
+        columns.add(builder.build());
+      }
+      return new TupleBatch(readSchema, columns, n);
+    }
+  }
+}
@@ -0,0 +1,440 @@
+package edu.washington.escience.myria.accessmethod;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+import org.joda.time.DateTime;
+
+import com.google.common.base.Preconditions;
+
+import edu.washington.escience.myria.Schema;
+import edu.washington.escience.myria.Type;
+import edu.washington.escience.myria.storage.ReadableColumn;
+import edu.washington.escience.myria.storage.TupleBatch;
+import edu.washington.escience.myria.util.BlockCompression;
+
+/**
+ * Writes tuples to a file in Myria's columnar format. The tuples are split into row groups, and each row group stores
+ * one chunk per column, compressed on its own. The footer holds the schema, the codec, and for each chunk its offset,
+ * its sizes, and the smallest and largest of its values, so that a {@link ColumnarFileReader} can read only some of the
+ * columns and skip the row groups in which no tuple can satisfy a filter.
+ *
+ * <pre>
+ * file     := MAGIC chunk* footer footerLength:int MAGIC
+ * footer   := numColumns:int (name:UTF type:UTF)* codec:UTF numRowGroups:int rowGroup*
+ * rowGroup := numRows:int (offset:long compressedLength:int length:int hasStats:boolean [min max])*
+ * </pre>
+ *
+ * Numbers are big-endian. In a chunk, fixed-width values are stored back to back, with booleans as one byte and
+ * datetimes as milliseconds since the epoch; strings, in UTF-8, and blobs are prefixed by their length in bytes.
+ */
+public final class ColumnarFileWriter implements AutoCloseable {
+  /** The number of tuples in a row group, unless specified. */
+  public static final int DEFAULT_ROW_GROUP_SIZE = 64 * 1024;
+
+  /** The file. */
+  private final Path path;
+  /** The open file. */
+  private final FileChannel channel;
+  /** The schema of the tuples. */
+  private final Schema schema;
+  /** The codec of the chunks. */
+  private final BlockCompression compression;
+  /** The number of tuples in a row group. */
+  private final int rowGroupSize;
+  /** The chunks of the current row group. */
+  private final ChunkBuilder[] chunks;
+  /** The number of tuples in the current row group. */
+  private int numRows;
+  /** The offset of the next chunk in the file. */
+  private long offset;
+  /** The description of the written row groups, in the footer. */
+  private final ByteArrayOutputStream rowGroupBytes;
+  /** Writes to {@link #rowGroupBytes}. */
+  private final DataOutputStream rowGroups;
+  /** The number of written row groups. */
+  private int numRowGroups;
+  /** The buffer of compressed chunks. */
+  private byte[] compressed;
+
+  /**
+   * Create a new file and write tuples to it.
+   *
+   * @param path the file, which must not exist.
+   * @param schema the schema of the tuples.
+   * @param compression the codec of the chunks.
+   * @param rowGroupSize the number of tuples in a row group.
+   * @throws IOException if the file cannot be created.
+   */
+  public ColumnarFileWriter(
+      final Path path,
+      final Schema schema,
+      final BlockCompression compression,
+      final int rowGroupSize)
+      throws IOException {
+    Preconditions.checkArgument(rowGroupSize > 0, "rowGroupSize must be positive");
+    this.path = Objects.requireNonNull(path, "path");
+    this.schema = Objects.requireNonNull(schema, "schema");
+    this.compression = Objects.requireNonNull(compression, "compression");
+    this.rowGroupSize = rowGroupSize;
+    chunks = new ChunkBuilder[schema.numColumns()];
+    for (int column = 0; column < chunks.length; ++column) {
+      chunks[column] = new ChunkBuilder(schema.getColumnType(column));
+    }
+    rowGroupBytes = new ByteArrayOutputStream();
+    rowGroups = new DataOutputStream(rowGroupBytes);
+    compressed = new byte[0];
+    channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+    write(ByteBuffer.wrap(ColumnarFormat.MAGIC));
+  }
+
+  /**
+   * Create a new file and write tuples to it, in row groups of {@link #DEFAULT_ROW_GROUP_SIZE} tuples.
+   *
+   * @param path the file, which must not exist.
+   * @param schema the schema of the tuples.
+   * @param compression the codec of the chunks.
+   * @throws IOException if the file cannot be created.
+   */
+  public ColumnarFileWriter(
+      final Path path, final Schema schema, final BlockCompression compression) throws IOException {
+    this(path, schema, compression, DEFAULT_ROW_GROUP_SIZE);
+  }
+
+  /**
+   * @param buffer bytes to append to the file.
+   * @throws IOException if the bytes cannot be written.
+   */
+  private void write(final ByteBuffer buffer) throws IOException {
+    while (buffer.hasRemaining()) {
+      offset += channel.write(buffer);
+    }
+  }
+
+  /**
+   * Append the tuples of a batch.
+   *
+   * @param tupleBatch the tuples, which must have the types of the schema of this file.
+   * @throws IOException if a row group cannot be written.
+   */
+  public void write(final TupleBatch tupleBatch) throws IOException {
+    Preconditions.checkArgument(
+        tupleBatch.getSchema().getColumnTypes().equals(schema.getColumnTypes()),
+        "Tuples of types %s cannot be written to a file of types %s",
+        tupleBatch.getSchema().getColumnTypes(),
+        schema.getColumnTypes());
+    int row = 0;
+    while (row < tupleBatch.numTuples()) {
+      final int n = Math.min(tupleBatch.numTuples() - row, rowGroupSize - numRows);
+      for (int column = 0; column < chunks.length; ++column) {
+        chunks[column].append(tupleBatch.asColumn(column), row, n);
+      }
+      numRows += n;
+      row += n;
+      if (numRows == rowGroupSize) {
+        flushRowGroup();
+      }
+    }
+  }
+
+  /**
+   * Write the chunks of the current row group and describe them in the footer.
+   *
+   * @throws IOException if the chunks cannot be written.
+   */
+  private void flushRowGroup() throws IOException {
+    rowGroups.writeInt(numRows);
+    for (int column = 0; column < chunks.length; ++column) {
+      final ChunkBuilder chunk = chunks[column];
+      final int length = chunk.data.position();
+      final int maxLength = compression.maxCompressedLength(length);
+      if (compressed.length < maxLength) {
+        compressed = new byte[maxLength];
+      }
+      final int compressedLength =
+          compression.compress(chunk.data.array(), 0, length, compressed, 0);
+      rowGroups.writeLong(offset);
+      rowGroups.writeInt(compressedLength);
+      rowGroups.writeInt(length);
+      write(ByteBuffer.wrap(compressed, 0, compressedLength));
+      final Type type = schema.getColumnType(column);
+      rowGroups.writeBoolean(ColumnarFormat.hasStats(type));
+      if (ColumnarFormat.hasStats(type)) {
+        ColumnarFormat.writeStat(rowGroups, type, chunk.getMin());
+        ColumnarFormat.writeStat(rowGroups, type, chunk.getMax());
+      }
+      chunk.reset();
+    }
+    ++numRowGroups;
+    numRows = 0;
+  }
+
+  /**
+   * Write the last row group and the footer, and close the file.
+   *
+   * @throws IOException if the file cannot be written.
+   */
+  @Override
+  public void close() throws IOException {
+    try {
+      if (numRows > 0) {
+        flushRowGroup();
+      }
+      final ByteArrayOutputStream footerBytes = new ByteArrayOutputStream();
+      final DataOutputStream footer = new DataOutputStream(footerBytes);
+      footer.writeInt(schema.numColumns());
+      for (int column = 0; column < schema.numColumns(); ++column) {
+        footer.writeUTF(schema.getColumnName(column));
+        footer.writeUTF(schema.getColumnType(column).name());
+      }
+      footer.writeUTF(compression.name());
+      footer.writeInt(numRowGroups);
+      rowGroups.flush();
+      rowGroupBytes.writeTo(footer);
+      footer.writeInt(footer.size());
+      footer.write(ColumnarFormat.MAGIC);
+      footer.flush();
+      write(ByteBuffer.wrap(footerBytes.toByteArray()));
+      channel.force(true);
+    } finally {
+      channel.close();
+    }
+  }
+
+  /**
+   * Close and delete the file, e.g., after a failure.
+   *
+   * @throws IOException if the file cannot be deleted.
+   */
+  public void abort() throws IOException {
+    try {
+      channel.close();
+    } finally {
+      Files.deleteIfExists(path);
+    }
+  }
+
+  /**
+   * The encoded values of one column in the current row group, and the smallest and largest of them.
+   */
+  private static final class ChunkBuilder {
+    /** The type of the column. */
+    private final Type type;
+    /** The encoded values. */
+    private ByteBuffer data;
+    /** True until the first value is appended. */
+    private boolean empty;
+    /** The smallest integral value, for boolean, int, long and datetime columns. */
+    private long minLong;
+    /** The largest integral value, for boolean, int, long and datetime columns. */
+    private long maxLong;
+    /** The smallest floating-point value, for float and double columns. */
+    private double minDouble;
+    /** The largest floating-point value, for float and double columns. */
+    private double maxDouble;
+    /** The smallest string, for string columns. */
+    private String minString;
+    /** The largest string, for string columns. */
+    private String maxString;
+
+    /**
+     * @param type the type of the column.
+     */
+    ChunkBuilder(final Type type) {
+      this.type = type;
+      data = ByteBuffer.allocate(1024);
+      reset();
+    }
+
+    /** Start a new chunk. */
+    void reset() {
+      data.clear();
+      empty = true;
+    }
+
+    /**
+     * @param bytes the number of bytes about to be appended.
+     */
+    private void ensureRemaining(final int bytes) {
+      if (data.remaining() < bytes) {
+        final long capacity = Math.max(data.capacity() * 2L, (long) data.position() + bytes);
+        Preconditions.checkState(
+            capacity <= Integer.MAX_VALUE, "A chunk of %s values does not fit in 2GB", type);
+        final ByteBuffer larger = ByteBuffer.allocate((int) capacity);
+        data.flip();
+        larger.put(data);
+        data = larger;
+      }
+    }
+
+    /**
+     * @param value an integral value to account for in the stats.
+     */
+    private void updateLong(final long value) {
+      if (empty || value < minLong) {
+        minLong = value;
+      }
+      if (empty || value > maxLong) {
+        maxLong = value;
+      }
+      empty = false;
+    }
+
+    /**
+     * @param value a floating-point value to account for in the stats, ordered as by {@link Double#compare}.
+     */
+    private void updateDouble(final double value) {
+      if (empty || Double.compare(value, minDouble) < 0) {
+        minDouble = value;
+      }
+      if (empty || Double.compare(value, maxDouble) > 0) {
+        maxDouble = value;
+      }
+      empty = false;
+    }
+
+    /**
+     * @param value a string to account for in the stats.
+     */
+    private void updateString(final String value) {
+      if (empty || value.compareTo(minString) < 0) {
+        minString = value;
+      }
+      if (empty || value.compareTo(maxString) > 0) {
+        maxString = value;
+      }
+      empty = false;
+    }
+
+    /**
+     * Append values to the chunk.
+     *
+     * @param column the values.
+     * @param from the row of the first value.
+     * @param n the number of values.
+     */
+    void append(final ReadableColumn column, final int from, final int n) {
+      final int to = from + n;
+      switch (type) {
+        case BOOLEAN_TYPE:
+          ensureRemaining(n);
+          for (int row = from; row < to; ++row) {
+            final boolean value = column.getBoolean(row);
+            data.put((byte) (value ? 1 : 0));
+            updateLong(value ? 1 : 0);
+          }
+          break;
+        case DOUBLE_TYPE:
+          ensureRemaining(n * Double.BYTES);
+          for (int row = from; row < to; ++row) {
+            final double value = column.getDouble(row);
+            data.putDouble(value);
+            updateDouble(value);
+          }
+          break;
+        case FLOAT_TYPE:
+          ensureRemaining(n * Float.BYTES);
+          for (int row = from; row < to; ++row) {
+            final float value = column.getFloat(row);
+            data.putFloat(value);
+            updateDouble(value);
+          }
+          break;
+        case INT_TYPE:
+          ensureRemaining(n * Integer.BYTES);
+          for (int row = from; row < to; ++row) {
+            final int value = column.getInt(row);
+            data.putInt(value);
+            updateLong(value);
+          }
+          break;
+        case LONG_TYPE:
+          ensureRemaining(n * Long.BYTES);
+          for (int row = from; row < to; ++row) {
+            final long value = column.getLong(row);
+            data.putLong(value);
+            updateLong(value);
+          }
+          break;
+        case DATETIME_TYPE:
+          ensureRemaining(n * Long.BYTES);
+          for (int row = from; row < to; ++row) {
+            final long value = column.getDateTime(row).getMillis();
+            data.putLong(value);
+            updateLong(value);
+          }
+          break;
+        case STRING_TYPE:
+          for (int row = from; row < to; ++row) {
+            final String value = column.getString(row);
+            final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            ensureRemaining(Integer.BYTES + bytes.length);
+            data.putInt(bytes.length);
+            data.put(bytes);
+            updateString(value);
+          }
+          break;
+        case BLOB_TYPE:
+          for (int row = from; row < to; ++row) {
+            final ByteBuffer value = column.getBlob(row).duplicate();
+            ensureRemaining(Integer.BYTES + value.remaining());
+            data.putInt(value.remaining());
+            data.put(value);
+          }
+          empty = false;
+          break;
+      }
+    }
+
+    /**
+     * @return the smallest value of the chunk, which must not be empty.
+     */
+    Comparable<?> getMin() {
+      return toStat(minLong, minDouble, minString);
+    }
+
+    /**
+     * @return the largest value of the chunk, which must not be empty.
+     */
+    Comparable<?> getMax() {
+      return toStat(maxLong, maxDouble, maxString);
+    }
+
+    /**
+     * @param longValue the stat of an integral column.
+     * @param doubleValue the stat of a floating-point column.
+     * @param stringValue the stat of a string column.
+     * @return the stat of this column, as the class returned by {@link Type#fromString(String)}.
+     */
+    private Comparable<?> toStat(
+        final long longValue, final double doubleValue, final String stringValue) {
+      Preconditions.checkState(!empty, "An empty chunk has no stats");
+      switch (type) {
+        case BOOLEAN_TYPE:
+          return longValue != 0;
+        case DOUBLE_TYPE:
+          return doubleValue;
+        case FLOAT_TYPE:
+          return (float) doubleValue;
+        case INT_TYPE:
+          return (int) longValue;
+        case LONG_TYPE:
+          return longValue;
+        case DATETIME_TYPE:
+          return new DateTime(longValue);
+        case STRING_TYPE:
+          return stringValue;
+        default:
+          throw new IllegalStateException(type + " columns have no stats");
+      }
+    }
+  }
+}
@@ -0,0 +1,101 @@
+package edu.washington.escience.myria.accessmethod;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.joda.time.DateTime;
+
+import edu.washington.escience.myria.Type;
+
+/**
+ * Constants and helpers shared by {@link ColumnarFileWriter} and {@link ColumnarFileReader}.
+ */
+final class ColumnarFormat {
+  /** The bytes at the start and at the end of every columnar file. */
+  static final byte[] MAGIC = "MYRIACF1".getBytes(StandardCharsets.US_ASCII);
+  /** The number of bytes after the footer: its length and the magic bytes. */
+  static final int TRAILER_LENGTH = Integer.BYTES + MAGIC.length;
+
+  /** Utility class cannot be constructed. */
+  private ColumnarFormat() {}
+
+  /**
+   * @param type the type of a column.
+   * @return true if the chunks of the column record their smallest and largest values.
+   */
+  static boolean hasStats(final Type type) {
+    return type != Type.BLOB_TYPE;
+  }
+
+  /**
+   * Write the smallest or largest value of a chunk.
+   *
+   * @param out the footer.
+   * @param type the type of the column, which must have stats.
+   * @param value the value, of the class returned by {@link Type#fromString(String)}.
+   * @throws IOException if the footer cannot be written.
+   */
+  static void writeStat(final DataOutput out, final Type type, final Comparable<?> value)
+      throws IOException {
+    switch (type) {
+      case BOOLEAN_TYPE:
+        out.writeBoolean((Boolean) value);
+        break;
+      case DOUBLE_TYPE:
+        out.writeDouble((Double) value);
+        break;
+      case FLOAT_TYPE:
+        out.writeFloat((Float) value);
+        break;
+      case INT_TYPE:
+        out.writeInt((Integer) value);
+        break;
+      case LONG_TYPE:
+        out.writeLong((Long) value);
+        break;
+      case DATETIME_TYPE:
+        out.writeLong(((DateTime) value).getMillis());
+        break;
+      case STRING_TYPE:
+        final byte[] bytes = ((String) value).getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+        break;
+      default:
+        throw new IllegalArgumentException(type + " columns have no stats");
+    }
+  }
+
+  /**
+   * Read the smallest or largest value of a chunk.
+   *
+   * @param in the footer.
+   * @param type the type of the column, which must have stats.
+   * @return the value, of the class returned by {@link Type#fromString(String)}.
+   * @throws IOException if the footer cannot be read.
+   */
+  static Comparable<?> readStat(final DataInput in, final Type type) throws IOException {
+    switch (type) {
+      case BOOLEAN_TYPE:
+        return in.readBoolean();
+      case DOUBLE_TYPE:
+        return in.readDouble();
+      case FLOAT_TYPE:
+        return in.readFloat();
+      case INT_TYPE:
+        return in.readInt();
+      case LONG_TYPE:
+        return in.readLong();
+      case DATETIME_TYPE:
+        return new DateTime(in.readLong());
+      case STRING_TYPE:
+        final byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+      default:
+        throw new IllegalArgumentException(type + " columns have no stats");
+    }
+  }
+}
@@ -0,0 +1,97 @@
+package edu.washington.escience.myria.accessmethod;
+
+import java.io.Serializable;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+
+import edu.washington.escience.myria.MyriaConstants;
+import edu.washington.escience.myria.util.BlockCompression;
+
+/**
+ * Holds the info for the columnar storage of a worker, see {@link ColumnarAccessMethod}.
+ */
+public final class ColumnarInfo extends ConnectionInfo implements Serializable {
+  /** Required for Java serialization. */
+  private static final long serialVersionUID = 1L;
+  /** The codec of new column chunks, unless specified. */
+  public static final BlockCompression DEFAULT_COMPRESSION = BlockCompression.LZ4;
+  /** The directory that holds the relations. */
+  @JsonProperty private final String directory;
+  /** The codec of new column chunks. */
+  @JsonProperty private final BlockCompression compression;
+
+  /**
+   * This is not really unused, it's used automagically by Jackson deserialization.
+   */
+  private ColumnarInfo() {
+    directory = null;
+    compression = null;
+  }
+
+  /**
+   * Private constructor.
+   *
+   * @param directory the directory that holds the relations.
+   * @param compression the codec of new column chunks, or null for {@link #DEFAULT_COMPRESSION}.
+   */
+  private ColumnarInfo(final String directory, final BlockCompression compression) {
+    this.directory = directory;
+    this.compression = compression;
+  }
+
+  /**
+   * Creates a new ColumnarInfo object.
+   *
+   * @param dbms a string, which must equal MyriaConstants.STORAGE_SYSTEM_COLUMNAR.
+   * @param directory the directory that holds the relations.
+   * @return a new ColumnarInfo containing this information.
+   */
+  public static ColumnarInfo of(final String dbms, final String directory) {
+    Preconditions.checkArgument(
+        dbms.equals(MyriaConstants.STORAGE_SYSTEM_COLUMNAR),
+        "The dbms parameter must equal " + MyriaConstants.STORAGE_SYSTEM_COLUMNAR);
+    return new ColumnarInfo(directory, null);
+  }
+
+  /**
+   * Creates a new ColumnarInfo object.
+   *
+   * @param directory the directory that holds the relations.
+   * @return a new ColumnarInfo containing this information.
+   */
+  public static ColumnarInfo of(final String directory) {
+    return new ColumnarInfo(directory, null);
+  }
+
+  /**
+   * Creates a new ColumnarInfo object.
+   *
+   * @param directory the directory that holds the relations.
+   * @param compression the codec of new column chunks.
+   * @return a new ColumnarInfo containing this information.
+   */
+  public static ColumnarInfo of(final String directory, final BlockCompression compression) {
+    return new ColumnarInfo(directory, compression);
+  }
+
+  /**
+   * @return the directory that holds the relations.
+   */
+  public String getDirectory() {
+    return directory;
+  }
+
+  /**
+   * @return the codec of new column chunks.
+   */
+  public BlockCompression getCompression() {
+    return MoreObjects.firstNonNull(compression, DEFAULT_COMPRESSION);
+  }
+
+  @Override
+  public String getDbms() {
+    return MyriaConstants.STORAGE_SYSTEM_COLUMNAR;
+  }
+}
@@ -18,6 +18,7 @@ import org.postgresql.PGConnection;
 import org.postgresql.PGStatement;
 import org.postgresql.copy.CopyIn;
 import org.postgresql.copy.CopyManager;
+import org.postgresql.copy.PGCopyInputStream;
 import org.postgresql.copy.PGCopyOutputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -28,12 +29,15 @@ import com.google.common.collect.ImmutableList;
 
 import edu.washington.escience.myria.DbException;
 import edu.washington.escience.myria.MyriaConstants;
+import edu.washington.escience.myria.PostgresBinaryTupleReader;
 import edu.washington.escience.myria.PostgresBinaryTupleWriter;
 import edu.washington.escience.myria.RelationKey;
 import edu.washington.escience.myria.Schema;
+import edu.washington.escience.myria.TupleReader;
 import edu.washington.escience.myria.TupleWriter;
 import edu.washington.escience.myria.Type;
 import edu.washington.escience.myria.column.Column;
+import edu.washington.escience.myria.column.StringDictionary;
 import edu.washington.escience.myria.column.builder.ColumnBuilder;
 import edu.washington.escience.myria.column.builder.ColumnFactory;
 import edu.washington.escience.myria.storage.TupleBatch;
@@ -53,6 +57,16 @@ public final class JdbcAccessMethod extends AccessMethod {
   private JdbcInfo jdbcInfo;
   /** The database connection. */
   private Connection jdbcConnection;
+  /** The relation whose inserts are kept open across batches, see {@link #beginInserts}. */
+  private RelationKey insertRelation;
+  /** The open PostgreSQL COPY, if any. The connection runs no other command while it is open. */
+  private CopyIn copyIn;
+  /** Writes the tuples of the open COPY. */
+  private TupleWriter copyWriter;
+  /** The relation of the open COPY. */
+  private RelationKey copyRelation;
+  /** The number of tuples written into the open COPY. */
+  private long copyRows;
 
   /**
    * The constructor. Creates an object and connects with the database
@@ -98,6 +112,7 @@ public final class JdbcAccessMethod extends AccessMethod {
   @Override
   public void setReadOnly(final Boolean readOnly) throws DbException {
     Objects.requireNonNull(jdbcConnection, "jdbcConnection");
+    endCopy();
 
     try {
       if (jdbcConnection.isReadOnly() != readOnly) {
@@ -109,17 +124,12 @@ public final class JdbcAccessMethod extends AccessMethod {
   }
 
   /**
-   * Helper function to copy data into PostgreSQL using the COPY command.
+   * Helper function to start a COPY into PostgreSQL.
    *
    * @param relationKey the destination relation
-   * @param schema the schema of the relation
-   * @param tupleBatch the tuples to be inserted.
    * @throws DbException if there is an error.
    */
-  private void postgresCopyInsert(
-      final RelationKey relationKey, final Schema schema, final TupleBatch tupleBatch)
-      throws DbException {
-    // Use the postgres COPY command which is much faster
+  private void startCopy(final RelationKey relationKey) throws DbException {
     try {
       CopyManager cpManager = ((PGConnection) jdbcConnection).getCopyAPI();
       StringBuilder copyString =
@@ -127,27 +137,104 @@ public final class JdbcAccessMethod extends AccessMethod {
               .append("COPY ")
               .append(quote(relationKey))
               .append(" FROM STDIN WITH BINARY");
-      CopyIn copyIn = cpManager.copyIn(copyString.toString());
+      copyIn = cpManager.copyIn(copyString.toString());
+      copyWriter = new PostgresBinaryTupleWriter();
+      copyWriter.open(new PGCopyOutputStream(copyIn));
+      copyRelation = relationKey;
+      copyRows = 0;
+    } catch (final SQLException e) {
+      cancelCopy();
+      throw ErrorUtils.mergeSQLException(e);
+    } catch (final IOException e) {
+      cancelCopy();
+      LOGGER.error(e.getMessage(), e);
+      throw new DbException(e);
+    }
+  }
 
-      TupleWriter tw = new PostgresBinaryTupleWriter();
-      tw.open(new PGCopyOutputStream(copyIn));
-      tw.writeTuples(tupleBatch);
-      tw.done();
+  /**
+   * Helper function to copy data into PostgreSQL using the open COPY command.
+   *
+   * @param tupleBatch the tuples to be inserted.
+   * @throws DbException if there is an error.
+   */
+  private void copyTuples(final TupleBatch tupleBatch) throws DbException {
+    try {
+      copyWriter.writeTuples(tupleBatch);
+      copyRows += tupleBatch.numTuples();
+    } catch (final IOException e) {
+      cancelCopy();
+      LOGGER.error(e.getMessage(), e);
+      throw new DbException(e);
+    }
+  }
 
+  /**
+   * Helper function to end the open COPY command, if any, so that the copied tuples are in the database.
+   *
+   * @throws DbException if there is an error.
+   */
+  private void endCopy() throws DbException {
+    if (copyIn == null) {
+      return;
+    }
+    try {
+      copyWriter.done();
       long inserted = copyIn.getHandledRowCount();
-      Preconditions.checkState(
-          inserted == tupleBatch.numTuples(),
-          "Error: inserted a batch of size %s but only actually inserted %s rows",
-          tupleBatch.numTuples(),
-          inserted);
-    } catch (final SQLException e) {
-      throw ErrorUtils.mergeSQLException(e);
+      if (inserted != copyRows) {
+        throw new DbException(
+            "Error: inserted "
+                + copyRows
+                + " rows but only actually inserted "
+                + inserted
+                + " rows");
+      }
     } catch (final IOException e) {
+      cancelCopy();
       LOGGER.error(e.getMessage(), e);
       throw new DbException(e);
+    } finally {
+      copyIn = null;
+      copyWriter = null;
+      copyRelation = null;
     }
   }
 
+  /**
+   * Helper function to cancel the open COPY command, if any. None of the copied tuples are in the database.
+   */
+  private void cancelCopy() {
+    if (copyIn != null && copyIn.isActive()) {
+      try {
+        copyIn.cancelCopy();
+      } catch (final SQLException e) {
+        LOGGER.warn("Error cancelling PostgreSQL COPY", e);
+      }
+    }
+    copyIn = null;
+    copyWriter = null;
+    copyRelation = null;
+  }
+
+  @Override
+  public void beginInserts(final RelationKey relationKey) throws DbException {
+    Objects.requireNonNull(relationKey, "relationKey");
+    endInserts();
+    insertRelation = relationKey;
+  }
+
+  @Override
+  public void endInserts() throws DbException {
+    insertRelation = null;
+    endCopy();
+  }
+
+  @Override
+  public void abortInserts() throws DbException {
+    insertRelation = null;
+    cancelCopy();
+  }
+
   @Override
   public void tupleBatchInsert(final RelationKey relationKey, final TupleBatch tupleBatch)
       throws DbException {
@@ -156,26 +243,20 @@ public final class JdbcAccessMethod extends AccessMethod {
 
     Schema schema = tupleBatch.getSchema();
 
-    boolean writeSucceeds = false;
     if (jdbcInfo.getDbms().equals(MyriaConstants.STORAGE_SYSTEM_POSTGRESQL)) {
-      /*
-       * There are bugs when using the COPY command to store doubles and floats into PostgreSQL. See
-       * uwescience/myria-web#48
-       */
-      try {
-        postgresCopyInsert(relationKey, schema, tupleBatch);
-        writeSucceeds = true;
-      } catch (DbException e) {
-        LOGGER.error("Error inserting batch via PostgreSQL COPY", e);
-        /*
-         * TODO - should we do a VACUUM now? The bad rows will not be visible to the DB, however, so the write did not
-         * partially happen.
-         *
-         * http://www.postgresql.org/docs/9.2/static/sql-copy.html
-         */
+      /* Use the postgres COPY command which is much faster. Between beginInserts and endInserts, one COPY holds all the
+       * batches of the relation. A failed COPY inserts nothing, so it cannot fall back to inserting row by row. */
+      if (copyIn != null && !relationKey.equals(copyRelation)) {
+        endCopy();
       }
-    }
-    if (!writeSucceeds) {
+      if (copyIn == null) {
+        startCopy(relationKey);
+      }
+      copyTuples(tupleBatch);
+      if (!relationKey.equals(insertRelation)) {
+        endCopy();
+      }
+    } else {
       try {
         /* Set up and execute the query */
         final PreparedStatement statement =
@@ -225,6 +306,7 @@ public final class JdbcAccessMethod extends AccessMethod {
   public Iterator<TupleBatch> tupleBatchIteratorFromQuery(
       final String queryString, final Schema schema) throws DbException {
     Objects.requireNonNull(jdbcConnection, "jdbcConnection");
+    endCopy();
     int batch_size = TupleUtils.getBatchSize(schema);
     try {
       PreparedStatement statement;
@@ -260,9 +342,52 @@ public final class JdbcAccessMethod extends AccessMethod {
     }
   }
 
+  /**
+   * Runs the given query on PostgreSQL through <code>COPY (query) TO STDOUT WITH BINARY</code> and decodes the binary
+   * output straight into tuple batches, which saves the per-value overhead of JDBC result sets. The columns of the
+   * query must have the PostgreSQL types of the Myria schema and no NULL value, as the relations created by Myria.
+   *
+   * @param queryString the query whose results are returned.
+   * @param schema the schema of the results.
+   * @return an iterator over the results. The connection is closed after the last batch.
+   * @throws DbException if the query fails or the database is not PostgreSQL.
+   */
+  public Iterator<TupleBatch> tupleBatchIteratorFromCopy(
+      final String queryString, final Schema schema) throws DbException {
+    Objects.requireNonNull(jdbcConnection, "jdbcConnection");
+    Preconditions.checkState(
+        jdbcInfo.getDbms().equals(MyriaConstants.STORAGE_SYSTEM_POSTGRESQL),
+        "COPY TO STDOUT is only supported by PostgreSQL");
+    endCopy();
+    final TupleReader reader = new PostgresBinaryTupleReader(schema);
+    try {
+      reader.open(
+          new PGCopyInputStream(
+              (PGConnection) jdbcConnection, "COPY (" + queryString + ") TO STDOUT WITH BINARY"));
+    } catch (final SQLException e) {
+      throw ErrorUtils.mergeSQLException(e);
+    } catch (final IOException e) {
+      throw new DbException(e);
+    }
+    return new CopyTupleBatchIterator(reader, jdbcConnection);
+  }
+
   @Override
   public void close() throws DbException {
     /* Close the db connection. */
+    try {
+      endCopy();
+    } finally {
+      closeConnection();
+    }
+  }
+
+  /**
+   * Closes the database connection.
+   *
+   * @throws DbException if there is an error in the database.
+   */
+  private void closeConnection() throws DbException {
     try {
       jdbcConnection.close();
     } catch (SQLException e) {
@@ -276,6 +401,7 @@ public final class JdbcAccessMethod extends AccessMethod {
   @Override
   public void execute(final String ddlCommand) throws DbException {
     Objects.requireNonNull(jdbcConnection);
+    endCopy();
     LOGGER.debug("Executing command {}", ddlCommand);
     Statement statement;
     try {
@@ -700,20 +826,7 @@ public final class JdbcAccessMethod extends AccessMethod {
    * @return the quoted name of the given column for use in SQL statements.
    */
   private String quote(final String column) {
-    char quote;
-    switch (jdbcInfo.getDbms()) {
-      case MyriaConstants.STORAGE_SYSTEM_MYSQL:
-        quote = '`';
-        break;
-      case MyriaConstants.STORAGE_SYSTEM_POSTGRESQL:
-      case MyriaConstants.STORAGE_SYSTEM_MONETDB:
-        quote = '\"';
-        break;
-      default:
-        throw new UnsupportedOperationException(
-            "Don't know how to quote DBMS " + jdbcInfo.getDbms());
-    }
-    return new StringBuilder().append(quote).append(column).append(quote).toString();
+    return quoteColumn(jdbcInfo.getDbms(), column);
   }
 }
 
@@ -729,6 +842,8 @@ class JdbcTupleBatchIterator implements Iterator<TupleBatch> {
   private final Logger LOGGER = LoggerFactory.getLogger(JdbcTupleBatchIterator.class);
   /** The Schema of the TupleBatches returned by this Iterator. */
   private final Schema schema;
+  /** The dictionary of each String column, shared by the returned TupleBatches. */
+  private final StringDictionary[] dictionaries;
   /** Next TB. */
   private TupleBatch nextTB = null;
   /** statement is closed or not. */
@@ -743,6 +858,7 @@ class JdbcTupleBatchIterator implements Iterator<TupleBatch> {
   JdbcTupleBatchIterator(final ResultSet resultSet, final Schema schema) {
     this.resultSet = resultSet;
     this.schema = schema;
+    dictionaries = ColumnFactory.allocateDictionaries(schema);
   }
 
   @Override
@@ -768,7 +884,8 @@ class JdbcTupleBatchIterator implements Iterator<TupleBatch> {
       return null;
     }
     final int numFields = schema.numColumns();
-    final List<ColumnBuilder<?>> columnBuilders = ColumnFactory.allocateColumns(schema);
+    final List<ColumnBuilder<?>> columnBuilders =
+        ColumnFactory.allocateColumns(schema, dictionaries);
     int numTuples = 0;
     int batchSize = TupleUtils.getBatchSize(schema);
     for (numTuples = 0; numTuples < batchSize; ++numTuples) {
@@ -808,3 +925,63 @@ class JdbcTupleBatchIterator implements Iterator<TupleBatch> {
     throw new UnsupportedOperationException("JdbcTupleBatchIterator.remove()");
   }
 }
+
+/**
+ * Wraps the binary output of a PostgreSQL <code>COPY ... TO STDOUT</code> in a Iterator<TupleBatch>.
+ */
+class CopyTupleBatchIterator implements Iterator<TupleBatch> {
+  /** Decodes the output of the COPY. */
+  private final TupleReader reader;
+  /** The connection running the COPY, closed after the last batch. */
+  private final Connection connection;
+  /** Next TB. */
+  private TupleBatch nextTB = null;
+  /** the COPY is done or not. */
+  private boolean copyDone = false;
+
+  /**
+   * Constructs a CopyTupleBatchIterator from the given reader, already opened on the output of a COPY.
+   *
+   * @param reader decodes the output of the COPY.
+   * @param connection the connection running the COPY.
+   */
+  CopyTupleBatchIterator(final TupleReader reader, final Connection connection) {
+    this.reader = reader;
+    this.connection = connection;
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (nextTB != null) {
+      return true;
+    }
+    if (copyDone) {
+      return false;
+    }
+    try {
+      nextTB = reader.readTuples();
+      if (nextTB == null) {
+        copyDone = true;
+        reader.close();
+        connection.close();
+      }
+      return nextTB != null;
+    } catch (final SQLException e) {
+      throw new RuntimeException(ErrorUtils.mergeSQLException(e).getCause());
+    } catch (IOException | DbException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  @Override
+  public TupleBatch next() {
+    TupleBatch tmp = nextTB;
+    nextTB = null;
+    return tmp;
+  }
+
+  @Override
+  public void remove() {
+    throw new UnsupportedOperationException("CopyTupleBatchIterator.remove()");
+  }
+}
@@ -0,0 +1,34 @@
+package edu.washington.escience.myria.api.encoding;
+
+import javax.ws.rs.core.Response.Status;
+
+import edu.washington.escience.myria.api.MyriaApiException;
+import edu.washington.escience.myria.api.encoding.QueryConstruct.ConstructArgs;
+import edu.washington.escience.myria.operator.ExternalOrderBy;
+
+public class ExternalOrderByEncoding extends UnaryOperatorEncoding<ExternalOrderBy> {
+
+  @Required public int[] argSortColumns;
+  @Required public boolean[] argAscending;
+  /** The number of bytes of tuples to hold in memory before spilling, optional. */
+  public Long argMemoryBudget;
+
+  @Override
+  public ExternalOrderBy construct(final ConstructArgs args) throws MyriaApiException {
+    if (argMemoryBudget == null) {
+      return new ExternalOrderBy(null, argSortColumns, argAscending);
+    }
+    return new ExternalOrderBy(null, argSortColumns, argAscending, argMemoryBudget);
+  }
+
+  @Override
+  protected void validateExtra() {
+    if (argSortColumns.length != argAscending.length) {
+      throw new MyriaApiException(
+          Status.BAD_REQUEST, "sort columns number should be equal to ascending orders number!");
+    }
+    if (argMemoryBudget != null && argMemoryBudget <= 0) {
+      throw new MyriaApiException(Status.BAD_REQUEST, "memory budget must be positive!");
+    }
+  }
+}
@@ -40,6 +40,7 @@ import edu.washington.escience.myria.operator.Operator;
   @Type(name = "Empty", value = EmptyRelationEncoding.class),
   @Type(name = "EmptySink", value = EmptySinkEncoding.class),
   @Type(name = "EOSController", value = EOSControllerEncoding.class),
+  @Type(name = "ExternalOrderBy", value = ExternalOrderByEncoding.class),
   @Type(name = "Filter", value = FilterEncoding.class),
   @Type(name = "HyperCubeShuffleProducer", value = HyperCubeShuffleProducerEncoding.class),
   @Type(name = "HyperCubeShuffleConsumer", value = HyperCubeShuffleConsumerEncoding.class),
@@ -52,6 +53,7 @@ import edu.washington.escience.myria.operator.Operator;
   @Type(name = "Merge", value = MergeEncoding.class),
   @Type(name = "MergeJoin", value = MergeJoinEncoding.class),
   @Type(name = "NChiladaFileScan", value = NChiladaFileScanEncoding.class),
+  @Type(name = "ParallelCsvFileScan", value = ParallelCsvFileScanEncoding.class),
   @Type(name = "RightHashCountingJoin", value = RightHashCountingJoinEncoding.class),
   @Type(name = "RightHashJoin", value = RightHashJoinEncoding.class),
   @Type(name = "SampledDbInsertTemp", value = SampledDbInsertTempEncoding.class),
@@ -0,0 +1,21 @@
+package edu.washington.escience.myria.api.encoding;
+
+import edu.washington.escience.myria.Schema;
+import edu.washington.escience.myria.api.encoding.QueryConstruct.ConstructArgs;
+import edu.washington.escience.myria.operator.ParallelCsvFileScan;
+
+public class ParallelCsvFileScanEncoding extends LeafOperatorEncoding<ParallelCsvFileScan> {
+  @Required public String filename;
+  @Required public Schema schema;
+
+  public Character delimiter;
+  public Character quote;
+  public Character escape;
+  public Integer skip;
+  public Integer numThreads;
+
+  @Override
+  public ParallelCsvFileScan construct(ConstructArgs args) {
+    return new ParallelCsvFileScan(filename, schema, delimiter, quote, escape, skip, numThreads);
+  }
+}
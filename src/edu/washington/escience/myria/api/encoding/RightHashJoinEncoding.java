@@ -2,6 +2,9 @@ package edu.washington.escience.myria.api.encoding;
 
 import java.util.List;
 
+import javax.ws.rs.core.Response.Status;
+
+import edu.washington.escience.myria.api.MyriaApiException;
 import edu.washington.escience.myria.api.encoding.QueryConstruct.ConstructArgs;
 import edu.washington.escience.myria.operator.RightHashJoin;
 
@@ -16,10 +19,26 @@ public class RightHashJoinEncoding extends BinaryOperatorEncoding<RightHashJoin>
   @Required public int[] argColumns2;
   @Required public int[] argSelect1;
   @Required public int[] argSelect2;
+  /** The number of bytes of right tuples to hold in memory before spilling, optional. */
+  public Long argMemoryBudget;
 
   @Override
   public RightHashJoin construct(ConstructArgs args) {
     return new RightHashJoin(
-        argColumnNames, null, null, argColumns1, argColumns2, argSelect1, argSelect2);
+        argColumnNames,
+        null,
+        null,
+        argColumns1,
+        argColumns2,
+        argSelect1,
+        argSelect2,
+        argMemoryBudget == null ? 0 : argMemoryBudget);
+  }
+
+  @Override
+  protected void validateExtra() {
+    if (argMemoryBudget != null && argMemoryBudget <= 0) {
+      throw new MyriaApiException(Status.BAD_REQUEST, "memory budget must be positive!");
+    }
   }
 }
@@ -2,6 +2,9 @@ package edu.washington.escience.myria.api.encoding;
 
 import java.util.List;
 
+import javax.ws.rs.core.Response.Status;
+
+import edu.washington.escience.myria.api.MyriaApiException;
 import edu.washington.escience.myria.api.encoding.QueryConstruct.ConstructArgs;
 import edu.washington.escience.myria.operator.SymmetricHashJoin;
 import edu.washington.escience.myria.operator.SymmetricHashJoin.JoinPullOrder;
@@ -16,6 +19,8 @@ public class SymmetricHashJoinEncoding extends BinaryOperatorEncoding<SymmetricH
   public boolean argSetSemanticsLeft = false;
   public boolean argSetSemanticsRight = false;
   public JoinPullOrder argOrder = JoinPullOrder.ALTERNATE;
+  /** The number of bytes of tuples of both children to hold in memory before spilling, optional. */
+  public Long argMemoryBudget;
 
   @Override
   public SymmetricHashJoin construct(final ConstructArgs args) {
@@ -29,6 +34,14 @@ public class SymmetricHashJoinEncoding extends BinaryOperatorEncoding<SymmetricH
         argSetSemanticsLeft,
         argSetSemanticsRight,
         argColumnNames,
-        argOrder);
+        argOrder,
+        argMemoryBudget == null ? 0 : argMemoryBudget);
+  }
+
+  @Override
+  protected void validateExtra() {
+    if (argMemoryBudget != null && argMemoryBudget <= 0) {
+      throw new MyriaApiException(Status.BAD_REQUEST, "memory budget must be positive!");
+    }
   }
 }
@@ -10,6 +10,7 @@ import org.joda.time.DateTime;
 import com.google.protobuf.ByteString;
 
 import edu.washington.escience.myria.Type;
+import edu.washington.escience.myria.column.builder.PrimitiveArrayPool;
 import edu.washington.escience.myria.proto.DataProto.BlobColumnMessage;
 import edu.washington.escience.myria.proto.DataProto.BooleanColumnMessage;
 import edu.washington.escience.myria.proto.DataProto.ColumnMessage;
@@ -113,6 +114,12 @@ public abstract class Column<T extends Comparable<?>> implements ReadableColumn,
     return new FilteredColumn<T>(this, filter);
   }
 
+  /**
+   * Return the storage of this column to the {@link PrimitiveArrayPool}, if it has any. Only the sole owner of the
+   * column may call this, and the column must not be used afterwards.
+   */
+  public void release() {}
+
   /**
    * @param type the type of the column to be returned.
    * @return a new empty column of the specified type.
@@ -160,6 +167,9 @@ public abstract class Column<T extends Comparable<?>> implements ReadableColumn,
         b = 0;
       }
     }
+    if (bitCnt > 0) {
+      bytes.write(b);
+    }
     /* Note that we do *not* build the inner class. We pass its builder instead. */
     final BooleanColumnMessage.Builder inner =
         BooleanColumnMessage.newBuilder().setData(bytes.toByteString());
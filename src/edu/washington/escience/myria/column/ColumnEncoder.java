@@ -0,0 +1,347 @@
+package edu.washington.escience.myria.column;
+
+import java.util.BitSet;
+import java.util.List;
+
+import com.google.common.base.Preconditions;
+import com.google.protobuf.ByteString;
+
+import edu.washington.escience.myria.Type;
+import edu.washington.escience.myria.column.builder.ColumnFactory;
+import edu.washington.escience.myria.proto.DataProto.ColumnMessage;
+import edu.washington.escience.myria.proto.DataProto.ConstantColumnMessage;
+import edu.washington.escience.myria.proto.DataProto.DeltaColumnMessage;
+import edu.washington.escience.myria.proto.DataProto.RunLengthColumnMessage;
+
+/**
+ * Chooses the encoding of each column of a batch sent over the network. A column is sent as
+ * <ul>
+ * <li>a constant, if every row has the same value;</li>
+ * <li>runs of equal values, if there are few runs, e.g., in sorted or clustered data;</li>
+ * <li>bit-packed differences between consecutive rows, for Int and Long columns whose consecutive values are close,
+ * e.g., sorted keys;</li>
+ * <li>otherwise, by {@link Column#serializeToProto()}.</li>
+ * </ul>
+ * The receiver wraps the message in a column that decodes values when they are read: {@link ConstantValueColumn},
+ * {@link RunLengthColumn} or {@link DeltaProtoColumn}.
+ */
+public final class ColumnEncoder {
+  /** Columns with fewer rows are not encoded. */
+  static final int MIN_ROWS = 16;
+  /** Run-length encode a column if it has at most 1/RUN_LENGTH_RATIO as many runs as rows. */
+  static final int RUN_LENGTH_RATIO = 4;
+  /** Delta encode a column if that takes at most 1/DELTA_RATIO as many bytes. */
+  static final int DELTA_RATIO = 2;
+  /** The estimated number of bytes to encode the end of a run. */
+  private static final int RUN_END_BYTES = 3;
+
+  /** Utility classes cannot be constructed. */
+  private ColumnEncoder() {}
+
+  /**
+   * Serialize a column in the encoding that takes the fewest bytes.
+   *
+   * @param column the column
+   * @return a ColumnMessage holding the column
+   */
+  public static ColumnMessage encode(final Column<?> column) {
+    final ColumnMessage encoded = encodeCompact(column);
+    if (encoded != null) {
+      return encoded;
+    }
+    return column.serializeToProto();
+  }
+
+  /**
+   * Serialize a column as a constant, runs or deltas, if one of them takes fewer bytes than
+   * {@link Column#serializeToProto()}.
+   *
+   * @param column the column
+   * @return a ColumnMessage holding the column, or null if the column should be sent as it is
+   */
+  public static ColumnMessage encodeCompact(final Column<?> column) {
+    final int size = column.size();
+    final Type type = column.getType();
+    if (size < MIN_ROWS || type == Type.BLOB_TYPE) {
+      return null;
+    }
+    if (column instanceof ConstantValueColumn) {
+      return encodeConstant(column);
+    }
+
+    final BitSet runStarts = new BitSet(size);
+    runStarts.set(0);
+    int numRuns = 1;
+    for (int row = 1; row < size; ++row) {
+      if (!sameValue(column, row - 1, row)) {
+        runStarts.set(row);
+        ++numRuns;
+      }
+    }
+    if (numRuns == 1) {
+      return encodeConstant(column);
+    }
+
+    final int valueBytes = valueBytes(type);
+    long runLengthBytes = Long.MAX_VALUE;
+    if ((long) numRuns * RUN_LENGTH_RATIO <= size) {
+      runLengthBytes = (long) numRuns * (valueBytes + RUN_END_BYTES);
+    }
+    int bitWidth = 0;
+    long deltaBytes = Long.MAX_VALUE;
+    if (type == Type.INT_TYPE || type == Type.LONG_TYPE) {
+      bitWidth = deltaBitWidth(column);
+      final long bytes = ((long) (size - 1) * bitWidth + Byte.SIZE - 1) / Byte.SIZE;
+      if (bytes * DELTA_RATIO <= (long) size * valueBytes) {
+        deltaBytes = bytes;
+      }
+    }
+
+    if (deltaBytes < runLengthBytes) {
+      return encodeDeltas(column, bitWidth);
+    } else if (runLengthBytes != Long.MAX_VALUE) {
+      return encodeRuns(column, runStarts);
+    }
+    return null;
+  }
+
+  /**
+   * @param message a ColumnMessage
+   * @return true if the message is in one of the encodings chosen by {@link #encode(Column)}
+   */
+  public static boolean isEncoded(final ColumnMessage message) {
+    return message.hasConstantColumn() || message.hasRunLengthColumn() || message.hasDeltaColumn();
+  }
+
+  /**
+   * Deserialize a column serialized in one of the encodings chosen by {@link #encode(Column)}.
+   *
+   * @param message the ColumnMessage
+   * @param numTuples the number of rows in the column
+   * @return the column
+   */
+  public static Column<?> decode(final ColumnMessage message, final int numTuples) {
+    if (message.hasConstantColumn()) {
+      Column<?> value =
+          ColumnFactory.columnFromColumnMessage(message.getConstantColumn().getValue(), 1);
+      return new ConstantValueColumn(value.getObject(0), value.getType(), numTuples);
+    } else if (message.hasRunLengthColumn()) {
+      final RunLengthColumnMessage runs = message.getRunLengthColumn();
+      final List<Integer> runEndList = runs.getRunEndsList();
+      final int[] runEnds = new int[runEndList.size()];
+      for (int i = 0; i < runEnds.length; ++i) {
+        runEnds[i] = runEndList.get(i);
+      }
+      Preconditions.checkArgument(
+          runEnds.length > 0 && runEnds[runEnds.length - 1] == numTuples,
+          "run-length encoded column does not have %s rows",
+          numTuples);
+      return newRunLengthColumn(
+          ColumnFactory.columnFromColumnMessage(runs.getValues(), runEnds.length), runEnds);
+    } else if (message.hasDeltaColumn()) {
+      final Type type =
+          message.getType() == ColumnMessage.Type.INT ? Type.INT_TYPE : Type.LONG_TYPE;
+      return new DeltaProtoColumn(type, message.getDeltaColumn(), numTuples);
+    }
+    throw new IllegalArgumentException("ColumnMessage is not encoded");
+  }
+
+  /**
+   * Captures the type of the values of a {@link RunLengthColumn}.
+   *
+   * @param values the value of each run
+   * @param runEnds the row after the last row of each run
+   * @param <T> the type of the values
+   * @return the column
+   */
+  private static <T extends Comparable<?>> RunLengthColumn<T> newRunLengthColumn(
+      final Column<T> values, final int[] runEnds) {
+    return new RunLengthColumn<T>(values, runEnds);
+  }
+
+  /**
+   * @param type a type
+   * @return the number of bytes of a value of the type in the raw encoding, approximate for variable-length types
+   */
+  private static int valueBytes(final Type type) {
+    switch (type) {
+      case BOOLEAN_TYPE:
+        return 1;
+      case INT_TYPE:
+      case FLOAT_TYPE:
+        return Integer.SIZE / Byte.SIZE;
+      default:
+        return Long.SIZE / Byte.SIZE;
+    }
+  }
+
+  /**
+   * @param column a column
+   * @param row1 a row
+   * @param row2 another row
+   * @return true if the rows hold the same value. Floating-point values are compared bit for bit.
+   */
+  private static boolean sameValue(final Column<?> column, final int row1, final int row2) {
+    switch (column.getType()) {
+      case BOOLEAN_TYPE:
+        return column.getBoolean(row1) == column.getBoolean(row2);
+      case DATETIME_TYPE:
+        return column.getDateTime(row1).equals(column.getDateTime(row2));
+      case DOUBLE_TYPE:
+        return Double.doubleToRawLongBits(column.getDouble(row1))
+            == Double.doubleToRawLongBits(column.getDouble(row2));
+      case FLOAT_TYPE:
+        return Float.floatToRawIntBits(column.getFloat(row1))
+            == Float.floatToRawIntBits(column.getFloat(row2));
+      case INT_TYPE:
+        return column.getInt(row1) == column.getInt(row2);
+      case LONG_TYPE:
+        return column.getLong(row1) == column.getLong(row2);
+      case STRING_TYPE:
+        if (column instanceof DictionaryStringColumn) {
+          DictionaryStringColumn dictionaryColumn = (DictionaryStringColumn) column;
+          return dictionaryColumn.getCode(row1) == dictionaryColumn.getCode(row2);
+        }
+        return column.getString(row1).equals(column.getString(row2));
+      default:
+        throw new UnsupportedOperationException("Comparing values of type " + column.getType());
+    }
+  }
+
+  /**
+   * @param column an Int or Long column
+   * @param row a row
+   * @return the value of the row, as a long
+   */
+  private static long longValue(final Column<?> column, final int row) {
+    if (column.getType() == Type.INT_TYPE) {
+      return column.getInt(row);
+    }
+    return column.getLong(row);
+  }
+
+  /**
+   * @param delta a signed number
+   * @return the number with its sign moved to the lowest bit, so small negative numbers have few bits set
+   */
+  private static long zigzag(final long delta) {
+    return (delta << 1) ^ (delta >> (Long.SIZE - 1));
+  }
+
+  /**
+   * @param column an Int or Long column
+   * @return the number of bits needed to encode the difference between each row and the previous one
+   */
+  private static int deltaBitWidth(final Column<?> column) {
+    long bits = 0;
+    long previous = longValue(column, 0);
+    for (int row = 1; row < column.size(); ++row) {
+      final long value = longValue(column, row);
+      bits |= zigzag(value - previous);
+      previous = value;
+    }
+    return Long.SIZE - Long.numberOfLeadingZeros(bits);
+  }
+
+  /**
+   * @param column a column whose rows all hold the same value
+   * @return a ColumnMessage with a ConstantColumn member
+   */
+  private static ColumnMessage encodeConstant(final Column<?> column) {
+    final BitSet first = new BitSet(1);
+    first.set(0);
+    final ColumnMessage value = column.filter(first).serializeToProto();
+    return ColumnMessage.newBuilder()
+        .setType(value.getType())
+        .setConstantColumn(ConstantColumnMessage.newBuilder().setValue(value))
+        .build();
+  }
+
+  /**
+   * @param column a column
+   * @param runStarts the first row of each run
+   * @return a ColumnMessage with a RunLengthColumn member
+   */
+  private static ColumnMessage encodeRuns(final Column<?> column, final BitSet runStarts) {
+    final RunLengthColumnMessage.Builder inner = RunLengthColumnMessage.newBuilder();
+    for (int start = runStarts.nextSetBit(1); start >= 0; start = runStarts.nextSetBit(start + 1)) {
+      inner.addRunEnds(start);
+    }
+    inner.addRunEnds(column.size());
+    final ColumnMessage values = column.filter(runStarts).serializeToProto();
+    return ColumnMessage.newBuilder()
+        .setType(values.getType())
+        .setRunLengthColumn(inner.setValues(values))
+        .build();
+  }
+
+  /**
+   * @param column an Int or Long column
+   * @param bitWidth the number of bits of each zigzag-encoded difference
+   * @return a ColumnMessage with a DeltaColumn member
+   */
+  private static ColumnMessage encodeDeltas(final Column<?> column, final int bitWidth) {
+    final int size = column.size();
+    final byte[] data =
+        new byte[(int) (((long) (size - 1) * bitWidth + Byte.SIZE - 1) / Byte.SIZE)];
+    long bitPosition = 0;
+    long previous = longValue(column, 0);
+    for (int row = 1; row < size; ++row) {
+      final long value = longValue(column, row);
+      long bits = zigzag(value - previous);
+      previous = value;
+      int remaining = bitWidth;
+      while (remaining > 0) {
+        final int offset = (int) (bitPosition & (Byte.SIZE - 1));
+        final int n = Math.min(Byte.SIZE - offset, remaining);
+        data[(int) (bitPosition >>> 3)] |= (byte) ((bits & ((1L << n) - 1)) << offset);
+        bits >>>= n;
+        bitPosition += n;
+        remaining -= n;
+      }
+    }
+    final DeltaColumnMessage.Builder inner =
+        DeltaColumnMessage.newBuilder()
+            .setFirst(longValue(column, 0))
+            .setBitWidth(bitWidth)
+            .setData(ByteString.copyFrom(data));
+    return ColumnMessage.newBuilder()
+        .setType(
+            column.getType() == Type.INT_TYPE ? ColumnMessage.Type.INT : ColumnMessage.Type.LONG)
+        .setDeltaColumn(inner)
+        .build();
+  }
+
+  /**
+   * Decode the values of a delta-encoded column.
+   *
+   * @param message the encoded column
+   * @param size the number of rows
+   * @return the value of each row
+   */
+  static long[] decodeDeltas(final DeltaColumnMessage message, final int size) {
+    final long[] values = new long[size];
+    if (size == 0) {
+      return values;
+    }
+    final int bitWidth = message.getBitWidth();
+    final byte[] data = message.getData().toByteArray();
+    long bitPosition = 0;
+    long previous = message.getFirst();
+    values[0] = previous;
+    for (int row = 1; row < size; ++row) {
+      long bits = 0;
+      int read = 0;
+      while (read < bitWidth) {
+        final int offset = (int) (bitPosition & (Byte.SIZE - 1));
+        final int n = Math.min(Byte.SIZE - offset, bitWidth - read);
+        bits |= (((data[(int) (bitPosition >>> 3)] & 0xFF) >>> offset) & ((1L << n) - 1)) << read;
+        bitPosition += n;
+        read += n;
+      }
+      previous += (bits >>> 1) ^ -(bits & 1);
+      values[row] = previous;
+    }
+    return values;
+  }
+}
@@ -0,0 +1,76 @@
+package edu.washington.escience.myria.column;
+
+import com.google.common.base.Preconditions;
+
+import edu.washington.escience.myria.Type;
+import edu.washington.escience.myria.proto.DataProto.DeltaColumnMessage;
+
+/**
+ * An Int or Long column that wraps a delta-encoded Protobuf message. The message is decoded when the column is first
+ * read.
+ */
+public final class DeltaProtoColumn extends Column<Comparable<?>> {
+  /** Required for Java serialization. */
+  private static final long serialVersionUID = 1L;
+  /** The type of this column, INT or LONG. */
+  private final Type type;
+  /** The encoded values. */
+  private final DeltaColumnMessage message;
+  /** The number of rows in this column. */
+  private final int size;
+  /** The decoded values, null until the column is first read. */
+  private volatile long[] data;
+
+  /**
+   * @param type the type of this column, INT or LONG
+   * @param message the encoded values
+   * @param size the number of rows
+   */
+  public DeltaProtoColumn(final Type type, final DeltaColumnMessage message, final int size) {
+    Preconditions.checkArgument(
+        type == Type.INT_TYPE || type == Type.LONG_TYPE, "cannot delta-decode type %s", type);
+    this.type = type;
+    this.message = message;
+    this.size = size;
+  }
+
+  /** @return the decoded values. */
+  private long[] data() {
+    long[] values = data;
+    if (values == null) {
+      values = ColumnEncoder.decodeDeltas(message, size);
+      data = values;
+    }
+    return values;
+  }
+
+  @Override
+  public int getInt(final int row) {
+    Preconditions.checkState(type == Type.INT_TYPE, "not an INT column");
+    return (int) data()[Preconditions.checkElementIndex(row, size)];
+  }
+
+  @Override
+  public long getLong(final int row) {
+    Preconditions.checkState(type == Type.LONG_TYPE, "not a LONG column");
+    return data()[Preconditions.checkElementIndex(row, size)];
+  }
+
+  @Override
+  public Comparable<?> getObject(final int row) {
+    if (type == Type.INT_TYPE) {
+      return getInt(row);
+    }
+    return getLong(row);
+  }
+
+  @Override
+  public Type getType() {
+    return type;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+}
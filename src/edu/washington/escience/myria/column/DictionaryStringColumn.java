@@ -0,0 +1,127 @@
+package edu.washington.escience.myria.column;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+
+import com.google.common.base.Preconditions;
+import com.google.protobuf.ByteString;
+import com.gs.collections.impl.map.mutable.primitive.IntIntHashMap;
+
+import edu.washington.escience.myria.proto.DataProto.ColumnMessage;
+import edu.washington.escience.myria.proto.DataProto.DictionaryStringColumnMessage;
+import edu.washington.escience.myria.util.ImmutableIntArray;
+
+/**
+ * A column of String values stored as integer codes into a {@link StringDictionary}. Columns that repeat a small set
+ * of values take much less memory and network bandwidth this way, and can be compared and hashed by their codes.
+ */
+public final class DictionaryStringColumn extends StringColumn {
+  /** Required for Java serialization. */
+  private static final long serialVersionUID = 1L;
+  /** The values of the codes. */
+  private final StringDictionary dictionary;
+  /** The code of each row. */
+  private final int[] codes;
+  /** Number of elements in this column. */
+  private final int numStrings;
+
+  /**
+   * Constructs a new column.
+   *
+   * @param dictionary the values of the codes
+   * @param codes the code of each row
+   * @param numStrings number of tuples.
+   */
+  public DictionaryStringColumn(
+      final StringDictionary dictionary, final int[] codes, final int numStrings) {
+    this.dictionary = Preconditions.checkNotNull(dictionary, "dictionary");
+    this.codes = codes;
+    this.numStrings = numStrings;
+  }
+
+  @Override
+  public String getString(final int row) {
+    return dictionary.decode(getCode(row));
+  }
+
+  /**
+   * @param row a row
+   * @return the code of the value at the row
+   */
+  public int getCode(final int row) {
+    return codes[Preconditions.checkElementIndex(row, numStrings)];
+  }
+
+  /** @return the values of the codes. */
+  public StringDictionary getDictionary() {
+    return dictionary;
+  }
+
+  @Override
+  public int size() {
+    return numStrings;
+  }
+
+  @Override
+  public DictionaryStringColumn filter(final BitSet filter) {
+    int[] newCodes = new int[filter.cardinality()];
+    int row = 0;
+    for (int i = filter.nextSetBit(0); i >= 0; i = filter.nextSetBit(i + 1)) {
+      newCodes[row++] = codes[i];
+    }
+    return new DictionaryStringColumn(dictionary, newCodes, row);
+  }
+
+  @Override
+  public ColumnMessage serializeToProto() {
+    return serializeRows(codes, numStrings);
+  }
+
+  @Override
+  public ColumnMessage serializeToProto(final ImmutableIntArray validIndices) {
+    int[] validCodes = new int[validIndices.length()];
+    for (int i = 0; i < validCodes.length; ++i) {
+      validCodes[i] = getCode(validIndices.get(i));
+    }
+    return serializeRows(validCodes, validCodes.length);
+  }
+
+  /**
+   * Serialize some codes of this column. Only the values they use are sent, renumbered in order of first appearance,
+   * since the dictionary may be shared with many other columns. The renumbering map is sized by the values used, not by
+   * the dictionary.
+   *
+   * @param rowCodes the codes to serialize
+   * @param numRows the number of codes to serialize
+   * @return a ColumnMessage with a DictionaryStringColumn member.
+   */
+  private ColumnMessage serializeRows(final int[] rowCodes, final int numRows) {
+    final DictionaryStringColumnMessage.Builder inner = DictionaryStringColumnMessage.newBuilder();
+    final IntIntHashMap newCodes = new IntIntHashMap();
+    final ByteString.Output values = ByteString.newOutput();
+    final ByteBuffer codeBytes = ByteBuffer.allocate(numRows * Integer.SIZE / Byte.SIZE);
+    int numValues = 0;
+    int endP = 0;
+    for (int i = 0; i < numRows; ++i) {
+      final int code = rowCodes[i];
+      int newCode = newCodes.getIfAbsent(code, -1);
+      if (newCode == -1) {
+        newCode = numValues++;
+        newCodes.put(code, newCode);
+        final byte[] bytes = dictionary.decode(code).getBytes(StandardCharsets.UTF_8);
+        values.write(bytes, 0, bytes.length);
+        inner.addStartIndices(endP);
+        endP += bytes.length;
+        inner.addEndIndices(endP);
+      }
+      codeBytes.putInt(newCode);
+    }
+    codeBytes.flip();
+    inner.setValues(values.toByteString()).setCodes(ByteString.copyFrom(codeBytes));
+    return ColumnMessage.newBuilder()
+        .setType(ColumnMessage.Type.STRING)
+        .setDictionaryStringColumn(inner)
+        .build();
+  }
+}
@@ -0,0 +1,57 @@
+package edu.washington.escience.myria.column;
+
+import java.io.ObjectStreamException;
+import java.nio.DoubleBuffer;
+
+import edu.washington.escience.myria.Type;
+
+/**
+ * A column of Double values that wraps a buffer, e.g., a view of a received network frame, without copying it.
+ */
+public final class DoubleBufferColumn extends Column<Double> {
+  /** Required for Java serialization. */
+  private static final long serialVersionUID = 1L;
+  /** The values. Its position is 0 and its limit the number of rows. */
+  private final DoubleBuffer data;
+
+  /**
+   * Wraps the values between the position and the limit of a buffer. The buffer must not be modified afterwards.
+   *
+   * @param data the values
+   */
+  public DoubleBufferColumn(final DoubleBuffer data) {
+    this.data = data.slice();
+  }
+
+  @Override
+  public Double getObject(final int row) {
+    return Double.valueOf(getDouble(row));
+  }
+
+  @Override
+  public double getDouble(final int row) {
+    return data.get(row);
+  }
+
+  @Override
+  public Type getType() {
+    return Type.DOUBLE_TYPE;
+  }
+
+  @Override
+  public int size() {
+    return data.limit();
+  }
+
+  /**
+   * Buffers are not serializable, so serialize a copy of the values in an array.
+   *
+   * @return a {@link DoubleColumn} with the same values
+   * @throws ObjectStreamException never
+   */
+  private Object writeReplace() throws ObjectStreamException {
+    final double[] values = new double[size()];
+    data.duplicate().get(values);
+    return new DoubleColumn(values, values.length);
+  }
+}
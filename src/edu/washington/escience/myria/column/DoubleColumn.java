@@ -6,6 +6,7 @@ import com.google.common.base.Preconditions;
 
 import edu.washington.escience.myria.Schema;
 import edu.washington.escience.myria.Type;
+import edu.washington.escience.myria.column.builder.PrimitiveArrayPool;
 import edu.washington.escience.myria.storage.TupleUtils;
 
 /**
@@ -20,6 +21,8 @@ public final class DoubleColumn extends Column<Double> {
   private final double[] data;
   /** The number of existing rows in this column. */
   private final int position;
+  /** True once {@link #release()} has returned the data to the pool. */
+  private transient boolean released;
 
   /**
    * Constructs a new column.
@@ -61,6 +64,14 @@ public final class DoubleColumn extends Column<Double> {
     return position;
   }
 
+  @Override
+  public void release() {
+    if (!released) {
+      released = true;
+      PrimitiveArrayPool.release(data, position);
+    }
+  }
+
   @Override
   public String toString() {
     final StringBuilder sb = new StringBuilder();
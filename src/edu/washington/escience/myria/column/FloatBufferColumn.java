@@ -0,0 +1,57 @@
+package edu.washington.escience.myria.column;
+
+import java.io.ObjectStreamException;
+import java.nio.FloatBuffer;
+
+import edu.washington.escience.myria.Type;
+
+/**
+ * A column of Float values that wraps a buffer, e.g., a view of a received network frame, without copying it.
+ */
+public final class FloatBufferColumn extends Column<Float> {
+  /** Required for Java serialization. */
+  private static final long serialVersionUID = 1L;
+  /** The values. Its position is 0 and its limit the number of rows. */
+  private final FloatBuffer data;
+
+  /**
+   * Wraps the values between the position and the limit of a buffer. The buffer must not be modified afterwards.
+   *
+   * @param data the values
+   */
+  public FloatBufferColumn(final FloatBuffer data) {
+    this.data = data.slice();
+  }
+
+  @Override
+  public Float getObject(final int row) {
+    return Float.valueOf(getFloat(row));
+  }
+
+  @Override
+  public float getFloat(final int row) {
+    return data.get(row);
+  }
+
+  @Override
+  public Type getType() {
+    return Type.FLOAT_TYPE;
+  }
+
+  @Override
+  public int size() {
+    return data.limit();
+  }
+
+  /**
+   * Buffers are not serializable, so serialize a copy of the values in an array.
+   *
+   * @return a {@link FloatColumn} with the same values
+   * @throws ObjectStreamException never
+   */
+  private Object writeReplace() throws ObjectStreamException {
+    final float[] values = new float[size()];
+    data.duplicate().get(values);
+    return new FloatColumn(values, values.length);
+  }
+}
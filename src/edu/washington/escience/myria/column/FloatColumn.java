@@ -6,6 +6,7 @@ import com.google.common.base.Preconditions;
 
 import edu.washington.escience.myria.Schema;
 import edu.washington.escience.myria.Type;
+import edu.washington.escience.myria.column.builder.PrimitiveArrayPool;
 import edu.washington.escience.myria.storage.TupleUtils;
 
 /**
@@ -18,6 +19,8 @@ public final class FloatColumn extends Column<Float> {
   private final float[] data;
   /** The number of existing rows in this column. */
   private final int position;
+  /** True once {@link #release()} has returned the data to the pool. */
+  private transient boolean released;
 
   /**
    * Constructs a new column.
@@ -59,6 +62,14 @@ public final class FloatColumn extends Column<Float> {
     return position;
   }
 
+  @Override
+  public void release() {
+    if (!released) {
+      released = true;
+      PrimitiveArrayPool.release(data, position);
+    }
+  }
+
   @Override
   public String toString() {
     final StringBuilder sb = new StringBuilder();
@@ -2,6 +2,8 @@ package edu.washington.escience.myria.column;
 
 import com.google.common.base.Preconditions;
 
+import edu.washington.escience.myria.column.builder.PrimitiveArrayPool;
+
 /**
  * A column of Int values.
  *
@@ -16,6 +18,8 @@ public final class IntArrayColumn extends IntColumn {
   private final int[] data;
   /** The number of existing rows in this column. */
   private final int position;
+  /** True once {@link #release()} has returned the data to the pool. */
+  private transient boolean released;
 
   /**
    * Constructs a new column.
@@ -43,4 +47,12 @@ public final class IntArrayColumn extends IntColumn {
   public int size() {
     return position;
   }
+
+  @Override
+  public void release() {
+    if (!released) {
+      released = true;
+      PrimitiveArrayPool.release(data, position);
+    }
+  }
 }
@@ -0,0 +1,50 @@
+package edu.washington.escience.myria.column;
+
+import java.io.ObjectStreamException;
+import java.nio.IntBuffer;
+
+/**
+ * A column of Int values that wraps a buffer, e.g., a view of a received network frame, without copying it.
+ */
+public final class IntBufferColumn extends IntColumn {
+  /** Required for Java serialization. */
+  private static final long serialVersionUID = 1L;
+  /** The values. Its position is 0 and its limit the number of rows. */
+  private final IntBuffer data;
+
+  /**
+   * Wraps the values between the position and the limit of a buffer. The buffer must not be modified afterwards.
+   *
+   * @param data the values
+   */
+  public IntBufferColumn(final IntBuffer data) {
+    this.data = data.slice();
+  }
+
+  @Override
+  public Integer getObject(final int row) {
+    return Integer.valueOf(getInt(row));
+  }
+
+  @Override
+  public int getInt(final int row) {
+    return data.get(row);
+  }
+
+  @Override
+  public int size() {
+    return data.limit();
+  }
+
+  /**
+   * Buffers are not serializable, so serialize a copy of the values in an array.
+   *
+   * @return a {@link IntArrayColumn} with the same values
+   * @throws ObjectStreamException never
+   */
+  private Object writeReplace() throws ObjectStreamException {
+    final int[] values = new int[size()];
+    data.duplicate().get(values);
+    return new IntArrayColumn(values, values.length);
+  }
+}
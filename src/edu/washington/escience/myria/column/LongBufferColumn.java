@@ -0,0 +1,57 @@
+package edu.washington.escience.myria.column;
+
+import java.io.ObjectStreamException;
+import java.nio.LongBuffer;
+
+import edu.washington.escience.myria.Type;
+
+/**
+ * A column of Long values that wraps a buffer, e.g., a view of a received network frame, without copying it.
+ */
+public final class LongBufferColumn extends Column<Long> {
+  /** Required for Java serialization. */
+  private static final long serialVersionUID = 1L;
+  /** The values. Its position is 0 and its limit the number of rows. */
+  private final LongBuffer data;
+
+  /**
+   * Wraps the values between the position and the limit of a buffer. The buffer must not be modified afterwards.
+   *
+   * @param data the values
+   */
+  public LongBufferColumn(final LongBuffer data) {
+    this.data = data.slice();
+  }
+
+  @Override
+  public Long getObject(final int row) {
+    return Long.valueOf(getLong(row));
+  }
+
+  @Override
+  public long getLong(final int row) {
+    return data.get(row);
+  }
+
+  @Override
+  public Type getType() {
+    return Type.LONG_TYPE;
+  }
+
+  @Override
+  public int size() {
+    return data.limit();
+  }
+
+  /**
+   * Buffers are not serializable, so serialize a copy of the values in an array.
+   *
+   * @return a {@link LongColumn} with the same values
+   * @throws ObjectStreamException never
+   */
+  private Object writeReplace() throws ObjectStreamException {
+    final long[] values = new long[size()];
+    data.duplicate().get(values);
+    return new LongColumn(values, values.length);
+  }
+}
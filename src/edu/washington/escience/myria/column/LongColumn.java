@@ -3,6 +3,7 @@ package edu.washington.escience.myria.column;
 import com.google.common.base.Preconditions;
 
 import edu.washington.escience.myria.Type;
+import edu.washington.escience.myria.column.builder.PrimitiveArrayPool;
 
 /**
  * A column of Long values.
@@ -16,6 +17,8 @@ public final class LongColumn extends Column<Long> {
   private final long[] data;
   /** The number of existing rows in this column. */
   private final int position;
+  /** True once {@link #release()} has returned the data to the pool. */
+  private transient boolean released;
 
   /**
    * Constructs a new column.
@@ -49,6 +52,14 @@ public final class LongColumn extends Column<Long> {
     return position;
   }
 
+  @Override
+  public void release() {
+    if (!released) {
+      released = true;
+      PrimitiveArrayPool.release(data, position);
+    }
+  }
+
   @Override
   public String toString() {
     final StringBuilder sb = new StringBuilder();
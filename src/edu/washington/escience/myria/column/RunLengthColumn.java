@@ -0,0 +1,118 @@
+package edu.washington.escience.myria.column;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.joda.time.DateTime;
+
+import com.google.common.base.Preconditions;
+
+import edu.washington.escience.myria.Type;
+
+/**
+ * A column stored as runs of equal values, as received in a run-length encoded {@link ColumnEncoder} message. Each run
+ * is looked up when one of its rows is read; the values are never expanded.
+ *
+ * @param <T> type of the objects in this column.
+ */
+public final class RunLengthColumn<T extends Comparable<?>> extends Column<T> {
+  /** Required for Java serialization. */
+  private static final long serialVersionUID = 1L;
+  /** The value of each run. */
+  private final Column<T> values;
+  /** The row after the last row of each run, increasing. */
+  private final int[] runEnds;
+  /** The run of the last row read, to avoid searching when rows are read in order. */
+  private int lastRun;
+
+  /**
+   * @param values the value of each run
+   * @param runEnds the row after the last row of each run, increasing
+   */
+  public RunLengthColumn(final Column<T> values, final int[] runEnds) {
+    Preconditions.checkArgument(
+        values.size() == runEnds.length,
+        "%s run values but %s run ends",
+        values.size(),
+        runEnds.length);
+    this.values = values;
+    this.runEnds = runEnds;
+  }
+
+  /**
+   * @param row a row
+   * @return the run containing the row
+   */
+  private int run(final int row) {
+    Preconditions.checkElementIndex(row, size());
+    int run = lastRun;
+    if (runEnds[run] <= row || (run > 0 && runEnds[run - 1] > row)) {
+      run = Arrays.binarySearch(runEnds, row + 1);
+      if (run < 0) {
+        run = -run - 1;
+      }
+      lastRun = run;
+    }
+    return run;
+  }
+
+  /** @return the number of runs. */
+  public int numRuns() {
+    return runEnds.length;
+  }
+
+  @Override
+  public boolean getBoolean(final int row) {
+    return values.getBoolean(run(row));
+  }
+
+  @Override
+  public DateTime getDateTime(final int row) {
+    return values.getDateTime(run(row));
+  }
+
+  @Override
+  public double getDouble(final int row) {
+    return values.getDouble(run(row));
+  }
+
+  @Override
+  public float getFloat(final int row) {
+    return values.getFloat(run(row));
+  }
+
+  @Override
+  public int getInt(final int row) {
+    return values.getInt(run(row));
+  }
+
+  @Override
+  public long getLong(final int row) {
+    return values.getLong(run(row));
+  }
+
+  @Override
+  public String getString(final int row) {
+    return values.getString(run(row));
+  }
+
+  @Override
+  public ByteBuffer getBlob(final int row) {
+    return values.getBlob(run(row));
+  }
+
+  @Override
+  public T getObject(final int row) {
+    return values.getObject(run(row));
+  }
+
+  @Override
+  public Type getType() {
+    return values.getType();
+  }
+
+  @Override
+  public int size() {
+    return runEnds.length == 0 ? 0 : runEnds[runEnds.length - 1];
+  }
+}
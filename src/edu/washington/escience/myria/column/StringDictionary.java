@@ -0,0 +1,122 @@
+package edu.washington.escience.myria.column;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.google.common.base.Preconditions;
+
+import edu.washington.escience.myria.util.HashUtils;
+
+/**
+ * The distinct values of one or more {@link DictionaryStringColumn}s, each identified by an integer code. Codes are
+ * assigned in order of first appearance and never change, so columns built from the same dictionary can be compared
+ * and hashed by their codes.
+ *
+ * A dictionary may only be extended by one thread at a time, typically the thread of the operator that builds the
+ * columns. Columns built from it can be read by any thread.
+ */
+public final class StringDictionary implements Serializable {
+  /** Required for Java serialization. */
+  private static final long serialVersionUID = 1L;
+  /** The initial capacity of {@link #values}. */
+  private static final int INITIAL_CAPACITY = 64;
+  /**
+   * The number of values past which a scan stops adding the values of a column to the dictionary that it shares across
+   * batches, so that a column with mostly distinct values does not keep all of them in memory.
+   */
+  public static final int MAX_SHARED_SIZE = 1 << 16;
+
+  /** The code of each value. */
+  private final ConcurrentHashMap<String, Integer> codes;
+  /** The value of each code. Replaced by a larger copy when it is full. */
+  private volatile String[] values;
+  /** The number of values. */
+  private volatile int size;
+  /** For each hash function, the hash code of every value, computed when first needed. */
+  private final AtomicReferenceArray<int[]> hashCodes;
+
+  /** Constructs an empty dictionary. */
+  public StringDictionary() {
+    codes = new ConcurrentHashMap<>();
+    values = new String[INITIAL_CAPACITY];
+    size = 0;
+    hashCodes = new AtomicReferenceArray<>(HashUtils.NUM_OF_HASHFUNCTIONS);
+  }
+
+  /**
+   * Returns the code of a value, adding the value to the dictionary if it is not already there.
+   *
+   * @param value the value
+   * @return the code of the value
+   */
+  public int encode(final String value) {
+    Preconditions.checkNotNull(value, "value");
+    Integer code = codes.get(value);
+    if (code != null) {
+      return code;
+    }
+    final int newCode = size;
+    String[] current = values;
+    if (newCode == current.length) {
+      current = Arrays.copyOf(current, current.length * 2);
+    }
+    current[newCode] = value;
+    values = current;
+    size = newCode + 1;
+    codes.put(value, newCode);
+    return newCode;
+  }
+
+  /**
+   * @param value a value
+   * @return the code of the value, or -1 if it is not in the dictionary
+   */
+  public int lookup(final String value) {
+    Integer code = codes.get(value);
+    if (code == null) {
+      return -1;
+    }
+    return code;
+  }
+
+  /**
+   * @param code a code
+   * @return the value of the code
+   */
+  public String decode(final int code) {
+    Preconditions.checkElementIndex(code, size);
+    return values[code];
+  }
+
+  /**
+   * Returns the hash code of a value, as computed by {@link HashUtils#hashString(String, int)}. The hash code of each
+   * value is computed only once per hash function.
+   *
+   * @param code the code of the value
+   * @param seedIndex the index of the hash function
+   * @return the hash code of the value
+   */
+  public int hashCode(final int code, final int seedIndex) {
+    int[] hashes = hashCodes.get(seedIndex);
+    if (hashes == null || code >= hashes.length) {
+      final int n = size;
+      Preconditions.checkElementIndex(code, n);
+      final String[] current = values;
+      final int from = hashes == null ? 0 : hashes.length;
+      final int[] newHashes = hashes == null ? new int[n] : Arrays.copyOf(hashes, n);
+      for (int i = from; i < n; ++i) {
+        newHashes[i] = HashUtils.hashString(current[i], seedIndex);
+      }
+      hashCodes.set(seedIndex, newHashes);
+      hashes = newHashes;
+    }
+    return hashes[code];
+  }
+
+  /** @return the number of values in the dictionary. */
+  public int size() {
+    return size;
+  }
+}
@@ -138,6 +138,12 @@ public abstract class ColumnBuilder<T extends Comparable<?>>
    */
   public abstract MutableColumn<T> buildMutable();
 
+  /**
+   * Discard this builder without building a column, returning its storage to the {@link PrimitiveArrayPool} if it has
+   * any. The builder must not be used afterwards. No-op if the builder has already built a column.
+   */
+  public void release() {}
+
   /**
    * expand some size.
    *
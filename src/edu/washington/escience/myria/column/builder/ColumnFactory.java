@@ -6,6 +6,8 @@ import java.util.List;
 import edu.washington.escience.myria.Schema;
 import edu.washington.escience.myria.Type;
 import edu.washington.escience.myria.column.Column;
+import edu.washington.escience.myria.column.ColumnEncoder;
+import edu.washington.escience.myria.column.StringDictionary;
 import edu.washington.escience.myria.proto.DataProto.ColumnMessage;
 
 /**
@@ -43,6 +45,32 @@ public final class ColumnFactory {
     throw new IllegalArgumentException("Cannot allocate a ColumnBuilder for unknown type " + type);
   }
 
+  /**
+   * @param type the type of the column
+   * @return the class of the ColumnBuilder that {@link #allocateColumn(Type)} returns for the type
+   */
+  public static Class<? extends ColumnBuilder<?>> builderClass(final Type type) {
+    switch (type) {
+      case BOOLEAN_TYPE:
+        return BooleanColumnBuilder.class;
+      case DOUBLE_TYPE:
+        return DoubleColumnBuilder.class;
+      case FLOAT_TYPE:
+        return FloatColumnBuilder.class;
+      case INT_TYPE:
+        return IntColumnBuilder.class;
+      case LONG_TYPE:
+        return LongColumnBuilder.class;
+      case STRING_TYPE:
+        return StringColumnBuilder.class;
+      case DATETIME_TYPE:
+        return DateTimeColumnBuilder.class;
+      case BLOB_TYPE:
+        return BlobColumnBuilder.class;
+    }
+    throw new IllegalArgumentException("No ColumnBuilder for unknown type " + type);
+  }
+
   /**
    * Allocates an array of Columns to match the given Schema.
    *
@@ -67,6 +95,48 @@ public final class ColumnFactory {
     return columns;
   }
 
+  /**
+   * @param schema the Schema
+   * @return a new dictionary for each String column of the schema, null for the other columns
+   */
+  public static StringDictionary[] allocateDictionaries(final Schema schema) {
+    final StringDictionary[] dictionaries = new StringDictionary[schema.numColumns()];
+    for (int i = 0; i < dictionaries.length; ++i) {
+      if (schema.getColumnType(i) == Type.STRING_TYPE) {
+        dictionaries[i] = new StringDictionary();
+      }
+    }
+    return dictionaries;
+  }
+
+  /**
+   * Allocates an array of Columns to match the given Schema, building the String columns that have a dictionary as
+   * {@link edu.washington.escience.myria.column.DictionaryStringColumn}s. A scan passes the same dictionaries for all
+   * its batches so that their codes can be compared. A dictionary that holds more than
+   * {@link StringDictionary#MAX_SHARED_SIZE} values is removed from the array first, and its column is built as plain
+   * Strings from then on.
+   *
+   * @param schema the Schema
+   * @param dictionaries the dictionary of each column, see {@link #allocateDictionaries(Schema)}
+   * @return the list of Columns
+   */
+  public static List<ColumnBuilder<?>> allocateColumns(
+      final Schema schema, final StringDictionary[] dictionaries) {
+    final ArrayList<ColumnBuilder<?>> columns =
+        new ArrayList<ColumnBuilder<?>>(dictionaries.length);
+    for (int i = 0; i < dictionaries.length; ++i) {
+      if (dictionaries[i] != null && dictionaries[i].size() > StringDictionary.MAX_SHARED_SIZE) {
+        dictionaries[i] = null;
+      }
+      if (dictionaries[i] != null) {
+        columns.add(new DictionaryStringColumnBuilder(dictionaries[i]));
+      } else {
+        columns.add(allocateColumn(schema.getColumnType(i)));
+      }
+    }
+    return columns;
+  }
+
   /**
    * Deserializes a ColumnMessage into the appropriate Column.
    *
@@ -76,6 +146,9 @@ public final class ColumnFactory {
    */
   public static Column<?> columnFromColumnMessage(
       final ColumnMessage message, final int numTuples) {
+    if (ColumnEncoder.isEncoded(message)) {
+      return ColumnEncoder.decode(message, numTuples);
+    }
     switch (message.getType()) {
       case BOOLEAN:
         return BooleanColumnBuilder.buildFromProtobuf(message, numTuples);
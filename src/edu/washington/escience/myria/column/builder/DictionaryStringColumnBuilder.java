@@ -0,0 +1,213 @@
+package edu.washington.escience.myria.column.builder;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import com.almworks.sqlite4java.SQLiteException;
+import com.almworks.sqlite4java.SQLiteStatement;
+import com.google.common.base.Preconditions;
+
+import edu.washington.escience.myria.Type;
+import edu.washington.escience.myria.column.DictionaryStringColumn;
+import edu.washington.escience.myria.column.StringDictionary;
+import edu.washington.escience.myria.column.mutable.StringMutableColumn;
+import edu.washington.escience.myria.proto.DataProto.ColumnMessage;
+import edu.washington.escience.myria.proto.DataProto.DictionaryStringColumnMessage;
+import edu.washington.escience.myria.storage.TupleUtils;
+import edu.washington.escience.myria.util.MyriaUtils;
+
+/**
+ * Builds a {@link DictionaryStringColumn}. Builders that share a {@link StringDictionary} produce columns whose codes
+ * can be compared with each other.
+ */
+public final class DictionaryStringColumnBuilder extends ColumnBuilder<String> {
+
+  /** The values of the codes. */
+  private final StringDictionary dictionary;
+  /** The code of each row. */
+  private final int[] codes;
+  /** Number of elements in this column. */
+  private int numStrings;
+
+  /**
+   * If the builder has built the column.
+   */
+  private boolean built = false;
+
+  /** Constructs an empty column with a new dictionary that can hold up to TupleBatch.BATCH_SIZE elements. */
+  public DictionaryStringColumnBuilder() {
+    this(new StringDictionary());
+  }
+
+  /**
+   * Constructs an empty column that can hold up to TupleBatch.BATCH_SIZE elements.
+   *
+   * @param dictionary the dictionary to add the values to
+   */
+  public DictionaryStringColumnBuilder(final StringDictionary dictionary) {
+    this(dictionary, new int[TupleUtils.getBatchSize(Type.STRING_TYPE)], 0);
+  }
+
+  /**
+   * copy.
+   *
+   * @param dictionary the values of the codes
+   * @param codes the code of each row
+   * @param numStrings the actual num strings in the data
+   */
+  private DictionaryStringColumnBuilder(
+      final StringDictionary dictionary, final int[] codes, final int numStrings) {
+    this.dictionary = Objects.requireNonNull(dictionary, "dictionary");
+    this.codes = codes;
+    this.numStrings = numStrings;
+  }
+
+  /**
+   * Constructs a DictionaryStringColumn by deserializing the given ColumnMessage. The column gets its own dictionary.
+   *
+   * @param message a ColumnMessage containing the contents of this column.
+   * @param numTuples num tuples in the column message
+   * @return the built column
+   */
+  public static DictionaryStringColumn buildFromProtobuf(
+      final ColumnMessage message, final int numTuples) {
+    Preconditions.checkArgument(
+        message.getType().ordinal() == ColumnMessage.Type.STRING_VALUE,
+        "Trying to construct DictionaryStringColumn from non-STRING ColumnMessage %s",
+        message.getType());
+    Preconditions.checkArgument(
+        message.hasDictionaryStringColumn(),
+        "ColumnMessage has type STRING but no DictionaryStringColumn");
+    final DictionaryStringColumnMessage dictionaryColumn = message.getDictionaryStringColumn();
+    final List<Integer> startIndices = dictionaryColumn.getStartIndicesList();
+    final List<Integer> endIndices = dictionaryColumn.getEndIndicesList();
+    final String allValues = dictionaryColumn.getValues().toStringUtf8();
+    final StringDictionary dictionary = new StringDictionary();
+    for (int i = 0; i < startIndices.size(); i++) {
+      dictionary.encode(allValues.substring(startIndices.get(i), endIndices.get(i)));
+    }
+    final int[] newCodes = new int[numTuples];
+    final IntBuffer codeBuffer =
+        ByteBuffer.wrap(dictionaryColumn.getCodes().toByteArray()).asIntBuffer();
+    codeBuffer.get(newCodes);
+    return new DictionaryStringColumn(dictionary, newCodes, numTuples);
+  }
+
+  @Override
+  public DictionaryStringColumnBuilder appendString(final String value)
+      throws BufferOverflowException {
+    Preconditions.checkState(
+        !built, "No further changes are allowed after the builder has built the column.");
+    if (numStrings >= codes.length) {
+      throw new BufferOverflowException();
+    }
+    codes[numStrings++] = dictionary.encode(value);
+    return this;
+  }
+
+  @Override
+  public Type getType() {
+    return Type.STRING_TYPE;
+  }
+
+  @Override
+  public DictionaryStringColumnBuilder appendFromJdbc(
+      final ResultSet resultSet, final int jdbcIndex) throws SQLException, BufferOverflowException {
+    return appendString(resultSet.getString(jdbcIndex));
+  }
+
+  @Override
+  public DictionaryStringColumnBuilder appendFromSQLite(
+      final SQLiteStatement statement, final int index)
+      throws SQLiteException, BufferOverflowException {
+    return appendString(statement.columnString(index));
+  }
+
+  @Override
+  public int size() {
+    return numStrings;
+  }
+
+  @Override
+  public DictionaryStringColumn build() {
+    built = true;
+    return new DictionaryStringColumn(dictionary, codes, numStrings);
+  }
+
+  @Override
+  public StringMutableColumn buildMutable() {
+    built = true;
+    String[] data = new String[codes.length];
+    for (int i = 0; i < numStrings; ++i) {
+      data[i] = dictionary.decode(codes[i]);
+    }
+    return new StringMutableColumn(data, numStrings);
+  }
+
+  @Override
+  public void replaceString(final String value, final int row) throws IndexOutOfBoundsException {
+    Preconditions.checkState(
+        !built, "No further changes are allowed after the builder has built the column.");
+    Preconditions.checkElementIndex(row, numStrings);
+    Objects.requireNonNull(value, "value");
+    codes[row] = dictionary.encode(value);
+  }
+
+  /**
+   * Expanded rows hold the empty string.
+   *
+   * {@inheritDoc}
+   */
+  @Override
+  public DictionaryStringColumnBuilder expand(final int size) throws BufferOverflowException {
+    Preconditions.checkState(
+        !built, "No further changes are allowed after the builder has built the column.");
+    Preconditions.checkArgument(size >= 0);
+    if (numStrings + size > codes.length) {
+      throw new BufferOverflowException();
+    }
+    Arrays.fill(codes, numStrings, numStrings + size, dictionary.encode(""));
+    numStrings += size;
+    return this;
+  }
+
+  /**
+   * Expanded rows hold the empty string.
+   *
+   * {@inheritDoc}
+   */
+  @Override
+  public DictionaryStringColumnBuilder expandAll() {
+    return expand(codes.length - numStrings);
+  }
+
+  @Override
+  public String getObject(final int row) {
+    return getString(row);
+  }
+
+  @Override
+  public String getString(final int row) {
+    Preconditions.checkElementIndex(row, numStrings);
+    return dictionary.decode(codes[row]);
+  }
+
+  @Deprecated
+  @Override
+  public ColumnBuilder<String> appendObject(final Object value) throws BufferOverflowException {
+    return appendString((String) MyriaUtils.ensureObjectIsValidType(value));
+  }
+
+  @Override
+  public DictionaryStringColumnBuilder forkNewBuilder() {
+    int[] newCodes = new int[codes.length];
+    System.arraycopy(codes, 0, newCodes, 0, numStrings);
+    return new DictionaryStringColumnBuilder(dictionary, newCodes, numStrings);
+  }
+}
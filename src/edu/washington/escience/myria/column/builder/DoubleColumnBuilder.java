@@ -33,7 +33,7 @@ public final class DoubleColumnBuilder extends ColumnBuilder<Double> {
 
   /** Constructs an empty column that can hold up to TupleBatch.BATCH_SIZE elements. */
   public DoubleColumnBuilder() {
-    data = DoubleBuffer.allocate(TupleUtils.getBatchSize(Type.DOUBLE_TYPE));
+    data = DoubleBuffer.wrap(PrimitiveArrayPool.takeDoubles());
   }
 
   /**
@@ -133,6 +133,14 @@ public final class DoubleColumnBuilder extends ColumnBuilder<Double> {
     return new DoubleColumn(data.array(), data.position());
   }
 
+  @Override
+  public void release() {
+    if (!built) {
+      built = true;
+      PrimitiveArrayPool.release(data.array(), data.position());
+    }
+  }
+
   @Override
   public DoubleMutableColumn buildMutable() {
     built = true;
@@ -160,7 +168,12 @@ public final class DoubleColumnBuilder extends ColumnBuilder<Double> {
 
   @Override
   public DoubleColumnBuilder forkNewBuilder() {
-    double[] arr = new double[data.array().length];
+    double[] arr;
+    if (data.capacity() == TupleUtils.getBatchSize(Type.DOUBLE_TYPE)) {
+      arr = PrimitiveArrayPool.takeDoubles();
+    } else {
+      arr = new double[data.capacity()];
+    }
     System.arraycopy(data.array(), 0, arr, 0, data.position());
     return new DoubleColumnBuilder(
         (DoubleBuffer) DoubleBuffer.wrap(arr).position(data.position()).limit(data.limit()));
@@ -33,7 +33,7 @@ public final class FloatColumnBuilder extends ColumnBuilder<Float> {
 
   /** Constructs an empty column that can hold up to TupleBatch.BATCH_SIZE elements. */
   public FloatColumnBuilder() {
-    data = FloatBuffer.allocate(TupleUtils.getBatchSize(Type.FLOAT_TYPE));
+    data = FloatBuffer.wrap(PrimitiveArrayPool.takeFloats());
   }
 
   /**
@@ -116,6 +116,14 @@ public final class FloatColumnBuilder extends ColumnBuilder<Float> {
     return new FloatColumn(data.array(), data.position());
   }
 
+  @Override
+  public void release() {
+    if (!built) {
+      built = true;
+      PrimitiveArrayPool.release(data.array(), data.position());
+    }
+  }
+
   @Override
   public FloatMutableColumn buildMutable() {
     built = true;
@@ -160,7 +168,12 @@ public final class FloatColumnBuilder extends ColumnBuilder<Float> {
 
   @Override
   public FloatColumnBuilder forkNewBuilder() {
-    float[] arr = new float[data.array().length];
+    float[] arr;
+    if (data.capacity() == TupleUtils.getBatchSize(Type.FLOAT_TYPE)) {
+      arr = PrimitiveArrayPool.takeFloats();
+    } else {
+      arr = new float[data.capacity()];
+    }
     System.arraycopy(data.array(), 0, arr, 0, data.position());
     return new FloatColumnBuilder(
         (FloatBuffer) FloatBuffer.wrap(arr).position(data.position()).limit(data.limit()));
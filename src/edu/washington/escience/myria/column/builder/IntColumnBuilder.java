@@ -34,7 +34,7 @@ public final class IntColumnBuilder extends ColumnBuilder<Integer> {
 
   /** Constructs an empty column that can hold up to TupleBatch.BATCH_SIZE elements. */
   public IntColumnBuilder() {
-    data = IntBuffer.allocate(TupleUtils.getBatchSize(Type.INT_TYPE));
+    data = IntBuffer.wrap(PrimitiveArrayPool.takeInts());
   }
 
   /**
@@ -112,6 +112,14 @@ public final class IntColumnBuilder extends ColumnBuilder<Integer> {
     return new IntArrayColumn(data.array(), data.position());
   }
 
+  @Override
+  public void release() {
+    if (!built) {
+      built = true;
+      PrimitiveArrayPool.release(data.array(), data.position());
+    }
+  }
+
   @Override
   public IntMutableColumn buildMutable() {
     built = true;
@@ -156,7 +164,12 @@ public final class IntColumnBuilder extends ColumnBuilder<Integer> {
 
   @Override
   public IntColumnBuilder forkNewBuilder() {
-    int[] arr = new int[data.array().length];
+    int[] arr;
+    if (data.capacity() == TupleUtils.getBatchSize(Type.INT_TYPE)) {
+      arr = PrimitiveArrayPool.takeInts();
+    } else {
+      arr = new int[data.capacity()];
+    }
     System.arraycopy(data.array(), 0, arr, 0, data.position());
     return new IntColumnBuilder(
         (IntBuffer) IntBuffer.wrap(arr).position(data.position()).limit(data.limit()));
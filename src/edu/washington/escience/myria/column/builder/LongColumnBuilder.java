@@ -33,7 +33,7 @@ public final class LongColumnBuilder extends ColumnBuilder<Long> {
 
   /** Constructs an empty column that can hold up to TupleBatch.BATCH_SIZE elements. */
   public LongColumnBuilder() {
-    data = LongBuffer.allocate(TupleUtils.getBatchSize(Type.LONG_TYPE));
+    data = LongBuffer.wrap(PrimitiveArrayPool.takeLongs());
   }
 
   /**
@@ -116,6 +116,14 @@ public final class LongColumnBuilder extends ColumnBuilder<Long> {
     return new LongColumn(data.array(), data.position());
   }
 
+  @Override
+  public void release() {
+    if (!built) {
+      built = true;
+      PrimitiveArrayPool.release(data.array(), data.position());
+    }
+  }
+
   @Override
   public LongMutableColumn buildMutable() {
     built = true;
@@ -160,8 +168,13 @@ public final class LongColumnBuilder extends ColumnBuilder<Long> {
 
   @Override
   public LongColumnBuilder forkNewBuilder() {
-    long[] arr = new long[data.array().length];
-    System.arraycopy(data.array(), 0, arr, 0, arr.length);
+    long[] arr;
+    if (data.capacity() == TupleUtils.getBatchSize(Type.LONG_TYPE)) {
+      arr = PrimitiveArrayPool.takeLongs();
+    } else {
+      arr = new long[data.capacity()];
+    }
+    System.arraycopy(data.array(), 0, arr, 0, data.position());
     return new LongColumnBuilder(
         (LongBuffer) LongBuffer.wrap(arr).position(data.position()).limit(data.limit()));
   }
@@ -0,0 +1,198 @@
+package edu.washington.escience.myria.column.builder;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import edu.washington.escience.myria.Type;
+import edu.washington.escience.myria.storage.TupleUtils;
+
+/**
+ * A pool of the primitive arrays that back {@link IntColumnBuilder}, {@link LongColumnBuilder},
+ * {@link FloatColumnBuilder} and {@link DoubleColumnBuilder}. There is one pool per worker process, shared by all its
+ * queries.
+ *
+ * {@link ColumnBuilder#build()} hands its array to the column without copying. Arrays come back to the pool when their
+ * owner is done with them: {@link edu.washington.escience.myria.storage.TupleBatch#release()} returns the arrays of a
+ * batch that nothing else references, e.g., once a producer has sent it to another worker,
+ * {@link edu.washington.escience.myria.storage.MutableTupleBuffer#clear()} returns those of a hash table at EOS, and
+ * {@link ColumnBuilder#release()} returns that of an unbuilt builder.
+ *
+ * Only arrays of {@link TupleUtils#getBatchSize(Type)} elements are pooled, and at most {@link #MAX_POOLED_ARRAYS} of
+ * each type.
+ */
+public final class PrimitiveArrayPool {
+  /** The maximum number of arrays of each type in the pool. */
+  public static final int MAX_POOLED_ARRAYS = 64;
+
+  /** The pooled int arrays. */
+  private static final Pool<int[]> INTS = new Pool<>();
+  /** The pooled long arrays. */
+  private static final Pool<long[]> LONGS = new Pool<>();
+  /** The pooled float arrays. */
+  private static final Pool<float[]> FLOATS = new Pool<>();
+  /** The pooled double arrays. */
+  private static final Pool<double[]> DOUBLES = new Pool<>();
+
+  /** Utility classes cannot be constructed. */
+  private PrimitiveArrayPool() {}
+
+  /**
+   * A bounded, thread-safe pool of arrays of one type.
+   *
+   * @param <A> the type of the arrays
+   */
+  private static final class Pool<A> {
+    /** The arrays. */
+    private final ConcurrentLinkedQueue<A> arrays = new ConcurrentLinkedQueue<>();
+    /** The number of arrays, kept separately since {@link ConcurrentLinkedQueue#size()} is linear. */
+    private final AtomicInteger size = new AtomicInteger();
+
+    /** @return an array from the pool, or null if it is empty. */
+    A poll() {
+      A array = arrays.poll();
+      if (array != null) {
+        size.decrementAndGet();
+      }
+      return array;
+    }
+
+    /**
+     * Add an array to the pool, unless it is full.
+     *
+     * @param array the array
+     */
+    void offer(final A array) {
+      if (size.incrementAndGet() > MAX_POOLED_ARRAYS) {
+        size.decrementAndGet();
+        return;
+      }
+      arrays.offer(array);
+    }
+
+    /** @return the number of arrays in the pool. */
+    int size() {
+      return size.get();
+    }
+
+    /** Empty the pool. */
+    void clear() {
+      while (poll() != null) {
+        /* Drain. */
+      }
+    }
+  }
+
+  /** @return a zeroed int array of {@link TupleUtils#getBatchSize(Type)} elements. */
+  static int[] takeInts() {
+    final int length = TupleUtils.getBatchSize(Type.INT_TYPE);
+    int[] array = INTS.poll();
+    return array != null && array.length == length ? array : new int[length];
+  }
+
+  /** @return a zeroed long array of {@link TupleUtils#getBatchSize(Type)} elements. */
+  static long[] takeLongs() {
+    final int length = TupleUtils.getBatchSize(Type.LONG_TYPE);
+    long[] array = LONGS.poll();
+    return array != null && array.length == length ? array : new long[length];
+  }
+
+  /** @return a zeroed float array of {@link TupleUtils#getBatchSize(Type)} elements. */
+  static float[] takeFloats() {
+    final int length = TupleUtils.getBatchSize(Type.FLOAT_TYPE);
+    float[] array = FLOATS.poll();
+    return array != null && array.length == length ? array : new float[length];
+  }
+
+  /** @return a zeroed double array of {@link TupleUtils#getBatchSize(Type)} elements. */
+  static double[] takeDoubles() {
+    final int length = TupleUtils.getBatchSize(Type.DOUBLE_TYPE);
+    double[] array = DOUBLES.poll();
+    return array != null && array.length == length ? array : new double[length];
+  }
+
+  /**
+   * Return an array to the pool, if it has {@link TupleUtils#getBatchSize(Type)} elements. Nothing may reference the
+   * array afterwards.
+   *
+   * @param array the array
+   * @param used the number of leading elements that may be non-zero
+   */
+  public static void release(final int[] array, final int used) {
+    if (array.length == TupleUtils.getBatchSize(Type.INT_TYPE)) {
+      Arrays.fill(array, 0, used, 0);
+      INTS.offer(array);
+    }
+  }
+
+  /**
+   * Return an array to the pool, if it has {@link TupleUtils#getBatchSize(Type)} elements. Nothing may reference the
+   * array afterwards.
+   *
+   * @param array the array
+   * @param used the number of leading elements that may be non-zero
+   */
+  public static void release(final long[] array, final int used) {
+    if (array.length == TupleUtils.getBatchSize(Type.LONG_TYPE)) {
+      Arrays.fill(array, 0, used, 0L);
+      LONGS.offer(array);
+    }
+  }
+
+  /**
+   * Return an array to the pool, if it has {@link TupleUtils#getBatchSize(Type)} elements. Nothing may reference the
+   * array afterwards.
+   *
+   * @param array the array
+   * @param used the number of leading elements that may be non-zero
+   */
+  public static void release(final float[] array, final int used) {
+    if (array.length == TupleUtils.getBatchSize(Type.FLOAT_TYPE)) {
+      Arrays.fill(array, 0, used, 0f);
+      FLOATS.offer(array);
+    }
+  }
+
+  /**
+   * Return an array to the pool, if it has {@link TupleUtils#getBatchSize(Type)} elements. Nothing may reference the
+   * array afterwards.
+   *
+   * @param array the array
+   * @param used the number of leading elements that may be non-zero
+   */
+  public static void release(final double[] array, final int used) {
+    if (array.length == TupleUtils.getBatchSize(Type.DOUBLE_TYPE)) {
+      Arrays.fill(array, 0, used, 0d);
+      DOUBLES.offer(array);
+    }
+  }
+
+  /**
+   * @param type a column type
+   * @return the number of pooled arrays for the type, 0 if arrays of the type are not pooled
+   */
+  public static int numPooled(final Type type) {
+    switch (type) {
+      case INT_TYPE:
+        return INTS.size();
+      case LONG_TYPE:
+        return LONGS.size();
+      case FLOAT_TYPE:
+        return FLOATS.size();
+      case DOUBLE_TYPE:
+        return DOUBLES.size();
+      default:
+        return 0;
+    }
+  }
+
+  /**
+   * Empty the pool, leaving the arrays to the garbage collector.
+   */
+  public static void clear() {
+    INTS.clear();
+    LONGS.clear();
+    FLOATS.clear();
+    DOUBLES.clear();
+  }
+}
@@ -9,8 +9,10 @@ import java.util.Objects;
 import com.almworks.sqlite4java.SQLiteException;
 import com.almworks.sqlite4java.SQLiteStatement;
 import com.google.common.base.Preconditions;
+import com.google.protobuf.ByteString;
 
 import edu.washington.escience.myria.Type;
+import edu.washington.escience.myria.column.DictionaryStringColumn;
 import edu.washington.escience.myria.column.StringArrayColumn;
 import edu.washington.escience.myria.column.StringColumn;
 import edu.washington.escience.myria.column.mutable.StringMutableColumn;
@@ -54,7 +56,8 @@ public final class StringColumnBuilder extends ColumnBuilder<String> {
   }
 
   /**
-   * Constructs a StringColumn by deserializing the given ColumnMessage.
+   * Constructs a StringColumn by deserializing the given ColumnMessage. Dictionary-encoded messages produce a
+   * {@link DictionaryStringColumn}.
    *
    * @param message a ColumnMessage containing the contents of this column.
    * @param numTuples num tuples in the column message
@@ -65,15 +68,19 @@ public final class StringColumnBuilder extends ColumnBuilder<String> {
         message.getType().ordinal() == ColumnMessage.Type.STRING_VALUE,
         "Trying to construct StringColumn from non-STRING ColumnMessage %s",
         message.getType());
+    if (message.hasDictionaryStringColumn()) {
+      return DictionaryStringColumnBuilder.buildFromProtobuf(message, numTuples);
+    }
     Preconditions.checkArgument(
         message.hasStringColumn(), "ColumnMessage has type STRING but no StringColumn");
     final StringColumnMessage stringColumn = message.getStringColumn();
     List<Integer> startIndices = stringColumn.getStartIndicesList();
     List<Integer> endIndices = stringColumn.getEndIndicesList();
     String[] newData = new String[numTuples];
-    String allStrings = stringColumn.getData().toStringUtf8();
+    /* The indices are byte offsets in the UTF-8 data. */
+    final ByteString allStrings = stringColumn.getData();
     for (int i = 0; i < numTuples; i++) {
-      newData[i] = allStrings.substring(startIndices.get(i), endIndices.get(i));
+      newData[i] = allStrings.substring(startIndices.get(i), endIndices.get(i)).toStringUtf8();
     }
     return new StringColumnBuilder(newData, numTuples).build();
   }
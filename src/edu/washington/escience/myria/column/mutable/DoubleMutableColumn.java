@@ -4,6 +4,7 @@ import com.google.common.base.Preconditions;
 
 import edu.washington.escience.myria.Type;
 import edu.washington.escience.myria.column.DoubleColumn;
+import edu.washington.escience.myria.column.builder.PrimitiveArrayPool;
 import edu.washington.escience.myria.storage.TupleBatch;
 import edu.washington.escience.myria.storage.TupleUtils;
 
@@ -54,6 +55,11 @@ public final class DoubleMutableColumn extends MutableColumn<Double> {
     return position;
   }
 
+  @Override
+  public void release() {
+    PrimitiveArrayPool.release(data, position);
+  }
+
   @Override
   public String toString() {
     final StringBuilder sb = new StringBuilder();
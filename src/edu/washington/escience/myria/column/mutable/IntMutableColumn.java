@@ -4,6 +4,7 @@ import com.google.common.base.Preconditions;
 
 import edu.washington.escience.myria.Type;
 import edu.washington.escience.myria.column.IntArrayColumn;
+import edu.washington.escience.myria.column.builder.PrimitiveArrayPool;
 
 /**
  * A mutable column of Int values.
@@ -64,6 +65,11 @@ public final class IntMutableColumn extends MutableColumn<Integer> {
     return position;
   }
 
+  @Override
+  public void release() {
+    PrimitiveArrayPool.release(data, position);
+  }
+
   @Override
   public void replaceInt(final int value, final int row) {
     Preconditions.checkElementIndex(row, size());
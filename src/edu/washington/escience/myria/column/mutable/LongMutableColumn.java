@@ -4,6 +4,7 @@ import com.google.common.base.Preconditions;
 
 import edu.washington.escience.myria.Type;
 import edu.washington.escience.myria.column.LongColumn;
+import edu.washington.escience.myria.column.builder.PrimitiveArrayPool;
 
 /**
  * A mutable column of Long values.
@@ -50,6 +51,11 @@ public final class LongMutableColumn extends MutableColumn<Long> {
     return position;
   }
 
+  @Override
+  public void release() {
+    PrimitiveArrayPool.release(data, position);
+  }
+
   @Override
   public String toString() {
     final StringBuilder sb = new StringBuilder();
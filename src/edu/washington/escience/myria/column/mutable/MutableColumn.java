@@ -8,6 +8,7 @@ import org.joda.time.DateTime;
 import java.nio.ByteBuffer;
 import edu.washington.escience.myria.Type;
 import edu.washington.escience.myria.column.Column;
+import edu.washington.escience.myria.column.builder.PrimitiveArrayPool;
 import edu.washington.escience.myria.storage.ReadableColumn;
 import edu.washington.escience.myria.storage.ReplaceableColumn;
 
@@ -73,6 +74,12 @@ public abstract class MutableColumn<T extends Comparable<?>>
   @Override
   public abstract int size();
 
+  /**
+   * Return the storage of this column to the {@link PrimitiveArrayPool}, if it has any. The column must not be used
+   * afterwards.
+   */
+  public void release() {}
+
   @Override
   public void replaceBoolean(final boolean value, final int row) {
     throw new UnsupportedOperationException(getClass().getName());
@@ -2,13 +2,18 @@ package edu.washington.escience.myria.expression;
 
 import java.io.Serializable;
 import java.util.LinkedList;
+import java.util.SortedSet;
+import java.util.TreeSet;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.collect.Lists;
 
 import edu.washington.escience.myria.Type;
 import edu.washington.escience.myria.column.builder.ColumnBuilder;
+import edu.washington.escience.myria.column.builder.ColumnFactory;
 import edu.washington.escience.myria.expression.evaluate.ExpressionOperatorParameter;
+import edu.washington.escience.myria.storage.ReadableColumn;
+import edu.washington.escience.myria.storage.ReadableTable;
 
 /**
  * An expression that can be applied to a tuple.
@@ -47,6 +52,8 @@ public class Expression implements Serializable {
   public static final String COUNT = "count";
   /** Variable name of column offset of state. */
   public static final String STATECOLOFFSET = "stateColOffset";
+  /** Prefix of the variable names of input columns hoisted out of a loop over every row of the input. */
+  public static final String INPUTCOLUMN = "inputColumn";
 
   /**
    * This is not really unused, it's used automagically by Jackson deserialization.
@@ -138,6 +145,157 @@ public class Expression implements Serializable {
     return appendExpression;
   }
 
+  /**
+   * Java statements that evaluate this expression on every row of {@link #INPUT}. The input columns are looked up once,
+   * before the loop. A single-valued expression is written to {@link #RESULT}, which must then be the
+   * {@link ColumnBuilder} of the output type, e.g., a {@code LongColumnBuilder}, with the typed append method. A
+   * multivalued expression is appended to any column, along with its counts.
+   *
+   * @param parameters parameters that are needed to create the java expression
+   * @return Java statements that evaluate this expression on every row of {@link #INPUT} and append the results to
+   *         {@link #RESULT}
+   */
+  public String getJavaBatchExpressionWithAppend(final ExpressionOperatorParameter parameters) {
+    if (javaExpression != null) {
+      /* A verbatim expression reads its variables from the input. */
+      return getJavaBatchScript(getJavaExpressionWithAppend(parameters));
+    }
+    final ExpressionOperatorParameter batchParameters = parameters.forBatch();
+    final StringBuilder script = getJavaColumnLookups();
+    final String rowScript;
+    if (isMultiValued()
+        || rootExpressionOperator.getJavaExpressionWithAppend(batchParameters) != null) {
+      rowScript = getJavaExpressionWithAppend(batchParameters);
+    } else {
+      final Type type = getOutputType(parameters);
+      final String builder = ColumnFactory.builderClass(type).getName();
+      script
+          .append("final ")
+          .append(builder)
+          .append(" resultColumn = (")
+          .append(builder)
+          .append(") ")
+          .append(RESULT)
+          .append(";\n");
+      rowScript =
+          new StringBuilder("resultColumn.append")
+              .append(type.getName())
+              .append("(")
+              .append(getJavaExpression(batchParameters))
+              .append(");")
+              .toString();
+    }
+    return script.append(getJavaLoop(rowScript)).toString();
+  }
+
+  /**
+   * @param parameters parameters that are needed to create the java expression
+   * @return Java statements that evaluate this boolean expression on every row of {@link #INPUT} and set the bit of
+   *         {@link #RESULT}, a {@link java.util.BitSet}, for each row where it is true.
+   */
+  public String getJavaBatchPredicate(final ExpressionOperatorParameter parameters) {
+    final StringBuilder script;
+    final String predicate;
+    if (javaExpression != null) {
+      script = new StringBuilder();
+      predicate = javaExpression;
+    } else {
+      script = getJavaColumnLookups();
+      predicate = getJavaExpression(parameters.forBatch());
+    }
+    final String rowScript =
+        new StringBuilder("if (")
+            .append(predicate)
+            .append(") {\n")
+            .append(RESULT)
+            .append(".set(")
+            .append(INPUTROW)
+            .append(");\n}")
+            .toString();
+    return script.append(getJavaLoop(rowScript)).toString();
+  }
+
+  /**
+   * @return Java statements that look up each input column read by this expression once, as a {@link ReadableColumn}
+   *         named {@link #INPUTCOLUMN} followed by the column index
+   */
+  private StringBuilder getJavaColumnLookups() {
+    final SortedSet<Integer> columns = new TreeSet<>();
+    final LinkedList<ExpressionOperator> ops = Lists.newLinkedList();
+    ops.add(getRootExpressionOperator());
+    while (!ops.isEmpty()) {
+      final ExpressionOperator op = ops.pop();
+      if (op instanceof VariableExpression) {
+        columns.add(((VariableExpression) op).getColumnIdx());
+      } else if (op instanceof StateExpression) {
+        columns.add(((StateExpression) op).getColumnIdx());
+      }
+      ops.addAll(op.getChildren());
+    }
+    final StringBuilder lookups = new StringBuilder();
+    for (final int column : columns) {
+      lookups
+          .append("final ")
+          .append(ReadableColumn.class.getName())
+          .append(" ")
+          .append(INPUTCOLUMN)
+          .append(column)
+          .append(" = ")
+          .append(INPUT)
+          .append(".asColumn(")
+          .append(column)
+          .append(");\n");
+    }
+    return lookups;
+  }
+
+  /**
+   * @param rowScript Java statements that use the row {@link #INPUTROW}
+   * @return Java statements that run rowScript on every row of {@link #INPUT}
+   */
+  private static String getJavaLoop(final String rowScript) {
+    return new StringBuilder("for (int ")
+        .append(INPUTROW)
+        .append(" = 0; ")
+        .append(INPUTROW)
+        .append(" < ")
+        .append(INPUT)
+        .append(".numTuples(); ++")
+        .append(INPUTROW)
+        .append(") {\n")
+        .append(rowScript)
+        .append("\n}")
+        .toString();
+  }
+
+  /**
+   * Wrap Java statements that evaluate an expression on one row into a loop over every row of {@link #INPUT}. Inside
+   * the loop, {@link #STATE} and {@link #STATEROW} refer to the input, as when a single table is passed as both.
+   *
+   * @param rowScript Java statements that use the row {@link #INPUTROW} of {@link #INPUT}
+   * @return Java statements that run rowScript on every row of {@link #INPUT}
+   */
+  public static String getJavaBatchScript(final String rowScript) {
+    return new StringBuilder("final ")
+        .append(ReadableTable.class.getName())
+        .append(" ")
+        .append(STATE)
+        .append(" = ")
+        .append(INPUT)
+        .append(";\n")
+        .append(
+            getJavaLoop(
+                new StringBuilder("final int ")
+                    .append(STATEROW)
+                    .append(" = ")
+                    .append(INPUTROW)
+                    .append(";\n{\n")
+                    .append(rowScript)
+                    .append("\n}")
+                    .toString()))
+        .toString();
+  }
+
   /**
    * @param parameters parameters that are needed to determine the output type
    * @return the type of the output
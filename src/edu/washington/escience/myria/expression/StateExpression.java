@@ -42,6 +42,17 @@ public class StateExpression extends ZeroaryExpression {
 
   @Override
   public String getJavaString(final ExpressionOperatorParameter parameters) {
+    if (parameters.isBatch()) {
+      // In a loop over a whole batch, the input is also the state, see Expression#getJavaBatchScript.
+      return new StringBuilder(Expression.INPUTCOLUMN)
+          .append(getColumnIdx())
+          .append(".get")
+          .append(getOutputType(parameters).getName())
+          .append("(")
+          .append(Expression.INPUTROW)
+          .append(")")
+          .toString();
+    }
     // We generate a variable access into the state tuple.
     return new StringBuilder(Expression.STATE)
         .append(".get")
@@ -41,6 +41,16 @@ public class VariableExpression extends ZeroaryExpression {
 
   @Override
   public String getJavaString(final ExpressionOperatorParameter parameters) {
+    if (parameters.isBatch()) {
+      return new StringBuilder(Expression.INPUTCOLUMN)
+          .append(columnIdx)
+          .append(".get")
+          .append(getOutputType(parameters).getName())
+          .append("(")
+          .append(Expression.INPUTROW)
+          .append(")")
+          .toString();
+    }
     // We generate a variable access into the tuple buffer.
     return new StringBuilder(Expression.INPUT)
         .append(".get")
@@ -0,0 +1,18 @@
+package edu.washington.escience.myria.expression.evaluate;
+
+import java.util.BitSet;
+
+import edu.washington.escience.myria.storage.TupleBatch;
+
+/**
+ * Interface for evaluating janino expressions that return bools on every row of a tuple batch in one call.
+ */
+public interface BooleanBatchEvalInterface {
+  /**
+   * The interface for applying expressions to a whole tuple batch.
+   *
+   * @param tb a tuple batch
+   * @param result set to true for each row of the tb for which the expression is true.
+   */
+  void evaluate(final TupleBatch tb, final BitSet result);
+}
@@ -1,16 +1,27 @@
 package edu.washington.escience.myria.expression.evaluate;
 
+import java.io.StringReader;
 import java.lang.reflect.InvocationTargetException;
+import java.util.BitSet;
+import java.util.concurrent.Callable;
 
 import org.codehaus.commons.compiler.CompilerFactoryFactory;
-import org.codehaus.commons.compiler.IExpressionEvaluator;
+import org.codehaus.commons.compiler.IClassBodyEvaluator;
 
 import com.google.common.base.Preconditions;
 
 import edu.washington.escience.myria.DbException;
 import edu.washington.escience.myria.MyriaConstants;
 import edu.washington.escience.myria.Type;
+import edu.washington.escience.myria.column.DictionaryStringColumn;
+import edu.washington.escience.myria.expression.BinaryExpression;
+import edu.washington.escience.myria.expression.ConstantExpression;
+import edu.washington.escience.myria.expression.EqualsExpression;
 import edu.washington.escience.myria.expression.Expression;
+import edu.washington.escience.myria.expression.ExpressionOperator;
+import edu.washington.escience.myria.expression.NotEqualsExpression;
+import edu.washington.escience.myria.expression.VariableExpression;
+import edu.washington.escience.myria.storage.ReadableColumn;
 import edu.washington.escience.myria.storage.TupleBatch;
 
 /**
@@ -21,6 +32,22 @@ public class BooleanEvaluator extends Evaluator {
    * Expression evaluator.
    */
   private BooleanEvalInterface evaluator;
+  /**
+   * Evaluates the expression on a whole tuple batch, the same object as {@link #evaluator}.
+   */
+  private BooleanBatchEvalInterface batchEvaluator;
+  /**
+   * If the expression compares a String column with a constant, the column. Otherwise -1.
+   */
+  private int stringEqualsColumn = -1;
+  /**
+   * If the expression compares a String column with a constant, the constant.
+   */
+  private String stringEqualsValue;
+  /**
+   * True if the expression is true when the String column is not equal to the constant.
+   */
+  private boolean stringEqualsNegated;
 
   /**
    * Default constructor.
@@ -35,27 +62,82 @@ public class BooleanEvaluator extends Evaluator {
   }
 
   /**
-   * Compiles the {@link #javaExpression}.
+   * Compiles the {@link #javaExpression} into one class that evaluates it both on one row and on a whole tuple batch.
    *
    * @throws DbException compilation failed
    */
   @Override
   public void compile() throws DbException {
+    final String classBody;
     try {
-      IExpressionEvaluator se =
-          CompilerFactoryFactory.getDefaultCompilerFactory().newExpressionEvaluator();
-
-      se.setDefaultImports(MyriaConstants.DEFAULT_JANINO_IMPORTS);
-
-      evaluator =
-          (BooleanEvalInterface)
-              se.createFastEvaluator(
-                  getJavaExpressionWithAppend(),
-                  BooleanEvalInterface.class,
-                  new String[] {Expression.INPUT, Expression.INPUTROW});
+      classBody =
+          new StringBuilder("public boolean evaluate(final ")
+              .append(TupleBatch.class.getName())
+              .append(" ")
+              .append(Expression.INPUT)
+              .append(", final int ")
+              .append(Expression.INPUTROW)
+              .append(") {\nreturn ")
+              .append(getJavaExpressionWithAppend())
+              .append(";\n}\npublic void evaluate(final ")
+              .append(TupleBatch.class.getName())
+              .append(" ")
+              .append(Expression.INPUT)
+              .append(", final ")
+              .append(BitSet.class.getName())
+              .append(" ")
+              .append(Expression.RESULT)
+              .append(") {\n")
+              .append(getExpression().getJavaBatchPredicate(getParameters()))
+              .append("\n}")
+              .toString();
     } catch (Exception e) {
       throw new DbException("Error when compiling expression " + this, e);
     }
+    evaluator =
+        EvaluatorCache.get(
+            BooleanEvalInterface.class,
+            classBody,
+            new Callable<BooleanEvalInterface>() {
+              @Override
+              public BooleanEvalInterface call() throws Exception {
+                IClassBodyEvaluator cbe =
+                    CompilerFactoryFactory.getDefaultCompilerFactory().newClassBodyEvaluator();
+
+                cbe.setDefaultImports(MyriaConstants.DEFAULT_JANINO_IMPORTS);
+                cbe.setImplementedInterfaces(
+                    new Class<?>[] {BooleanEvalInterface.class, BooleanBatchEvalInterface.class});
+
+                return (BooleanEvalInterface) cbe.createInstance(new StringReader(classBody));
+              }
+            });
+    batchEvaluator = (BooleanBatchEvalInterface) evaluator;
+    findStringEquals();
+  }
+
+  /**
+   * Check whether the expression compares a String column with a constant, which can be evaluated on the codes of a
+   * {@link DictionaryStringColumn}.
+   */
+  private void findStringEquals() {
+    ExpressionOperator root = getExpression().getRootExpressionOperator();
+    if (!(root instanceof EqualsExpression || root instanceof NotEqualsExpression)) {
+      return;
+    }
+    ExpressionOperator left = ((BinaryExpression) root).getLeft();
+    ExpressionOperator right = ((BinaryExpression) root).getRight();
+    if (left instanceof ConstantExpression) {
+      ExpressionOperator tmp = left;
+      left = right;
+      right = tmp;
+    }
+    if (left instanceof VariableExpression
+        && right instanceof ConstantExpression
+        && right.getOutputType(getParameters()) == Type.STRING_TYPE) {
+      stringEqualsColumn = ((VariableExpression) left).getColumnIdx();
+      stringEqualsValue = ((ConstantExpression) right).getValue();
+      stringEqualsNegated = root instanceof NotEqualsExpression;
+    }
   }
 
   /**
@@ -71,4 +153,42 @@ public class BooleanEvaluator extends Evaluator {
         evaluator != null, "Call compile first or copy the data if it is the same in the input.");
     return evaluator.evaluate(tb, rowId);
   }
+
+  /**
+   * Evaluates the expression on every row of a tuple batch at once. This is faster than calling {@link #eval} on each
+   * row.
+   *
+   * @param tb a tuple batch
+   * @return the rows of tb for which the expression is true
+   */
+  public BitSet evalBatch(final TupleBatch tb) {
+    Preconditions.checkArgument(
+        batchEvaluator != null,
+        "Call compile first or copy the data if it is the same in the input.");
+    BitSet result = new BitSet(tb.numTuples());
+    if (stringEqualsColumn >= 0) {
+      ReadableColumn column = tb.asColumn(stringEqualsColumn);
+      if (column instanceof DictionaryStringColumn) {
+        evalStringEquals((DictionaryStringColumn) column, result);
+        return result;
+      }
+    }
+    batchEvaluator.evaluate(tb, result);
+    return result;
+  }
+
+  /**
+   * Compare a dictionary-encoded String column with a constant by looking the constant up once and comparing codes.
+   *
+   * @param column the column
+   * @param result the rows for which the expression is true
+   */
+  private void evalStringEquals(final DictionaryStringColumn column, final BitSet result) {
+    final int code = column.getDictionary().lookup(stringEqualsValue);
+    for (int row = 0; row < column.size(); ++row) {
+      if ((column.getCode(row) == code) != stringEqualsNegated) {
+        result.set(row);
+      }
+    }
+  }
 }
@@ -1,6 +1,7 @@
 package edu.washington.escience.myria.expression.evaluate;
 
 import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.Callable;
 
 import org.codehaus.commons.compiler.CompileException;
 import org.codehaus.janino.ExpressionEvaluator;
@@ -50,28 +51,48 @@ public final class ConstantEvaluator extends GenericEvaluator {
         "Expression %s does not evaluate to a constant",
         expression);
     type = expression.getOutputType(parameters);
-    String java;
+    final String java;
     try {
       java = expression.getJavaExpression(parameters);
     } catch (Exception e) {
       throw new DbException("Error when generating Java expression " + this, e);
     }
 
-    evaluator = new ExpressionEvaluator();
-    evaluator.setParameters(new String[] {}, new Class<?>[] {});
-    evaluator.setDefaultImports(MyriaConstants.DEFAULT_JANINO_IMPORTS);
+    evaluator =
+        EvaluatorCache.get(
+            ExpressionEvaluator.class,
+            type.toJavaType(),
+            java,
+            new Callable<ExpressionEvaluator>() {
+              @Override
+              public ExpressionEvaluator call() throws DbException {
+                ExpressionEvaluator ee = new ExpressionEvaluator();
+                ee.setParameters(new String[] {}, new Class<?>[] {});
+                ee.setDefaultImports(MyriaConstants.DEFAULT_JANINO_IMPORTS);
+                try {
+                  ee.setExpressionType(type.toJavaType());
+                  ee.cook(java);
+                } catch (CompileException e) {
+                  throw new DbException("Error when compiling expression " + java, e);
+                }
+                return ee;
+              }
+            });
 
     try {
-      evaluator.setExpressionType(type.toJavaType());
-      evaluator.cook(java);
       value = evaluator.evaluate(NO_ARGS);
-    } catch (CompileException e) {
-      throw new DbException("Error when compiling expression " + java, e);
     } catch (InvocationTargetException e) {
       throw new DbException("Error when evaluating expression " + java, e);
     }
   }
 
+  /**
+   * The value is computed when the evaluator is constructed. The evaluator of {@link GenericEvaluator#evalTupleBatch}
+   * is compiled only if it is used.
+   */
+  @Override
+  public void compile() {}
+
   /**
    * Expression evaluator.
    */
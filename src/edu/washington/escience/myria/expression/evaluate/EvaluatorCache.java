@@ -0,0 +1,180 @@
+package edu.washington.escience.myria.expression.evaluate;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+import javax.annotation.Nullable;
+
+import com.google.common.base.Objects;
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import edu.washington.escience.myria.DbException;
+
+/**
+ * A process-wide cache of compiled Janino evaluators, keyed by the generated Java source and the type of the
+ * evaluator. Compiling the same expression again for every fragment on every worker, and in every iteration of a
+ * {@code DoWhile}, otherwise dominates the time to start a plan.
+ *
+ * Cached evaluators are shared between threads. This is safe because Janino compiles a script into a class whose only
+ * method is the script itself, so the evaluators have no state.
+ *
+ * The cache is bounded; the least recently used evaluators are evicted first. Its size is the
+ * {@link edu.washington.escience.myria.MyriaSystemConfigKeys#OPERATOR_EVALUATOR_CACHE_SIZE} of the process, and its
+ * hit and miss counts are reported with the resource measurements of every fragment.
+ */
+public final class EvaluatorCache {
+  /** logger for this class. */
+  private static final org.slf4j.Logger LOGGER =
+      org.slf4j.LoggerFactory.getLogger(EvaluatorCache.class);
+
+  /** The default maximum number of cached evaluators. */
+  public static final int DEFAULT_MAXIMUM_SIZE = 1024;
+
+  /** The maximum number of cached evaluators. */
+  private static volatile long maximumSize = DEFAULT_MAXIMUM_SIZE;
+  /** The cached evaluators. */
+  private static volatile Cache<Key, Object> cache = newCache(DEFAULT_MAXIMUM_SIZE);
+
+  /** Utility classes cannot be constructed. */
+  private EvaluatorCache() {}
+
+  /**
+   * The key of a cached evaluator.
+   */
+  private static final class Key {
+    /** The type of the evaluator. */
+    private final Class<?> type;
+    /** The type of the value the evaluator returns, if it is not implied by {@link #type}. */
+    private final Class<?> resultType;
+    /** The Java source of the evaluator. */
+    private final String script;
+
+    /**
+     * @param type the type of the evaluator
+     * @param resultType the type of the value the evaluator returns, if it is not implied by the type
+     * @param script the Java source of the evaluator
+     */
+    Key(final Class<?> type, @Nullable final Class<?> resultType, final String script) {
+      this.type = Preconditions.checkNotNull(type, "type");
+      this.resultType = resultType;
+      this.script = Preconditions.checkNotNull(script, "script");
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+      if (!(other instanceof Key)) {
+        return false;
+      }
+      Key key = (Key) other;
+      return type.equals(key.type)
+          && Objects.equal(resultType, key.resultType)
+          && script.equals(key.script);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hashCode(type, resultType, script);
+    }
+  }
+
+  /**
+   * @param maximumSize the maximum number of cached evaluators
+   * @return a new, empty cache
+   */
+  private static Cache<Key, Object> newCache(final long maximumSize) {
+    return CacheBuilder.newBuilder().maximumSize(maximumSize).recordStats().build();
+  }
+
+  /**
+   * Get a compiled evaluator from the cache, compiling it if needed.
+   *
+   * @param type the type of the evaluator
+   * @param script the Java source of the evaluator
+   * @param compiler compiles the evaluator if it is not cached
+   * @param <T> the type of the evaluator
+   * @return the evaluator
+   * @throws DbException if the compilation failed
+   */
+  public static <T> T get(final Class<T> type, final String script, final Callable<T> compiler)
+      throws DbException {
+    return get(type, null, script, compiler);
+  }
+
+  /**
+   * Get a compiled evaluator from the cache, compiling it if needed.
+   *
+   * @param type the type of the evaluator
+   * @param resultType the type of the value the evaluator returns, if it is not implied by the type
+   * @param script the Java source of the evaluator
+   * @param compiler compiles the evaluator if it is not cached
+   * @param <T> the type of the evaluator
+   * @return the evaluator
+   * @throws DbException if the compilation failed
+   */
+  public static <T> T get(
+      final Class<T> type,
+      @Nullable final Class<?> resultType,
+      final String script,
+      final Callable<T> compiler)
+      throws DbException {
+    try {
+      return type.cast(cache.get(new Key(type, resultType, script), compiler));
+    } catch (ExecutionException | UncheckedExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof DbException) {
+        throw (DbException) cause;
+      }
+      LOGGER.error("Error when compiling expression {}: {}", script, cause);
+      throw new DbException("Error when compiling expression: " + script, cause);
+    }
+  }
+
+  /**
+   * @return the hit, miss and eviction counts of the cache since it was created
+   */
+  public static CacheStats stats() {
+    return cache.stats();
+  }
+
+  /**
+   * @return the number of cached evaluators
+   */
+  public static long size() {
+    return cache.size();
+  }
+
+  /**
+   * Replace the cache with a new, empty one. A maximum size of 0 disables caching.
+   *
+   * @param maximumSize the maximum number of cached evaluators
+   */
+  public static synchronized void reset(final long maximumSize) {
+    Preconditions.checkArgument(maximumSize >= 0, "maximum size must not be negative");
+    EvaluatorCache.maximumSize = maximumSize;
+    cache = newCache(maximumSize);
+  }
+
+  /**
+   * Set the maximum number of cached evaluators, as configured for this process. The cache is only replaced, and thus
+   * emptied, if the maximum size changes. A maximum size of 0 disables caching.
+   *
+   * @param maximumSize the maximum number of cached evaluators
+   */
+  public static synchronized void setMaximumSize(final long maximumSize) {
+    if (maximumSize != EvaluatorCache.maximumSize) {
+      LOGGER.info("Caching at most {} compiled evaluators", maximumSize);
+      reset(maximumSize);
+    }
+  }
+
+  /**
+   * @return the maximum number of cached evaluators
+   */
+  public static long getMaximumSize() {
+    return maximumSize;
+  }
+}
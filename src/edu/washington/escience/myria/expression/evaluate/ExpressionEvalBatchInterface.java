@@ -0,0 +1,27 @@
+package edu.washington.escience.myria.expression.evaluate;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import edu.washington.escience.myria.column.builder.WritableColumn;
+import edu.washington.escience.myria.storage.ReadableTable;
+
+/**
+ * Interface for evaluating a single {@link edu.washington.escience.myria.expression.Expression} on every row of a
+ * table in one call, appending the results to a column, along with a count of results. The input is also passed as the
+ * state, so the expression must not depend on state.
+ */
+public interface ExpressionEvalBatchInterface extends ExpressionEvalInterface {
+  /**
+   * The interface evaluates a single {@link edu.washington.escience.myria.expression.Expression} on every row of the
+   * input and appends the results and (optional) counts to the given columns.
+   *
+   * @param input the input tuple batch
+   * @param result a column storing evaluation results
+   * @param count a column storing the number of results returned from each row, optional
+   */
+  void evaluate(
+      @Nonnull final ReadableTable input,
+      @Nonnull final WritableColumn result,
+      @Nullable final WritableColumn count);
+}
@@ -1,6 +1,7 @@
 package edu.washington.escience.myria.expression.evaluate;
 
 import edu.washington.escience.myria.Schema;
+import edu.washington.escience.myria.expression.Expression;
 import edu.washington.escience.myria.functions.PythonFunctionRegistrar;
 
 /**
@@ -15,6 +16,8 @@ public class ExpressionOperatorParameter {
   private Integer workerID = null;
   /** Python function registrar. */
   private PythonFunctionRegistrar pyFuncReg = null;
+  /** True if the generated code reads variables from columns hoisted out of a loop over the input. */
+  private boolean batch = false;
 
   /**
    * Simple constructor.
@@ -119,4 +122,23 @@ public class ExpressionOperatorParameter {
   public PythonFunctionRegistrar getPythonFunctionRegistrar() {
     return pyFuncReg;
   }
+
+  /**
+   * @return a copy of these parameters for generating code that loops over every row of the input and reads variables
+   *         from columns hoisted out of the loop, see {@link Expression#getJavaBatchExpressionWithAppend}
+   */
+  public ExpressionOperatorParameter forBatch() {
+    ExpressionOperatorParameter parameters =
+        new ExpressionOperatorParameter(schema, stateSchema, pyFuncReg);
+    parameters.workerID = workerID;
+    parameters.batch = true;
+    return parameters;
+  }
+
+  /**
+   * @return true if variables are read from columns hoisted out of a loop over the input, see {@link #forBatch()}
+   */
+  public boolean isBatch() {
+    return batch;
+  }
 }
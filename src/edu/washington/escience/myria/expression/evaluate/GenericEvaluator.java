@@ -1,6 +1,7 @@
 package edu.washington.escience.myria.expression.evaluate;
 
 import java.util.List;
+import java.util.concurrent.Callable;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -41,10 +42,14 @@ public class GenericEvaluator extends Evaluator {
   private static final org.slf4j.Logger LOGGER =
       org.slf4j.LoggerFactory.getLogger(GenericEvaluator.class);
 
-  /** Expression evaluator. */
+  /** Expression evaluator, compiled on first use if the script appends to a column. */
   private ExpressionEvalInterface evaluator;
+  /** Evaluates the expression on a whole tuple batch, compiled on first use. */
+  private ExpressionEvalBatchInterface batchEvaluator;
   /** The script. */
   private String script;
+  /** The script that evaluates the expression on a whole tuple batch, null if the script updates state. */
+  private String batchScript;
 
   /**
    * Default constructor.
@@ -57,6 +62,9 @@ public class GenericEvaluator extends Evaluator {
       throws DbException {
     super(expression, parameters);
     this.script = getExpression().getJavaExpressionWithAppend(getParameters());
+    if (script.contains("append")) {
+      batchScript = getExpression().getJavaBatchExpressionWithAppend(getParameters());
+    }
     compile();
   }
 
@@ -73,16 +81,123 @@ public class GenericEvaluator extends Evaluator {
       throws DbException {
     super(expression, parameters);
     this.script = script;
+    if (script.contains("append")) {
+      batchScript = Expression.getJavaBatchScript(script);
+    }
     compile();
   }
 
   /**
-   * Compiles the {@link #javaExpression}.
+   * Compiles the {@link #javaExpression}. A script that appends to a column is compiled only into the evaluator that
+   * the expression is evaluated through: the per-row evaluator if the expression reads a separate state, otherwise the
+   * batch evaluator of {@link #evalTupleBatch}. The other one is compiled if and when it is first used.
    *
    * @throws DbException if the compilation failed
    */
   @Override
   public void compile() throws DbException {
+    if (batchScript == null) {
+      evaluator =
+          EvaluatorCache.get(
+              ExpressionEvalReplaceInterface.class,
+              script,
+              new Callable<ExpressionEvalReplaceInterface>() {
+                @Override
+                public ExpressionEvalReplaceInterface call() throws DbException {
+                  return (ExpressionEvalReplaceInterface)
+                      createFastEvaluator(
+                          script,
+                          ExpressionEvalReplaceInterface.class,
+                          new String[] {
+                            Expression.INPUT,
+                            Expression.INPUTROW,
+                            Expression.STATE,
+                            Expression.STATEROW,
+                            Expression.STATECOLOFFSET
+                          });
+                }
+              });
+    } else if (needsState() && !getParameters().getStateSchema().equals(getInputSchema())) {
+      getAppendEvaluator();
+    } else {
+      getBatchEvaluator();
+    }
+  }
+
+  /**
+   * @return true if {@link #evalTupleBatch} can evaluate the expression on a whole tuple batch with compiled Java code,
+   *         otherwise it calls {@link #eval} on each row
+   */
+  protected boolean hasBatchEvaluator() {
+    return batchScript != null;
+  }
+
+  /**
+   * @return the evaluator of {@link #script} on one row, compiling it on first use
+   * @throws DbException if the compilation failed
+   */
+  private ExpressionEvalAppendInterface getAppendEvaluator() throws DbException {
+    if (evaluator == null) {
+      evaluator =
+          EvaluatorCache.get(
+              ExpressionEvalAppendInterface.class,
+              script,
+              new Callable<ExpressionEvalAppendInterface>() {
+                @Override
+                public ExpressionEvalAppendInterface call() throws DbException {
+                  return (ExpressionEvalAppendInterface)
+                      createFastEvaluator(
+                          script,
+                          ExpressionEvalAppendInterface.class,
+                          new String[] {
+                            Expression.INPUT,
+                            Expression.INPUTROW,
+                            Expression.STATE,
+                            Expression.STATEROW,
+                            Expression.RESULT,
+                            Expression.COUNT
+                          });
+                }
+              });
+    }
+    return (ExpressionEvalAppendInterface) evaluator;
+  }
+
+  /**
+   * @return the evaluator of {@link #batchScript} on a whole tuple batch, compiling it on first use
+   * @throws DbException if the compilation failed
+   */
+  private ExpressionEvalBatchInterface getBatchEvaluator() throws DbException {
+    if (batchEvaluator == null) {
+      batchEvaluator =
+          EvaluatorCache.get(
+              ExpressionEvalBatchInterface.class,
+              batchScript,
+              new Callable<ExpressionEvalBatchInterface>() {
+                @Override
+                public ExpressionEvalBatchInterface call() throws DbException {
+                  return (ExpressionEvalBatchInterface)
+                      createFastEvaluator(
+                          batchScript,
+                          ExpressionEvalBatchInterface.class,
+                          new String[] {Expression.INPUT, Expression.RESULT, Expression.COUNT});
+                }
+              });
+    }
+    return batchEvaluator;
+  }
+
+  /**
+   * Compiles a script into a new evaluator, bypassing the {@link EvaluatorCache}.
+   *
+   * @param script the script
+   * @param type the interface the evaluator implements
+   * @param parameterNames the names of the parameters of the evaluator
+   * @return the evaluator
+   * @throws DbException if the compilation failed
+   */
+  private static Object createFastEvaluator(
+      final String script, final Class<?> type, final String[] parameterNames) throws DbException {
     IScriptEvaluator se;
     try {
       se = CompilerFactoryFactory.getDefaultCompilerFactory().newScriptEvaluator();
@@ -92,34 +207,7 @@ public class GenericEvaluator extends Evaluator {
     }
     se.setDefaultImports(MyriaConstants.DEFAULT_JANINO_IMPORTS);
     try {
-      if (script.contains("append")) {
-        evaluator =
-            (ExpressionEvalAppendInterface)
-                se.createFastEvaluator(
-                    script,
-                    ExpressionEvalAppendInterface.class,
-                    new String[] {
-                      Expression.INPUT,
-                      Expression.INPUTROW,
-                      Expression.STATE,
-                      Expression.STATEROW,
-                      Expression.RESULT,
-                      Expression.COUNT
-                    });
-      } else {
-        evaluator =
-            (ExpressionEvalReplaceInterface)
-                se.createFastEvaluator(
-                    script,
-                    ExpressionEvalReplaceInterface.class,
-                    new String[] {
-                      Expression.INPUT,
-                      Expression.INPUTROW,
-                      Expression.STATE,
-                      Expression.STATEROW,
-                      Expression.STATECOLOFFSET
-                    });
-      }
+      return se.createFastEvaluator(script, type, parameterNames);
     } catch (CompileException e) {
       LOGGER.error("Error when compiling expression {}: {}", script, e);
       throw new DbException("Error when compiling expression: " + script, e);
@@ -169,13 +257,13 @@ public class GenericEvaluator extends Evaluator {
       @Nullable final WritableColumn count)
       throws DbException {
     Preconditions.checkArgument(
-        evaluator != null, "Call compile first or copy the data if it is the same in the input.");
+        batchScript != null, "The script does not append to a column, use updateState.");
     Preconditions.checkArgument(
         getExpression().isMultiValued() != (count == null),
         "count must be null for a single-valued expression and non-null for a multivalued expression.");
+    final ExpressionEvalAppendInterface appendEvaluator = getAppendEvaluator();
     try {
-      ((ExpressionEvalAppendInterface) evaluator)
-          .evaluate(input, inputRow, state, stateRow, result, count);
+      appendEvaluator.evaluate(input, inputRow, state, stateRow, result, count);
     } catch (Exception e) {
       LOGGER.error(script, e);
       throw e;
@@ -250,20 +338,46 @@ public class GenericEvaluator extends Evaluator {
       return new EvaluatorResult(
           tb.getDataColumns().get(((VariableExpression) op).getColumnIdx()), constCounts);
     }
+    /* A single-valued expression that fits in one column is written straight into a typed ColumnBuilder. */
+    final Type type = getOutputType();
+    if (!getExpression().isMultiValued()
+        && hasBatchEvaluator()
+        && type != Type.BLOB_TYPE
+        && batchSize >= tb.numTuples()) {
+      final ColumnBuilder<?> results = ColumnFactory.allocateColumn(type);
+      final ExpressionEvalBatchInterface batchEvaluator = getBatchEvaluator();
+      try {
+        batchEvaluator.evaluate(tb, results, null);
+      } catch (Exception e) {
+        results.release();
+        LOGGER.error(batchScript, e);
+        throw e;
+      }
+      return new EvaluatorResult(results.build(), constCounts);
+    }
     /* For multivalued expressions, we may get more than batchSize results, so we need to pass in a `TupleBuffer` rather
      * than a `ColumnBuilder` to `eval()`, and return a `List<Column>` rather than a `Column` of results. */
     final TupleBuffer resultsBuffer =
-        new TupleBuffer(
-            Schema.ofFields(getExpression().getOutputName(), getOutputType()), batchSize);
+        new TupleBuffer(Schema.ofFields(getExpression().getOutputName(), type), batchSize);
     final WritableColumn resultsWriter = resultsBuffer.asWritableColumn(0);
     // For single-valued expressions, the Java expression will never attempt to write to `countsWriter`.
     WritableColumn countsWriter = null;
     if (getExpression().isMultiValued()) {
       countsWriter = ColumnFactory.allocateColumn(Type.INT_TYPE);
     }
-    for (int rowIdx = 0; rowIdx < tb.numTuples(); ++rowIdx) {
-      /* Hack, tb is either Expression.INPUT or Expression.STATE */
-      eval(tb, rowIdx, tb, rowIdx, resultsWriter, countsWriter);
+    if (getExpression().isMultiValued() && hasBatchEvaluator()) {
+      final ExpressionEvalBatchInterface batchEvaluator = getBatchEvaluator();
+      try {
+        batchEvaluator.evaluate(tb, resultsWriter, countsWriter);
+      } catch (Exception e) {
+        LOGGER.error(batchScript, e);
+        throw e;
+      }
+    } else {
+      for (int rowIdx = 0; rowIdx < tb.numTuples(); ++rowIdx) {
+        /* Hack, tb is either Expression.INPUT or Expression.STATE */
+        eval(tb, rowIdx, tb, rowIdx, resultsWriter, countsWriter);
+      }
     }
     final Column<?> resultCounts;
     if (getExpression().isMultiValued()) {
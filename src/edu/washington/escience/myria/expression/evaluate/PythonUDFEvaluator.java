@@ -126,6 +126,11 @@ public class PythonUDFEvaluator extends GenericEvaluator {
     /* Do nothing! */
   }
 
+  @Override
+  protected boolean hasBatchEvaluator() {
+    return false;
+  }
+
   @Override
   public void eval(
       @Nonnull final ReadableTable input,
@@ -0,0 +1,124 @@
+package edu.washington.escience.myria.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * An {@link InputStream} over a memory-mapped local file. The file is mapped one window at a time with
+ * {@link FileChannel#map}, so files larger than 2GB are read by remapping the window further on. Besides the stream
+ * interface, readers that know this class can decode the mapped bytes in bulk through {@link #window(int)}.
+ */
+public final class MappedFileInputStream extends InputStream {
+  /** The mapped file. */
+  private final FileChannel channel;
+  /** The size of the file. */
+  private final long size;
+  /** The largest window. */
+  private final int windowSize;
+  /** The current window, positioned at the next unread byte. */
+  private MappedByteBuffer window;
+  /** The offset in the file of the start of the current window. */
+  private long windowStart;
+
+  /**
+   * @param path the file.
+   * @param windowSize the largest number of bytes mapped at once.
+   * @throws IOException if the file cannot be opened.
+   */
+  public MappedFileInputStream(final Path path, final int windowSize) throws IOException {
+    Preconditions.checkArgument(windowSize > 0, "windowSize must be positive");
+    this.windowSize = windowSize;
+    channel = FileChannel.open(path, StandardOpenOption.READ);
+    size = channel.size();
+    map(0);
+  }
+
+  /**
+   * Map the window starting at the given offset.
+   *
+   * @param start the offset in the file.
+   * @throws IOException if the file cannot be mapped.
+   */
+  private void map(final long start) throws IOException {
+    windowStart = start;
+    window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(windowSize, size - start));
+  }
+
+  /**
+   * Returns the current window, positioned at the next unread byte, after remapping it if fewer than
+   * <code>minBytes</code> bytes are left in it and more are left in the file. Reading from the window, e.g., with
+   * relative gets or by moving its position, consumes the bytes of the stream. The byte order of the window may be
+   * changed.
+   *
+   * @param minBytes the number of bytes the caller wants to read contiguously, at most the window size.
+   * @return the window, with fewer than <code>minBytes</code> bytes remaining only at the end of the file.
+   * @throws IOException if the file cannot be mapped.
+   */
+  public ByteBuffer window(final int minBytes) throws IOException {
+    Preconditions.checkArgument(
+        minBytes <= windowSize, "%s bytes do not fit in a window of %s", minBytes, windowSize);
+    if (window.remaining() < minBytes && windowStart + window.limit() < size) {
+      map(windowStart + window.position());
+    }
+    return window;
+  }
+
+  /**
+   * @return the number of unread bytes of the file.
+   */
+  public long remaining() {
+    return size - windowStart - window.position();
+  }
+
+  @Override
+  public int read() throws IOException {
+    final ByteBuffer w = window(1);
+    if (!w.hasRemaining()) {
+      return -1;
+    }
+    return w.get() & 0xff;
+  }
+
+  @Override
+  public int read(final byte[] b, final int off, final int len) throws IOException {
+    if (len == 0) {
+      return 0;
+    }
+    final ByteBuffer w = window(1);
+    if (!w.hasRemaining()) {
+      return -1;
+    }
+    final int n = Math.min(len, w.remaining());
+    w.get(b, off, n);
+    return n;
+  }
+
+  @Override
+  public long skip(final long n) throws IOException {
+    final long skipped = Math.max(0, Math.min(n, remaining()));
+    final long target = windowStart + window.position() + skipped;
+    if (target <= windowStart + window.limit()) {
+      window.position((int) (target - windowStart));
+    } else {
+      map(target);
+    }
+    return skipped;
+  }
+
+  @Override
+  public int available() {
+    return (int) Math.min(Integer.MAX_VALUE, remaining());
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+}
@@ -0,0 +1,65 @@
+package edu.washington.escience.myria.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.nio.file.Paths;
+import java.util.Objects;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.base.MoreObjects;
+
+import edu.washington.escience.myria.BinaryTupleReader;
+
+/**
+ * A data source that memory-maps a local file, e.g., a large binary particle dump. Its input stream is a
+ * {@link MappedFileInputStream}, from which a {@link BinaryTupleReader} decodes fixed-width records in bulk. Other
+ * readers read it as any input stream.
+ */
+public class MappedFileSource implements DataSource, Serializable {
+  /** Required for Java serialization. */
+  private static final long serialVersionUID = 1L;
+  /** The default number of bytes mapped at once. */
+  public static final int DEFAULT_WINDOW_SIZE = 256 * 1024 * 1024;
+  /** The filename. */
+  @JsonProperty private final String filename;
+  /** The number of bytes mapped at once. */
+  @JsonProperty private final int windowSize;
+
+  /**
+   * Construct a source of data that memory-maps a local file.
+   *
+   * @param filename the local file to be read.
+   * @param windowSize the number of bytes mapped at once, by default {@link #DEFAULT_WINDOW_SIZE}.
+   */
+  @JsonCreator
+  public MappedFileSource(
+      @JsonProperty(value = "filename", required = true) final String filename,
+      @JsonProperty(value = "windowSize") final Integer windowSize) {
+    this.filename =
+        Objects.requireNonNull(filename, "Parameter filename to MappedFileSource may not be null");
+    this.windowSize = MoreObjects.firstNonNull(windowSize, DEFAULT_WINDOW_SIZE);
+  }
+
+  /**
+   * Construct a source of data that memory-maps a local file, {@link #DEFAULT_WINDOW_SIZE} bytes at a time.
+   *
+   * @param filename the local file to be read.
+   */
+  public MappedFileSource(final String filename) {
+    this(filename, null);
+  }
+
+  @Override
+  public InputStream getInputStream() throws IOException {
+    return new MappedFileInputStream(Paths.get(filename), windowSize);
+  }
+
+  /**
+   * @return the local file that this MappedFileSource references.
+   */
+  public String getFilename() {
+    return filename;
+  }
+}
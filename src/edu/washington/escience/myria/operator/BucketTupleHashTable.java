@@ -0,0 +1,176 @@
+package edu.washington.escience.myria.operator;
+
+import com.gs.collections.api.iterator.IntIterator;
+import com.gs.collections.impl.list.mutable.primitive.IntArrayList;
+import com.gs.collections.impl.map.mutable.primitive.IntObjectHashMap;
+
+import edu.washington.escience.myria.Schema;
+import edu.washington.escience.myria.storage.MutableTupleBuffer;
+import edu.washington.escience.myria.storage.ReadableTable;
+import edu.washington.escience.myria.storage.TupleBatch;
+import edu.washington.escience.myria.storage.TupleUtils;
+import edu.washington.escience.myria.util.HashUtils;
+
+/**
+ * A {@link TupleHashTable} that maps each hash code to a list of the indices of the tuples with that hash code.
+ */
+public final class BucketTupleHashTable implements TupleHashTable {
+  /** Required for Java serialization. */
+  private static final long serialVersionUID = 1L;
+
+  /** Map from hash codes to indices. */
+  private transient IntObjectHashMap<IntArrayList> keyHashCodesToIndices;
+  /** The table containing keys and values. */
+  private transient MutableTupleBuffer data;
+  /** Key column indices. */
+  private final int[] keyColumns;
+  /** The bucket walked by the last call to {@link #firstIndex} or {@link #nextIndex}. */
+  private transient IntArrayList cursorBucket;
+  /** The position in {@link #cursorBucket} of the last match returned. */
+  private transient int cursorPosition;
+
+  /**
+   * @param schema schema
+   * @param keyColumns key column indices
+   */
+  public BucketTupleHashTable(final Schema schema, final int[] keyColumns) {
+    this.keyColumns = keyColumns;
+    data = new MutableTupleBuffer(schema);
+    keyHashCodesToIndices = new IntObjectHashMap<IntArrayList>();
+  }
+
+  @Override
+  public int numTuples() {
+    return data.numTuples();
+  }
+
+  @Override
+  public IntArrayList getIndices(final ReadableTable tb, final int[] key, final int row) {
+    IntArrayList ret = new IntArrayList();
+    IntArrayList indices = keyHashCodesToIndices.get(HashUtils.hashSubRow(tb, key, row));
+    if (indices != null) {
+      IntIterator iter = indices.intIterator();
+      while (iter.hasNext()) {
+        int i = iter.next();
+        if (TupleUtils.tupleEquals(tb, key, row, data, keyColumns, i)) {
+          ret.add(i);
+        }
+      }
+    }
+    return ret;
+  }
+
+  @Override
+  public int firstIndex(final ReadableTable tb, final int[] key, final int row) {
+    return firstIndex(HashUtils.hashSubRow(tb, key, row), tb, key, row);
+  }
+
+  @Override
+  public int firstIndex(
+      final int hashCode, final ReadableTable tb, final int[] key, final int row) {
+    cursorBucket = keyHashCodesToIndices.get(hashCode);
+    return scan(tb, key, row, 0);
+  }
+
+  @Override
+  public int nextIndex(final ReadableTable tb, final int[] key, final int row, final int index) {
+    if (cursorBucket == null
+        || cursorPosition >= cursorBucket.size()
+        || cursorBucket.get(cursorPosition) != index) {
+      /* Not continuing the last walk, find where the previous match is. */
+      cursorBucket = keyHashCodesToIndices.get(HashUtils.hashSubRow(tb, key, row));
+      if (cursorBucket == null) {
+        return -1;
+      }
+      cursorPosition = cursorBucket.indexOf(index);
+      if (cursorPosition < 0) {
+        return -1;
+      }
+    }
+    return scan(tb, key, row, cursorPosition + 1);
+  }
+
+  /**
+   * Walk {@link #cursorBucket} from the given position and return the first match.
+   *
+   * @param tb the input tuple batch
+   * @param key the key columns
+   * @param row the row index of the tuple
+   * @param from the position in {@link #cursorBucket} to start from
+   * @return the index of the match, or -1 if there is none
+   */
+  private int scan(final ReadableTable tb, final int[] key, final int row, final int from) {
+    if (cursorBucket == null) {
+      return -1;
+    }
+    for (int pos = from; pos < cursorBucket.size(); ++pos) {
+      int i = cursorBucket.get(pos);
+      if (TupleUtils.tupleEquals(tb, key, row, data, keyColumns, i)) {
+        cursorPosition = pos;
+        return i;
+      }
+    }
+    cursorBucket = null;
+    return -1;
+  }
+
+  @Override
+  public boolean replace(final TupleBatch tb, final int[] keyColumns, final int row) {
+    IntIterator iter = getIndices(tb, keyColumns, row).intIterator();
+    if (!iter.hasNext()) {
+      return false;
+    }
+    while (iter.hasNext()) {
+      int i = iter.next();
+      for (int j = 0; j < data.numColumns(); ++j) {
+        data.replace(j, i, tb.getDataColumns().get(j), row);
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public int addTuple(
+      final ReadableTable tb, final int[] keyColumns, final int row, final boolean keyOnly) {
+    return addTuple(HashUtils.hashSubRow(tb, keyColumns, row), tb, keyColumns, row, keyOnly);
+  }
+
+  @Override
+  public int addTuple(
+      final int hashCode,
+      final ReadableTable tb,
+      final int[] keyColumns,
+      final int row,
+      final boolean keyOnly) {
+    IntArrayList indices = keyHashCodesToIndices.get(hashCode);
+    if (indices == null) {
+      indices = new IntArrayList();
+      keyHashCodesToIndices.put(hashCode, indices);
+    }
+    final int index = numTuples();
+    indices.add(index);
+    if (keyOnly) {
+      for (int i = 0; i < keyColumns.length; ++i) {
+        data.put(i, tb.asColumn(keyColumns[i]), row);
+      }
+    } else {
+      for (int i = 0; i < data.numColumns(); ++i) {
+        data.put(i, tb.asColumn(i), row);
+      }
+    }
+    return index;
+  }
+
+  @Override
+  public MutableTupleBuffer getData() {
+    return data;
+  }
+
+  @Override
+  public void cleanup() {
+    keyHashCodesToIndices = new IntObjectHashMap<IntArrayList>();
+    data.clear();
+    data = new MutableTupleBuffer(data.getSchema());
+    cursorBucket = null;
+  }
+}
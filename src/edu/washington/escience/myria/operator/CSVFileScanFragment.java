@@ -406,7 +406,7 @@ public class CSVFileScanFragment extends LeafOperator {
 
   @Override
   protected void init(final ImmutableMap<String, Object> execEnvVars) throws DbException {
-    buffer = new TupleBatchBuffer(getSchema());
+    buffer = new TupleBatchBuffer(getSchema(), true);
 
     if (!flagAsRangeSelected) {
       int workerID = getNodeID();
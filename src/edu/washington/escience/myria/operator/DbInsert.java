@@ -172,6 +172,8 @@ public class DbInsert extends AbstractDbInsert {
   public void cleanup() {
     try {
       if (accessMethod != null) {
+        /* Nothing to abort if the child finished, since the inserts are ended at EOS. */
+        accessMethod.abortInserts();
         accessMethod.close();
       }
     } catch (DbException e) {
@@ -224,11 +226,14 @@ public class DbInsert extends AbstractDbInsert {
     accessMethod.createTableIfNotExists(tempRelationKey, getSchema());
     /* Create indexes. */
     accessMethod.createIndexes(tempRelationKey, getSchema(), indexes);
+    /* Stream all the batches into the table, e.g., through a single PostgreSQL COPY. */
+    accessMethod.beginInserts(tempRelationKey);
   }
 
   @Override
   protected void childEOS() throws DbException {
     /* If the child finished, we're done too. If in overwrite mode, drop the existing table and rename. */
+    accessMethod.endInserts();
     if (overwriteTable) {
       accessMethod.dropAndRenameTables(relationKey, tempRelationKey);
     }
@@ -1,6 +1,7 @@
 package edu.washington.escience.myria.operator;
 
 import java.util.Iterator;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 
@@ -12,12 +13,17 @@ import edu.washington.escience.myria.DbException;
 import edu.washington.escience.myria.MyriaConstants;
 import edu.washington.escience.myria.RelationKey;
 import edu.washington.escience.myria.Schema;
+import edu.washington.escience.myria.SimplePredicate;
+import edu.washington.escience.myria.Type;
 import edu.washington.escience.myria.accessmethod.AccessMethod;
+import edu.washington.escience.myria.accessmethod.ColumnarAccessMethod;
 import edu.washington.escience.myria.accessmethod.ConnectionInfo;
+import edu.washington.escience.myria.accessmethod.JdbcAccessMethod;
 import edu.washington.escience.myria.storage.TupleBatch;
 
 /**
- * Push a select query down into a JDBC based database and scan over the query result.
+ * Push a select query down into a JDBC based database and scan over the query result. Relations in columnar storage are
+ * scanned directly, without SQL.
  * */
 public class DbQueryScan extends LeafOperator implements DbReader {
 
@@ -55,6 +61,22 @@ public class DbQueryScan extends LeafOperator implements DbReader {
    */
   private final boolean[] ascending;
 
+  /**
+   * The schema of the relation scanned by a relation scan, which differs from {@link #outputSchema} if only some
+   * columns are projected.
+   */
+  private final Schema relationSchema;
+
+  /**
+   * The columns of the relation that are projected, or null for all of them.
+   */
+  private final int[] columns;
+
+  /**
+   * The filter of a relation scan, or null for all the tuples.
+   */
+  private final List<SimplePredicate> predicates;
+
   /** Required for Java serialization. */
   private static final long serialVersionUID = 1L;
 
@@ -73,6 +95,9 @@ public class DbQueryScan extends LeafOperator implements DbReader {
     this.outputSchema = Objects.requireNonNull(outputSchema);
     sortedColumns = null;
     ascending = null;
+    relationSchema = null;
+    columns = null;
+    predicates = null;
   }
 
   /**
@@ -95,10 +120,7 @@ public class DbQueryScan extends LeafOperator implements DbReader {
    * @param outputSchema the Schema of the returned tuples.
    */
   public DbQueryScan(final RelationKey relationKey, final Schema outputSchema) {
-    this.relationKey = Objects.requireNonNull(relationKey);
-    this.outputSchema = Objects.requireNonNull(outputSchema);
-    sortedColumns = null;
-    ascending = null;
+    this(relationKey, outputSchema, null, (List<SimplePredicate>) null);
   }
 
   /**
@@ -134,6 +156,9 @@ public class DbQueryScan extends LeafOperator implements DbReader {
     this.outputSchema = Objects.requireNonNull(outputSchema);
     this.sortedColumns = sortedColumns;
     this.ascending = ascending;
+    relationSchema = outputSchema;
+    columns = null;
+    predicates = null;
   }
 
   /**
@@ -157,6 +182,51 @@ public class DbQueryScan extends LeafOperator implements DbReader {
     this.connectionInfo = connectionInfo;
   }
 
+  /**
+   * Construct a new DbQueryScan object that runs <code>SELECT columns FROM relationKey WHERE predicates</code>. On
+   * columnar storage, only the chunks of the needed columns are read and row groups that cannot satisfy the predicates
+   * are skipped.
+   *
+   * @param relationKey the relation to be scanned.
+   * @param relationSchema the Schema of the relation.
+   * @param columns the columns of the relation that are returned, or null for all of them.
+   * @param predicates the predicates that the returned tuples all satisfy, or null. Their fields index the columns of
+   *          the relation.
+   */
+  public DbQueryScan(
+      final RelationKey relationKey,
+      final Schema relationSchema,
+      final int[] columns,
+      final List<SimplePredicate> predicates) {
+    this.relationKey = Objects.requireNonNull(relationKey);
+    this.relationSchema = Objects.requireNonNull(relationSchema);
+    this.columns = columns;
+    this.predicates = predicates;
+    outputSchema = columns == null ? relationSchema : relationSchema.getSubSchema(columns);
+    sortedColumns = null;
+    ascending = null;
+  }
+
+  /**
+   * Construct a new DbQueryScan object that runs <code>SELECT columns FROM relationKey WHERE predicates</code>, but
+   * receiving the connection info as input.
+   *
+   * @param connectionInfo the connection information.
+   * @param relationKey the relation to be scanned.
+   * @param relationSchema the Schema of the relation.
+   * @param columns the columns of the relation that are returned, or null for all of them.
+   * @param predicates the predicates that the returned tuples all satisfy, or null.
+   */
+  public DbQueryScan(
+      final ConnectionInfo connectionInfo,
+      final RelationKey relationKey,
+      final Schema relationSchema,
+      final int[] columns,
+      final List<SimplePredicate> predicates) {
+    this(relationKey, relationSchema, columns, predicates);
+    this.connectionInfo = Objects.requireNonNull(connectionInfo);
+  }
+
   @Override
   public final void cleanup() {
     tuples = null;
@@ -166,9 +236,21 @@ public class DbQueryScan extends LeafOperator implements DbReader {
   protected final TupleBatch fetchNextReady() throws DbException {
     Objects.requireNonNull(connectionInfo);
     if (tuples == null) {
-      tuples =
-          AccessMethod.of(connectionInfo.getDbms(), connectionInfo, true)
-              .tupleBatchIteratorFromQuery(baseSQL, outputSchema);
+      final AccessMethod accessMethod =
+          AccessMethod.of(connectionInfo.getDbms(), connectionInfo, true);
+      if (relationKey != null
+          && connectionInfo.getDbms().equals(MyriaConstants.STORAGE_SYSTEM_COLUMNAR)) {
+        tuples =
+            ((ColumnarAccessMethod) accessMethod)
+                .tupleBatchIteratorFromRelation(relationKey, relationSchema, columns, predicates);
+      } else if (relationKey != null
+          && connectionInfo.getDbms().equals(MyriaConstants.STORAGE_SYSTEM_POSTGRESQL)) {
+        /* Relations stored by Myria have the types of the schema, so the binary COPY output can be decoded directly. */
+        tuples =
+            ((JdbcAccessMethod) accessMethod).tupleBatchIteratorFromCopy(baseSQL, outputSchema);
+      } else {
+        tuples = accessMethod.tupleBatchIteratorFromQuery(baseSQL, outputSchema);
+      }
     }
     if (tuples.hasNext()) {
       final TupleBatch tb = tuples.next();
@@ -205,7 +287,17 @@ public class DbQueryScan extends LeafOperator implements DbReader {
     }
 
     if (relationKey != null) {
-      baseSQL = "SELECT * FROM " + relationKey.toString(connectionInfo.getDbms());
+      if (connectionInfo.getDbms().equals(MyriaConstants.STORAGE_SYSTEM_COLUMNAR)) {
+        if (sortedColumns != null && sortedColumns.length > 0) {
+          throw new DbException("Columnar storage cannot scan " + relationKey + " in order");
+        }
+        return;
+      }
+      final String dbms = connectionInfo.getDbms();
+      baseSQL = "SELECT " + selectList(dbms) + " FROM " + relationKey.toString(dbms);
+      if (predicates != null && !predicates.isEmpty()) {
+        baseSQL = baseSQL.concat(whereClause(dbms));
+      }
 
       String prefix = "";
       if (sortedColumns != null && sortedColumns.length > 0) {
@@ -213,7 +305,9 @@ public class DbQueryScan extends LeafOperator implements DbReader {
         StringBuilder orderByClause = new StringBuilder(" ORDER BY");
 
         for (int columnIdx : sortedColumns) {
-          orderByClause.append(prefix + " " + getSchema().getColumnName(columnIdx));
+          orderByClause
+              .append(prefix + " ")
+              .append(AccessMethod.quoteColumn(dbms, getSchema().getColumnName(columnIdx)));
           if (ascending[columnIdx]) {
             orderByClause.append(" ASC");
           } else {
@@ -228,6 +322,79 @@ public class DbQueryScan extends LeafOperator implements DbReader {
     }
   }
 
+  /**
+   * @param dbms the DBMS that will run the scan.
+   * @return the projected columns of a relation scan, in SQL.
+   */
+  private String selectList(final String dbms) {
+    if (columns == null) {
+      return "*";
+    }
+    StringBuilder list = new StringBuilder();
+    for (int column : columns) {
+      if (list.length() > 0) {
+        list.append(',');
+      }
+      list.append(AccessMethod.quoteColumn(dbms, relationSchema.getColumnName(column)));
+    }
+    return list.toString();
+  }
+
+  /**
+   * @param dbms the DBMS that will run the scan.
+   * @return the predicates of a relation scan, as a SQL WHERE clause.
+   * @throws DbException if an operand cannot be written in the SQL of the DBMS.
+   */
+  private String whereClause(final String dbms) throws DbException {
+    StringBuilder where = new StringBuilder(" WHERE ");
+    String prefix = "";
+    for (SimplePredicate predicate : predicates) {
+      Type type = relationSchema.getColumnType(predicate.getField());
+      where
+          .append(prefix)
+          .append(
+              AccessMethod.quoteColumn(dbms, relationSchema.getColumnName(predicate.getField())));
+      String operand = predicate.getOperand();
+      if (type == Type.STRING_TYPE || type == Type.DATETIME_TYPE) {
+        if (predicate.getOp() == SimplePredicate.Op.LIKE) {
+          /* Like Type#filter, LIKE matches the strings that contain the operand. */
+          operand = "%" + operand + "%";
+        }
+        operand = "'" + operand.replace("'", "''") + "'";
+      } else {
+        operand = numericLiteral(dbms, type, operand);
+      }
+      where.append(' ').append(predicate.getOp()).append(' ').append(operand);
+      prefix = " AND ";
+    }
+    return where.toString();
+  }
+
+  /**
+   * @param dbms the DBMS that will run the scan.
+   * @param type the type of a numeric column.
+   * @param operand an operand compared with the column.
+   * @return the operand as a SQL literal.
+   * @throws DbException if the operand is NaN or infinite and the DBMS has no literal for it.
+   */
+  private static String numericLiteral(final String dbms, final Type type, final String operand)
+      throws DbException {
+    /* Parsing checks that the operand is a literal of the type of the column. */
+    final Object value = type.fromString(operand);
+    if (value instanceof Number) {
+      final double d = ((Number) value).doubleValue();
+      if (Double.isNaN(d) || Double.isInfinite(d)) {
+        if (!MyriaConstants.STORAGE_SYSTEM_POSTGRESQL.equals(dbms)) {
+          throw new DbException(
+              "Cannot compare a column with " + value + " in a scan of " + dbms + " storage");
+        }
+        /* PostgreSQL spells them NaN, Infinity and -Infinity, like Java, but only as quoted literals. */
+        return "'" + value + "'::" + (type == Type.FLOAT_TYPE ? "float4" : "float8");
+      }
+    }
+    return String.valueOf(value);
+  }
+
   /**
    * @return the connection info in this DbQueryScan.
    */
@@ -7,16 +7,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.collect.ImmutableMap;
-import com.gs.collections.api.block.procedure.primitive.IntProcedure;
-import com.gs.collections.impl.list.mutable.primitive.IntArrayList;
-import com.gs.collections.impl.map.mutable.primitive.IntObjectHashMap;
 
 import edu.washington.escience.myria.Schema;
-import edu.washington.escience.myria.column.Column;
-import edu.washington.escience.myria.storage.MutableTupleBuffer;
 import edu.washington.escience.myria.storage.TupleBatch;
-import edu.washington.escience.myria.storage.TupleUtils;
 import edu.washington.escience.myria.util.HashUtils;
+import edu.washington.escience.myria.util.MyriaArrayUtils;
 
 /**
  * Duplicate elimination. It adds newly meet unique tuples into a buffer so that the source TupleBatches are not
@@ -33,19 +28,27 @@ public final class DupElim extends StreamingState {
   static final Logger LOGGER = LoggerFactory.getLogger(DupElim.class);
 
   /**
-   * Indices to unique tuples.
+   * The hash table of unique tuples, keyed on all their columns.
    * */
-  private transient IntObjectHashMap<IntArrayList> uniqueTupleIndices;
+  private transient TupleHashTable uniqueTuples = null;
 
   /**
-   * The buffer for storing unique tuples.
+   * All the column indices, which make up the key.
    * */
-  private transient MutableTupleBuffer uniqueTuples = null;
+  private transient int[] allColumns;
+
+  /**
+   * The hash codes of the rows of the current input batch.
+   * */
+  private transient int[] hashes;
 
   @Override
   public void cleanup() {
-    uniqueTuples = null;
-    uniqueTupleIndices = null;
+    if (uniqueTuples != null) {
+      uniqueTuples.getData().clear();
+      uniqueTuples = null;
+    }
+    hashes = null;
   }
 
   /**
@@ -60,27 +63,14 @@ public final class DupElim extends StreamingState {
     if (numTuples <= 0) {
       return tb;
     }
-    checkUniqueness.inputTB = tb;
-    List<? extends Column<?>> columns = tb.getDataColumns();
     final BitSet toRemove = new BitSet(numTuples);
+    if (hashes == null || hashes.length < numTuples) {
+      hashes = new int[numTuples];
+    }
+    HashUtils.hashSubRows(tb, allColumns, 0, hashes);
     for (int i = 0; i < numTuples; ++i) {
-      final int nextIndex = uniqueTuples.numTuples();
-      final int cntHashCode = HashUtils.hashRow(tb, i);
-      IntArrayList tupleIndexList = uniqueTupleIndices.get(cntHashCode);
-      checkUniqueness.row = i;
-      checkUniqueness.unique = true;
-      if (tupleIndexList == null) {
-        tupleIndexList = new IntArrayList(1);
-        tupleIndexList.add(nextIndex);
-        uniqueTupleIndices.put(cntHashCode, tupleIndexList);
-      } else {
-        tupleIndexList.forEach(checkUniqueness);
-      }
-      if (checkUniqueness.unique) {
-        for (int j = 0; j < tb.numColumns(); ++j) {
-          uniqueTuples.put(j, columns.get(j), i);
-        }
-        tupleIndexList.add(nextIndex);
+      if (uniqueTuples.firstIndex(hashes[i], tb, allColumns, i) == -1) {
+        uniqueTuples.addTuple(hashes[i], tb, allColumns, i, false);
       } else {
         toRemove.set(i);
       }
@@ -95,9 +85,8 @@ public final class DupElim extends StreamingState {
 
   @Override
   public void init(final ImmutableMap<String, Object> execEnvVars) {
-    uniqueTupleIndices = new IntObjectHashMap<>();
-    uniqueTuples = new MutableTupleBuffer(getSchema());
-    checkUniqueness = new CheckUniquenessProcedure();
+    allColumns = MyriaArrayUtils.range(0, getSchema().numColumns());
+    uniqueTuples = TupleHashTable.Kind.of(execEnvVars).newTable(getSchema(), allColumns);
   }
 
   @Override
@@ -111,7 +100,7 @@ public final class DupElim extends StreamingState {
 
   @Override
   public List<TupleBatch> exportState() {
-    return uniqueTuples.getAll();
+    return uniqueTuples.getData().getAll();
   }
 
   @Override
@@ -122,36 +111,6 @@ public final class DupElim extends StreamingState {
     return uniqueTuples.numTuples();
   }
 
-  /**
-   * Traverse through the list of tuples.
-   * */
-  private transient CheckUniquenessProcedure checkUniqueness;
-
-  /**
-   * Traverse through the list of tuples with the same hash code.
-   * */
-  private final class CheckUniquenessProcedure implements IntProcedure {
-
-    /** serialization id. */
-    private static final long serialVersionUID = 1L;
-
-    /** row index of the tuple. */
-    private int row;
-
-    /** input TupleBatch. */
-    private TupleBatch inputTB;
-
-    /** if found a replacement. */
-    private boolean unique;
-
-    @Override
-    public void value(final int index) {
-      if (TupleUtils.tupleEquals(inputTB, row, uniqueTuples, index)) {
-        unique = false;
-      }
-    }
-  };
-
   @Override
   public StreamingState duplicate() {
     return new DupElim();
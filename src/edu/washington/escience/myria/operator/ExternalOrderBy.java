@@ -0,0 +1,292 @@
+package edu.washington.escience.myria.operator;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+
+import edu.washington.escience.myria.BinaryTupleReader;
+import edu.washington.escience.myria.DbException;
+import edu.washington.escience.myria.Schema;
+import edu.washington.escience.myria.storage.MutableTupleBuffer;
+import edu.washington.escience.myria.storage.TupleBatch;
+import edu.washington.escience.myria.storage.TupleBatchBuffer;
+import edu.washington.escience.myria.storage.TupleSorter;
+import edu.washington.escience.myria.storage.TupleUtils;
+
+/**
+ * Orders tuples using at most a given amount of memory. Input is buffered until the memory budget is reached, then the
+ * buffered tuples are sorted and spilled to a local temporary file in the format of {@link BinaryTupleReader}. Once the
+ * input is exhausted, the sorted runs are merged with a heap. If the whole input fits in the budget nothing is spilled.
+ */
+public final class ExternalOrderBy extends UnaryOperator {
+
+  /** Required for Java serialization. */
+  private static final long serialVersionUID = 1L;
+
+  /** The logger for this class. */
+  private static final Logger LOGGER = LoggerFactory.getLogger(ExternalOrderBy.class);
+
+  /** The default memory budget, in bytes. */
+  public static final long DEFAULT_MEMORY_BUDGET = 64L * 1024 * 1024;
+
+  /** Which columns to sort the tuples by. */
+  private final int[] sortColumns;
+  /** True for each column that should be sorted ascending. */
+  private final boolean[] ascending;
+  /** The estimated number of bytes of tuples to buffer before spilling a run. */
+  private final long memoryBudget;
+
+  /** Sorts runs and compares tuples of different runs. */
+  private transient TupleSorter sorter;
+  /** The tuples of the run being buffered. */
+  private transient MutableTupleBuffer run;
+  /** The estimated size of {@link #run}, in bytes. */
+  private transient long runBytes;
+  /** The files holding the spilled runs. */
+  private transient List<SpillFile> runFiles;
+  /** The runs being merged, ordered by their current tuple. */
+  private transient PriorityQueue<RunReader> heap;
+  /** Buffers tuples until they are returned. */
+  private transient TupleBatchBuffer ans;
+  /** True once all input has been consumed. */
+  private transient boolean inputDone;
+
+  /**
+   * @param child the source of the tuples.
+   * @param sortColumns the columns that should be ordered by
+   * @param ascending true for each column that should be sorted ascending
+   */
+  public ExternalOrderBy(final Operator child, final int[] sortColumns, final boolean[] ascending) {
+    this(child, sortColumns, ascending, DEFAULT_MEMORY_BUDGET);
+  }
+
+  /**
+   * @param child the source of the tuples.
+   * @param sortColumns the columns that should be ordered by
+   * @param ascending true for each column that should be sorted ascending
+   * @param memoryBudget the estimated number of bytes of tuples to hold in memory before spilling to disk
+   */
+  public ExternalOrderBy(
+      final Operator child,
+      final int[] sortColumns,
+      final boolean[] ascending,
+      final long memoryBudget) {
+    super(child);
+    this.sortColumns = sortColumns;
+    this.ascending = ascending;
+    this.memoryBudget = memoryBudget;
+  }
+
+  /**
+   * Reads one spilled run, one tuple at a time.
+   */
+  private static final class RunReader {
+    /** The run file. */
+    private final SpillFile file;
+    /** The current batch. */
+    private TupleBatch batch;
+    /** The current row in {@link #batch}. */
+    private int row;
+
+    /**
+     * @param file the run file
+     * @throws IOException if the file cannot be read
+     * @throws DbException if the file cannot be read
+     */
+    RunReader(final SpillFile file) throws IOException, DbException {
+      this.file = file;
+      batch = file.read();
+      row = 0;
+    }
+
+    /** @return true if there is a current tuple. */
+    boolean hasTuple() {
+      return batch != null;
+    }
+
+    /**
+     * Move to the next tuple.
+     *
+     * @throws IOException if the file cannot be read
+     * @throws DbException if the file cannot be read
+     */
+    void advance() throws IOException, DbException {
+      if (++row >= batch.numTuples()) {
+        batch = file.read();
+        row = 0;
+      }
+    }
+  }
+
+  @Override
+  protected void init(final ImmutableMap<String, Object> execEnvVars) throws Exception {
+    Preconditions.checkArgument(sortColumns.length == ascending.length);
+    Preconditions.checkArgument(memoryBudget > 0, "memory budget must be positive");
+    sorter = new TupleSorter(sortColumns, ascending);
+    run = new MutableTupleBuffer(getSchema());
+    runBytes = 0;
+    runFiles = new ArrayList<>();
+    ans = new TupleBatchBuffer(getSchema());
+    inputDone = false;
+  }
+
+  @Override
+  protected TupleBatch fetchNextReady() throws Exception {
+    TupleBatch nexttb = ans.popFilled();
+    if (nexttb != null) {
+      return nexttb;
+    }
+
+    if (!inputDone) {
+      while (!getChild().eos()) {
+        TupleBatch tb = getChild().nextReady();
+        if (tb != null) {
+          addToRun(tb);
+        } else if (!getChild().eos()) {
+          return null;
+        }
+      }
+      Preconditions.checkState(getChild().eos());
+      inputDone = true;
+      finishInput();
+    }
+
+    if (heap != null) {
+      merge();
+    }
+    nexttb = ans.popFilled();
+    if (nexttb == null) {
+      nexttb = ans.popAny();
+    }
+    return nexttb;
+  }
+
+  /**
+   * Buffer a batch of input, spilling the current run if it exceeds the memory budget.
+   *
+   * @param tb the input
+   * @throws IOException if the run cannot be spilled
+   */
+  private void addToRun(final TupleBatch tb) throws IOException {
+    for (int row = 0; row < tb.numTuples(); ++row) {
+      for (int column = 0; column < tb.numColumns(); ++column) {
+        run.put(column, tb.asColumn(column), row);
+      }
+    }
+    runBytes += TupleUtils.estimateSize(tb);
+    if (runBytes >= memoryBudget) {
+      spillRun();
+    }
+  }
+
+  /**
+   * Sort the current run, write it to a temporary file and empty it.
+   *
+   * @throws IOException if the file cannot be written
+   */
+  private void spillRun() throws IOException {
+    if (run.numTuples() == 0) {
+      return;
+    }
+    SpillFile file = new SpillFile(getSchema(), "myria-sort");
+    runFiles.add(file);
+    /* Write a batch at a time so the sorted copy does not double the memory used. */
+    final int[] indexes = sorter.sort(run);
+    for (int from = 0; from < indexes.length; from += run.getBatchSize()) {
+      file.write(run.gather(indexes, from, Math.min(from + run.getBatchSize(), indexes.length)));
+    }
+    file.finishWriting();
+    LOGGER.debug(
+        "{} spilled run {} of {} tuples to {}",
+        getOpName(),
+        runFiles.size(),
+        run.numTuples(),
+        file);
+    run = new MutableTupleBuffer(getSchema());
+    runBytes = 0;
+  }
+
+  /**
+   * Called once all input has been buffered or spilled. Either sorts the input in memory or starts merging runs.
+   *
+   * @throws IOException if the runs cannot be read or written
+   * @throws DbException if the runs cannot be read
+   */
+  private void finishInput() throws IOException, DbException {
+    if (runFiles.isEmpty()) {
+      final int[] indexes = sorter.sort(run);
+      for (int from = 0; from < indexes.length; from += run.getBatchSize()) {
+        ans.appendTB(
+            run.gather(indexes, from, Math.min(from + run.getBatchSize(), indexes.length)));
+      }
+      run = new MutableTupleBuffer(getSchema());
+      return;
+    }
+    spillRun();
+    heap =
+        new PriorityQueue<>(
+            runFiles.size(),
+            new Comparator<RunReader>() {
+              @Override
+              public int compare(final RunReader left, final RunReader right) {
+                return sorter.compare(left.batch, left.row, right.batch, right.row);
+              }
+            });
+    for (SpillFile file : runFiles) {
+      RunReader reader = new RunReader(file);
+      if (reader.hasTuple()) {
+        heap.add(reader);
+      }
+    }
+  }
+
+  /**
+   * Merge the runs until a full batch is ready or the runs are exhausted.
+   *
+   * @throws IOException if the runs cannot be read
+   * @throws DbException if the runs cannot be read
+   */
+  private void merge() throws IOException, DbException {
+    while (!heap.isEmpty() && ans.numTuples() < ans.getBatchSize()) {
+      RunReader reader = heap.poll();
+      ans.append(reader.batch, reader.row);
+      reader.advance();
+      if (reader.hasTuple()) {
+        heap.add(reader);
+      }
+    }
+  }
+
+  @Override
+  protected void cleanup() throws IOException {
+    if (runFiles != null) {
+      for (SpillFile file : runFiles) {
+        file.delete();
+      }
+      runFiles.clear();
+    }
+    heap = null;
+    run = null;
+    if (ans != null) {
+      ans.clear();
+      ans = null;
+    }
+  }
+
+  @Override
+  protected Schema generateSchema() {
+    Operator child = getChild();
+    if (child == null) {
+      return null;
+    }
+    return child.getSchema();
+  }
+}
@@ -1,6 +1,5 @@
 package edu.washington.escience.myria.operator;
 
-import java.lang.reflect.InvocationTargetException;
 import java.util.BitSet;
 
 import com.google.common.base.Preconditions;
@@ -45,18 +44,7 @@ public final class Filter extends UnaryOperator {
   protected TupleBatch fetchNextReady() throws DbException {
     Operator child = getChild();
     for (TupleBatch tb = child.nextReady(); tb != null; tb = child.nextReady()) {
-      BitSet bits = new BitSet(tb.numTuples());
-      for (int rowIdx = 0; rowIdx < tb.numTuples(); rowIdx++) {
-        Boolean valid;
-        try {
-          valid = evaluator.eval(tb, rowIdx);
-        } catch (InvocationTargetException e) {
-          throw new DbException(e);
-        }
-        if (valid) {
-          bits.set(rowIdx);
-        }
-      }
+      BitSet bits = evaluator.evalBatch(tb);
 
       if (bits.cardinality() == 0) {
         continue;
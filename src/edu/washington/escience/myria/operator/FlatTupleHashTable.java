@@ -0,0 +1,220 @@
+package edu.washington.escience.myria.operator;
+
+import java.util.Arrays;
+
+import com.gs.collections.impl.list.mutable.primitive.IntArrayList;
+
+import edu.washington.escience.myria.Schema;
+import edu.washington.escience.myria.storage.MutableTupleBuffer;
+import edu.washington.escience.myria.storage.ReadableTable;
+import edu.washington.escience.myria.storage.TupleBatch;
+import edu.washington.escience.myria.storage.TupleUtils;
+import edu.washington.escience.myria.util.HashUtils;
+
+/**
+ * A {@link TupleHashTable} that does not allocate per key. Distinct hash codes live in an open-addressing (linear
+ * probing) table of parallel primitive arrays, each slot pointing to the first and last tuples with that hash code.
+ * Tuples with the same hash code are chained in insertion order through {@link #nextIndices}, so a probe only compares
+ * keys of tuples whose full hash code matches.
+ */
+public final class FlatTupleHashTable implements TupleHashTable {
+  /** Required for Java serialization. */
+  private static final long serialVersionUID = 1L;
+
+  /** Marks an empty slot and the end of a chain. */
+  private static final int NONE = -1;
+  /** Initial number of slots. Must be a power of two. */
+  private static final int INITIAL_CAPACITY = 1024;
+  /** The table grows when more than this fraction of its slots are occupied. */
+  private static final double MAX_LOAD_FACTOR = 0.5;
+
+  /** The hash code of each slot. */
+  private transient int[] slotHashes;
+  /** The index of the first tuple of each slot, {@link #NONE} if the slot is empty. */
+  private transient int[] slotHeads;
+  /** The index of the last tuple of each slot. */
+  private transient int[] slotTails;
+  /** For each tuple, the index of the next tuple with the same hash code, {@link #NONE} if it is the last one. */
+  private transient int[] nextIndices;
+  /** The number of occupied slots. */
+  private transient int numSlotsUsed;
+  /** The table containing keys and values. */
+  private transient MutableTupleBuffer data;
+  /** Key column indices. */
+  private final int[] keyColumns;
+
+  /**
+   * @param schema schema
+   * @param keyColumns key column indices
+   */
+  public FlatTupleHashTable(final Schema schema, final int[] keyColumns) {
+    this.keyColumns = keyColumns;
+    data = new MutableTupleBuffer(schema);
+    allocate(INITIAL_CAPACITY);
+  }
+
+  /**
+   * Allocate empty arrays.
+   *
+   * @param capacity the number of slots, a power of two
+   */
+  private void allocate(final int capacity) {
+    slotHashes = new int[capacity];
+    slotHeads = new int[capacity];
+    Arrays.fill(slotHeads, NONE);
+    slotTails = new int[capacity];
+    numSlotsUsed = 0;
+    if (nextIndices == null) {
+      nextIndices = new int[capacity];
+    }
+  }
+
+  @Override
+  public int numTuples() {
+    return data.numTuples();
+  }
+
+  /**
+   * @param hashCode a hash code
+   * @return the slot holding the given hash code, or the empty slot where it should be inserted
+   */
+  private int findSlot(final int hashCode) {
+    final int mask = slotHeads.length - 1;
+    int slot = hashCode & mask;
+    while (slotHeads[slot] != NONE && slotHashes[slot] != hashCode) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  /**
+   * Follow the chain starting at the given tuple until a tuple with the same key is found.
+   *
+   * @param index the tuple to start from
+   * @param tb the input tuple batch
+   * @param key the key columns
+   * @param row the row index of the tuple
+   * @return the index of the match, or -1 if there is none
+   */
+  private int scan(final int index, final ReadableTable tb, final int[] key, final int row) {
+    int i = index;
+    while (i != NONE && !TupleUtils.tupleEquals(tb, key, row, data, keyColumns, i)) {
+      i = nextIndices[i];
+    }
+    return i;
+  }
+
+  @Override
+  public int firstIndex(final ReadableTable tb, final int[] key, final int row) {
+    return firstIndex(HashUtils.hashSubRow(tb, key, row), tb, key, row);
+  }
+
+  @Override
+  public int firstIndex(
+      final int hashCode, final ReadableTable tb, final int[] key, final int row) {
+    return scan(slotHeads[findSlot(hashCode)], tb, key, row);
+  }
+
+  @Override
+  public int nextIndex(final ReadableTable tb, final int[] key, final int row, final int index) {
+    return scan(nextIndices[index], tb, key, row);
+  }
+
+  @Override
+  public IntArrayList getIndices(final ReadableTable tb, final int[] key, final int row) {
+    IntArrayList ret = new IntArrayList();
+    for (int i = firstIndex(tb, key, row); i != NONE; i = nextIndex(tb, key, row, i)) {
+      ret.add(i);
+    }
+    return ret;
+  }
+
+  @Override
+  public boolean replace(final TupleBatch tb, final int[] keyColumns, final int row) {
+    int i = firstIndex(tb, keyColumns, row);
+    if (i == NONE) {
+      return false;
+    }
+    for (; i != NONE; i = nextIndex(tb, keyColumns, row, i)) {
+      for (int j = 0; j < data.numColumns(); ++j) {
+        data.replace(j, i, tb.getDataColumns().get(j), row);
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public int addTuple(
+      final ReadableTable tb, final int[] keyColumns, final int row, final boolean keyOnly) {
+    return addTuple(HashUtils.hashSubRow(tb, keyColumns, row), tb, keyColumns, row, keyOnly);
+  }
+
+  @Override
+  public int addTuple(
+      final int hashCode,
+      final ReadableTable tb,
+      final int[] keyColumns,
+      final int row,
+      final boolean keyOnly) {
+    final int index = numTuples();
+    if (keyOnly) {
+      for (int i = 0; i < keyColumns.length; ++i) {
+        data.put(i, tb.asColumn(keyColumns[i]), row);
+      }
+    } else {
+      for (int i = 0; i < data.numColumns(); ++i) {
+        data.put(i, tb.asColumn(i), row);
+      }
+    }
+    if (index == nextIndices.length) {
+      nextIndices = Arrays.copyOf(nextIndices, nextIndices.length * 2);
+    }
+    nextIndices[index] = NONE;
+
+    final int slot = findSlot(hashCode);
+    if (slotHeads[slot] == NONE) {
+      slotHashes[slot] = hashCode;
+      slotHeads[slot] = index;
+      slotTails[slot] = index;
+      if (++numSlotsUsed > slotHeads.length * MAX_LOAD_FACTOR) {
+        grow();
+      }
+    } else {
+      nextIndices[slotTails[slot]] = index;
+      slotTails[slot] = index;
+    }
+    return index;
+  }
+
+  /**
+   * Double the number of slots and re-insert the occupied ones.
+   */
+  private void grow() {
+    final int[] oldHashes = slotHashes;
+    final int[] oldHeads = slotHeads;
+    final int[] oldTails = slotTails;
+    allocate(oldHeads.length * 2);
+    for (int oldSlot = 0; oldSlot < oldHeads.length; ++oldSlot) {
+      if (oldHeads[oldSlot] != NONE) {
+        final int slot = findSlot(oldHashes[oldSlot]);
+        slotHashes[slot] = oldHashes[oldSlot];
+        slotHeads[slot] = oldHeads[oldSlot];
+        slotTails[slot] = oldTails[oldSlot];
+        ++numSlotsUsed;
+      }
+    }
+  }
+
+  @Override
+  public MutableTupleBuffer getData() {
+    return data;
+  }
+
+  @Override
+  public void cleanup() {
+    data.clear();
+    data = new MutableTupleBuffer(data.getSchema());
+    nextIndices = null;
+    allocate(INITIAL_CAPACITY);
+  }
+}
@@ -0,0 +1,285 @@
+package edu.washington.escience.myria.operator;
+
+import java.io.IOException;
+import java.util.Collection;
+
+import com.google.common.base.Preconditions;
+
+import edu.washington.escience.myria.Schema;
+import edu.washington.escience.myria.storage.TupleBatch;
+import edu.washington.escience.myria.storage.TupleUtils;
+import edu.washington.escience.myria.util.HashUtils;
+
+/**
+ * The build side of a hybrid hash join. Tuples are divided into partitions by a hash of their join key that is
+ * independent of the hash used inside the {@link TupleHashTable}s. Each partition starts in memory; when the estimated
+ * size of the in-memory partitions exceeds the memory budget, the largest one is spilled to a local file together with
+ * every later build and probe tuple that falls into it. Spilled partitions are joined later, recursively, by a new
+ * table one level deeper, which partitions by a different hash function.
+ *
+ * At the deepest level nothing is spilled, so a partition that does not fit in memory because of a single heavy key is
+ * eventually joined in memory anyway.
+ */
+final class HybridHashJoinTable {
+  /** The number of partitions at each level. */
+  static final int NUM_PARTITIONS = 16;
+  /** The deepest level. Level {@code i} partitions with hash function {@code NUM_OF_HASHFUNCTIONS - 1 - i}. */
+  static final int MAX_LEVEL = HashUtils.NUM_OF_HASHFUNCTIONS - 2;
+
+  /** A spilled partition, waiting to be joined. */
+  static final class SpilledPartition {
+    /** The build tuples of the partition. */
+    private final SpillFile right;
+    /** The probe tuples of the partition. */
+    private final SpillFile left;
+    /** The level of the table that will join the partition. */
+    private final int level;
+
+    /**
+     * @param right the build tuples of the partition
+     * @param left the probe tuples of the partition
+     * @param level the level of the table that will join the partition
+     */
+    SpilledPartition(final SpillFile right, final SpillFile left, final int level) {
+      this.right = right;
+      this.left = left;
+      this.level = level;
+    }
+
+    /** @return the build tuples of the partition. */
+    SpillFile getRight() {
+      return right;
+    }
+
+    /** @return the probe tuples of the partition. */
+    SpillFile getLeft() {
+      return left;
+    }
+
+    /** @return the level of the table that will join the partition. */
+    int getLevel() {
+      return level;
+    }
+  }
+
+  /** The schema of the build tuples. */
+  private final Schema rightSchema;
+  /** The schema of the probe tuples. */
+  private final Schema leftSchema;
+  /** The join key of the build tuples. */
+  private final int[] rightKey;
+  /** The join key of the probe tuples. */
+  private final int[] leftKey;
+  /** The estimated number of bytes of build tuples to hold in memory. */
+  private final long memoryBudget;
+  /** The depth of this table, 0 for the table built from the right child. */
+  private final int level;
+  /** The hash function used to choose partitions. */
+  private final int seedIndex;
+  /** The hash table of each partition, null if the partition has been spilled. */
+  private final TupleHashTable[] tables;
+  /** The estimated size of each in-memory partition, in bytes. */
+  private final long[] bytes;
+  /** The spilled build tuples of each partition, null if the partition is in memory. */
+  private final SpillFile[] rightFiles;
+  /** The spilled probe tuples of each partition, null if the partition is in memory. */
+  private final SpillFile[] leftFiles;
+  /** The estimated size of all in-memory partitions, in bytes. */
+  private long totalBytes;
+  /** The number of partitions spilled. */
+  private int numSpilledPartitions;
+  /** The number of tuples written to spill files. */
+  private long numTuplesSpilled;
+
+  /**
+   * @param kind the kind of the in-memory hash tables
+   * @param rightSchema the schema of the build tuples
+   * @param rightKey the join key of the build tuples
+   * @param leftSchema the schema of the probe tuples
+   * @param leftKey the join key of the probe tuples
+   * @param memoryBudget the estimated number of bytes of build tuples to hold in memory
+   * @param level the depth of this table, 0 for the table built from the right child
+   */
+  HybridHashJoinTable(
+      final TupleHashTable.Kind kind,
+      final Schema rightSchema,
+      final int[] rightKey,
+      final Schema leftSchema,
+      final int[] leftKey,
+      final long memoryBudget,
+      final int level) {
+    Preconditions.checkArgument(level >= 0 && level <= MAX_LEVEL, "invalid level %s", level);
+    this.rightSchema = rightSchema;
+    this.leftSchema = leftSchema;
+    this.rightKey = rightKey;
+    this.leftKey = leftKey;
+    this.memoryBudget = memoryBudget;
+    this.level = level;
+    seedIndex = HashUtils.NUM_OF_HASHFUNCTIONS - 1 - level;
+    tables = new TupleHashTable[NUM_PARTITIONS];
+    for (int i = 0; i < NUM_PARTITIONS; ++i) {
+      tables[i] = kind.newTable(rightSchema, rightKey);
+    }
+    bytes = new long[NUM_PARTITIONS];
+    rightFiles = new SpillFile[NUM_PARTITIONS];
+    leftFiles = new SpillFile[NUM_PARTITIONS];
+  }
+
+  /**
+   * @param tb a batch
+   * @param key the join key of the batch
+   * @param row a row of the batch
+   * @return the partition of the row
+   */
+  private int partition(final TupleBatch tb, final int[] key, final int row) {
+    return Math.floorMod(HashUtils.hashSubRow(tb, key, row, seedIndex), NUM_PARTITIONS);
+  }
+
+  /**
+   * Add a build tuple, spilling partitions if the memory budget is exceeded.
+   *
+   * @param tb the batch containing the tuple
+   * @param row the row of the tuple
+   * @throws IOException if a partition cannot be spilled
+   */
+  void addRight(final TupleBatch tb, final int row) throws IOException {
+    final int p = partition(tb, rightKey, row);
+    if (tables[p] == null) {
+      rightFiles[p].append(tb, row);
+      ++numTuplesSpilled;
+      return;
+    }
+    tables[p].addTuple(tb, rightKey, row, false);
+    final long size = TupleUtils.estimateSize(tb, row);
+    bytes[p] += size;
+    totalBytes += size;
+    while (totalBytes > memoryBudget && level < MAX_LEVEL && spillLargest()) {
+      /* Spill until the in-memory partitions fit. */
+    }
+  }
+
+  /**
+   * Spill the largest in-memory partition.
+   *
+   * @return false if there was no non-empty partition in memory
+   * @throws IOException if the partition cannot be spilled
+   */
+  private boolean spillLargest() throws IOException {
+    int largest = -1;
+    for (int i = 0; i < NUM_PARTITIONS; ++i) {
+      if (tables[i] != null && bytes[i] > 0 && (largest == -1 || bytes[i] > bytes[largest])) {
+        largest = i;
+      }
+    }
+    if (largest == -1) {
+      return false;
+    }
+    rightFiles[largest] = new SpillFile(rightSchema, "myria-join");
+    for (TupleBatch tb : tables[largest].getData().getAll()) {
+      rightFiles[largest].write(tb);
+    }
+    leftFiles[largest] = new SpillFile(leftSchema, "myria-join");
+    numTuplesSpilled += tables[largest].numTuples();
+    ++numSpilledPartitions;
+    tables[largest].cleanup();
+    tables[largest] = null;
+    totalBytes -= bytes[largest];
+    bytes[largest] = 0;
+    return true;
+  }
+
+  /**
+   * Find the hash table to probe with a tuple, or spill the tuple if its partition has been spilled.
+   *
+   * @param tb the batch containing the probe tuple
+   * @param row the row of the probe tuple
+   * @return the hash table to probe, or null if the tuple has been spilled
+   * @throws IOException if the tuple cannot be spilled
+   */
+  TupleHashTable route(final TupleBatch tb, final int row) throws IOException {
+    final int p = partition(tb, leftKey, row);
+    if (tables[p] != null) {
+      return tables[p];
+    }
+    leftFiles[p].append(tb, row);
+    ++numTuplesSpilled;
+    return null;
+  }
+
+  /**
+   * Finish writing the spilled partitions and hand them over to the next level. Partitions that cannot produce results
+   * are deleted instead.
+   *
+   * @param pending receives the spilled partitions that still have to be joined
+   * @return the number of bytes written to the spill files
+   * @throws IOException if the spill files cannot be written or deleted
+   */
+  long finish(final Collection<SpilledPartition> pending) throws IOException {
+    long numBytes = 0;
+    for (int i = 0; i < NUM_PARTITIONS; ++i) {
+      if (rightFiles[i] == null) {
+        continue;
+      }
+      rightFiles[i].finishWriting();
+      leftFiles[i].finishWriting();
+      numBytes += rightFiles[i].numBytes() + leftFiles[i].numBytes();
+      if (leftFiles[i].numTuples() == 0) {
+        rightFiles[i].delete();
+        leftFiles[i].delete();
+      } else {
+        pending.add(new SpilledPartition(rightFiles[i], leftFiles[i], level + 1));
+      }
+      rightFiles[i] = null;
+      leftFiles[i] = null;
+    }
+    return numBytes;
+  }
+
+  /**
+   * Release the in-memory partitions and delete any spill files not handed over by {@link #finish}.
+   *
+   * @throws IOException if the spill files cannot be deleted
+   */
+  void cleanup() throws IOException {
+    for (int i = 0; i < NUM_PARTITIONS; ++i) {
+      if (tables[i] != null) {
+        tables[i].cleanup();
+        tables[i] = null;
+      }
+      if (rightFiles[i] != null) {
+        rightFiles[i].delete();
+        rightFiles[i] = null;
+      }
+      if (leftFiles[i] != null) {
+        leftFiles[i].delete();
+        leftFiles[i] = null;
+      }
+    }
+  }
+
+  /** @return the number of build tuples held in memory. */
+  long numTuplesInMemory() {
+    long sum = 0;
+    for (TupleHashTable table : tables) {
+      if (table != null) {
+        sum += table.numTuples();
+      }
+    }
+    return sum;
+  }
+
+  /** @return true if at least one partition has been spilled. */
+  boolean hasSpilled() {
+    return numSpilledPartitions > 0;
+  }
+
+  /** @return the number of partitions spilled. */
+  int getNumSpilledPartitions() {
+    return numSpilledPartitions;
+  }
+
+  /** @return the number of tuples written to spill files. */
+  long getNumTuplesSpilled() {
+    return numTuplesSpilled;
+  }
+}
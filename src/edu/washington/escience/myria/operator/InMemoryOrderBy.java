@@ -1,24 +1,19 @@
 package edu.washington.escience.myria.operator;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableMap;
 
 import edu.washington.escience.myria.Schema;
-import edu.washington.escience.myria.Type;
 import edu.washington.escience.myria.column.Column;
 import edu.washington.escience.myria.storage.MutableTupleBuffer;
 import edu.washington.escience.myria.storage.TupleBatch;
 import edu.washington.escience.myria.storage.TupleBatchBuffer;
+import edu.washington.escience.myria.storage.TupleSorter;
 
 /**
- * Orders tuples in memory.
- *
- * Note: not efficient so only use it in tests
+ * Orders tuples in memory. See {@link ExternalOrderBy} for inputs that may not fit in memory.
  */
 public final class InMemoryOrderBy extends UnaryOperator {
 
@@ -53,9 +48,14 @@ public final class InMemoryOrderBy extends UnaryOperator {
   }
 
   /**
-   * A list of indexes into columns that defines the sort order.
+   * Sorts the tuples.
    */
-  private ArrayList<Integer> indexes;
+  private transient TupleSorter sorter;
+
+  /**
+   * The number of tuples to output, or -1 to output all of them.
+   */
+  private int limit = -1;
 
   /**
    * @param child the source of the tuples.
@@ -73,6 +73,7 @@ public final class InMemoryOrderBy extends UnaryOperator {
     Preconditions.checkArgument(sortColumns.length == ascending.length);
     ans = new TupleBatchBuffer(getSchema());
     table = new MutableTupleBuffer(getSchema());
+    sorter = new TupleSorter(sortColumns, ascending);
   }
 
   @Override
@@ -98,6 +99,9 @@ public final class InMemoryOrderBy extends UnaryOperator {
             table.put(column, inputColumns.get(column), row);
           }
         }
+        if (limit >= 0 && table.numTuples() >= Math.max(2L * limit, ans.getBatchSize())) {
+          compact();
+        }
       } else if (!getChild().eos()) {
         return null;
       }
@@ -115,86 +119,41 @@ public final class InMemoryOrderBy extends UnaryOperator {
   }
 
   /**
-   * Comparator for tuples made up of columns.
+   * Sorts the tuples. First, we get an array of indexes by which we sort the data. Then we gather the rows into output
+   * batches, a column at a time.
    */
-  class TupleComparator implements Comparator<Integer> {
-    @Override
-    public int compare(final Integer rowIdx, final Integer otherRowIdx) {
-      int i = 0;
-      for (int columnIdx : sortColumns) {
-        int compared = 0;
-        switch (getSchema().getColumnType(columnIdx)) {
-          case INT_TYPE:
-            compared =
-                Type.compareRaw(
-                    table.getInt(columnIdx, rowIdx), table.getInt(columnIdx, otherRowIdx));
-            break;
-          case FLOAT_TYPE:
-            compared =
-                Type.compareRaw(
-                    table.getFloat(columnIdx, rowIdx), table.getFloat(columnIdx, otherRowIdx));
-            break;
-          case LONG_TYPE:
-            compared =
-                Type.compareRaw(
-                    table.getLong(columnIdx, rowIdx), table.getLong(columnIdx, otherRowIdx));
-            break;
-          case DOUBLE_TYPE:
-            compared =
-                Type.compareRaw(
-                    table.getDouble(columnIdx, rowIdx), table.getDouble(columnIdx, otherRowIdx));
-            break;
-          case BOOLEAN_TYPE:
-            compared =
-                Type.compareRaw(
-                    table.getBoolean(columnIdx, rowIdx), table.getBoolean(columnIdx, otherRowIdx));
-            break;
-          case STRING_TYPE:
-            compared =
-                Type.compareRaw(
-                    table.getString(columnIdx, rowIdx), table.getString(columnIdx, otherRowIdx));
-            break;
-          case DATETIME_TYPE:
-            compared =
-                Type.compareRaw(
-                    table.getDateTime(columnIdx, rowIdx),
-                    table.getDateTime(columnIdx, otherRowIdx));
-            break;
-          case BLOB_TYPE:
-            compared =
-                Type.compareRaw(
-                    table.getBlob(columnIdx, rowIdx), table.getBlob(columnIdx, otherRowIdx));
-            break;
-        }
-        if (compared != 0) {
-          if (ascending[i]) {
-            return compared;
-          } else {
-            return -compared;
-          }
-        }
-        i++;
-      }
-      return 0;
+  public void sort() {
+    final int[] indexes = limit < 0 ? sorter.sort(table) : sorter.sortTopN(table, limit);
+    for (int from = 0; from < indexes.length; from += table.getBatchSize()) {
+      ans.appendTB(
+          table.gather(indexes, from, Math.min(from + table.getBatchSize(), indexes.length)));
     }
   }
 
   /**
-   * Sorts the tuples. First, we get an array of indexes by which we sort the data. Then we actually reorder the rows.
+   * Only keep the first {@link #limit} tuples of {@link #table} in sorted order.
    */
-  public void sort() {
-    final int numTuples = table.numTuples();
-    indexes = new ArrayList<>();
-    indexes.ensureCapacity(numTuples);
-    for (int i = 0; i < numTuples; i++) {
-      indexes.add(i);
+  private void compact() {
+    final int[] indexes = sorter.sortTopN(table, limit);
+    MutableTupleBuffer kept = new MutableTupleBuffer(getSchema());
+    for (int index : indexes) {
+      for (int column = 0; column < kept.numColumns(); ++column) {
+        kept.put(column, table.asColumn(column), index);
+      }
     }
+    table = kept;
+  }
 
-    TupleComparator comparator = new TupleComparator();
-    Collections.sort(indexes, comparator);
-
-    for (int rowIdx = 0; rowIdx < numTuples; rowIdx++) {
-      ans.append(table, indexes.get(rowIdx));
+  /**
+   * Only output the first tuples in sorted order. Called by a {@link Limit} directly above this operator, so that only
+   * that many tuples are held in memory.
+   *
+   * @param limit the number of tuples to output
+   */
+  public void setLimit(final long limit) {
+    Preconditions.checkArgument(limit >= 0, "limit must be non-negative");
+    if (limit <= Integer.MAX_VALUE) {
+      this.limit = (int) limit;
     }
   }
 
@@ -5,6 +5,7 @@ import java.util.Objects;
 import javax.annotation.Nonnull;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.primitives.Ints;
 
 import edu.washington.escience.myria.DbException;
@@ -40,6 +41,14 @@ public final class Limit extends UnaryOperator {
     toEmit = this.limit;
   }
 
+  @Override
+  protected void init(final ImmutableMap<String, Object> execEnvVars) {
+    if (getChild() instanceof InMemoryOrderBy) {
+      /* Top-N query: the sort only needs to keep the first limit tuples. */
+      ((InMemoryOrderBy) getChild()).setLimit(limit);
+    }
+  }
+
   @Override
   protected TupleBatch fetchNextReady() throws DbException {
     Operator child = getChild();
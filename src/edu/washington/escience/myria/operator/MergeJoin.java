@@ -308,7 +308,10 @@ public final class MergeJoin extends BinaryOperator {
 
   @Override
   protected void cleanup() throws DbException {
-    ans = null;
+    if (ans != null) {
+      ans.clear();
+      ans = null;
+    }
     leftBatches.clear();
     rightBatches.clear();
     leftNotProcessed = null;
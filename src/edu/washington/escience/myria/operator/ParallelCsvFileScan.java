@@ -0,0 +1,303 @@
+package edu.washington.escience.myria.operator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.annotation.Nullable;
+
+import org.apache.commons.csv.CSVFormat;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+
+import edu.washington.escience.myria.CsvByteParser;
+import edu.washington.escience.myria.DbException;
+import edu.washington.escience.myria.Schema;
+import edu.washington.escience.myria.storage.TupleBatch;
+import edu.washington.escience.myria.storage.TupleBatchBuffer;
+import edu.washington.escience.myria.util.concurrent.RenamingThreadFactory;
+
+/**
+ * Reads a local CSV file with several threads. The file is split into byte ranges that start right after a line
+ * terminator, and each range is read with positional reads and parsed by its own {@link CsvByteParser}, straight from
+ * the bytes into tuple batches. The dialect is that of {@link FileScan}, but since the ranges are split at line
+ * terminators, quoted or escaped fields must not contain line terminators unless a single thread is used.
+ *
+ * The tuples of different ranges are interleaved in the output, so the order of the file is only kept with a single
+ * thread.
+ */
+public final class ParallelCsvFileScan extends LeafOperator {
+
+  /** Required for Java serialization. */
+  private static final long serialVersionUID = 1L;
+
+  /** The logger for this class. */
+  private static final org.slf4j.Logger LOGGER =
+      org.slf4j.LoggerFactory.getLogger(ParallelCsvFileScan.class);
+
+  /** The bytes read at once by a parsing thread. */
+  private static final int CHUNK_SIZE = 4 * 1024 * 1024;
+  /** The batches each thread may have parsed ahead of the consumer. */
+  private static final int BATCHES_AHEAD_PER_THREAD = 4;
+
+  /** The local file. */
+  private final String filename;
+  /** The Schema of the relation stored in this file. */
+  private final Schema schema;
+  /** The field delimiter. */
+  private final char delimiter;
+  /** The quotation mark. */
+  private final char quote;
+  /** The escape character, if any. */
+  private final Character escape;
+  /** Number of skipped lines on the head. */
+  private final int numberOfSkippedLines;
+  /** The number of parsing threads. */
+  private final int numThreads;
+
+  /** The file. */
+  private transient FileChannel channel;
+  /** The parsing threads. */
+  private transient ExecutorService executor;
+  /** The parsed batches, and a {@link RangeDone} when a range is done. */
+  private transient BlockingQueue<Object> parsed;
+  /** The number of ranges still being parsed. */
+  private transient int numRangesLeft;
+
+  /** Put in {@link #parsed} when a range is done, with the error if it failed. */
+  private static final class RangeDone {
+    /** The error of the range, if any. */
+    private final Throwable error;
+
+    /**
+     * @param error the error of the range, if any.
+     */
+    RangeDone(@Nullable final Throwable error) {
+      this.error = error;
+    }
+  }
+
+  /**
+   * Construct a new ParallelCsvFileScan object to read from the specified file.
+   *
+   * @param filename the local file containing the data to be scanned.
+   * @param schema the Schema of the relation contained in the file.
+   * @param delimiter An optional override file delimiter.
+   * @param quote An optional quote character
+   * @param escape An optional escape character.
+   * @param numberOfSkippedLines number of lines to be skipped (number of lines in header).
+   * @param numThreads the number of parsing threads, by default the number of processors.
+   */
+  public ParallelCsvFileScan(
+      final String filename,
+      final Schema schema,
+      @Nullable final Character delimiter,
+      @Nullable final Character quote,
+      @Nullable final Character escape,
+      @Nullable final Integer numberOfSkippedLines,
+      @Nullable final Integer numThreads) {
+    this.filename = Preconditions.checkNotNull(filename, "filename");
+    this.schema = Preconditions.checkNotNull(schema, "schema");
+    this.delimiter = MoreObjects.firstNonNull(delimiter, CSVFormat.DEFAULT.getDelimiter());
+    this.quote = MoreObjects.firstNonNull(quote, CSVFormat.DEFAULT.getQuoteCharacter());
+    this.escape = escape != null ? escape : CSVFormat.DEFAULT.getEscapeCharacter();
+    this.numberOfSkippedLines = MoreObjects.firstNonNull(numberOfSkippedLines, 0);
+    this.numThreads =
+        MoreObjects.firstNonNull(numThreads, Runtime.getRuntime().availableProcessors());
+    Preconditions.checkArgument(this.numThreads > 0, "numThreads must be positive");
+  }
+
+  @Override
+  protected void init(final ImmutableMap<String, Object> execEnvVars) throws DbException {
+    try {
+      channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ);
+      final long size = channel.size();
+      long start = 0;
+      for (int i = 0; i < numberOfSkippedLines && start < size; ++i) {
+        start = nextLineStart(start, size);
+      }
+      final List<Long> bounds = new ArrayList<>();
+      bounds.add(start);
+      for (int i = 1; i < numThreads; ++i) {
+        final long previous = bounds.get(bounds.size() - 1);
+        final long nominal = start + (size - start) * i / numThreads;
+        if (nominal > previous) {
+          final long bound = nextLineStart(nominal - 1, size);
+          if (bound > previous && bound < size) {
+            bounds.add(bound);
+          }
+        }
+      }
+      bounds.add(size);
+
+      numRangesLeft = bounds.size() - 1;
+      parsed = new ArrayBlockingQueue<>(numRangesLeft * (BATCHES_AHEAD_PER_THREAD + 1));
+      executor =
+          Executors.newFixedThreadPool(
+              numRangesLeft, new RenamingThreadFactory("ParallelCsvFileScan " + filename));
+      for (int i = 0; i < numRangesLeft; ++i) {
+        final long from = bounds.get(i);
+        final long to = bounds.get(i + 1);
+        executor.execute(
+            new Runnable() {
+              @Override
+              public void run() {
+                Throwable error = null;
+                try {
+                  parseRange(from, to);
+                } catch (final InterruptedException e) {
+                  return;
+                } catch (final Throwable e) {
+                  error = e;
+                }
+                try {
+                  parsed.put(new RangeDone(error));
+                } catch (final InterruptedException e) {
+                  Thread.currentThread().interrupt();
+                }
+              }
+            });
+      }
+      LOGGER.debug("Parsing {} bytes of {} in {} ranges", size - start, filename, numRangesLeft);
+    } catch (final IOException e) {
+      throw new DbException(e);
+    }
+  }
+
+  /**
+   * @param from an offset in the file.
+   * @param size the size of the file.
+   * @return the offset after the first line terminator at or after <code>from</code>, or the size of the file.
+   * @throws IOException if the file cannot be read.
+   */
+  private long nextLineStart(final long from, final long size) throws IOException {
+    final ByteBuffer bytes = ByteBuffer.allocate(64 * 1024);
+    long position = from;
+    while (position < size) {
+      bytes.clear();
+      final int n = channel.read(bytes, position);
+      if (n <= 0) {
+        break;
+      }
+      for (int i = 0; i < n; ++i) {
+        final byte c = bytes.get(i);
+        if (c == '\n') {
+          return position + i + 1;
+        }
+        if (c == '\r') {
+          final long next = position + i + 1;
+          if (i + 1 < n) {
+            return bytes.get(i + 1) == '\n' ? next + 1 : next;
+          }
+          return next < size && readByte(next) == '\n' ? next + 1 : next;
+        }
+      }
+      position += n;
+    }
+    return size;
+  }
+
+  /**
+   * @param position an offset in the file.
+   * @return the byte at that offset.
+   * @throws IOException if the file cannot be read.
+   */
+  private byte readByte(final long position) throws IOException {
+    final ByteBuffer b = ByteBuffer.allocate(1);
+    if (channel.read(b, position) != 1) {
+      throw new IOException("Could not read byte " + position + " of " + filename);
+    }
+    return b.get(0);
+  }
+
+  /**
+   * Parse the records of a byte range of the file, and queue the batches.
+   *
+   * @param from the start of the range, at the beginning of a record.
+   * @param to the end of the range, after a line terminator or at the end of the file.
+   * @throws IOException if the file cannot be read.
+   * @throws DbException if a record is malformed.
+   * @throws InterruptedException if the scan is stopped.
+   */
+  private void parseRange(final long from, final long to)
+      throws IOException, DbException, InterruptedException {
+    final CsvByteParser parser = new CsvByteParser(schema, delimiter, quote, escape);
+    /* The String dictionaries are shared by the batches of the range, since only one thread may extend each. */
+    final TupleBatchBuffer buffer = new TupleBatchBuffer(schema, true);
+    byte[] data = new byte[(int) Math.min(CHUNK_SIZE, Math.max(to - from, 1))];
+    /* data[0, length) holds the bytes of the range from position - length on. */
+    int length = 0;
+    long position = from;
+    while (position < to) {
+      if (length == data.length) {
+        /* A record longer than the chunk. */
+        final byte[] larger = new byte[2 * data.length];
+        System.arraycopy(data, 0, larger, 0, length);
+        data = larger;
+      }
+      final ByteBuffer target =
+          ByteBuffer.wrap(data, length, (int) Math.min(data.length - length, to - position));
+      final int n = channel.read(target, position);
+      if (n < 0) {
+        throw new IOException(filename + " was truncated while being read");
+      }
+      position += n;
+      length += n;
+      final int end = parser.parse(data, 0, length, position == to, buffer);
+      System.arraycopy(data, end, data, 0, length - end);
+      length -= end;
+      for (TupleBatch tb = buffer.popFilled(); tb != null; tb = buffer.popFilled()) {
+        parsed.put(tb);
+      }
+    }
+    for (TupleBatch tb = buffer.popAny(); tb != null; tb = buffer.popAny()) {
+      parsed.put(tb);
+    }
+  }
+
+  @Override
+  protected TupleBatch fetchNextReady() throws DbException, InterruptedException {
+    while (numRangesLeft > 0) {
+      final Object next = parsed.take();
+      if (next instanceof TupleBatch) {
+        return (TupleBatch) next;
+      }
+      final Throwable error = ((RangeDone) next).error;
+      if (error instanceof DbException) {
+        throw (DbException) error;
+      } else if (error != null) {
+        throw new DbException(error);
+      }
+      --numRangesLeft;
+    }
+    return null;
+  }
+
+  @Override
+  public void cleanup() throws IOException {
+    if (executor != null) {
+      executor.shutdownNow();
+      executor = null;
+    }
+    if (channel != null) {
+      channel.close();
+      channel = null;
+    }
+    parsed = null;
+  }
+
+  @Override
+  protected Schema generateSchema() {
+    return schema;
+  }
+}
@@ -170,10 +170,16 @@ public class RightHashCountingJoin extends BinaryOperator {
 
   @Override
   protected void cleanup() throws DbException {
-    hashTable = null;
+    if (hashTable != null) {
+      hashTable.clear();
+      hashTable = null;
+    }
     hashTableIndices = null;
     occurredTimes = null;
-    ansTBB = null;
+    if (ansTBB != null) {
+      ansTBB.clear();
+      ansTBB = null;
+    }
     ans = 0;
   }
 
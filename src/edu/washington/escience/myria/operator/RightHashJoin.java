@@ -1,5 +1,7 @@
 package edu.washington.escience.myria.operator;
 
+import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.Arrays;
 import java.util.List;
 
@@ -7,25 +9,25 @@ import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
-import com.gs.collections.api.block.procedure.primitive.IntProcedure;
-import com.gs.collections.impl.list.mutable.primitive.IntArrayList;
-import com.gs.collections.impl.map.mutable.primitive.IntObjectHashMap;
 
 import edu.washington.escience.myria.DbException;
 import edu.washington.escience.myria.Schema;
 import edu.washington.escience.myria.Type;
-import edu.washington.escience.myria.column.Column;
 import edu.washington.escience.myria.storage.MutableTupleBuffer;
 import edu.washington.escience.myria.storage.TupleBatch;
 import edu.washington.escience.myria.storage.TupleBatchBuffer;
-import edu.washington.escience.myria.storage.TupleUtils;
-import edu.washington.escience.myria.util.HashUtils;
 import edu.washington.escience.myria.util.MyriaArrayUtils;
 
 /**
  * This is an implementation of unbalanced hash join. This operator only builds hash tables for its right child, thus
  * will begin to output tuples after right child EOS.
  *
+ * If a memory budget is given, the join runs as a hybrid hash join: the right child is partitioned by a hash of the
+ * join key and, when it exceeds the budget, the largest partitions are spilled to local files along with the left tuples
+ * that fall into them (see {@link HybridHashJoinTable}). The spilled partitions are joined once the left child is EOS,
+ * so their results are only produced at the end; an EOI of the left child does not flush them. Spilling does not support
+ * BLOB columns.
+ *
  */
 public final class RightHashJoin extends BinaryOperator {
   /** Required for Java serialization. */
@@ -46,14 +48,11 @@ public final class RightHashJoin extends BinaryOperator {
   private final int[] rightCompareIndx;
 
   /**
-   * A hash table for tuples from child 2. {Hashcode -> List of tuple indices with the same hash code}
-   */
-  private transient IntObjectHashMap<IntArrayList> rightHashTableIndices;
-
-  /**
-   * The buffer holding the valid tuples from right.
+   * The hash table holding the valid tuples from right, null if spilling is enabled.
    */
-  private transient MutableTupleBuffer rightHashTable;
+  private transient TupleHashTable rightHashTable;
+  /** The kind of hash tables to build. */
+  private transient TupleHashTable.Kind hashTableKind;
   /**
    * The buffer holding the results.
    */
@@ -62,52 +61,21 @@ public final class RightHashJoin extends BinaryOperator {
   private final int[] leftAnswerColumns;
   /** Which columns in the right child are to be output. */
   private final int[] rightAnswerColumns;
-
-  /**
-   * Traverse through the list of tuples with the same hash code.
-   */
-  private final class JoinProcedure implements IntProcedure {
-
-    /** serial version id. */
-    private static final long serialVersionUID = 1L;
-
-    /**
-     * Hash table.
-     */
-    private MutableTupleBuffer joinAgainstHashTable;
-
-    /**
-     *
-     * */
-    private int[] inputCmpColumns;
-
-    /**
-     * the columns to compare against.
-     */
-    private int[] joinAgainstCmpColumns;
-    /**
-     * row index of the tuple.
-     */
-    private int row;
-
-    /**
-     * input TupleBatch.
-     */
-    private TupleBatch inputTB;
-
-    @Override
-    public void value(final int index) {
-      if (TupleUtils.tupleEquals(
-          inputTB, inputCmpColumns, row, joinAgainstHashTable, joinAgainstCmpColumns, index)) {
-        addToAns(inputTB, row, joinAgainstHashTable, index);
-      }
-    }
-  };
-
-  /**
-   * Traverse through the list of tuples.
-   */
-  private transient JoinProcedure doJoin;
+  /** The estimated number of bytes of right tuples to hold in memory, or 0 to never spill. */
+  private final long memoryBudget;
+
+  /** The partitioned hash table being built or probed if spilling is enabled. */
+  private transient HybridHashJoinTable hybridTable;
+  /** The spilled partitions not yet joined. */
+  private transient ArrayDeque<HybridHashJoinTable.SpilledPartition> spilledPartitions;
+  /** The spilled partition whose left tuples are being joined, null while joining the children. */
+  private transient HybridHashJoinTable.SpilledPartition currentPartition;
+  /** The number of partitions spilled by tables that are done. */
+  private transient int numSpilledPartitions;
+  /** The number of tuples spilled by tables that are done. */
+  private transient long numTuplesSpilled;
+  /** The number of bytes of finished spill files. */
+  private transient long numBytesSpilled;
 
   /**
    * Construct an EquiJoin operator. It returns all columns from both children when the corresponding columns in
@@ -173,7 +141,37 @@ public final class RightHashJoin extends BinaryOperator {
       final int[] compareIndx2,
       final int[] answerColumns1,
       final int[] answerColumns2) {
+    this(outputColumns, left, right, compareIndx1, compareIndx2, answerColumns1, answerColumns2, 0);
+  }
+
+  /**
+   * Construct an EquiJoin operator. It returns the specified columns from both children when the corresponding columns
+   * in compareIndx1 and compareIndx2 match.
+   *
+   * @param outputColumns the names of the columns in the output schema. If null, the corresponding columns will be
+   *          copied from the children.
+   * @param left the left child.
+   * @param right the right child.
+   * @param compareIndx1 the columns of the left child to be compared with the right. Order matters.
+   * @param compareIndx2 the columns of the right child to be compared with the left. Order matters.
+   * @param answerColumns1 the columns of the left child to be returned. Order matters.
+   * @param answerColumns2 the columns of the right child to be returned. Order matters.
+   * @param memoryBudget the estimated number of bytes of right tuples to hold in memory before spilling to disk, or 0
+   *          to never spill.
+   * @throw IllegalArgumentException if there are duplicated column names in <tt>outputColumns</tt>, or if
+   *        <tt>outputColumns</tt> does not have the correct number of columns and column types.
+   */
+  public RightHashJoin(
+      final List<String> outputColumns,
+      final Operator left,
+      final Operator right,
+      final int[] compareIndx1,
+      final int[] compareIndx2,
+      final int[] answerColumns1,
+      final int[] answerColumns2,
+      final long memoryBudget) {
     super(left, right);
+    Preconditions.checkArgument(memoryBudget >= 0, "memory budget must not be negative");
     Preconditions.checkArgument(compareIndx1.length == compareIndx2.length);
     if (outputColumns != null) {
       Preconditions.checkArgument(
@@ -190,6 +188,7 @@ public final class RightHashJoin extends BinaryOperator {
     rightCompareIndx = MyriaArrayUtils.warnIfNotSet(compareIndx2);
     leftAnswerColumns = MyriaArrayUtils.warnIfNotSet(answerColumns1);
     rightAnswerColumns = MyriaArrayUtils.warnIfNotSet(answerColumns2);
+    this.memoryBudget = memoryBudget;
   }
 
   /**
@@ -293,9 +292,33 @@ public final class RightHashJoin extends BinaryOperator {
 
   @Override
   protected void cleanup() throws DbException {
-    rightHashTable = null;
-    rightHashTableIndices = null;
-    ans = null;
+    if (rightHashTable != null) {
+      rightHashTable.getData().clear();
+      rightHashTable = null;
+    }
+    if (ans != null) {
+      ans.clear();
+      ans = null;
+    }
+    try {
+      if (hybridTable != null) {
+        hybridTable.cleanup();
+        hybridTable = null;
+      }
+      if (currentPartition != null) {
+        currentPartition.getLeft().delete();
+        currentPartition = null;
+      }
+      if (spilledPartitions != null) {
+        for (HybridHashJoinTable.SpilledPartition partition : spilledPartitions) {
+          partition.getRight().delete();
+          partition.getLeft().delete();
+        }
+        spilledPartitions = null;
+      }
+    } catch (IOException e) {
+      throw new DbException(e);
+    }
   }
 
   @Override
@@ -303,6 +326,11 @@ public final class RightHashJoin extends BinaryOperator {
     final Operator left = getLeft();
     final Operator right = getRight();
 
+    if (left.eos() && right.eos() && hasSpilledWork()) {
+      /* Still joining spilled partitions. */
+      return;
+    }
+
     if (left.eos() && right.eos() && ans.numTuples() == 0) {
       setEOS();
       return;
@@ -384,6 +412,10 @@ public final class RightHashJoin extends BinaryOperator {
        */
     }
 
+    if (left.eos() && hasSpilledWork()) {
+      joinSpilledPartitions();
+    }
+
     if (isEOIReady()) {
       nexttb = ans.popAny();
     }
@@ -391,15 +423,104 @@ public final class RightHashJoin extends BinaryOperator {
     return nexttb;
   }
 
+  /**
+   * @return true if there are spilled partitions that have not been joined yet.
+   */
+  private boolean hasSpilledWork() {
+    return hybridTable != null && hybridTable.hasSpilled()
+        || currentPartition != null
+        || spilledPartitions != null && !spilledPartitions.isEmpty();
+  }
+
+  /**
+   * Join spilled partitions until a full batch of results is ready or none are left. Called once the left child is
+   * EOS.
+   *
+   * @throws DbException if the spill files cannot be read or written
+   */
+  private void joinSpilledPartitions() throws DbException {
+    try {
+      while (ans.numTuples() < ans.getBatchSize()) {
+        if (currentPartition != null) {
+          TupleBatch leftTB = currentPartition.getLeft().read();
+          if (leftTB != null) {
+            processLeftChildTB(leftTB);
+            continue;
+          }
+          currentPartition.getLeft().delete();
+          currentPartition = null;
+        }
+        if (hybridTable != null) {
+          finishHybridTable();
+        }
+        HybridHashJoinTable.SpilledPartition next = spilledPartitions.poll();
+        if (next == null) {
+          return;
+        }
+        hybridTable = newHybridTable(next.getLevel());
+        for (TupleBatch rightTB = next.getRight().read();
+            rightTB != null;
+            rightTB = next.getRight().read()) {
+          for (int row = 0; row < rightTB.numTuples(); ++row) {
+            hybridTable.addRight(rightTB, row);
+          }
+        }
+        next.getRight().delete();
+        currentPartition = next;
+      }
+    } catch (IOException e) {
+      throw new DbException(e);
+    }
+  }
+
+  /**
+   * Queue the partitions spilled by {@link #hybridTable} and release it.
+   *
+   * @throws IOException if the spill files cannot be written
+   */
+  private void finishHybridTable() throws IOException {
+    numBytesSpilled += hybridTable.finish(spilledPartitions);
+    numSpilledPartitions += hybridTable.getNumSpilledPartitions();
+    numTuplesSpilled += hybridTable.getNumTuplesSpilled();
+    hybridTable.cleanup();
+    hybridTable = null;
+  }
+
   @Override
   public void init(final ImmutableMap<String, Object> execEnvVars) throws DbException {
     final Operator right = getRight();
 
-    rightHashTableIndices = new IntObjectHashMap<>();
-    rightHashTable = new MutableTupleBuffer(right.getSchema());
+    hashTableKind = TupleHashTable.Kind.of(execEnvVars);
+    if (memoryBudget > 0) {
+      Preconditions.checkState(
+          !getLeft().getSchema().getColumnTypes().contains(Type.BLOB_TYPE)
+              && !right.getSchema().getColumnTypes().contains(Type.BLOB_TYPE),
+          "spilling joins do not support BLOB columns");
+      hybridTable = newHybridTable(0);
+      spilledPartitions = new ArrayDeque<>();
+      numSpilledPartitions = 0;
+      numTuplesSpilled = 0;
+      numBytesSpilled = 0;
+    } else {
+      rightHashTable = hashTableKind.newTable(right.getSchema(), rightCompareIndx);
+    }
 
     ans = new TupleBatchBuffer(getSchema());
-    doJoin = new JoinProcedure();
+  }
+
+  /**
+   * @param level the level of the table
+   * @return a new, empty partitioned hash table for the right tuples
+   */
+  private HybridHashJoinTable newHybridTable(final int level) {
+    return new HybridHashJoinTable(
+        hashTableKind,
+        getRight().getSchema(),
+        rightCompareIndx,
+        getLeft().getSchema(),
+        leftCompareIndx,
+        memoryBudget,
+        level);
   }
 
   /**
@@ -407,19 +528,38 @@ public final class RightHashJoin extends BinaryOperator {
    *
    * @param tb TupleBatch to be processed.
    */
-  protected void processLeftChildTB(final TupleBatch tb) {
-    doJoin.joinAgainstHashTable = rightHashTable;
-    doJoin.inputCmpColumns = leftCompareIndx;
-    doJoin.joinAgainstCmpColumns = rightCompareIndx;
-    doJoin.inputTB = tb;
-
-    for (int row = 0; row < tb.numTuples(); ++row) {
-      final int cntHashCode = HashUtils.hashSubRow(tb, doJoin.inputCmpColumns, row);
-      IntArrayList tuplesWithHashCode = rightHashTableIndices.get(cntHashCode);
-      if (tuplesWithHashCode != null) {
-        doJoin.row = row;
-        tuplesWithHashCode.forEach(doJoin);
+  protected void processLeftChildTB(final TupleBatch tb) throws DbException {
+    if (hybridTable == null) {
+      for (int row = 0; row < tb.numTuples(); ++row) {
+        probe(tb, row, rightHashTable);
+      }
+      return;
+    }
+    try {
+      for (int row = 0; row < tb.numTuples(); ++row) {
+        TupleHashTable table = hybridTable.route(tb, row);
+        if (table != null) {
+          probe(tb, row, table);
+        }
       }
+    } catch (IOException e) {
+      throw new DbException(e);
+    }
+  }
+
+  /**
+   * Join a left tuple with the matching right tuples of a hash table.
+   *
+   * @param tb the batch containing the left tuple
+   * @param row the row of the left tuple
+   * @param table the hash table of right tuples
+   */
+  private void probe(final TupleBatch tb, final int row, final TupleHashTable table) {
+    final MutableTupleBuffer rightData = table.getData();
+    for (int index = table.firstIndex(tb, leftCompareIndx, row);
+        index != -1;
+        index = table.nextIndex(tb, leftCompareIndx, row, index)) {
+      addToAns(tb, row, rightData, index);
     }
   }
 
@@ -428,38 +568,69 @@ public final class RightHashJoin extends BinaryOperator {
    *
    * @param tb TupleBatch to be processed.
    */
-  protected void processRightChildTB(final TupleBatch tb) {
+  protected void processRightChildTB(final TupleBatch tb) throws DbException {
+    if (hybridTable == null) {
+      for (int row = 0; row < tb.numTuples(); ++row) {
+        rightHashTable.addTuple(tb, rightCompareIndx, row, false);
+      }
+      return;
+    }
+    try {
+      for (int row = 0; row < tb.numTuples(); ++row) {
+        hybridTable.addRight(tb, row);
+      }
+    } catch (IOException e) {
+      throw new DbException(e);
+    }
+  }
 
-    for (int row = 0; row < tb.numTuples(); ++row) {
-      final int cntHashCode = HashUtils.hashSubRow(tb, rightCompareIndx, row);
-      // only build hash table on two sides if none of the children is EOS
-      addToHashTable(tb, row, rightHashTable, rightHashTableIndices, cntHashCode);
+  /**
+   * @return the number of right tuples held in memory.
+   */
+  public long getNumTuplesInHashTables() {
+    if (rightHashTable != null) {
+      return rightHashTable.numTuples();
+    }
+    if (hybridTable != null) {
+      return hybridTable.numTuplesInMemory();
     }
+    return 0;
   }
 
   /**
-   * @param tb the source TupleBatch
-   * @param row the row number to get added to hash table
-   * @param hashTable the target hash table
-   * @param hashTable1IndicesLocal hash table 1 indices local
-   * @param hashCode the hashCode of the tb.
+   * @return the estimated number of bytes of right tuples to hold in memory, or 0 if this join never spills.
    */
-  private void addToHashTable(
-      final TupleBatch tb,
-      final int row,
-      final MutableTupleBuffer hashTable,
-      final IntObjectHashMap<IntArrayList> hashTable1IndicesLocal,
-      final int hashCode) {
-    final int nextIndex = hashTable.numTuples();
-    IntArrayList tupleIndicesList = hashTable1IndicesLocal.get(hashCode);
-    if (tupleIndicesList == null) {
-      tupleIndicesList = new IntArrayList(1);
-      hashTable1IndicesLocal.put(hashCode, tupleIndicesList);
+  public long getMemoryBudget() {
+    return memoryBudget;
+  }
+
+  /**
+   * @return the number of partitions spilled to disk so far.
+   */
+  public long getNumSpilledPartitions() {
+    long sum = numSpilledPartitions;
+    if (hybridTable != null) {
+      sum += hybridTable.getNumSpilledPartitions();
     }
-    tupleIndicesList.add(nextIndex);
-    List<? extends Column<?>> inputColumns = tb.getDataColumns();
-    for (int column = 0; column < tb.numColumns(); column++) {
-      hashTable.put(column, inputColumns.get(column), row);
+    return sum;
+  }
+
+  /**
+   * @return the number of tuples written to disk so far, counting both children.
+   */
+  public long getNumTuplesSpilled() {
+    long sum = numTuplesSpilled;
+    if (hybridTable != null) {
+      sum += hybridTable.getNumTuplesSpilled();
     }
+    return sum;
+  }
+
+  /**
+   * @return the number of bytes written to disk so far. Files are only counted once they are finished, i.e. once the
+   *         left child of the level that spilled them has been consumed.
+   */
+  public long getNumBytesSpilled() {
+    return numBytesSpilled;
   }
 }
@@ -0,0 +1,209 @@
+package edu.washington.escience.myria.operator;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import com.google.common.base.Preconditions;
+
+import edu.washington.escience.myria.BinaryTupleReader;
+import edu.washington.escience.myria.BinaryTupleWriter;
+import edu.washington.escience.myria.DbException;
+import edu.washington.escience.myria.Schema;
+import edu.washington.escience.myria.storage.ReadableTable;
+import edu.washington.escience.myria.storage.TupleBatch;
+import edu.washington.escience.myria.storage.TupleBatchBuffer;
+
+/**
+ * A local temporary file of tuples, written by an operator that ran out of memory and read back later. Tuples are
+ * stored in the format of {@link BinaryTupleReader}, except that strings are written as the int number of bytes of
+ * their UTF-8 encoding followed by those bytes, so they have no length limit. The file is first written, then read,
+ * then deleted.
+ */
+final class SpillFile {
+  /** The schema of the tuples. */
+  private final Schema schema;
+  /** The file. */
+  private final Path path;
+  /** The stream being written, null once writing is finished. */
+  private OutputStream outputStream;
+  /** Serializes the tuples. */
+  private BinaryTupleWriter writer;
+  /** Tuples appended one at a time, waiting to be written a batch at a time. */
+  private TupleBatchBuffer pending;
+  /** The stream being read, null until reading starts. */
+  private InputStream inputStream;
+  /** Deserializes the tuples. */
+  private BinaryTupleReader reader;
+  /** The number of tuples written. */
+  private long numTuples;
+
+  /**
+   * Create an empty file, ready to be written.
+   *
+   * @param schema the schema of the tuples
+   * @param prefix the prefix of the file name
+   * @throws IOException if the file cannot be created
+   */
+  SpillFile(final Schema schema, final String prefix) throws IOException {
+    this.schema = schema;
+    path = Files.createTempFile(prefix, ".bin");
+    outputStream = Files.newOutputStream(path);
+    writer = new SpillWriter();
+    writer.open(outputStream);
+    pending = new TupleBatchBuffer(schema);
+  }
+
+  /**
+   * Append a tuple to the file.
+   *
+   * @param tb the batch containing the tuple
+   * @param row the row of the tuple
+   * @throws IOException if the file cannot be written
+   */
+  void append(final TupleBatch tb, final int row) throws IOException {
+    Preconditions.checkState(outputStream != null, "already finished writing");
+    pending.append(tb, row);
+    TupleBatch filled = pending.popFilled();
+    if (filled != null) {
+      writer.writeTuples(filled);
+    }
+    ++numTuples;
+  }
+
+  /**
+   * Append all tuples of a table to the file.
+   *
+   * @param tuples the tuples
+   * @throws IOException if the file cannot be written
+   */
+  void write(final ReadableTable tuples) throws IOException {
+    Preconditions.checkState(outputStream != null, "already finished writing");
+    flushPending();
+    writer.writeTuples(tuples);
+    numTuples += tuples.numTuples();
+  }
+
+  /**
+   * Write out the tuples buffered by {@link #append}.
+   *
+   * @throws IOException if the file cannot be written
+   */
+  private void flushPending() throws IOException {
+    for (TupleBatch tb = pending.popAny(); tb != null; tb = pending.popAny()) {
+      writer.writeTuples(tb);
+    }
+  }
+
+  /**
+   * Finish writing and close the file. No-op if writing is already finished.
+   *
+   * @throws IOException if the file cannot be written
+   */
+  void finishWriting() throws IOException {
+    if (outputStream == null) {
+      return;
+    }
+    flushPending();
+    writer.done();
+    outputStream = null;
+    writer = null;
+    pending = null;
+  }
+
+  /**
+   * Read the next batch of tuples. Finishes writing first if needed.
+   *
+   * @return the next batch, or null if the whole file has been read
+   * @throws IOException if the file cannot be read
+   * @throws DbException if the file cannot be read
+   */
+  TupleBatch read() throws IOException, DbException {
+    if (reader == null) {
+      finishWriting();
+      inputStream = Files.newInputStream(path);
+      reader = new SpillReader(schema);
+      reader.open(inputStream);
+    }
+    return reader.readTuples();
+  }
+
+  /** @return the number of tuples written to the file. */
+  long numTuples() {
+    return numTuples;
+  }
+
+  /**
+   * @return the size of the file in bytes
+   * @throws IOException if the size cannot be read
+   */
+  long numBytes() throws IOException {
+    return Files.size(path);
+  }
+
+  /**
+   * Close and delete the file.
+   *
+   * @throws IOException if there is an error closing or deleting the file
+   */
+  void delete() throws IOException {
+    try {
+      if (outputStream != null) {
+        outputStream.close();
+        outputStream = null;
+      }
+      if (inputStream != null) {
+        reader.close();
+        inputStream.close();
+        inputStream = null;
+      }
+    } finally {
+      Files.deleteIfExists(path);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return path.toString();
+  }
+
+  /** Writes the tuples of a spill file. */
+  private static final class SpillWriter extends BinaryTupleWriter {
+    /** Required for Java serialization. */
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    protected void writeString(final DataOutput output, final String value) throws IOException {
+      final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      output.writeInt(bytes.length);
+      output.write(bytes);
+    }
+  }
+
+  /** Reads the tuples of a spill file. */
+  private static final class SpillReader extends BinaryTupleReader {
+    /** Required for Java serialization. */
+    private static final long serialVersionUID = 1L;
+
+    /** @param schema the schema of the tuples */
+    SpillReader(final Schema schema) {
+      super(schema);
+    }
+
+    @Override
+    protected String readString(final DataInput input) throws IOException {
+      final int length = input.readInt();
+      if (length < 0) {
+        throw new IOException("Invalid string length " + length);
+      }
+      final byte[] bytes = new byte[length];
+      input.readFully(bytes);
+      return new String(bytes, StandardCharsets.UTF_8);
+    }
+  }
+}
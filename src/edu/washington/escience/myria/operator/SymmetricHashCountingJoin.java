@@ -180,13 +180,22 @@ public final class SymmetricHashCountingJoin extends BinaryOperator {
 
   @Override
   protected void cleanup() throws DbException {
-    leftHashTable = null;
-    rightHashTable = null;
+    if (leftHashTable != null) {
+      leftHashTable.clear();
+      leftHashTable = null;
+    }
+    if (rightHashTable != null) {
+      rightHashTable.clear();
+      rightHashTable = null;
+    }
     occuredTimesOnLeft = null;
     occuredTimesOnRight = null;
     leftHashTableIndices = null;
     rightHashTableIndices = null;
-    ansTBB = null;
+    if (ansTBB != null) {
+      ansTBB.clear();
+      ansTBB = null;
+    }
     ans = 0;
   }
 
@@ -1,5 +1,7 @@
 package edu.washington.escience.myria.operator;
 
+import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.Arrays;
 import java.util.List;
 
@@ -7,7 +9,6 @@ import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
-import com.gs.collections.api.iterator.IntIterator;
 
 import edu.washington.escience.myria.DbException;
 import edu.washington.escience.myria.MyriaConstants;
@@ -22,6 +23,12 @@ import edu.washington.escience.myria.util.MyriaArrayUtils;
 /**
  * This is an implementation of hash equal join. The same as in DupElim, this implementation does not keep the
  * references to the incoming TupleBatches in order to get better memory performance.
+ *
+ * If a memory budget is given, the join runs as a symmetric hybrid hash join: both children are partitioned by a hash
+ * of the join key and, when they exceed the budget, the largest partitions are spilled to local files (see
+ * {@link SymmetricHybridHashJoinTable}). The spilled partitions are joined once both children are EOS, so their
+ * results are only produced at the end; an EOI of the children does not flush them. Spilling does not support set
+ * semantics or BLOB columns.
  */
 public final class SymmetricHashJoin extends BinaryOperator {
   /** Required for Java serialization. */
@@ -53,6 +60,25 @@ public final class SymmetricHashJoin extends BinaryOperator {
   /** if the hash table of the right child should use set semantics. */
   private boolean setSemanticsRight = false;
 
+  /** The estimated number of bytes of tuples of both children to hold in memory, or 0 to never spill. */
+  private final long memoryBudget;
+  /** The kind of hash tables to build. */
+  private transient TupleHashTable.Kind hashTableKind;
+  /** The partitioned hash tables of both children if spilling is enabled, null once both children are EOS. */
+  private transient SymmetricHybridHashJoinTable symmetricTable;
+  /** The partitioned hash table of the spilled partition being joined, null while joining the children. */
+  private transient HybridHashJoinTable hybridTable;
+  /** The spilled partitions not yet joined. */
+  private transient ArrayDeque<HybridHashJoinTable.SpilledPartition> spilledPartitions;
+  /** The spilled partition whose left tuples are being joined, null while joining the children. */
+  private transient HybridHashJoinTable.SpilledPartition currentPartition;
+  /** The number of partitions spilled by tables that are done. */
+  private transient int numSpilledPartitions;
+  /** The number of tuples spilled by tables that are done. */
+  private transient long numTuplesSpilled;
+  /** The number of bytes of finished spill files. */
+  private transient long numBytesSpilled;
+
   /**
    * Construct an SymmetricHashJoin operator. It returns the specified columns from both children when the corresponding
    * columns in compareIndx1 and compareIndx2 match.
@@ -119,7 +145,57 @@ public final class SymmetricHashJoin extends BinaryOperator {
       final boolean setSemanticsRight,
       final List<String> outputColumns,
       final JoinPullOrder order) {
+    this(
+        left,
+        right,
+        leftCompareColumns,
+        rightCompareColumns,
+        leftAnswerColumns,
+        rightAnswerColumns,
+        setSemanticsLeft,
+        setSemanticsRight,
+        outputColumns,
+        order,
+        0);
+  }
+
+  /**
+   * Construct an EquiJoin operator. It returns the specified columns from both children when the corresponding columns
+   * in compareIndx1 and compareIndx2 match.
+   *
+   * @param outputColumns the names of the columns in the output schema. If null, the corresponding columns will be
+   *        copied from the children.
+   * @param left the left child.
+   * @param right the right child.
+   * @param leftCompareColumns the columns of the left child to be compared with the right. Order matters.
+   * @param rightCompareColumns the columns of the right child to be compared with the left. Order matters.
+   * @param leftAnswerColumns the columns of the left child to be returned. Order matters.
+   * @param rightAnswerColumns the columns of the right child to be returned. Order matters.
+   * @param setSemanticsLeft if the hash table of the left child should use set semantics.
+   * @param setSemanticsRight if the hash table of the right child should use set semantics.
+   * @param order the join pull order policy.
+   * @param memoryBudget the estimated number of bytes of tuples of both children to hold in memory before spilling to
+   *        disk, or 0 to never spill.
+   * @throw IllegalArgumentException if there are duplicated column names in <tt>outputColumns</tt>, or if
+   *        <tt>outputColumns</tt> does not have the correct number of columns and column types.
+   */
+  public SymmetricHashJoin(
+      final Operator left,
+      final Operator right,
+      final int[] leftCompareColumns,
+      final int[] rightCompareColumns,
+      final int[] leftAnswerColumns,
+      final int[] rightAnswerColumns,
+      final boolean setSemanticsLeft,
+      final boolean setSemanticsRight,
+      final List<String> outputColumns,
+      final JoinPullOrder order,
+      final long memoryBudget) {
     super(left, right);
+    Preconditions.checkArgument(memoryBudget >= 0, "memory budget must not be negative");
+    Preconditions.checkArgument(
+        memoryBudget == 0 || !setSemanticsLeft && !setSemanticsRight,
+        "spilling joins do not support set semantics");
     Preconditions.checkArgument(leftCompareColumns.length == rightCompareColumns.length);
     if (outputColumns != null) {
       Preconditions.checkArgument(
@@ -139,6 +215,7 @@ public final class SymmetricHashJoin extends BinaryOperator {
     this.setSemanticsLeft = setSemanticsLeft;
     this.setSemanticsRight = setSemanticsRight;
     this.order = order;
+    this.memoryBudget = memoryBudget;
   }
 
   @Override
@@ -218,9 +295,49 @@ public final class SymmetricHashJoin extends BinaryOperator {
 
   @Override
   protected void cleanup() throws DbException {
+    releaseHashTable(leftHashTable);
     leftHashTable = null;
+    releaseHashTable(rightHashTable);
     rightHashTable = null;
-    ans = null;
+    if (ans != null) {
+      ans.clear();
+      ans = null;
+    }
+    try {
+      if (symmetricTable != null) {
+        symmetricTable.cleanup();
+        symmetricTable = null;
+      }
+      if (hybridTable != null) {
+        hybridTable.cleanup();
+        hybridTable = null;
+      }
+      if (currentPartition != null) {
+        currentPartition.getLeft().delete();
+        currentPartition = null;
+      }
+      if (spilledPartitions != null) {
+        for (HybridHashJoinTable.SpilledPartition partition : spilledPartitions) {
+          partition.getRight().delete();
+          partition.getLeft().delete();
+        }
+        spilledPartitions = null;
+      }
+    } catch (IOException e) {
+      throw new DbException(e);
+    }
+  }
+
+  /**
+   * Return the storage of a hash table that is no longer needed to the
+   * {@link edu.washington.escience.myria.column.builder.PrimitiveArrayPool}.
+   *
+   * @param hashTable the hash table, or null
+   */
+  private static void releaseHashTable(final TupleHashTable hashTable) {
+    if (hashTable != null) {
+      hashTable.getData().clear();
+    }
   }
 
   /**
@@ -264,7 +381,7 @@ public final class SymmetricHashJoin extends BinaryOperator {
       }
     }
     if (nexttb == null) {
-      nexttb = ans.popAny();
+      nexttb = popAny();
     }
     return nexttb;
   }
@@ -274,6 +391,11 @@ public final class SymmetricHashJoin extends BinaryOperator {
     final Operator left = getLeft();
     final Operator right = getRight();
 
+    if (left.eos() && right.eos() && hasSpilledWork()) {
+      /* Still joining spilled partitions. */
+      return;
+    }
+
     if (left.eos() && right.eos() && ans.numTuples() == 0) {
       setEOS();
       return;
@@ -343,7 +465,7 @@ public final class SymmetricHashJoin extends BinaryOperator {
     /* if both children are eos or both children have recorded eoi, pop any tuples in buffer. If the buffer is empty,
      * set EOS or EOI. */
     if (isEOIReady()) {
-      nexttb = ans.popAny();
+      nexttb = popAny();
       if (nexttb == null) {
         checkEOSAndEOI();
       }
@@ -402,7 +524,7 @@ public final class SymmetricHashJoin extends BinaryOperator {
     /* If the operator is ready to emit EOI, empty its output buffer first. If the buffer is already empty, set EOI
      * and/or EOS */
     if (isEOIReady()) {
-      nexttb = ans.popAny();
+      nexttb = popAny();
       if (nexttb == null) {
         checkEOSAndEOI();
       }
@@ -410,10 +532,122 @@ public final class SymmetricHashJoin extends BinaryOperator {
     return nexttb;
   }
 
+  /**
+   * Pop any results once this operator may flush its buffer. If both children are EOS, spilled partitions are joined
+   * first, and only full batches are returned until none are left.
+   *
+   * @return the results, or null if there are none
+   * @throws DbException if the spill files cannot be read or written
+   */
+  private TupleBatch popAny() throws DbException {
+    if (getLeft().eos() && getRight().eos() && hasSpilledWork()) {
+      joinSpilledPartitions();
+      if (hasSpilledWork()) {
+        return ans.popFilled();
+      }
+    }
+    return ans.popAny();
+  }
+
+  /**
+   * @return true if there are spilled partitions that have not been joined yet.
+   */
+  private boolean hasSpilledWork() {
+    return symmetricTable != null && symmetricTable.hasSpilled()
+        || hybridTable != null && hybridTable.hasSpilled()
+        || currentPartition != null
+        || spilledPartitions != null && !spilledPartitions.isEmpty();
+  }
+
+  /**
+   * Join spilled partitions until a full batch of results is ready or none are left. Called once both children are
+   * EOS. Each partition is joined as in {@link RightHashJoin}, probing with its left tuples.
+   *
+   * @throws DbException if the spill files cannot be read or written
+   */
+  private void joinSpilledPartitions() throws DbException {
+    try {
+      if (symmetricTable != null) {
+        numBytesSpilled += symmetricTable.finish(spilledPartitions);
+        numSpilledPartitions += symmetricTable.getNumSpilledPartitions();
+        numTuplesSpilled += symmetricTable.getNumTuplesSpilled();
+        symmetricTable.cleanup();
+        symmetricTable = null;
+      }
+      while (ans.numTuples() < ans.getBatchSize()) {
+        if (currentPartition != null) {
+          TupleBatch leftTB = currentPartition.getLeft().read();
+          if (leftTB != null) {
+            for (int row = 0; row < leftTB.numTuples(); ++row) {
+              TupleHashTable table = hybridTable.route(leftTB, row);
+              if (table != null) {
+                probe(leftTB, row, table, true);
+              }
+            }
+            continue;
+          }
+          currentPartition.getLeft().delete();
+          currentPartition = null;
+        }
+        if (hybridTable != null) {
+          numBytesSpilled += hybridTable.finish(spilledPartitions);
+          numSpilledPartitions += hybridTable.getNumSpilledPartitions();
+          numTuplesSpilled += hybridTable.getNumTuplesSpilled();
+          hybridTable.cleanup();
+          hybridTable = null;
+        }
+        HybridHashJoinTable.SpilledPartition next = spilledPartitions.poll();
+        if (next == null) {
+          return;
+        }
+        hybridTable =
+            new HybridHashJoinTable(
+                hashTableKind,
+                getRight().getSchema(),
+                rightCompareColumns,
+                getLeft().getSchema(),
+                leftCompareColumns,
+                memoryBudget,
+                next.getLevel());
+        for (TupleBatch rightTB = next.getRight().read();
+            rightTB != null;
+            rightTB = next.getRight().read()) {
+          for (int row = 0; row < rightTB.numTuples(); ++row) {
+            hybridTable.addRight(rightTB, row);
+          }
+        }
+        next.getRight().delete();
+        currentPartition = next;
+      }
+    } catch (IOException e) {
+      throw new DbException(e);
+    }
+  }
+
   @Override
   public void init(final ImmutableMap<String, Object> execEnvVars) throws DbException {
-    leftHashTable = new TupleHashTable(getLeft().getSchema(), leftCompareColumns);
-    rightHashTable = new TupleHashTable(getRight().getSchema(), rightCompareColumns);
+    hashTableKind = TupleHashTable.Kind.of(execEnvVars);
+    if (memoryBudget > 0) {
+      Preconditions.checkState(
+          !getLeft().getSchema().getColumnTypes().contains(Type.BLOB_TYPE)
+              && !getRight().getSchema().getColumnTypes().contains(Type.BLOB_TYPE),
+          "spilling joins do not support BLOB columns");
+      symmetricTable =
+          new SymmetricHybridHashJoinTable(
+              hashTableKind,
+              getLeft().getSchema(),
+              leftCompareColumns,
+              getRight().getSchema(),
+              rightCompareColumns,
+              memoryBudget);
+      spilledPartitions = new ArrayDeque<>();
+      numSpilledPartitions = 0;
+      numTuplesSpilled = 0;
+      numBytesSpilled = 0;
+    } else {
+      leftHashTable = hashTableKind.newTable(getLeft().getSchema(), leftCompareColumns);
+      rightHashTable = hashTableKind.newTable(getRight().getSchema(), rightCompareColumns);
+    }
     ans = new TupleBatchBuffer(getSchema());
     nonBlocking =
         (QueryExecutionMode) execEnvVars.get(MyriaConstants.EXEC_ENV_VAR_EXECUTION_MODE)
@@ -428,15 +662,22 @@ public final class SymmetricHashJoin extends BinaryOperator {
   /**
    * @param tb the incoming TupleBatch for processing join.
    * @param fromLeft if the tb is from left.
+   * @throws DbException if tuples cannot be spilled
    */
-  protected void processChildTB(final TupleBatch tb, final boolean fromLeft) {
+  protected void processChildTB(final TupleBatch tb, final boolean fromLeft) throws DbException {
+    if (symmetricTable != null) {
+      processChildTBSpilling(tb, fromLeft);
+      return;
+    }
     final Operator left = getLeft();
     final Operator right = getRight();
     /* delete one child's hash table if the other reaches EOS. */
     if (left.eos()) {
+      releaseHashTable(rightHashTable);
       rightHashTable = null;
     }
     if (right.eos()) {
+      releaseHashTable(leftHashTable);
       leftHashTable = null;
     }
 
@@ -455,9 +696,10 @@ public final class SymmetricHashJoin extends BinaryOperator {
     }
     for (int row = 0; row < tb.numTuples(); ++row) {
       if (probeHashTable != null) {
-        IntIterator iter = probeHashTable.getIndices(tb, buildCompareColumns, row).intIterator();
-        while (iter.hasNext()) {
-          addToAns(tb, row, probeHashTable.getData(), iter.next(), fromLeft);
+        for (int index = probeHashTable.firstIndex(tb, buildCompareColumns, row);
+            index != -1;
+            index = probeHashTable.nextIndex(tb, buildCompareColumns, row, index)) {
+          addToAns(tb, row, probeHashTable.getData(), index, fromLeft);
         }
       }
       if (buildHashTable != null) {
@@ -466,6 +708,59 @@ public final class SymmetricHashJoin extends BinaryOperator {
     }
   }
 
+  /**
+   * Same as {@link #processChildTB}, with the partitioned hash tables used when spilling is enabled.
+   *
+   * @param tb the incoming TupleBatch for processing join.
+   * @param fromLeft if the tb is from left.
+   * @throws DbException if tuples cannot be spilled
+   */
+  private void processChildTBSpilling(final TupleBatch tb, final boolean fromLeft)
+      throws DbException {
+    /* release one child's hash tables if the other reaches EOS. */
+    if (getLeft().eos()) {
+      symmetricTable.release(false);
+    }
+    if (getRight().eos()) {
+      symmetricTable.release(true);
+    }
+    try {
+      for (int row = 0; row < tb.numTuples(); ++row) {
+        final int partition = symmetricTable.route(tb, row, fromLeft);
+        if (partition == -1) {
+          continue;
+        }
+        TupleHashTable probeHashTable = symmetricTable.getTable(partition, !fromLeft);
+        if (probeHashTable != null) {
+          probe(tb, row, probeHashTable, fromLeft);
+        }
+        if (symmetricTable.getTable(partition, fromLeft) != null) {
+          symmetricTable.add(tb, row, partition, fromLeft);
+        }
+      }
+    } catch (IOException e) {
+      throw new DbException(e);
+    }
+  }
+
+  /**
+   * Join a tuple with the matching tuples of the other child in a hash table.
+   *
+   * @param tb the batch containing the tuple
+   * @param row the row of the tuple
+   * @param table the hash table of tuples of the other child
+   * @param fromLeft if the tuple is from left.
+   */
+  private void probe(
+      final TupleBatch tb, final int row, final TupleHashTable table, final boolean fromLeft) {
+    final int[] compareColumns = fromLeft ? leftCompareColumns : rightCompareColumns;
+    for (int index = table.firstIndex(tb, compareColumns, row);
+        index != -1;
+        index = table.nextIndex(tb, compareColumns, row, index)) {
+      addToAns(tb, row, table.getData(), index, fromLeft);
+    }
+  }
+
   /**
    * @param tb the source TupleBatch
    * @param row the row number to get added to hash table
@@ -499,9 +794,57 @@ public final class SymmetricHashJoin extends BinaryOperator {
     if (rightHashTable != null) {
       sum += rightHashTable.numTuples();
     }
+    if (symmetricTable != null) {
+      sum += symmetricTable.numTuplesInMemory();
+    }
+    if (hybridTable != null) {
+      sum += hybridTable.numTuplesInMemory();
+    }
+    return sum;
+  }
+
+  /**
+   * @return the estimated number of bytes of tuples of both children to hold in memory, or 0 if this join never spills.
+   */
+  public long getMemoryBudget() {
+    return memoryBudget;
+  }
+
+  /**
+   * @return the number of partitions spilled to disk so far.
+   */
+  public long getNumSpilledPartitions() {
+    long sum = numSpilledPartitions;
+    if (symmetricTable != null) {
+      sum += symmetricTable.getNumSpilledPartitions();
+    }
+    if (hybridTable != null) {
+      sum += hybridTable.getNumSpilledPartitions();
+    }
+    return sum;
+  }
+
+  /**
+   * @return the number of tuples written to disk so far, counting both children.
+   */
+  public long getNumTuplesSpilled() {
+    long sum = numTuplesSpilled;
+    if (symmetricTable != null) {
+      sum += symmetricTable.getNumTuplesSpilled();
+    }
+    if (hybridTable != null) {
+      sum += hybridTable.getNumTuplesSpilled();
+    }
     return sum;
   }
 
+  /**
+   * @return the number of bytes written to disk so far. Files are only counted once both children are EOS.
+   */
+  public long getNumBytesSpilled() {
+    return numBytesSpilled;
+  }
+
   /** Join pull order options. */
   public enum JoinPullOrder {
     /** Alternatively. */
@@ -0,0 +1,329 @@
+package edu.washington.escience.myria.operator;
+
+import java.io.IOException;
+import java.util.Collection;
+
+import edu.washington.escience.myria.Schema;
+import edu.washington.escience.myria.storage.TupleBatch;
+import edu.washington.escience.myria.storage.TupleUtils;
+import edu.washington.escience.myria.util.HashUtils;
+
+/**
+ * Both sides of a symmetric hybrid hash join. Tuples of both children are divided into the same partitions by a hash
+ * of their join key, with the hash function of the first level of {@link HybridHashJoinTable}. Each partition starts
+ * in memory, where every tuple is joined with the tuples of the other child that arrived before it. When the estimated
+ * size of the in-memory partitions exceeds the memory budget, the largest one is spilled to local files, and every
+ * later tuple that falls into it is spilled without being joined.
+ *
+ * The tuples of a spilled partition that were in memory have already been joined with each other. So once both
+ * children are EOS, {@link #finish} hands over two partitions to {@link HybridHashJoinTable}s of the next level: the
+ * later left tuples against all the right tuples, and the earlier left tuples against the later right tuples.
+ */
+final class SymmetricHybridHashJoinTable {
+  /** The schema of the left tuples. */
+  private final Schema leftSchema;
+  /** The schema of the right tuples. */
+  private final Schema rightSchema;
+  /** The join key of the left tuples. */
+  private final int[] leftKey;
+  /** The join key of the right tuples. */
+  private final int[] rightKey;
+  /** The estimated number of bytes of tuples of both children to hold in memory. */
+  private final long memoryBudget;
+  /** The hash function used to choose partitions. */
+  private final int seedIndex;
+  /** The hash table of left tuples of each partition, null if the partition is spilled or no longer needed. */
+  private final TupleHashTable[] leftTables;
+  /** The hash table of right tuples of each partition, null if the partition is spilled or no longer needed. */
+  private final TupleHashTable[] rightTables;
+  /** The estimated size of the left tuples of each in-memory partition, in bytes. */
+  private final long[] leftBytes;
+  /** The estimated size of the right tuples of each in-memory partition, in bytes. */
+  private final long[] rightBytes;
+  /** Whether each partition has been spilled. */
+  private final boolean[] spilled;
+  /** The left tuples of each spilled partition that were in memory. */
+  private final SpillFile[] earlierLeftFiles;
+  /** The left tuples of each spilled partition that arrived after it was spilled. */
+  private final SpillFile[] laterLeftFiles;
+  /** All the right tuples of each spilled partition. */
+  private final SpillFile[] rightFiles;
+  /** The right tuples of each spilled partition that arrived after it was spilled. */
+  private final SpillFile[] laterRightFiles;
+  /** The estimated size of all in-memory partitions, in bytes. */
+  private long totalBytes;
+  /** The number of partitions spilled. */
+  private int numSpilledPartitions;
+  /** The number of tuples written to spill files. */
+  private long numTuplesSpilled;
+
+  /**
+   * @param kind the kind of the in-memory hash tables
+   * @param leftSchema the schema of the left tuples
+   * @param leftKey the join key of the left tuples
+   * @param rightSchema the schema of the right tuples
+   * @param rightKey the join key of the right tuples
+   * @param memoryBudget the estimated number of bytes of tuples of both children to hold in memory
+   */
+  SymmetricHybridHashJoinTable(
+      final TupleHashTable.Kind kind,
+      final Schema leftSchema,
+      final int[] leftKey,
+      final Schema rightSchema,
+      final int[] rightKey,
+      final long memoryBudget) {
+    this.leftSchema = leftSchema;
+    this.rightSchema = rightSchema;
+    this.leftKey = leftKey;
+    this.rightKey = rightKey;
+    this.memoryBudget = memoryBudget;
+    seedIndex = HashUtils.NUM_OF_HASHFUNCTIONS - 1;
+    final int n = HybridHashJoinTable.NUM_PARTITIONS;
+    leftTables = new TupleHashTable[n];
+    rightTables = new TupleHashTable[n];
+    for (int i = 0; i < n; ++i) {
+      leftTables[i] = kind.newTable(leftSchema, leftKey);
+      rightTables[i] = kind.newTable(rightSchema, rightKey);
+    }
+    leftBytes = new long[n];
+    rightBytes = new long[n];
+    spilled = new boolean[n];
+    earlierLeftFiles = new SpillFile[n];
+    laterLeftFiles = new SpillFile[n];
+    rightFiles = new SpillFile[n];
+    laterRightFiles = new SpillFile[n];
+  }
+
+  /**
+   * Find the partition of a tuple, or spill the tuple if its partition has been spilled.
+   *
+   * @param tb the batch containing the tuple
+   * @param row the row of the tuple
+   * @param fromLeft whether the tuple is from the left child
+   * @return the partition of the tuple, or -1 if the tuple has been spilled
+   * @throws IOException if the tuple cannot be spilled
+   */
+  int route(final TupleBatch tb, final int row, final boolean fromLeft) throws IOException {
+    final int p =
+        Math.floorMod(
+            HashUtils.hashSubRow(tb, fromLeft ? leftKey : rightKey, row, seedIndex),
+            HybridHashJoinTable.NUM_PARTITIONS);
+    if (!spilled[p]) {
+      return p;
+    }
+    if (fromLeft) {
+      laterLeftFiles[p].append(tb, row);
+      ++numTuplesSpilled;
+    } else {
+      rightFiles[p].append(tb, row);
+      laterRightFiles[p].append(tb, row);
+      numTuplesSpilled += 2;
+    }
+    return -1;
+  }
+
+  /**
+   * @param partition an in-memory partition
+   * @param left whether to return the table of left tuples
+   * @return the hash table of the tuples of one child in the partition, null if it is no longer needed
+   */
+  TupleHashTable getTable(final int partition, final boolean left) {
+    return left ? leftTables[partition] : rightTables[partition];
+  }
+
+  /**
+   * Add a tuple to its in-memory partition, spilling partitions if the memory budget is exceeded.
+   *
+   * @param tb the batch containing the tuple
+   * @param row the row of the tuple
+   * @param partition the partition of the tuple, as returned by {@link #route}
+   * @param fromLeft whether the tuple is from the left child
+   * @throws IOException if a partition cannot be spilled
+   */
+  void add(final TupleBatch tb, final int row, final int partition, final boolean fromLeft)
+      throws IOException {
+    final long size = TupleUtils.estimateSize(tb, row);
+    if (fromLeft) {
+      leftTables[partition].addTuple(tb, leftKey, row, false);
+      leftBytes[partition] += size;
+    } else {
+      rightTables[partition].addTuple(tb, rightKey, row, false);
+      rightBytes[partition] += size;
+    }
+    totalBytes += size;
+    while (totalBytes > memoryBudget && spillLargest()) {
+      /* Spill until the in-memory partitions fit. */
+    }
+  }
+
+  /**
+   * Spill the largest in-memory partition.
+   *
+   * @return false if there was no non-empty partition in memory
+   * @throws IOException if the partition cannot be spilled
+   */
+  private boolean spillLargest() throws IOException {
+    int largest = -1;
+    long largestBytes = 0;
+    for (int i = 0; i < spilled.length; ++i) {
+      final long size = leftBytes[i] + rightBytes[i];
+      if (!spilled[i] && size > largestBytes) {
+        largest = i;
+        largestBytes = size;
+      }
+    }
+    if (largest == -1) {
+      return false;
+    }
+    earlierLeftFiles[largest] = new SpillFile(leftSchema, "myria-join");
+    laterLeftFiles[largest] = new SpillFile(leftSchema, "myria-join");
+    rightFiles[largest] = new SpillFile(rightSchema, "myria-join");
+    laterRightFiles[largest] = new SpillFile(rightSchema, "myria-join");
+    spillTable(leftTables[largest], earlierLeftFiles[largest]);
+    spillTable(rightTables[largest], rightFiles[largest]);
+    ++numSpilledPartitions;
+    spilled[largest] = true;
+    releaseTable(largest, true);
+    releaseTable(largest, false);
+    return true;
+  }
+
+  /**
+   * @param table the in-memory tuples of one child in a partition, or null if they are no longer needed
+   * @param file the spill file to write them to
+   * @throws IOException if the tuples cannot be written
+   */
+  private void spillTable(final TupleHashTable table, final SpillFile file) throws IOException {
+    if (table == null) {
+      return;
+    }
+    for (TupleBatch tb : table.getData().getAll()) {
+      file.write(tb);
+    }
+    numTuplesSpilled += table.numTuples();
+  }
+
+  /**
+   * Release the in-memory tables of one child, once the other child is EOS and will not probe them anymore.
+   *
+   * @param left whether to release the tables of left tuples
+   */
+  void release(final boolean left) {
+    for (int i = 0; i < spilled.length; ++i) {
+      releaseTable(i, left);
+    }
+  }
+
+  /**
+   * @param partition a partition
+   * @param left whether to release the table of left tuples
+   */
+  private void releaseTable(final int partition, final boolean left) {
+    final TupleHashTable[] tables = left ? leftTables : rightTables;
+    final long[] bytes = left ? leftBytes : rightBytes;
+    if (tables[partition] != null) {
+      tables[partition].cleanup();
+      tables[partition] = null;
+    }
+    totalBytes -= bytes[partition];
+    bytes[partition] = 0;
+  }
+
+  /**
+   * Finish writing the spilled partitions and hand them over to the next level. Partitions that cannot produce results
+   * are deleted instead. Called once both children are EOS.
+   *
+   * @param pending receives the spilled partitions that still have to be joined
+   * @return the number of bytes written to the spill files
+   * @throws IOException if the spill files cannot be written or deleted
+   */
+  long finish(final Collection<HybridHashJoinTable.SpilledPartition> pending) throws IOException {
+    long numBytes = 0;
+    for (int i = 0; i < spilled.length; ++i) {
+      if (rightFiles[i] == null) {
+        continue;
+      }
+      numBytes += handOver(rightFiles[i], laterLeftFiles[i], pending);
+      numBytes += handOver(laterRightFiles[i], earlierLeftFiles[i], pending);
+      rightFiles[i] = null;
+      laterLeftFiles[i] = null;
+      laterRightFiles[i] = null;
+      earlierLeftFiles[i] = null;
+    }
+    return numBytes;
+  }
+
+  /**
+   * Hand over a pair of spill files to the next level, or delete them if they cannot produce results.
+   *
+   * @param right the right tuples
+   * @param left the left tuples to join with them
+   * @param pending receives the pair if it has to be joined
+   * @return the number of bytes of the files
+   * @throws IOException if the spill files cannot be written or deleted
+   */
+  private static long handOver(
+      final SpillFile right,
+      final SpillFile left,
+      final Collection<HybridHashJoinTable.SpilledPartition> pending)
+      throws IOException {
+    right.finishWriting();
+    left.finishWriting();
+    final long numBytes = right.numBytes() + left.numBytes();
+    if (right.numTuples() == 0 || left.numTuples() == 0) {
+      right.delete();
+      left.delete();
+    } else {
+      pending.add(new HybridHashJoinTable.SpilledPartition(right, left, 1));
+    }
+    return numBytes;
+  }
+
+  /**
+   * Release the in-memory partitions and delete any spill files not handed over by {@link #finish}.
+   *
+   * @throws IOException if the spill files cannot be deleted
+   */
+  void cleanup() throws IOException {
+    release(true);
+    release(false);
+    for (SpillFile[] files :
+        new SpillFile[][] {earlierLeftFiles, laterLeftFiles, rightFiles, laterRightFiles}) {
+      for (int i = 0; i < files.length; ++i) {
+        if (files[i] != null) {
+          files[i].delete();
+          files[i] = null;
+        }
+      }
+    }
+  }
+
+  /** @return the number of tuples of both children held in memory. */
+  long numTuplesInMemory() {
+    long sum = 0;
+    for (int i = 0; i < spilled.length; ++i) {
+      if (leftTables[i] != null) {
+        sum += leftTables[i].numTuples();
+      }
+      if (rightTables[i] != null) {
+        sum += rightTables[i].numTuples();
+      }
+    }
+    return sum;
+  }
+
+  /** @return true if at least one partition has been spilled. */
+  boolean hasSpilled() {
+    return numSpilledPartitions > 0;
+  }
+
+  /** @return the number of partitions spilled. */
+  int getNumSpilledPartitions() {
+    return numSpilledPartitions;
+  }
+
+  /** @return the number of tuples written to spill files. */
+  long getNumTuplesSpilled() {
+    return numTuplesSpilled;
+  }
+}
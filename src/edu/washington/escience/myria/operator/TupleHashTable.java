@@ -1,71 +1,81 @@
 package edu.washington.escience.myria.operator;
 
 import java.io.Serializable;
+import java.util.Locale;
+import java.util.Map;
+
+import javax.annotation.Nullable;
 
-import com.gs.collections.api.iterator.IntIterator;
 import com.gs.collections.impl.list.mutable.primitive.IntArrayList;
-import com.gs.collections.impl.map.mutable.primitive.IntObjectHashMap;
 
+import edu.washington.escience.myria.MyriaConstants;
 import edu.washington.escience.myria.Schema;
 import edu.washington.escience.myria.storage.MutableTupleBuffer;
 import edu.washington.escience.myria.storage.ReadableTable;
 import edu.washington.escience.myria.storage.TupleBatch;
-import edu.washington.escience.myria.storage.TupleUtils;
-import edu.washington.escience.myria.util.HashUtils;
 
 /**
- * An abstraction of a hash table of tuples.
+ * An abstraction of a hash table of tuples, keyed on a subset of their columns.
+ *
+ * Probing can be done either with {@link #getIndices}, which collects all the matches into a new list, or without
+ * allocation by walking the matches with {@link #firstIndex} and {@link #nextIndex}:
+ *
+ * <pre>
+ * for (int i = table.firstIndex(tb, key, row); i != -1; i = table.nextIndex(tb, key, row, i)) {
+ *   ...
+ * }
+ * </pre>
  */
-public final class TupleHashTable implements Serializable {
-  /** Required for Java serialization. */
-  private static final long serialVersionUID = 1L;
+public interface TupleHashTable extends Serializable {
 
-  /** Map from hash codes to indices. */
-  private transient IntObjectHashMap<IntArrayList> keyHashCodesToIndices;
-  /** The table containing keys and values. */
-  private transient MutableTupleBuffer data;
-  /** Key column indices. */
-  private final int[] keyColumns;
+  /**
+   * @return the number of tuples this hash table has.
+   */
+  int numTuples();
 
   /**
-   * @param schema schema
-   * @param keyColumns key column indices
+   * Get the data table indices given key columns from a tuple in a tuple batch.
+   *
+   * @param tb the input tuple batch
+   * @param key the key columns
+   * @param row the row index of the tuple
+   * @return the indices
    */
-  public TupleHashTable(final Schema schema, final int[] keyColumns) {
-    this.keyColumns = keyColumns;
-    data = new MutableTupleBuffer(schema);
-    keyHashCodesToIndices = new IntObjectHashMap<IntArrayList>();
-  }
+  IntArrayList getIndices(ReadableTable tb, int[] key, int row);
 
   /**
-   * @return the number of tuples this hash table has.
+   * Find the first tuple in the hash table whose key matches the given tuple.
+   *
+   * @param tb the input tuple batch
+   * @param key the key columns
+   * @param row the row index of the tuple
+   * @return the index of the first matching tuple in {@link #getData()}, or -1 if there is none
    */
-  public int numTuples() {
-    return data.numTuples();
-  }
+  int firstIndex(ReadableTable tb, int[] key, int row);
 
   /**
-   * Get the data table indices given key columns from a tuple in a tuple batch.
+   * Same as {@link #firstIndex(ReadableTable, int[], int)}, with the hash code of the key already computed, e.g. for a
+   * whole batch by {@link edu.washington.escience.myria.util.HashUtils#hashSubRows}.
    *
+   * @param hashCode the hash code of the key of the tuple
    * @param tb the input tuple batch
    * @param key the key columns
    * @param row the row index of the tuple
-   * @return the indices
+   * @return the index of the first matching tuple in {@link #getData()}, or -1 if there is none
    */
-  public IntArrayList getIndices(final ReadableTable tb, final int[] key, final int row) {
-    IntArrayList ret = new IntArrayList();
-    IntArrayList indices = keyHashCodesToIndices.get(HashUtils.hashSubRow(tb, key, row));
-    if (indices != null) {
-      IntIterator iter = indices.intIterator();
-      while (iter.hasNext()) {
-        int i = iter.next();
-        if (TupleUtils.tupleEquals(tb, key, row, data, keyColumns, i)) {
-          ret.add(i);
-        }
-      }
-    }
-    return ret;
-  }
+  int firstIndex(int hashCode, ReadableTable tb, int[] key, int row);
+
+  /**
+   * Find the next tuple in the hash table whose key matches the given tuple. The hash table must not be modified
+   * between the calls that walk the same matches.
+   *
+   * @param tb the input tuple batch
+   * @param key the key columns
+   * @param row the row index of the tuple
+   * @param index the index of the previous match, as returned by {@link #firstIndex} or {@link #nextIndex}
+   * @return the index of the next matching tuple in {@link #getData()}, or -1 if there is none
+   */
+  int nextIndex(ReadableTable tb, int[] key, int row, int index);
 
   /**
    * Replace tuples in the hash table with the input tuple if they have the same key.
@@ -75,58 +85,77 @@ public final class TupleHashTable implements Serializable {
    * @param row the row index of the input tuple
    * @return if at least one tuple is replaced
    */
-  public boolean replace(final TupleBatch tb, final int[] keyColumns, final int row) {
-    IntIterator iter = getIndices(tb, keyColumns, row).intIterator();
-    if (!iter.hasNext()) {
-      return false;
-    }
-    while (iter.hasNext()) {
-      int i = iter.next();
-      for (int j = 0; j < data.numColumns(); ++j) {
-        data.replace(j, i, tb.getDataColumns().get(j), row);
-      }
-    }
-    return true;
-  }
+  boolean replace(TupleBatch tb, int[] keyColumns, int row);
 
   /**
    * @param tb tuple batch of the input tuple
    * @param keyColumns key column indices
    * @param row row index of the input tuple
    * @param keyOnly only add keyColumns
+   * @return the index of the new tuple in {@link #getData()}
    */
-  public void addTuple(
-      final ReadableTable tb, final int[] keyColumns, final int row, final boolean keyOnly) {
-    int hashcode = HashUtils.hashSubRow(tb, keyColumns, row);
-    IntArrayList indices = keyHashCodesToIndices.get(hashcode);
-    if (indices == null) {
-      indices = new IntArrayList();
-      keyHashCodesToIndices.put(hashcode, indices);
-    }
-    indices.add(numTuples());
-    if (keyOnly) {
-      for (int i = 0; i < keyColumns.length; ++i) {
-        data.put(i, tb.asColumn(keyColumns[i]), row);
-      }
-    } else {
-      for (int i = 0; i < data.numColumns(); ++i) {
-        data.put(i, tb.asColumn(i), row);
-      }
-    }
-  }
+  int addTuple(ReadableTable tb, int[] keyColumns, int row, boolean keyOnly);
+
+  /**
+   * Same as {@link #addTuple(ReadableTable, int[], int, boolean)}, with the hash code of the key already computed.
+   *
+   * @param hashCode the hash code of the key of the tuple
+   * @param tb tuple batch of the input tuple
+   * @param keyColumns key column indices
+   * @param row row index of the input tuple
+   * @param keyOnly only add keyColumns
+   * @return the index of the new tuple in {@link #getData()}
+   */
+  int addTuple(int hashCode, ReadableTable tb, int[] keyColumns, int row, boolean keyOnly);
 
   /**
    * @return the data
    */
-  public MutableTupleBuffer getData() {
-    return data;
-  }
+  MutableTupleBuffer getData();
+
+  /**
+   * Clean up the hash table, returning the storage of its data to the
+   * {@link edu.washington.escience.myria.column.builder.PrimitiveArrayPool}. The table is empty afterwards.
+   */
+  void cleanup();
 
   /**
-   * Clean up the hash table.
+   * The available implementations of {@link TupleHashTable}.
    */
-  public void cleanup() {
-    keyHashCodesToIndices = new IntObjectHashMap<IntArrayList>();
-    data = new MutableTupleBuffer(data.getSchema());
+  enum Kind {
+    /** {@link BucketTupleHashTable}: a map from hash codes to lists of indices. */
+    BUCKET,
+    /** {@link FlatTupleHashTable}: an open-addressing table over primitive arrays. */
+    FLAT;
+
+    /**
+     * @param execEnvVars execution environment variables, may be null
+     * @return the kind of hash table configured for this node, {@link #BUCKET} if none is configured
+     */
+    public static Kind of(@Nullable final Map<String, Object> execEnvVars) {
+      if (execEnvVars == null) {
+        return BUCKET;
+      }
+      Object kind = execEnvVars.get(MyriaConstants.EXEC_ENV_VAR_HASH_TABLE_KIND);
+      if (kind == null) {
+        return BUCKET;
+      }
+      return valueOf(kind.toString().toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * @param schema schema
+     * @param keyColumns key column indices
+     * @return a new, empty hash table of this kind
+     */
+    public TupleHashTable newTable(final Schema schema, final int[] keyColumns) {
+      switch (this) {
+        case FLAT:
+          return new FlatTupleHashTable(schema, keyColumns);
+        case BUCKET:
+        default:
+          return new BucketTupleHashTable(schema, keyColumns);
+      }
+    }
   }
 }
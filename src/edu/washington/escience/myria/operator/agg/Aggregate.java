@@ -8,7 +8,6 @@ import javax.annotation.Nullable;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableMap;
-import com.gs.collections.api.iterator.IntIterator;
 
 import edu.washington.escience.myria.DbException;
 import edu.washington.escience.myria.Schema;
@@ -23,6 +22,8 @@ import edu.washington.escience.myria.operator.TupleHashTable;
 import edu.washington.escience.myria.operator.UnaryOperator;
 import edu.washington.escience.myria.storage.TupleBatch;
 import edu.washington.escience.myria.storage.TupleBatchBuffer;
+import edu.washington.escience.myria.storage.TupleUtils;
+import edu.washington.escience.myria.util.HashUtils;
 import edu.washington.escience.myria.util.MyriaArrayUtils;
 
 /**
@@ -46,6 +47,10 @@ public class Aggregate extends UnaryOperator {
   protected final int[] gfields;
   /** Buffer for restoring results. */
   protected TupleBatchBuffer resultBuffer;
+  /** The groups of the rows of the current input batch. */
+  private transient BatchGroups batchGroups;
+  /** The hash codes of the group keys of the rows of the current input batch. */
+  private transient int[] keyHashes;
 
   /**
    * Groups the input tuples according to the specified grouping fields, then produces the specified aggregates.
@@ -69,7 +74,8 @@ public class Aggregate extends UnaryOperator {
 
   /**
    * Returns the next tuple. The first few columns are group-by fields if there are any, followed by columns of
-   * aggregate results generated by {@link Aggregate#emitEvals}.
+   * aggregate results generated by {@link Aggregate#emitEvals}. Input is consumed a batch at a time: the group of every
+   * row is found first, then each aggregator updates the states of the whole batch.
    *
    * @throws DbException if any error occurs.
    * @return result TB.
@@ -79,25 +85,27 @@ public class Aggregate extends UnaryOperator {
     final Operator child = getChild();
     TupleBatch tb = child.nextReady();
     while (tb != null) {
+      batchGroups.reset(tb.numTuples());
+      if (keyHashes.length < tb.numTuples()) {
+        keyHashes = new int[tb.numTuples()];
+      }
+      HashUtils.hashSubRows(tb, gfields, 0, keyHashes);
       for (int row = 0; row < tb.numTuples(); ++row) {
-        IntIterator iter = groupStates.getIndices(tb, gfields, row).intIterator();
-        int index;
-        if (!iter.hasNext()) {
-          groupStates.addTuple(tb, gfields, row, true);
+        int index = groupStates.firstIndex(keyHashes[row], tb, gfields, row);
+        if (index == -1) {
+          index = groupStates.addTuple(keyHashes[row], tb, gfields, row, true);
           int offset = gfields.length;
           for (Aggregator agg : internalAggs) {
             agg.initState(groupStates.getData(), offset);
             offset += agg.getStateSize();
           }
-          index = groupStates.getData().numTuples() - 1;
-        } else {
-          index = iter.next();
-        }
-        int offset = gfields.length;
-        for (Aggregator agg : internalAggs) {
-          agg.addRow(tb, row, groupStates.getData(), index, offset);
-          offset += agg.getStateSize();
         }
+        batchGroups.set(row, index);
+      }
+      int offset = gfields.length;
+      for (Aggregator agg : internalAggs) {
+        agg.addBatch(tb, batchGroups, groupStates.getData(), offset);
+        offset += agg.getStateSize();
       }
       tb = child.nextReady();
     }
@@ -205,8 +213,12 @@ public class Aggregate extends UnaryOperator {
       }
     }
     groupStates =
-        new TupleHashTable(
-            Schema.merge(groupingSchema, stateSchema), MyriaArrayUtils.range(0, gfields.length));
+        TupleHashTable.Kind.of(execEnvVars)
+            .newTable(
+                Schema.merge(groupingSchema, stateSchema),
+                MyriaArrayUtils.range(0, gfields.length));
     resultBuffer = new TupleBatchBuffer(getSchema());
+    batchGroups = new BatchGroups(TupleUtils.getBatchSize(inputSchema));
+    keyHashes = new int[TupleUtils.getBatchSize(inputSchema)];
   }
 };
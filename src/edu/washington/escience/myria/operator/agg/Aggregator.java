@@ -31,6 +31,23 @@ public interface Aggregator extends Serializable {
       final int offset)
       throws DbException;
 
+  /**
+   * Update the aggregate states using all rows of the specified batch. Row <code>i</code> of <code>from</code> belongs
+   * to the state at row <code>groups.getStateRows()[groups.getRowGroups()[i]]</code> of <code>to</code>.
+   *
+   * @param from the TupleBatch containing the source tuples.
+   * @param groups the groups of the rows of <code>from</code>.
+   * @param to the MutableTupleBuffer containing the states.
+   * @param offset the column index offset.
+   * @throws DbException
+   */
+  void addBatch(
+      @Nonnull final TupleBatch from,
+      @Nonnull final BatchGroups groups,
+      @Nonnull final MutableTupleBuffer to,
+      final int offset)
+      throws DbException;
+
   /**
    * @return the size of the state schema
    */
@@ -0,0 +1,92 @@
+package edu.washington.escience.myria.operator.agg;
+
+import java.util.Arrays;
+
+/**
+ * The groups of the rows of one input {@link edu.washington.escience.myria.storage.TupleBatch}. Groups are numbered
+ * densely from 0 in the order they first appear in the batch, so that an {@link Aggregator} can load the states of the
+ * groups of a batch into a primitive array, update them in a tight loop over the rows, and store them back.
+ */
+public final class BatchGroups {
+  /** Marks a state row that has no group in the current batch. */
+  private static final int NONE = -1;
+
+  /** The group of each row. */
+  private int[] rowGroups;
+  /** The state row of each group. */
+  private int[] stateRows;
+  /** The group of each state row, {@link #NONE} if the state row is not in the current batch. */
+  private int[] groupOfStateRow;
+  /** The number of rows in the current batch. */
+  private int numRows;
+  /** The number of groups in the current batch. */
+  private int numGroups;
+
+  /**
+   * @param capacity the expected number of rows per batch
+   */
+  public BatchGroups(final int capacity) {
+    rowGroups = new int[capacity];
+    stateRows = new int[capacity];
+    groupOfStateRow = new int[capacity];
+    Arrays.fill(groupOfStateRow, NONE);
+  }
+
+  /**
+   * Start a new batch.
+   *
+   * @param numRows the number of rows in the new batch
+   */
+  public void reset(final int numRows) {
+    for (int group = 0; group < numGroups; ++group) {
+      groupOfStateRow[stateRows[group]] = NONE;
+    }
+    if (numRows > rowGroups.length) {
+      rowGroups = new int[numRows];
+      stateRows = new int[numRows];
+    }
+    this.numRows = numRows;
+    numGroups = 0;
+  }
+
+  /**
+   * Assign a row of the current batch to the group of a state row.
+   *
+   * @param row the row index in the current batch
+   * @param stateRow the row index of the state of its group
+   */
+  public void set(final int row, final int stateRow) {
+    if (stateRow >= groupOfStateRow.length) {
+      final int oldLength = groupOfStateRow.length;
+      groupOfStateRow = Arrays.copyOf(groupOfStateRow, Math.max(oldLength * 2, stateRow + 1));
+      Arrays.fill(groupOfStateRow, oldLength, groupOfStateRow.length, NONE);
+    }
+    int group = groupOfStateRow[stateRow];
+    if (group == NONE) {
+      group = numGroups++;
+      groupOfStateRow[stateRow] = group;
+      stateRows[group] = stateRow;
+    }
+    rowGroups[row] = group;
+  }
+
+  /** @return the number of rows in the current batch. */
+  public int numRows() {
+    return numRows;
+  }
+
+  /** @return the number of groups in the current batch. */
+  public int numGroups() {
+    return numGroups;
+  }
+
+  /** @return the group of each row, valid up to {@link #numRows()}. */
+  public int[] getRowGroups() {
+    return rowGroups;
+  }
+
+  /** @return the state row of each group, valid up to {@link #numGroups()}. */
+  public int[] getStateRows() {
+    return stateRows;
+  }
+}
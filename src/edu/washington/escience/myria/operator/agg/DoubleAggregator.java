@@ -56,6 +56,71 @@ public final class DoubleAggregator extends PrimitiveAggregator {
     }
   }
 
+  @Override
+  public void addBatch(
+      final TupleBatch from,
+      final BatchGroups groups,
+      final MutableTupleBuffer to,
+      final int offset) {
+    final ReadableColumn fromCol = from.asColumn(column);
+    final int[] rowGroups = groups.getRowGroups();
+    final int numRows = groups.numRows();
+    switch (aggOp) {
+      case COUNT:
+        {
+          final long[] states = loadLongStates(groups, to, offset);
+          for (int row = 0; row < numRows; ++row) {
+            ++states[rowGroups[row]];
+          }
+          storeLongStates(groups, to, offset);
+          break;
+        }
+      case MAX:
+        {
+          final double[] states = loadDoubleStates(groups, to, offset);
+          for (int row = 0; row < numRows; ++row) {
+            final int group = rowGroups[row];
+            states[group] = Math.max(fromCol.getDouble(row), states[group]);
+          }
+          storeDoubleStates(groups, to, offset);
+          break;
+        }
+      case MIN:
+        {
+          final double[] states = loadDoubleStates(groups, to, offset);
+          for (int row = 0; row < numRows; ++row) {
+            final int group = rowGroups[row];
+            states[group] = Math.min(fromCol.getDouble(row), states[group]);
+          }
+          storeDoubleStates(groups, to, offset);
+          break;
+        }
+      case SUM:
+        {
+          final double[] states = loadDoubleStates(groups, to, offset);
+          for (int row = 0; row < numRows; ++row) {
+            final int group = rowGroups[row];
+            states[group] = fromCol.getDouble(row) + states[group];
+          }
+          storeDoubleStates(groups, to, offset);
+          break;
+        }
+      case SUM_SQUARED:
+        {
+          final double[] states = loadDoubleStates(groups, to, offset);
+          for (int row = 0; row < numRows; ++row) {
+            final int group = rowGroups[row];
+            final double value = fromCol.getDouble(row);
+            states[group] = value * value + states[group];
+          }
+          storeDoubleStates(groups, to, offset);
+          break;
+        }
+      default:
+        throw new IllegalArgumentException(aggOp + " is invalid");
+    }
+  }
+
   @Override
   protected boolean isSupported(final AggregationOp aggOp) {
     return ImmutableSet.of(
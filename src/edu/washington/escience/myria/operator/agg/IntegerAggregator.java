@@ -59,6 +59,72 @@ public final class IntegerAggregator extends PrimitiveAggregator {
     }
   }
 
+  @Override
+  public void addBatch(
+      final TupleBatch from,
+      final BatchGroups groups,
+      final MutableTupleBuffer to,
+      final int offset) {
+    final ReadableColumn fromCol = from.asColumn(column);
+    final int[] rowGroups = groups.getRowGroups();
+    final int numRows = groups.numRows();
+    switch (aggOp) {
+      case COUNT:
+        {
+          final long[] states = loadLongStates(groups, to, offset);
+          for (int row = 0; row < numRows; ++row) {
+            ++states[rowGroups[row]];
+          }
+          storeLongStates(groups, to, offset);
+          break;
+        }
+      case MAX:
+        {
+          final int[] states = loadIntStates(groups, to, offset);
+          for (int row = 0; row < numRows; ++row) {
+            final int group = rowGroups[row];
+            states[group] = Math.max(fromCol.getInt(row), states[group]);
+          }
+          storeIntStates(groups, to, offset);
+          break;
+        }
+      case MIN:
+        {
+          final int[] states = loadIntStates(groups, to, offset);
+          for (int row = 0; row < numRows; ++row) {
+            final int group = rowGroups[row];
+            states[group] = Math.min(fromCol.getInt(row), states[group]);
+          }
+          storeIntStates(groups, to, offset);
+          break;
+        }
+      case SUM:
+        {
+          final long[] states = loadLongStates(groups, to, offset);
+          for (int row = 0; row < numRows; ++row) {
+            final int group = rowGroups[row];
+            states[group] = LongMath.checkedAdd((long) fromCol.getInt(row), states[group]);
+          }
+          storeLongStates(groups, to, offset);
+          break;
+        }
+      case SUM_SQUARED:
+        {
+          final long[] states = loadLongStates(groups, to, offset);
+          for (int row = 0; row < numRows; ++row) {
+            final int group = rowGroups[row];
+            final int value = fromCol.getInt(row);
+            states[group] =
+                LongMath.checkedAdd(LongMath.checkedMultiply((long) value, value), states[group]);
+          }
+          storeLongStates(groups, to, offset);
+          break;
+        }
+      default:
+        throw new IllegalArgumentException(aggOp + " is invalid");
+    }
+  }
+
   @Override
   protected boolean isSupported(final AggregationOp aggOp) {
     return ImmutableSet.of(
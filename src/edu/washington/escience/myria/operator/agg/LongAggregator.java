@@ -60,6 +60,72 @@ public final class LongAggregator extends PrimitiveAggregator {
     }
   }
 
+  @Override
+  public void addBatch(
+      final TupleBatch from,
+      final BatchGroups groups,
+      final MutableTupleBuffer to,
+      final int offset) {
+    final ReadableColumn fromCol = from.asColumn(column);
+    final int[] rowGroups = groups.getRowGroups();
+    final int numRows = groups.numRows();
+    switch (aggOp) {
+      case COUNT:
+        {
+          final long[] states = loadLongStates(groups, to, offset);
+          for (int row = 0; row < numRows; ++row) {
+            ++states[rowGroups[row]];
+          }
+          storeLongStates(groups, to, offset);
+          break;
+        }
+      case MAX:
+        {
+          final long[] states = loadLongStates(groups, to, offset);
+          for (int row = 0; row < numRows; ++row) {
+            final int group = rowGroups[row];
+            states[group] = Math.max(fromCol.getLong(row), states[group]);
+          }
+          storeLongStates(groups, to, offset);
+          break;
+        }
+      case MIN:
+        {
+          final long[] states = loadLongStates(groups, to, offset);
+          for (int row = 0; row < numRows; ++row) {
+            final int group = rowGroups[row];
+            states[group] = Math.min(fromCol.getLong(row), states[group]);
+          }
+          storeLongStates(groups, to, offset);
+          break;
+        }
+      case SUM:
+        {
+          final long[] states = loadLongStates(groups, to, offset);
+          for (int row = 0; row < numRows; ++row) {
+            final int group = rowGroups[row];
+            states[group] = LongMath.checkedAdd(fromCol.getLong(row), states[group]);
+          }
+          storeLongStates(groups, to, offset);
+          break;
+        }
+      case SUM_SQUARED:
+        {
+          final long[] states = loadLongStates(groups, to, offset);
+          for (int row = 0; row < numRows; ++row) {
+            final int group = rowGroups[row];
+            final long value = fromCol.getLong(row);
+            states[group] =
+                LongMath.checkedAdd(LongMath.checkedMultiply(value, value), states[group]);
+          }
+          storeLongStates(groups, to, offset);
+          break;
+        }
+      default:
+        throw new IllegalArgumentException(aggOp + " is invalid");
+    }
+  }
+
   @Override
   protected boolean isSupported(final AggregationOp aggOp) {
     return ImmutableSet.of(
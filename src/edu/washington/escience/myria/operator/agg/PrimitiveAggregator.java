@@ -2,9 +2,12 @@ package edu.washington.escience.myria.operator.agg;
 
 import java.io.Serializable;
 
+import edu.washington.escience.myria.DbException;
 import edu.washington.escience.myria.Type;
 import edu.washington.escience.myria.storage.AppendableTable;
 import edu.washington.escience.myria.storage.MutableTupleBuffer;
+import edu.washington.escience.myria.storage.ReplaceableColumn;
+import edu.washington.escience.myria.storage.TupleBatch;
 
 /**
  * Single column aggregator.
@@ -42,6 +45,12 @@ public abstract class PrimitiveAggregator implements Aggregator, Serializable {
   protected final int column;
   /** The output name of the aggregate. */
   private final String outputName;
+  /** Scratch space for the int states of the groups of a batch. */
+  private transient int[] intStates;
+  /** Scratch space for the long states of the groups of a batch. */
+  private transient long[] longStates;
+  /** Scratch space for the double states of the groups of a batch. */
+  private transient double[] doubleStates;
 
   /**
    * Instantiate a PrimitiveAggregator that computes the specified aggregates.
@@ -85,4 +94,124 @@ public abstract class PrimitiveAggregator implements Aggregator, Serializable {
   public void initState(final MutableTupleBuffer state, final int offset) {
     appendInitValue(state, offset);
   }
+
+  /**
+   * Update the states row by row. Subclasses override this with tight loops over the primitive states for the
+   * aggregations they can vectorize.
+   */
+  @Override
+  public void addBatch(
+      final TupleBatch from,
+      final BatchGroups groups,
+      final MutableTupleBuffer to,
+      final int offset)
+      throws DbException {
+    final int[] rowGroups = groups.getRowGroups();
+    final int[] stateRows = groups.getStateRows();
+    for (int row = 0; row < groups.numRows(); ++row) {
+      addRow(from, row, to, stateRows[rowGroups[row]], offset);
+    }
+  }
+
+  /**
+   * @param groups the groups of a batch
+   * @param to the table containing the states
+   * @param offset the state column
+   * @return the int state of each group of the batch
+   */
+  protected int[] loadIntStates(
+      final BatchGroups groups, final MutableTupleBuffer to, final int offset) {
+    if (intStates == null || intStates.length < groups.numGroups()) {
+      intStates = new int[groups.numRows()];
+    }
+    final int[] stateRows = groups.getStateRows();
+    for (int group = 0; group < groups.numGroups(); ++group) {
+      intStates[group] = to.getInt(offset, stateRows[group]);
+    }
+    return intStates;
+  }
+
+  /**
+   * @param groups the groups of a batch
+   * @param to the table containing the states
+   * @param offset the state column
+   * @return the long state of each group of the batch
+   */
+  protected long[] loadLongStates(
+      final BatchGroups groups, final MutableTupleBuffer to, final int offset) {
+    if (longStates == null || longStates.length < groups.numGroups()) {
+      longStates = new long[groups.numRows()];
+    }
+    final int[] stateRows = groups.getStateRows();
+    for (int group = 0; group < groups.numGroups(); ++group) {
+      longStates[group] = to.getLong(offset, stateRows[group]);
+    }
+    return longStates;
+  }
+
+  /**
+   * @param groups the groups of a batch
+   * @param to the table containing the states
+   * @param offset the state column
+   * @return the double state of each group of the batch
+   */
+  protected double[] loadDoubleStates(
+      final BatchGroups groups, final MutableTupleBuffer to, final int offset) {
+    if (doubleStates == null || doubleStates.length < groups.numGroups()) {
+      doubleStates = new double[groups.numRows()];
+    }
+    final int[] stateRows = groups.getStateRows();
+    for (int group = 0; group < groups.numGroups(); ++group) {
+      doubleStates[group] = to.getDouble(offset, stateRows[group]);
+    }
+    return doubleStates;
+  }
+
+  /**
+   * Write back the states returned by {@link #loadIntStates}.
+   *
+   * @param groups the groups of a batch
+   * @param to the table containing the states
+   * @param offset the state column
+   */
+  protected void storeIntStates(
+      final BatchGroups groups, final MutableTupleBuffer to, final int offset) {
+    final int[] stateRows = groups.getStateRows();
+    for (int group = 0; group < groups.numGroups(); ++group) {
+      ReplaceableColumn toCol = to.getColumn(offset, stateRows[group]);
+      toCol.replaceInt(intStates[group], to.getInColumnIndex(stateRows[group]));
+    }
+  }
+
+  /**
+   * Write back the states returned by {@link #loadLongStates}.
+   *
+   * @param groups the groups of a batch
+   * @param to the table containing the states
+   * @param offset the state column
+   */
+  protected void storeLongStates(
+      final BatchGroups groups, final MutableTupleBuffer to, final int offset) {
+    final int[] stateRows = groups.getStateRows();
+    for (int group = 0; group < groups.numGroups(); ++group) {
+      ReplaceableColumn toCol = to.getColumn(offset, stateRows[group]);
+      toCol.replaceLong(longStates[group], to.getInColumnIndex(stateRows[group]));
+    }
+  }
+
+  /**
+   * Write back the states returned by {@link #loadDoubleStates}.
+   *
+   * @param groups the groups of a batch
+   * @param to the table containing the states
+   * @param offset the state column
+   */
+  protected void storeDoubleStates(
+      final BatchGroups groups, final MutableTupleBuffer to, final int offset) {
+    final int[] stateRows = groups.getStateRows();
+    for (int group = 0; group < groups.numGroups(); ++group) {
+      ReplaceableColumn toCol = to.getColumn(offset, stateRows[group]);
+      toCol.replaceDouble(doubleStates[group], to.getInColumnIndex(stateRows[group]));
+    }
+  }
 }
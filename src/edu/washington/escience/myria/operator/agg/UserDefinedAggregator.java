@@ -58,6 +58,20 @@ public class UserDefinedAggregator implements Aggregator {
     }
   }
 
+  @Override
+  public void addBatch(
+      final TupleBatch input,
+      final BatchGroups groups,
+      final MutableTupleBuffer state,
+      final int offset)
+      throws DbException {
+    final int[] rowGroups = groups.getRowGroups();
+    final int[] stateRows = groups.getStateRows();
+    for (int row = 0; row < groups.numRows(); ++row) {
+      addRow(input, row, state, stateRows[rowGroups[row]], offset);
+    }
+  }
+
   @Override
   public void initState(final MutableTupleBuffer state, final int offset) throws DbException {
     for (GenericEvaluator eval : initEvaluators) {
@@ -0,0 +1,140 @@
+package edu.washington.escience.myria.operator.network;
+
+import java.util.concurrent.TimeUnit;
+
+import edu.washington.escience.myria.Schema;
+import edu.washington.escience.myria.storage.ExchangeTupleBatch;
+import edu.washington.escience.myria.storage.TupleBatch;
+import edu.washington.escience.myria.storage.TupleBatchBuffer;
+import edu.washington.escience.myria.storage.TupleUtils;
+
+/**
+ * Merges the small batches a {@link Consumer} receives from each source worker into full batches. Batches of
+ * different workers are never merged, so that each merged batch still has a single source worker.
+ *
+ * Tuples are pending until they fill a batch or until they are popped, e.g., because their worker sent EOS or EOI or
+ * because they have been pending for longer than the deadline. Not thread safe.
+ */
+final class BatchCoalescer {
+  /** Batches of fewer than 1/SMALL_RATIO of the batch size are merged with the next ones. */
+  static final int SMALL_RATIO = 2;
+
+  /** The schema of the batches. */
+  private final Schema schema;
+  /** The number of tuples of a merged batch. */
+  private final int batchSize;
+  /** How long tuples may be pending, in nanoseconds. */
+  private final long deadlineNanos;
+  /** The pending tuples, per source worker index. */
+  private final TupleBatchBuffer[] pending;
+  /** The remote ID of the source worker of the pending tuples, per source worker index. */
+  private final int[] remoteIDs;
+  /** When the oldest pending tuples of each source worker were received, per source worker index. */
+  private final long[] sinceNanos;
+
+  /**
+   * @param schema the schema of the batches
+   * @param numSources the number of source workers
+   * @param deadlineMillis how long tuples may be pending, in milliseconds
+   */
+  BatchCoalescer(final Schema schema, final int numSources, final int deadlineMillis) {
+    this.schema = schema;
+    batchSize = TupleUtils.getBatchSize(schema);
+    deadlineNanos = TimeUnit.MILLISECONDS.toNanos(deadlineMillis);
+    pending = new TupleBatchBuffer[numSources];
+    remoteIDs = new int[numSources];
+    sinceNanos = new long[numSources];
+  }
+
+  /**
+   * @param sourceIdx the index of a source worker
+   * @return true if tuples of the worker are pending
+   */
+  boolean hasPending(final int sourceIdx) {
+    return pending[sourceIdx] != null && pending[sourceIdx].numTuples() > 0;
+  }
+
+  /**
+   * Merge a batch with the pending tuples of its worker, if it is small or if tuples of its worker are pending.
+   *
+   * @param sourceIdx the index of the source worker
+   * @param remoteID the remote ID of the source worker
+   * @param tb a batch from the worker, not EOI
+   * @param nowNanos the current {@link System#nanoTime()}
+   * @return a batch to return, either the batch if it is not merged or a full merged batch, or null if there is none
+   */
+  TupleBatch add(
+      final int sourceIdx, final int remoteID, final TupleBatch tb, final long nowNanos) {
+    final boolean nothingPending = !hasPending(sourceIdx);
+    if (nothingPending && tb.numTuples() * SMALL_RATIO >= batchSize) {
+      return ExchangeTupleBatch.wrap(tb, remoteID);
+    }
+    if (pending[sourceIdx] == null) {
+      pending[sourceIdx] = new TupleBatchBuffer(schema);
+    }
+    if (nothingPending) {
+      remoteIDs[sourceIdx] = remoteID;
+      sinceNanos[sourceIdx] = nowNanos;
+    }
+    pending[sourceIdx].appendAll(tb);
+    final TupleBatch filled = pending[sourceIdx].popFilled();
+    if (filled == null) {
+      return null;
+    }
+    sinceNanos[sourceIdx] = nowNanos;
+    return ExchangeTupleBatch.wrap(filled, remoteID);
+  }
+
+  /**
+   * @param sourceIdx the index of a source worker with pending tuples
+   * @return its pending tuples
+   */
+  TupleBatch pop(final int sourceIdx) {
+    return ExchangeTupleBatch.wrap(pending[sourceIdx].popAny(), remoteIDs[sourceIdx]);
+  }
+
+  /**
+   * @param all whether to also pop tuples that have been pending for less than the deadline
+   * @param nowNanos the current {@link System#nanoTime()}
+   * @return the pending tuples of a source worker, or null if there are none to pop
+   */
+  TupleBatch popAny(final boolean all, final long nowNanos) {
+    for (int i = 0; i < pending.length; ++i) {
+      if (hasPending(i) && (all || nowNanos - sinceNanos[i] >= deadlineNanos)) {
+        return pop(i);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @param nowNanos the current {@link System#nanoTime()}
+   * @return how long until the oldest pending tuples reach the deadline, in milliseconds, or -1 if no tuples are
+   *         pending
+   */
+  int millisToDeadline(final long nowNanos) {
+    long earliest = Long.MAX_VALUE;
+    for (int i = 0; i < pending.length; ++i) {
+      if (hasPending(i)) {
+        earliest = Math.min(earliest, sinceNanos[i]);
+      }
+    }
+    if (earliest == Long.MAX_VALUE) {
+      return -1;
+    }
+    final long remainingNanos = earliest + deadlineNanos - nowNanos;
+    if (remainingNanos <= 0) {
+      return 0;
+    }
+    return (int) Math.max(1, TimeUnit.NANOSECONDS.toMillis(remainingNanos));
+  }
+
+  /** Drop the pending tuples. */
+  void clear() {
+    for (TupleBatchBuffer buffer : pending) {
+      if (buffer != null) {
+        buffer.clear();
+      }
+    }
+  }
+}
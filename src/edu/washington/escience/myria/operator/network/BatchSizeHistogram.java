@@ -0,0 +1,74 @@
+package edu.washington.escience.myria.operator.network;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts batches by their number of tuples, in power-of-two buckets: bucket <code>b</code> counts the batches of
+ * <code>[2^(b-1), 2^b)</code> tuples, and bucket 0 the empty batches. Batches are recorded by the thread running the
+ * operator and read by the resource report thread.
+ */
+public final class BatchSizeHistogram {
+  /** The number of buckets, enough for any int. */
+  public static final int NUM_BUCKETS = Integer.SIZE;
+
+  /** The number of batches in each bucket. */
+  private final AtomicLongArray counts = new AtomicLongArray(NUM_BUCKETS);
+
+  /**
+   * @param numTuples the number of tuples of a batch
+   * @return its bucket
+   */
+  public static int bucket(final int numTuples) {
+    return Integer.SIZE - Integer.numberOfLeadingZeros(numTuples);
+  }
+
+  /**
+   * @param bucket a bucket
+   * @return the smallest number of tuples of the batches in the bucket
+   */
+  public static int lowerBound(final int bucket) {
+    return bucket == 0 ? 0 : 1 << (bucket - 1);
+  }
+
+  /**
+   * Count a batch.
+   *
+   * @param numTuples the number of tuples of the batch
+   */
+  public void record(final int numTuples) {
+    counts.incrementAndGet(bucket(numTuples));
+  }
+
+  /**
+   * @param bucket a bucket
+   * @return the number of batches in the bucket
+   */
+  public long getCount(final int bucket) {
+    return counts.get(bucket);
+  }
+
+  /** @return the number of batches. */
+  public long getNumBatches() {
+    long sum = 0;
+    for (int b = 0; b < NUM_BUCKETS; ++b) {
+      sum += counts.get(b);
+    }
+    return sum;
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder sb = new StringBuilder("{");
+    for (int b = 0; b < NUM_BUCKETS; ++b) {
+      final long count = counts.get(b);
+      if (count == 0) {
+        continue;
+      }
+      if (sb.length() > 1) {
+        sb.append(", ");
+      }
+      sb.append(lowerBound(b)).append("+: ").append(count);
+    }
+    return sb.append('}').toString();
+  }
+}
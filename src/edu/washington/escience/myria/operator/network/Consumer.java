@@ -62,6 +62,15 @@ public class Consumer extends LeafOperator {
   /** The worker this operator is located at. */
   private transient LocalFragmentResourceManager taskResourceManager;
 
+  /** The sizes of the batches received from the source workers. */
+  private transient BatchSizeHistogram receivedBatchSizes;
+  /** The sizes of the batches returned to the parent operator. */
+  private transient BatchSizeHistogram returnedBatchSizes;
+  /** Merges small batches, or null if they are not merged. */
+  private transient BatchCoalescer coalescer;
+  /** An EOS or EOI received while tuples of the same worker were pending, processed once they have been returned. */
+  private transient IPCMessage.StreamData<TupleBatch> deferredMarker;
+
   /** @return my exchange channels.
    * @param myWorkerID for parsing self-references. */
   public final ImmutableSet<StreamIOChannelID> getInputChannelIDs(final int myWorkerID) {
@@ -103,6 +112,10 @@ public class Consumer extends LeafOperator {
     inputBuffer = null;
     workerEOS.clear();
     workerEOI.clear();
+    if (coalescer != null) {
+      coalescer.clear();
+    }
+    deferredMarker = null;
   }
 
   @Override
@@ -124,6 +137,16 @@ public class Consumer extends LeafOperator {
             == QueryExecutionMode.NON_BLOCKING;
 
     inputBuffer = taskResourceManager.getInputBuffer(this);
+
+    receivedBatchSizes = new BatchSizeHistogram();
+    returnedBatchSizes = new BatchSizeHistogram();
+    Object deadline = execEnvVars.get(MyriaConstants.EXEC_ENV_VAR_CONSUMER_COALESCE_DEADLINE_MS);
+    int deadlineMillis = deadline == null ? -1 : Integer.parseInt(deadline.toString());
+    if (deadlineMillis >= 0) {
+      coalescer = new BatchCoalescer(schema, sourceWorkers.size(), deadlineMillis);
+    } else {
+      coalescer = null;
+    }
   }
 
   /** Retrieve a batch of tuples from the buffer of ExchangeMessages. Wait if the buffer is empty.
@@ -148,20 +171,12 @@ public class Consumer extends LeafOperator {
         ttbb = ExchangeTupleBatch.wrap(ttbb, tb.getRemoteID());
       }
 
-      if (ttbb == null) {
-        // EOS
-        workerEOS.set(sourceWorkerIdx);
-        checkEOSAndEOI();
-        if (eos() || eoi()) {
-          break;
-        }
-      } else if (ttbb.isEOI()) {
-        workerEOI.set(sourceWorkerIdx);
-        checkEOSAndEOI();
-        if (eos() || eoi()) {
+      if (ttbb == null || ttbb.isEOI()) {
+        if (processEOSOrEOI(sourceWorkerIdx, ttbb == null)) {
           break;
         }
       } else {
+        receivedBatchSizes.record(ttbb.numTuples());
         result = ttbb;
         break;
       }
@@ -170,6 +185,74 @@ public class Consumer extends LeafOperator {
     return result;
   }
 
+  /**
+   * Record an EOS or EOI from a source worker.
+   *
+   * @param sourceWorkerIdx the index of the source worker
+   * @param isEOS true for an EOS, false for an EOI
+   * @return true if this consumer has reached EOS or EOI
+   */
+  private boolean processEOSOrEOI(final int sourceWorkerIdx, final boolean isEOS) {
+    if (isEOS) {
+      workerEOS.set(sourceWorkerIdx);
+    } else {
+      workerEOI.set(sourceWorkerIdx);
+    }
+    checkEOSAndEOI();
+    return eos() || eoi();
+  }
+
+  /**
+   * Like {@link #getTuplesNormal(boolean)}, but merges the small batches of each source worker with {@link #coalescer}.
+   *
+   * Small batches already waiting in the input buffer are always merged. Only a blocking consumer waits for more
+   * batches, up to the coalescing deadline: a non-blocking consumer returns its pending tuples as soon as its input
+   * buffer is empty, since nothing would run it again when the deadline passes.
+   *
+   * @param blocking whether to wait for data.
+   * @return the next batch, or null if there is none yet or this consumer has reached EOS or EOI.
+   * @throws InterruptedException if interrupted.
+   */
+  private TupleBatch getTuplesCoalesced(final boolean blocking) throws InterruptedException {
+    while (true) {
+      IPCMessage.StreamData<TupleBatch> data;
+      if (deferredMarker != null) {
+        data = deferredMarker;
+        deferredMarker = null;
+      } else {
+        data = take(blocking ? coalescer.millisToDeadline(System.nanoTime()) : 0);
+      }
+      if (data == null) {
+        final TupleBatch flushed = coalescer.popAny(!blocking, System.nanoTime());
+        if (flushed != null || !blocking) {
+          return flushed;
+        }
+        continue;
+      }
+
+      final int sourceWorkerIdx = workerIdToIndex.get(data.getRemoteID());
+      final TupleBatch tb = data.getPayload();
+      if (tb == null || tb.isEOI()) {
+        if (coalescer.hasPending(sourceWorkerIdx)) {
+          // return the tuples received before the EOS or EOI first
+          deferredMarker = data;
+          return coalescer.pop(sourceWorkerIdx);
+        }
+        if (processEOSOrEOI(sourceWorkerIdx, tb == null)) {
+          return null;
+        }
+        continue;
+      }
+
+      receivedBatchSizes.record(tb.numTuples());
+      final TupleBatch result =
+          coalescer.add(sourceWorkerIdx, data.getRemoteID(), tb, System.nanoTime());
+      if (result != null) {
+        return result;
+      }
+    }
+  }
+
   @Override
   public final void checkEOSAndEOI() {
 
@@ -249,7 +332,16 @@ public class Consumer extends LeafOperator {
   @Override
   protected final TupleBatch fetchNextReady() throws DbException {
     try {
-      return getTuplesNormal(!nonBlockingExecution);
+      final TupleBatch tb;
+      if (coalescer == null) {
+        tb = getTuplesNormal(!nonBlockingExecution);
+      } else {
+        tb = getTuplesCoalesced(!nonBlockingExecution);
+      }
+      if (tb != null) {
+        returnedBatchSizes.record(tb.numTuples());
+      }
+      return tb;
     } catch (final InterruptedException e) {
       Thread.currentThread().interrupt();
     }
@@ -261,6 +353,16 @@ public class Consumer extends LeafOperator {
     return schema;
   }
 
+  /** @return the sizes of the batches received from the source workers, or null before initialization. */
+  public final BatchSizeHistogram getReceivedBatchSizes() {
+    return receivedBatchSizes;
+  }
+
+  /** @return the sizes of the batches returned to the parent operator, or null before initialization. */
+  public final BatchSizeHistogram getReturnedBatchSizes() {
+    return returnedBatchSizes;
+  }
+
   /** @param schema the schema to set */
   public final void setSchema(final Schema schema) {
     this.schema = schema;
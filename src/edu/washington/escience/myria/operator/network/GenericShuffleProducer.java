@@ -40,7 +40,8 @@ public class GenericShuffleProducer extends Producer {
 
   @Override
   protected final void consumeTuples(final TupleBatch tup) throws DbException {
-    final List<List<TupleBatch>> partitions = distributeFunction.distribute(tup);
+    final List<List<TupleBatch>> partitions =
+        distributeFunction.distribute(tup, getPartitionBuffers());
     if (getProfilingMode().contains(ProfilingMode.QUERY)) {
       for (int channelIdx = 0; channelIdx < partitions.size(); channelIdx++) {
         int numTuples = 0;
@@ -53,7 +54,7 @@ public class GenericShuffleProducer extends Producer {
         getProfilingLogger().recordSent(this, numTuples, destWorkerId);
       }
     }
-    writePartitionsIntoChannels(partitions);
+    writePartitionsIntoChannels(partitions, distributeFunction.copiesTuples());
   }
 
   @Override
@@ -70,6 +71,11 @@ public class GenericShuffleProducer extends Producer {
         distributeFunction.distribute(TupleBatch.eoiTupleBatch(getSchema())));
   }
 
+  @Override
+  public int getNumOfPartition() {
+    return distributeFunction.getNumPartitions();
+  }
+
   /**
    * @return the distribute function
    */
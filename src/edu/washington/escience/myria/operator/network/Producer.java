@@ -1,10 +1,13 @@
 package edu.washington.escience.myria.operator.network;
 
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.jboss.netty.channel.ChannelFuture;
+import org.jboss.netty.channel.ChannelFutureListener;
 
 import com.google.common.collect.ImmutableMap;
 
@@ -24,6 +27,7 @@ import edu.washington.escience.myria.parallel.QueryExecutionMode;
 import edu.washington.escience.myria.parallel.ipc.IPCConnectionPool;
 import edu.washington.escience.myria.parallel.ipc.IPCEvent;
 import edu.washington.escience.myria.parallel.ipc.IPCEventListener;
+import edu.washington.escience.myria.parallel.ipc.InJVMChannel;
 import edu.washington.escience.myria.parallel.ipc.StreamIOChannelID;
 import edu.washington.escience.myria.parallel.ipc.StreamOutputChannel;
 import edu.washington.escience.myria.storage.TupleBatch;
@@ -53,6 +57,8 @@ public abstract class Producer extends RootOperator implements StreamingStateful
   private List<StreamingState> triedToSendTuples;
   /** pending tuples to be sent for each channel. */
   private transient List<LinkedList<TupleBatch>> pendingTuplesToSend;
+  /** The pending batches that this producer copied its input into, see {@link #writePartitionsIntoChannels}. */
+  private transient IdentityHashMap<TupleBatch, OwnedBatch> ownedBatches;
 
   /** output channel IDs. */
   private final StreamIOChannelID[] outputIDs;
@@ -121,13 +127,14 @@ public abstract class Producer extends RootOperator implements StreamingStateful
     taskResourceManager =
         (LocalFragmentResourceManager)
             execEnvVars.get(MyriaConstants.EXEC_ENV_VAR_FRAGMENT_RESOURCE_MANAGER);
-    partitionBuffers = new TupleBatchBuffer[numOfPartition];
-    for (int i = 0; i < numOfPartition; i++) {
+    partitionBuffers = new TupleBatchBuffer[getNumOfPartition()];
+    for (int i = 0; i < partitionBuffers.length; i++) {
       partitionBuffers[i] = new TupleBatchBuffer(getSchema());
     }
     ioChannels = new StreamOutputChannel[outputIDs.length];
     ioChannelsAvail = new boolean[outputIDs.length];
     pendingTuplesToSend = new ArrayList<LinkedList<TupleBatch>>();
+    ownedBatches = new IdentityHashMap<>();
     localizedOutputIDs = new StreamIOChannelID[outputIDs.length];
     for (int i = 0; i < outputIDs.length; i++) {
       if (outputIDs[i].getRemoteID() == IPCConnectionPool.SELF_IPC_ID) {
@@ -248,13 +255,54 @@ public abstract class Producer extends RootOperator implements StreamingStateful
     }
   }
 
+  /**
+   * A batch that this producer copied its input into, so that nothing else references it.
+   */
+  private static final class OwnedBatch {
+    /** The number of channels that the batch has not been written to yet. */
+    private int unwritten;
+    /** The number of remote channels that have not sent the batch yet. */
+    private final AtomicInteger unsent = new AtomicInteger();
+  }
+
   /**
    * Pop tuple batches from each of the buffers and try to write them to corresponding channels if possible.
    *
    * @param partitions the list of partitions as tuple batches.
    */
   protected final void writePartitionsIntoChannels(final List<List<TupleBatch>> partitions) {
+    writePartitionsIntoChannels(partitions, false);
+  }
+
+  /**
+   * Pop tuple batches from each of the buffers and try to write them to corresponding channels if possible.
+   *
+   * If the batches are copies that only this producer references, each one is released to the
+   * {@link edu.washington.escience.myria.column.builder.PrimitiveArrayPool} once every channel it is written to has
+   * sent it to another worker. Batches written to a channel within this worker, or kept for fault tolerance, are left
+   * to the garbage collector.
+   *
+   * @param partitions the list of partitions as tuple batches.
+   * @param copies true if the batches of the partitions were built by this producer and nothing else references them.
+   */
+  protected final void writePartitionsIntoChannels(
+      final List<List<TupleBatch>> partitions, final boolean copies) {
     FTMode mode = taskResourceManager.getFragment().getLocalSubQuery().getFTMode();
+    if (copies && partitions != null && mode.equals(FTMode.NONE)) {
+      for (List<TupleBatch> partition : partitions) {
+        for (TupleBatch tb : partition) {
+          if (tb != null && !tb.isEOI()) {
+            OwnedBatch owned = ownedBatches.get(tb);
+            if (owned == null) {
+              owned = new OwnedBatch();
+              ownedBatches.put(tb, owned);
+            }
+            owned.unwritten++;
+            owned.unsent.incrementAndGet();
+          }
+        }
+      }
+    }
     for (int i = 0; i < numChannels(); ++i) {
       if (!ioChannelsAvail[i] && mode.equals(FTMode.ABANDON)) {
         continue;
@@ -279,7 +327,7 @@ public abstract class Producer extends RootOperator implements StreamingStateful
         }
         try {
           if (tb != null) {
-            writeMessage(i, tb);
+            releaseWhenSent(i, tb, writeMessage(i, tb));
           }
         } catch (IllegalStateException e) {
           if (mode.equals(FTMode.ABANDON) || mode.equals(FTMode.REJOIN)) {
@@ -293,6 +341,36 @@ public abstract class Producer extends RootOperator implements StreamingStateful
     }
   }
 
+  /**
+   * Release a batch that this producer copied its input into once every channel it is written to has sent it.
+   *
+   * @param chIdx the channel the batch was written to
+   * @param tb the batch
+   * @param future the future of the write, null if it was interrupted
+   */
+  private void releaseWhenSent(final int chIdx, final TupleBatch tb, final ChannelFuture future) {
+    final OwnedBatch owned = ownedBatches.get(tb);
+    if (owned == null) {
+      return;
+    }
+    if (--owned.unwritten == 0) {
+      ownedBatches.remove(tb);
+    }
+    /* A batch written within this worker goes to the consumer as is, so it never reaches zero unsent channels. */
+    if (future == null || ioChannels[chIdx].getIOChannel() instanceof InJVMChannel) {
+      return;
+    }
+    future.addListener(
+        new ChannelFutureListener() {
+          @Override
+          public void operationComplete(final ChannelFuture f) {
+            if (f.isSuccess() && owned.unsent.decrementAndGet() == 0) {
+              tb.release();
+            }
+          }
+        });
+  }
+
   /** @return the number of tuples in all buffers. */
   public final long getNumTuplesInBuffers() {
     long sum = 0;
@@ -321,10 +399,21 @@ public abstract class Producer extends RootOperator implements StreamingStateful
         ioChannels[i].release();
       }
     }
-    for (int i = 0; i < numOfPartition; i++) {
-      partitionBuffers[i] = null;
+    if (partitionBuffers != null) {
+      for (int i = 0; i < partitionBuffers.length; i++) {
+        if (partitionBuffers[i] != null) {
+          partitionBuffers[i].clear();
+        }
+        partitionBuffers[i] = null;
+      }
     }
     partitionBuffers = null;
+    ownedBatches = null;
+  }
+
+  /** @return the output buffers of the partitions, one per partition. */
+  protected final TupleBatchBuffer[] getPartitionBuffers() {
+    return partitionBuffers;
   }
 
   /**
@@ -444,4 +533,30 @@ public abstract class Producer extends RootOperator implements StreamingStateful
   public final long getNumTuplesWrittenToChannels() {
     return numTuplesWrittenToChannels;
   }
+
+  /** @return the number of bytes of the data frames written to remote channels, before compression. */
+  public final long getNumBytesRaw() {
+    long sum = 0;
+    if (ioChannels != null) {
+      for (StreamOutputChannel<TupleBatch> ch : ioChannels) {
+        if (ch != null) {
+          sum += ch.getNumBytesRaw();
+        }
+      }
+    }
+    return sum;
+  }
+
+  /** @return the number of bytes actually sent for the data frames written to remote channels. */
+  public final long getNumBytesCompressed() {
+    long sum = 0;
+    if (ioChannels != null) {
+      for (StreamOutputChannel<TupleBatch> ch : ioChannels) {
+        if (ch != null) {
+          sum += ch.getNumBytesCompressed();
+        }
+      }
+    }
+    return sum;
+  }
 }
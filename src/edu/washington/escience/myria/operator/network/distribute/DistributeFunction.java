@@ -2,6 +2,7 @@ package edu.washington.escience.myria.operator.network.distribute;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -14,6 +15,7 @@ import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.google.common.collect.Lists;
 
 import edu.washington.escience.myria.storage.TupleBatch;
+import edu.washington.escience.myria.storage.TupleBatchBuffer;
 
 /**
  * A dataset is distributed by two steps: First, using a partition function to generate a partition for each tuple;
@@ -25,6 +27,7 @@ import edu.washington.escience.myria.storage.TupleBatch;
   @Type(value = BroadcastDistributeFunction.class, name = "Broadcast"),
   @Type(value = HyperCubeDistributeFunction.class, name = "HyperCube"),
   @Type(value = HashDistributeFunction.class, name = "Hash"),
+  @Type(value = SkewedHashDistributeFunction.class, name = "SkewedHash"),
   @Type(value = RoundRobinDistributeFunction.class, name = "RoundRobin"),
   @Type(value = IdentityDistributeFunction.class, name = "Identity")
 })
@@ -70,6 +73,72 @@ public abstract class DistributeFunction implements Serializable {
     return result;
   }
 
+  /**
+   * Distribute a tuple batch by copying each tuple into the buffer of its partition, if the partition function computes
+   * one partition per tuple. This avoids building one filtered view of the whole batch for every partition, whose every
+   * value is then read through an indirection. Otherwise the batch is distributed by {@link #distribute(TupleBatch)}.
+   *
+   * The buffers are emptied before returning, so no tuple is held back waiting for later batches.
+   *
+   * @param data the input data
+   * @param partitionBuffers one empty buffer per partition, of the schema of the input data
+   * @return a list of tuple batch lists, each represents output data of one destination.
+   */
+  public List<List<TupleBatch>> distribute(
+      @Nonnull final TupleBatch data, @Nonnull final TupleBatchBuffer[] partitionBuffers) {
+    final int[] partitionIds = data.isEOI() ? null : partitionFunction.partitionIds(data);
+    if (partitionIds == null) {
+      return distribute(data);
+    }
+    final int numPartitions = partitionBuffers.length;
+    /* Counting sort of the rows by partition; start[p] is the first index of the rows of partition p. */
+    final int[] start = new int[numPartitions + 1];
+    for (int p : partitionIds) {
+      start[p + 1]++;
+    }
+    for (int p = 0; p < numPartitions; ++p) {
+      start[p + 1] += start[p];
+    }
+    final int[] next = Arrays.copyOf(start, numPartitions);
+    final int[] rows = new int[partitionIds.length];
+    for (int row = 0; row < partitionIds.length; ++row) {
+      rows[next[partitionIds[row]]++] = row;
+    }
+
+    List<List<TupleBatch>> result = new ArrayList<List<TupleBatch>>();
+    for (int i = 0; i < getNumDestinations(); ++i) {
+      result.add(new ArrayList<TupleBatch>());
+    }
+    for (int p = 0; p < numPartitions; ++p) {
+      if (start[p + 1] == start[p]) {
+        continue;
+      }
+      final TupleBatchBuffer buffer = partitionBuffers[p];
+      buffer.appendRows(data, rows, start[p], start[p + 1] - start[p]);
+      for (TupleBatch tb = buffer.popAny(); tb != null; tb = buffer.popAny()) {
+        for (int channelIdx : partitionToDestination.get(p)) {
+          result.get(channelIdx).add(tb);
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * @return true if {@link #distribute(TupleBatch, TupleBatchBuffer[])} copies the tuples of each batch other than an
+   *         EOI into new batches that only the caller references
+   */
+  public boolean copiesTuples() {
+    return partitionFunction.hasPartitionIds();
+  }
+
+  /**
+   * @return the number of partitions
+   */
+  public int getNumPartitions() {
+    return partitionFunction.numPartitions();
+  }
+
   /**
    * @return number of destinations
    */
@@ -1,7 +1,5 @@
 package edu.washington.escience.myria.operator.network.distribute;
 
-import java.util.BitSet;
-
 import javax.annotation.Nonnull;
 
 import com.google.common.base.Preconditions;
@@ -59,18 +57,21 @@ public final class HashPartitionFunction extends PartitionFunction {
 
   @Override
   public TupleBatch[] partition(@Nonnull final TupleBatch tb) {
-    BitSet[] partitions = new BitSet[numPartitions()];
-    for (int i = 0; i < partitions.length; ++i) {
-      partitions[i] = new BitSet();
-    }
-    for (int i = 0; i < tb.numTuples(); i++) {
-      int p = Math.floorMod(HashUtils.hashSubRow(tb, indexes, i, seedIndex), numPartitions());
-      partitions[p].set(i);
-    }
-    TupleBatch[] tbs = new TupleBatch[numPartitions()];
-    for (int i = 0; i < tbs.length; ++i) {
-      tbs[i] = tb.filter(partitions[i]);
+    return filterPartitions(tb, partitionIds(tb));
+  }
+
+  @Override
+  public boolean hasPartitionIds() {
+    return true;
+  }
+
+  @Override
+  public int[] partitionIds(@Nonnull final TupleBatch tb) {
+    final int[] ids = new int[tb.numTuples()];
+    HashUtils.hashSubRows(tb, indexes, seedIndex, ids);
+    for (int i = 0; i < ids.length; i++) {
+      ids[i] = Math.floorMod(ids[i], numPartitions());
     }
-    return tbs;
+    return ids;
   }
 }
@@ -1,7 +1,5 @@
 package edu.washington.escience.myria.operator.network.distribute;
 
-import java.util.BitSet;
-
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import edu.washington.escience.myria.storage.TupleBatch;
@@ -34,27 +32,31 @@ public final class HyperCubePartitionFunction extends PartitionFunction {
 
   @Override
   public TupleBatch[] partition(final TupleBatch tb) {
-    BitSet[] partitions = new BitSet[numPartitions()];
-    for (int i = 0; i < partitions.length; ++i) {
-      partitions[i] = new BitSet();
+    return filterPartitions(tb, partitionIds(tb));
+  }
+
+  @Override
+  public boolean hasPartitionIds() {
+    return true;
+  }
+
+  @Override
+  public int[] partitionIds(final TupleBatch tb) {
+    final int[] ids = new int[tb.numTuples()];
+    final int[][] hashes = new int[hashedColumns.length][tb.numTuples()];
+    for (int j = 0; j < hashedColumns.length; j++) {
+      HashUtils.hashSubRows(tb, new int[] {hashedColumns[j]}, mappedHCDimensions[j], hashes[j]);
     }
     for (int i = 0; i < tb.numTuples(); i++) {
       int p = 0;
       for (int j = 0; j < hashedColumns.length; j++) {
-        p +=
-            Math.floorMod(
-                HashUtils.hashSubRow(tb, new int[] {hashedColumns[j]}, i, mappedHCDimensions[j]),
-                hyperCubeDimensions[mappedHCDimensions[j]]);
+        p += Math.floorMod(hashes[j][i], hyperCubeDimensions[mappedHCDimensions[j]]);
         if (p != hashedColumns.length - 1) {
           p *= hyperCubeDimensions[mappedHCDimensions[j]];
         }
       }
-      partitions[p].set(i);
-    }
-    TupleBatch[] tbs = new TupleBatch[numPartitions()];
-    for (int i = 0; i < tbs.length; ++i) {
-      tbs[i] = tb.filter(partitions[i]);
+      ids[i] = p;
     }
-    return tbs;
+    return ids;
   }
 }
@@ -1,7 +1,5 @@
 package edu.washington.escience.myria.operator.network.distribute;
 
-import java.util.BitSet;
-
 import javax.annotation.Nonnull;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
@@ -28,17 +26,20 @@ public final class IdentityPartitionFunction extends PartitionFunction {
 
   @Override
   public TupleBatch[] partition(@Nonnull final TupleBatch tb) {
-    BitSet[] partitions = new BitSet[numPartitions()];
-    for (int i = 0; i < partitions.length; ++i) {
-      partitions[i] = new BitSet();
-    }
-    for (int i = 0; i < tb.numTuples(); i++) {
-      partitions[tb.getInt(index, i) - 1].set(i);
-    }
-    TupleBatch[] tbs = new TupleBatch[numPartitions()];
-    for (int i = 0; i < tbs.length; ++i) {
-      tbs[i] = tb.filter(partitions[i]);
+    return filterPartitions(tb, partitionIds(tb));
+  }
+
+  @Override
+  public boolean hasPartitionIds() {
+    return true;
+  }
+
+  @Override
+  public int[] partitionIds(@Nonnull final TupleBatch tb) {
+    final int[] ids = new int[tb.numTuples()];
+    for (int i = 0; i < ids.length; i++) {
+      ids[i] = tb.getInt(index, i) - 1;
     }
-    return tbs;
+    return ids;
   }
 }
@@ -1,6 +1,7 @@
 package edu.washington.escience.myria.operator.network.distribute;
 
 import java.io.Serializable;
+import java.util.BitSet;
 
 import javax.annotation.Nonnull;
 
@@ -42,6 +43,44 @@ public abstract class PartitionFunction implements Serializable {
    * @return an array of partitions. */
   public abstract TupleBatch[] partition(@Nonnull final TupleBatch data);
 
+  /** Compute the partition of each tuple. Partition functions that put every tuple in exactly one partition override
+   * this, so that a producer can copy the tuples straight into the buffers of their partitions instead of filtering
+   * the whole batch once per partition.
+   *
+   * @param data the data to be partitioned.
+   * @return the partition of each tuple, or null if this function does not compute one partition per tuple. */
+  public int[] partitionIds(@Nonnull final TupleBatch data) {
+    return null;
+  }
+
+  /**
+   * @return true if {@link #partitionIds(TupleBatch)} computes the partition of each tuple instead of returning null
+   */
+  public boolean hasPartitionIds() {
+    return false;
+  }
+
+  /** Split a tuple batch by the partitions of its tuples.
+   *
+   * @param data the data to be partitioned.
+   * @param partitionIds the partition of each tuple, as computed by {@link #partitionIds(TupleBatch)}.
+   * @return an array of partitions. */
+  protected final TupleBatch[] filterPartitions(
+      @Nonnull final TupleBatch data, @Nonnull final int[] partitionIds) {
+    BitSet[] partitions = new BitSet[numPartitions()];
+    for (int i = 0; i < partitions.length; ++i) {
+      partitions[i] = new BitSet();
+    }
+    for (int i = 0; i < partitionIds.length; ++i) {
+      partitions[partitionIds[i]].set(i);
+    }
+    TupleBatch[] tbs = new TupleBatch[numPartitions()];
+    for (int i = 0; i < tbs.length; ++i) {
+      tbs[i] = data.filter(partitions[i]);
+    }
+    return tbs;
+  }
+
   /** @param numPartitions the number of partitions. */
   public final void setNumPartitions(final int numPartitions) {
     Preconditions.checkArgument(numPartitions > 0, "numPartitions must be > 0");
@@ -1,7 +1,5 @@
 package edu.washington.escience.myria.operator.network.distribute;
 
-import java.util.BitSet;
-
 import javax.annotation.Nonnull;
 
 import edu.washington.escience.myria.storage.TupleBatch;
@@ -18,18 +16,16 @@ public final class RoundRobinPartitionFunction extends PartitionFunction {
 
   @Override
   public TupleBatch[] partition(@Nonnull final TupleBatch tb) {
-    BitSet[] partitions = new BitSet[numPartitions()];
-    for (int i = 0; i < partitions.length; ++i) {
-      partitions[i] = new BitSet();
-    }
-    for (int i = 0; i < tb.numTuples(); i++) {
-      partitions[curPartition].set(i);
+    return filterPartitions(tb, partitionIds(tb));
+  }
+
+  @Override
+  public int[] partitionIds(@Nonnull final TupleBatch tb) {
+    final int[] ids = new int[tb.numTuples()];
+    for (int i = 0; i < ids.length; i++) {
+      ids[i] = curPartition;
       curPartition = (curPartition + 1) % numPartitions();
     }
-    TupleBatch[] tbs = new TupleBatch[numPartitions()];
-    for (int i = 0; i < tbs.length; ++i) {
-      tbs[i] = tb.filter(partitions[i]);
-    }
-    return tbs;
+    return ids;
   }
 }
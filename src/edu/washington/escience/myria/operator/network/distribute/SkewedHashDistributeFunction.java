@@ -0,0 +1,90 @@
+package edu.washington.escience.myria.operator.network.distribute;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+
+import edu.washington.escience.myria.util.MyriaArrayUtils;
+
+/**
+ * Hash distribute function that does not send all the tuples of a few heavy-hitter keys to a single worker.
+ *
+ * The heavy hitters are given by the plan, e.g., the most frequent keys of a sample drawn with
+ * {@link edu.washington.escience.myria.operator.SamplingDistribution} and
+ * {@link edu.washington.escience.myria.operator.Sample}. The other tuples go to the same workers as with a
+ * {@link HashDistributeFunction} on the same indexes. To join two relations on a key with heavy hitters, distribute
+ * the larger side with {@link HeavyHitterPolicy#SPREAD} and the other side with {@link HeavyHitterPolicy#BROADCAST},
+ * using the same heavy hitters.
+ */
+public final class SkewedHashDistributeFunction extends DistributeFunction {
+
+  /** Required for Java serialization. */
+  private static final long serialVersionUID = 1L;
+
+  /** Where the tuples of the heavy hitters go. */
+  public enum HeavyHitterPolicy {
+    /** To the workers in turn. */
+    SPREAD,
+    /** To every worker. */
+    BROADCAST
+  }
+
+  /** The indices used for partitioning. */
+  @JsonProperty private final int[] indexes;
+  /** The keys of the heavy hitters, each a list of one value per index. */
+  @JsonProperty private final List<List<Object>> heavyHitters;
+  /** Where the tuples of the heavy hitters go. */
+  @JsonProperty private final HeavyHitterPolicy heavyHitterPolicy;
+
+  /**
+   * @param indexes the indices used for partitioning.
+   * @param heavyHitters the keys of the heavy hitters, each a list of one value per index.
+   * @param heavyHitterPolicy where the tuples of the heavy hitters go, {@link HeavyHitterPolicy#SPREAD} if null.
+   */
+  @JsonCreator
+  public SkewedHashDistributeFunction(
+      @JsonProperty(value = "indexes", required = true) final int[] indexes,
+      @JsonProperty(value = "heavyHitters", required = true) final List<List<Object>> heavyHitters,
+      @JsonProperty("heavyHitterPolicy") final HeavyHitterPolicy heavyHitterPolicy) {
+    super(
+        new SkewedHashPartitionFunction(
+            indexes,
+            Preconditions.checkNotNull(heavyHitters, "heavyHitters"),
+            heavyHitterPolicy == HeavyHitterPolicy.BROADCAST));
+    this.indexes = indexes;
+    this.heavyHitters = new ArrayList<List<Object>>(heavyHitters);
+    this.heavyHitterPolicy = MoreObjects.firstNonNull(heavyHitterPolicy, HeavyHitterPolicy.SPREAD);
+  }
+
+  @Override
+  public void setDestinations(final int numWorker, final int numOperatorId) {
+    partitionToDestination = MyriaArrayUtils.create2DVerticalIndexList(numWorker);
+    partitionToDestination.add(MyriaArrayUtils.create2DHorizontalIndexList(numWorker).get(0));
+    partitionFunction.setNumPartitions(numWorker + 1);
+  }
+
+  /**
+   * @return indexes
+   */
+  public int[] getIndexes() {
+    return indexes;
+  }
+
+  /**
+   * @return the keys of the heavy hitters.
+   */
+  public List<List<Object>> getHeavyHitters() {
+    return heavyHitters;
+  }
+
+  /**
+   * @return where the tuples of the heavy hitters go.
+   */
+  public HeavyHitterPolicy getHeavyHitterPolicy() {
+    return heavyHitterPolicy;
+  }
+}
@@ -0,0 +1,161 @@
+package edu.washington.escience.myria.operator.network.distribute;
+
+import java.util.Arrays;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+
+import org.joda.time.DateTime;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+
+import edu.washington.escience.myria.Schema;
+import edu.washington.escience.myria.Type;
+import edu.washington.escience.myria.column.Column;
+import edu.washington.escience.myria.column.builder.ColumnBuilder;
+import edu.washington.escience.myria.column.builder.ColumnFactory;
+import edu.washington.escience.myria.storage.TupleBatch;
+import edu.washington.escience.myria.util.HashUtils;
+import edu.washington.escience.myria.util.MyriaArrayUtils;
+
+/**
+ * Partitions tuples by the hash code of a group of fields, like {@link HashPartitionFunction}, except for the tuples of
+ * a few heavy-hitter keys. Those are either sent to the partitions in turn, or all put in an extra last partition that
+ * is meant to be sent to every destination.
+ *
+ * Tuples are recognized as heavy hitters by the hash code of their key, so a key with the same hash code as a heavy
+ * hitter is treated as one. Since every producer decides the same way, this only moves more tuples than necessary.
+ */
+public final class SkewedHashPartitionFunction extends PartitionFunction {
+
+  /** Required for Java serialization. */
+  private static final long serialVersionUID = 1L;
+
+  /** The indices used for partitioning. */
+  private final int[] indexes;
+  /** The keys of the heavy hitters, each a list of one value per index. */
+  private final ImmutableList<ImmutableList<Object>> heavyHitters;
+  /** Whether to put the heavy hitters in the last partition rather than in the partitions in turn. */
+  private final boolean broadcastHeavyHitters;
+  /** The sorted hash codes of the heavy hitters, computed from the schema of the first partitioned batch. */
+  private transient int[] heavyHitterHashes;
+  /** The partition of the next heavy-hitter tuple, if they are sent in turn. */
+  private int curPartition = 0;
+
+  /**
+   * @param indexes the indices used for partitioning.
+   * @param heavyHitters the keys of the heavy hitters, each a list of one value per index.
+   * @param broadcastHeavyHitters whether to put the heavy hitters in the last partition rather than in the other
+   *        partitions in turn.
+   */
+  public SkewedHashPartitionFunction(
+      final int[] indexes,
+      final List<? extends List<?>> heavyHitters,
+      final boolean broadcastHeavyHitters) {
+    Preconditions.checkArgument(
+        indexes.length > 0, "SkewedHashPartitionFunction requires at least 1 field to hash");
+    MyriaArrayUtils.checkSet(indexes);
+    final ImmutableList.Builder<ImmutableList<Object>> keys = ImmutableList.builder();
+    for (List<?> key : heavyHitters) {
+      Preconditions.checkArgument(
+          key.size() == indexes.length,
+          "heavy hitter %s does not have one value for each of the %s fields",
+          key,
+          indexes.length);
+      keys.add(ImmutableList.<Object>copyOf(key));
+    }
+    this.indexes = indexes;
+    this.heavyHitters = keys.build();
+    this.broadcastHeavyHitters = broadcastHeavyHitters;
+  }
+
+  /** @return the number of partitions other than the heavy-hitter partition. */
+  private int numHashPartitions() {
+    return numPartitions() - 1;
+  }
+
+  /**
+   * @param schema the schema of the partitioned tuples.
+   * @return the sorted hash codes of the heavy hitters, as hashed by {@link HashPartitionFunction}.
+   */
+  private int[] hashHeavyHitters(final Schema schema) {
+    final Schema keySchema = schema.getSubSchema(indexes);
+    final List<ColumnBuilder<?>> builders = ColumnFactory.allocateColumns(keySchema);
+    for (List<Object> key : heavyHitters) {
+      for (int i = 0; i < indexes.length; ++i) {
+        append(builders.get(i), keySchema.getColumnType(i), key.get(i).toString());
+      }
+    }
+    final ImmutableList.Builder<Column<?>> columns = ImmutableList.builder();
+    for (ColumnBuilder<?> builder : builders) {
+      columns.add(builder.build());
+    }
+    final TupleBatch keys = new TupleBatch(keySchema, columns.build());
+    final int[] hashes = new int[keys.numTuples()];
+    HashUtils.hashSubRows(keys, MyriaArrayUtils.range(0, indexes.length), 0, hashes);
+    Arrays.sort(hashes);
+    return hashes;
+  }
+
+  /**
+   * Append a heavy-hitter key value to a column of keys.
+   *
+   * @param builder the column of keys.
+   * @param type the type of the column.
+   * @param value the value, as a string.
+   */
+  private static void append(final ColumnBuilder<?> builder, final Type type, final String value) {
+    switch (type) {
+      case BOOLEAN_TYPE:
+        builder.appendBoolean(Boolean.parseBoolean(value));
+        break;
+      case DATETIME_TYPE:
+        builder.appendDateTime(DateTime.parse(value));
+        break;
+      case DOUBLE_TYPE:
+        builder.appendDouble(Double.parseDouble(value));
+        break;
+      case FLOAT_TYPE:
+        builder.appendFloat(Float.parseFloat(value));
+        break;
+      case INT_TYPE:
+        builder.appendInt(Integer.parseInt(value));
+        break;
+      case LONG_TYPE:
+        builder.appendLong(Long.parseLong(value));
+        break;
+      case STRING_TYPE:
+        builder.appendString(value);
+        break;
+      default:
+        throw new IllegalArgumentException("Cannot partition on a key of type " + type);
+    }
+  }
+
+  @Override
+  public TupleBatch[] partition(@Nonnull final TupleBatch tb) {
+    return filterPartitions(tb, partitionIds(tb));
+  }
+
+  @Override
+  public int[] partitionIds(@Nonnull final TupleBatch tb) {
+    if (heavyHitterHashes == null) {
+      heavyHitterHashes = hashHeavyHitters(tb.getSchema());
+    }
+    final int numHashPartitions = numHashPartitions();
+    final int[] ids = new int[tb.numTuples()];
+    HashUtils.hashSubRows(tb, indexes, 0, ids);
+    for (int i = 0; i < ids.length; i++) {
+      if (Arrays.binarySearch(heavyHitterHashes, ids[i]) < 0) {
+        ids[i] = Math.floorMod(ids[i], numHashPartitions);
+      } else if (broadcastHeavyHitters) {
+        ids[i] = numHashPartitions;
+      } else {
+        ids[i] = curPartition;
+        curPartition = (curPartition + 1) % numHashPartitions;
+      }
+    }
+    return ids;
+  }
+}
@@ -6,11 +6,14 @@ import org.jboss.netty.channel.ChannelPipeline;
 import org.jboss.netty.channel.ChannelPipelineFactory;
 import org.jboss.netty.channel.Channels;
 import org.jboss.netty.handler.codec.protobuf.ProtobufVarint32FrameDecoder;
-import org.jboss.netty.handler.codec.protobuf.ProtobufVarint32LengthFieldPrepender;
 import org.jboss.netty.handler.execution.ExecutionHandler;
 
+import edu.washington.escience.myria.parallel.ipc.CompressionHandler;
+import edu.washington.escience.myria.parallel.ipc.GatheringFrameEncoder;
+import edu.washington.escience.myria.parallel.ipc.IPCCompression;
 import edu.washington.escience.myria.parallel.ipc.IPCConnectionPool;
 import edu.washington.escience.myria.parallel.ipc.IPCMessageHandler;
+import edu.washington.escience.myria.parallel.ipc.SharedMemoryHandler;
 
 /**
  * Factories of pipelines.
@@ -69,13 +72,36 @@ public final class IPCPipelineFactories {
      * */
     private final ExecutionHandler pipelineExecutionHandler;
 
+    /**
+     * The compression codec of data messages.
+     * */
+    private final IPCCompression compression;
+
+    /**
+     * The owner IPCConnectionPool.
+     * */
+    private final IPCConnectionPool pool;
+
+    /**
+     * The bytes of the shared-memory ring of a channel to a co-located peer.
+     * */
+    private final int sharedMemoryRingBytes;
+
     /**
      * @param pool the owner IPCConnectionPool
      * @param pipelineExecutor possible pipeline executor, null is allowed.
+     * @param compression the compression codec of data messages.
+     * @param sharedMemoryRingBytes the bytes of the shared-memory ring of a channel to a co-located peer, 0 to disable.
      * */
     MasterClientPipelineFactory(
-        final IPCConnectionPool pool, final ExecutorService pipelineExecutor) {
+        final IPCConnectionPool pool,
+        final ExecutorService pipelineExecutor,
+        final IPCCompression compression,
+        final int sharedMemoryRingBytes) {
       ipcMessageHandler = new IPCMessageHandler(pool);
+      this.pool = pool;
+      this.compression = compression;
+      this.sharedMemoryRingBytes = sharedMemoryRingBytes;
       if (pipelineExecutor != null) {
         pipelineExecutionHandler = new ExecutionHandler(pipelineExecutor);
       } else {
@@ -88,6 +114,10 @@ public final class IPCPipelineFactories {
       final ChannelPipeline p = Channels.pipeline();
       p.addLast("frameDecoder", new ProtobufVarint32FrameDecoder()); // upstream 2
       p.addLast("frameEncoder", FRAME_ENCODER); // downstream 2
+      p.addLast(
+          "sharedMemory",
+          new SharedMemoryHandler(pool, sharedMemoryRingBytes)); // upstream 3, downstream 1
+      p.addLast("compression", new CompressionHandler(compression)); // upstream 4, downstream 0
 
       if (pipelineExecutionHandler != null) {
         p.addLast("executor", pipelineExecutionHandler);
@@ -104,10 +134,15 @@ public final class IPCPipelineFactories {
     /**
      * @param pool the owner IPCConnectionPool
      * @param pipelineExecutor possible pipeline executor, null is allowed.
+     * @param compression the compression codec of data messages.
+     * @param sharedMemoryRingBytes the bytes of the shared-memory ring of a channel to a co-located peer, 0 to disable.
      * */
     MasterServerPipelineFactory(
-        final IPCConnectionPool pool, final ExecutorService pipelineExecutor) {
-      super(pool, pipelineExecutor);
+        final IPCConnectionPool pool,
+        final ExecutorService pipelineExecutor,
+        final IPCCompression compression,
+        final int sharedMemoryRingBytes) {
+      super(pool, pipelineExecutor, compression, sharedMemoryRingBytes);
     }
   }
 
@@ -119,10 +154,15 @@ public final class IPCPipelineFactories {
     /**
      * @param pool the owner IPCConnectionPool
      * @param pipelineExecutor possible pipeline executor, null is allowed.
+     * @param compression the compression codec of data messages.
+     * @param sharedMemoryRingBytes the bytes of the shared-memory ring of a channel to a co-located peer, 0 to disable.
      * */
     WorkerClientPipelineFactory(
-        final IPCConnectionPool pool, final ExecutorService pipelineExecutor) {
-      super(pool, pipelineExecutor);
+        final IPCConnectionPool pool,
+        final ExecutorService pipelineExecutor,
+        final IPCCompression compression,
+        final int sharedMemoryRingBytes) {
+      super(pool, pipelineExecutor, compression, sharedMemoryRingBytes);
     }
   }
 
@@ -134,18 +174,22 @@ public final class IPCPipelineFactories {
     /**
      * @param pool the owner IPCConnectionPool
      * @param pipelineExecutor possible pipeline executor, null is allowed.
+     * @param compression the compression codec of data messages.
+     * @param sharedMemoryRingBytes the bytes of the shared-memory ring of a channel to a co-located peer, 0 to disable.
      * */
     WorkerServerPipelineFactory(
-        final IPCConnectionPool pool, final ExecutorService pipelineExecutor) {
-      super(pool, pipelineExecutor);
+        final IPCConnectionPool pool,
+        final ExecutorService pipelineExecutor,
+        final IPCCompression compression,
+        final int sharedMemoryRingBytes) {
+      super(pool, pipelineExecutor, compression, sharedMemoryRingBytes);
     }
   }
 
   /**
    * separate data streams to data frames.
    * */
-  static final ProtobufVarint32LengthFieldPrepender FRAME_ENCODER =
-      new ProtobufVarint32LengthFieldPrepender();
+  static final GatheringFrameEncoder FRAME_ENCODER = new GatheringFrameEncoder();
 
   /**
    * Utility class.
@@ -15,17 +15,23 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import javax.annotation.Nullable;
+
 import com.google.common.base.Preconditions;
+import com.google.common.cache.CacheStats;
 import com.google.common.collect.ImmutableMap;
 
 import edu.washington.escience.myria.DbException;
 import edu.washington.escience.myria.MyriaConstants;
 import edu.washington.escience.myria.MyriaConstants.ProfilingMode;
+import edu.washington.escience.myria.expression.evaluate.EvaluatorCache;
 import edu.washington.escience.myria.operator.IDBController;
 import edu.washington.escience.myria.operator.LeapFrogJoin;
 import edu.washington.escience.myria.operator.Operator;
+import edu.washington.escience.myria.operator.RightHashJoin;
 import edu.washington.escience.myria.operator.RootOperator;
 import edu.washington.escience.myria.operator.SymmetricHashJoin;
+import edu.washington.escience.myria.operator.network.BatchSizeHistogram;
 import edu.washington.escience.myria.operator.network.Consumer;
 import edu.washington.escience.myria.operator.network.Producer;
 import edu.washington.escience.myria.parallel.ipc.IPCConnectionPool;
@@ -822,6 +828,41 @@ public final class LocalFragment {
             subQueryId.getSubqueryId()));
   }
 
+  /**
+   * Add a report for each non-empty bucket of a batch size histogram, named after the smallest batch size of the
+   * bucket, e.g., <code>numBatchesReceived.64</code> for the batches of 64 to 127 tuples.
+   *
+   * @param stats the stats to be added into
+   * @param timestamp the timestamp of the collecting event
+   * @param op the operator
+   * @param measurement the prefix of the measurements
+   * @param histogram the histogram, may be null
+   * @param subQueryId the subquery ID
+   */
+  private void addBatchSizeReports(
+      final List<ResourceStats> stats,
+      final long timestamp,
+      final Operator op,
+      final String measurement,
+      @Nullable final BatchSizeHistogram histogram,
+      final SubQueryId subQueryId) {
+    if (histogram == null) {
+      return;
+    }
+    for (int b = 0; b < BatchSizeHistogram.NUM_BUCKETS; ++b) {
+      final long count = histogram.getCount(b);
+      if (count > 0) {
+        addResourceReport(
+            stats,
+            timestamp,
+            op,
+            measurement + "." + BatchSizeHistogram.lowerBound(b),
+            count,
+            subQueryId);
+      }
+    }
+  }
+
   /**
    *
    * @param stats the stats
@@ -849,22 +890,74 @@ public final class LocalFragment {
           "numTuplesInBuffers",
           ((Producer) op).getNumTuplesInBuffers(),
           subQueryId);
-    } else if (op instanceof IDBController) {
+      addResourceReport(
+          stats, timestamp, op, "numBytesRaw", ((Producer) op).getNumBytesRaw(), subQueryId);
       addResourceReport(
           stats,
           timestamp,
           op,
-          "numTuplesInState",
-          ((IDBController) op).getStreamingState().numTuples(),
+          "numBytesCompressed",
+          ((Producer) op).getNumBytesCompressed(),
           subQueryId);
-    } else if (op instanceof SymmetricHashJoin) {
+    } else if (op instanceof Consumer) {
+      addBatchSizeReports(
+          stats,
+          timestamp,
+          op,
+          "numBatchesReceived",
+          ((Consumer) op).getReceivedBatchSizes(),
+          subQueryId);
+      addBatchSizeReports(
+          stats,
+          timestamp,
+          op,
+          "numBatchesReturned",
+          ((Consumer) op).getReturnedBatchSizes(),
+          subQueryId);
+    } else if (op instanceof IDBController) {
       addResourceReport(
           stats,
           timestamp,
           op,
-          "hashTableSize",
-          ((SymmetricHashJoin) op).getNumTuplesInHashTables(),
+          "numTuplesInState",
+          ((IDBController) op).getStreamingState().numTuples(),
           subQueryId);
+    } else if (op instanceof SymmetricHashJoin) {
+      SymmetricHashJoin join = (SymmetricHashJoin) op;
+      addResourceReport(
+          stats, timestamp, op, "hashTableSize", join.getNumTuplesInHashTables(), subQueryId);
+      if (join.getMemoryBudget() > 0) {
+        addResourceReport(stats, timestamp, op, "memoryBudget", join.getMemoryBudget(), subQueryId);
+        addResourceReport(
+            stats,
+            timestamp,
+            op,
+            "numSpilledPartitions",
+            join.getNumSpilledPartitions(),
+            subQueryId);
+        addResourceReport(
+            stats, timestamp, op, "numTuplesSpilled", join.getNumTuplesSpilled(), subQueryId);
+        addResourceReport(
+            stats, timestamp, op, "numBytesSpilled", join.getNumBytesSpilled(), subQueryId);
+      }
+    } else if (op instanceof RightHashJoin) {
+      RightHashJoin join = (RightHashJoin) op;
+      addResourceReport(
+          stats, timestamp, op, "hashTableSize", join.getNumTuplesInHashTables(), subQueryId);
+      if (join.getMemoryBudget() > 0) {
+        addResourceReport(stats, timestamp, op, "memoryBudget", join.getMemoryBudget(), subQueryId);
+        addResourceReport(
+            stats,
+            timestamp,
+            op,
+            "numSpilledPartitions",
+            join.getNumSpilledPartitions(),
+            subQueryId);
+        addResourceReport(
+            stats, timestamp, op, "numTuplesSpilled", join.getNumTuplesSpilled(), subQueryId);
+        addResourceReport(
+            stats, timestamp, op, "numBytesSpilled", join.getNumBytesSpilled(), subQueryId);
+      }
     } else if (op instanceof LeapFrogJoin) {
       addResourceReport(
           stats,
@@ -905,6 +998,22 @@ public final class LocalFragment {
     long timestamp = System.currentTimeMillis();
     SubQueryId subQueryId = subQuery.getSubQueryId();
     addResourceReport(resourceUsage, timestamp, root, "cpuTotal", cntCpu, subQueryId);
+    /* The evaluator cache is shared by the whole process, so these count since the worker started. */
+    CacheStats evaluatorCacheStats = EvaluatorCache.stats();
+    addResourceReport(
+        resourceUsage,
+        timestamp,
+        root,
+        "evaluatorCacheHits",
+        evaluatorCacheStats.hitCount(),
+        subQueryId);
+    addResourceReport(
+        resourceUsage,
+        timestamp,
+        root,
+        "evaluatorCacheMisses",
+        evaluatorCacheStats.missCount(),
+        subQueryId);
 
     collectOperatorResourceMeasurements(resourceUsage, timestamp, root, subQueryId);
 
@@ -4,6 +4,7 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 import com.google.common.base.Verify;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
 
 import edu.washington.escience.myria.operator.network.Consumer;
@@ -11,6 +12,8 @@ import edu.washington.escience.myria.parallel.ipc.FlowControlBagInputBuffer;
 import edu.washington.escience.myria.parallel.ipc.IPCConnectionPool;
 import edu.washington.escience.myria.parallel.ipc.IPCEvent;
 import edu.washington.escience.myria.parallel.ipc.IPCEventListener;
+import edu.washington.escience.myria.parallel.ipc.RingBagInputBuffer;
+import edu.washington.escience.myria.parallel.ipc.StreamIOChannelID;
 import edu.washington.escience.myria.parallel.ipc.StreamInputBuffer;
 import edu.washington.escience.myria.parallel.ipc.StreamOutputChannel;
 import edu.washington.escience.myria.storage.TupleBatch;
@@ -119,12 +122,26 @@ public final class LocalFragmentResourceManager {
       return inputBuffer;
     }
 
-    inputBuffer =
-        new FlowControlBagInputBuffer<TupleBatch>(
-            ipcPool,
-            consumer.getInputChannelIDs(ipcPool.getMyIPCID()),
-            ipcPool.getInputBufferCapacity(),
-            ipcPool.getInputBufferRecoverTrigger());
+    final ImmutableSet<StreamIOChannelID> sources =
+        consumer.getInputChannelIDs(ipcPool.getMyIPCID());
+    final int credits = ipcPool.getChannelCredits();
+    if (credits > 0 && allLocal(sources)) {
+      /* The local producers stop by their credits, so a ring for all of them rarely overflows. */
+      inputBuffer =
+          new RingBagInputBuffer<TupleBatch>(
+              ipcPool,
+              sources,
+              Math.max(ipcPool.getInputBufferCapacity(), sources.size() * (credits + 1)),
+              credits);
+    } else {
+      inputBuffer =
+          new FlowControlBagInputBuffer<TupleBatch>(
+              ipcPool,
+              sources,
+              ipcPool.getInputBufferCapacity(),
+              ipcPool.getInputBufferRecoverTrigger(),
+              credits);
+    }
     inputBuffer.addListener(
         FlowControlBagInputBuffer.NEW_INPUT_DATA,
         new IPCEventListener() {
@@ -141,6 +158,19 @@ public final class LocalFragmentResourceManager {
     return inputBuffer;
   }
 
+  /**
+   * @param sources the input channels of a consumer.
+   * @return if all the input channels come from this worker.
+   * */
+  private boolean allLocal(final Set<StreamIOChannelID> sources) {
+    for (StreamIOChannelID id : sources) {
+      if (id.getRemoteID() != ipcPool.getMyIPCID()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   /**
    * Remove an output channel from outputChannels. Need it when a recovery task is finished and needs to detach & attach
    * its channel to the original producer. In this case, the channel shouldn't be released when the cleanup() method of
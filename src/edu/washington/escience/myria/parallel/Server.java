@@ -90,6 +90,7 @@ import edu.washington.escience.myria.expression.Expression;
 import edu.washington.escience.myria.expression.MinusExpression;
 import edu.washington.escience.myria.expression.VariableExpression;
 import edu.washington.escience.myria.expression.WorkerIdExpression;
+import edu.washington.escience.myria.expression.evaluate.EvaluatorCache;
 import edu.washington.escience.myria.io.AmazonS3Source;
 import edu.washington.escience.myria.io.ByteSink;
 import edu.washington.escience.myria.io.DataSink;
@@ -119,6 +120,7 @@ import edu.washington.escience.myria.operator.network.GenericShuffleProducer;
 import edu.washington.escience.myria.operator.network.distribute.BroadcastDistributeFunction;
 import edu.washington.escience.myria.operator.network.distribute.DistributeFunction;
 import edu.washington.escience.myria.operator.network.distribute.HowDistributed;
+import edu.washington.escience.myria.parallel.ipc.IPCCompression;
 import edu.washington.escience.myria.parallel.ipc.IPCConnectionPool;
 import edu.washington.escience.myria.parallel.ipc.IPCMessage;
 import edu.washington.escience.myria.parallel.ipc.InJVMLoopbackChannelSink;
@@ -128,14 +130,24 @@ import edu.washington.escience.myria.proto.ControlProto.ControlMessage;
 import edu.washington.escience.myria.proto.QueryProto.QueryMessage;
 import edu.washington.escience.myria.proto.QueryProto.QueryReport;
 import edu.washington.escience.myria.proto.TransportProto.TransportMessage;
+import edu.washington.escience.myria.storage.BatchSizePolicy;
 import edu.washington.escience.myria.storage.TupleBatch;
 import edu.washington.escience.myria.storage.TupleBatchBuffer;
 import edu.washington.escience.myria.storage.TupleBuffer;
+import edu.washington.escience.myria.storage.TupleUtils;
 import edu.washington.escience.myria.tools.MyriaGlobalConfigurationModule.DefaultInstancePath;
+import edu.washington.escience.myria.tools.MyriaGlobalConfigurationModule.FlowControlChannelCredits;
 import edu.washington.escience.myria.tools.MyriaGlobalConfigurationModule.FlowControlWriteBufferHighMarkBytes;
 import edu.washington.escience.myria.tools.MyriaGlobalConfigurationModule.FlowControlWriteBufferLowMarkBytes;
+import edu.washington.escience.myria.tools.MyriaGlobalConfigurationModule.IpcCompression;
+import edu.washington.escience.myria.tools.MyriaGlobalConfigurationModule.IpcSharedMemoryRingBytes;
 import edu.washington.escience.myria.tools.MyriaGlobalConfigurationModule.MasterHost;
 import edu.washington.escience.myria.tools.MyriaGlobalConfigurationModule.MasterRpcPort;
+import edu.washington.escience.myria.tools.MyriaGlobalConfigurationModule.OperatorBatchMaxTuples;
+import edu.washington.escience.myria.tools.MyriaGlobalConfigurationModule.OperatorBatchTargetBytes;
+import edu.washington.escience.myria.tools.MyriaGlobalConfigurationModule.OperatorConsumerCoalesceDeadlineMs;
+import edu.washington.escience.myria.tools.MyriaGlobalConfigurationModule.OperatorEvaluatorCacheSize;
+import edu.washington.escience.myria.tools.MyriaGlobalConfigurationModule.OperatorHashTableKind;
 import edu.washington.escience.myria.tools.MyriaGlobalConfigurationModule.OperatorInputBufferCapacity;
 import edu.washington.escience.myria.tools.MyriaGlobalConfigurationModule.OperatorInputBufferRecoverTrigger;
 import edu.washington.escience.myria.tools.MyriaGlobalConfigurationModule.PersistUri;
@@ -429,6 +441,12 @@ public final class Server implements TaskMessageSource, EventHandler<DriverMessa
   private final int writeBufferHighWaterMark;
   private final int inputBufferCapacity;
   private final int inputBufferRecoverTrigger;
+  /** The number of data messages a stream may send before its consumer grants more. */
+  private final int channelCredits;
+  /** The compression codec of the data messages sent to workers. */
+  private final IPCCompression ipcCompression;
+  /** The bytes of the shared-memory ring of a channel to a co-located worker. */
+  private final int sharedMemoryRingBytes;
   private final Injector injector;
 
   /**
@@ -443,8 +461,16 @@ public final class Server implements TaskMessageSource, EventHandler<DriverMessa
    * @param receiveBufferSize receive buffer size in bytes for worker IPC
    * @param writeBufferLowWaterMark low watermark for write buffer overflow recovery
    * @param writeBufferHighWaterMark high watermark for write buffer overflow recovery
+   * @param channelCredits number of data messages a stream may send before its consumer grants more
    * @param inputBufferCapacity size of the input buffer in bytes
    * @param inputBufferRecoverTrigger number of bytes in the input buffer to trigger recovery after overflow
+   * @param hashTableKind the kind of hash tables used by hash-based operators
+   * @param evaluatorCacheSize the maximum number of cached compiled expression evaluators
+   * @param coalesceDeadlineMs how long consumers may hold small batches to merge them, negative to not merge them
+   * @param batchTargetBytes the number of bytes a batch aims for, see {@link BatchSizePolicy}
+   * @param batchMaxTuples the maximum number of tuples of a batch
+   * @param ipcCompression the compression codec of IPC data messages, see {@link IPCCompression}
+   * @param sharedMemoryRingBytes the bytes of the shared-memory ring of a channel to a co-located worker, 0 to disable
    * @param persistURI the storage endpoint URI for persisting partitioned relations
    * @param injector a Tang injector for instantiating objects from configuration
    */
@@ -459,8 +485,16 @@ public final class Server implements TaskMessageSource, EventHandler<DriverMessa
       @Parameter(TcpReceiveBufferSizeBytes.class) final int receiveBufferSize,
       @Parameter(FlowControlWriteBufferLowMarkBytes.class) final int writeBufferLowWaterMark,
       @Parameter(FlowControlWriteBufferHighMarkBytes.class) final int writeBufferHighWaterMark,
+      @Parameter(FlowControlChannelCredits.class) final int channelCredits,
       @Parameter(OperatorInputBufferCapacity.class) final int inputBufferCapacity,
       @Parameter(OperatorInputBufferRecoverTrigger.class) final int inputBufferRecoverTrigger,
+      @Parameter(OperatorHashTableKind.class) final String hashTableKind,
+      @Parameter(OperatorEvaluatorCacheSize.class) final int evaluatorCacheSize,
+      @Parameter(OperatorConsumerCoalesceDeadlineMs.class) final int coalesceDeadlineMs,
+      @Parameter(OperatorBatchTargetBytes.class) final int batchTargetBytes,
+      @Parameter(OperatorBatchMaxTuples.class) final int batchMaxTuples,
+      @Parameter(IpcCompression.class) final String ipcCompression,
+      @Parameter(IpcSharedMemoryRingBytes.class) final int sharedMemoryRingBytes,
       @Parameter(PersistUri.class) final String persistURI,
       final Injector injector) {
 
@@ -472,6 +506,9 @@ public final class Server implements TaskMessageSource, EventHandler<DriverMessa
     this.writeBufferHighWaterMark = writeBufferHighWaterMark;
     this.inputBufferCapacity = inputBufferCapacity;
     this.inputBufferRecoverTrigger = inputBufferRecoverTrigger;
+    this.channelCredits = channelCredits;
+    this.ipcCompression = IPCCompression.of(ipcCompression);
+    this.sharedMemoryRingBytes = sharedMemoryRingBytes;
     this.persistURI = persistURI;
     this.injector = injector;
 
@@ -482,6 +519,10 @@ public final class Server implements TaskMessageSource, EventHandler<DriverMessa
     execEnvVars.put(MyriaConstants.EXEC_ENV_VAR_NODE_ID, MyriaConstants.MASTER_ID);
     execEnvVars.put(MyriaConstants.EXEC_ENV_VAR_EXECUTION_MODE, getExecutionMode());
     execEnvVars.put(MyriaConstants.EXEC_ENV_VAR_DATABASE_SYSTEM, databaseSystem);
+    execEnvVars.put(MyriaConstants.EXEC_ENV_VAR_HASH_TABLE_KIND, hashTableKind);
+    execEnvVars.put(MyriaConstants.EXEC_ENV_VAR_CONSUMER_COALESCE_DEADLINE_MS, coalesceDeadlineMs);
+    TupleUtils.setBatchSizePolicy(new BatchSizePolicy(batchTargetBytes, batchMaxTuples));
+    EvaluatorCache.setMaximumSize(evaluatorCacheSize);
 
     aliveWorkers = Sets.newConcurrentHashSet();
     messageQueue = new LinkedBlockingQueue<>();
@@ -617,7 +658,8 @@ public final class Server implements TaskMessageSource, EventHandler<DriverMessa
             new TransportMessageSerializer(),
             new QueueBasedShortMessageProcessor<TransportMessage>(messageQueue),
             inputBufferCapacity,
-            inputBufferRecoverTrigger);
+            inputBufferRecoverTrigger,
+            channelCredits);
 
     scheduledTaskExecutor =
         Executors.newSingleThreadScheduledExecutor(
@@ -657,9 +699,11 @@ public final class Server implements TaskMessageSource, EventHandler<DriverMessa
     // Start server with Nb of active threads = 2*NB CPU + 1 as maximum.
 
     ChannelPipelineFactory serverPipelineFactory =
-        new IPCPipelineFactories.MasterServerPipelineFactory(connectionPool, getPipelineExecutor());
+        new IPCPipelineFactories.MasterServerPipelineFactory(
+            connectionPool, getPipelineExecutor(), ipcCompression, sharedMemoryRingBytes);
     ChannelPipelineFactory clientPipelineFactory =
-        new IPCPipelineFactories.MasterClientPipelineFactory(connectionPool, getPipelineExecutor());
+        new IPCPipelineFactories.MasterClientPipelineFactory(
+            connectionPool, getPipelineExecutor(), ipcCompression, sharedMemoryRingBytes);
     ChannelPipelineFactory masterInJVMPipelineFactory =
         new IPCPipelineFactories.MasterInJVMPipelineFactory(connectionPool);
 
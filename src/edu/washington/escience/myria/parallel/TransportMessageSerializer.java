@@ -12,6 +12,7 @@ import com.google.common.base.Preconditions;
 import com.google.protobuf.CodedInputStream;
 
 import edu.washington.escience.myria.MyriaConstants;
+import edu.washington.escience.myria.Schema;
 import edu.washington.escience.myria.parallel.ipc.PayloadSerializer;
 import edu.washington.escience.myria.proto.TransportProto.TransportMessage;
 import edu.washington.escience.myria.storage.TupleBatch;
@@ -37,10 +38,10 @@ public class TransportMessageSerializer implements PayloadSerializer {
       // TransportMessage.DATA is not possible to occur here
       return ChannelBuffers.wrappedBuffer(((TransportMessage) m).toByteArray());
     } else if (m instanceof TupleBatch) {
-      // case 3: TupleBatch
+      // case 3: TupleBatch, in a TupleBatchFrame unless it is an EOI
       TupleBatch tb = (TupleBatch) m;
       if (!tb.isEOI()) {
-        return ChannelBuffers.wrappedBuffer(((TupleBatch) m).toTransportMessage().toByteArray());
+        return TupleBatchFrame.encode(tb);
       } else {
         return ChannelBuffers.wrappedBuffer(IPCUtils.EOI.toByteArray());
       }
@@ -79,10 +80,27 @@ public class TransportMessageSerializer implements PayloadSerializer {
     return TransportMessage.parseFrom(cis);
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * @return a {@link TransportMessage}, or a {@link TupleBatch} if the buffer is a {@link TupleBatchFrame}, or null if
+   *         it is a {@link TupleBatchFrame} but the attachment is not the {@link Schema} of a stream input buffer.
+   */
   @Override
   public final Object deSerialize(
       final ChannelBuffer buffer, final Object processor, final Object att) throws IOException {
+    if (TupleBatchFrame.isFrame(buffer)) {
+      if (!(att instanceof Schema)) {
+        return null;
+      }
+      return TupleBatchFrame.decode(buffer, (Schema) att);
+    }
     TransportMessage tm = deSerializeTransportMessage(buffer);
     return tm;
   }
+
+  @Override
+  public final void release(final ChannelBuffer buffer) {
+    TupleBatchFrame.release(buffer);
+  }
 }
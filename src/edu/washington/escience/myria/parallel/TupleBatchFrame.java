@@ -0,0 +1,329 @@
+package edu.washington.escience.myria.parallel;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.jboss.netty.buffer.CompositeChannelBuffer;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+
+import edu.washington.escience.myria.Schema;
+import edu.washington.escience.myria.Type;
+import edu.washington.escience.myria.column.Column;
+import edu.washington.escience.myria.column.ColumnEncoder;
+import edu.washington.escience.myria.column.DoubleBufferColumn;
+import edu.washington.escience.myria.column.FloatBufferColumn;
+import edu.washington.escience.myria.column.IntBufferColumn;
+import edu.washington.escience.myria.column.LongBufferColumn;
+import edu.washington.escience.myria.column.builder.ColumnFactory;
+import edu.washington.escience.myria.proto.DataProto.ColumnMessage;
+import edu.washington.escience.myria.storage.TupleBatch;
+
+/**
+ * The binary frame of a {@link TupleBatch} sent to a remote worker, used instead of a protobuf
+ * {@link edu.washington.escience.myria.proto.TransportProto.TransportMessage} so that the values of Int, Long, Float
+ * and Double columns are copied only once on each side.
+ *
+ * The frame is, in big-endian order:
+ *
+ * <pre>
+ * byte  {@link #MARKER}
+ * int   the number of tuples
+ * int   the number of columns
+ * for each column: byte RAW or PROTO
+ * for each PROTO column: int length, then the ColumnMessage chosen by {@link ColumnEncoder}
+ * the values of the RAW columns, one column after the other
+ * </pre>
+ *
+ * Int, Long, Float and Double columns are RAW unless {@link ColumnEncoder#encodeCompact(Column)} finds a smaller
+ * encoding, and the other columns are PROTO. The sender writes the RAW values into a pooled direct buffer, which the
+ * socket writes without another copy since the frame is a gathering buffer, and which goes back to the pool when
+ * {@link #release(ChannelBuffer)} is called after the write. The receiver wraps the RAW values of the received frame in
+ * {@link IntBufferColumn}s etc. without copying them.
+ * */
+final class TupleBatchFrame {
+
+  /**
+   * The first byte of a frame. A protobuf message never starts with 0, since its first byte is the tag of a field and
+   * field numbers start at 1.
+   */
+  static final byte MARKER = 0;
+  /** The values of the column are in the RAW section of the frame. */
+  private static final byte RAW = 0;
+  /** The column is a ColumnMessage. */
+  private static final byte PROTO = 1;
+  /** The bytes of a frame before the column kinds: marker, number of tuples and number of columns. */
+  private static final int HEAD_BYTES = 1 + 2 * (Integer.SIZE / Byte.SIZE);
+  /** The maximum number of direct buffers in the pool. */
+  static final int MAX_POOLED_BUFFERS = 32;
+  /** The smallest direct buffer allocated. */
+  private static final int MIN_BUFFER_BYTES = 4096;
+
+  /** The pooled direct buffers. */
+  private static final ConcurrentLinkedQueue<ByteBuffer> POOL = new ConcurrentLinkedQueue<>();
+  /** The number of pooled direct buffers, kept separately since {@link ConcurrentLinkedQueue#size()} is linear. */
+  private static final AtomicInteger POOL_SIZE = new AtomicInteger();
+
+  /** Utility classes cannot be constructed. */
+  private TupleBatchFrame() {}
+
+  /**
+   * A frame whose RAW values are in a pooled direct buffer.
+   */
+  private static final class PooledFrame extends CompositeChannelBuffer {
+    /** The pooled buffer, null once released. */
+    private ByteBuffer pooled;
+
+    /**
+     * @param head the frame up to the RAW values
+     * @param raw the RAW values, between the position and the limit of a pooled buffer
+     */
+    PooledFrame(final ChannelBuffer head, final ByteBuffer raw) {
+      super(ByteOrder.BIG_ENDIAN, Arrays.asList(head, ChannelBuffers.wrappedBuffer(raw)), true);
+      pooled = raw;
+    }
+
+    /** Return the pooled buffer to the pool. */
+    synchronized void release() {
+      if (pooled != null) {
+        offer(pooled);
+        pooled = null;
+      }
+    }
+  }
+
+  /**
+   * @param type a column type
+   * @return the bytes of a RAW value of the type, or 0 if columns of the type are never RAW
+   */
+  private static int rawBytes(final Type type) {
+    switch (type) {
+      case INT_TYPE:
+      case FLOAT_TYPE:
+        return Integer.SIZE / Byte.SIZE;
+      case LONG_TYPE:
+      case DOUBLE_TYPE:
+        return Long.SIZE / Byte.SIZE;
+      default:
+        return 0;
+    }
+  }
+
+  /**
+   * @param tb a batch, not EOI
+   * @return its frame, to be passed to {@link #release(ChannelBuffer)} once it has been written
+   */
+  static ChannelBuffer encode(final TupleBatch tb) {
+    final List<? extends Column<?>> columns = tb.getDataColumns();
+    final int numTuples = tb.numTuples();
+    final ColumnMessage[] messages = new ColumnMessage[columns.size()];
+    int headBytes = HEAD_BYTES + columns.size();
+    int rawBytes = 0;
+    for (int i = 0; i < messages.length; ++i) {
+      final Column<?> column = columns.get(i);
+      final int valueBytes = rawBytes(column.getType());
+      if (valueBytes > 0) {
+        messages[i] = ColumnEncoder.encodeCompact(column);
+      } else {
+        messages[i] = ColumnEncoder.encode(column);
+      }
+      if (messages[i] == null) {
+        rawBytes += numTuples * valueBytes;
+      } else {
+        headBytes += Integer.SIZE / Byte.SIZE + messages[i].getSerializedSize();
+      }
+    }
+
+    final ChannelBuffer head = ChannelBuffers.buffer(headBytes);
+    head.writeByte(MARKER);
+    head.writeInt(numTuples);
+    head.writeInt(columns.size());
+    for (ColumnMessage message : messages) {
+      head.writeByte(message == null ? RAW : PROTO);
+    }
+    for (ColumnMessage message : messages) {
+      if (message == null) {
+        continue;
+      }
+      final int length = message.getSerializedSize();
+      head.writeInt(length);
+      final CodedOutputStream out =
+          CodedOutputStream.newInstance(
+              head.array(), head.arrayOffset() + head.writerIndex(), length);
+      try {
+        message.writeTo(out);
+      } catch (IOException e) {
+        throw new IllegalStateException("Serializing into an array should not fail", e);
+      }
+      head.writerIndex(head.writerIndex() + length);
+    }
+    if (rawBytes == 0) {
+      return head;
+    }
+
+    final ByteBuffer raw = take(rawBytes);
+    int offset = 0;
+    for (int i = 0; i < messages.length; ++i) {
+      if (messages[i] != null) {
+        continue;
+      }
+      final Column<?> column = columns.get(i);
+      switch (column.getType()) {
+        case INT_TYPE:
+          for (int row = 0; row < numTuples; ++row, offset += Integer.SIZE / Byte.SIZE) {
+            raw.putInt(offset, column.getInt(row));
+          }
+          break;
+        case FLOAT_TYPE:
+          for (int row = 0; row < numTuples; ++row, offset += Float.SIZE / Byte.SIZE) {
+            raw.putFloat(offset, column.getFloat(row));
+          }
+          break;
+        case LONG_TYPE:
+          for (int row = 0; row < numTuples; ++row, offset += Long.SIZE / Byte.SIZE) {
+            raw.putLong(offset, column.getLong(row));
+          }
+          break;
+        case DOUBLE_TYPE:
+          for (int row = 0; row < numTuples; ++row, offset += Double.SIZE / Byte.SIZE) {
+            raw.putDouble(offset, column.getDouble(row));
+          }
+          break;
+        default:
+          throw new IllegalStateException("Column of type " + column.getType() + " cannot be RAW");
+      }
+    }
+    raw.limit(rawBytes);
+    return new PooledFrame(head, raw);
+  }
+
+  /**
+   * @param buffer a received message
+   * @return true if the message is a frame
+   */
+  static boolean isFrame(final ChannelBuffer buffer) {
+    return buffer.readable() && buffer.getByte(buffer.readerIndex()) == MARKER;
+  }
+
+  /**
+   * The RAW columns of the batch wrap the buffer, which must not be modified afterwards.
+   *
+   * @param buffer a frame
+   * @param schema the schema of the batch
+   * @return the batch
+   * @throws IOException if the frame is malformed
+   */
+  static TupleBatch decode(final ChannelBuffer buffer, final Schema schema) throws IOException {
+    buffer.skipBytes(1);
+    final int numTuples = buffer.readInt();
+    final int numColumns = buffer.readInt();
+    if (numColumns != schema.numColumns()) {
+      throw new IOException(
+          "Received a batch of " + numColumns + " columns, expected " + schema.numColumns());
+    }
+    final Column<?>[] columns = new Column<?>[numColumns];
+    final byte[] kinds = new byte[numColumns];
+    buffer.readBytes(kinds);
+    for (int i = 0; i < numColumns; ++i) {
+      if (kinds[i] == RAW) {
+        continue;
+      } else if (kinds[i] != PROTO) {
+        throw new IOException("Unknown column kind " + kinds[i]);
+      }
+      final int length = buffer.readInt();
+      final CodedInputStream in;
+      if (buffer.hasArray()) {
+        in =
+            CodedInputStream.newInstance(
+                buffer.array(), buffer.arrayOffset() + buffer.readerIndex(), length);
+      } else {
+        final byte[] bytes = new byte[length];
+        buffer.getBytes(buffer.readerIndex(), bytes);
+        in = CodedInputStream.newInstance(bytes);
+      }
+      columns[i] = ColumnFactory.columnFromColumnMessage(ColumnMessage.parseFrom(in), numTuples);
+      buffer.skipBytes(length);
+    }
+    for (int i = 0; i < numColumns; ++i) {
+      if (kinds[i] != RAW) {
+        continue;
+      }
+      final Type type = schema.getColumnType(i);
+      final int length = numTuples * rawBytes(type);
+      final ByteBuffer values =
+          buffer.toByteBuffer(buffer.readerIndex(), length).order(ByteOrder.BIG_ENDIAN);
+      switch (type) {
+        case INT_TYPE:
+          columns[i] = new IntBufferColumn(values.asIntBuffer());
+          break;
+        case FLOAT_TYPE:
+          columns[i] = new FloatBufferColumn(values.asFloatBuffer());
+          break;
+        case LONG_TYPE:
+          columns[i] = new LongBufferColumn(values.asLongBuffer());
+          break;
+        case DOUBLE_TYPE:
+          columns[i] = new DoubleBufferColumn(values.asDoubleBuffer());
+          break;
+        default:
+          throw new IOException("Received a RAW column of type " + type);
+      }
+      buffer.skipBytes(length);
+    }
+    return new TupleBatch(schema, Arrays.asList(columns), numTuples);
+  }
+
+  /**
+   * Return the direct buffer of a frame to the pool. The frame must not be used afterwards.
+   *
+   * @param buffer a buffer returned by {@link #encode(TupleBatch)}, or any other buffer, which is ignored
+   */
+  static void release(final ChannelBuffer buffer) {
+    if (buffer instanceof PooledFrame) {
+      ((PooledFrame) buffer).release();
+    }
+  }
+
+  /**
+   * @param bytes the number of bytes needed
+   * @return a direct buffer of at least this many bytes, from the pool if possible
+   */
+  private static ByteBuffer take(final int bytes) {
+    ByteBuffer buffer = POOL.poll();
+    if (buffer != null) {
+      POOL_SIZE.decrementAndGet();
+    }
+    if (buffer == null || buffer.capacity() < bytes) {
+      final int capacity = Math.max(MIN_BUFFER_BYTES, Integer.highestOneBit(bytes - 1) << 1);
+      buffer = ByteBuffer.allocateDirect(capacity);
+    }
+    buffer.clear();
+    return buffer;
+  }
+
+  /**
+   * Add a direct buffer to the pool, unless it is full.
+   *
+   * @param buffer the buffer
+   */
+  private static void offer(final ByteBuffer buffer) {
+    if (POOL_SIZE.incrementAndGet() > MAX_POOLED_BUFFERS) {
+      POOL_SIZE.decrementAndGet();
+      return;
+    }
+    POOL.offer(buffer);
+  }
+
+  /** @return the number of pooled direct buffers. */
+  static int numPooledBuffers() {
+    return POOL_SIZE.get();
+  }
+}
@@ -53,18 +53,30 @@ import edu.washington.escience.myria.MyriaConstants;
 import edu.washington.escience.myria.MyriaConstants.FTMode;
 import edu.washington.escience.myria.accessmethod.ConnectionInfo;
 import edu.washington.escience.myria.coordinator.ConfigFileException;
+import edu.washington.escience.myria.expression.evaluate.EvaluatorCache;
+import edu.washington.escience.myria.parallel.ipc.IPCCompression;
 import edu.washington.escience.myria.parallel.ipc.IPCConnectionPool;
 import edu.washington.escience.myria.parallel.ipc.InJVMLoopbackChannelSink;
 import edu.washington.escience.myria.profiling.ProfilingLogger;
 import edu.washington.escience.myria.proto.ControlProto.ControlMessage;
 import edu.washington.escience.myria.proto.QueryProto.QueryMessage;
 import edu.washington.escience.myria.proto.TransportProto.TransportMessage;
+import edu.washington.escience.myria.storage.BatchSizePolicy;
+import edu.washington.escience.myria.storage.TupleUtils;
 import edu.washington.escience.myria.tools.MyriaGlobalConfigurationModule.DefaultStorageDbPassword;
 import edu.washington.escience.myria.tools.MyriaGlobalConfigurationModule.DefaultStorageDbPort;
+import edu.washington.escience.myria.tools.MyriaGlobalConfigurationModule.FlowControlChannelCredits;
 import edu.washington.escience.myria.tools.MyriaGlobalConfigurationModule.FlowControlWriteBufferHighMarkBytes;
 import edu.washington.escience.myria.tools.MyriaGlobalConfigurationModule.FlowControlWriteBufferLowMarkBytes;
+import edu.washington.escience.myria.tools.MyriaGlobalConfigurationModule.IpcCompression;
+import edu.washington.escience.myria.tools.MyriaGlobalConfigurationModule.IpcSharedMemoryRingBytes;
 import edu.washington.escience.myria.tools.MyriaGlobalConfigurationModule.MasterHost;
 import edu.washington.escience.myria.tools.MyriaGlobalConfigurationModule.MasterRpcPort;
+import edu.washington.escience.myria.tools.MyriaGlobalConfigurationModule.OperatorBatchMaxTuples;
+import edu.washington.escience.myria.tools.MyriaGlobalConfigurationModule.OperatorBatchTargetBytes;
+import edu.washington.escience.myria.tools.MyriaGlobalConfigurationModule.OperatorConsumerCoalesceDeadlineMs;
+import edu.washington.escience.myria.tools.MyriaGlobalConfigurationModule.OperatorEvaluatorCacheSize;
+import edu.washington.escience.myria.tools.MyriaGlobalConfigurationModule.OperatorHashTableKind;
 import edu.washington.escience.myria.tools.MyriaGlobalConfigurationModule.OperatorInputBufferCapacity;
 import edu.washington.escience.myria.tools.MyriaGlobalConfigurationModule.OperatorInputBufferRecoverTrigger;
 import edu.washington.escience.myria.tools.MyriaGlobalConfigurationModule.StorageDbms;
@@ -416,6 +428,16 @@ public final class Worker implements Task, TaskMessageSource {
    */
   private final IPCConnectionPool connectionPool;
 
+  /**
+   * The compression codec of the data messages sent to other workers.
+   */
+  private final IPCCompression ipcCompression;
+
+  /**
+   * The bytes of the shared-memory ring of a channel to a co-located worker.
+   */
+  private final int sharedMemoryRingBytes;
+
   /**
    * A indicator of shutting down the worker.
    */
@@ -543,13 +565,23 @@ public final class Worker implements Task, TaskMessageSource {
       @Parameter(TcpReceiveBufferSizeBytes.class) final int receiveBufferSize,
       @Parameter(FlowControlWriteBufferLowMarkBytes.class) final int writeBufferLowWaterMark,
       @Parameter(FlowControlWriteBufferHighMarkBytes.class) final int writeBufferHighWaterMark,
+      @Parameter(FlowControlChannelCredits.class) final int channelCredits,
       @Parameter(OperatorInputBufferCapacity.class) final int inputBufferCapacity,
       @Parameter(OperatorInputBufferRecoverTrigger.class) final int inputBufferRecoverTrigger,
+      @Parameter(OperatorHashTableKind.class) final String hashTableKind,
+      @Parameter(OperatorEvaluatorCacheSize.class) final int evaluatorCacheSize,
+      @Parameter(OperatorConsumerCoalesceDeadlineMs.class) final int coalesceDeadlineMs,
+      @Parameter(OperatorBatchTargetBytes.class) final int batchTargetBytes,
+      @Parameter(OperatorBatchMaxTuples.class) final int batchMaxTuples,
+      @Parameter(IpcCompression.class) final String ipcCompression,
+      @Parameter(IpcSharedMemoryRingBytes.class) final int sharedMemoryRingBytes,
       @Parameter(WorkerConf.class) final Set<String> workerConfs)
       throws Exception {
 
     this.injector = injector;
     myID = workerID;
+    this.ipcCompression = IPCCompression.of(ipcCompression);
+    this.sharedMemoryRingBytes = sharedMemoryRingBytes;
     final String subDir = FilenameUtils.concat("workers", myID + "");
     workingDirectory = FilenameUtils.concat(rootPath, subDir);
     controlMessageQueue = new LinkedBlockingQueue<ControlMessage>();
@@ -581,11 +613,16 @@ public final class Worker implements Task, TaskMessageSource {
             new TransportMessageSerializer(),
             new WorkerShortMessageProcessor(this),
             inputBufferCapacity,
-            inputBufferRecoverTrigger);
+            inputBufferRecoverTrigger,
+            channelCredits);
 
     execEnvVars.put(MyriaConstants.EXEC_ENV_VAR_DATABASE_SYSTEM, databaseSystem);
     execEnvVars.put(MyriaConstants.EXEC_ENV_VAR_NODE_ID, getID());
     execEnvVars.put(MyriaConstants.EXEC_ENV_VAR_EXECUTION_MODE, getQueryExecutionMode());
+    execEnvVars.put(MyriaConstants.EXEC_ENV_VAR_HASH_TABLE_KIND, hashTableKind);
+    execEnvVars.put(MyriaConstants.EXEC_ENV_VAR_CONSUMER_COALESCE_DEADLINE_MS, coalesceDeadlineMs);
+    TupleUtils.setBatchSizePolicy(new BatchSizePolicy(batchTargetBytes, batchMaxTuples));
+    EvaluatorCache.setMaximumSize(evaluatorCacheSize);
     LOGGER.info("Worker: Database system " + databaseSystem);
     String jsonConnInfo =
         ConnectionInfo.toJson(
@@ -770,9 +807,11 @@ public final class Worker implements Task, TaskMessageSource {
             bossExecutor, workerExecutor, Runtime.getRuntime().availableProcessors() * 2 + 1);
 
     ChannelPipelineFactory serverPipelineFactory =
-        new IPCPipelineFactories.WorkerServerPipelineFactory(connectionPool, getPipelineExecutor());
+        new IPCPipelineFactories.WorkerServerPipelineFactory(
+            connectionPool, getPipelineExecutor(), ipcCompression, sharedMemoryRingBytes);
     ChannelPipelineFactory clientPipelineFactory =
-        new IPCPipelineFactories.WorkerClientPipelineFactory(connectionPool, getPipelineExecutor());
+        new IPCPipelineFactories.WorkerClientPipelineFactory(
+            connectionPool, getPipelineExecutor(), ipcCompression, sharedMemoryRingBytes);
     ChannelPipelineFactory workerInJVMPipelineFactory =
         new IPCPipelineFactories.WorkerInJVMPipelineFactory(connectionPool);
 
@@ -18,6 +18,7 @@ import com.google.common.collect.ImmutableMap;
 import edu.washington.escience.myria.DbException;
 import edu.washington.escience.myria.MyriaConstants;
 import edu.washington.escience.myria.MyriaConstants.ProfilingMode;
+import edu.washington.escience.myria.expression.evaluate.EvaluatorCache;
 import edu.washington.escience.myria.operator.RootOperator;
 import edu.washington.escience.myria.operator.StreamingState;
 import edu.washington.escience.myria.operator.BatchTupleSource;
@@ -116,6 +117,8 @@ public class WorkerSubQuery extends LocalSubQuery {
                   getSubQueryId(),
                   DateTimeUtils.nanoElapseToHumanReadable(
                       getExecutionStatistics().getQueryExecutionElapse()));
+              LOGGER.info(
+                  "Evaluator cache after query #{}: {}", getSubQueryId(), EvaluatorCache.stats());
             }
             if (getProfilingMode().size() > 0) {
               try {
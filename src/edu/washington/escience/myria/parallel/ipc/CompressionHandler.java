@@ -0,0 +1,205 @@
+package edu.washington.escience.myria.parallel.ipc;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.ChannelHandlerContext;
+import org.jboss.netty.channel.Channels;
+import org.jboss.netty.channel.MessageEvent;
+import org.jboss.netty.channel.SimpleChannelHandler;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Compresses the DATA frames sent through a remote IPC channel, and decompresses the compressed frames received.
+ *
+ * The codec is negotiated per channel: each side appends the ordinal of its configured {@link IPCCompression} to its
+ * CONNECT message, and a side compresses only if the other side configured the same codec. Peers that do not know about
+ * compression ignore the extra byte and never receive compressed frames.
+ *
+ * A compressed frame is the {@link IPCMessage.Header#COMPRESSED_DATA} header, the codec, the length of the original
+ * frame and the compressed original frame. Frames that are small or do not shrink by at least
+ * {@link #MIN_SAVINGS_RATIO} are sent as they are, and after such a frame the next few frames are not even tried, in
+ * case the data does not compress; the number of skipped frames doubles up to {@link #MAX_SKIPPED_FRAMES} while the data
+ * keeps not compressing.
+ *
+ * There is one handler per channel.
+ * */
+public final class CompressionHandler extends SimpleChannelHandler {
+
+  /** Frames smaller than this many bytes are not compressed. */
+  static final int MIN_COMPRESSED_FRAME_BYTES = 1024;
+  /** A compressed frame is sent only if it is smaller than this fraction of the original frame. */
+  static final double MIN_SAVINGS_RATIO = 0.9;
+  /** The maximum number of frames not tried after a frame that did not compress. */
+  static final int MAX_SKIPPED_FRAMES = 64;
+  /** The bytes of a compressed frame before the compressed data: header, codec and original length. */
+  private static final int COMPRESSED_HEAD_BYTES = 1 + 1 + Integer.SIZE / Byte.SIZE;
+  /** The bytes of a CONNECT message without the codec: header and remote ID. */
+  private static final int CONNECT_BYTES = 1 + Integer.SIZE / Byte.SIZE;
+
+  /** The codec configured on this side. */
+  private final IPCCompression codec;
+  /** The codec used to send frames, {@link IPCCompression#NONE} until the peer has said it uses {@link #codec}. */
+  private volatile IPCCompression negotiated = IPCCompression.NONE;
+  /** The number of frames to send without trying to compress them. */
+  private int framesToSkip = 0;
+  /** The number of frames skipped the last time a frame did not compress. */
+  private int lastSkipped = 0;
+
+  /**
+   * @param codec the codec configured on this side.
+   * */
+  public CompressionHandler(final IPCCompression codec) {
+    this.codec = Preconditions.checkNotNull(codec);
+  }
+
+  /** @return the codec configured on this side, as written in CONNECT messages. */
+  private byte codecByte() {
+    return (byte) codec.ordinal();
+  }
+
+  /** @return the codec used to send frames. */
+  IPCCompression getNegotiated() {
+    return negotiated;
+  }
+
+  @Override
+  public void writeRequested(final ChannelHandlerContext ctx, final MessageEvent e)
+      throws Exception {
+    if (!(e.getMessage() instanceof ChannelBuffer)) {
+      ctx.sendDownstream(e);
+      return;
+    }
+    final ChannelBuffer frame = (ChannelBuffer) e.getMessage();
+    final int length = frame.readableBytes();
+    final byte header = frame.getByte(frame.readerIndex());
+    if (header == IPCMessage.Header.CONNECT.ordinal() && length == CONNECT_BYTES) {
+      final ChannelBuffer withCodec =
+          ChannelBuffers.wrappedBuffer(
+              frame, ChannelBuffers.wrappedBuffer(new byte[] {codecByte()}));
+      Channels.write(ctx, e.getFuture(), withCodec, e.getRemoteAddress());
+      return;
+    }
+    if (header != IPCMessage.Header.DATA.ordinal()) {
+      ctx.sendDownstream(e);
+      return;
+    }
+    ChannelBuffer sent = frame;
+    if (negotiated != IPCCompression.NONE && length >= MIN_COMPRESSED_FRAME_BYTES) {
+      if (framesToSkip > 0) {
+        --framesToSkip;
+      } else {
+        sent = compress(negotiated, frame);
+        if (sent == null) {
+          lastSkipped = Math.min(Math.max(1, lastSkipped * 2), MAX_SKIPPED_FRAMES);
+          framesToSkip = lastSkipped;
+          sent = frame;
+        } else {
+          lastSkipped = 0;
+        }
+      }
+    }
+    recordDataWritten(e.getChannel(), length, sent.readableBytes());
+    if (sent == frame) {
+      ctx.sendDownstream(e);
+    } else {
+      Channels.write(ctx, e.getFuture(), sent, e.getRemoteAddress());
+    }
+  }
+
+  @Override
+  public void messageReceived(final ChannelHandlerContext ctx, final MessageEvent e)
+      throws Exception {
+    if (!(e.getMessage() instanceof ChannelBuffer)) {
+      ctx.sendUpstream(e);
+      return;
+    }
+    final ChannelBuffer frame = (ChannelBuffer) e.getMessage();
+    final byte header = frame.getByte(frame.readerIndex());
+    if (header == IPCMessage.Header.COMPRESSED_DATA.ordinal()) {
+      Channels.fireMessageReceived(ctx, decompress(frame), e.getRemoteAddress());
+      return;
+    }
+    if (header == IPCMessage.Header.CONNECT.ordinal() && frame.readableBytes() > CONNECT_BYTES) {
+      final int peerCodec = frame.getByte(frame.readerIndex() + CONNECT_BYTES);
+      if (peerCodec == codec.ordinal()) {
+        negotiated = codec;
+      }
+    }
+    ctx.sendUpstream(e);
+  }
+
+  /**
+   * @param ch the channel
+   * @param numBytesRaw the number of bytes of a data frame
+   * @param numBytesSent the number of bytes sent for the frame
+   */
+  private static void recordDataWritten(
+      final Channel ch, final long numBytesRaw, final long numBytesSent) {
+    final ChannelContext cc = ChannelContext.getChannelContext(ch);
+    if (cc == null || cc.getRegisteredChannelContext() == null) {
+      return;
+    }
+    final StreamOutputChannel<?> oc =
+        cc.getRegisteredChannelContext().getIOPair().getOutputChannel();
+    if (oc != null) {
+      oc.recordDataWritten(numBytesRaw, numBytesSent);
+    }
+  }
+
+  /**
+   * @param codec the codec
+   * @param frame a frame
+   * @return the compressed frame, or null if it would not be smaller by at least {@link #MIN_SAVINGS_RATIO}
+   */
+  static ChannelBuffer compress(final IPCCompression codec, final ChannelBuffer frame) {
+    final int length = frame.readableBytes();
+    final byte[] src;
+    final int srcOff;
+    if (frame.hasArray()) {
+      src = frame.array();
+      srcOff = frame.arrayOffset() + frame.readerIndex();
+    } else {
+      src = new byte[length];
+      frame.getBytes(frame.readerIndex(), src);
+      srcOff = 0;
+    }
+    final byte[] dest = new byte[COMPRESSED_HEAD_BYTES + codec.maxCompressedLength(length)];
+    final int compressedLength = codec.compress(src, srcOff, length, dest, COMPRESSED_HEAD_BYTES);
+    if (COMPRESSED_HEAD_BYTES + compressedLength >= length * MIN_SAVINGS_RATIO) {
+      return null;
+    }
+    final ChannelBuffer out = ChannelBuffers.wrappedBuffer(dest);
+    out.clear();
+    out.writeByte(IPCMessage.Header.COMPRESSED_DATA.ordinal());
+    out.writeByte(codec.ordinal());
+    out.writeInt(length);
+    out.writerIndex(COMPRESSED_HEAD_BYTES + compressedLength);
+    return out;
+  }
+
+  /**
+   * @param frame a compressed frame
+   * @return the original frame
+   */
+  static ChannelBuffer decompress(final ChannelBuffer frame) {
+    frame.skipBytes(1);
+    final IPCCompression frameCodec = IPCCompression.values()[frame.readByte()];
+    final int length = frame.readInt();
+    final int compressedLength = frame.readableBytes();
+    final byte[] src;
+    final int srcOff;
+    if (frame.hasArray()) {
+      src = frame.array();
+      srcOff = frame.arrayOffset() + frame.readerIndex();
+    } else {
+      src = new byte[compressedLength];
+      frame.getBytes(frame.readerIndex(), src);
+      srcOff = 0;
+    }
+    final byte[] dest = new byte[length];
+    frameCodec.decompress(src, srcOff, compressedLength, dest, length);
+    return ChannelBuffers.wrappedBuffer(dest);
+  }
+}
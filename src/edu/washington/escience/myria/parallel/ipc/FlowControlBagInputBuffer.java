@@ -23,7 +23,10 @@ import edu.washington.escience.myria.util.concurrent.ThreadStackDump;
  * An flow control aware InputBuffer implementation. This type of InputBuffer has a soft capacity. The number of
  * messages held in this InputBuffer can be as large as {@link Integer.MAX_VALUE}. But the soft capacity is a trigger.<br>
  * If the soft capacity is meet, an IOEvent representing the buffer full event is triggered. <br>
- * If the
+ * If the streams are credit-based, each input channel grants the data messages consumed from it back to its output
+ * side as credits, so that each input channel holds at most as many messages as the stream credits, and a full buffer
+ * pauses nothing. Otherwise, the read of all the input channels is paused when the buffer is full, and resumed when it
+ * recovers or gets empty.
  *
  * @param <PAYLOAD> the type of application defined data the input buffer is going to hold.
  * */
@@ -46,6 +49,12 @@ public final class FlowControlBagInputBuffer<PAYLOAD> extends BagInputBufferAdap
    * */
   private final int softCapacity;
 
+  /**
+   * The number of consumed data messages an input channel grants back at once as credits, or 0 if the streams are not
+   * credit-based.
+   * */
+  private final int creditGrantThreshold;
+
   /**
    * serialize the events.
    * */
@@ -73,13 +82,16 @@ public final class FlowControlBagInputBuffer<PAYLOAD> extends BagInputBufferAdap
    * {@inheritDoc}.
    *
    * @param softCapacity soft upper bound of the buffer size.
+   * @param recoverEventTrigger the buffer size under which a full buffer recovers.
+   * @param channelCredits the credits of each input stream, 0 or negative if the streams are not credit-based.
    *
    * */
   public FlowControlBagInputBuffer(
       final IPCConnectionPool owner,
       final ImmutableSet<StreamIOChannelID> remoteChannelIDs,
       final int softCapacity,
-      final int recoverEventTrigger) {
+      final int recoverEventTrigger,
+      final int channelCredits) {
     super(owner, remoteChannelIDs);
     bufferEmptyListeners = new ConcurrentLinkedQueue<IPCEventListener>();
     bufferFullListeners = new ConcurrentLinkedQueue<IPCEventListener>();
@@ -88,6 +100,12 @@ public final class FlowControlBagInputBuffer<PAYLOAD> extends BagInputBufferAdap
 
     this.softCapacity = softCapacity;
     this.recoverEventTrigger = recoverEventTrigger;
+    if (channelCredits > 0) {
+      /* Grant credits in halves of the window, so that the output side gets more before running out. */
+      creditGrantThreshold = Math.max(1, channelCredits / 2);
+    } else {
+      creditGrantThreshold = 0;
+    }
   }
 
   @Override
@@ -165,6 +183,10 @@ public final class FlowControlBagInputBuffer<PAYLOAD> extends BagInputBufferAdap
       throw new IllegalStateException("Already attached to a processor: " + processor);
     }
 
+    if (creditGrantThreshold > 0) {
+      // the output sides of credit-based streams stop by themselves.
+      return;
+    }
     addListener(
         INPUT_BUFFER_FULL,
         new IPCEventListener() {
@@ -242,9 +264,22 @@ public final class FlowControlBagInputBuffer<PAYLOAD> extends BagInputBufferAdap
     }
   }
 
+  /**
+   * Grant a consumed data message back as a credit to its stream, if the streams are credit-based.
+   *
+   * @param m the consumed message.
+   * */
+  private void grantCredit(final IPCMessage.StreamData<PAYLOAD> m) {
+    if (creditGrantThreshold > 0 && m.getPayload() != null) {
+      getInputChannel(new StreamIOChannelID(m.getStreamID(), m.getRemoteID()))
+          .messageConsumed(creditGrantThreshold);
+    }
+  }
+
   @Override
   public void postPoll(final IPCMessage.StreamData<PAYLOAD> m) {
     if (m != null) {
+      grantCredit(m);
       checkOutputBufferStateEvents();
     }
   }
@@ -253,6 +288,7 @@ public final class FlowControlBagInputBuffer<PAYLOAD> extends BagInputBufferAdap
   protected void postTimeoutPoll(
       final long time, final TimeUnit unit, final IPCMessage.StreamData<PAYLOAD> m) {
     if (m != null) {
+      grantCredit(m);
       checkOutputBufferStateEvents();
     }
   }
@@ -260,6 +296,7 @@ public final class FlowControlBagInputBuffer<PAYLOAD> extends BagInputBufferAdap
   @Override
   public void postTake(final IPCMessage.StreamData<PAYLOAD> m) {
     if (m != null) {
+      grantCredit(m);
       checkOutputBufferStateEvents();
     }
   }
@@ -0,0 +1,41 @@
+package edu.washington.escience.myria.parallel.ipc;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.ChannelHandler.Sharable;
+import org.jboss.netty.channel.ChannelHandlerContext;
+import org.jboss.netty.handler.codec.oneone.OneToOneEncoder;
+import org.jboss.netty.handler.codec.protobuf.ProtobufVarint32FrameDecoder;
+
+/**
+ * Prepends the length of each frame as a Base 128 Varint, as read by {@link ProtobufVarint32FrameDecoder}.
+ *
+ * Unlike {@link org.jboss.netty.handler.codec.protobuf.ProtobufVarint32LengthFieldPrepender}, the length and the frame
+ * are wrapped in a gathering buffer, so that the socket writes the parts of a composite frame, e.g., the direct buffers
+ * of a {@link edu.washington.escience.myria.storage.TupleBatch}, where they are instead of copying them into one buffer
+ * first.
+ * */
+@Sharable
+public final class GatheringFrameEncoder extends OneToOneEncoder {
+
+  /** The maximum number of bytes of a Varint32. */
+  private static final int MAX_VARINT32_BYTES = 5;
+
+  @Override
+  protected Object encode(final ChannelHandlerContext ctx, final Channel channel, final Object msg)
+      throws Exception {
+    if (!(msg instanceof ChannelBuffer)) {
+      return msg;
+    }
+    final ChannelBuffer body = (ChannelBuffer) msg;
+    final ChannelBuffer header = ChannelBuffers.buffer(MAX_VARINT32_BYTES);
+    int length = body.readableBytes();
+    while ((length & ~0x7F) != 0) {
+      header.writeByte((length & 0x7F) | 0x80);
+      length >>>= 7;
+    }
+    header.writeByte(length);
+    return ChannelBuffers.wrappedBuffer(true, header, body);
+  }
+}
@@ -313,6 +313,12 @@ public final class IPCConnectionPool implements ExternalResourceReleasable {
    */
   private final int inputBufferRecoverTrigger;
 
+  /**
+   * The number of data messages a stream may send before its input side grants more, or 0 or negative to pause the read
+   * of all the inputs of a {@link FlowControlBagInputBuffer} when it is full instead.
+   */
+  private final int channelCredits;
+
   /**
    * pool of connections.
    */
@@ -426,6 +432,11 @@ public final class IPCConnectionPool implements ExternalResourceReleasable {
    * */
   private final Map<Integer, SocketInfo> intialRemoteAddresses;
 
+  /**
+   * my own address.
+   * */
+  private final SocketInfo myAddress;
+
   /**
    * IPC event processor. All IPC events will be executed by this executor service.
    * */
@@ -453,6 +464,14 @@ public final class IPCConnectionPool implements ExternalResourceReleasable {
     return inputBufferRecoverTrigger;
   }
 
+  /**
+   * @return the number of data messages a stream may send before its input side grants more, 0 or negative if streams
+   *         are not credit-based.
+   */
+  public int getChannelCredits() {
+    return channelCredits;
+  }
+
   /**
    * Construct a connection pool.
    *
@@ -464,6 +483,7 @@ public final class IPCConnectionPool implements ExternalResourceReleasable {
    * @param mp short message processor
    * @param inputBufferCapacity input buffer capacity
    * @param inputBufferRecoverTrigger input buffer recover trigger.
+   * @param channelCredits the number of data messages a stream may send before its input side grants more.
    * */
   public IPCConnectionPool(
       final int myID,
@@ -473,12 +493,15 @@ public final class IPCConnectionPool implements ExternalResourceReleasable {
       final PayloadSerializer payloadSerializer,
       final ShortMessageProcessor<?> mp,
       final int inputBufferCapacity,
-      final int inputBufferRecoverTrigger) {
+      final int inputBufferRecoverTrigger,
+      final int channelCredits) {
     this.myID = myID;
     this.inputBufferCapacity = inputBufferCapacity;
     this.inputBufferRecoverTrigger = inputBufferRecoverTrigger;
+    this.channelCredits = channelCredits;
     myIDMsg = new IPCMessage.Meta.CONNECT(myID);
-    myIPCServerAddress = remoteAddresses.get(myID).getBindAddress();
+    myAddress = remoteAddresses.get(myID);
+    myIPCServerAddress = myAddress.getBindAddress();
     this.clientBootstrap = clientBootstrap;
     this.serverBootstrap = serverBootstrap;
 
@@ -517,6 +540,15 @@ public final class IPCConnectionPool implements ExternalResourceReleasable {
     return myID;
   }
 
+  /**
+   * @param remoteID the IPC ID of a remote.
+   * @return true if the remote is known and runs on the same host as this pool, according to their addresses.
+   * */
+  public boolean isColocated(final int remoteID) {
+    final IPCRemote remote = channelPool.get(remoteID);
+    return remote != null && remote.address.getHost().equals(myAddress.getHost());
+  }
+
   /**
    * Check if the IPC pool is already shutdown.
    *
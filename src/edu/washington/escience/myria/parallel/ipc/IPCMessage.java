@@ -20,11 +20,24 @@ public interface IPCMessage {
     CONNECT,
     DISCONNECT,
     PING,
-    DATA
+    DATA,
+    /** A compressed DATA frame, see {@link CompressionHandler}. */
+    COMPRESSED_DATA,
+    /** Credits granted by the input side of a stream to its output side. */
+    CREDIT,
+    /** A shared-memory ring opened by the sender of a channel, see {@link SharedMemoryHandler}. */
+    SHARED_MEMORY_RING,
+    /** A frame sent through the shared-memory ring of a channel, see {@link SharedMemoryHandler}. */
+    SHARED_MEMORY_DATA,
+    /** Whether the receiver of a channel opened its shared-memory ring, see {@link SharedMemoryHandler}. */
+    SHARED_MEMORY_RING_ACK,
+    /** The position up to which the receiver of a channel consumed its shared-memory ring. */
+    SHARED_MEMORY_CONSUMED
   }
 
   /**
-   * Meta IPCMessages, used inside the IPC module only. It has the following cases: EOS, BOS, CONNECT, DISCONNECT, PING.
+   * Meta IPCMessages, used inside the IPC module only. It has the following cases: EOS, BOS, CONNECT, DISCONNECT, PING,
+   * CREDIT.
    * */
   abstract class Meta implements IPCMessage {
 
@@ -168,6 +181,67 @@ public interface IPCMessage {
       }
     }
 
+    /**
+     * CREDIT. Sent by the input side of a stream through the physical channel of the stream, to allow the output side
+     * to send more data messages.
+     * */
+    static final class CREDIT extends Meta {
+      /**
+       * stream id.
+       * */
+      private final long streamID;
+      /**
+       * the number of data messages the output side may send in addition.
+       * */
+      private final int credits;
+
+      /**
+       * @param streamID stream id.
+       * @param credits the number of data messages the output side may send in addition.
+       * */
+      CREDIT(final long streamID, final int credits) {
+        this.streamID = streamID;
+        this.credits = credits;
+      }
+
+      /**
+       * @return the stream id.
+       * */
+      long getStreamID() {
+        return streamID;
+      }
+
+      /**
+       * @return the number of data messages the output side may send in addition.
+       * */
+      int getCredits() {
+        return credits;
+      }
+
+      @Override
+      public ChannelBuffer serialize() {
+        ChannelBuffer bb =
+            ChannelBuffers.buffer(1 + Long.SIZE / Byte.SIZE + Integer.SIZE / Byte.SIZE);
+        bb.writeByte((byte) Header.CREDIT.ordinal());
+        bb.writeLong(streamID);
+        bb.writeInt(credits);
+        return bb;
+      }
+
+      /**
+       * @return De-serialize the CREDIT message.
+       * @param bb serialized data.
+       * */
+      public static CREDIT deSerialize(final ChannelBuffer bb) {
+        return new CREDIT(bb.readLong(), bb.readInt());
+      }
+
+      @Override
+      public String toString() {
+        return "IPCMessage.Meta.CREDIT(" + streamID + "," + credits + ")";
+      }
+    }
+
     /**
      * PING.
      * */
@@ -211,6 +285,8 @@ public interface IPCMessage {
         return EOS;
       } else if (type == Header.PING.ordinal()) {
         return PING;
+      } else if (type == Header.CREDIT.ordinal()) {
+        return CREDIT.deSerialize(bb);
       } else {
         return null;
       }
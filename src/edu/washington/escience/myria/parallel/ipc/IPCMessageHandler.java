@@ -4,6 +4,8 @@ import org.jboss.netty.buffer.ChannelBuffer;
 import org.jboss.netty.buffer.ChannelBuffers;
 import org.jboss.netty.channel.Channel;
 import org.jboss.netty.channel.ChannelException;
+import org.jboss.netty.channel.ChannelFuture;
+import org.jboss.netty.channel.ChannelFutureListener;
 import org.jboss.netty.channel.ChannelHandler.Sharable;
 import org.jboss.netty.channel.ChannelHandlerContext;
 import org.jboss.netty.channel.ChannelStateEvent;
@@ -120,7 +122,21 @@ public final class IPCMessageHandler extends SimpleChannelHandler {
     StreamInputChannel<Object> existingIChannel =
         cc.getRegisteredChannelContext().getIOPair().getInputChannel();
 
-    if (metaMessage instanceof IPCMessage.Meta.BOS) {
+    if (metaMessage instanceof IPCMessage.Meta.CREDIT) {
+      // credits granted to the stream this side writes through the channel
+      final IPCMessage.Meta.CREDIT credit = (IPCMessage.Meta.CREDIT) metaMessage;
+      final StreamOutputChannel<?> oc =
+          cc.getRegisteredChannelContext().getIOPair().getOutputChannel();
+      if (oc != null && oc.getID().getStreamID() == credit.getStreamID()) {
+        oc.creditsGrantedCallback(credit.getCredits());
+      } else if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug(
+            "Credits received for a stream which already ended: {}, through {}. Dropped.",
+            credit,
+            ChannelContext.channelToString(ch));
+      }
+      return;
+    } else if (metaMessage instanceof IPCMessage.Meta.BOS) {
       // At the beginning of a stream, record the operator id.
       final long streamID = ((IPCMessage.Meta.BOS) metaMessage).getStreamID();
       if (existingIChannel != null) {
@@ -250,33 +266,48 @@ public final class IPCMessageHandler extends SimpleChannelHandler {
         final ChannelContext cc = ChannelContext.getChannelContext(ch);
         final int remoteID = cc.getRegisteredChannelContext().getRemoteID();
 
-        TransportMessage tm =
-            (TransportMessage)
-                ownerConnectionPool.getPayloadSerializer().deSerialize(cb, null, null);
-        switch (tm.getType()) {
-          case DATA:
-            StreamInputChannel<?> ic =
-                cc.getRegisteredChannelContext().getIOPair().getInputChannel();
-            if (ic != null) {
-              StreamInputBuffer<?> sib = ic.getInputBuffer();
-              msg = IPCUtils.tmToTupleBatch(tm.getDataMessage(), (Schema) sib.getAttachment());
-            } else {
-              // got a message from a physical channel which is not bound to a logical input channel, ignore
-              // the binding may have been cleaned up due to failure
-              LOGGER.warn(
-                  "Unknown data message from {} }, through {}, msg: {}",
-                  remoteID,
-                  ChannelContext.channelToString(ctx.getChannel()),
-                  tm.getDataMessage());
-              return;
-            }
-            break;
-          case QUERY:
-          case CONTROL:
-            msg = tm;
-            break;
-          default:
-            throw new IllegalArgumentException("Unknown message type: " + tm.getType().name());
+        final StreamInputChannel<?> ic =
+            cc.getRegisteredChannelContext().getIOPair().getInputChannel();
+        final StreamInputBuffer<?> sib = ic == null ? null : ic.getInputBuffer();
+        final Object payload =
+            ownerConnectionPool
+                .getPayloadSerializer()
+                .deSerialize(cb, sib, sib == null ? null : sib.getAttachment());
+        if (payload == null) {
+          // a data message from a physical channel which is not bound to a logical input channel, ignore
+          // the binding may have been cleaned up due to failure
+          LOGGER.warn(
+              "Unknown data message from {}, through {}",
+              remoteID,
+              ChannelContext.channelToString(ctx.getChannel()));
+          return;
+        }
+        if (!(payload instanceof TransportMessage)) {
+          msg = payload;
+        } else {
+          TransportMessage tm = (TransportMessage) payload;
+          switch (tm.getType()) {
+            case DATA:
+              if (sib != null) {
+                msg = IPCUtils.tmToTupleBatch(tm.getDataMessage(), (Schema) sib.getAttachment());
+              } else {
+                // got a message from a physical channel which is not bound to a logical input channel, ignore
+                // the binding may have been cleaned up due to failure
+                LOGGER.warn(
+                    "Unknown data message from {} }, through {}, msg: {}",
+                    remoteID,
+                    ChannelContext.channelToString(ctx.getChannel()),
+                    tm.getDataMessage());
+                return;
+              }
+              break;
+            case QUERY:
+            case CONTROL:
+              msg = tm;
+              break;
+            default:
+              throw new IllegalArgumentException("Unknown message type: " + tm.getType().name());
+          }
         }
       }
     }
@@ -411,10 +442,17 @@ public final class IPCMessageHandler extends SimpleChannelHandler {
          * TransportMessage.CONTROL (corresponds to IPCMessage.Data but not StreamData). In both cases m is going to be
          * serialized as an IPCMessage.Data, with the header.
          */
-        codedMsg =
-            ChannelBuffers.wrappedBuffer(
-                IPCMessage.Data.SERIALIZE_HEAD,
-                ownerConnectionPool.getPayloadSerializer().serialize(m));
+        final PayloadSerializer serializer = ownerConnectionPool.getPayloadSerializer();
+        final ChannelBuffer payload = serializer.serialize(m);
+        codedMsg = ChannelBuffers.wrappedBuffer(true, IPCMessage.Data.SERIALIZE_HEAD, payload);
+        e.getFuture()
+            .addListener(
+                new ChannelFutureListener() {
+                  @Override
+                  public void operationComplete(final ChannelFuture future) {
+                    serializer.release(payload);
+                  }
+                });
       }
       ctx.sendDownstream(
           new DownstreamMessageEvent(ch, e.getFuture(), codedMsg, e.getRemoteAddress()));
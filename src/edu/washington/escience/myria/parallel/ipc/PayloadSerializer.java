@@ -29,4 +29,12 @@ public interface PayloadSerializer {
    * @return Deserialized payload object.
    * */
   Object deSerialize(ChannelBuffer buffer, Object processor, Object attachment) throws IOException;
+
+  /**
+   * Called once a buffer returned by {@link #serialize(Object)} has been written to the network, or has failed to be.
+   * The buffer is not used afterwards.
+   *
+   * @param buffer the serialized buffer.
+   * */
+  void release(ChannelBuffer buffer);
 }
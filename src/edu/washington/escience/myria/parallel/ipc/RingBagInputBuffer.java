@@ -0,0 +1,554 @@
+package edu.washington.escience.myria.parallel.ipc;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+import edu.washington.escience.myria.parallel.ipc.IPCEvent.EventType;
+import edu.washington.escience.myria.util.AttachmentableAdapter;
+
+/**
+ * A lock-free InputBuffer implementation for streams whose producers run in the same process. The messages are held in
+ * a bounded ring of a power of two slots. Producers claim a slot by a compare-and-set of the producer index, or by a
+ * plain store if there is a single input channel, and a single consumer thread takes the messages out, one at a time
+ * or in batches with {@link #drainTo(Collection, int)}. All the input data from different input channels are treated by
+ * bag semantic, and the messages of an input channel are taken in the order they are offered.
+ *
+ * The ring should be large enough for the credits of all the input channels. If it is full anyway, e.g., because a
+ * producer wrote past its credits, messages spill to an overflow queue, and the following messages of all the channels
+ * go there too until the consumer has emptied it, so that the order of the messages of each channel is kept.
+ *
+ * The consumer only blocks in {@link #take()} and {@link #poll(long, TimeUnit)} when the buffer is empty, and producers
+ * only wake it up if it is parked. Only one thread may consume at a time, i.e., call the poll, take, peek, drain and
+ * clear methods.
+ *
+ * As in {@link FlowControlBagInputBuffer}, consumed data messages are granted back as credits to credit-based streams,
+ * and {@link FlowControlBagInputBuffer#NEW_INPUT_DATA} listeners are notified of each offered message.
+ *
+ * @param <PAYLOAD> the type of application defined data the input buffer is going to hold.
+ * */
+public final class RingBagInputBuffer<PAYLOAD> extends AttachmentableAdapter
+    implements StreamInputBuffer<PAYLOAD> {
+
+  /**
+   * logger.
+   * */
+  static final Logger LOGGER = LoggerFactory.getLogger(RingBagInputBuffer.class);
+
+  /**
+   * new input data.
+   * */
+  public static final EventType NEW_INPUT_DATA = FlowControlBagInputBuffer.NEW_INPUT_DATA;
+
+  /**
+   * input channel state.
+   * */
+  private final class InputChannelState {
+    /**
+     * EOS bit.
+     * */
+    private final AtomicBoolean eos = new AtomicBoolean(false);
+    /**
+     * input channel.
+     * */
+    private final StreamInputChannel<PAYLOAD> inputChannel;
+
+    /**
+     * @param id input channel id.
+     * */
+    InputChannelState(final StreamIOChannelID id) {
+      inputChannel = new StreamInputChannel<PAYLOAD>(id, RingBagInputBuffer.this);
+    }
+  }
+
+  /**
+   * the ring of messages. A slot is null if it is free, or if a producer has claimed it but not stored its message yet.
+   * */
+  private final AtomicReferenceArray<IPCMessage.StreamData<PAYLOAD>> ring;
+
+  /**
+   * the number of slots minus one, to map an index to its slot.
+   * */
+  private final int mask;
+
+  /**
+   * If there is a single input channel, and so a single producer at a time.
+   * */
+  private final boolean singleProducer;
+
+  /**
+   * the number of slots claimed by producers so far.
+   * */
+  private final AtomicLong producerIndex = new AtomicLong(0);
+
+  /**
+   * the number of slots freed by the consumer so far. Only written by the consumer.
+   * */
+  private final AtomicLong consumerIndex = new AtomicLong(0);
+
+  /**
+   * the messages which did not fit in the ring. Guarded by itself.
+   * */
+  private final ArrayDeque<IPCMessage.StreamData<PAYLOAD>> overflow =
+      new ArrayDeque<IPCMessage.StreamData<PAYLOAD>>();
+
+  /**
+   * the size of the overflow queue.
+   * */
+  private volatile int overflowSize = 0;
+
+  /**
+   * the consumer thread, while it is parked or about to park.
+   * */
+  private volatile Thread waiter = null;
+
+  /**
+   * Num of EOS.
+   * */
+  private final AtomicInteger numInputEOS = new AtomicInteger(0);
+
+  /**
+   * Set of input channels.
+   * */
+  private final ImmutableMap<StreamIOChannelID, InputChannelState> inputChannels;
+
+  /**
+   * The processor attached.
+   * */
+  private final AtomicReference<Object> processor = new AtomicReference<Object>();
+
+  /**
+   * owner.
+   * */
+  private final IPCConnectionPool ownerConnectionPool;
+
+  /**
+   * The number of consumed data messages an input channel grants back at once as credits, or 0 if the streams are not
+   * credit-based.
+   * */
+  private final int creditGrantThreshold;
+
+  /**
+   * new data event listeners.
+   * */
+  private final ConcurrentLinkedQueue<IPCEventListener> newArrivalListeners =
+      new ConcurrentLinkedQueue<IPCEventListener>();
+
+  /**
+   * the new input event.
+   * */
+  private final IPCEvent newInputEvent =
+      new IPCEvent() {
+
+        @Override
+        public Object getAttachment() {
+          return RingBagInputBuffer.this;
+        }
+
+        @Override
+        public EventType getType() {
+          return NEW_INPUT_DATA;
+        }
+      };
+
+  /**
+   * @param owner the owner IPC pool.
+   * @param remoteChannelIDs from which channels, the data will input.
+   * @param capacity the number of messages the ring holds at least, rounded up to a power of two.
+   * @param channelCredits the credits of each input stream, 0 or negative if the streams are not credit-based.
+   * */
+  public RingBagInputBuffer(
+      final IPCConnectionPool owner,
+      final ImmutableSet<StreamIOChannelID> remoteChannelIDs,
+      final int capacity,
+      final int channelCredits) {
+    Preconditions.checkArgument(capacity > 0, "capacity must be > 0");
+    Preconditions.checkArgument(capacity <= 1 << 30, "capacity must be at most 2^30");
+    final int slots = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+    ring = new AtomicReferenceArray<IPCMessage.StreamData<PAYLOAD>>(slots);
+    mask = slots - 1;
+    ImmutableMap.Builder<StreamIOChannelID, InputChannelState> b = ImmutableMap.builder();
+    for (StreamIOChannelID ecID : remoteChannelIDs) {
+      b.put(ecID, new InputChannelState(ecID));
+    }
+    inputChannels = b.build();
+    singleProducer = inputChannels.size() <= 1;
+    ownerConnectionPool = owner;
+    if (channelCredits > 0) {
+      /* Grant credits in halves of the window, so that the output side gets more before running out. */
+      creditGrantThreshold = Math.max(1, channelCredits / 2);
+    } else {
+      creditGrantThreshold = 0;
+    }
+  }
+
+  /**
+   * @return the number of slots of the ring.
+   * */
+  public int getCapacity() {
+    return ring.length();
+  }
+
+  @Override
+  public void start(final Object processor) {
+    Preconditions.checkNotNull(processor);
+    if (!this.processor.compareAndSet(null, processor)) {
+      throw new IllegalStateException("Already attached to a processor: " + processor);
+    }
+    getOwnerConnectionPool().registerStreamInput(this);
+  }
+
+  @Override
+  public void stop() {
+    processor.set(null);
+    clear();
+  }
+
+  @Override
+  public int size() {
+    return (int) Math.max(0, producerIndex.get() - consumerIndex.get()) + overflowSize;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return producerIndex.get() == consumerIndex.get() && overflowSize == 0;
+  }
+
+  @Override
+  public void clear() {
+    while (pollMessage() != null) {
+      continue;
+    }
+  }
+
+  /**
+   * Check if the input buffer is attached.
+   * */
+  private void checkAttached() {
+    if (!isAttached()) {
+      throw new IllegalStateException("Not attached");
+    }
+  }
+
+  @Override
+  public boolean offer(final IPCMessage.StreamData<PAYLOAD> msg) {
+    Preconditions.checkNotNull(msg);
+    checkAttached();
+    final InputChannelState ics =
+        inputChannels.get(new StreamIOChannelID(msg.getStreamID(), msg.getRemoteID()));
+    if (ics == null) {
+      throw new IllegalArgumentException("Message received from unknown input channel" + msg);
+    }
+    final boolean isEOS = msg.getPayload() == null;
+    if (ics.eos.get() || isEOS && !ics.eos.compareAndSet(false, true)) {
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug(
+            "Message received from an already EOS channel from remote {} streamID {} {}",
+            msg.getRemoteID(),
+            msg.getStreamID(),
+            ics.inputChannel);
+      }
+      return true;
+    }
+
+    if (overflowSize > 0 || !offerToRing(msg)) {
+      synchronized (overflow) {
+        overflow.add(msg);
+        overflowSize = overflow.size();
+      }
+    }
+    if (isEOS) {
+      numInputEOS.incrementAndGet();
+    }
+
+    final Thread w = waiter;
+    if (w != null) {
+      LockSupport.unpark(w);
+    }
+    for (IPCEventListener l : newArrivalListeners) {
+      l.triggered(newInputEvent);
+    }
+    return true;
+  }
+
+  /**
+   * Put a message into a free slot of the ring.
+   *
+   * @param msg the message.
+   * @return false if the ring is full.
+   * */
+  private boolean offerToRing(final IPCMessage.StreamData<PAYLOAD> msg) {
+    long index;
+    if (singleProducer) {
+      index = producerIndex.get();
+      if (index - consumerIndex.get() > mask) {
+        return false;
+      }
+      ring.lazySet((int) index & mask, msg);
+      /* A volatile write, so that the consumer is seen as parked or sees the message. */
+      producerIndex.set(index + 1);
+      return true;
+    }
+    do {
+      index = producerIndex.get();
+      if (index - consumerIndex.get() > mask) {
+        return false;
+      }
+    } while (!producerIndex.compareAndSet(index, index + 1));
+    ring.lazySet((int) index & mask, msg);
+    return true;
+  }
+
+  /**
+   * Take the message of the next slot of the ring.
+   *
+   * @return the message, or null if the ring is empty.
+   * */
+  private IPCMessage.StreamData<PAYLOAD> pollRing() {
+    final long index = consumerIndex.get();
+    final int slot = (int) index & mask;
+    IPCMessage.StreamData<PAYLOAD> m = ring.get(slot);
+    if (m == null) {
+      if (index == producerIndex.get()) {
+        return null;
+      }
+      /* The slot is claimed, its message is being stored. */
+      do {
+        m = ring.get(slot);
+      } while (m == null);
+    }
+    ring.lazySet(slot, null);
+    consumerIndex.lazySet(index + 1);
+    return m;
+  }
+
+  /**
+   * Take the next message, from the ring and then from the overflow queue. Messages only go to the overflow queue after
+   * the ring is full, and not while it is non-empty, so the messages of a channel in the ring are older than those in
+   * the overflow queue.
+   *
+   * @return the message, or null if the buffer is empty.
+   * */
+  private IPCMessage.StreamData<PAYLOAD> pollMessage() {
+    final IPCMessage.StreamData<PAYLOAD> m = pollRing();
+    if (m != null || overflowSize == 0) {
+      return m;
+    }
+    synchronized (overflow) {
+      final IPCMessage.StreamData<PAYLOAD> o = overflow.poll();
+      overflowSize = overflow.size();
+      return o;
+    }
+  }
+
+  /**
+   * Grant a consumed data message back as a credit to its stream, if the streams are credit-based.
+   *
+   * @param m the consumed message.
+   * */
+  private void grantCredit(final IPCMessage.StreamData<PAYLOAD> m) {
+    if (creditGrantThreshold > 0 && m.getPayload() != null) {
+      getInputChannel(new StreamIOChannelID(m.getStreamID(), m.getRemoteID()))
+          .messageConsumed(creditGrantThreshold);
+    }
+  }
+
+  @Override
+  public IPCMessage.StreamData<PAYLOAD> poll() {
+    checkAttached();
+    final IPCMessage.StreamData<PAYLOAD> m = pollMessage();
+    if (m != null) {
+      grantCredit(m);
+    }
+    return m;
+  }
+
+  /**
+   * Retrieves and removes up to maxMessages messages of this input buffer, without waiting, and adds them to the sink.
+   * The slots of the ring are released to the producers once for the whole batch.
+   *
+   * @param sink where to add the messages.
+   * @param maxMessages the maximum number of messages to retrieve.
+   * @return the number of retrieved messages.
+   * */
+  public int drainTo(
+      final Collection<? super IPCMessage.StreamData<PAYLOAD>> sink, final int maxMessages) {
+    Preconditions.checkNotNull(sink);
+    checkAttached();
+    int n = 0;
+    long index = consumerIndex.get();
+    final long limit = producerIndex.get();
+    while (n < maxMessages && index < limit) {
+      final int slot = (int) index & mask;
+      IPCMessage.StreamData<PAYLOAD> m = ring.get(slot);
+      while (m == null) {
+        /* The slot is claimed, its message is being stored. */
+        m = ring.get(slot);
+      }
+      ring.lazySet(slot, null);
+      ++index;
+      ++n;
+      sink.add(m);
+      grantCredit(m);
+    }
+    consumerIndex.lazySet(index);
+    if (index < limit) {
+      return n;
+    }
+    while (n < maxMessages) {
+      final IPCMessage.StreamData<PAYLOAD> m = pollMessage();
+      if (m == null) {
+        break;
+      }
+      ++n;
+      sink.add(m);
+      grantCredit(m);
+    }
+    return n;
+  }
+
+  /**
+   * Wait until a message is available, the buffer is EOS, or the deadline passes.
+   *
+   * @param timed if the wait has a deadline.
+   * @param deadline the deadline in {@link System#nanoTime()}, if timed.
+   * @return the message, or null if the buffer is EOS or the deadline passed.
+   * @throws InterruptedException if interrupted while waiting.
+   * */
+  private IPCMessage.StreamData<PAYLOAD> await(final boolean timed, final long deadline)
+      throws InterruptedException {
+    while (true) {
+      final IPCMessage.StreamData<PAYLOAD> m = pollMessage();
+      if (m != null) {
+        grantCredit(m);
+        return m;
+      }
+      if (isEOS()) {
+        /* All the messages were offered before the last EOS was counted. */
+        return poll();
+      }
+      if (Thread.interrupted()) {
+        throw new InterruptedException();
+      }
+      final long remaining = timed ? deadline - System.nanoTime() : 0;
+      if (timed && remaining <= 0) {
+        return null;
+      }
+      waiter = Thread.currentThread();
+      try {
+        /* Check again after publishing the waiter, so that a producer either sees it or is seen. */
+        if (isEmpty() && !isEOS()) {
+          if (timed) {
+            LockSupport.parkNanos(this, remaining);
+          } else {
+            LockSupport.park(this);
+          }
+        }
+      } finally {
+        waiter = null;
+      }
+    }
+  }
+
+  @Override
+  public IPCMessage.StreamData<PAYLOAD> take() throws InterruptedException {
+    checkAttached();
+    if (isEOS() && isEmpty()) {
+      return null;
+    }
+    return await(false, 0);
+  }
+
+  @Override
+  public IPCMessage.StreamData<PAYLOAD> poll(final long time, final TimeUnit unit)
+      throws InterruptedException {
+    checkAttached();
+    if (isEOS() && isEmpty()) {
+      return null;
+    }
+    return await(true, System.nanoTime() + unit.toNanos(time));
+  }
+
+  @Override
+  public IPCMessage.StreamData<PAYLOAD> peek() {
+    checkAttached();
+    final long index = consumerIndex.get();
+    if (index != producerIndex.get()) {
+      final int slot = (int) index & mask;
+      IPCMessage.StreamData<PAYLOAD> m = ring.get(slot);
+      while (m == null) {
+        m = ring.get(slot);
+      }
+      return m;
+    }
+    if (overflowSize == 0) {
+      return null;
+    }
+    synchronized (overflow) {
+      return overflow.peek();
+    }
+  }
+
+  @Override
+  public boolean isAttached() {
+    return processor.get() != null;
+  }
+
+  @Override
+  public boolean isEOS() {
+    return numInputEOS.get() >= inputChannels.size();
+  }
+
+  @Override
+  public void addListener(final EventType t, final IPCEventListener l) {
+    if (t == NEW_INPUT_DATA) {
+      newArrivalListeners.add(l);
+    } else {
+      throw new IllegalArgumentException("Unsupported event: " + t);
+    }
+  }
+
+  @Override
+  public StreamInputChannel<PAYLOAD> getInputChannel(final StreamIOChannelID sourceChannelID) {
+    return inputChannels.get(sourceChannelID).inputChannel;
+  }
+
+  @Override
+  public ImmutableSet<StreamIOChannelID> getSourceChannels() {
+    return inputChannels.keySet();
+  }
+
+  @Override
+  public IPCConnectionPool getOwnerConnectionPool() {
+    return ownerConnectionPool;
+  }
+
+  @Override
+  public Object getProcessor() {
+    return processor.get();
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName()
+        + "[Processor: "
+        + getProcessor()
+        + ", InputChannels: "
+        + getSourceChannels()
+        + "]";
+  }
+}
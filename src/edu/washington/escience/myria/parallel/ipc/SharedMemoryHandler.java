@@ -0,0 +1,290 @@
+package edu.washington.escience.myria.parallel.ipc;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.jboss.netty.channel.ChannelHandlerContext;
+import org.jboss.netty.channel.ChannelStateEvent;
+import org.jboss.netty.channel.Channels;
+import org.jboss.netty.channel.MessageEvent;
+import org.jboss.netty.channel.SimpleChannelHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sends the large data frames of a remote IPC channel through a shared-memory ring when the peer runs on the same
+ * host, so that their bytes do not go through the loopback socket.
+ *
+ * The peer is co-located if its address in the {@link IPCConnectionPool} has the same host as the address of this
+ * side, which is checked when the peer's CONNECT message is received. The first time a data frame of at least
+ * {@link #MIN_SHARED_FRAME_BYTES} bytes is sent to a co-located peer, this side creates a {@link SharedMemoryRing} in
+ * <code>/dev/shm</code>, or in the temporary directory if there is no <code>/dev/shm</code>, and tells the peer where
+ * it is with a {@link IPCMessage.Header#SHARED_MEMORY_RING} message. The peer only opens a ring file directly in its
+ * own ring directory, and only if it also sees this side as co-located, and it answers with a
+ * {@link IPCMessage.Header#SHARED_MEMORY_RING_ACK} message. Frames are sent through the channel until the peer has
+ * opened the ring, and for good if it could not. Then each such frame is copied into the ring and only a
+ * {@link IPCMessage.Header#SHARED_MEMORY_DATA} message with its position and length goes through the channel. Each time
+ * the peer has consumed half of the ring, it gives the bytes back with a
+ * {@link IPCMessage.Header#SHARED_MEMORY_CONSUMED} message. Frames that do not fit in the free space of the ring are
+ * sent through the channel as they are. Since every frame still has a message in the channel, the order of messages,
+ * the stream semantics and the lifetime of the connection are those of the channel. The rings are closed and their
+ * files deleted when the channel is closed.
+ *
+ * There is one handler per channel. It sits between the frame encoder and the {@link CompressionHandler}, so that
+ * compressed frames are also shared.
+ * */
+public final class SharedMemoryHandler extends SimpleChannelHandler {
+
+  /** The logger for this class. */
+  private static final Logger LOGGER = LoggerFactory.getLogger(SharedMemoryHandler.class);
+
+  /** Frames smaller than this many bytes are sent through the channel. */
+  static final int MIN_SHARED_FRAME_BYTES = 1024;
+  /** The bytes of a SHARED_MEMORY_DATA message: header, position and length. */
+  private static final int SHARED_DATA_BYTES = 1 + Long.SIZE / Byte.SIZE + Integer.SIZE / Byte.SIZE;
+  /** The bytes of a SHARED_MEMORY_RING_ACK message: header and whether the ring was opened. */
+  private static final int RING_ACK_BYTES = 2;
+  /** The bytes of a SHARED_MEMORY_CONSUMED message: header and position. */
+  private static final int CONSUMED_BYTES = 1 + Long.SIZE / Byte.SIZE;
+  /** The bytes of a CONNECT message without the appended bytes: header and remote ID. */
+  private static final int CONNECT_BYTES = 1 + Integer.SIZE / Byte.SIZE;
+  /** The directory of shared memory on Linux. */
+  private static final File SHARED_MEMORY_DIRECTORY = new File("/dev/shm");
+
+  /** The owner connection pool, which knows the addresses of the peers. */
+  private final IPCConnectionPool pool;
+  /** The number of bytes of the ring of a channel, 0 or negative to never share frames. */
+  private final int ringBytes;
+  /** The directory of the ring files. */
+  private final File directory;
+  /** Whether the peer runs on the same host. */
+  private volatile boolean colocated = false;
+  /** The ring through which frames are sent, created lazily. Guarded by this. */
+  private SharedMemoryRing sendRing = null;
+  /** Whether the peer has opened {@link #sendRing}. Guarded by this. */
+  private boolean sendRingOpened = false;
+  /**
+   * Whether the ring could not be created or opened by the peer, in which case frames are sent through the channel.
+   * Guarded by this.
+   */
+  private boolean sendRingFailed = false;
+  /** The ring through which frames are received, once the peer has opened it. */
+  private SharedMemoryRing receiveRing = null;
+  /** The position up to which {@link #receiveRing} has been consumed. */
+  private long receivedPosition = 0;
+  /** The position up to which the bytes of {@link #receiveRing} have been given back to the peer. */
+  private long releasedPosition = 0;
+
+  /**
+   * @param pool the owner connection pool.
+   * @param ringBytes the number of bytes of the ring of a channel, 0 or negative to never share frames.
+   * */
+  public SharedMemoryHandler(final IPCConnectionPool pool, final int ringBytes) {
+    this(pool, ringBytes, defaultDirectory());
+  }
+
+  /**
+   * @param pool the owner connection pool, may be null if the peer is set as co-located by {@link #setColocated}.
+   * @param ringBytes the number of bytes of the ring of a channel, 0 or negative to never share frames.
+   * @param directory the directory of the ring files.
+   * */
+  SharedMemoryHandler(final IPCConnectionPool pool, final int ringBytes, final File directory) {
+    this.pool = pool;
+    this.ringBytes = ringBytes;
+    this.directory = directory;
+  }
+
+  /** @return <code>/dev/shm</code> if it can be written, or else the temporary directory. */
+  private static File defaultDirectory() {
+    if (SHARED_MEMORY_DIRECTORY.isDirectory() && SHARED_MEMORY_DIRECTORY.canWrite()) {
+      return SHARED_MEMORY_DIRECTORY;
+    }
+    return new File(System.getProperty("java.io.tmpdir"));
+  }
+
+  /** @param colocated whether the peer runs on the same host. */
+  void setColocated(final boolean colocated) {
+    this.colocated = colocated;
+  }
+
+  @Override
+  public void writeRequested(final ChannelHandlerContext ctx, final MessageEvent e)
+      throws Exception {
+    if (!colocated || !(e.getMessage() instanceof ChannelBuffer)) {
+      ctx.sendDownstream(e);
+      return;
+    }
+    final ChannelBuffer frame = (ChannelBuffer) e.getMessage();
+    final int length = frame.readableBytes();
+    final byte header = frame.getByte(frame.readerIndex());
+    if (length < MIN_SHARED_FRAME_BYTES
+        || length > ringBytes
+        || (header != IPCMessage.Header.DATA.ordinal()
+            && header != IPCMessage.Header.COMPRESSED_DATA.ordinal())) {
+      ctx.sendDownstream(e);
+      return;
+    }
+    /* Frames are written into the ring in the order of their messages in the channel. */
+    synchronized (this) {
+      final SharedMemoryRing ring = getSendRing(ctx);
+      final long position = ring == null ? -1 : ring.write(frame);
+      if (position < 0) {
+        ctx.sendDownstream(e);
+        return;
+      }
+      final ChannelBuffer shared = ChannelBuffers.buffer(SHARED_DATA_BYTES);
+      shared.writeByte(IPCMessage.Header.SHARED_MEMORY_DATA.ordinal());
+      shared.writeLong(position);
+      shared.writeInt(length);
+      Channels.write(ctx, e.getFuture(), shared, e.getRemoteAddress());
+    }
+  }
+
+  /**
+   * Create the ring and tell the peer where it is, if not already done. Guarded by this.
+   *
+   * @param ctx the context of this handler.
+   * @return the ring, or null if it cannot be created or the peer has not opened it.
+   * */
+  private SharedMemoryRing getSendRing(final ChannelHandlerContext ctx) {
+    if (sendRing == null && !sendRingFailed) {
+      try {
+        sendRing = SharedMemoryRing.create(directory, ringBytes);
+      } catch (IOException ex) {
+        LOGGER.warn("Cannot create a shared-memory ring in " + directory, ex);
+        sendRingFailed = true;
+        return null;
+      }
+      final byte[] path = sendRing.getPath().getBytes(StandardCharsets.UTF_8);
+      final ChannelBuffer open = ChannelBuffers.buffer(1 + Integer.SIZE / Byte.SIZE + path.length);
+      open.writeByte(IPCMessage.Header.SHARED_MEMORY_RING.ordinal());
+      open.writeInt(ringBytes);
+      open.writeBytes(path);
+      Channels.write(ctx, Channels.future(ctx.getChannel()), open);
+    }
+    return sendRingOpened ? sendRing : null;
+  }
+
+  /**
+   * Open a ring offered by the peer, if it is a ring file in the ring directory of this side and the peer runs on the
+   * same host.
+   *
+   * @param path the path of the ring file.
+   * @param capacity the number of bytes of the ring.
+   * @return the ring, or null if it is refused or cannot be opened.
+   * */
+  private SharedMemoryRing openReceiveRing(final String path, final int capacity) {
+    if (!colocated || capacity <= 0 || capacity > ringBytes) {
+      LOGGER.warn(
+          "Refused the shared-memory ring {} of {} bytes: the peer is not co-located, or the ring is not "
+              + "between 1 and {} bytes",
+          path,
+          capacity,
+          ringBytes);
+      return null;
+    }
+    try {
+      final File file = new File(path).getCanonicalFile();
+      final String name = file.getName();
+      if (!directory.getCanonicalFile().equals(file.getParentFile())
+          || !name.startsWith(SharedMemoryRing.FILE_PREFIX)
+          || !name.endsWith(SharedMemoryRing.FILE_SUFFIX)) {
+        LOGGER.warn(
+            "Refused the shared-memory ring {}, which is not a ring file in {}", path, directory);
+        return null;
+      }
+      return SharedMemoryRing.open(file.getPath(), capacity);
+    } catch (IOException ex) {
+      LOGGER.warn("Cannot open the shared-memory ring " + path, ex);
+      return null;
+    }
+  }
+
+  @Override
+  public void messageReceived(final ChannelHandlerContext ctx, final MessageEvent e)
+      throws Exception {
+    if (!(e.getMessage() instanceof ChannelBuffer)) {
+      ctx.sendUpstream(e);
+      return;
+    }
+    final ChannelBuffer frame = (ChannelBuffer) e.getMessage();
+    final byte header = frame.getByte(frame.readerIndex());
+    if (header == IPCMessage.Header.SHARED_MEMORY_DATA.ordinal()) {
+      if (receiveRing == null) {
+        throw new IllegalStateException("Shared-memory frame received before the ring");
+      }
+      final long position = frame.getLong(frame.readerIndex() + 1);
+      final int length = frame.getInt(frame.readerIndex() + 1 + Long.SIZE / Byte.SIZE);
+      final int capacity = receiveRing.capacity();
+      Channels.fireMessageReceived(ctx, receiveRing.read(position, length), e.getRemoteAddress());
+      receivedPosition = position + length;
+      if (receivedPosition - releasedPosition >= capacity / 2) {
+        final ChannelBuffer consumed = ChannelBuffers.buffer(CONSUMED_BYTES);
+        consumed.writeByte(IPCMessage.Header.SHARED_MEMORY_CONSUMED.ordinal());
+        consumed.writeLong(receivedPosition);
+        Channels.write(ctx, Channels.future(ctx.getChannel()), consumed);
+        releasedPosition = receivedPosition;
+      }
+      return;
+    }
+    if (header == IPCMessage.Header.SHARED_MEMORY_CONSUMED.ordinal()) {
+      synchronized (this) {
+        if (sendRing != null) {
+          sendRing.consumed(frame.getLong(frame.readerIndex() + 1));
+        }
+      }
+      return;
+    }
+    if (header == IPCMessage.Header.SHARED_MEMORY_RING.ordinal()) {
+      frame.skipBytes(1);
+      final int capacity = frame.readInt();
+      receiveRing = openReceiveRing(frame.toString(StandardCharsets.UTF_8), capacity);
+      final ChannelBuffer ack = ChannelBuffers.buffer(RING_ACK_BYTES);
+      ack.writeByte(IPCMessage.Header.SHARED_MEMORY_RING_ACK.ordinal());
+      ack.writeByte(receiveRing == null ? 0 : 1);
+      Channels.write(ctx, Channels.future(ctx.getChannel()), ack);
+      return;
+    }
+    if (header == IPCMessage.Header.SHARED_MEMORY_RING_ACK.ordinal()) {
+      synchronized (this) {
+        if (sendRing != null && frame.getByte(frame.readerIndex() + 1) != 0) {
+          sendRingOpened = true;
+        } else if (sendRing != null) {
+          LOGGER.warn(
+              "The peer could not open the shared-memory ring, sending frames through the channel");
+          sendRing.close();
+          sendRing = null;
+          sendRingFailed = true;
+        }
+      }
+      return;
+    }
+    if (header == IPCMessage.Header.CONNECT.ordinal()
+        && frame.readableBytes() >= CONNECT_BYTES
+        && pool != null
+        && ringBytes > 0) {
+      colocated = pool.isColocated(frame.getInt(frame.readerIndex() + 1));
+    }
+    ctx.sendUpstream(e);
+  }
+
+  @Override
+  public void channelClosed(final ChannelHandlerContext ctx, final ChannelStateEvent e)
+      throws Exception {
+    synchronized (this) {
+      if (sendRing != null) {
+        sendRing.close();
+        sendRing = null;
+        sendRingFailed = true;
+      }
+    }
+    if (receiveRing != null) {
+      receiveRing.close();
+      receiveRing = null;
+    }
+    super.channelClosed(ctx, e);
+  }
+}
@@ -0,0 +1,191 @@
+package edu.washington.escience.myria.parallel.ipc;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+
+/**
+ * A ring buffer in a memory-mapped file, through which one side of a channel sends frames to the other side when both
+ * run on the same host, see {@link SharedMemoryHandler}.
+ *
+ * The file holds the {@link #capacity()} bytes of the ring. Positions only grow, and the frame at position
+ * <code>p</code> starts at byte <code>p % capacity</code> of the ring and may wrap around its end. The writer owns the
+ * write position and tells the reader the position of each frame through the channel, so the reader only ever reads
+ * frames that have been written, in the order they were written. In the same way, the reader tells the writer through
+ * the channel up to which position it has consumed the ring, see {@link #consumed(long)}. Both positions are thus
+ * ordered with the bytes of the ring by the channel, and no memory fence on the mapped file is needed. A stale consumed
+ * position only makes the writer see less free space.
+ *
+ * Only one thread may write and only one thread may read at a time.
+ * */
+final class SharedMemoryRing {
+
+  /** The prefix of the names of ring files. */
+  static final String FILE_PREFIX = "myria-ipc-";
+  /** The suffix of the names of ring files. */
+  static final String FILE_SUFFIX = ".ring";
+
+  /** The mapped file. */
+  private final File file;
+  /** The mapped file content, null once closed. */
+  private MappedByteBuffer buffer;
+  /** The number of bytes of the ring. */
+  private final int capacity;
+  /** The position of the next written frame, on the writer side. */
+  private long writePosition = 0;
+  /** The position up to which the reader has consumed the ring, on the writer side. */
+  private volatile long consumedPosition = 0;
+
+  /**
+   * @param file the mapped file
+   * @param buffer the mapped file content
+   * @param capacity the number of bytes of the ring
+   */
+  private SharedMemoryRing(final File file, final MappedByteBuffer buffer, final int capacity) {
+    this.file = file;
+    this.buffer = buffer;
+    this.capacity = capacity;
+  }
+
+  /**
+   * @param file a file
+   * @param capacity the number of bytes of the ring
+   * @return the file content, mapped
+   * @throws IOException if the file cannot be mapped
+   */
+  private static MappedByteBuffer map(final File file, final int capacity) throws IOException {
+    try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+      raf.setLength(capacity);
+      return raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+  }
+
+  /**
+   * Create a new ring, on the writer side.
+   *
+   * @param directory the directory of the file
+   * @param capacity the number of bytes of the ring
+   * @return the ring
+   * @throws IOException if the file cannot be created
+   */
+  static SharedMemoryRing create(final File directory, final int capacity) throws IOException {
+    final File file = File.createTempFile(FILE_PREFIX, FILE_SUFFIX, directory);
+    try {
+      return new SharedMemoryRing(file, map(file, capacity), capacity);
+    } catch (IOException e) {
+      file.delete();
+      throw e;
+    }
+  }
+
+  /**
+   * Open a ring created by the writer, on the reader side. The file is deleted once mapped, since the mapping stays
+   * valid.
+   *
+   * @param path the path of the file
+   * @param capacity the number of bytes of the ring
+   * @return the ring
+   * @throws IOException if the file cannot be mapped
+   */
+  static SharedMemoryRing open(final String path, final int capacity) throws IOException {
+    final File file = new File(path);
+    if (file.length() != capacity) {
+      throw new IOException("Ring file " + path + " does not have " + capacity + " bytes");
+    }
+    final SharedMemoryRing ring = new SharedMemoryRing(file, map(file, capacity), capacity);
+    file.delete();
+    return ring;
+  }
+
+  /** @return the path of the file. */
+  String getPath() {
+    return file.getPath();
+  }
+
+  /** @return the number of bytes of the ring. */
+  int capacity() {
+    return capacity;
+  }
+
+  /**
+   * @param ring a view of the mapped file
+   * @param offset an offset in the ring
+   * @param length the number of bytes from the offset, not past the end of the ring
+   * @return the view, limited to the bytes
+   */
+  private static ByteBuffer slice(final ByteBuffer ring, final int offset, final int length) {
+    ring.limit(offset + length);
+    ring.position(offset);
+    return ring;
+  }
+
+  /**
+   * Copy a frame into the ring, on the writer side.
+   *
+   * @param frame the frame
+   * @return the position of the frame, or -1 if the ring does not have enough free space
+   */
+  long write(final ChannelBuffer frame) {
+    final int length = frame.readableBytes();
+    if (length > capacity - (writePosition - consumedPosition)) {
+      return -1;
+    }
+    final int offset = (int) (writePosition % capacity);
+    final int first = Math.min(length, capacity - offset);
+    final ByteBuffer ring = buffer.duplicate();
+    frame.getBytes(frame.readerIndex(), slice(ring, offset, first));
+    if (first < length) {
+      frame.getBytes(frame.readerIndex() + first, slice(ring, 0, length - first));
+    }
+    final long position = writePosition;
+    writePosition += length;
+    return position;
+  }
+
+  /**
+   * Give the bytes of the ring before a position back to the writer, once the reader has told it that it consumed them.
+   * On the writer side.
+   *
+   * @param position the position up to which the reader has consumed the ring
+   */
+  void consumed(final long position) {
+    if (position > consumedPosition && position <= writePosition) {
+      consumedPosition = position;
+    }
+  }
+
+  /**
+   * Copy a frame out of the ring, on the reader side. Its bytes are only given back to the writer once it has been told
+   * so, see {@link #consumed(long)}.
+   *
+   * @param position the position of the frame
+   * @param length the length of the frame
+   * @return the frame
+   */
+  ChannelBuffer read(final long position, final int length) {
+    final byte[] bytes = new byte[length];
+    final int offset = (int) (position % capacity);
+    final int first = Math.min(length, capacity - offset);
+    final ByteBuffer ring = buffer.duplicate();
+    slice(ring, offset, first).get(bytes, 0, first);
+    if (first < length) {
+      slice(ring, 0, length - first).get(bytes, first, length - first);
+    }
+    return ChannelBuffers.wrappedBuffer(bytes);
+  }
+
+  /**
+   * Drop the mapping and delete the file, if the reader has not already. Java has no portable way to unmap a file, so
+   * the mapping is released once the buffer is garbage collected. The ring cannot be used anymore.
+   */
+  void close() {
+    buffer = null;
+    file.delete();
+  }
+}
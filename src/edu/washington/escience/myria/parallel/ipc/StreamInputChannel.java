@@ -1,6 +1,7 @@
 package edu.washington.escience.myria.parallel.ipc;
 
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.jboss.netty.channel.Channel;
 import org.jboss.netty.channel.ChannelFuture;
@@ -31,6 +32,11 @@ public class StreamInputChannel<PAYLOAD> extends StreamIOChannel {
    */
   private final AtomicBoolean paused = new AtomicBoolean(false);
 
+  /**
+   * The number of data messages consumed since credits were last granted to the output side of the stream.
+   */
+  private final AtomicInteger consumedSinceGrant = new AtomicInteger(0);
+
   /**
    * release this logical input channel.
    */
@@ -66,6 +72,23 @@ public class StreamInputChannel<PAYLOAD> extends StreamIOChannel {
     return inputBuffer;
   }
 
+  /**
+   * Record that a data message from this channel has been consumed, and grant the consumed messages back as credits to
+   * the output side of the stream once there are enough of them.
+   *
+   * @param grantThreshold the number of consumed messages to grant at once.
+   */
+  final void messageConsumed(final int grantThreshold) {
+    if (consumedSinceGrant.incrementAndGet() < grantThreshold) {
+      return;
+    }
+    final int granted = consumedSinceGrant.getAndSet(0);
+    final Channel ch = getIOChannel();
+    if (granted > 0 && ch != null && ch.isConnected()) {
+      ch.write(new IPCMessage.Meta.CREDIT(getID().getStreamID(), granted));
+    }
+  }
+
   /**
    * pause the read from this logical input channel, no matter the state of the underlying physical input channel.
    *
@@ -1,6 +1,8 @@
 package edu.washington.escience.myria.parallel.ipc;
 
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.jboss.netty.channel.Channel;
 import org.jboss.netty.channel.ChannelFuture;
@@ -14,6 +16,11 @@ import edu.washington.escience.myria.util.concurrent.ReentrantSpinLock;
  *
  * An {@link StreamOutputChannel} represents a partition of {@link Producer}.
  *
+ * If the streams of the owner pool are credit-based, the channel starts with
+ * {@link IPCConnectionPool#getChannelCredits()} credits, each data message written uses one, and the input side of the
+ * stream grants them back as it consumes the messages, see {@link IPCMessage.Meta.CREDIT}. The output is disabled while
+ * the channel has no credits left, in the same way as while the physical channel is not writable.
+ *
  * @param <PAYLOAD> the type of payload that this output channel will send.
  * */
 public class StreamOutputChannel<PAYLOAD> extends StreamIOChannel {
@@ -52,6 +59,27 @@ public class StreamOutputChannel<PAYLOAD> extends StreamIOChannel {
    * */
   private ChannelFuture releaseFuture = null;
 
+  /**
+   * The number of bytes of the serialized data messages written to remote channels.
+   * */
+  private final AtomicLong numBytesRaw = new AtomicLong();
+
+  /**
+   * The number of bytes actually sent for the data messages written to remote channels, after compression.
+   * */
+  private final AtomicLong numBytesCompressed = new AtomicLong();
+
+  /**
+   * If the stream is credit-based.
+   * */
+  private final boolean creditBased;
+
+  /**
+   * The number of data messages that may still be written, if the stream is credit-based. Negative if more messages
+   * have been written than granted, e.g., by a producer which does not check {@link #isWritable()}.
+   * */
+  private final AtomicInteger credits;
+
   /**
    * @param ecID stream output channel ID
    * @param ownerPool the owner of this output channel.
@@ -65,6 +93,8 @@ public class StreamOutputChannel<PAYLOAD> extends StreamIOChannel {
     outputDisableListeners = new ConcurrentLinkedQueue<IPCEventListener>();
     outputRecoverListeners = new ConcurrentLinkedQueue<IPCEventListener>();
     this.ownerPool = ownerPool;
+    creditBased = ownerPool.getChannelCredits() > 0;
+    credits = new AtomicInteger(ownerPool.getChannelCredits());
     ChannelContext.getChannelContext(initialPhysicalChannel)
         .getRegisteredChannelContext()
         .getIOPair()
@@ -75,9 +105,33 @@ public class StreamOutputChannel<PAYLOAD> extends StreamIOChannel {
    * Callback from the physical IO layer if the channel interest changed.
    * */
   final void channelInterestChangedCallback() {
+    checkOutputStateEvents();
+  }
+
+  /**
+   * Callback from the physical IO layer if the input side of the stream granted credits.
+   *
+   * @param granted the number of granted credits.
+   * */
+  final void creditsGrantedCallback(final int granted) {
+    credits.addAndGet(granted);
+    checkOutputStateEvents();
+  }
+
+  /**
+   * @return if the stream has credits left, or is not credit-based.
+   * */
+  private boolean hasCredits() {
+    return !creditBased || credits.get() > 0;
+  }
+
+  /**
+   * Fire an output disabled or an output recovered event if the output availability changed.
+   * */
+  private void checkOutputStateEvents() {
     Channel ch = getIOChannel();
     if (ch != null) {
-      boolean writable = ch.isWritable();
+      boolean writable = ch.isWritable() && hasCredits();
 
       eventSerializeLock.lock();
       try {
@@ -222,7 +276,11 @@ public class StreamOutputChannel<PAYLOAD> extends StreamIOChannel {
               getID(),
               ChannelContext.channelToString(ch));
         }
-        return ch.write(message);
+        final ChannelFuture future = ch.write(message);
+        if (creditBased && credits.decrementAndGet() <= 0) {
+          checkOutputStateEvents();
+        }
+        return future;
       } finally {
         this.ownerPool.getShutdownLock().readLock().unlock();
       }
@@ -243,10 +301,35 @@ public class StreamOutputChannel<PAYLOAD> extends StreamIOChannel {
   }
 
   /**
-   * @return If the output channel is writable.
+   * @return If the output channel is writable, and has credits left if the stream is credit-based.
    * */
   public final boolean isWritable() {
     Channel ch = getIOChannel();
-    return ch != null && ch.isWritable();
+    return ch != null && ch.isWritable() && hasCredits();
+  }
+
+  /**
+   * Record a data message written to a remote channel.
+   *
+   * @param raw the number of bytes of the serialized message.
+   * @param compressed the number of bytes sent for the message, after compression.
+   * */
+  final void recordDataWritten(final long raw, final long compressed) {
+    numBytesRaw.addAndGet(raw);
+    numBytesCompressed.addAndGet(compressed);
+  }
+
+  /**
+   * @return the number of bytes of the serialized data messages written to remote channels.
+   * */
+  public final long getNumBytesRaw() {
+    return numBytesRaw.get();
+  }
+
+  /**
+   * @return the number of bytes actually sent for the data messages written to remote channels, after compression.
+   * */
+  public final long getNumBytesCompressed() {
+    return numBytesCompressed.get();
   }
 }
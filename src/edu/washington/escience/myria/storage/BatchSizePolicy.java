@@ -0,0 +1,117 @@
+package edu.washington.escience.myria.storage;
+
+import com.google.common.base.Preconditions;
+
+import edu.washington.escience.myria.MyriaConstants;
+import edu.washington.escience.myria.Schema;
+import edu.washington.escience.myria.Type;
+
+/**
+ * Decides how many tuples a batch of a schema holds. Batches target a number of bytes rather than a number of tuples,
+ * so that batches of wide rows, e.g., of many or long strings, stay within the CPU caches and the network buffers,
+ * while batches of narrow rows may hold more tuples to spread the per-batch costs, up to {@link #getMaxBatchSize()}.
+ *
+ * The width of a row is estimated as in {@link TupleUtils#estimateSize}, with strings of
+ * {@link #ASSUMED_STRING_LENGTH} characters unless their length has been observed. Schemas with blobs have batches of
+ * one tuple, as before.
+ *
+ * The policy of the process is set by {@link TupleUtils#setBatchSizePolicy}, e.g., by the worker from its
+ * configuration.
+ */
+public final class BatchSizePolicy {
+  /** The default number of bytes of a batch. */
+  public static final int DEFAULT_TARGET_BYTES = 4 * MyriaConstants.MB;
+  /** The default maximum number of tuples of a batch, which is also the capacity of column builders. */
+  public static final int DEFAULT_MAX_BATCH_SIZE = 10 * 1000;
+  /** The minimum number of tuples of a batch of a schema without blobs. */
+  public static final int MIN_BATCH_SIZE = 64;
+  /** The number of characters of a string whose length has not been observed. */
+  public static final int ASSUMED_STRING_LENGTH = 16;
+
+  /** The number of bytes of a batch. */
+  private final int targetBytes;
+  /** The maximum number of tuples of a batch. */
+  private final int maxBatchSize;
+
+  /**
+   * @param targetBytes the number of bytes of a batch.
+   * @param maxBatchSize the maximum number of tuples of a batch, at least {@link #MIN_BATCH_SIZE}.
+   */
+  public BatchSizePolicy(final int targetBytes, final int maxBatchSize) {
+    Preconditions.checkArgument(targetBytes > 0, "targetBytes must be > 0");
+    Preconditions.checkArgument(
+        maxBatchSize >= MIN_BATCH_SIZE, "maxBatchSize must be at least %s", MIN_BATCH_SIZE);
+    this.targetBytes = targetBytes;
+    this.maxBatchSize = maxBatchSize;
+  }
+
+  /** @return the policy with the default target and maximum. */
+  public static BatchSizePolicy defaultPolicy() {
+    return new BatchSizePolicy(DEFAULT_TARGET_BYTES, DEFAULT_MAX_BATCH_SIZE);
+  }
+
+  /** @return the number of bytes of a batch. */
+  public int getTargetBytes() {
+    return targetBytes;
+  }
+
+  /** @return the maximum number of tuples of a batch. */
+  public int getMaxBatchSize() {
+    return maxBatchSize;
+  }
+
+  /**
+   * @param type a column type
+   * @param stringLength the average number of characters of the strings
+   * @return the estimated bytes of a value of the type
+   */
+  private static double valueBytes(final Type type, final double stringLength) {
+    switch (type) {
+      case BOOLEAN_TYPE:
+        return 1;
+      case INT_TYPE:
+      case FLOAT_TYPE:
+        return 4;
+      case LONG_TYPE:
+      case DOUBLE_TYPE:
+        return 8;
+      case STRING_TYPE:
+        return TupleUtils.OBJECT_OVERHEAD + 2 * stringLength;
+      default:
+        return TupleUtils.OBJECT_OVERHEAD;
+    }
+  }
+
+  /**
+   * @param schema a schema
+   * @return the number of tuples of a batch of the schema, assuming strings of {@link #ASSUMED_STRING_LENGTH}
+   *         characters.
+   */
+  public int getBatchSize(final Schema schema) {
+    return getBatchSize(schema, ASSUMED_STRING_LENGTH);
+  }
+
+  /**
+   * @param schema a schema
+   * @param stringLength the average number of characters of the strings of the schema
+   * @return the number of tuples of a batch of the schema
+   */
+  public int getBatchSize(final Schema schema, final double stringLength) {
+    double rowBytes = 0;
+    for (Type type : schema.getColumnTypes()) {
+      if (type == Type.BLOB_TYPE) {
+        return 1;
+      }
+      rowBytes += valueBytes(type, stringLength);
+    }
+    if (rowBytes * maxBatchSize <= targetBytes) {
+      return maxBatchSize;
+    }
+    return (int) Math.max(MIN_BATCH_SIZE, targetBytes / rowBytes);
+  }
+
+  @Override
+  public String toString() {
+    return "BatchSizePolicy(" + targetBytes + " bytes, at most " + maxBatchSize + " tuples)";
+  }
+}
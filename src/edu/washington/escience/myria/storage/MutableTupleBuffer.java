@@ -9,10 +9,13 @@ import java.util.Objects;
 import org.joda.time.DateTime;
 
 import com.google.common.base.Preconditions;
+import com.gs.collections.impl.list.mutable.primitive.IntArrayList;
 
 import edu.washington.escience.myria.Schema;
 import edu.washington.escience.myria.Type;
 import edu.washington.escience.myria.column.Column;
+import edu.washington.escience.myria.column.DictionaryStringColumn;
+import edu.washington.escience.myria.column.StringDictionary;
 import edu.washington.escience.myria.column.builder.ColumnBuilder;
 import edu.washington.escience.myria.column.builder.ColumnFactory;
 import edu.washington.escience.myria.column.builder.WritableColumn;
@@ -37,6 +40,13 @@ public class MutableTupleBuffer implements ReadableTable, AppendableTable, Clone
   private int currentInProgressTuples;
   /** Batch Size. */
   private int batchSize;
+  /** For each String column, the dictionary of the codes in {@link #stringCodes}, set by the first code put. */
+  private StringDictionary[] dictionaries;
+  /**
+   * For each String column, the code in its dictionary of the value of each row put from a
+   * {@link DictionaryStringColumn}, -1 for the other rows. Null until such a row is put.
+   */
+  private IntArrayList[] stringCodes;
 
   /**
    * @return batchSize for the tuple batch.
@@ -60,17 +70,33 @@ public class MutableTupleBuffer implements ReadableTable, AppendableTable, Clone
     numColumnsReady = 0;
     currentInProgressTuples = 0;
     batchSize = TupleUtils.getBatchSize(schema);
+    dictionaries = new StringDictionary[numColumns];
+    stringCodes = new IntArrayList[numColumns];
   }
 
   /**
-   * clear this TBB.
+   * clear this TBB, returning the storage of its columns to the
+   * {@link edu.washington.escience.myria.column.builder.PrimitiveArrayPool}. The columns of the batches returned by
+   * {@link #getAll()} are copies, so they stay valid.
    */
   public final void clear() {
+    for (MutableColumn<?>[] columns : readyTuples) {
+      for (MutableColumn<?> column : columns) {
+        column.release();
+      }
+    }
+    if (currentBuildingColumns != null) {
+      for (ColumnBuilder<?> builder : currentBuildingColumns) {
+        builder.release();
+      }
+    }
     columnsReady.clear();
     currentBuildingColumns = null;
     currentInProgressTuples = 0;
     numColumnsReady = 0;
     readyTuples.clear();
+    dictionaries = new StringDictionary[numColumns];
+    stringCodes = new IntArrayList[numColumns];
   }
 
   /**
@@ -257,6 +283,7 @@ public class MutableTupleBuffer implements ReadableTable, AppendableTable, Clone
 
   /**
    * Append the specified value to the specified destination column in this TupleBatchBuffer from the source column.
+   * The codes of values put from a {@link DictionaryStringColumn} are kept, see {@link #getStringCode}.
    *
    * @param destColumn which column in this TB the value will be inserted.
    * @param sourceColumn the column from which data will be retrieved.
@@ -264,9 +291,62 @@ public class MutableTupleBuffer implements ReadableTable, AppendableTable, Clone
    */
   public final void put(
       final int destColumn, final ReadableColumn sourceColumn, final int sourceRow) {
+    if (sourceColumn instanceof DictionaryStringColumn) {
+      putCode(destColumn, numTuples(), (DictionaryStringColumn) sourceColumn, sourceRow);
+    }
     TupleUtils.copyValue(sourceColumn, sourceRow, this, destColumn);
   }
 
+  /**
+   * Keep the code of a value put from a {@link DictionaryStringColumn}. Only the codes of the first dictionary put
+   * into a column are kept.
+   *
+   * @param column the column of the value in this buffer
+   * @param row the row of the value in this buffer
+   * @param sourceColumn the column the value is put from
+   * @param sourceRow the row the value is put from
+   */
+  private void putCode(
+      final int column,
+      final int row,
+      final DictionaryStringColumn sourceColumn,
+      final int sourceRow) {
+    if (stringCodes[column] == null) {
+      dictionaries[column] = sourceColumn.getDictionary();
+      stringCodes[column] = new IntArrayList();
+    } else if (dictionaries[column] != sourceColumn.getDictionary()) {
+      return;
+    }
+    final IntArrayList codes = stringCodes[column];
+    while (codes.size() <= row) {
+      codes.add(-1);
+    }
+    codes.set(row, sourceColumn.getCode(sourceRow));
+  }
+
+  /**
+   * Returns the code of a String value in a dictionary, if the value was put from a {@link DictionaryStringColumn} of
+   * that dictionary. A code is only returned while the row holds the dictionary's own instance of the value, so a
+   * value replaced through any path, including {@link #getColumn}, is never matched by a stale code.
+   *
+   * @param column the column of the value
+   * @param row the row of the value
+   * @param dictionary a dictionary
+   * @return the code of the value in the dictionary, or -1 if it is not known
+   */
+  public final int getStringCode(
+      final int column, final int row, final StringDictionary dictionary) {
+    final IntArrayList codes = stringCodes[column];
+    if (codes == null || dictionaries[column] != dictionary || row >= codes.size()) {
+      return -1;
+    }
+    final int code = codes.get(row);
+    if (code < 0 || dictionary.decode(code) != getString(column, row)) {
+      return -1;
+    }
+    return code;
+  }
+
   /**
    * Swap the specified values from sourceRow to destRow in this TupleBuffer from the given column.
    *
@@ -466,6 +546,9 @@ public class MutableTupleBuffer implements ReadableTable, AppendableTable, Clone
         dest.replaceLong(sourceColumn.getLong(sourceRow), tupleIndex);
         break;
       case STRING_TYPE:
+        if (sourceColumn instanceof DictionaryStringColumn) {
+          putCode(destColumn, destRow, (DictionaryStringColumn) sourceColumn, sourceRow);
+        }
         dest.replaceString(sourceColumn.getString(sourceRow), tupleIndex);
         break;
       case BLOB_TYPE:
@@ -494,6 +577,68 @@ public class MutableTupleBuffer implements ReadableTable, AppendableTable, Clone
     return output;
   }
 
+  /**
+   * Copy the given rows, in the given order, into a new batch. The batch is built one column at a time so the type of
+   * each column is looked up once rather than once per value.
+   *
+   * @param rows row indices into this buffer
+   * @param from the first element of <code>rows</code> to copy
+   * @param to one past the last element of <code>rows</code> to copy, at most a batch after <code>from</code>
+   * @return a batch of the given rows
+   */
+  public final TupleBatch gather(final int[] rows, final int from, final int to) {
+    Preconditions.checkPositionIndexes(from, to, rows.length);
+    Preconditions.checkArgument(to - from <= batchSize, "cannot gather more than a batch");
+    List<Column<?>> columns = new ArrayList<Column<?>>(numColumns);
+    for (int column = 0; column < numColumns; ++column) {
+      ColumnBuilder<?> builder = ColumnFactory.allocateColumn(schema.getColumnType(column));
+      switch (schema.getColumnType(column)) {
+        case BOOLEAN_TYPE:
+          for (int i = from; i < to; ++i) {
+            builder.appendBoolean(getBoolean(column, rows[i]));
+          }
+          break;
+        case DATETIME_TYPE:
+          for (int i = from; i < to; ++i) {
+            builder.appendDateTime(getDateTime(column, rows[i]));
+          }
+          break;
+        case DOUBLE_TYPE:
+          for (int i = from; i < to; ++i) {
+            builder.appendDouble(getDouble(column, rows[i]));
+          }
+          break;
+        case FLOAT_TYPE:
+          for (int i = from; i < to; ++i) {
+            builder.appendFloat(getFloat(column, rows[i]));
+          }
+          break;
+        case INT_TYPE:
+          for (int i = from; i < to; ++i) {
+            builder.appendInt(getInt(column, rows[i]));
+          }
+          break;
+        case LONG_TYPE:
+          for (int i = from; i < to; ++i) {
+            builder.appendLong(getLong(column, rows[i]));
+          }
+          break;
+        case STRING_TYPE:
+          for (int i = from; i < to; ++i) {
+            builder.appendString(getString(column, rows[i]));
+          }
+          break;
+        case BLOB_TYPE:
+          for (int i = from; i < to; ++i) {
+            builder.appendBlob(getBlob(column, rows[i]));
+          }
+          break;
+      }
+      columns.add(builder.build());
+    }
+    return new TupleBatch(schema, columns, to - from);
+  }
+
   /**
    * Build the in progress columns. The builders' states are untouched. They can keep building.
    *
@@ -520,7 +665,14 @@ public class MutableTupleBuffer implements ReadableTable, AppendableTable, Clone
       }
       ret.readyTuples.add(tmp);
     }
+    for (int i = 0; i < numColumns; ++i) {
+      if (stringCodes[i] != null) {
+        ret.dictionaries[i] = dictionaries[i];
+        ret.stringCodes[i] = new IntArrayList(stringCodes[i].toArray());
+      }
+    }
     for (int i = 0; i < currentBuildingColumns.length; ++i) {
+      ret.currentBuildingColumns[i].release();
       ret.currentBuildingColumns[i] = currentBuildingColumns[i].forkNewBuilder();
     }
     return ret;
@@ -312,6 +312,17 @@ public class TupleBatch implements ReadableTable, Serializable {
     return columns;
   }
 
+  /**
+   * Return the storage of the columns of this batch to the
+   * {@link edu.washington.escience.myria.column.builder.PrimitiveArrayPool}. Only the sole owner of the batch may call
+   * this: neither the batch nor its columns may be used afterwards, including through other batches that share them.
+   */
+  public final void release() {
+    for (Column<?> column : columns) {
+      column.release();
+    }
+  }
+
   /** @return a TransportMessage encoding the TupleBatch. */
   public final TransportMessage toTransportMessage() {
     return IPCUtils.normalDataMessage(columns, numTuples);
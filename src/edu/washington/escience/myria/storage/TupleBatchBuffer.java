@@ -9,10 +9,13 @@ import java.nio.ByteBuffer;
 import org.joda.time.DateTime;
 
 import com.google.common.base.Preconditions;
+import com.google.common.primitives.Ints;
 
 import edu.washington.escience.myria.MyriaConstants;
 import edu.washington.escience.myria.Schema;
+import edu.washington.escience.myria.Type;
 import edu.washington.escience.myria.column.Column;
+import edu.washington.escience.myria.column.StringDictionary;
 import edu.washington.escience.myria.column.builder.ColumnBuilder;
 import edu.washington.escience.myria.column.builder.ColumnFactory;
 import edu.washington.escience.myria.column.builder.WritableColumn;
@@ -29,7 +32,10 @@ public class TupleBatchBuffer implements AppendableTable {
   private final int numColumns;
   /** List of completed TupleBatch objects. */
   private final List<TupleBatch> readyTuples;
-  /** Internal state used to build up a TupleBatch. */
+  /**
+   * Internal state used to build up a TupleBatch. Null until a value is put after the last batch was built, so that an
+   * emptied buffer does not hold on to column storage.
+   */
   private List<ColumnBuilder<?>> currentBuildingColumns;
   /** Internal state representing which columns are ready in the current tuple. */
   private final BitSet columnsReady;
@@ -42,8 +48,14 @@ public class TupleBatchBuffer implements AppendableTable {
   private long lastPoppedTime;
   /** the total number of tuples in readyTuples. */
   private int readyTuplesNum;
-  /** BatchSize*/
+  /** BatchSize, adapted to the length of the strings of the built batches if the schema has strings. */
   private int batchSize;
+  /** The string columns of the schema. */
+  private final int[] stringColumns;
+  /** The number of rows of a built batch whose strings are measured to adapt the batch size. */
+  private static final int STRING_SAMPLES = 32;
+  /** The dictionary of each String column shared by all the built batches, null if Strings are stored as is. */
+  private final StringDictionary[] dictionaries;
 
   /**
    * Constructs an empty TupleBatchBuffer to hold tuples matching the specified Schema.
@@ -51,9 +63,23 @@ public class TupleBatchBuffer implements AppendableTable {
    * @param schema specified the columns of the emitted TupleBatch objects.
    */
   public TupleBatchBuffer(final Schema schema) {
+    this(schema, false);
+  }
+
+  /**
+   * Constructs an empty TupleBatchBuffer to hold tuples matching the specified Schema.
+   *
+   * @param schema specified the columns of the emitted TupleBatch objects.
+   * @param encodeStrings if true, the String columns of the emitted TupleBatch objects are
+   *          {@link edu.washington.escience.myria.column.DictionaryStringColumn}s that share a dictionary per column,
+   *          as long as the column has few distinct values. Scans use this so that joins and aggregates can compare
+   *          codes rather than Strings.
+   */
+  public TupleBatchBuffer(final Schema schema, final boolean encodeStrings) {
     this.schema = Objects.requireNonNull(schema);
+    dictionaries = encodeStrings ? ColumnFactory.allocateDictionaries(schema) : null;
     readyTuples = new LinkedList<TupleBatch>();
-    currentBuildingColumns = ColumnFactory.allocateColumns(schema);
+    currentBuildingColumns = null;
     numColumns = schema.numColumns();
     columnsReady = new BitSet(numColumns);
     numColumnsReady = 0;
@@ -61,6 +87,13 @@ public class TupleBatchBuffer implements AppendableTable {
     lastPoppedTime = System.nanoTime();
     readyTuplesNum = 0;
     batchSize = TupleUtils.getBatchSize(schema);
+    final List<Integer> strings = new ArrayList<>();
+    for (int i = 0; i < numColumns; ++i) {
+      if (schema.getColumnType(i) == Type.STRING_TYPE) {
+        strings.add(i);
+      }
+    }
+    stringColumns = Ints.toArray(strings);
   }
 
   public int getBatchSize() {
@@ -94,17 +127,38 @@ public class TupleBatchBuffer implements AppendableTable {
   }
 
   /**
-   * clear this TBB.
+   * clear this TBB. The storage of the tuples that have not been built into batches is returned to the
+   * {@link edu.washington.escience.myria.column.builder.PrimitiveArrayPool}.
    */
   public final void clear() {
     columnsReady.clear();
-    currentBuildingColumns.clear();
+    if (currentBuildingColumns != null) {
+      for (ColumnBuilder<?> cb : currentBuildingColumns) {
+        cb.release();
+      }
+      currentBuildingColumns = null;
+    }
     currentInProgressTuples = 0;
     numColumnsReady = 0;
     readyTuples.clear();
     readyTuplesNum = 0;
   }
 
+  /**
+   * @param column the index of a column.
+   * @return the builder of the column of the in-progress TupleBatch.
+   */
+  private ColumnBuilder<?> builder(final int column) {
+    if (currentBuildingColumns == null) {
+      if (dictionaries == null) {
+        currentBuildingColumns = ColumnFactory.allocateColumns(schema);
+      } else {
+        currentBuildingColumns = ColumnFactory.allocateColumns(schema, dictionaries);
+      }
+    }
+    return currentBuildingColumns.get(column);
+  }
+
   /**
    * Helper function to update the internal state after a value has been inserted into the specified column.
    *
@@ -143,15 +197,39 @@ public class TupleBatchBuffer implements AppendableTable {
     for (ColumnBuilder<?> cb : currentBuildingColumns) {
       buildingColumns.add(cb.build());
     }
-    readyTuples.add(new TupleBatch(schema, buildingColumns, currentInProgressTuples));
+    final TupleBatch batch = new TupleBatch(schema, buildingColumns, currentInProgressTuples);
+    readyTuples.add(batch);
 
     /* Update the metadata and refresh the building state. */
     readyTuplesNum += buildingColumns.get(0).size();
-    currentBuildingColumns = ColumnFactory.allocateColumns(schema);
+    currentBuildingColumns = null;
     currentInProgressTuples = 0;
+    if (stringColumns.length > 0) {
+      adaptBatchSize(batch);
+    }
     return true;
   }
 
+  /**
+   * Size the next batches by the average length of the strings of a sample of the rows of a built batch, so that
+   * batches of long strings hold fewer tuples. See {@link BatchSizePolicy}.
+   *
+   * @param batch the built batch.
+   */
+  private void adaptBatchSize(final TupleBatch batch) {
+    final int numTuples = batch.numTuples();
+    final int step = Math.max(1, numTuples / STRING_SAMPLES);
+    long chars = 0;
+    int numStrings = 0;
+    for (int row = 0; row < numTuples; row += step) {
+      for (int column : stringColumns) {
+        chars += batch.getString(column, row).length();
+        ++numStrings;
+      }
+    }
+    batchSize = TupleUtils.getBatchSizePolicy().getBatchSize(schema, (double) chars / numStrings);
+  }
+
   /**
    * Return all tuples in this buffer. The data do not get removed.
    *
@@ -314,7 +392,7 @@ public class TupleBatchBuffer implements AppendableTable {
   @Deprecated
   public final void put(final int column, final Object value) {
     checkPutIndex(column);
-    currentBuildingColumns.get(column).appendObject(value);
+    builder(column).appendObject(value);
     columnPut(column);
   }
 
@@ -336,16 +414,13 @@ public class TupleBatchBuffer implements AppendableTable {
       final int rightIdx,
       final int[] rightAnswerColumns) {
     for (int i = 0; i < leftAnswerColumns.length; ++i) {
-      TupleUtils.copyValue(
-          leftTb.getDataColumns().get(leftAnswerColumns[i]),
-          leftIdx,
-          currentBuildingColumns.get(i));
+      TupleUtils.copyValue(leftTb.getDataColumns().get(leftAnswerColumns[i]), leftIdx, builder(i));
     }
     for (int i = 0; i < rightAnswerColumns.length; ++i) {
       TupleUtils.copyValue(
           rightTb.getDataColumns().get(rightAnswerColumns[i]),
           rightIdx,
-          currentBuildingColumns.get(i + leftAnswerColumns.length));
+          builder(i + leftAnswerColumns.length));
     }
     currentInProgressTuples++;
     if (currentInProgressTuples == batchSize) {
@@ -377,6 +452,45 @@ public class TupleBatchBuffer implements AppendableTable {
     }
   }
 
+  /**
+   * Append some rows of the source {@link TupleBatch} to this {@link TupleBatchBuffer}, a column at a time.
+   *
+   * @param tb the source tuple batch.
+   * @param rows the row indices.
+   * @param offset the index in <code>rows</code> of the first row to append.
+   * @param count the number of rows to append.
+   */
+  public final void appendRows(
+      final TupleBatch tb, final int[] rows, final int offset, final int count) {
+    Preconditions.checkState(
+        numColumnsReady == 0, "need to fill up one row of TupleBatchBuffer before appending rows");
+    int appended = 0;
+    while (appended < count) {
+      final int n = Math.min(count - appended, batchSize - currentInProgressTuples);
+      for (int col = 0; col < numColumns; ++col) {
+        TupleUtils.copyValues(tb.asColumn(col), rows, offset + appended, n, builder(col));
+      }
+      appended += n;
+      currentInProgressTuples += n;
+      if (currentInProgressTuples == batchSize) {
+        finishBatch();
+      }
+    }
+  }
+
+  /**
+   * Append all the rows of the source {@link TupleBatch} to this {@link TupleBatchBuffer}, a column at a time.
+   *
+   * @param tb the source tuple batch.
+   */
+  public final void appendAll(final TupleBatch tb) {
+    final int[] rows = new int[tb.numTuples()];
+    for (int i = 0; i < rows.length; ++i) {
+      rows[i] = i;
+    }
+    appendRows(tb, rows, 0, rows.length);
+  }
+
   /**
    * Append the referenced value from the source {@link TupleBatch} to this {@link TupleBatchBuffer}.
    *
@@ -396,7 +510,8 @@ public class TupleBatchBuffer implements AppendableTable {
    * @param row the row index.
    */
   public final void append(final MutableTupleBuffer tuples, final int col, final int row) {
-    appendFromColumn(columnsReady.nextClearBit(0), tuples.getColumn(col, row), row % batchSize);
+    appendFromColumn(
+        columnsReady.nextClearBit(0), tuples.getColumn(col, row), tuples.getInColumnIndex(row));
   }
 
   /**
@@ -414,42 +529,42 @@ public class TupleBatchBuffer implements AppendableTable {
   @Override
   public final void putBoolean(final int column, final boolean value) {
     checkPutIndex(column);
-    currentBuildingColumns.get(column).appendBoolean(value);
+    builder(column).appendBoolean(value);
     columnPut(column);
   }
 
   @Override
   public final void putDateTime(final int column, final DateTime value) {
     checkPutIndex(column);
-    currentBuildingColumns.get(column).appendDateTime(value);
+    builder(column).appendDateTime(value);
     columnPut(column);
   }
 
   @Override
   public final void putDouble(final int column, final double value) {
     checkPutIndex(column);
-    currentBuildingColumns.get(column).appendDouble(value);
+    builder(column).appendDouble(value);
     columnPut(column);
   }
 
   @Override
   public final void putFloat(final int column, final float value) {
     checkPutIndex(column);
-    currentBuildingColumns.get(column).appendFloat(value);
+    builder(column).appendFloat(value);
     columnPut(column);
   }
 
   @Override
   public final void putInt(final int column, final int value) {
     checkPutIndex(column);
-    currentBuildingColumns.get(column).appendInt(value);
+    builder(column).appendInt(value);
     columnPut(column);
   }
 
   @Override
   public final void putLong(final int column, final long value) {
     checkPutIndex(column);
-    currentBuildingColumns.get(column).appendLong(value);
+    builder(column).appendLong(value);
     columnPut(column);
   }
 
@@ -457,21 +572,21 @@ public class TupleBatchBuffer implements AppendableTable {
   @Deprecated
   public void putObject(final int column, final Object value) {
     checkPutIndex(column);
-    currentBuildingColumns.get(column).appendObject(MyriaUtils.ensureObjectIsValidType(value));
+    builder(column).appendObject(MyriaUtils.ensureObjectIsValidType(value));
     columnPut(column);
   }
 
   @Override
   public final void putString(final int column, final String value) {
     checkPutIndex(column);
-    currentBuildingColumns.get(column).appendString(value);
+    builder(column).appendString(value);
     columnPut(column);
   }
 
   @Override
   public final void putBlob(final int column, final ByteBuffer value) {
     checkPutIndex(column);
-    currentBuildingColumns.get(column).appendBlob(value);
+    builder(column).appendBlob(value);
     columnPut(column);
   }
 
@@ -0,0 +1,488 @@
+package edu.washington.escience.myria.storage;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+
+import com.google.common.base.Preconditions;
+
+import edu.washington.escience.myria.Schema;
+import edu.washington.escience.myria.Type;
+
+/**
+ * Sorts the rows of a {@link ReadableTable} by some of its columns. The sort keys are first copied out of the table into
+ * primitive arrays (ints, longs, booleans and datetimes as longs, floats as doubles), so comparisons never switch on the
+ * column type or go through the table. A single int or long key is radix sorted. The sort is stable.
+ */
+public final class TupleSorter {
+  /** Ranges at most this long are sorted by insertion sort. */
+  private static final int INSERTION_SORT_THRESHOLD = 16;
+
+  /** The columns to sort by. */
+  private final int[] sortColumns;
+  /** True for each column that should be sorted ascending. */
+  private final boolean[] ascending;
+
+  /**
+   * @param sortColumns the columns to sort by
+   * @param ascending true for each column that should be sorted ascending
+   */
+  public TupleSorter(final int[] sortColumns, final boolean[] ascending) {
+    this.sortColumns = Objects.requireNonNull(sortColumns, "sortColumns");
+    this.ascending = Objects.requireNonNull(ascending, "ascending");
+    Preconditions.checkArgument(
+        sortColumns.length == ascending.length,
+        "sort columns number should be equal to ascending orders number");
+  }
+
+  /**
+   * The values of one sort column, copied out of the table.
+   */
+  private abstract static class SortKey {
+    /** 1 for ascending, -1 for descending. */
+    protected final int sign;
+
+    /** @param ascending whether this key sorts ascending */
+    SortKey(final boolean ascending) {
+      sign = ascending ? 1 : -1;
+    }
+
+    /**
+     * @param row a row
+     * @param otherRow another row
+     * @return the comparison of the two rows on this key, taking the sort direction into account
+     */
+    abstract int compare(int row, int otherRow);
+  }
+
+  /** A key of ints, longs, booleans or datetimes. */
+  private static final class LongKey extends SortKey {
+    /** The values. */
+    private final long[] values;
+
+    /**
+     * @param values the values
+     * @param ascending whether this key sorts ascending
+     */
+    LongKey(final long[] values, final boolean ascending) {
+      super(ascending);
+      this.values = values;
+    }
+
+    @Override
+    int compare(final int row, final int otherRow) {
+      return sign * Long.compare(values[row], values[otherRow]);
+    }
+  }
+
+  /** A key of floats or doubles. */
+  private static final class DoubleKey extends SortKey {
+    /** The values. */
+    private final double[] values;
+
+    /**
+     * @param values the values
+     * @param ascending whether this key sorts ascending
+     */
+    DoubleKey(final double[] values, final boolean ascending) {
+      super(ascending);
+      this.values = values;
+    }
+
+    @Override
+    int compare(final int row, final int otherRow) {
+      return sign * Double.compare(values[row], values[otherRow]);
+    }
+  }
+
+  /** A key of strings or blobs. */
+  private static final class ObjectKey<T extends Comparable<T>> extends SortKey {
+    /** The values. */
+    private final T[] values;
+
+    /**
+     * @param values the values
+     * @param ascending whether this key sorts ascending
+     */
+    ObjectKey(final T[] values, final boolean ascending) {
+      super(ascending);
+      this.values = values;
+    }
+
+    @Override
+    int compare(final int row, final int otherRow) {
+      return sign * values[row].compareTo(values[otherRow]);
+    }
+  }
+
+  /**
+   * @param table the table
+   * @param column the column to copy
+   * @param ascending whether the key sorts ascending
+   * @return the values of the column
+   */
+  private static SortKey extractKey(
+      final ReadableTable table, final int column, final boolean ascending) {
+    final int numTuples = table.numTuples();
+    final Type type = table.getSchema().getColumnType(column);
+    switch (type) {
+      case INT_TYPE:
+      case LONG_TYPE:
+      case BOOLEAN_TYPE:
+      case DATETIME_TYPE:
+        {
+          final long[] values = new long[numTuples];
+          for (int row = 0; row < numTuples; ++row) {
+            values[row] = getLongKey(table, type, column, row);
+          }
+          return new LongKey(values, ascending);
+        }
+      case FLOAT_TYPE:
+      case DOUBLE_TYPE:
+        {
+          final double[] values = new double[numTuples];
+          for (int row = 0; row < numTuples; ++row) {
+            values[row] =
+                type == Type.FLOAT_TYPE
+                    ? table.getFloat(column, row)
+                    : table.getDouble(column, row);
+          }
+          return new DoubleKey(values, ascending);
+        }
+      case STRING_TYPE:
+        {
+          final String[] values = new String[numTuples];
+          for (int row = 0; row < numTuples; ++row) {
+            values[row] = table.getString(column, row);
+          }
+          return new ObjectKey<String>(values, ascending);
+        }
+      case BLOB_TYPE:
+        {
+          final ByteBuffer[] values = new ByteBuffer[numTuples];
+          for (int row = 0; row < numTuples; ++row) {
+            values[row] = table.getBlob(column, row);
+          }
+          return new ObjectKey<ByteBuffer>(values, ascending);
+        }
+      default:
+        throw new UnsupportedOperationException("cannot sort on type " + type);
+    }
+  }
+
+  /**
+   * @param table the table
+   * @param type the type of the column, one of int, long, boolean or datetime
+   * @param column the column
+   * @param row the row
+   * @return the value as a long with the same ordering
+   */
+  private static long getLongKey(
+      final ReadableTable table, final Type type, final int column, final int row) {
+    switch (type) {
+      case INT_TYPE:
+        return table.getInt(column, row);
+      case LONG_TYPE:
+        return table.getLong(column, row);
+      case BOOLEAN_TYPE:
+        return table.getBoolean(column, row) ? 1 : 0;
+      case DATETIME_TYPE:
+        return table.getDateTime(column, row).getMillis();
+      default:
+        throw new IllegalArgumentException("not a long key: " + type);
+    }
+  }
+
+  /**
+   * @param table the table to sort
+   * @return the row indices of the table, in sorted order
+   */
+  public int[] sort(final ReadableTable table) {
+    final int numTuples = table.numTuples();
+    if (sortColumns.length == 1) {
+      final Type type = table.getSchema().getColumnType(sortColumns[0]);
+      if (type == Type.INT_TYPE || type == Type.LONG_TYPE) {
+        final long[] values = ((LongKey) extractKey(table, sortColumns[0], true)).values;
+        return radixSort(values, ascending[0], type == Type.INT_TYPE ? 4 : 8);
+      }
+    }
+    final SortKey[] keys = extractKeys(table);
+    final int[] indexes = new int[numTuples];
+    for (int i = 0; i < numTuples; ++i) {
+      indexes[i] = i;
+    }
+    mergeSort(indexes, indexes.clone(), 0, numTuples, keys);
+    return indexes;
+  }
+
+  /**
+   * Find the first rows of the table in sorted order, without sorting the whole table. Ties are broken as by
+   * {@link #sort(ReadableTable)}, so the result is a prefix of what it returns.
+   *
+   * @param table the table to sort
+   * @param limit the number of rows to return
+   * @return the row indices of the first <code>limit</code> rows of the table, in sorted order
+   */
+  public int[] sortTopN(final ReadableTable table, final int limit) {
+    Preconditions.checkArgument(limit >= 0, "limit must be non-negative");
+    final int numTuples = table.numTuples();
+    if (limit >= numTuples) {
+      return sort(table);
+    }
+    final SortKey[] keys = extractKeys(table);
+    /* A max-heap of the smallest rows seen so far, ordered by key and then by row index. */
+    final int[] heap = new int[limit];
+    for (int row = 0; row < limit; ++row) {
+      heap[row] = row;
+      siftUp(heap, row, keys);
+    }
+    for (int row = limit; row < numTuples; ++row) {
+      if (limit > 0 && compare(keys, row, heap[0]) < 0) {
+        heap[0] = row;
+        siftDown(heap, limit, keys);
+      }
+    }
+    /* Row indexes in increasing order, so that the stable sort breaks ties by row index. */
+    Arrays.sort(heap);
+    mergeSort(heap, heap.clone(), 0, limit, keys);
+    return heap;
+  }
+
+  /**
+   * @param table the table
+   * @return the sort keys of the table
+   */
+  private SortKey[] extractKeys(final ReadableTable table) {
+    final SortKey[] keys = new SortKey[sortColumns.length];
+    for (int i = 0; i < sortColumns.length; ++i) {
+      keys[i] = extractKey(table, sortColumns[i], ascending[i]);
+    }
+    return keys;
+  }
+
+  /**
+   * @param keys the sort keys
+   * @param row a row
+   * @param otherRow another row
+   * @return the comparison of the two rows, with ties broken by row index
+   */
+  private static int compareWithIndex(final SortKey[] keys, final int row, final int otherRow) {
+    final int compared = compare(keys, row, otherRow);
+    if (compared != 0) {
+      return compared;
+    }
+    return Integer.compare(row, otherRow);
+  }
+
+  /**
+   * Restore the max-heap property after adding an element at the end.
+   *
+   * @param heap the heap
+   * @param position the position of the new element
+   * @param keys the sort keys
+   */
+  private static void siftUp(final int[] heap, final int position, final SortKey[] keys) {
+    int child = position;
+    final int row = heap[child];
+    while (child > 0) {
+      final int parent = (child - 1) >>> 1;
+      if (compareWithIndex(keys, heap[parent], row) >= 0) {
+        break;
+      }
+      heap[child] = heap[parent];
+      child = parent;
+    }
+    heap[child] = row;
+  }
+
+  /**
+   * Restore the max-heap property after replacing the root.
+   *
+   * @param heap the heap
+   * @param size the number of elements in the heap
+   * @param keys the sort keys
+   */
+  private static void siftDown(final int[] heap, final int size, final SortKey[] keys) {
+    int parent = 0;
+    final int row = heap[0];
+    while (true) {
+      int child = 2 * parent + 1;
+      if (child >= size) {
+        break;
+      }
+      if (child + 1 < size && compareWithIndex(keys, heap[child + 1], heap[child]) > 0) {
+        ++child;
+      }
+      if (compareWithIndex(keys, row, heap[child]) >= 0) {
+        break;
+      }
+      heap[parent] = heap[child];
+      parent = child;
+    }
+    heap[parent] = row;
+  }
+
+  /**
+   * Stable least-significant-digit radix sort, one byte at a time. Bytes that are the same in all values are skipped.
+   *
+   * @param values the values to sort by, each fitting in <code>numBytes</code> signed bytes
+   * @param ascending whether to sort ascending
+   * @param numBytes 4 for ints, 8 for longs
+   * @return the indices of the values, in sorted order
+   */
+  private static int[] radixSort(final long[] values, final boolean ascending, final int numBytes) {
+    final int numTuples = values.length;
+    /* Map the values to unsigned keys with the wanted order. */
+    final long signBit = 1L << (8 * numBytes - 1);
+    final long mask = numBytes == 8 ? -1L : (1L << (8 * numBytes)) - 1;
+    final long[] keys = new long[numTuples];
+    for (int i = 0; i < numTuples; ++i) {
+      final long key = (values[i] ^ signBit) & mask;
+      keys[i] = ascending ? key : ~key & mask;
+    }
+    int[] indexes = new int[numTuples];
+    for (int i = 0; i < numTuples; ++i) {
+      indexes[i] = i;
+    }
+    int[] scratch = new int[numTuples];
+    final int[] counts = new int[257];
+    for (int shift = 0; shift < 8 * numBytes; shift += 8) {
+      Arrays.fill(counts, 0);
+      for (int i = 0; i < numTuples; ++i) {
+        ++counts[(int) ((keys[i] >>> shift) & 0xFF) + 1];
+      }
+      if (numTuples == 0 || counts[(int) ((keys[0] >>> shift) & 0xFF) + 1] == numTuples) {
+        continue;
+      }
+      for (int digit = 0; digit < 256; ++digit) {
+        counts[digit + 1] += counts[digit];
+      }
+      for (int i = 0; i < numTuples; ++i) {
+        final int row = indexes[i];
+        scratch[counts[(int) ((keys[row] >>> shift) & 0xFF)]++] = row;
+      }
+      final int[] tmp = indexes;
+      indexes = scratch;
+      scratch = tmp;
+    }
+    return indexes;
+  }
+
+  /**
+   * @param keys the sort keys
+   * @param row a row
+   * @param otherRow another row
+   * @return the comparison of the two rows
+   */
+  private static int compare(final SortKey[] keys, final int row, final int otherRow) {
+    for (SortKey key : keys) {
+      final int compared = key.compare(row, otherRow);
+      if (compared != 0) {
+        return compared;
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * Stable merge sort of <code>dest[from, to)</code>. <code>src</code> must hold the same values as <code>dest</code> in
+   * that range and is used as scratch space.
+   *
+   * @param dest the array to sort
+   * @param src scratch space
+   * @param from the first index to sort
+   * @param to one past the last index to sort
+   * @param keys the sort keys
+   */
+  private static void mergeSort(
+      final int[] dest, final int[] src, final int from, final int to, final SortKey[] keys) {
+    if (to - from <= INSERTION_SORT_THRESHOLD) {
+      for (int i = from + 1; i < to; ++i) {
+        final int row = dest[i];
+        int j = i - 1;
+        while (j >= from && compare(keys, dest[j], row) > 0) {
+          dest[j + 1] = dest[j];
+          --j;
+        }
+        dest[j + 1] = row;
+      }
+      return;
+    }
+    final int mid = (from + to) >>> 1;
+    /* Sort both halves into src, then merge them back into dest. */
+    mergeSort(src, dest, from, mid, keys);
+    mergeSort(src, dest, mid, to, keys);
+    if (compare(keys, src[mid - 1], src[mid]) <= 0) {
+      System.arraycopy(src, from, dest, from, to - from);
+      return;
+    }
+    int left = from;
+    int right = mid;
+    for (int i = from; i < to; ++i) {
+      if (right >= to || (left < mid && compare(keys, src[left], src[right]) <= 0)) {
+        dest[i] = src[left++];
+      } else {
+        dest[i] = src[right++];
+      }
+    }
+  }
+
+  /**
+   * Compare two rows, possibly of different tables with the same schema.
+   *
+   * @param left a table
+   * @param leftRow a row of <code>left</code>
+   * @param right another table
+   * @param rightRow a row of <code>right</code>
+   * @return the comparison of the two rows
+   */
+  public int compare(
+      final ReadableTable left, final int leftRow, final ReadableTable right, final int rightRow) {
+    final Schema schema = left.getSchema();
+    for (int i = 0; i < sortColumns.length; ++i) {
+      final int column = sortColumns[i];
+      int compared;
+      switch (schema.getColumnType(column)) {
+        case INT_TYPE:
+          compared = Type.compareRaw(left.getInt(column, leftRow), right.getInt(column, rightRow));
+          break;
+        case FLOAT_TYPE:
+          compared =
+              Type.compareRaw(left.getFloat(column, leftRow), right.getFloat(column, rightRow));
+          break;
+        case LONG_TYPE:
+          compared =
+              Type.compareRaw(left.getLong(column, leftRow), right.getLong(column, rightRow));
+          break;
+        case DOUBLE_TYPE:
+          compared =
+              Type.compareRaw(left.getDouble(column, leftRow), right.getDouble(column, rightRow));
+          break;
+        case BOOLEAN_TYPE:
+          compared =
+              Type.compareRaw(left.getBoolean(column, leftRow), right.getBoolean(column, rightRow));
+          break;
+        case STRING_TYPE:
+          compared =
+              Type.compareRaw(left.getString(column, leftRow), right.getString(column, rightRow));
+          break;
+        case DATETIME_TYPE:
+          compared =
+              Type.compareRaw(
+                  left.getDateTime(column, leftRow), right.getDateTime(column, rightRow));
+          break;
+        case BLOB_TYPE:
+          compared =
+              Type.compareRaw(left.getBlob(column, leftRow), right.getBlob(column, rightRow));
+          break;
+        default:
+          throw new UnsupportedOperationException(
+              "cannot sort on type " + schema.getColumnType(column));
+      }
+      if (compared != 0) {
+        return ascending[i] ? compared : -compared;
+      }
+    }
+    return 0;
+  }
+}
@@ -4,6 +4,8 @@ import com.google.common.base.Preconditions;
 
 import edu.washington.escience.myria.Schema;
 import edu.washington.escience.myria.Type;
+import edu.washington.escience.myria.column.DictionaryStringColumn;
+import edu.washington.escience.myria.column.StringDictionary;
 import edu.washington.escience.myria.column.builder.ColumnBuilder;
 
 /**
@@ -13,6 +15,9 @@ public final class TupleUtils {
   /** Utility class cannot be instantiated. */
   private TupleUtils() {}
 
+  /** Estimated size in bytes of an object value, not counting its contents. */
+  static final int OBJECT_OVERHEAD = 40;
+
   /**
    * Copy the specified from a {@link ReadableColumn} to a {@link AppendableTable}.
    *
@@ -90,6 +95,67 @@ public final class TupleUtils {
     }
   }
 
+  /**
+   * Copy the values of some rows from a {@link ReadableColumn} to a {@link ColumnBuilder}, switching on the type once
+   * rather than once per value.
+   *
+   * @param from the source of the values
+   * @param rows the rows of the source values
+   * @param offset the index in <code>rows</code> of the first row to copy
+   * @param count the number of rows to copy
+   * @param to the destination of the values
+   */
+  public static void copyValues(
+      final ReadableColumn from,
+      final int[] rows,
+      final int offset,
+      final int count,
+      final ColumnBuilder<?> to) {
+    final int end = offset + count;
+    switch (from.getType()) {
+      case BOOLEAN_TYPE:
+        for (int i = offset; i < end; ++i) {
+          to.appendBoolean(from.getBoolean(rows[i]));
+        }
+        break;
+      case DATETIME_TYPE:
+        for (int i = offset; i < end; ++i) {
+          to.appendDateTime(from.getDateTime(rows[i]));
+        }
+        break;
+      case DOUBLE_TYPE:
+        for (int i = offset; i < end; ++i) {
+          to.appendDouble(from.getDouble(rows[i]));
+        }
+        break;
+      case FLOAT_TYPE:
+        for (int i = offset; i < end; ++i) {
+          to.appendFloat(from.getFloat(rows[i]));
+        }
+        break;
+      case INT_TYPE:
+        for (int i = offset; i < end; ++i) {
+          to.appendInt(from.getInt(rows[i]));
+        }
+        break;
+      case LONG_TYPE:
+        for (int i = offset; i < end; ++i) {
+          to.appendLong(from.getLong(rows[i]));
+        }
+        break;
+      case STRING_TYPE:
+        for (int i = offset; i < end; ++i) {
+          to.appendString(from.getString(rows[i]));
+        }
+        break;
+      case BLOB_TYPE:
+        for (int i = offset; i < end; ++i) {
+          to.appendBlob(from.getBlob(rows[i]));
+        }
+        break;
+    }
+  }
+
   /**
    * Copy the specified from a {@link ReadableTable} to a {@link ColumnBuilder}.
    *
@@ -279,6 +345,63 @@ public final class TupleUtils {
         table, columnCompareIndexes, rowIdx, table, columnCompareIndexes, rowIdx2, ascending);
   }
 
+  /**
+   * Check if two String values are equal. A value of a {@link DictionaryStringColumn} of a {@link TupleBatch} is
+   * compared by its code with a value of the same dictionary, either in another {@link TupleBatch} or put into a
+   * {@link MutableTupleBuffer}, as in hash table probes.
+   *
+   * @param table1 the table holding the first value
+   * @param column1 the column of the first value
+   * @param row1 the row of the first value
+   * @param table2 the table holding the second value
+   * @param column2 the column of the second value
+   * @param row2 the row of the second value
+   * @return true if equals.
+   */
+  private static boolean stringEquals(
+      final ReadableTable table1,
+      final int column1,
+      final int row1,
+      final ReadableTable table2,
+      final int column2,
+      final int row2) {
+    if (table1 instanceof TupleBatch) {
+      ReadableColumn values1 = table1.asColumn(column1);
+      if (values1 instanceof DictionaryStringColumn) {
+        DictionaryStringColumn dictionaryColumn1 = (DictionaryStringColumn) values1;
+        int code2 = stringCode(table2, column2, row2, dictionaryColumn1.getDictionary());
+        if (code2 >= 0) {
+          return dictionaryColumn1.getCode(row1) == code2;
+        }
+      }
+    }
+    return table1.getString(column1, row1).equals(table2.getString(column2, row2));
+  }
+
+  /**
+   * @param table a table
+   * @param column a String column of the table
+   * @param row a row of the table
+   * @param dictionary a dictionary
+   * @return the code of the value in the dictionary, or -1 if the table does not know it
+   */
+  private static int stringCode(
+      final ReadableTable table,
+      final int column,
+      final int row,
+      final StringDictionary dictionary) {
+    if (table instanceof TupleBatch) {
+      ReadableColumn values = table.asColumn(column);
+      if (values instanceof DictionaryStringColumn
+          && ((DictionaryStringColumn) values).getDictionary() == dictionary) {
+        return ((DictionaryStringColumn) values).getCode(row);
+      }
+    } else if (table instanceof MutableTupleBuffer) {
+      return ((MutableTupleBuffer) table).getStringCode(column, row, dictionary);
+    }
+    return -1;
+  }
+
   /**
    * Check if two tuples are equal on given columns.
    *
@@ -333,9 +456,7 @@ public final class TupleUtils {
           }
           break;
         case STRING_TYPE:
-          if (!table1
-              .getString(compareColumns1[i], row1)
-              .equals(table2.getString(compareColumns2[i], row2))) {
+          if (!stringEquals(table1, compareColumns1[i], row1, table2, compareColumns2[i], row2)) {
             return false;
           }
           break;
@@ -399,7 +520,7 @@ public final class TupleUtils {
           }
           break;
         case STRING_TYPE:
-          if (!table1.getString(i, row1).equals(table2.getString(i, row2))) {
+          if (!stringEquals(table1, i, row1, table2, i, row2)) {
             return false;
           }
           break;
@@ -466,7 +587,7 @@ public final class TupleUtils {
           }
           break;
         case STRING_TYPE:
-          if (!table1.getString(compareColumns[i], row1).equals(table2.getString(i, index))) {
+          if (!stringEquals(table1, compareColumns[i], row1, table2, i, index)) {
             return false;
           }
           break;
@@ -484,26 +605,91 @@ public final class TupleUtils {
     }
     return true;
   }
+
+  /** The batch size policy of the process. */
+  private static volatile BatchSizePolicy batchSizePolicy = BatchSizePolicy.defaultPolicy();
+
   /**
-   * batch size for tuple batch depending on schema.
+   * Set the batch size policy of the process. Buffers created before keep their batch size.
+   *
+   * @param policy the policy
+   */
+  public static void setBatchSizePolicy(final BatchSizePolicy policy) {
+    batchSizePolicy = Preconditions.checkNotNull(policy);
+  }
+
+  /** @return the batch size policy of the process. */
+  public static BatchSizePolicy getBatchSizePolicy() {
+    return batchSizePolicy;
+  }
+
+  /**
+   * batch size for tuple batch depending on schema, see {@link BatchSizePolicy}.
    * @param schema of tuplebatch
    * @return batchsize.
    */
-  public static int getBatchSize(Schema schema) {
-    int batchSize = 1000 * 10;
-    if (schema.getColumnTypes().indexOf(Type.BLOB_TYPE) >= 0) batchSize = 1;
-
-    return batchSize;
+  public static int getBatchSize(final Schema schema) {
+    return batchSizePolicy.getBatchSize(schema);
   }
+
   /**
-   * batch size for column depending upon type.
+   * batch size for column depending upon type, i.e., the largest batch size of the schemas with a column of the type.
    * @param type of column.
    * @return batchsize.
    */
-  public static int getBatchSize(Type type) {
-    int batchSize = 1000 * 10;
-    if (type == Type.BLOB_TYPE) batchSize = 1;
+  public static int getBatchSize(final Type type) {
+    if (type == Type.BLOB_TYPE) {
+      return 1;
+    }
+    return batchSizePolicy.getMaxBatchSize();
+  }
 
-    return batchSize;
+  /**
+   * Estimate how many bytes of heap a tuple uses once buffered, e.g., in a {@link MutableTupleBuffer}. Used by operators
+   * that spill to disk when a memory budget is exceeded.
+   *
+   * @param table the table containing the tuple
+   * @param row the row of the tuple
+   * @return the estimated size of the tuple in bytes
+   */
+  public static long estimateSize(final ReadableTable table, final int row) {
+    long size = 0;
+    for (int column = 0; column < table.numColumns(); ++column) {
+      switch (table.getSchema().getColumnType(column)) {
+        case BOOLEAN_TYPE:
+          size += 1;
+          break;
+        case INT_TYPE:
+        case FLOAT_TYPE:
+          size += 4;
+          break;
+        case LONG_TYPE:
+        case DOUBLE_TYPE:
+          size += 8;
+          break;
+        case STRING_TYPE:
+          size += OBJECT_OVERHEAD + 2L * table.getString(column, row).length();
+          break;
+        case BLOB_TYPE:
+          size += OBJECT_OVERHEAD + table.getBlob(column, row).capacity();
+          break;
+        default:
+          size += OBJECT_OVERHEAD;
+          break;
+      }
+    }
+    return size;
+  }
+
+  /**
+   * @param table a table
+   * @return the estimated size of all tuples of the table in bytes, see {@link #estimateSize(ReadableTable, int)}
+   */
+  public static long estimateSize(final ReadableTable table) {
+    long size = 0;
+    for (int row = 0; row < table.numTuples(); ++row) {
+      size += estimateSize(table, row);
+    }
+    return size;
   }
 }
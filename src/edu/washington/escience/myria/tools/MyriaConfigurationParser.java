@@ -192,6 +192,11 @@ public final class MyriaConfigurationParser {
                 parser,
                 "deployment",
                 MyriaSystemConfigKeys.FLOW_CONTROL_WRITE_BUFFER_HIGH_MARK_BYTES));
+    conf =
+        setOptional(
+            conf,
+            MyriaGlobalConfigurationModule.FLOW_CONTROL_CHANNEL_CREDITS,
+            getOptional(parser, "deployment", MyriaSystemConfigKeys.FLOW_CONTROL_CHANNEL_CREDITS));
     conf =
         setOptional(
             conf,
@@ -204,6 +209,44 @@ public final class MyriaConfigurationParser {
             MyriaGlobalConfigurationModule.OPERATOR_INPUT_BUFFER_RECOVER_TRIGGER,
             getOptional(
                 parser, "deployment", MyriaSystemConfigKeys.OPERATOR_INPUT_BUFFER_RECOVER_TRIGGER));
+    conf =
+        setOptional(
+            conf,
+            MyriaGlobalConfigurationModule.OPERATOR_HASH_TABLE_KIND,
+            getOptional(parser, "deployment", MyriaSystemConfigKeys.OPERATOR_HASH_TABLE_KIND));
+    conf =
+        setOptional(
+            conf,
+            MyriaGlobalConfigurationModule.OPERATOR_EVALUATOR_CACHE_SIZE,
+            getOptional(parser, "deployment", MyriaSystemConfigKeys.OPERATOR_EVALUATOR_CACHE_SIZE));
+    conf =
+        setOptional(
+            conf,
+            MyriaGlobalConfigurationModule.OPERATOR_CONSUMER_COALESCE_DEADLINE_MS,
+            getOptional(
+                parser,
+                "deployment",
+                MyriaSystemConfigKeys.OPERATOR_CONSUMER_COALESCE_DEADLINE_MS));
+    conf =
+        setOptional(
+            conf,
+            MyriaGlobalConfigurationModule.OPERATOR_BATCH_TARGET_BYTES,
+            getOptional(parser, "deployment", MyriaSystemConfigKeys.OPERATOR_BATCH_TARGET_BYTES));
+    conf =
+        setOptional(
+            conf,
+            MyriaGlobalConfigurationModule.OPERATOR_BATCH_MAX_TUPLES,
+            getOptional(parser, "deployment", MyriaSystemConfigKeys.OPERATOR_BATCH_MAX_TUPLES));
+    conf =
+        setOptional(
+            conf,
+            MyriaGlobalConfigurationModule.IPC_COMPRESSION,
+            getOptional(parser, "deployment", MyriaSystemConfigKeys.IPC_COMPRESSION));
+    conf =
+        setOptional(
+            conf,
+            MyriaGlobalConfigurationModule.IPC_SHARED_MEMORY_RING_BYTES,
+            getOptional(parser, "deployment", MyriaSystemConfigKeys.IPC_SHARED_MEMORY_RING_BYTES));
     conf =
         setOptional(
             conf,
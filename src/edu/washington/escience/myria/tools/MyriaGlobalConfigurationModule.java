@@ -22,6 +22,8 @@ import org.apache.reef.tang.formats.OptionalParameter;
 import org.apache.reef.tang.formats.RequiredParameter;
 
 import edu.washington.escience.myria.MyriaConstants;
+import edu.washington.escience.myria.expression.evaluate.EvaluatorCache;
+import edu.washington.escience.myria.storage.BatchSizePolicy;
 
 public final class MyriaGlobalConfigurationModule extends ConfigurationModuleBuilder {
   public static final RequiredParameter<String> INSTANCE_NAME = new RequiredParameter<>();
@@ -59,10 +61,25 @@ public final class MyriaGlobalConfigurationModule extends ConfigurationModuleBui
       new OptionalParameter<>();
   public static final OptionalParameter<Integer> FLOW_CONTROL_WRITE_BUFFER_LOW_MARK_BYTES =
       new OptionalParameter<>();
+  public static final OptionalParameter<Integer> FLOW_CONTROL_CHANNEL_CREDITS =
+      new OptionalParameter<>();
   public static final OptionalParameter<Integer> OPERATOR_INPUT_BUFFER_CAPACITY =
       new OptionalParameter<>();
   public static final OptionalParameter<Integer> OPERATOR_INPUT_BUFFER_RECOVER_TRIGGER =
       new OptionalParameter<>();
+  public static final OptionalParameter<String> OPERATOR_HASH_TABLE_KIND =
+      new OptionalParameter<>();
+  public static final OptionalParameter<Integer> OPERATOR_EVALUATOR_CACHE_SIZE =
+      new OptionalParameter<>();
+  public static final OptionalParameter<Integer> OPERATOR_CONSUMER_COALESCE_DEADLINE_MS =
+      new OptionalParameter<>();
+  public static final OptionalParameter<Integer> OPERATOR_BATCH_TARGET_BYTES =
+      new OptionalParameter<>();
+  public static final OptionalParameter<Integer> OPERATOR_BATCH_MAX_TUPLES =
+      new OptionalParameter<>();
+  public static final OptionalParameter<String> IPC_COMPRESSION = new OptionalParameter<>();
+  public static final OptionalParameter<Integer> IPC_SHARED_MEMORY_RING_BYTES =
+      new OptionalParameter<>();
   public static final OptionalParameter<Integer> TCP_CONNECTION_TIMEOUT_MILLIS =
       new OptionalParameter<>();
   public static final OptionalParameter<Integer> TCP_RECEIVE_BUFFER_SIZE_BYTES =
@@ -105,9 +122,18 @@ public final class MyriaGlobalConfigurationModule extends ConfigurationModuleBui
               FlowControlWriteBufferHighMarkBytes.class, FLOW_CONTROL_WRITE_BUFFER_HIGH_MARK_BYTES)
           .bindNamedParameter(
               FlowControlWriteBufferLowMarkBytes.class, FLOW_CONTROL_WRITE_BUFFER_LOW_MARK_BYTES)
+          .bindNamedParameter(FlowControlChannelCredits.class, FLOW_CONTROL_CHANNEL_CREDITS)
           .bindNamedParameter(OperatorInputBufferCapacity.class, OPERATOR_INPUT_BUFFER_CAPACITY)
           .bindNamedParameter(
               OperatorInputBufferRecoverTrigger.class, OPERATOR_INPUT_BUFFER_RECOVER_TRIGGER)
+          .bindNamedParameter(OperatorHashTableKind.class, OPERATOR_HASH_TABLE_KIND)
+          .bindNamedParameter(OperatorEvaluatorCacheSize.class, OPERATOR_EVALUATOR_CACHE_SIZE)
+          .bindNamedParameter(
+              OperatorConsumerCoalesceDeadlineMs.class, OPERATOR_CONSUMER_COALESCE_DEADLINE_MS)
+          .bindNamedParameter(OperatorBatchTargetBytes.class, OPERATOR_BATCH_TARGET_BYTES)
+          .bindNamedParameter(OperatorBatchMaxTuples.class, OPERATOR_BATCH_MAX_TUPLES)
+          .bindNamedParameter(IpcCompression.class, IPC_COMPRESSION)
+          .bindNamedParameter(IpcSharedMemoryRingBytes.class, IPC_SHARED_MEMORY_RING_BYTES)
           .bindNamedParameter(TcpConnectionTimeoutMillis.class, TCP_CONNECTION_TIMEOUT_MILLIS)
           .bindNamedParameter(TcpReceiveBufferSizeBytes.class, TCP_RECEIVE_BUFFER_SIZE_BYTES)
           .bindNamedParameter(TcpSendBufferSizeBytes.class, TCP_SEND_BUFFER_SIZE_BYTES)
@@ -195,12 +221,36 @@ public final class MyriaGlobalConfigurationModule extends ConfigurationModuleBui
   @NamedParameter(default_value = (512 * MyriaConstants.KB) + "")
   public class FlowControlWriteBufferLowMarkBytes implements Name<Integer> {}
 
+  @NamedParameter(default_value = "8")
+  public class FlowControlChannelCredits implements Name<Integer> {}
+
   @NamedParameter(default_value = "100")
   public class OperatorInputBufferCapacity implements Name<Integer> {}
 
   @NamedParameter(default_value = "80")
   public class OperatorInputBufferRecoverTrigger implements Name<Integer> {}
 
+  @NamedParameter(default_value = "bucket")
+  public class OperatorHashTableKind implements Name<String> {}
+
+  @NamedParameter(default_value = EvaluatorCache.DEFAULT_MAXIMUM_SIZE + "")
+  public class OperatorEvaluatorCacheSize implements Name<Integer> {}
+
+  @NamedParameter(default_value = "-1")
+  public class OperatorConsumerCoalesceDeadlineMs implements Name<Integer> {}
+
+  @NamedParameter(default_value = BatchSizePolicy.DEFAULT_TARGET_BYTES + "")
+  public class OperatorBatchTargetBytes implements Name<Integer> {}
+
+  @NamedParameter(default_value = BatchSizePolicy.DEFAULT_MAX_BATCH_SIZE + "")
+  public class OperatorBatchMaxTuples implements Name<Integer> {}
+
+  @NamedParameter(default_value = "none")
+  public class IpcCompression implements Name<String> {}
+
+  @NamedParameter(default_value = (4 * MyriaConstants.MB) + "")
+  public class IpcSharedMemoryRingBytes implements Name<Integer> {}
+
   @NamedParameter(default_value = "3000")
   public class TcpConnectionTimeoutMillis implements Name<Integer> {}
 
@@ -0,0 +1,248 @@
+package edu.washington.escience.myria.util;
+
+import java.util.Arrays;
+
+import edu.washington.escience.myria.storage.ReadableColumn;
+
+/**
+ * Computes 128-bit murmur3 hash codes of many rows at once, a column at a time, without allocating anything per row.
+ * The hash codes are bit for bit those of Guava's {@code Hashing.murmur3_128(seed)} fed the same values through a
+ * {@link TypeFunnel}, which is how {@link HashUtils} used to hash rows, so partitions of stored relations do not change.
+ *
+ * The values of a row are a stream of little-endian bytes. Each full 16-byte block is mixed into the state of the row
+ * as soon as it is complete; the bytes of the incomplete block are kept in {@link #lo} and {@link #hi}.
+ *
+ * Not thread-safe.
+ */
+final class ColumnHasher {
+  /** Mixing constant of murmur3. */
+  private static final long C1 = 0x87c37b91114253d5L;
+  /** Mixing constant of murmur3. */
+  private static final long C2 = 0x4cf5ad432745937fL;
+  /** The number of bytes in a block. */
+  private static final int BLOCK_BYTES = 16;
+
+  /** The first half of the state of each row. */
+  private long[] h1;
+  /** The second half of the state of each row. */
+  private long[] h2;
+  /** The first 8 bytes of the incomplete block of each row. */
+  private long[] lo;
+  /** The last 8 bytes of the incomplete block of each row. */
+  private long[] hi;
+  /** The number of bytes added to each row. */
+  private int[] length;
+
+  /** Constructs a hasher with room for no rows. */
+  ColumnHasher() {
+    allocate(0);
+  }
+
+  /**
+   * @param capacity the number of rows to make room for
+   */
+  private void allocate(final int capacity) {
+    h1 = new long[capacity];
+    h2 = new long[capacity];
+    lo = new long[capacity];
+    hi = new long[capacity];
+    length = new int[capacity];
+  }
+
+  /**
+   * Start hashing rows.
+   *
+   * @param numRows the number of rows to hash
+   * @param seed the seed of the hash function
+   */
+  void reset(final int numRows, final int seed) {
+    if (numRows > length.length) {
+      allocate(Math.max(numRows, length.length * 2));
+    }
+    Arrays.fill(h1, 0, numRows, seed);
+    Arrays.fill(h2, 0, numRows, seed);
+    Arrays.fill(lo, 0, numRows, 0L);
+    Arrays.fill(hi, 0, numRows, 0L);
+    Arrays.fill(length, 0, numRows, 0);
+  }
+
+  /**
+   * Add the values of a column to the rows being hashed.
+   *
+   * @param column the column
+   * @param fromRow the row of the column to add to the first row being hashed
+   * @param numRows the number of rows to add
+   */
+  void addColumn(final ReadableColumn column, final int fromRow, final int numRows) {
+    switch (column.getType()) {
+      case BOOLEAN_TYPE:
+        for (int i = 0; i < numRows; ++i) {
+          put(i, column.getBoolean(fromRow + i) ? 1 : 0, 1);
+        }
+        break;
+      case DATETIME_TYPE:
+        /* TypeFunnel does not add anything for a DateTime. */
+        break;
+      case DOUBLE_TYPE:
+        for (int i = 0; i < numRows; ++i) {
+          put(i, Double.doubleToRawLongBits(column.getDouble(fromRow + i)), 8);
+        }
+        break;
+      case FLOAT_TYPE:
+        for (int i = 0; i < numRows; ++i) {
+          put(i, Float.floatToRawIntBits(column.getFloat(fromRow + i)) & 0xFFFFFFFFL, 4);
+        }
+        break;
+      case INT_TYPE:
+        for (int i = 0; i < numRows; ++i) {
+          put(i, column.getInt(fromRow + i) & 0xFFFFFFFFL, 4);
+        }
+        break;
+      case LONG_TYPE:
+        for (int i = 0; i < numRows; ++i) {
+          put(i, column.getLong(fromRow + i), 8);
+        }
+        break;
+      case STRING_TYPE:
+        for (int i = 0; i < numRows; ++i) {
+          putChars(i, column.getString(fromRow + i));
+        }
+        break;
+      default:
+        throw new UnsupportedOperationException(
+            "Hashing a column of type " + column.getType() + " is unsupported");
+    }
+  }
+
+  /**
+   * Add a String to a row.
+   *
+   * @param row the row
+   * @param value the String
+   */
+  void addString(final int row, final String value) {
+    putChars(row, value);
+  }
+
+  /**
+   * Add the UTF-16 code units of a String to a row, four at a time.
+   *
+   * @param row the row
+   * @param value the String
+   */
+  private void putChars(final int row, final String value) {
+    final int n = value.length();
+    int i = 0;
+    for (; i + 4 <= n; i += 4) {
+      put(
+          row,
+          value.charAt(i)
+              | (long) value.charAt(i + 1) << 16
+              | (long) value.charAt(i + 2) << 32
+              | (long) value.charAt(i + 3) << 48,
+          8);
+    }
+    for (; i < n; ++i) {
+      put(row, value.charAt(i), 2);
+    }
+  }
+
+  /**
+   * Add a value of up to 8 bytes to a row.
+   *
+   * @param row the row
+   * @param value the bytes of the value, little-endian; the bits above them must be 0
+   * @param numBytes the number of bytes of the value
+   */
+  private void put(final int row, final long value, final int numBytes) {
+    final int position = length[row] & (BLOCK_BYTES - 1);
+    length[row] += numBytes;
+    if (position < 8) {
+      lo[row] |= value << (position * 8);
+      if (position + numBytes > 8) {
+        hi[row] = value >>> ((8 - position) * 8);
+      }
+      return;
+    }
+    hi[row] |= value << ((position - 8) * 8);
+    if (position + numBytes >= BLOCK_BYTES) {
+      mix(row, lo[row], hi[row]);
+      lo[row] = position + numBytes > BLOCK_BYTES ? value >>> ((BLOCK_BYTES - position) * 8) : 0;
+      hi[row] = 0;
+    }
+  }
+
+  /**
+   * Mix a full block into the state of a row.
+   *
+   * @param row the row
+   * @param k1 the first 8 bytes of the block
+   * @param k2 the last 8 bytes of the block
+   */
+  private void mix(final int row, final long k1, final long k2) {
+    long a = h1[row];
+    long b = h2[row];
+    a ^= mixK1(k1);
+    a = Long.rotateLeft(a, 27);
+    a += b;
+    a = a * 5 + 0x52dce729;
+    b ^= mixK2(k2);
+    b = Long.rotateLeft(b, 31);
+    b += a;
+    b = b * 5 + 0x38495ab5;
+    h1[row] = a;
+    h2[row] = b;
+  }
+
+  /**
+   * @param k the first half of a block
+   * @return the half mixed
+   */
+  private static long mixK1(final long k) {
+    return Long.rotateLeft(k * C1, 31) * C2;
+  }
+
+  /**
+   * @param k the second half of a block
+   * @return the half mixed
+   */
+  private static long mixK2(final long k) {
+    return Long.rotateLeft(k * C2, 33) * C1;
+  }
+
+  /**
+   * @param k a value
+   * @return the value with its bits avalanched
+   */
+  private static long fmix64(final long k) {
+    long h = k;
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+
+  /**
+   * Finish hashing a row.
+   *
+   * @param row the row
+   * @return the first 64 bits of the 128-bit hash code of the row
+   */
+  long finish(final int row) {
+    long a = h1[row];
+    long b = h2[row];
+    if ((length[row] & (BLOCK_BYTES - 1)) != 0) {
+      a ^= mixK1(lo[row]);
+      b ^= mixK2(hi[row]);
+    }
+    a ^= length[row];
+    b ^= length[row];
+    a += b;
+    b += a;
+    a = fmix64(a);
+    b = fmix64(b);
+    return a + b;
+  }
+}
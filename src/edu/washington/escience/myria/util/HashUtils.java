@@ -3,15 +3,17 @@ package edu.washington.escience.myria.util;
 import java.util.Objects;
 
 import com.google.common.base.Preconditions;
-import com.google.common.hash.HashFunction;
-import com.google.common.hash.Hasher;
-import com.google.common.hash.Hashing;
 
+import edu.washington.escience.myria.column.DictionaryStringColumn;
 import edu.washington.escience.myria.storage.ReadableColumn;
 import edu.washington.escience.myria.storage.ReadableTable;
 
 /**
  * A utility class for hashing tuples and parts of tuples.
+ *
+ * Hash codes are the first 32 bits of 128-bit murmur3 hash codes of the values of a row, seeded with one of
+ * {@link #NUM_OF_HASHFUNCTIONS} seeds. They are the same as those of Guava's {@code Hashing.murmur3_128(seed)}, which
+ * earlier versions used, so the partitions of stored relations do not depend on the version.
  */
 public final class HashUtils {
   /** Utility classes have no constructors. */
@@ -22,19 +24,17 @@ public final class HashUtils {
     243, 402653189, 24593, 786433, 3145739, 12289, 49157, 6151, 98317, 1572869,
   };
 
-  /** The hash functions. */
-  private static final HashFunction[] HASH_FUNCTIONS = {
-    Hashing.murmur3_128(SEEDS[0]),
-    Hashing.murmur3_128(SEEDS[1]),
-    Hashing.murmur3_128(SEEDS[2]),
-    Hashing.murmur3_128(SEEDS[3]),
-    Hashing.murmur3_128(SEEDS[4]),
-    Hashing.murmur3_128(SEEDS[5]),
-    Hashing.murmur3_128(SEEDS[6]),
-    Hashing.murmur3_128(SEEDS[7]),
-    Hashing.murmur3_128(SEEDS[8]),
-    Hashing.murmur3_128(SEEDS[9])
-  };
+  /**
+   * The hasher of each thread, reused for every row. Hashers hash whole columns at a time; one row is a column of one
+   * row.
+   */
+  private static final ThreadLocal<ColumnHasher> HASHERS =
+      new ThreadLocal<ColumnHasher>() {
+        @Override
+        protected ColumnHasher initialValue() {
+          return new ColumnHasher();
+        }
+      };
 
   /**
    * Size of the hash function pool.
@@ -49,11 +49,12 @@ public final class HashUtils {
    * @return the hash code of all the values in the specified row, in column order
    */
   public static int hashRow(final ReadableTable table, final int row) {
-    Hasher hasher = HASH_FUNCTIONS[0].newHasher();
+    ColumnHasher hasher = HASHERS.get();
+    hasher.reset(1, SEEDS[0]);
     for (int i = 0; i < table.numColumns(); ++i) {
-      addValue(hasher, table, i, row);
+      hasher.addColumn(table.asColumn(i), row, 1);
     }
-    return hasher.hash().asInt();
+    return (int) hasher.finish(0);
   }
 
   /**
@@ -69,7 +70,8 @@ public final class HashUtils {
   }
 
   /**
-   * Compute the hash code of the value in the specified column and row of the given table with specific hashcode.
+   * Compute the hash code of the value in the specified column and row of the given table with specific hashcode. The
+   * hash codes of values in a {@link DictionaryStringColumn} are cached by its dictionary.
    *
    * @param table the table containing the values to be hashed
    * @param column the column containing the value to be hashed
@@ -80,9 +82,31 @@ public final class HashUtils {
   public static int hashValue(
       final ReadableTable table, final int column, final int row, final int seedIndex) {
     Preconditions.checkPositionIndex(seedIndex, NUM_OF_HASHFUNCTIONS);
-    Hasher hasher = HASH_FUNCTIONS[seedIndex].newHasher();
-    addValue(hasher, table, column, row);
-    return hasher.hash().asInt();
+    ReadableColumn values = table.asColumn(column);
+    if (values instanceof DictionaryStringColumn) {
+      DictionaryStringColumn dictionaryColumn = (DictionaryStringColumn) values;
+      return dictionaryColumn.getDictionary().hashCode(dictionaryColumn.getCode(row), seedIndex);
+    }
+    ColumnHasher hasher = HASHERS.get();
+    hasher.reset(1, SEEDS[seedIndex]);
+    hasher.addColumn(values, row, 1);
+    return (int) hasher.finish(0);
+  }
+
+  /**
+   * Compute the hash code of a String, the same as {@link #hashValue(ReadableTable, int, int, int)} for a String
+   * column.
+   *
+   * @param value the String to be hashed
+   * @param seedIndex the index of the chosen hash function
+   * @return hash code of the specified seed
+   */
+  public static int hashString(final String value, final int seedIndex) {
+    /* Not the thread's hasher: this is called by dictionaries while they compute hash codes for HashUtils. */
+    ColumnHasher hasher = new ColumnHasher();
+    hasher.reset(1, SEEDS[seedIndex]);
+    hasher.addString(0, value);
+    return (int) hasher.finish(0);
   }
 
   /**
@@ -110,54 +134,51 @@ public final class HashUtils {
       final ReadableTable table, final int[] hashColumns, final int row, final int seedIndex) {
     Objects.requireNonNull(table, "table");
     Objects.requireNonNull(hashColumns, "hashColumns");
-    Hasher hasher = HASH_FUNCTIONS[seedIndex].newHasher();
+    if (hashColumns.length == 1) {
+      /* A single value hashes the same on its own, and may have a cached hash code. */
+      return hashValue(table, hashColumns[0], row, seedIndex);
+    }
+    ColumnHasher hasher = HASHERS.get();
+    hasher.reset(1, SEEDS[seedIndex]);
     for (int column : hashColumns) {
-      addValue(hasher, table, column, row);
+      hasher.addColumn(table.asColumn(column), row, 1);
     }
-    return hasher.hash().asInt();
-  }
-
-  /**
-   * Add the value at the specified row and column to the specified hasher.
-   *
-   * @param hasher the hasher
-   * @param table the table containing the value
-   * @param column the column containing the value
-   * @param row the row containing the value
-   * @return the hasher
-   */
-  private static Hasher addValue(
-      final Hasher hasher, final ReadableTable table, final int column, final int row) {
-    return addValue(hasher, table.asColumn(column), row);
+    return (int) hasher.finish(0);
   }
 
   /**
-   * Add the value at the specified row and column to the specified hasher.
+   * Compute the hash codes of the specified columns in every row of the given table, a column at a time. The hash code
+   * of each row is the same as {@link #hashSubRow(ReadableTable, int[], int, int)}, but this is much faster than
+   * hashing each row in turn.
    *
-   * @param hasher the hasher
-   * @param column the column containing the value
-   * @param row the row containing the value
-   * @return the hasher
+   * @param table the table containing the values to be hashed
+   * @param hashColumns the columns to be hashed. Order matters
+   * @param seedIndex the index of the chosen hash function
+   * @param result receives the hash code of each row of the table
    */
-  private static Hasher addValue(final Hasher hasher, final ReadableColumn column, final int row) {
-    switch (column.getType()) {
-      case BOOLEAN_TYPE:
-        return hasher.putBoolean(column.getBoolean(row));
-      case DATETIME_TYPE:
-        return hasher.putObject(column.getDateTime(row), TypeFunnel.INSTANCE);
-      case DOUBLE_TYPE:
-        return hasher.putDouble(column.getDouble(row));
-      case FLOAT_TYPE:
-        return hasher.putFloat(column.getFloat(row));
-      case INT_TYPE:
-        return hasher.putInt(column.getInt(row));
-      case LONG_TYPE:
-        return hasher.putLong(column.getLong(row));
-      case STRING_TYPE:
-        return hasher.putObject(column.getString(row), TypeFunnel.INSTANCE);
-      default:
-        throw new UnsupportedOperationException(
-            "Hashing a column of type " + column.getType() + " is unsupported");
+  public static void hashSubRows(
+      final ReadableTable table, final int[] hashColumns, final int seedIndex, final int[] result) {
+    Objects.requireNonNull(table, "table");
+    Objects.requireNonNull(hashColumns, "hashColumns");
+    Preconditions.checkPositionIndex(seedIndex, NUM_OF_HASHFUNCTIONS);
+    final int numRows = table.numTuples();
+    Preconditions.checkArgument(
+        result.length >= numRows, "result has room for %s of %s rows", result.length, numRows);
+    if (hashColumns.length == 1
+        && table.asColumn(hashColumns[0]) instanceof DictionaryStringColumn) {
+      DictionaryStringColumn column = (DictionaryStringColumn) table.asColumn(hashColumns[0]);
+      for (int row = 0; row < numRows; ++row) {
+        result[row] = column.getDictionary().hashCode(column.getCode(row), seedIndex);
+      }
+      return;
+    }
+    ColumnHasher hasher = HASHERS.get();
+    hasher.reset(numRows, SEEDS[seedIndex]);
+    for (int column : hashColumns) {
+      hasher.addColumn(table.asColumn(column), 0, numRows);
+    }
+    for (int row = 0; row < numRows; ++row) {
+      result[row] = (int) hasher.finish(row);
     }
   }
 }
@@ -19,6 +19,7 @@ import com.google.protobuf.ByteString;
 import edu.washington.escience.myria.DbException;
 import edu.washington.escience.myria.Schema;
 import edu.washington.escience.myria.column.Column;
+import edu.washington.escience.myria.column.ColumnEncoder;
 import edu.washington.escience.myria.column.builder.ColumnFactory;
 import edu.washington.escience.myria.parallel.ExecutionStatistics;
 import edu.washington.escience.myria.parallel.ResourceStats;
@@ -390,7 +391,7 @@ public final class IPCUtils {
 
     int i = 0;
     for (final Column<?> c : dataColumns) {
-      columnProtos[i] = c.serializeToProto();
+      columnProtos[i] = ColumnEncoder.encode(c);
       i++;
     }
     return DATA_TM_BUILDER
@@ -0,0 +1,147 @@
+package edu.washington.escience.myria;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import edu.washington.escience.myria.storage.TupleBatch;
+import edu.washington.escience.myria.storage.TupleBatchBuffer;
+
+public class CsvByteParserTest {
+
+  private static final Schema TWO_STRINGS =
+      new Schema(ImmutableList.of(Type.STRING_TYPE, Type.STRING_TYPE));
+
+  /** Parse all of the input at once. */
+  private static TupleBatch parse(
+      final Schema schema, final String input, final Character quote, final Character escape)
+      throws DbException {
+    CsvByteParser parser = new CsvByteParser(schema, ',', quote == null ? '"' : quote, escape);
+    TupleBatchBuffer buffer = new TupleBatchBuffer(schema);
+    byte[] bytes = input.getBytes(StandardCharsets.UTF_8);
+    assertEquals(bytes.length, parser.parse(bytes, 0, bytes.length, true, buffer));
+    return buffer.popAny();
+  }
+
+  @Test
+  public void testQuotesAndEscapes() throws DbException {
+    TupleBatch tb =
+        parse(TWO_STRINGS, "\"a\"\"b\",\"c,d\"\r\na\"a\"b,\"ab'\ncc\"\n\"\",x", null, null);
+    assertEquals(3, tb.numTuples());
+    assertEquals("a\"b", tb.getString(0, 0));
+    assertEquals("c,d", tb.getString(1, 0));
+    assertEquals("a\"a\"b", tb.getString(0, 1));
+    assertEquals("ab'\ncc", tb.getString(1, 1));
+    assertEquals("", tb.getString(0, 2));
+    assertEquals("x", tb.getString(1, 2));
+
+    tb = parse(TWO_STRINGS, "abc,d\\,ef\nde d,\\,aft\näbc,\\q", null, '\\');
+    assertEquals("d,ef", tb.getString(1, 0));
+    assertEquals(",aft", tb.getString(1, 1));
+    assertEquals("äbc", tb.getString(0, 2));
+    assertEquals("\\q", tb.getString(1, 2));
+  }
+
+  @Test
+  public void testIncompleteRecords() throws DbException {
+    CsvByteParser parser = new CsvByteParser(TWO_STRINGS, ',', '"', null);
+    TupleBatchBuffer buffer = new TupleBatchBuffer(TWO_STRINGS);
+    byte[] bytes = "a,b\nc,\"d\ne\"\r\nf,g".getBytes(StandardCharsets.UTF_8);
+    /* Every prefix stops at the end of its last complete record. */
+    assertEquals(4, parser.parse(bytes, 0, 6, false, buffer));
+    assertEquals(4, parser.parse(bytes, 4, 11, false, buffer));
+    assertEquals(1, buffer.numTuples());
+    assertEquals(13, parser.parse(bytes, 4, 13, false, buffer));
+    assertEquals(13, parser.parse(bytes, 13, bytes.length, false, buffer));
+    assertEquals(bytes.length, parser.parse(bytes, 13, bytes.length, true, buffer));
+    List<TupleBatch> batches = buffer.getAll();
+    assertEquals(1, batches.size());
+    assertEquals(3, batches.get(0).numTuples());
+    assertEquals("d\ne", batches.get(0).getString(1, 1));
+    assertEquals("g", batches.get(0).getString(1, 2));
+  }
+
+  @Test(expected = DbException.class)
+  public void testWrongNumberOfColumns() throws DbException {
+    parse(TWO_STRINGS, "a,b\nc,d,e\n", null, null);
+  }
+
+  @Test(expected = DbException.class)
+  public void testUnterminatedQuote() throws DbException {
+    parse(TWO_STRINGS, "a,\"b\n", null, null);
+  }
+
+  @Test(expected = DbException.class)
+  public void testBadInt() throws DbException {
+    parse(Schema.ofFields("a", Type.INT_TYPE), "2147483648\n", null, null);
+  }
+
+  @Test
+  public void testNumbers() {
+    Random random = new Random(42);
+    String[] fixed = {
+      "0",
+      "-0",
+      "+7",
+      "1.",
+      ".5",
+      "-.5",
+      "0.1",
+      "3.14",
+      "1e10",
+      "-2.5E-3",
+      "NaN",
+      "-Infinity",
+      "123456789012345678",
+      "0.000000000000000000000000123",
+      "1.7976931348623157E308",
+      "4.9e-324",
+      "00012.50",
+      "1.5d",
+      "16777217",
+      "9007199254740993"
+    };
+    for (String s : fixed) {
+      checkDouble(s);
+    }
+    for (int i = 0; i < 100000; ++i) {
+      checkDouble(Double.toString(random.nextDouble() * Math.pow(10, random.nextInt(20) - 10)));
+      checkDouble(String.format("%.6f", (random.nextDouble() - 0.5) * 1e6));
+      checkDouble(Long.toString(random.nextLong() % 100000000L) + "." + random.nextInt(1000));
+      checkDouble(Float.toString(random.nextFloat() * (float) Math.pow(10, random.nextInt(10))));
+      checkLong(Long.toString(random.nextLong()));
+      checkLong(Integer.toString(random.nextInt()));
+    }
+    checkLong(Long.toString(Long.MIN_VALUE));
+    checkLong(Long.toString(Long.MAX_VALUE));
+  }
+
+  private static void checkDouble(final String s) {
+    byte[] b = (" " + s + " ").getBytes(StandardCharsets.US_ASCII);
+    assertEquals(
+        s,
+        Double.doubleToLongBits(Double.parseDouble(s)),
+        Double.doubleToLongBits(CsvByteParser.parseDouble(b, 1, b.length - 1)));
+    assertEquals(
+        s,
+        Float.floatToIntBits(Float.parseFloat(s)),
+        Float.floatToIntBits(CsvByteParser.parseFloat(b, 1, b.length - 1)));
+  }
+
+  private static void checkLong(final String s) {
+    byte[] b = (" " + s + " ").getBytes(StandardCharsets.US_ASCII);
+    assertEquals(s, Long.parseLong(s), CsvByteParser.parseLong(b, 1, b.length - 1));
+  }
+
+  @Test(expected = NumberFormatException.class)
+  public void testLongOverflow() {
+    byte[] b = "9223372036854775808".getBytes(StandardCharsets.US_ASCII);
+    CsvByteParser.parseLong(b, 0, b.length);
+  }
+}
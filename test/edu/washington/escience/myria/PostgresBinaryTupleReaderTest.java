@@ -0,0 +1,192 @@
+package edu.washington.escience.myria;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.io.output.ByteArrayOutputStream;
+import org.joda.time.DateTime;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import edu.washington.escience.myria.storage.TupleBatch;
+import edu.washington.escience.myria.storage.TupleBuffer;
+import edu.washington.escience.myria.storage.TupleUtils;
+
+public class PostgresBinaryTupleReaderTest {
+
+  /** The schema of pg.bin. */
+  private static final Schema SCHEMA =
+      new Schema(
+          ImmutableList.of(
+              Type.BOOLEAN_TYPE,
+              Type.INT_TYPE,
+              Type.LONG_TYPE,
+              Type.FLOAT_TYPE,
+              Type.DOUBLE_TYPE,
+              Type.STRING_TYPE,
+              Type.DATETIME_TYPE,
+              Type.BLOB_TYPE));
+
+  @Test
+  public void testReadPostgresOutput() throws IOException, DbException {
+    byte[] data = Files.readAllBytes(Paths.get("testdata", "tuplewriter", "pg.bin"));
+    PostgresBinaryTupleReader reader = new PostgresBinaryTupleReader(SCHEMA);
+    reader.open(new ByteArrayInputStream(data));
+
+    /* Batches with a blob column hold a single tuple. */
+    List<TupleBatch> batches = new ArrayList<>();
+    for (TupleBatch tb = reader.readTuples(); tb != null; tb = reader.readTuples()) {
+      assertEquals(1, tb.numTuples());
+      batches.add(tb);
+    }
+    assertEquals(3, batches.size());
+    assertEquals(true, batches.get(0).getBoolean(0, 0));
+    assertEquals(2, batches.get(1).getInt(1, 0));
+    assertEquals(300L, batches.get(2).getLong(2, 0));
+    assertEquals(3.14f, batches.get(0).getFloat(3, 0), 0);
+    assertEquals(-3.14, batches.get(1).getDouble(4, 0), 0);
+    assertEquals("three", batches.get(2).getString(5, 0));
+    assertEquals(
+        new DateTime(1990, 7, 18, 2, 3, 10).getMillis(),
+        batches.get(0).getDateTime(6, 0).getMillis());
+    assertEquals(
+        new DateTime(2013, 9, 30, 3, 1, 10).getMillis(),
+        batches.get(1).getDateTime(6, 0).getMillis());
+    assertEquals(
+        new DateTime(2000, 1, 1, 0, 0, 0).getMillis(),
+        batches.get(2).getDateTime(6, 0).getMillis());
+    assertEquals(ByteBuffer.wrap("test3".getBytes()), batches.get(2).getBlob(7, 0));
+    assertNull(reader.readTuples());
+    reader.close();
+  }
+
+  @Test
+  public void testRoundTripMultipleBatches() throws IOException, DbException {
+    Schema schema =
+        Schema.ofFields("id", Type.LONG_TYPE, "s", Type.STRING_TYPE, "t", Type.DATETIME_TYPE);
+    int numTuples = 2 * TupleUtils.getBatchSize(schema) + 7;
+    TupleBuffer tuples = new TupleBuffer(schema);
+    for (int i = 0; i < numTuples; ++i) {
+      tuples.putLong(0, i);
+      tuples.putString(1, "tuple " + i);
+      tuples.putDateTime(
+          2, new DateTime(1400 + i % 700, 1 + i % 12, 1 + i % 28, i % 24, i % 60, 0));
+    }
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    PostgresBinaryTupleWriter writer = new PostgresBinaryTupleWriter();
+    writer.open(out);
+    writer.writeTuples(tuples);
+    writer.done();
+
+    PostgresBinaryTupleReader reader = new PostgresBinaryTupleReader(schema);
+    reader.open(new ByteArrayInputStream(out.toByteArray()));
+    int numRead = 0;
+    int numBatches = 0;
+    for (TupleBatch tb = reader.readTuples(); tb != null; tb = reader.readTuples()) {
+      ++numBatches;
+      for (int row = 0; row < tb.numTuples(); ++row, ++numRead) {
+        assertEquals(numRead, tb.getLong(0, row));
+        assertEquals("tuple " + numRead, tb.getString(1, row));
+        assertEquals(
+            tuples.getDateTime(2, numRead).getMillis(), tb.getDateTime(2, row).getMillis());
+      }
+    }
+    assertEquals(numTuples, numRead);
+    assertEquals(3, numBatches);
+    reader.close();
+  }
+
+  @Test(expected = DbException.class)
+  public void testWrongSchema() throws IOException, DbException {
+    byte[] data = Files.readAllBytes(Paths.get("testdata", "tuplewriter", "pg.bin"));
+    PostgresBinaryTupleReader reader =
+        new PostgresBinaryTupleReader(Schema.ofFields("a", Type.BOOLEAN_TYPE, "b", Type.LONG_TYPE));
+    reader.open(new ByteArrayInputStream(data));
+    reader.readTuples();
+  }
+
+  /**
+   * @param values the values of each tuple, null for NULL
+   * @return the tuples in the binary format of PostgreSQL
+   */
+  private static byte[] copyOutput(final byte[][][] values) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    out.write("PGCOPY\n\377\r\n\0".getBytes(StandardCharsets.ISO_8859_1));
+    out.writeInt(0);
+    out.writeInt(0);
+    for (byte[][] tuple : values) {
+      out.writeShort(tuple.length);
+      for (byte[] value : tuple) {
+        if (value == null) {
+          out.writeInt(-1);
+        } else {
+          out.writeInt(value.length);
+          out.write(value);
+        }
+      }
+    }
+    out.writeShort(-1);
+    out.flush();
+    return bytes.toByteArray();
+  }
+
+  @Test
+  public void testNulls() throws IOException, DbException {
+    Schema schema =
+        Schema.ofFields(
+            "i",
+            Type.INT_TYPE,
+            "d",
+            Type.DOUBLE_TYPE,
+            "b",
+            Type.BOOLEAN_TYPE,
+            "s",
+            Type.STRING_TYPE);
+    byte[] data =
+        copyOutput(
+            new byte[][][] {
+              {null, null, null, null},
+              {
+                ByteBuffer.allocate(4).putInt(5).array(),
+                ByteBuffer.allocate(8).putDouble(2.5).array(),
+                {1},
+                "five".getBytes(StandardCharsets.UTF_8)
+              }
+            });
+    PostgresBinaryTupleReader reader = new PostgresBinaryTupleReader(schema);
+    reader.open(new ByteArrayInputStream(data));
+    TupleBatch tb = reader.readTuples();
+    /* Like a JDBC scan, NULL numbers are 0, NULL booleans are false and NULL strings are null. */
+    assertEquals(2, tb.numTuples());
+    assertEquals(0, tb.getInt(0, 0));
+    assertEquals(0, tb.getDouble(1, 0), 0);
+    assertEquals(false, tb.getBoolean(2, 0));
+    assertNull(tb.getString(3, 0));
+    assertEquals(5, tb.getInt(0, 1));
+    assertEquals(2.5, tb.getDouble(1, 1), 0);
+    assertEquals(true, tb.getBoolean(2, 1));
+    assertEquals("five", tb.getString(3, 1));
+    assertNull(reader.readTuples());
+    reader.close();
+  }
+
+  @Test(expected = DbException.class)
+  public void testNullDateTime() throws IOException, DbException {
+    PostgresBinaryTupleReader reader =
+        new PostgresBinaryTupleReader(Schema.ofFields("t", Type.DATETIME_TYPE));
+    reader.open(new ByteArrayInputStream(copyOutput(new byte[][][] {{null}})));
+    reader.readTuples();
+  }
+}
@@ -26,6 +26,56 @@ public class PostgresBinaryTupleWriterTest {
     PostgresBinaryTupleWriter writer = new PostgresBinaryTupleWriter();
     writer.open(out);
 
+    writer.writeTuples(makeTuples());
+    writer.done();
+
+    byte[] actual = out.toByteArray();
+    /*
+     * // generate file:
+     *
+     *create table foo(a bool, b int, c bigint, d real, e double precision, f text, g timestamp);
+     *
+     *insert into foo values (true, 1, 100, 3.14, 3.14, 'one', '1990-07-18 02:03:10',ByteBuffer.wrap("test3".getBytes()), (false, 2, 200, 3.14, -3.14,
+     *'two', '2013-09-30 03:01:10',ByteBuffer.wrap("test3".getBytes()), (true, 3, 300, 3.14, 123.456, 'three', '2000-01-01 00:00:00',ByteBuffer.wrap("test3".getBytes()));
+     * copy foo to '/private/tmp/pg.bin' with binary;
+     */
+
+    Path filename = Paths.get(Paths.get("testdata", "tuplewriter", "pg.bin").toString());
+    byte[] expected = Files.readAllBytes(filename);
+
+    assertEquals(expected.length, actual.length);
+    for (int i = 0; i < expected.length; i++) {
+      assertEquals(expected[i], actual[i]);
+    }
+  }
+
+  @Test
+  public void testMultipleBatches() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    PostgresBinaryTupleWriter writer = new PostgresBinaryTupleWriter();
+    writer.open(out);
+    writer.writeTuples(makeTuples());
+    writer.writeTuples(makeTuples());
+    writer.done();
+    byte[] actual = out.toByteArray();
+
+    /* One header, the tuples of both batches, and one trailer. */
+    byte[] single = Files.readAllBytes(Paths.get("testdata", "tuplewriter", "pg.bin"));
+    int headerLength = 19;
+    int tuplesLength = single.length - headerLength - 2;
+    assertEquals(single.length + tuplesLength, actual.length);
+    for (int i = 0; i < actual.length; i++) {
+      int j = i;
+      if (i >= headerLength + tuplesLength) {
+        j = i - tuplesLength;
+      }
+      assertEquals(single[j], actual[i]);
+    }
+  }
+
+  /** @return the tuples of pg.bin. */
+  private static TupleBuffer makeTuples() {
     TupleBuffer tuples =
         new TupleBuffer(
             new Schema(
@@ -65,27 +115,6 @@ public class PostgresBinaryTupleWriterTest {
     tuples.putString(5, "three");
     tuples.putDateTime(6, new DateTime(2000, 1, 1, 0, 0, 0));
     tuples.putBlob(7, ByteBuffer.wrap("test3".getBytes()));
-
-    writer.writeTuples(tuples);
-    writer.done();
-
-    byte[] actual = out.toByteArray();
-    /*
-     * // generate file:
-     *
-     *create table foo(a bool, b int, c bigint, d real, e double precision, f text, g timestamp);
-     *
-     *insert into foo values (true, 1, 100, 3.14, 3.14, 'one', '1990-07-18 02:03:10',ByteBuffer.wrap("test3".getBytes()), (false, 2, 200, 3.14, -3.14,
-     *'two', '2013-09-30 03:01:10',ByteBuffer.wrap("test3".getBytes()), (true, 3, 300, 3.14, 123.456, 'three', '2000-01-01 00:00:00',ByteBuffer.wrap("test3".getBytes()));
-     * copy foo to '/private/tmp/pg.bin' with binary;
-     */
-
-    Path filename = Paths.get(Paths.get("testdata", "tuplewriter", "pg.bin").toString());
-    byte[] expected = Files.readAllBytes(filename);
-
-    assertEquals(expected.length, actual.length);
-    for (int i = 0; i < expected.length; i++) {
-      assertEquals(expected[i], actual[i]);
-    }
+    return tuples;
   }
 }
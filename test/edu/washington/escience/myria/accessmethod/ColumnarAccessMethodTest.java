@@ -0,0 +1,245 @@
+package edu.washington.escience.myria.accessmethod;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.collect.ImmutableList;
+
+import edu.washington.escience.myria.DbException;
+import edu.washington.escience.myria.MyriaConstants;
+import edu.washington.escience.myria.RelationKey;
+import edu.washington.escience.myria.Schema;
+import edu.washington.escience.myria.SimplePredicate;
+import edu.washington.escience.myria.Type;
+import edu.washington.escience.myria.operator.BatchTupleSource;
+import edu.washington.escience.myria.operator.DbInsert;
+import edu.washington.escience.myria.operator.DbQueryScan;
+import edu.washington.escience.myria.operator.Operator;
+import edu.washington.escience.myria.storage.TupleBatch;
+import edu.washington.escience.myria.storage.TupleBatchBuffer;
+import edu.washington.escience.myria.util.TestEnvVars;
+
+public class ColumnarAccessMethodTest {
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private static final Schema SCHEMA =
+      Schema.ofFields("id", Type.INT_TYPE, "name", Type.STRING_TYPE);
+  private static final RelationKey RELATION = RelationKey.of("test", "test", "columnar");
+
+  private static TupleBatchBuffer makeTuples(final int from, final int to) {
+    TupleBatchBuffer buffer = new TupleBatchBuffer(SCHEMA);
+    for (int i = from; i < to; ++i) {
+      buffer.putInt(0, i);
+      buffer.putString(1, "name" + i);
+    }
+    return buffer;
+  }
+
+  private static void insert(
+      final ColumnarInfo info, final TupleBatchBuffer tuples, final boolean overwrite)
+      throws DbException {
+    DbInsert insert = new DbInsert(new BatchTupleSource(tuples), RELATION, info, overwrite);
+    insert.open(TestEnvVars.get());
+    while (!insert.eos()) {
+      insert.nextReady();
+    }
+    insert.close();
+  }
+
+  /** @return the sum of the ints in the first column of the output, and the number of tuples. */
+  private static long[] sumAndCount(final Operator op) throws DbException {
+    op.open(TestEnvVars.get());
+    long[] sumAndCount = new long[2];
+    while (!op.eos()) {
+      TupleBatch tb = op.nextReady();
+      if (tb != null) {
+        for (int row = 0; row < tb.numTuples(); ++row) {
+          sumAndCount[0] += tb.getInt(0, row);
+        }
+        sumAndCount[1] += tb.numTuples();
+      }
+    }
+    op.close();
+    return sumAndCount;
+  }
+
+  @Test
+  public void testInsertAndScan() throws DbException {
+    ColumnarInfo info = ColumnarInfo.of(folder.getRoot().getPath());
+    insert(info, makeTuples(0, 10000), false);
+    /* Appends another segment. */
+    insert(info, makeTuples(10000, 12000), false);
+
+    long[] all = sumAndCount(new DbQueryScan(info, RELATION, SCHEMA));
+    assertEquals(12000, all[1]);
+    assertEquals(11999L * 12000 / 2, all[0]);
+
+    /* Only the tuples with 100 <= id < 200, and only their ids. */
+    List<SimplePredicate> predicates =
+        ImmutableList.of(
+            new SimplePredicate(0, SimplePredicate.Op.GREATER_THAN_OR_EQ, "100"),
+            new SimplePredicate(0, SimplePredicate.Op.LESS_THAN, "1000"),
+            new SimplePredicate(1, SimplePredicate.Op.LESS_THAN, "name2"));
+    DbQueryScan scan = new DbQueryScan(info, RELATION, SCHEMA, new int[] {0}, predicates);
+    assertEquals(Schema.ofFields("id", Type.INT_TYPE), scan.getSchema());
+    long[] filtered = sumAndCount(scan);
+    assertEquals(100, filtered[1]);
+    assertEquals((100 + 199) * 100 / 2, filtered[0]);
+
+    /* Overwriting replaces all the segments. */
+    insert(info, makeTuples(0, 10), true);
+    assertEquals(10, sumAndCount(new DbQueryScan(info, RELATION, SCHEMA))[1]);
+    File relation = new File(folder.getRoot(), "test/test/columnar");
+    assertEquals(1, relation.list().length);
+    assertFalse(new File(folder.getRoot(), "test/MyriaSysTemp/columnar").exists());
+  }
+
+  @Test
+  public void testSameAsSQLite() throws Exception {
+    ColumnarInfo columnar = ColumnarInfo.of(folder.getRoot().getPath());
+    SQLiteInfo sqlite = SQLiteInfo.of(folder.newFile("sqlite.db").getPath());
+    DbInsert insert = new DbInsert(new BatchTupleSource(makeTuples(0, 3000)), RELATION, sqlite);
+    insert.open(TestEnvVars.get());
+    while (!insert.eos()) {
+      insert.nextReady();
+    }
+    insert.close();
+    insert(columnar, makeTuples(0, 3000), false);
+
+    List<SimplePredicate> predicates =
+        ImmutableList.of(
+            new SimplePredicate(0, SimplePredicate.Op.NOT_EQUALS, "150"),
+            new SimplePredicate(1, SimplePredicate.Op.LIKE, "5"));
+    long[] expected =
+        sumAndCount(new DbQueryScan(sqlite, RELATION, SCHEMA, new int[] {0, 1}, predicates));
+    long[] actual =
+        sumAndCount(new DbQueryScan(columnar, RELATION, SCHEMA, new int[] {0, 1}, predicates));
+    assertTrue(expected[1] > 0);
+    assertEquals(expected[0], actual[0]);
+    assertEquals(expected[1], actual[1]);
+  }
+
+  @Test
+  public void testQuotedColumnNames() throws Exception {
+    /* A camelCase name, which PostgreSQL folds to lower case unless quoted, and a keyword. */
+    Schema schema = Schema.ofFields("userId", Type.INT_TYPE, "order", Type.STRING_TYPE);
+    TupleBatchBuffer tuples = new TupleBatchBuffer(schema);
+    for (int i = 0; i < 100; ++i) {
+      tuples.putInt(0, i);
+      tuples.putString(1, "order" + i);
+    }
+    SQLiteInfo sqlite = SQLiteInfo.of(folder.newFile("sqlite.db").getPath());
+    DbInsert insert = new DbInsert(new BatchTupleSource(tuples), RELATION, sqlite);
+    insert.open(TestEnvVars.get());
+    while (!insert.eos()) {
+      insert.nextReady();
+    }
+    insert.close();
+
+    List<SimplePredicate> predicates =
+        ImmutableList.of(
+            new SimplePredicate(0, SimplePredicate.Op.LESS_THAN, "50"),
+            new SimplePredicate(1, SimplePredicate.Op.LIKE, "4"));
+    DbQueryScan scan = new DbQueryScan(sqlite, RELATION, schema, new int[] {0, 1}, predicates);
+    long[] filtered = sumAndCount(scan);
+    /* 4, 14, 24, 34 and 40 to 49. */
+    assertEquals(14, filtered[1]);
+    assertEquals(4 + 14 + 24 + 34 + 445, filtered[0]);
+
+    assertEquals(
+        "[userId]", AccessMethod.quoteColumn(MyriaConstants.STORAGE_SYSTEM_SQLITE, "userId"));
+    assertEquals(
+        "\"userId\"", AccessMethod.quoteColumn(MyriaConstants.STORAGE_SYSTEM_POSTGRESQL, "userId"));
+    assertEquals(
+        "`userId`", AccessMethod.quoteColumn(MyriaConstants.STORAGE_SYSTEM_MYSQL, "userId"));
+  }
+
+  @Test
+  public void testAbortedInsertsAreInvisible() throws DbException {
+    ColumnarInfo info = ColumnarInfo.of(folder.getRoot().getPath());
+    AccessMethod accessMethod =
+        AccessMethod.of(MyriaConstants.STORAGE_SYSTEM_COLUMNAR, info, false);
+    accessMethod.createTableIfNotExists(RELATION, SCHEMA);
+    accessMethod.beginInserts(RELATION);
+    for (TupleBatch tb : makeTuples(0, 5000).getAll()) {
+      accessMethod.tupleBatchInsert(RELATION, tb);
+    }
+    accessMethod.abortInserts();
+    accessMethod.tupleBatchInsert(RELATION, makeTuples(0, 3).popAny());
+    accessMethod.close();
+
+    assertEquals(3, sumAndCount(new DbQueryScan(info, RELATION, SCHEMA))[1]);
+    assertEquals(1, new File(folder.getRoot(), "test/test/columnar").list().length);
+  }
+
+  @Test
+  public void testConnectionInfo() {
+    String json =
+        ConnectionInfo.toJson(
+            MyriaConstants.STORAGE_SYSTEM_COLUMNAR, "localhost", "/tmp/myria", 3, null, null, null);
+    ConnectionInfo info = ConnectionInfo.of(MyriaConstants.STORAGE_SYSTEM_COLUMNAR, json);
+    assertTrue(info instanceof ColumnarInfo);
+    assertEquals(MyriaConstants.STORAGE_SYSTEM_COLUMNAR, info.getDbms());
+    assertEquals("/tmp/myria/workers/3/columnar", ((ColumnarInfo) info).getDirectory());
+    assertEquals(ColumnarInfo.DEFAULT_COMPRESSION, ((ColumnarInfo) info).getCompression());
+  }
+
+  @Test(expected = DbException.class)
+  public void testMissingRelation() throws DbException {
+    ColumnarInfo info = ColumnarInfo.of(folder.getRoot().getPath());
+    sumAndCount(new DbQueryScan(info, RELATION, SCHEMA));
+  }
+
+  @Test
+  public void testNonFiniteOperands() throws Exception {
+    Schema schema = Schema.ofFields("id", Type.INT_TYPE, "value", Type.DOUBLE_TYPE);
+    TupleBatchBuffer tuples = new TupleBatchBuffer(schema);
+    for (int i = 0; i < 10; ++i) {
+      tuples.putInt(0, i);
+      tuples.putDouble(1, i);
+    }
+    SQLiteInfo sqlite = SQLiteInfo.of(folder.newFile("sqlite.db").getPath());
+    DbInsert insert = new DbInsert(new BatchTupleSource(tuples), RELATION, sqlite);
+    insert.open(TestEnvVars.get());
+    while (!insert.eos()) {
+      insert.nextReady();
+    }
+    insert.close();
+
+    assertEquals(
+        5,
+        sumAndCount(
+                new DbQueryScan(
+                    sqlite,
+                    RELATION,
+                    schema,
+                    new int[] {0, 1},
+                    ImmutableList.of(new SimplePredicate(1, SimplePredicate.Op.LESS_THAN, "5.0"))))[
+            1]);
+    /* SQLite has no literal for NaN or infinities. */
+    for (String operand : new String[] {"NaN", "Infinity", "-Infinity"}) {
+      try {
+        sumAndCount(
+            new DbQueryScan(
+                sqlite,
+                RELATION,
+                schema,
+                new int[] {0, 1},
+                ImmutableList.of(new SimplePredicate(1, SimplePredicate.Op.LESS_THAN, operand))));
+        fail("Expected a DbException for " + operand);
+      } catch (DbException e) {
+        assertTrue(e.getMessage().contains(operand));
+      }
+    }
+  }
+}
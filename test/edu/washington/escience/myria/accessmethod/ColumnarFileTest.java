@@ -0,0 +1,230 @@
+package edu.washington.escience.myria.accessmethod;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+
+import org.joda.time.DateTime;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.collect.ImmutableList;
+
+import edu.washington.escience.myria.Schema;
+import edu.washington.escience.myria.SimplePredicate;
+import edu.washington.escience.myria.Type;
+import edu.washington.escience.myria.storage.TupleBatch;
+import edu.washington.escience.myria.storage.TupleBatchBuffer;
+import edu.washington.escience.myria.util.BlockCompression;
+
+public class ColumnarFileTest {
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private static final Schema SCHEMA =
+      Schema.ofFields(
+          "id",
+          Type.LONG_TYPE,
+          "i",
+          Type.INT_TYPE,
+          "d",
+          Type.DOUBLE_TYPE,
+          "f",
+          Type.FLOAT_TYPE,
+          "b",
+          Type.BOOLEAN_TYPE,
+          "s",
+          Type.STRING_TYPE,
+          "t",
+          Type.DATETIME_TYPE);
+
+  private static final int NUM_TUPLES = 25000;
+
+  /** Write tuples with ids 0 to NUM_TUPLES - 1, in row groups of 1000 tuples. */
+  private Path writeFile(final BlockCompression compression) throws IOException {
+    Path path = new File(folder.getRoot(), compression + ".col").toPath();
+    TupleBatchBuffer buffer = new TupleBatchBuffer(SCHEMA);
+    for (int id = 0; id < NUM_TUPLES; ++id) {
+      buffer.putLong(0, id);
+      buffer.putInt(1, -id);
+      buffer.putDouble(2, id / 4.0);
+      buffer.putFloat(3, id % 7);
+      buffer.putBoolean(4, id % 2 == 0);
+      buffer.putString(5, "tuple " + id + (id % 3 == 0 ? " Ünïcode" : ""));
+      buffer.putDateTime(6, new DateTime(1000L * id));
+    }
+    try (ColumnarFileWriter writer = new ColumnarFileWriter(path, SCHEMA, compression, 1000)) {
+      for (TupleBatch tb : buffer.getAll()) {
+        writer.write(tb);
+      }
+    }
+    return path;
+  }
+
+  /** Check the values of a tuple against its id. */
+  private static void checkTuple(final TupleBatch tb, final int row) {
+    int id = (int) tb.getLong(0, row);
+    assertEquals(-id, tb.getInt(1, row));
+    assertEquals(id / 4.0, tb.getDouble(2, row), 0);
+    assertEquals(id % 7, tb.getFloat(3, row), 0);
+    assertEquals(id % 2 == 0, tb.getBoolean(4, row));
+    assertEquals("tuple " + id + (id % 3 == 0 ? " Ünïcode" : ""), tb.getString(5, row));
+    assertEquals(1000L * id, tb.getDateTime(6, row).getMillis());
+  }
+
+  @Test
+  public void testRoundTrip() throws IOException {
+    for (BlockCompression compression : BlockCompression.values()) {
+      try (ColumnarFileReader reader = new ColumnarFileReader(writeFile(compression))) {
+        assertEquals(SCHEMA, reader.getSchema());
+        assertEquals(25, reader.numRowGroups());
+        assertEquals(NUM_TUPLES, reader.numTuples());
+        int expected = 0;
+        Iterator<TupleBatch> tuples = reader.scan(null, null);
+        while (tuples.hasNext()) {
+          TupleBatch tb = tuples.next();
+          assertEquals(SCHEMA, tb.getSchema());
+          for (int row = 0; row < tb.numTuples(); ++row) {
+            assertEquals(expected++, tb.getLong(0, row));
+            checkTuple(tb, row);
+          }
+        }
+        assertEquals(NUM_TUPLES, expected);
+      }
+    }
+  }
+
+  @Test
+  public void testProjectionAndFilter() throws IOException {
+    try (ColumnarFileReader reader = new ColumnarFileReader(writeFile(BlockCompression.LZ4))) {
+      /* 1000 <= id < 1500 and even, projected on s and id; b is filtered but not returned. */
+      List<SimplePredicate> predicates =
+          ImmutableList.of(
+              new SimplePredicate(0, SimplePredicate.Op.GREATER_THAN_OR_EQ, "1000"),
+              new SimplePredicate(1, SimplePredicate.Op.GREATER_THAN, "-1500"),
+              new SimplePredicate(4, SimplePredicate.Op.EQUALS, "true"));
+      Iterator<TupleBatch> tuples = reader.scan(new int[] {5, 0}, predicates);
+      int count = 0;
+      while (tuples.hasNext()) {
+        TupleBatch tb = tuples.next();
+        assertEquals(Schema.ofFields("s", Type.STRING_TYPE, "id", Type.LONG_TYPE), tb.getSchema());
+        for (int row = 0; row < tb.numTuples(); ++row) {
+          long id = tb.getLong(1, row);
+          assertTrue(id >= 1000 && id < 1500 && id % 2 == 0);
+          assertTrue(tb.getString(0, row).startsWith("tuple " + id));
+          ++count;
+        }
+      }
+      assertEquals(250, count);
+
+      /* LIKE matches substrings, as in Type#filter. */
+      tuples =
+          reader.scan(
+              new int[] {0},
+              ImmutableList.of(new SimplePredicate(5, SimplePredicate.Op.LIKE, "Ün")));
+      count = 0;
+      while (tuples.hasNext()) {
+        count += tuples.next().numTuples();
+      }
+      assertEquals((NUM_TUPLES + 2) / 3, count);
+    }
+  }
+
+  @Test
+  public void testZoneMaps() throws IOException {
+    try (ColumnarFileReader reader = new ColumnarFileReader(writeFile(BlockCompression.ZSTD))) {
+      assertEquals(
+          1, countRowGroups(reader, new SimplePredicate(0, SimplePredicate.Op.EQUALS, "4321")));
+      assertEquals(
+          3,
+          countRowGroups(reader, new SimplePredicate(1, SimplePredicate.Op.GREATER_THAN, "-3000")));
+      assertEquals(
+          25,
+          countRowGroups(reader, new SimplePredicate(3, SimplePredicate.Op.LESS_THAN_OR_EQ, "0")));
+      assertEquals(
+          0, countRowGroups(reader, new SimplePredicate(2, SimplePredicate.Op.LESS_THAN, "0")));
+      assertEquals(
+          1,
+          countRowGroups(
+              reader,
+              new SimplePredicate(
+                  6, SimplePredicate.Op.GREATER_THAN, new DateTime(1000L * 24500).toString())));
+      /* Every row group holds both booleans. */
+      assertEquals(
+          25,
+          countRowGroups(reader, new SimplePredicate(4, SimplePredicate.Op.NOT_EQUALS, "true")));
+
+      /* Skipped row groups are not decoded, and the others are filtered exactly. */
+      Iterator<TupleBatch> tuples =
+          reader.scan(
+              null, ImmutableList.of(new SimplePredicate(0, SimplePredicate.Op.EQUALS, "4321")));
+      TupleBatch tb = tuples.next();
+      assertEquals(1, tb.numTuples());
+      checkTuple(tb, 0);
+      assertFalse(tuples.hasNext());
+    }
+  }
+
+  /** @return the number of row groups that the predicate does not skip. */
+  private static int countRowGroups(final ColumnarFileReader reader, final SimplePredicate p) {
+    Type type = reader.getSchema().getColumnType(p.getField());
+    Comparable<?>[] operands = {type.fromString(p.getOperand())};
+    int count = 0;
+    for (int group = 0; group < reader.numRowGroups(); ++group) {
+      if (reader.mayMatch(group, ImmutableList.of(p), operands)) {
+        ++count;
+      }
+    }
+    return count;
+  }
+
+  @Test
+  public void testBlobsAndEmptyFile() throws IOException {
+    Schema schema = Schema.ofFields("x", Type.BLOB_TYPE, "n", Type.INT_TYPE);
+    Path path = new File(folder.getRoot(), "blobs.col").toPath();
+    try (ColumnarFileWriter writer = new ColumnarFileWriter(path, schema, BlockCompression.LZ4)) {
+      TupleBatchBuffer buffer = new TupleBatchBuffer(schema);
+      for (int i = 0; i < 3; ++i) {
+        buffer.putBlob(0, ByteBuffer.wrap(("blob" + i).getBytes(StandardCharsets.UTF_8)));
+        buffer.putInt(1, i);
+      }
+      for (TupleBatch tb : buffer.getAll()) {
+        writer.write(tb);
+      }
+    }
+    try (ColumnarFileReader reader = new ColumnarFileReader(path)) {
+      Iterator<TupleBatch> tuples =
+          reader.scan(
+              null, ImmutableList.of(new SimplePredicate(1, SimplePredicate.Op.EQUALS, "2")));
+      TupleBatch tb = tuples.next();
+      assertEquals(1, tb.numTuples());
+      assertEquals(ByteBuffer.wrap("blob2".getBytes(StandardCharsets.UTF_8)), tb.getBlob(0, 0));
+      assertFalse(tuples.hasNext());
+    }
+
+    Path empty = new File(folder.getRoot(), "empty.col").toPath();
+    new ColumnarFileWriter(empty, SCHEMA, BlockCompression.NONE).close();
+    try (ColumnarFileReader reader = new ColumnarFileReader(empty)) {
+      assertEquals(SCHEMA, reader.getSchema());
+      assertEquals(0, reader.numRowGroups());
+      assertFalse(reader.scan(null, null).hasNext());
+    }
+  }
+
+  @Test(expected = IOException.class)
+  public void testNotColumnar() throws IOException {
+    Path path = folder.newFile().toPath();
+    Files.write(path, "a,b,c\n1,2,3\n".getBytes(StandardCharsets.UTF_8));
+    new ColumnarFileReader(path).close();
+  }
+}
@@ -25,6 +25,7 @@ import edu.washington.escience.myria.operator.LeafOperator;
 import edu.washington.escience.myria.operator.TupleRangeSource;
 import edu.washington.escience.myria.storage.TupleBatch;
 import edu.washington.escience.myria.storage.TupleBatchBuffer;
+import edu.washington.escience.myria.storage.TupleUtils;
 import edu.washington.escience.myria.util.TestEnvVars;
 import edu.washington.escience.myria.util.TestUtils;
 
@@ -74,6 +75,20 @@ public class JdbcAccessMethodTest {
     doInsert(dbms, source, expectedNumResults);
   }
 
+  private void testInsertManyBatchesOfFloats(final String dbms) throws DbException {
+    final int expectedNumResults = 3 * TupleUtils.getBatchSize(Type.DOUBLE_TYPE) + 17;
+    TupleBatchBuffer data =
+        new TupleBatchBuffer(
+            Schema.of(
+                ImmutableList.of(Type.DOUBLE_TYPE, Type.FLOAT_TYPE), ImmutableList.of("d", "f")));
+    for (int i = 0; i < expectedNumResults; i++) {
+      data.putDouble(0, i / 3.0);
+      data.putFloat(1, -i / 7.0f);
+    }
+    BatchTupleSource source = new BatchTupleSource(data);
+    doInsert(dbms, source, expectedNumResults);
+  }
+
   private void doInsert(final String dbms, final LeafOperator source, final int expectedNumResults)
       throws DbException {
     Objects.requireNonNull(dbms, "dbms");
@@ -117,5 +132,6 @@ public class JdbcAccessMethodTest {
     TestUtils.requireTravis();
     testInsertTuplesAndCountThem(MyriaConstants.STORAGE_SYSTEM_POSTGRESQL);
     testInsertTuplesAndCountThemWithNull(MyriaConstants.STORAGE_SYSTEM_POSTGRESQL);
+    testInsertManyBatchesOfFloats(MyriaConstants.STORAGE_SYSTEM_POSTGRESQL);
   }
 }
@@ -0,0 +1,113 @@
+package edu.washington.escience.myria.accessmethod;
+
+import java.util.List;
+
+import edu.washington.escience.myria.DbException;
+import edu.washington.escience.myria.MyriaConstants;
+import edu.washington.escience.myria.RelationKey;
+import edu.washington.escience.myria.Schema;
+import edu.washington.escience.myria.Type;
+import edu.washington.escience.myria.storage.TupleBatch;
+import edu.washington.escience.myria.storage.TupleBatchBuffer;
+
+/**
+ * Measures how fast tuple batches are inserted into PostgreSQL with a COPY per batch, as {@link JdbcAccessMethod} does
+ * by default, and with one COPY for all the batches, as between {@link JdbcAccessMethod#beginInserts} and
+ * {@link JdbcAccessMethod#endInserts}. The batches have long, double, float and string columns.
+ *
+ * Run with {@code java -cp ... edu.washington.escience.myria.accessmethod.PostgresInsertBenchmark [numTuples [host
+ * [port [database [username [password]]]]]]}, against a local PostgreSQL by default, with the credentials of the
+ * tests.
+ */
+public final class PostgresInsertBenchmark {
+
+  /** The schema of the inserted tuples. */
+  private static final Schema SCHEMA =
+      Schema.ofFields(
+          "id", Type.LONG_TYPE, "d", Type.DOUBLE_TYPE, "f", Type.FLOAT_TYPE, "s", Type.STRING_TYPE);
+  /** The relation the tuples are inserted into. */
+  private static final RelationKey RELATION = RelationKey.of("myria", "benchmark", "insert");
+  /** The number of runs of each method, the first one warms up. */
+  private static final int NUM_RUNS = 4;
+
+  /** Benchmarks cannot be constructed. */
+  private PostgresInsertBenchmark() {}
+
+  /**
+   * @param numTuples the number of tuples
+   * @return the batches of the tuples
+   */
+  private static List<TupleBatch> makeBatches(final int numTuples) {
+    final TupleBatchBuffer buffer = new TupleBatchBuffer(SCHEMA);
+    for (int i = 0; i < numTuples; ++i) {
+      buffer.putLong(0, i);
+      buffer.putDouble(1, i / 3.0);
+      buffer.putFloat(2, -i / 7.0f);
+      buffer.putString(3, "tuple " + i);
+    }
+    return buffer.getAll();
+  }
+
+  /**
+   * @param jdbcInfo the database
+   * @param batches the inserted batches
+   * @param oneCopy whether to insert all the batches with one COPY
+   * @return the number of tuples inserted per second
+   * @throws DbException if the inserts fail
+   */
+  private static double run(
+      final JdbcInfo jdbcInfo, final List<TupleBatch> batches, final boolean oneCopy)
+      throws DbException {
+    final JdbcAccessMethod accessMethod = new JdbcAccessMethod(jdbcInfo, false);
+    try {
+      accessMethod.dropTableIfExists(RELATION);
+      accessMethod.createTableIfNotExists(RELATION, SCHEMA);
+      long numTuples = 0;
+      final long start = System.nanoTime();
+      if (oneCopy) {
+        accessMethod.beginInserts(RELATION);
+      }
+      for (TupleBatch tb : batches) {
+        accessMethod.tupleBatchInsert(RELATION, tb);
+        numTuples += tb.numTuples();
+      }
+      if (oneCopy) {
+        accessMethod.endInserts();
+      }
+      final double seconds = (System.nanoTime() - start) / 1e9;
+      accessMethod.dropTableIfExists(RELATION);
+      return numTuples / seconds;
+    } finally {
+      accessMethod.close();
+    }
+  }
+
+  /**
+   * @param args optionally, the number of tuples and the host, port, database, username and password of PostgreSQL
+   * @throws Exception if anything fails
+   */
+  public static void main(final String[] args) throws Exception {
+    final int numTuples = args.length > 0 ? Integer.parseInt(args[0]) : 1000 * 1000;
+    final JdbcInfo jdbcInfo =
+        JdbcInfo.of(
+            "org.postgresql.Driver",
+            MyriaConstants.STORAGE_SYSTEM_POSTGRESQL,
+            args.length > 1 ? args[1] : "localhost",
+            args.length > 2 ? Integer.parseInt(args[2]) : 5432,
+            args.length > 3 ? args[3] : "myria_test",
+            args.length > 4 ? args[4] : "postgres",
+            args.length > 5 ? args[5] : "");
+    final List<TupleBatch> batches = makeBatches(numTuples);
+    System.out.println(
+        numTuples + " tuples in " + batches.size() + " batches of " + SCHEMA.getColumnTypes());
+    for (int i = 0; i < NUM_RUNS; ++i) {
+      final String run = i == 0 ? "warm-up " : "run " + i + "   ";
+      System.out.println(
+          String.format(
+              "%s COPY per batch: %8.0f tuples/s, one COPY: %8.0f tuples/s",
+              run,
+              run(jdbcInfo, batches, false),
+              run(jdbcInfo, batches, true)));
+    }
+  }
+}
@@ -3,6 +3,8 @@ package edu.washington.escience.myria.api;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
+import java.util.Arrays;
+
 import org.junit.BeforeClass;
 import org.junit.Test;
 
@@ -12,6 +14,7 @@ import com.fasterxml.jackson.databind.ObjectReader;
 import edu.washington.escience.myria.operator.network.distribute.DistributeFunction;
 import edu.washington.escience.myria.operator.network.distribute.HashDistributeFunction;
 import edu.washington.escience.myria.operator.network.distribute.RoundRobinDistributeFunction;
+import edu.washington.escience.myria.operator.network.distribute.SkewedHashDistributeFunction;
 
 public class SerializationTests {
 
@@ -43,6 +46,20 @@ public class SerializationTests {
     serialized = mapper.writeValueAsString(df);
     deserialized = reader.readValue(serialized);
     assertEquals(df.getClass(), deserialized.getClass());
+
+    /* Skewed hash */
+    deserialized =
+        reader.readValue(
+            "{\"type\":\"SkewedHash\",\"indexes\":[1,0],\"heavyHitters\":[[7,\"a\"]],"
+                + "\"heavyHitterPolicy\":\"BROADCAST\"}");
+    SkewedHashDistributeFunction skewed = (SkewedHashDistributeFunction) deserialized;
+    assertArrayEquals(new int[] {1, 0}, skewed.getIndexes());
+    assertEquals(Arrays.asList(Arrays.<Object>asList(7, "a")), skewed.getHeavyHitters());
+    assertEquals(
+        SkewedHashDistributeFunction.HeavyHitterPolicy.BROADCAST, skewed.getHeavyHitterPolicy());
+    deserialized = reader.readValue(mapper.writeValueAsString(skewed));
+    assertEquals(
+        skewed.getHeavyHitters(), ((SkewedHashDistributeFunction) deserialized).getHeavyHitters());
   }
 
   @Test
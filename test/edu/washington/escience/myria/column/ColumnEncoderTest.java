@@ -0,0 +1,120 @@
+package edu.washington.escience.myria.column;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+
+import edu.washington.escience.myria.Type;
+import edu.washington.escience.myria.column.builder.ColumnBuilder;
+import edu.washington.escience.myria.column.builder.ColumnFactory;
+import edu.washington.escience.myria.column.builder.DictionaryStringColumnBuilder;
+import edu.washington.escience.myria.proto.DataProto.ColumnMessage;
+
+public class ColumnEncoderTest {
+
+  private static final int NUM_ROWS = 1000;
+
+  /**
+   * Encode and decode a column, and check that the values and type survive.
+   *
+   * @return the encoded column
+   */
+  private static ColumnMessage roundTrip(final Column<?> column)
+      throws InvalidProtocolBufferException {
+    final ColumnMessage message = ColumnEncoder.encode(column);
+    final Column<?> decoded =
+        ColumnFactory.columnFromColumnMessage(
+            ColumnMessage.parseFrom(message.toByteString()), column.size());
+    assertEquals(column.getType(), decoded.getType());
+    assertEquals(column.size(), decoded.size());
+    for (int row = 0; row < column.size(); ++row) {
+      assertEquals(column.getObject(row), decoded.getObject(row));
+    }
+    return message;
+  }
+
+  private static int rawSize(final Column<?> column) {
+    return column.serializeToProto().getSerializedSize();
+  }
+
+  @Test
+  public void testConstant() throws InvalidProtocolBufferException {
+    ColumnBuilder<?> builder = ColumnFactory.allocateColumn(Type.STRING_TYPE);
+    for (int i = 0; i < NUM_ROWS; ++i) {
+      builder.appendString("constant");
+    }
+    Column<?> column = builder.build();
+    ColumnMessage message = roundTrip(column);
+    assertTrue(message.hasConstantColumn());
+    assertTrue(message.getSerializedSize() < 50);
+
+    message = roundTrip(new ConstantValueColumn(42L, Type.LONG_TYPE, NUM_ROWS));
+    assertTrue(message.hasConstantColumn());
+  }
+
+  @Test
+  public void testRunLength() throws InvalidProtocolBufferException {
+    ColumnBuilder<?> doubles = ColumnFactory.allocateColumn(Type.DOUBLE_TYPE);
+    ColumnBuilder<?> strings = new DictionaryStringColumnBuilder();
+    ColumnBuilder<?> booleans = ColumnFactory.allocateColumn(Type.BOOLEAN_TYPE);
+    for (int i = 0; i < NUM_ROWS; ++i) {
+      doubles.appendDouble(i / 100 * 0.5);
+      strings.appendString("value" + i / 50);
+      booleans.appendBoolean(i < NUM_ROWS / 2);
+    }
+    for (ColumnBuilder<?> builder : new ColumnBuilder<?>[] {doubles, strings, booleans}) {
+      Column<?> column = builder.build();
+      ColumnMessage message = roundTrip(column);
+      assertTrue(message.hasRunLengthColumn());
+      assertTrue(message.getSerializedSize() < rawSize(column));
+    }
+  }
+
+  @Test
+  public void testDelta() throws InvalidProtocolBufferException {
+    ColumnBuilder<?> ints = ColumnFactory.allocateColumn(Type.INT_TYPE);
+    ColumnBuilder<?> longs = ColumnFactory.allocateColumn(Type.LONG_TYPE);
+    ColumnBuilder<?> wrapping = ColumnFactory.allocateColumn(Type.LONG_TYPE);
+    Random random = new Random(1);
+    long value = -500;
+    for (int i = 0; i < NUM_ROWS; ++i) {
+      value += random.nextInt(20) - 5;
+      ints.appendInt((int) value);
+      longs.appendLong(value * 1000L);
+      wrapping.appendLong(Long.MAX_VALUE - 3 + i);
+    }
+    for (ColumnBuilder<?> builder : new ColumnBuilder<?>[] {ints, longs, wrapping}) {
+      Column<?> column = builder.build();
+      ColumnMessage message = roundTrip(column);
+      assertTrue(message.hasDeltaColumn());
+      assertTrue(message.getSerializedSize() * 2 < rawSize(column));
+    }
+  }
+
+  @Test
+  public void testRaw() throws InvalidProtocolBufferException {
+    ColumnBuilder<?> longs = ColumnFactory.allocateColumn(Type.LONG_TYPE);
+    ColumnBuilder<?> strings = ColumnFactory.allocateColumn(Type.STRING_TYPE);
+    Random random = new Random(1);
+    for (int i = 0; i < NUM_ROWS; ++i) {
+      longs.appendLong(random.nextLong());
+      strings.appendString(Integer.toString(random.nextInt()));
+    }
+    for (ColumnBuilder<?> builder : new ColumnBuilder<?>[] {longs, strings}) {
+      ColumnMessage message = roundTrip(builder.build());
+      assertFalse(ColumnEncoder.isEncoded(message));
+    }
+
+    ColumnBuilder<?> small = ColumnFactory.allocateColumn(Type.INT_TYPE);
+    for (int i = 0; i < ColumnEncoder.MIN_ROWS - 1; ++i) {
+      small.appendInt(7);
+    }
+    assertFalse(ColumnEncoder.isEncoded(roundTrip(small.build())));
+  }
+}
@@ -0,0 +1,239 @@
+package edu.washington.escience.myria.column;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.BitSet;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import edu.washington.escience.myria.DbException;
+import edu.washington.escience.myria.Schema;
+import edu.washington.escience.myria.Type;
+import edu.washington.escience.myria.column.builder.ColumnBuilder;
+import edu.washington.escience.myria.column.builder.ColumnFactory;
+import edu.washington.escience.myria.column.builder.DictionaryStringColumnBuilder;
+import edu.washington.escience.myria.column.builder.StringColumnBuilder;
+import edu.washington.escience.myria.expression.ConstantExpression;
+import edu.washington.escience.myria.expression.EqualsExpression;
+import edu.washington.escience.myria.expression.Expression;
+import edu.washington.escience.myria.expression.NotEqualsExpression;
+import edu.washington.escience.myria.expression.VariableExpression;
+import edu.washington.escience.myria.expression.evaluate.BooleanEvaluator;
+import edu.washington.escience.myria.expression.evaluate.ExpressionOperatorParameter;
+import edu.washington.escience.myria.operator.FlatTupleHashTable;
+import edu.washington.escience.myria.operator.TupleHashTable;
+import edu.washington.escience.myria.proto.DataProto.ColumnMessage;
+import edu.washington.escience.myria.storage.MutableTupleBuffer;
+import edu.washington.escience.myria.storage.TupleBatch;
+import edu.washington.escience.myria.storage.TupleBatchBuffer;
+import edu.washington.escience.myria.storage.TupleUtils;
+import edu.washington.escience.myria.util.HashUtils;
+
+public class DictionaryStringColumnTest {
+
+  private static final String[] VALUES = {"red", "green", "red", "", "blue", "green", "red"};
+
+  private static DictionaryStringColumn build(final StringDictionary dictionary) {
+    final DictionaryStringColumnBuilder builder = new DictionaryStringColumnBuilder(dictionary);
+    for (String value : VALUES) {
+      builder.appendString(value);
+    }
+    return builder.build();
+  }
+
+  private static Column<?> buildPlain() {
+    final StringColumnBuilder builder = new StringColumnBuilder();
+    for (String value : VALUES) {
+      builder.appendString(value);
+    }
+    return builder.build();
+  }
+
+  @Test
+  public void testEncoding() {
+    final DictionaryStringColumn column = build(new StringDictionary());
+    assertEquals(4, column.getDictionary().size());
+    assertEquals(VALUES.length, column.size());
+    for (int i = 0; i < VALUES.length; ++i) {
+      assertEquals(VALUES[i], column.getString(i));
+    }
+    assertEquals(column.getCode(0), column.getCode(2));
+    assertEquals(column.getCode(1), column.getCode(5));
+    assertEquals(-1, column.getDictionary().lookup("purple"));
+  }
+
+  @Test
+  public void testProto() {
+    final StringDictionary dictionary = new StringDictionary();
+    dictionary.encode("unused");
+    final DictionaryStringColumn column = build(dictionary);
+    final ColumnMessage serialized = column.serializeToProto();
+    assertEquals(ColumnMessage.Type.STRING, serialized.getType());
+    assertTrue(serialized.hasDictionaryStringColumn());
+    /* Only the values used by the column are sent. */
+    assertEquals(4, serialized.getDictionaryStringColumn().getStartIndicesCount());
+    final StringColumn deserialized =
+        StringColumnBuilder.buildFromProtobuf(serialized, VALUES.length);
+    assertTrue(deserialized instanceof DictionaryStringColumn);
+    assertEquals(column.toString(), deserialized.toString());
+  }
+
+  @Test
+  public void testProtoOfLargeDictionary() {
+    final StringDictionary dictionary = new StringDictionary();
+    for (int i = 0; i < 10000; ++i) {
+      dictionary.encode("value" + i);
+    }
+    final DictionaryStringColumnBuilder builder = new DictionaryStringColumnBuilder(dictionary);
+    builder.appendString("value9999").appendString("value5").appendString("value9999");
+    final ColumnMessage serialized = builder.build().serializeToProto();
+    assertEquals(2, serialized.getDictionaryStringColumn().getStartIndicesCount());
+    final StringColumn deserialized = StringColumnBuilder.buildFromProtobuf(serialized, 3);
+    assertEquals("value9999", deserialized.getString(0));
+    assertEquals("value5", deserialized.getString(1));
+    assertEquals("value9999", deserialized.getString(2));
+  }
+
+  @Test
+  public void testSharedAcrossBatches() {
+    final Schema schema = Schema.ofFields("i", Type.INT_TYPE, "s", Type.STRING_TYPE);
+    final TupleBatchBuffer buffer = new TupleBatchBuffer(schema, true);
+    final int numTuples = TupleUtils.getBatchSize(schema) * 2 + 1;
+    for (int i = 0; i < numTuples; ++i) {
+      buffer.putInt(0, i);
+      buffer.putString(1, VALUES[i % VALUES.length]);
+    }
+    final List<TupleBatch> batches = buffer.getAll();
+    assertEquals(3, batches.size());
+    final StringDictionary dictionary =
+        ((DictionaryStringColumn) batches.get(0).getDataColumns().get(1)).getDictionary();
+    assertEquals(4, dictionary.size());
+    for (TupleBatch tb : batches) {
+      assertSame(dictionary, ((DictionaryStringColumn) tb.getDataColumns().get(1)).getDictionary());
+    }
+    assertEquals(VALUES[(numTuples - 1) % VALUES.length], batches.get(2).getString(1, 0));
+
+    /* A column with too many distinct values is no longer encoded. */
+    final StringDictionary[] dictionaries = ColumnFactory.allocateDictionaries(schema);
+    assertNull(dictionaries[0]);
+    for (int i = 0; i <= StringDictionary.MAX_SHARED_SIZE; ++i) {
+      dictionaries[1].encode(Integer.toString(i));
+    }
+    final List<ColumnBuilder<?>> builders = ColumnFactory.allocateColumns(schema, dictionaries);
+    assertTrue(builders.get(1) instanceof StringColumnBuilder);
+    assertNull(dictionaries[1]);
+  }
+
+  @Test
+  public void testHashTableProbe() {
+    final Schema schema = Schema.ofFields("s", Type.STRING_TYPE);
+    final StringDictionary dictionary = new StringDictionary();
+    final TupleBatch encoded = new TupleBatch(schema, ImmutableList.of(build(dictionary)));
+    final int[] key = {0};
+    final TupleHashTable table = new FlatTupleHashTable(schema, key);
+    for (int row = 0; row < VALUES.length; ++row) {
+      if (table.firstIndex(encoded, key, row) < 0) {
+        table.addTuple(encoded, key, row, true);
+      }
+    }
+    assertEquals(4, table.numTuples());
+    final MutableTupleBuffer data = table.getData();
+    for (int index = 0; index < data.numTuples(); ++index) {
+      assertEquals(
+          dictionary.lookup(data.getString(0, index)), data.getStringCode(0, index, dictionary));
+      assertEquals(-1, data.getStringCode(0, index, new StringDictionary()));
+    }
+
+    /* Probes with codes of the same dictionary, of another one, and with plain Strings. */
+    final TupleBatch encoded2 = new TupleBatch(schema, ImmutableList.of(build(dictionary)));
+    final TupleBatch other =
+        new TupleBatch(schema, ImmutableList.of(build(new StringDictionary())));
+    final TupleBatch plain = new TupleBatch(schema, ImmutableList.<Column<?>>of(buildPlain()));
+    for (TupleBatch probe : ImmutableList.of(encoded2, other, plain)) {
+      for (int row = 0; row < VALUES.length; ++row) {
+        int index = table.firstIndex(probe, key, row);
+        assertEquals(VALUES[row], data.getString(0, index));
+        assertEquals(-1, table.nextIndex(probe, key, row, index));
+      }
+    }
+
+    /* A replaced value is compared as a String. */
+    final int red = table.firstIndex(encoded, key, 0);
+    data.replaceString(0, red, "purple");
+    assertEquals(-1, data.getStringCode(0, red, dictionary));
+    assertEquals(-1, table.firstIndex(encoded, key, 0));
+  }
+
+  @Test
+  public void testFilter() {
+    final DictionaryStringColumn column = build(new StringDictionary());
+    final BitSet filter = new BitSet();
+    filter.set(1);
+    filter.set(4);
+    final DictionaryStringColumn filtered = column.filter(filter);
+    assertEquals(2, filtered.size());
+    assertEquals("green", filtered.getString(0));
+    assertEquals("blue", filtered.getString(1));
+    assertTrue(filtered.getDictionary() == column.getDictionary());
+  }
+
+  @Test
+  public void testHashAndEquals() {
+    final Schema schema = Schema.ofFields("s", Type.STRING_TYPE);
+    final StringDictionary dictionary = new StringDictionary();
+    final TupleBatch encoded1 = new TupleBatch(schema, ImmutableList.of(build(dictionary)));
+    final TupleBatch encoded2 = new TupleBatch(schema, ImmutableList.of(build(dictionary)));
+    final TupleBatch other =
+        new TupleBatch(schema, ImmutableList.of(build(new StringDictionary())));
+    final TupleBatch plain = new TupleBatch(schema, ImmutableList.<Column<?>>of(buildPlain()));
+    final int[] key = {0};
+    for (int row = 0; row < VALUES.length; ++row) {
+      for (int seed = 0; seed < HashUtils.NUM_OF_HASHFUNCTIONS; ++seed) {
+        int expected = HashUtils.hashSubRow(plain, key, row, seed);
+        assertEquals(expected, HashUtils.hashSubRow(encoded1, key, row, seed));
+        assertEquals(expected, HashUtils.hashValue(encoded1, 0, row, seed));
+      }
+      for (int row2 = 0; row2 < VALUES.length; ++row2) {
+        boolean expected = VALUES[row].equals(VALUES[row2]);
+        assertEquals(expected, TupleUtils.tupleEquals(encoded1, key, row, encoded2, key, row2));
+        assertEquals(expected, TupleUtils.tupleEquals(encoded1, key, row, other, key, row2));
+        assertEquals(expected, TupleUtils.tupleEquals(encoded1, key, row, plain, key, row2));
+      }
+    }
+  }
+
+  @Test
+  public void testEqualityPredicate() throws DbException {
+    final Schema schema = Schema.ofFields("s", Type.STRING_TYPE);
+    final ExpressionOperatorParameter parameters = new ExpressionOperatorParameter(schema);
+    final TupleBatch encoded =
+        new TupleBatch(schema, ImmutableList.of(build(new StringDictionary())));
+    final TupleBatch plain = new TupleBatch(schema, ImmutableList.<Column<?>>of(buildPlain()));
+    for (String constant : new String[] {"red", "", "purple"}) {
+      for (boolean negated : new boolean[] {false, true}) {
+        Expression expression =
+            new Expression(
+                "p",
+                negated
+                    ? new NotEqualsExpression(
+                        new ConstantExpression(constant), new VariableExpression(0))
+                    : new EqualsExpression(
+                        new VariableExpression(0), new ConstantExpression(constant)));
+        BooleanEvaluator evaluator = new BooleanEvaluator(expression, parameters);
+        evaluator.compile();
+        BitSet expected = new BitSet();
+        for (int row = 0; row < VALUES.length; ++row) {
+          expected.set(row, VALUES[row].equals(constant) != negated);
+        }
+        assertEquals(expected, evaluator.evalBatch(plain));
+        assertEquals(expected, evaluator.evalBatch(encoded));
+      }
+    }
+  }
+}
@@ -1,5 +1,6 @@
 package edu.washington.escience.myria.column;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 import java.nio.BufferOverflowException;
@@ -9,6 +10,7 @@ import org.junit.Test;
 import edu.washington.escience.myria.Type;
 import edu.washington.escience.myria.column.LongColumn;
 import edu.washington.escience.myria.column.builder.LongColumnBuilder;
+import edu.washington.escience.myria.column.builder.PrimitiveArrayPool;
 import edu.washington.escience.myria.proto.DataProto.ColumnMessage;
 import edu.washington.escience.myria.storage.TupleBatch;
 import edu.washington.escience.myria.storage.TupleUtils;
@@ -43,4 +45,42 @@ public class LongColumnTest {
     builder.appendLong(0);
     builder.build();
   }
+
+  @Test
+  public void testPooling() {
+    PrimitiveArrayPool.clear();
+
+    /* A built column keeps the builder's array, whatever its size, until it is released. */
+    LongColumnBuilder builder = new LongColumnBuilder();
+    builder.appendLong(7).appendLong(8);
+    final LongColumn small = builder.build();
+    builder.release();
+    assertEquals(0, PrimitiveArrayPool.numPooled(Type.LONG_TYPE));
+    assertEquals(8, small.getLong(1));
+    small.release();
+    small.release();
+    assertEquals(1, PrimitiveArrayPool.numPooled(Type.LONG_TYPE));
+
+    /* The pooled array is reused, zeroed. */
+    builder = new LongColumnBuilder();
+    assertEquals(0, PrimitiveArrayPool.numPooled(Type.LONG_TYPE));
+    builder.expand(2);
+    assertEquals(0, builder.getLong(0));
+    assertEquals(0, builder.getLong(1));
+    builder.release();
+    assertEquals(1, PrimitiveArrayPool.numPooled(Type.LONG_TYPE));
+
+    /* So is the array of a full column. */
+    builder = new LongColumnBuilder();
+    for (int i = 0; i < TupleUtils.getBatchSize(Type.LONG_TYPE); i++) {
+      builder.appendLong(i);
+    }
+    final LongColumn full = builder.build();
+    assertEquals(0, PrimitiveArrayPool.numPooled(Type.LONG_TYPE));
+    assertEquals(TupleUtils.getBatchSize(Type.LONG_TYPE) - 1, full.getLong(full.size() - 1));
+    full.release();
+    assertEquals(1, PrimitiveArrayPool.numPooled(Type.LONG_TYPE));
+    assertEquals(0, new LongColumnBuilder().expandAll().build().getLong(full.size() - 1));
+    PrimitiveArrayPool.clear();
+  }
 }
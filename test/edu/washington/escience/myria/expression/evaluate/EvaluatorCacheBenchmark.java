@@ -0,0 +1,96 @@
+package edu.washington.escience.myria.expression.evaluate;
+
+import com.google.common.collect.ImmutableList;
+
+import edu.washington.escience.myria.DbException;
+import edu.washington.escience.myria.Schema;
+import edu.washington.escience.myria.Type;
+import edu.washington.escience.myria.expression.ConstantExpression;
+import edu.washington.escience.myria.expression.Expression;
+import edu.washington.escience.myria.expression.GreaterThanExpression;
+import edu.washington.escience.myria.expression.PlusExpression;
+import edu.washington.escience.myria.expression.TimesExpression;
+import edu.washington.escience.myria.expression.VariableExpression;
+
+/**
+ * Measures the time to compile the expressions of a plan when starting it, with and without the {@link EvaluatorCache}.
+ * Every fragment of the simulated plan has the same filter and apply expressions, as when a plan is started on many
+ * workers or once per iteration of a {@code DoWhile}.
+ *
+ * Run with {@code java -cp ... edu.washington.escience.myria.expression.evaluate.EvaluatorCacheBenchmark [fragments]}.
+ */
+public final class EvaluatorCacheBenchmark {
+
+  /** The schema of the input of every fragment. */
+  private static final Schema SCHEMA =
+      new Schema(ImmutableList.of(Type.LONG_TYPE, Type.DOUBLE_TYPE), ImmutableList.of("a", "b"));
+
+  /** Benchmarks cannot be constructed. */
+  private EvaluatorCacheBenchmark() {}
+
+  /**
+   * Compile the expressions of every fragment of a plan.
+   *
+   * @param numFragments the number of fragments in the plan
+   * @throws DbException if the compilation failed
+   */
+  private static void startPlan(final int numFragments) throws DbException {
+    final ExpressionOperatorParameter parameters = new ExpressionOperatorParameter(SCHEMA);
+    for (int i = 0; i < numFragments; ++i) {
+      new BooleanEvaluator(
+              new Expression(
+                  "filter",
+                  new GreaterThanExpression(
+                      new VariableExpression(0), new ConstantExpression(Type.LONG_TYPE, "10"))),
+              parameters)
+          .compile();
+      new GenericEvaluator(
+          new Expression(
+              "apply",
+              new PlusExpression(
+                  new TimesExpression(
+                      new VariableExpression(1), new ConstantExpression(Type.DOUBLE_TYPE, "2")),
+                  new VariableExpression(1))),
+          parameters);
+      new ConstantEvaluator(
+          new Expression("init", new ConstantExpression(Type.LONG_TYPE, "0")), parameters);
+    }
+  }
+
+  /**
+   * @param numFragments the number of fragments in the plan
+   * @param maximumSize the maximum size of the cache, 0 to disable it
+   * @return the time to start the plan, in milliseconds
+   * @throws DbException if the compilation failed
+   */
+  private static double timeStartPlan(final int numFragments, final long maximumSize)
+      throws DbException {
+    EvaluatorCache.reset(maximumSize);
+    final long start = System.nanoTime();
+    startPlan(numFragments);
+    return (System.nanoTime() - start) / 1e6;
+  }
+
+  /**
+   * @param args optionally, the number of fragments in the plan
+   * @throws DbException if the compilation failed
+   */
+  public static void main(final String[] args) throws DbException {
+    final int numFragments = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+    final int rounds = 5;
+    /* Warm up the JIT and Janino itself. */
+    timeStartPlan(numFragments, 0);
+    timeStartPlan(numFragments, EvaluatorCache.DEFAULT_MAXIMUM_SIZE);
+    for (int round = 0; round < rounds; ++round) {
+      double uncached = timeStartPlan(numFragments, 0);
+      double cached = timeStartPlan(numFragments, EvaluatorCache.DEFAULT_MAXIMUM_SIZE);
+      System.out.printf(
+          "%d fragments: %.1f ms without cache, %.1f ms with cache (%s)%n",
+          numFragments,
+          uncached,
+          cached,
+          EvaluatorCache.stats());
+    }
+    EvaluatorCache.reset(EvaluatorCache.DEFAULT_MAXIMUM_SIZE);
+  }
+}
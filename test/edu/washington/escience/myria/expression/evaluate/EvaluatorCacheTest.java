@@ -0,0 +1,154 @@
+package edu.washington.escience.myria.expression.evaluate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.InvocationTargetException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import edu.washington.escience.myria.DbException;
+import edu.washington.escience.myria.Schema;
+import edu.washington.escience.myria.Type;
+import edu.washington.escience.myria.column.LongColumn;
+import edu.washington.escience.myria.expression.ConstantExpression;
+import edu.washington.escience.myria.expression.Expression;
+import edu.washington.escience.myria.expression.GreaterThanExpression;
+import edu.washington.escience.myria.expression.PlusExpression;
+import edu.washington.escience.myria.expression.VariableExpression;
+import edu.washington.escience.myria.storage.ReadableColumn;
+import edu.washington.escience.myria.storage.TupleBatchBuffer;
+
+public class EvaluatorCacheTest {
+
+  private static final Schema SCHEMA =
+      new Schema(ImmutableList.of(Type.LONG_TYPE), ImmutableList.of("a"));
+
+  @Before
+  public void setUp() {
+    EvaluatorCache.reset(EvaluatorCache.DEFAULT_MAXIMUM_SIZE);
+  }
+
+  @After
+  public void tearDown() {
+    EvaluatorCache.reset(EvaluatorCache.DEFAULT_MAXIMUM_SIZE);
+  }
+
+  private static BooleanEvaluator greaterThan(final long value) throws DbException {
+    Expression expr =
+        new Expression(
+            "gt",
+            new GreaterThanExpression(
+                new VariableExpression(0), new ConstantExpression(Type.LONG_TYPE, "" + value)));
+    BooleanEvaluator eval = new BooleanEvaluator(expr, new ExpressionOperatorParameter(SCHEMA));
+    eval.compile();
+    return eval;
+  }
+
+  @Test
+  public void testHitsAndMisses() throws DbException, InvocationTargetException {
+    TupleBatchBuffer tbb = new TupleBatchBuffer(SCHEMA);
+    tbb.putLong(0, 5);
+
+    assertTrue(greaterThan(3).eval(tbb.popAny(), 0));
+    assertEquals(0, EvaluatorCache.stats().hitCount());
+    assertEquals(1, EvaluatorCache.stats().missCount());
+
+    tbb.putLong(0, 5);
+    assertTrue(greaterThan(3).eval(tbb.popAny(), 0));
+    assertEquals(1, EvaluatorCache.stats().hitCount());
+    assertEquals(1, EvaluatorCache.stats().missCount());
+
+    tbb.putLong(0, 5);
+    assertTrue(!greaterThan(7).eval(tbb.popAny(), 0));
+    assertEquals(1, EvaluatorCache.stats().hitCount());
+    assertEquals(2, EvaluatorCache.stats().missCount());
+    assertEquals(2, EvaluatorCache.size());
+  }
+
+  @Test
+  public void testOneClassPerGenericEvaluator() throws DbException {
+    Expression plus =
+        new Expression(
+            "plus",
+            new PlusExpression(
+                new VariableExpression(0), new ConstantExpression(Type.LONG_TYPE, "1")));
+    GenericEvaluator eval = new GenericEvaluator(plus, new ExpressionOperatorParameter(SCHEMA));
+    assertEquals(1, EvaluatorCache.stats().missCount());
+
+    TupleBatchBuffer tbb = new TupleBatchBuffer(SCHEMA);
+    for (long i = 0; i < 10; ++i) {
+      tbb.putLong(0, i);
+    }
+    ReadableColumn results = eval.evalTupleBatch(tbb.popAny(), SCHEMA).getResults();
+    assertTrue(results instanceof LongColumn);
+    assertEquals(10, results.size());
+    assertEquals(10L, results.getLong(9));
+    assertEquals(1, EvaluatorCache.stats().missCount());
+    assertEquals(1, EvaluatorCache.size());
+  }
+
+  @Test
+  public void testConstantsKeyedByType() throws DbException {
+    Expression intSum =
+        new Expression(
+            "sum",
+            new PlusExpression(
+                new ConstantExpression(Type.INT_TYPE, "1"),
+                new ConstantExpression(Type.INT_TYPE, "2")));
+    Expression longSum =
+        new Expression(
+            "sum",
+            new PlusExpression(
+                new ConstantExpression(Type.LONG_TYPE, "1"),
+                new ConstantExpression(Type.LONG_TYPE, "2")));
+    ExpressionOperatorParameter parameters = new ExpressionOperatorParameter(Schema.EMPTY_SCHEMA);
+    assertEquals(3, new ConstantEvaluator(intSum, parameters).eval());
+    assertEquals(3L, new ConstantEvaluator(longSum, parameters).eval());
+    assertEquals(3, new ConstantEvaluator(intSum, parameters).eval());
+  }
+
+  @Test
+  public void testEviction() throws DbException {
+    EvaluatorCache.reset(2);
+    for (long i = 0; i < 5; ++i) {
+      greaterThan(i);
+    }
+    assertTrue(EvaluatorCache.size() <= 2);
+    assertTrue(EvaluatorCache.stats().evictionCount() >= 3);
+  }
+
+  @Test
+  public void testSetMaximumSize() throws DbException {
+    greaterThan(3);
+    long size = EvaluatorCache.size();
+    assertTrue(size > 0);
+    /* Configuring the same size keeps the cached evaluators. */
+    EvaluatorCache.setMaximumSize(EvaluatorCache.DEFAULT_MAXIMUM_SIZE);
+    assertEquals(size, EvaluatorCache.size());
+    EvaluatorCache.setMaximumSize(16);
+    assertEquals(16, EvaluatorCache.getMaximumSize());
+    assertEquals(0, EvaluatorCache.size());
+  }
+
+  @Test
+  public void testDisabled() throws DbException {
+    EvaluatorCache.reset(0);
+    greaterThan(3);
+    greaterThan(3);
+    assertEquals(0, EvaluatorCache.stats().hitCount());
+    assertEquals(2, EvaluatorCache.stats().missCount());
+  }
+
+  @Test(expected = DbException.class)
+  public void testCompileError() throws DbException {
+    new GenericEvaluator(
+        new Expression("bad", new VariableExpression(0)),
+        "this is not java",
+        new ExpressionOperatorParameter(SCHEMA));
+  }
+}
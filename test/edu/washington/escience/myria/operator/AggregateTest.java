@@ -833,6 +833,72 @@ public class AggregateTest {
     mga.close();
   }
 
+  @Test
+  public void testManyGroupsNumericAggs() throws DbException {
+    /* More groups than fit in one batch of states, and every input batch touches many groups. */
+    final int numGroups = 3 * TupleUtils.getBatchSize(Type.LONG_TYPE) + 7;
+    final int copies = 4;
+    final Schema schema =
+        Schema.ofFields(
+            "g", Type.LONG_TYPE, "i", Type.INT_TYPE, "l", Type.LONG_TYPE, "d", Type.DOUBLE_TYPE);
+    final TupleBatchBuffer tbb = new TupleBatchBuffer(schema);
+    final long[] expectedMin = new long[numGroups];
+    final long[] expectedMax = new long[numGroups];
+    final long[] expectedSum = new long[numGroups];
+    Arrays.fill(expectedMin, Long.MAX_VALUE);
+    Arrays.fill(expectedMax, Long.MIN_VALUE);
+    for (int copy = 0; copy < copies; ++copy) {
+      for (int g = 0; g < numGroups; ++g) {
+        final int value = (copy % 2 == 0 ? 1 : -1) * (g + copy);
+        tbb.putLong(0, g);
+        tbb.putInt(1, value);
+        tbb.putLong(2, value * 1000000000L);
+        tbb.putDouble(3, value / 4.0);
+        expectedMin[g] = Math.min(expectedMin[g], value);
+        expectedMax[g] = Math.max(expectedMax[g], value);
+        expectedSum[g] += value;
+      }
+    }
+
+    final AggregationOp[] ops =
+        new AggregationOp[] {
+          AggregationOp.COUNT, AggregationOp.MIN, AggregationOp.MAX, AggregationOp.SUM
+        };
+    Aggregate agg =
+        new Aggregate(
+            new BatchTupleSource(tbb),
+            new int[] {0},
+            new PrimitiveAggregatorFactory(1, ops),
+            new PrimitiveAggregatorFactory(2, ops),
+            new PrimitiveAggregatorFactory(3, ops));
+    agg.open(TestEnvVars.get());
+    int numResults = 0;
+    while (!agg.eos()) {
+      TupleBatch result = agg.nextReady();
+      if (result == null) {
+        continue;
+      }
+      for (int row = 0; row < result.numTuples(); ++row) {
+        final int g = (int) result.getLong(0, row);
+        assertEquals(copies, result.getLong(1, row));
+        assertEquals(expectedMin[g], result.getInt(2, row));
+        assertEquals(expectedMax[g], result.getInt(3, row));
+        assertEquals(expectedSum[g], result.getLong(4, row));
+        assertEquals(copies, result.getLong(5, row));
+        assertEquals(expectedMin[g] * 1000000000L, result.getLong(6, row));
+        assertEquals(expectedMax[g] * 1000000000L, result.getLong(7, row));
+        assertEquals(expectedSum[g] * 1000000000L, result.getLong(8, row));
+        assertEquals(copies, result.getLong(9, row));
+        assertEquals(expectedMin[g] / 4.0, result.getDouble(10, row), 0.000001);
+        assertEquals(expectedMax[g] / 4.0, result.getDouble(11, row), 0.000001);
+        assertEquals(expectedSum[g] / 4.0, result.getDouble(12, row), 0.000001);
+        ++numResults;
+      }
+    }
+    agg.close();
+    assertEquals(numGroups, numResults);
+  }
+
   /**
    * Finds a collision of a tuple of all integers with the given grouping.
    *
@@ -8,7 +8,9 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 import org.junit.Test;
 
@@ -19,8 +21,10 @@ import edu.washington.escience.myria.DbException;
 import edu.washington.escience.myria.Schema;
 import edu.washington.escience.myria.Type;
 import edu.washington.escience.myria.io.FileSource;
+import edu.washington.escience.myria.io.MappedFileSource;
 import edu.washington.escience.myria.storage.TupleBatch;
 import edu.washington.escience.myria.util.TestEnvVars;
+import edu.washington.escience.myria.util.TestUtils;
 
 /**
  * To test BinaryFileScan, and it is based on the code from FileScanTest
@@ -130,6 +134,83 @@ public class BinaryTupleReaderTest {
     assertEquals(10, getRowCount(ts));
   }
 
+  @Test
+  /**
+   * Test that the memory-mapped file gives the same tuples as the file stream, with windows that hold a few dozen
+   * records and end in the middle of one.
+   */
+  public void testMappedCosmo24Star() throws DbException {
+    Type[] typeAr = {
+      Type.LONG_TYPE, // iOrder
+      Type.FLOAT_TYPE, // mass
+      Type.FLOAT_TYPE, // x
+      Type.FLOAT_TYPE, // y
+      Type.FLOAT_TYPE, // z
+      Type.FLOAT_TYPE, // vx
+      Type.FLOAT_TYPE, // vy
+      Type.FLOAT_TYPE, // vz
+      Type.FLOAT_TYPE, // metals
+      Type.FLOAT_TYPE, // tform
+      Type.FLOAT_TYPE, // eps
+      Type.FLOAT_TYPE, // phi
+    };
+    Schema schema = new Schema(Arrays.asList(typeAr));
+    String filename =
+        "testdata"
+            + File.separatorChar
+            + "binaryfilescan"
+            + File.separatorChar
+            + "cosmo50cmb.256g2bwK.00024.star.bin";
+    List<String> expected =
+        getRows(new TupleSource(new BinaryTupleReader(schema, true), new FileSource(filename)));
+    List<String> actual =
+        getRows(
+            new TupleSource(
+                new BinaryTupleReader(schema, true), new MappedFileSource(filename, 1000)));
+    assertEquals(1291, expected.size());
+    assertEquals(expected, actual);
+  }
+
+  @Test
+  public void testMappedBigEndianAndStrings() throws Exception {
+    Type[] types = {Type.BOOLEAN_TYPE, Type.DOUBLE_TYPE, Type.INT_TYPE, Type.LONG_TYPE};
+    File file = File.createTempFile(this.getClass().getSimpleName(), null);
+    file.deleteOnExit();
+    String filename = file.getCanonicalPath();
+    generateBinaryFile(filename, types, 100);
+    Schema schema = new Schema(Arrays.asList(types));
+    List<String> rows =
+        getRows(new TupleSource(new BinaryTupleReader(schema), new MappedFileSource(filename, 64)));
+    assertEquals(100, rows.size());
+    assertEquals("true|42.0|42|42|", rows.get(42));
+
+    /* Strings have no fixed width, so they are read through the stream interface. */
+    Type[] withString = {Type.INT_TYPE, Type.STRING_TYPE};
+    file = File.createTempFile(this.getClass().getSimpleName(), null);
+    file.deleteOnExit();
+    filename = file.getCanonicalPath();
+    generateBinaryFile(filename, withString, 10);
+    TupleSource ts =
+        new TupleSource(
+            new BinaryTupleReader(new Schema(Arrays.asList(withString))),
+            new MappedFileSource(filename, 16));
+    assertEquals(10, getRowCount(ts));
+  }
+
+  @Test(expected = DbException.class)
+  public void testMappedPartialRow() throws Exception {
+    File file = File.createTempFile(this.getClass().getSimpleName(), null);
+    file.deleteOnExit();
+    try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+      raf.writeInt(1);
+      raf.writeInt(2);
+      raf.writeInt(3);
+    }
+    Schema schema = new Schema(ImmutableList.of(Type.INT_TYPE, Type.INT_TYPE));
+    getRowCount(
+        new TupleSource(new BinaryTupleReader(schema), new MappedFileSource(file.getPath())));
+  }
+
   /**
    * Generates a binary file with the given file name, type array and the number of rows.
    *
@@ -199,6 +280,33 @@ public class BinaryTupleReaderTest {
     }
   }
 
+  /**
+   * Helper function used to run tests.
+   *
+   * @param input the TupleSource object to be tested.
+   * @return the tuples of the file, with the values of each separated by '|'.
+   * @throws DbException if the file does not match the given Schema.
+   */
+  private static List<String> getRows(final TupleSource input) throws DbException {
+    input.open(TestEnvVars.get());
+
+    List<String> rows = new ArrayList<>();
+    while (!input.eos()) {
+      TupleBatch tb = input.nextReady();
+      if (tb != null) {
+        for (int row = 0; row < tb.numTuples(); ++row) {
+          StringBuilder sb = new StringBuilder();
+          for (int column = 0; column < tb.numColumns(); ++column) {
+            sb.append(TestUtils.getValue(tb, column, row)).append('|');
+          }
+          rows.add(sb.toString());
+        }
+      }
+    }
+    input.close();
+    return rows;
+  }
+
   /**
    * Helper function used to run tests.
    *
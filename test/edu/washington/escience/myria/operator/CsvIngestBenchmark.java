@@ -0,0 +1,123 @@
+package edu.washington.escience.myria.operator;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Random;
+
+import edu.washington.escience.myria.CsvTupleReader;
+import edu.washington.escience.myria.DbException;
+import edu.washington.escience.myria.Schema;
+import edu.washington.escience.myria.Type;
+import edu.washington.escience.myria.io.FileSource;
+import edu.washington.escience.myria.storage.TupleBatch;
+import edu.washington.escience.myria.util.TestEnvVars;
+
+/**
+ * Measures the CSV ingest rate of a {@link TupleSource} with a {@link CsvTupleReader}, which parses through commons-csv
+ * records on one thread, and of a {@link ParallelCsvFileScan} with a growing number of threads. The file has long,
+ * int, double and string columns. The rates are reported in MB/s, and per thread for the parallel scan.
+ *
+ * Run with {@code java -cp ... edu.washington.escience.myria.operator.CsvIngestBenchmark [megabytes [maxThreads]]}.
+ */
+public final class CsvIngestBenchmark {
+
+  /** The schema of the file. */
+  private static final Schema SCHEMA =
+      Schema.ofFields(
+          "id", Type.LONG_TYPE, "n", Type.INT_TYPE, "x", Type.DOUBLE_TYPE, "s", Type.STRING_TYPE);
+  /** The number of runs of each configuration, the first one warms up. */
+  private static final int NUM_RUNS = 4;
+
+  /** Benchmarks cannot be constructed. */
+  private CsvIngestBenchmark() {}
+
+  /**
+   * @param file the file to write.
+   * @param megabytes its approximate size.
+   * @throws IOException if the file cannot be written.
+   */
+  private static void writeFile(final File file, final int megabytes) throws IOException {
+    final Random random = new Random(1);
+    final long bytes = megabytes * 1024L * 1024L;
+    long written = 0;
+    try (BufferedWriter out = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+      for (long i = 0; written < bytes; ++i) {
+        final String line =
+            i
+                + ","
+                + random.nextInt()
+                + ","
+                + String.format("%.4f", random.nextDouble() * 1000)
+                + ",name"
+                + random.nextInt(100000)
+                + "\n";
+        out.write(line);
+        written += line.length();
+      }
+    }
+  }
+
+  /**
+   * @param op the scan.
+   * @param fileSize the size of the scanned file.
+   * @return the ingest rate in MB/s.
+   * @throws DbException if the scan fails.
+   */
+  private static double run(final Operator op, final long fileSize) throws DbException {
+    final long start = System.nanoTime();
+    op.open(TestEnvVars.get());
+    long numTuples = 0;
+    while (!op.eos()) {
+      final TupleBatch tb = op.nextReady();
+      if (tb != null) {
+        numTuples += tb.numTuples();
+      }
+    }
+    op.close();
+    final double seconds = (System.nanoTime() - start) / 1e9;
+    if (numTuples == 0) {
+      throw new IllegalStateException("No tuples read");
+    }
+    return fileSize / seconds / (1024 * 1024);
+  }
+
+  /**
+   * @param args optionally, the size of the file in MB and the largest number of threads.
+   * @throws Exception if anything fails.
+   */
+  public static void main(final String[] args) throws Exception {
+    final int megabytes = args.length > 0 ? Integer.parseInt(args[0]) : 256;
+    final int maxThreads =
+        args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+    final File file = File.createTempFile("CsvIngestBenchmark", ".csv");
+    file.deleteOnExit();
+    writeFile(file, megabytes);
+    final String filename = file.getPath();
+    final long size = file.length();
+    System.out.println(size + " bytes of " + SCHEMA.getColumnTypes());
+
+    for (int i = 0; i < NUM_RUNS; ++i) {
+      final String run = i == 0 ? "warm-up" : "run " + i;
+      System.out.println(
+          String.format(
+              "%-8s CsvTupleReader: %7.1f MB/s",
+              run,
+              run(new TupleSource(new CsvTupleReader(SCHEMA), new FileSource(filename)), size)));
+      for (int threads = 1; threads <= maxThreads; threads *= 2) {
+        final double rate =
+            run(new ParallelCsvFileScan(filename, SCHEMA, null, null, null, null, threads), size);
+        System.out.println(
+            String.format(
+                "%-8s ParallelCsvFileScan, %2d threads: %7.1f MB/s, %7.1f MB/s per thread",
+                run,
+                threads,
+                rate,
+                rate / threads));
+      }
+    }
+    Files.delete(file.toPath());
+  }
+}
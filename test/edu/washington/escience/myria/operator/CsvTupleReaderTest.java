@@ -1,6 +1,7 @@
 package edu.washington.escience.myria.operator;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 
 import java.io.ByteArrayOutputStream;
 import java.io.FileNotFoundException;
@@ -15,6 +16,8 @@ import edu.washington.escience.myria.CsvTupleReader;
 import edu.washington.escience.myria.DbException;
 import edu.washington.escience.myria.Schema;
 import edu.washington.escience.myria.Type;
+import edu.washington.escience.myria.column.DictionaryStringColumn;
+import edu.washington.escience.myria.column.StringDictionary;
 import edu.washington.escience.myria.io.ByteArraySource;
 import edu.washington.escience.myria.io.FileSource;
 import edu.washington.escience.myria.storage.TupleBatch;
@@ -241,6 +244,43 @@ public class CsvTupleReaderTest {
     assertEquals(2 * TupleUtils.getBatchSize(Type.INT_TYPE), getRowCount(scanBytes));
   }
 
+  @Test
+  public void testStringsShareDictionary() throws Exception {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    PrintStream printedBytes = new PrintStream(bytes);
+    final int numTuples = TupleUtils.getBatchSize(Type.STRING_TYPE) * 2 + 3;
+    for (int i = 0; i < numTuples; ++i) {
+      printedBytes.print(i + ",color" + i % 5 + '\n');
+    }
+    printedBytes.flush();
+    TupleSource scanBytes =
+        new TupleSource(
+            new CsvTupleReader(
+                Schema.ofFields("id", Type.INT_TYPE, "color", Type.STRING_TYPE), ','),
+            new ByteArraySource(bytes.toByteArray()));
+    scanBytes.open(TestEnvVars.get());
+    StringDictionary dictionary = null;
+    int count = 0;
+    while (!scanBytes.eos()) {
+      TupleBatch tb = scanBytes.nextReady();
+      if (tb == null) {
+        continue;
+      }
+      DictionaryStringColumn colors = (DictionaryStringColumn) tb.getDataColumns().get(1);
+      if (dictionary == null) {
+        dictionary = colors.getDictionary();
+      }
+      assertSame(dictionary, colors.getDictionary());
+      for (int row = 0; row < tb.numTuples(); ++row) {
+        assertEquals("color" + tb.getInt(0, row) % 5, tb.getString(1, row));
+      }
+      count += tb.numTuples();
+    }
+    scanBytes.close();
+    assertEquals(numTuples, count);
+    assertEquals(5, dictionary.size());
+  }
+
   @Test
   public void testPipeDelimiter() throws Exception {
     final String filename = "nccdc_100.txt";
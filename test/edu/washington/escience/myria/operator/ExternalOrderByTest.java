@@ -0,0 +1,185 @@
+package edu.washington.escience.myria.operator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map.Entry;
+
+import org.joda.time.DateTime;
+import org.junit.Test;
+
+import edu.washington.escience.myria.DbException;
+import edu.washington.escience.myria.Schema;
+import edu.washington.escience.myria.Type;
+import edu.washington.escience.myria.storage.TupleBatch;
+import edu.washington.escience.myria.storage.TupleBatchBuffer;
+import edu.washington.escience.myria.util.TestEnvVars;
+import edu.washington.escience.myria.util.TestUtils;
+
+public class ExternalOrderByTest {
+
+  private static final int NUM_TUPLES = 52300;
+
+  private static List<Entry<Long, String>> sortEntries(final ExternalOrderBy order)
+      throws DbException {
+    order.open(TestEnvVars.get());
+    final List<Entry<Long, String>> entries = new ArrayList<Entry<Long, String>>();
+    while (!order.eos()) {
+      TupleBatch tb = order.nextReady();
+      if (tb != null) {
+        for (int i = 0; i < tb.numTuples(); i++) {
+          entries.add(new SimpleEntry<Long, String>(tb.getLong(0, i), tb.getString(1, i)));
+        }
+      }
+    }
+    order.close();
+    return entries;
+  }
+
+  private static void checkSorted(
+      final List<Entry<Long, String>> entries, final Comparator<Entry<Long, String>> comparator) {
+    assertEquals(NUM_TUPLES, entries.size());
+    Entry<Long, String> previous = null;
+    for (Entry<Long, String> entry : entries) {
+      if (previous != null) {
+        assertTrue(comparator.compare(previous, entry) <= 0);
+      }
+      previous = entry;
+    }
+  }
+
+  @Test
+  public void testInMemory() throws DbException {
+    TupleBatchBuffer randomTuples = TestUtils.generateRandomTuples(NUM_TUPLES, 5000, false);
+    ExternalOrderBy order =
+        new ExternalOrderBy(
+            new BatchTupleSource(randomTuples), new int[] {0, 1}, new boolean[] {true, true});
+    checkSorted(sortEntries(order), new TestUtils.EntryComparator());
+  }
+
+  @Test
+  public void testSpilling() throws DbException {
+    TupleBatchBuffer randomTuples = TestUtils.generateRandomTuples(NUM_TUPLES, 5000, false);
+    /* About 80 bytes per tuple, so this spills a dozen runs. */
+    ExternalOrderBy order =
+        new ExternalOrderBy(
+            new BatchTupleSource(randomTuples),
+            new int[] {0, 1},
+            new boolean[] {true, true},
+            400 * 1000);
+    checkSorted(sortEntries(order), new TestUtils.EntryComparator());
+  }
+
+  @Test
+  public void testSpillingDescending() throws DbException {
+    TupleBatchBuffer randomTuples = TestUtils.generateRandomTuples(NUM_TUPLES, 5000, false);
+    ExternalOrderBy order =
+        new ExternalOrderBy(
+            new BatchTupleSource(randomTuples), new int[] {1}, new boolean[] {false}, 400 * 1000);
+    checkSorted(
+        sortEntries(order),
+        Collections.reverseOrder(
+            new Comparator<Entry<Long, String>>() {
+              @Override
+              public int compare(final Entry<Long, String> o1, final Entry<Long, String> o2) {
+                return o1.getValue().compareTo(o2.getValue());
+              }
+            }));
+  }
+
+  @Test
+  public void testSpillingAllTypes() throws DbException {
+    final Schema schema =
+        Schema.ofFields(
+            "i",
+            Type.INT_TYPE,
+            "f",
+            Type.FLOAT_TYPE,
+            "d",
+            Type.DOUBLE_TYPE,
+            "b",
+            Type.BOOLEAN_TYPE,
+            "t",
+            Type.DATETIME_TYPE);
+    final int numTuples = 3000;
+    TupleBatchBuffer input = new TupleBatchBuffer(schema);
+    for (int i = 0; i < numTuples; ++i) {
+      /* 7919 is prime, so this visits every key in a scrambled order. */
+      final int key = (i * 7919) % numTuples;
+      input.putInt(0, key % 3);
+      input.putFloat(1, key);
+      input.putDouble(2, -key);
+      input.putBoolean(3, key % 2 == 0);
+      input.putDateTime(4, new DateTime(key * 1000L));
+    }
+    ExternalOrderBy order =
+        new ExternalOrderBy(
+            new BatchTupleSource(input), new int[] {0, 4}, new boolean[] {true, false}, 4096);
+    order.open(TestEnvVars.get());
+    int count = 0;
+    int lastGroup = -1;
+    long lastMillis = Long.MAX_VALUE;
+    while (!order.eos()) {
+      TupleBatch tb = order.nextReady();
+      if (tb == null) {
+        continue;
+      }
+      for (int row = 0; row < tb.numTuples(); ++row) {
+        final int group = tb.getInt(0, row);
+        final long millis = tb.getDateTime(4, row).getMillis();
+        assertTrue(group >= lastGroup);
+        if (group == lastGroup) {
+          assertTrue(millis < lastMillis);
+        }
+        final int key = (int) (millis / 1000);
+        assertEquals(key % 3, group);
+        assertEquals(key, tb.getFloat(1, row), 0);
+        assertEquals(-key, tb.getDouble(2, row), 0);
+        assertEquals(key % 2 == 0, tb.getBoolean(3, row));
+        lastGroup = group;
+        lastMillis = millis;
+        ++count;
+      }
+    }
+    order.close();
+    assertEquals(numTuples, count);
+  }
+
+  @Test
+  public void testSpillingLongStrings() throws DbException {
+    /* Longer than the 65535 bytes that DataOutput#writeUTF can write. */
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < 30000; ++i) {
+      sb.append("Ünï");
+    }
+    final String longString = sb.toString();
+    final Schema schema = Schema.ofFields("k", Type.INT_TYPE, "s", Type.STRING_TYPE);
+    TupleBatchBuffer input = new TupleBatchBuffer(schema);
+    for (int i = 4; i >= 0; --i) {
+      input.putInt(0, i);
+      input.putString(1, i % 2 == 0 ? longString + i : "");
+    }
+    ExternalOrderBy order =
+        new ExternalOrderBy(new BatchTupleSource(input), new int[] {0}, new boolean[] {true}, 4096);
+    order.open(TestEnvVars.get());
+    int count = 0;
+    while (!order.eos()) {
+      TupleBatch tb = order.nextReady();
+      if (tb == null) {
+        continue;
+      }
+      for (int row = 0; row < tb.numTuples(); ++row) {
+        assertEquals(count, tb.getInt(0, row));
+        assertEquals(count % 2 == 0 ? longString + count : "", tb.getString(1, row));
+        ++count;
+      }
+    }
+    order.close();
+    assertEquals(5, count);
+  }
+}
@@ -6,11 +6,15 @@ import static org.junit.Assert.assertTrue;
 import java.util.AbstractMap.SimpleEntry;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.List;
 import java.util.Map.Entry;
+import java.util.Random;
 
 import org.junit.Test;
 
 import edu.washington.escience.myria.DbException;
+import edu.washington.escience.myria.Schema;
+import edu.washington.escience.myria.Type;
 import edu.washington.escience.myria.storage.TupleBatch;
 import edu.washington.escience.myria.storage.TupleBatchBuffer;
 import edu.washington.escience.myria.util.TestEnvVars;
@@ -83,4 +87,104 @@ public class InMemoryOrderByTest {
       previous = entry;
     }
   }
+
+  private static List<TupleBatch> drain(final Operator op) throws DbException {
+    List<TupleBatch> batches = new ArrayList<TupleBatch>();
+    op.open(TestEnvVars.get());
+    while (!op.eos()) {
+      TupleBatch tb = op.nextReady();
+      if (tb != null) {
+        batches.add(tb);
+      }
+    }
+    op.close();
+    return batches;
+  }
+
+  private static void checkRadixSort(final Type type, final boolean ascending) throws DbException {
+    final int numTuples = 30000;
+    Random random = new Random(1234);
+    TupleBatchBuffer input =
+        new TupleBatchBuffer(Schema.ofFields("key", type, "row", Type.INT_TYPE));
+    for (int row = 0; row < numTuples; ++row) {
+      /* Few distinct keys, so there are many ties, with both signs and the extreme values. */
+      long key = random.nextInt(200) - 100;
+      if (key == 99) {
+        key = type == Type.INT_TYPE ? Integer.MAX_VALUE : Long.MAX_VALUE;
+      } else if (key == -100) {
+        key = type == Type.INT_TYPE ? Integer.MIN_VALUE : Long.MIN_VALUE;
+      }
+      if (type == Type.INT_TYPE) {
+        input.putInt(0, (int) key);
+      } else {
+        input.putLong(0, key);
+      }
+      input.putInt(1, row);
+    }
+    InMemoryOrderBy order =
+        new InMemoryOrderBy(new BatchTupleSource(input), new int[] {0}, new boolean[] {ascending});
+    int count = 0;
+    long previousKey = 0;
+    int previousRow = -1;
+    for (TupleBatch tb : drain(order)) {
+      for (int i = 0; i < tb.numTuples(); ++i) {
+        final long key = type == Type.INT_TYPE ? tb.getInt(0, i) : tb.getLong(0, i);
+        final int row = tb.getInt(1, i);
+        if (count > 0) {
+          final int compared = Long.compare(previousKey, key);
+          assertTrue(ascending ? compared <= 0 : compared >= 0);
+          /* The sort is stable. */
+          if (compared == 0) {
+            assertTrue(previousRow < row);
+          }
+        }
+        previousKey = key;
+        previousRow = row;
+        ++count;
+      }
+    }
+    assertEquals(numTuples, count);
+  }
+
+  @Test
+  public void testRadixSortInt() throws DbException {
+    checkRadixSort(Type.INT_TYPE, true);
+    checkRadixSort(Type.INT_TYPE, false);
+  }
+
+  @Test
+  public void testRadixSortLong() throws DbException {
+    checkRadixSort(Type.LONG_TYPE, true);
+    checkRadixSort(Type.LONG_TYPE, false);
+  }
+
+  private static List<Entry<Long, String>> toEntries(final List<TupleBatch> batches) {
+    List<Entry<Long, String>> entries = new ArrayList<Entry<Long, String>>();
+    for (TupleBatch tb : batches) {
+      for (int i = 0; i < tb.numTuples(); i++) {
+        entries.add(new SimpleEntry<Long, String>(tb.getLong(0, i), tb.getString(1, i)));
+      }
+    }
+    return entries;
+  }
+
+  @Test
+  public void testTopN() throws DbException {
+    TupleBatchBuffer randomTuples = TestUtils.generateRandomTuples(52300, 5000, false);
+    final int[] sortColumns = new int[] {1, 0};
+    final boolean[] ascending = new boolean[] {false, true};
+    List<Entry<Long, String>> expected =
+        toEntries(
+            drain(new InMemoryOrderBy(new BatchTupleSource(randomTuples), sortColumns, ascending)));
+    for (long limit : new long[] {0, 1, 100, 25000, 60000}) {
+      List<Entry<Long, String>> actual =
+          toEntries(
+              drain(
+                  new Limit(
+                      limit,
+                      new InMemoryOrderBy(
+                          new BatchTupleSource(randomTuples), sortColumns, ascending))));
+      assertEquals(expected.subList(0, (int) Math.min(limit, expected.size())), actual);
+    }
+  }
 }
@@ -0,0 +1,161 @@
+package edu.washington.escience.myria.operator;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.collect.ImmutableList;
+
+import edu.washington.escience.myria.DbException;
+import edu.washington.escience.myria.Schema;
+import edu.washington.escience.myria.Type;
+import edu.washington.escience.myria.storage.TupleBatch;
+import edu.washington.escience.myria.util.TestEnvVars;
+import edu.washington.escience.myria.util.TestUtils;
+
+public class ParallelCsvFileScanTest {
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private static final Schema SCHEMA =
+      Schema.ofFields(
+          "id", Type.LONG_TYPE, "i", Type.INT_TYPE, "d", Type.DOUBLE_TYPE, "s", Type.STRING_TYPE);
+
+  /**
+   * Scan a file and check that every id appears once, with its values.
+   *
+   * @param scan the scan.
+   * @param numTuples the number of tuples in the file, with ids 0 to numTuples - 1.
+   */
+  private static void checkScan(final ParallelCsvFileScan scan, final int numTuples)
+      throws DbException {
+    scan.open(TestEnvVars.get());
+    boolean[] seen = new boolean[numTuples];
+    int count = 0;
+    while (!scan.eos()) {
+      TupleBatch tb = scan.nextReady();
+      if (tb == null) {
+        continue;
+      }
+      for (int row = 0; row < tb.numTuples(); ++row) {
+        int id = (int) tb.getLong(0, row);
+        assertEquals(false, seen[id]);
+        seen[id] = true;
+        assertEquals(-id, tb.getInt(1, row));
+        assertEquals(id / 8.0, tb.getDouble(2, row), 0);
+        assertEquals("tuple, " + id, tb.getString(3, row));
+        ++count;
+      }
+    }
+    scan.close();
+    assertEquals(numTuples, count);
+  }
+
+  private File writeFile(final int numTuples, final String newline, final boolean header)
+      throws IOException {
+    StringBuilder contents = new StringBuilder();
+    if (header) {
+      contents.append("id,i,d,s").append(newline);
+    }
+    for (int i = 0; i < numTuples; ++i) {
+      contents.append(i).append(',').append(-i).append(',').append(i / 8.0);
+      contents.append(",\"tuple, ").append(i).append('"').append(newline);
+    }
+    File file = folder.newFile();
+    Files.write(file.toPath(), contents.toString().getBytes(StandardCharsets.UTF_8));
+    return file;
+  }
+
+  @Test
+  public void testManyThreads() throws IOException, DbException {
+    int numTuples = 50000;
+    File file = writeFile(numTuples, "\n", false);
+    for (int numThreads : new int[] {1, 3, 8}) {
+      checkScan(
+          new ParallelCsvFileScan(file.getPath(), SCHEMA, null, null, null, null, numThreads),
+          numTuples);
+    }
+  }
+
+  @Test
+  public void testCrLfAndHeader() throws IOException, DbException {
+    int numTuples = 20000;
+    File file = writeFile(numTuples, "\r\n", true);
+    checkScan(new ParallelCsvFileScan(file.getPath(), SCHEMA, null, null, null, 1, 5), numTuples);
+  }
+
+  @Test
+  public void testMoreThreadsThanLines() throws IOException, DbException {
+    checkScan(
+        new ParallelCsvFileScan(
+            writeFile(3, "\n", false).getPath(), SCHEMA, null, null, null, null, 16),
+        3);
+    checkScan(
+        new ParallelCsvFileScan(
+            writeFile(0, "\n", false).getPath(), SCHEMA, null, null, null, null, 4),
+        0);
+  }
+
+  @Test
+  public void testSameAsFileScan() throws DbException {
+    final String filename = Paths.get("testdata", "filescan", "nccdc_100.txt").toString();
+    final Schema schema =
+        new Schema(
+            ImmutableList.of(
+                Type.STRING_TYPE,
+                Type.STRING_TYPE,
+                Type.INT_TYPE,
+                Type.LONG_TYPE,
+                Type.INT_TYPE,
+                Type.INT_TYPE,
+                Type.INT_TYPE));
+    String[] expected = scanAll(new FileScan(filename, schema, '|'));
+    String[] actual = scanAll(new ParallelCsvFileScan(filename, schema, '|', null, null, null, 4));
+    assertEquals(100, expected.length);
+    assertEquals(Arrays.asList(expected), Arrays.asList(actual));
+  }
+
+  /** @return the tuples of the operator, as sorted strings. */
+  private static String[] scanAll(final Operator op) throws DbException {
+    op.open(TestEnvVars.get());
+    StringBuilder all = new StringBuilder();
+    while (!op.eos()) {
+      TupleBatch tb = op.nextReady();
+      if (tb != null) {
+        for (int row = 0; row < tb.numTuples(); ++row) {
+          for (int column = 0; column < tb.numColumns(); ++column) {
+            all.append(TestUtils.getValue(tb, column, row)).append('|');
+          }
+          all.append('\n');
+        }
+      }
+    }
+    op.close();
+    String[] tuples = all.length() == 0 ? new String[0] : all.toString().split("\n");
+    Arrays.sort(tuples);
+    return tuples;
+  }
+
+  @Test(expected = DbException.class)
+  public void testBadInput() throws DbException {
+    final String filename = Paths.get("testdata", "filescan", "bad_two_col_int.txt").toString();
+    scanAll(
+        new ParallelCsvFileScan(
+            filename,
+            Schema.ofFields("a", Type.INT_TYPE, "b", Type.INT_TYPE),
+            null,
+            null,
+            null,
+            null,
+            2));
+  }
+}
@@ -1,14 +1,22 @@
 package edu.washington.escience.myria.operator;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
 
 import org.junit.Test;
 
+import com.google.common.collect.ImmutableList;
+
 import edu.washington.escience.myria.DbException;
 import edu.washington.escience.myria.Schema;
 import edu.washington.escience.myria.storage.TupleBatch;
+import edu.washington.escience.myria.storage.TupleBatchBuffer;
 import edu.washington.escience.myria.util.JoinTestUtils;
 import edu.washington.escience.myria.util.TestEnvVars;
+import edu.washington.escience.myria.util.TestUtils;
+import edu.washington.escience.myria.util.Tuple;
 
 public class RightHashJoinTest {
 
@@ -39,4 +47,70 @@ public class RightHashJoinTest {
     Operator join = new RightHashJoin(left, right, new int[] {0}, new int[] {0});
     join.open(TestEnvVars.get());
   }
+
+  private static TupleBatchBuffer drain(final Operator op) throws DbException {
+    op.open(TestEnvVars.get());
+    TupleBatchBuffer result = new TupleBatchBuffer(op.getSchema());
+    while (!op.eos()) {
+      TupleBatch tb = op.nextReady();
+      if (tb != null) {
+        result.appendTB(tb);
+      }
+    }
+    op.close();
+    return result;
+  }
+
+  private static RightHashJoin spillingJoin(
+      final TupleBatchBuffer left, final TupleBatchBuffer right, final long memoryBudget) {
+    return new RightHashJoin(
+        ImmutableList.of("leftId", "leftName", "rightId", "rightName"),
+        new BatchTupleSource(left),
+        new BatchTupleSource(right),
+        new int[] {0},
+        new int[] {0},
+        new int[] {0, 1},
+        new int[] {0, 1},
+        memoryBudget);
+  }
+
+  @Test
+  public void testSpilling() throws DbException {
+    TupleBatchBuffer left = TestUtils.generateRandomTuples(20000, 3000, false);
+    TupleBatchBuffer right = TestUtils.generateRandomTuples(5000, 3000, false);
+    HashMap<Tuple, Integer> expected = TestUtils.naturalJoin(left, right, 0, 0);
+
+    /* About 80 bytes per tuple, so most of the right child is spilled, some of it more than once. */
+    RightHashJoin join = spillingJoin(left, right, 20 * 1000);
+    TestUtils.assertTupleBagEqual(expected, TestUtils.tupleBatchToTupleBag(drain(join)));
+    assertTrue(join.getNumSpilledPartitions() > HybridHashJoinTable.NUM_PARTITIONS);
+    assertTrue(join.getNumTuplesSpilled() > right.numTuples());
+    assertTrue(join.getNumBytesSpilled() > 0);
+
+    /* A budget larger than the input never spills. */
+    join = spillingJoin(left, right, 100 * 1000 * 1000);
+    TestUtils.assertTupleBagEqual(expected, TestUtils.tupleBatchToTupleBag(drain(join)));
+    assertEquals(0, join.getNumSpilledPartitions());
+  }
+
+  @Test
+  public void testSpillingSingleKey() throws DbException {
+    TupleBatchBuffer left =
+        new TupleBatchBuffer(TestUtils.generateRandomTuples(0, 1, false).getSchema());
+    TupleBatchBuffer right = new TupleBatchBuffer(left.getSchema());
+    for (int i = 0; i < 10; ++i) {
+      left.putLong(0, 7);
+      left.putString(1, "left" + i);
+    }
+    for (int i = 0; i < 2000; ++i) {
+      right.putLong(0, i % 500 == 0 ? i : 7);
+      right.putString(1, "right" + i);
+    }
+
+    /* The partition of key 7 never fits, so it is spilled at every level and joined in memory at the last one. */
+    RightHashJoin join = spillingJoin(left, right, 10 * 1000);
+    TupleBatchBuffer result = drain(join);
+    assertEquals(10 * 1996, result.numTuples());
+    assertTrue(join.getNumSpilledPartitions() >= HybridHashJoinTable.MAX_LEVEL);
+  }
 }
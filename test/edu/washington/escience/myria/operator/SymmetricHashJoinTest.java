@@ -1,14 +1,25 @@
 package edu.washington.escience.myria.operator;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
 
 import org.junit.Test;
 
+import com.google.common.collect.ImmutableList;
+
 import edu.washington.escience.myria.DbException;
+import edu.washington.escience.myria.MyriaConstants;
 import edu.washington.escience.myria.Schema;
+import edu.washington.escience.myria.operator.SymmetricHashJoin.JoinPullOrder;
 import edu.washington.escience.myria.storage.TupleBatch;
+import edu.washington.escience.myria.storage.TupleBatchBuffer;
 import edu.washington.escience.myria.util.JoinTestUtils;
 import edu.washington.escience.myria.util.TestEnvVars;
+import edu.washington.escience.myria.util.TestUtils;
+import edu.washington.escience.myria.util.Tuple;
 
 public class SymmetricHashJoinTest {
 
@@ -37,6 +48,28 @@ public class SymmetricHashJoinTest {
     assertEquals(7L, count);
   }
 
+  @Test
+  public void testSymmetricHashJoinFlatHashTable() throws DbException {
+    BatchTupleSource left = new BatchTupleSource(JoinTestUtils.leftInput);
+    BatchTupleSource right = new BatchTupleSource(JoinTestUtils.rightInput);
+    Operator join =
+        new SymmetricHashJoin(
+            left, right, new int[] {1, 0, 2}, new int[] {2, 1, 0}, new int[] {0}, new int[] {0});
+    Map<String, Object> execEnvVars = TestEnvVars.get();
+    execEnvVars.put(MyriaConstants.EXEC_ENV_VAR_HASH_TABLE_KIND, "flat");
+    join.open(execEnvVars);
+    long count = 0;
+    while (!join.eos()) {
+      TupleBatch tb = join.nextReady();
+      if (tb == null) {
+        continue;
+      }
+      count += tb.numTuples();
+    }
+    join.close();
+    assertEquals(7L, count);
+  }
+
   @Test(expected = IllegalStateException.class)
   public void testIncompatibleJoinKeys() throws DbException {
     BatchTupleSource left = new BatchTupleSource(JoinTestUtils.leftInput);
@@ -46,4 +79,74 @@ public class SymmetricHashJoinTest {
             left, right, new int[] {0}, new int[] {0}, new int[] {0}, new int[] {0});
     join.open(TestEnvVars.get());
   }
+
+  private static TupleBatchBuffer drain(final Operator op) throws DbException {
+    op.open(TestEnvVars.get());
+    TupleBatchBuffer result = new TupleBatchBuffer(op.getSchema());
+    while (!op.eos()) {
+      TupleBatch tb = op.nextReady();
+      if (tb != null) {
+        result.appendTB(tb);
+      }
+    }
+    op.close();
+    return result;
+  }
+
+  private static SymmetricHashJoin spillingJoin(
+      final TupleBatchBuffer left,
+      final TupleBatchBuffer right,
+      final JoinPullOrder order,
+      final long memoryBudget) {
+    return new SymmetricHashJoin(
+        new BatchTupleSource(left),
+        new BatchTupleSource(right),
+        new int[] {0},
+        new int[] {0},
+        new int[] {0, 1},
+        new int[] {0, 1},
+        false,
+        false,
+        ImmutableList.of("leftId", "leftName", "rightId", "rightName"),
+        order,
+        memoryBudget);
+  }
+
+  @Test
+  public void testSpilling() throws DbException {
+    TupleBatchBuffer left = TestUtils.generateRandomTuples(20000, 3000, false);
+    TupleBatchBuffer right = TestUtils.generateRandomTuples(5000, 3000, false);
+    HashMap<Tuple, Integer> expected = TestUtils.naturalJoin(left, right, 0, 0);
+
+    for (JoinPullOrder order :
+        new JoinPullOrder[] {JoinPullOrder.ALTERNATE, JoinPullOrder.RIGHT_EOS}) {
+      /* About 80 bytes per tuple, so most partitions of both children are spilled. */
+      SymmetricHashJoin join = spillingJoin(left, right, order, 40 * 1000);
+      TestUtils.assertTupleBagEqual(expected, TestUtils.tupleBatchToTupleBag(drain(join)));
+      assertTrue(join.getNumSpilledPartitions() > HybridHashJoinTable.NUM_PARTITIONS / 2);
+      assertTrue(join.getNumTuplesSpilled() > right.numTuples());
+      assertTrue(join.getNumBytesSpilled() > 0);
+    }
+
+    /* A budget larger than the input never spills. */
+    SymmetricHashJoin join = spillingJoin(left, right, JoinPullOrder.ALTERNATE, 100 * 1000 * 1000);
+    TestUtils.assertTupleBagEqual(expected, TestUtils.tupleBatchToTupleBag(drain(join)));
+    assertEquals(0, join.getNumSpilledPartitions());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testSpillingSetSemantics() {
+    new SymmetricHashJoin(
+        null,
+        null,
+        new int[] {0},
+        new int[] {0},
+        new int[] {0},
+        new int[] {0},
+        true,
+        false,
+        null,
+        JoinPullOrder.ALTERNATE,
+        1000);
+  }
 }
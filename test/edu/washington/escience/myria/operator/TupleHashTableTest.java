@@ -0,0 +1,105 @@
+package edu.washington.escience.myria.operator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import com.gs.collections.impl.list.mutable.primitive.IntArrayList;
+
+import edu.washington.escience.myria.Schema;
+import edu.washington.escience.myria.Type;
+import edu.washington.escience.myria.storage.TupleBatch;
+import edu.washington.escience.myria.storage.TupleBatchBuffer;
+import edu.washington.escience.myria.util.HashUtils;
+
+public class TupleHashTableTest {
+
+  /** Number of distinct keys, large enough to make the flat table grow several times. */
+  private static final int NUM_KEYS = 5000;
+
+  private static final Schema SCHEMA =
+      Schema.ofFields("key", Type.LONG_TYPE, "name", Type.STRING_TYPE, "value", Type.INT_TYPE);
+
+  /** Each key appears three times, with values key, key + 1 and key + 2. */
+  private static TupleBatch makeTestData() {
+    TupleBatchBuffer tbb = new TupleBatchBuffer(SCHEMA);
+    for (int copy = 0; copy < 3; ++copy) {
+      for (int key = 0; key < NUM_KEYS; ++key) {
+        tbb.putLong(0, key);
+        tbb.putString(1, "name" + key);
+        tbb.putInt(2, key + copy);
+      }
+    }
+    List<TupleBatch> batches = tbb.getAll();
+    assertEquals(2, batches.size());
+    return batches.get(0);
+  }
+
+  private static void checkTable(final TupleHashTable.Kind kind) {
+    final int[] key = new int[] {0, 1};
+    TupleBatch tb = makeTestData();
+    TupleHashTable table = kind.newTable(SCHEMA, key);
+    for (int row = 0; row < tb.numTuples(); ++row) {
+      assertEquals(row, table.addTuple(tb, key, row, false));
+    }
+    assertEquals(tb.numTuples(), table.numTuples());
+
+    for (int row = 0; row < NUM_KEYS; ++row) {
+      IntArrayList expected = table.getIndices(tb, key, row);
+      IntArrayList actual = new IntArrayList();
+      for (int i = table.firstIndex(tb, key, row); i != -1; i = table.nextIndex(tb, key, row, i)) {
+        assertEquals(tb.getLong(0, row), table.getData().getLong(0, i));
+        assertEquals(tb.getString(1, row), table.getData().getString(1, i));
+        actual.add(i);
+      }
+      assertEquals(expected, actual);
+      /* The first batch holds the first two copies of each key. */
+      assertEquals(2, actual.size());
+    }
+
+    /* Probing with the hash codes of a whole batch finds the same tuples. */
+    int[] hashes = new int[tb.numTuples()];
+    HashUtils.hashSubRows(tb, key, 0, hashes);
+    for (int row = 0; row < tb.numTuples(); ++row) {
+      assertEquals(table.firstIndex(tb, key, row), table.firstIndex(hashes[row], tb, key, row));
+    }
+
+    TupleBatchBuffer missing = new TupleBatchBuffer(SCHEMA);
+    missing.putLong(0, 0);
+    missing.putString(1, "name1");
+    missing.putInt(2, 0);
+    TupleBatch missingTb = missing.popAny();
+    assertEquals(-1, table.firstIndex(missingTb, key, 0));
+    assertFalse(table.replace(missingTb, key, 0));
+
+    TupleBatchBuffer replacement = new TupleBatchBuffer(SCHEMA);
+    replacement.putLong(0, 7);
+    replacement.putString(1, "name7");
+    replacement.putInt(2, -1);
+    TupleBatch replacementTb = replacement.popAny();
+    assertTrue(table.replace(replacementTb, key, 0));
+    for (int i = table.firstIndex(replacementTb, key, 0);
+        i != -1;
+        i = table.nextIndex(replacementTb, key, 0, i)) {
+      assertEquals(-1, table.getData().getInt(2, i));
+    }
+
+    table.cleanup();
+    assertEquals(0, table.numTuples());
+    assertEquals(-1, table.firstIndex(tb, key, 0));
+  }
+
+  @Test
+  public void testBucketTupleHashTable() {
+    checkTable(TupleHashTable.Kind.BUCKET);
+  }
+
+  @Test
+  public void testFlatTupleHashTable() {
+    checkTable(TupleHashTable.Kind.FLAT);
+  }
+}
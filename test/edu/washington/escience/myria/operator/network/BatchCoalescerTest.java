@@ -0,0 +1,118 @@
+package edu.washington.escience.myria.operator.network;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import edu.washington.escience.myria.Schema;
+import edu.washington.escience.myria.Type;
+import edu.washington.escience.myria.storage.ExchangeTupleBatch;
+import edu.washington.escience.myria.storage.TupleBatch;
+import edu.washington.escience.myria.storage.TupleBatchBuffer;
+import edu.washington.escience.myria.storage.TupleUtils;
+
+public class BatchCoalescerTest {
+
+  private static final Schema SCHEMA =
+      Schema.ofFields("id", Type.LONG_TYPE, "name", Type.STRING_TYPE);
+  private static final int BATCH_SIZE = TupleUtils.getBatchSize(SCHEMA);
+  private static final int DEADLINE_MS = 10;
+  private static final long DEADLINE_NANOS = TimeUnit.MILLISECONDS.toNanos(DEADLINE_MS);
+
+  /** @return a batch of consecutive ids starting at first. */
+  private static TupleBatch batch(final long first, final int numTuples) {
+    TupleBatchBuffer buffer = new TupleBatchBuffer(SCHEMA);
+    for (int i = 0; i < numTuples; ++i) {
+      buffer.putLong(0, first + i);
+      buffer.putString(1, "name" + (first + i));
+    }
+    return buffer.popAny();
+  }
+
+  /** Check that a batch has consecutive ids starting at first, and comes from a worker. */
+  private static void checkBatch(
+      final TupleBatch tb, final long first, final int numTuples, final int remoteID) {
+    assertEquals(numTuples, tb.numTuples());
+    for (int row = 0; row < numTuples; ++row) {
+      assertEquals(first + row, tb.getLong(0, row));
+      assertEquals("name" + (first + row), tb.getString(1, row));
+    }
+    assertEquals(remoteID, ((ExchangeTupleBatch) tb).getSourceWorkerID());
+  }
+
+  @Test
+  public void testLargeBatchesPassThrough() {
+    BatchCoalescer coalescer = new BatchCoalescer(SCHEMA, 2, DEADLINE_MS);
+    TupleBatch tb = batch(0, BATCH_SIZE / BatchCoalescer.SMALL_RATIO);
+    TupleBatch result = coalescer.add(0, 7, tb, 0);
+    checkBatch(result, 0, tb.numTuples(), 7);
+    assertFalse(coalescer.hasPending(0));
+    assertEquals(-1, coalescer.millisToDeadline(0));
+  }
+
+  @Test
+  public void testMergeUntilFull() {
+    BatchCoalescer coalescer = new BatchCoalescer(SCHEMA, 2, DEADLINE_MS);
+    int small = BATCH_SIZE / 3 - 1;
+    long next = 0;
+    TupleBatch result = null;
+    while (result == null) {
+      result = coalescer.add(1, 8, batch(next, small), 0);
+      next += small;
+    }
+    checkBatch(result, 0, BATCH_SIZE, 8);
+    assertTrue(coalescer.hasPending(1));
+    assertFalse(coalescer.hasPending(0));
+    checkBatch(coalescer.pop(1), BATCH_SIZE, (int) next - BATCH_SIZE, 8);
+    assertFalse(coalescer.hasPending(1));
+  }
+
+  @Test
+  public void testWorkersAreNotMerged() {
+    BatchCoalescer coalescer = new BatchCoalescer(SCHEMA, 2, DEADLINE_MS);
+    assertNull(coalescer.add(0, 7, batch(0, 10), 0));
+    assertNull(coalescer.add(1, 8, batch(100, 10), 0));
+    assertNull(coalescer.add(0, 7, batch(10, 10), 0));
+    checkBatch(coalescer.pop(0), 0, 20, 7);
+    checkBatch(coalescer.pop(1), 100, 10, 8);
+  }
+
+  @Test
+  public void testDeadline() {
+    BatchCoalescer coalescer = new BatchCoalescer(SCHEMA, 2, DEADLINE_MS);
+    assertNull(coalescer.add(0, 7, batch(0, 10), 0));
+    assertNull(coalescer.add(1, 8, batch(100, 10), DEADLINE_NANOS / 2));
+    assertEquals(DEADLINE_MS, coalescer.millisToDeadline(0));
+    assertEquals(1, coalescer.millisToDeadline(DEADLINE_NANOS - 1));
+
+    /* Nothing has been pending long enough yet, unless everything is popped. */
+    assertNull(coalescer.popAny(false, DEADLINE_NANOS - 1));
+    assertEquals(0, coalescer.millisToDeadline(DEADLINE_NANOS));
+    checkBatch(coalescer.popAny(false, DEADLINE_NANOS), 0, 10, 7);
+    assertNull(coalescer.popAny(false, DEADLINE_NANOS));
+    checkBatch(coalescer.popAny(true, DEADLINE_NANOS), 100, 10, 8);
+    assertNull(coalescer.popAny(true, DEADLINE_NANOS));
+  }
+
+  @Test
+  public void testHistogram() {
+    BatchSizeHistogram histogram = new BatchSizeHistogram();
+    histogram.record(0);
+    histogram.record(1);
+    histogram.record(63);
+    histogram.record(64);
+    histogram.record(127);
+    assertEquals(1, histogram.getCount(BatchSizeHistogram.bucket(0)));
+    assertEquals(1, histogram.getCount(BatchSizeHistogram.bucket(1)));
+    assertEquals(2, histogram.getCount(BatchSizeHistogram.bucket(64)));
+    assertEquals(BatchSizeHistogram.bucket(64), BatchSizeHistogram.bucket(127));
+    assertEquals(64, BatchSizeHistogram.lowerBound(BatchSizeHistogram.bucket(100)));
+    assertEquals(5, histogram.getNumBatches());
+    assertEquals("{0+: 1, 1+: 1, 32+: 1, 64+: 2}", histogram.toString());
+  }
+}
@@ -0,0 +1,171 @@
+package edu.washington.escience.myria.operator.network.distribute;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import edu.washington.escience.myria.Schema;
+import edu.washington.escience.myria.Type;
+import edu.washington.escience.myria.operator.network.distribute.SkewedHashDistributeFunction.HeavyHitterPolicy;
+import edu.washington.escience.myria.storage.TupleBatch;
+import edu.washington.escience.myria.storage.TupleBatchBuffer;
+import edu.washington.escience.myria.util.TestUtils;
+
+public class DistributeFunctionTest {
+
+  private static final Schema SCHEMA =
+      Schema.ofFields(
+          "id",
+          Type.INT_TYPE,
+          "key",
+          Type.LONG_TYPE,
+          "name",
+          Type.STRING_TYPE,
+          "weight",
+          Type.DOUBLE_TYPE,
+          "flag",
+          Type.BOOLEAN_TYPE);
+
+  private static final int NUM_WORKERS = 7;
+
+  /** @return random tuples, whose keys take 100 values. */
+  private static TupleBatch randomBatch(final int numTuples) {
+    return TestUtils.randomTupleBatch(SCHEMA, numTuples, 100, 3);
+  }
+
+  private static TupleBatchBuffer[] partitionBuffers(final DistributeFunction df) {
+    TupleBatchBuffer[] buffers = new TupleBatchBuffer[df.getNumPartitions()];
+    for (int i = 0; i < buffers.length; ++i) {
+      buffers[i] = new TupleBatchBuffer(SCHEMA);
+    }
+    return buffers;
+  }
+
+  /** @return the rows sent to each destination, in order. */
+  private static List<List<List<Object>>> rows(final List<List<TupleBatch>> destinations) {
+    List<List<List<Object>>> result = new ArrayList<>();
+    for (List<TupleBatch> batches : destinations) {
+      List<List<Object>> rows = new ArrayList<>();
+      for (TupleBatch tb : batches) {
+        for (int row = 0; row < tb.numTuples(); ++row) {
+          List<Object> values = new ArrayList<>();
+          for (int column = 0; column < tb.numColumns(); ++column) {
+            values.add(TestUtils.getValue(tb, column, row));
+          }
+          rows.add(values);
+        }
+      }
+      result.add(rows);
+    }
+    return result;
+  }
+
+  /** Check that scattering into partition buffers sends the same rows as filtering, for two functions that start in
+   * the same state. */
+  private static void checkScatter(
+      final DistributeFunction filtered, final DistributeFunction scattered) {
+    filtered.setDestinations(NUM_WORKERS, 1);
+    scattered.setDestinations(NUM_WORKERS, 1);
+    TupleBatchBuffer[] buffers = partitionBuffers(scattered);
+    for (int numTuples : new int[] {1, 100, 10000}) {
+      TupleBatch tb = randomBatch(numTuples);
+      assertEquals(rows(filtered.distribute(tb)), rows(scattered.distribute(tb, buffers)));
+      for (TupleBatchBuffer buffer : buffers) {
+        assertEquals(0, buffer.numTuples());
+      }
+    }
+  }
+
+  @Test
+  public void testHashScatter() {
+    checkScatter(
+        new HashDistributeFunction(new int[] {1}), new HashDistributeFunction(new int[] {1}));
+    checkScatter(
+        new HashDistributeFunction(new int[] {2, 1}), new HashDistributeFunction(new int[] {2, 1}));
+  }
+
+  @Test
+  public void testRoundRobinScatter() {
+    checkScatter(new RoundRobinDistributeFunction(), new RoundRobinDistributeFunction());
+  }
+
+  @Test
+  public void testBroadcastScatter() {
+    checkScatter(new BroadcastDistributeFunction(), new BroadcastDistributeFunction());
+  }
+
+  /** @return a skewed hash function on the key, whose heavy hitters are the keys 7 and 42. */
+  private static SkewedHashDistributeFunction skewedHash(final HeavyHitterPolicy policy) {
+    List<List<Object>> heavyHitters =
+        Arrays.asList(Arrays.<Object>asList(7), Arrays.<Object>asList("42"));
+    return new SkewedHashDistributeFunction(new int[] {1}, heavyHitters, policy);
+  }
+
+  @Test
+  public void testSkewedHashScatter() {
+    for (HeavyHitterPolicy policy : HeavyHitterPolicy.values()) {
+      checkScatter(skewedHash(policy), skewedHash(policy));
+    }
+  }
+
+  @Test
+  public void testSkewedHash() {
+    DistributeFunction hash = new HashDistributeFunction(new int[] {1});
+    hash.setDestinations(NUM_WORKERS, 1);
+    TupleBatch tb = randomBatch(10000);
+    List<List<List<Object>>> hashed = rows(hash.distribute(tb));
+    for (HeavyHitterPolicy policy : HeavyHitterPolicy.values()) {
+      DistributeFunction df = skewedHash(policy);
+      df.setDestinations(NUM_WORKERS, 1);
+      assertEquals(NUM_WORKERS, df.getNumDestinations());
+      List<List<List<Object>>> skewed = rows(df.distribute(tb, partitionBuffers(df)));
+      int numHeavy = 0;
+      for (int row = 0; row < tb.numTuples(); ++row) {
+        if (tb.getLong(1, row) == 7 || tb.getLong(1, row) == 42) {
+          ++numHeavy;
+        }
+      }
+      for (int worker = 0; worker < NUM_WORKERS; ++worker) {
+        /* The other keys go where the hash function sends them. */
+        List<List<Object>> others = new ArrayList<>();
+        int workerHeavy = 0;
+        for (List<Object> values : skewed.get(worker)) {
+          if (values.get(1).equals(7L) || values.get(1).equals(42L)) {
+            ++workerHeavy;
+          } else {
+            others.add(values);
+          }
+        }
+        List<List<Object>> expected = new ArrayList<>();
+        for (List<Object> values : hashed.get(worker)) {
+          if (!values.get(1).equals(7L) && !values.get(1).equals(42L)) {
+            expected.add(values);
+          }
+        }
+        assertEquals(expected, others);
+        if (policy == HeavyHitterPolicy.BROADCAST) {
+          assertEquals(numHeavy, workerHeavy);
+        } else {
+          assertEquals(numHeavy / (double) NUM_WORKERS, workerHeavy, 1);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testEOI() {
+    DistributeFunction df = new HashDistributeFunction(new int[] {0});
+    df.setDestinations(NUM_WORKERS, 1);
+    List<List<TupleBatch>> destinations =
+        df.distribute(TupleBatch.eoiTupleBatch(SCHEMA), partitionBuffers(df));
+    assertEquals(NUM_WORKERS, destinations.size());
+    for (List<TupleBatch> batches : destinations) {
+      assertEquals(1, batches.size());
+      assertEquals(true, batches.get(0).isEOI());
+    }
+  }
+}
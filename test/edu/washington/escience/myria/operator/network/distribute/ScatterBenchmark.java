@@ -0,0 +1,107 @@
+package edu.washington.escience.myria.operator.network.distribute;
+
+import java.util.List;
+import java.util.Random;
+
+import edu.washington.escience.myria.Schema;
+import edu.washington.escience.myria.Type;
+import edu.washington.escience.myria.storage.TupleBatch;
+import edu.washington.escience.myria.storage.TupleBatchBuffer;
+
+/**
+ * Measures the time to hash-partition batches and read every value of the partitions, as when they are serialized, by
+ * filtering the batch once per partition ({@link DistributeFunction#distribute(TupleBatch)}) and by copying the tuples
+ * into per-partition buffers ({@link DistributeFunction#distribute(TupleBatch, TupleBatchBuffer[])}).
+ *
+ * Run with {@code java -cp ... edu.washington.escience.myria.operator.network.distribute.ScatterBenchmark [batches]}.
+ */
+public final class ScatterBenchmark {
+
+  /** The schema of the partitioned batches. */
+  private static final Schema SCHEMA =
+      Schema.ofFields(
+          "a", Type.LONG_TYPE, "b", Type.LONG_TYPE, "c", Type.DOUBLE_TYPE, "d", Type.INT_TYPE);
+
+  /** The numbers of workers to partition on. */
+  private static final int[] NUM_WORKERS = {4, 16, 64, 256};
+
+  /** Benchmarks cannot be constructed. */
+  private ScatterBenchmark() {}
+
+  /** @return a full batch of random tuples. */
+  private static TupleBatch randomBatch() {
+    final Random random = new Random(1);
+    final TupleBatchBuffer buffer = new TupleBatchBuffer(SCHEMA);
+    for (int i = 0; i < buffer.getBatchSize(); ++i) {
+      buffer.putLong(0, random.nextLong());
+      buffer.putLong(1, random.nextInt(1000));
+      buffer.putDouble(2, random.nextDouble());
+      buffer.putInt(3, i);
+    }
+    return buffer.popAny();
+  }
+
+  /**
+   * @param destinations the partitions sent to each destination
+   * @return a checksum of all their values
+   */
+  private static long consume(final List<List<TupleBatch>> destinations) {
+    long sum = 0;
+    for (List<TupleBatch> batches : destinations) {
+      for (TupleBatch tb : batches) {
+        for (int row = 0; row < tb.numTuples(); ++row) {
+          sum += tb.getLong(0, row) + tb.getLong(1, row) + tb.getInt(3, row);
+          sum += Double.doubleToLongBits(tb.getDouble(2, row));
+        }
+      }
+    }
+    return sum;
+  }
+
+  /**
+   * @param numWorkers the number of workers to partition on
+   * @param numBatches the number of batches to partition
+   * @param scatter whether to copy tuples into partition buffers rather than filter
+   * @return the time per batch, in microseconds
+   */
+  private static double time(final int numWorkers, final int numBatches, final boolean scatter) {
+    final DistributeFunction df = new HashDistributeFunction(new int[] {0});
+    df.setDestinations(numWorkers, 1);
+    final TupleBatchBuffer[] buffers = new TupleBatchBuffer[df.getNumPartitions()];
+    for (int i = 0; i < buffers.length; ++i) {
+      buffers[i] = new TupleBatchBuffer(SCHEMA);
+    }
+    final TupleBatch tb = randomBatch();
+    long checksum = 0;
+    final long start = System.nanoTime();
+    for (int i = 0; i < numBatches; ++i) {
+      checksum += consume(scatter ? df.distribute(tb, buffers) : df.distribute(tb));
+    }
+    final double elapsed = (System.nanoTime() - start) / 1e3 / numBatches;
+    if (checksum == 42) {
+      System.out.println("unlikely checksum");
+    }
+    return elapsed;
+  }
+
+  /**
+   * @param args optionally, the number of batches to partition per measurement
+   */
+  public static void main(final String[] args) {
+    final int numBatches = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+    /* Warm up the JIT. */
+    for (int numWorkers : NUM_WORKERS) {
+      time(numWorkers, numBatches, false);
+      time(numWorkers, numBatches, true);
+    }
+    for (int numWorkers : NUM_WORKERS) {
+      double filtered = time(numWorkers, numBatches, false);
+      double scattered = time(numWorkers, numBatches, true);
+      System.out.printf(
+          "%d workers: %.1f us per batch filtered, %.1f us per batch scattered%n",
+          numWorkers,
+          filtered,
+          scattered);
+    }
+  }
+}
@@ -0,0 +1,278 @@
+package edu.washington.escience.myria.parallel;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.jboss.netty.channel.ChannelFactory;
+import org.jboss.netty.channel.socket.nio.NioClientSocketChannelFactory;
+import org.jboss.netty.channel.socket.nio.NioServerSocketChannelFactory;
+
+import com.google.common.collect.ImmutableSet;
+
+import edu.washington.escience.myria.MyriaConstants;
+import edu.washington.escience.myria.parallel.ipc.FlowControlBagInputBuffer;
+import edu.washington.escience.myria.parallel.ipc.IPCCompression;
+import edu.washington.escience.myria.parallel.ipc.IPCConnectionPool;
+import edu.washington.escience.myria.parallel.ipc.IPCMessage;
+import edu.washington.escience.myria.parallel.ipc.InJVMLoopbackChannelSink;
+import edu.washington.escience.myria.parallel.ipc.QueueBasedShortMessageProcessor;
+import edu.washington.escience.myria.parallel.ipc.RingBagInputBuffer;
+import edu.washington.escience.myria.parallel.ipc.SimpleBagInputBuffer;
+import edu.washington.escience.myria.parallel.ipc.StreamIOChannelID;
+import edu.washington.escience.myria.parallel.ipc.StreamInputBuffer;
+import edu.washington.escience.myria.proto.TransportProto.TransportMessage;
+
+/**
+ * Measures the message rate of the input buffers of local streams. Producer threads offer messages straight to an
+ * input buffer, each keeping at most {@link #WINDOW} messages in flight as a credit-based stream does, and a consumer
+ * thread takes them, one at a time or, for the {@link RingBagInputBuffer}, also in batches. As a JMH benchmark would,
+ * each configuration first runs a few warm-up iterations, then reports the mean and standard deviation of the measured
+ * iterations.
+ *
+ * Run with {@code java -cp ... edu.washington.escience.myria.parallel.InputBufferBenchmark [messagesPerProducer]}.
+ */
+public final class InputBufferBenchmark {
+
+  /** The IPC ID of the pool, also the remote ID of the input channels. */
+  private static final int MY_ID = 1;
+  /** The messages a producer may have in flight, as the stream credits. */
+  private static final int WINDOW = 64;
+  /** The number of messages taken at once in batched drains. */
+  private static final int DRAIN_BATCH = 64;
+  /** The number of warm-up iterations. */
+  private static final int WARMUP_ITERATIONS = 3;
+  /** The number of measured iterations. */
+  private static final int MEASURED_ITERATIONS = 5;
+  /** The payload of all the messages. */
+  private static final Object PAYLOAD = new Object();
+
+  /** The input buffers. */
+  private enum Kind {
+    /** {@link SimpleBagInputBuffer}. */
+    SIMPLE,
+    /** {@link FlowControlBagInputBuffer}. */
+    FLOW_CONTROL,
+    /** {@link RingBagInputBuffer}, taking one message at a time. */
+    RING,
+    /** {@link RingBagInputBuffer}, draining messages in batches. */
+    RING_DRAIN
+  }
+
+  /** The pool the input buffers are registered with. */
+  private final IPCConnectionPool pool;
+  /** The server channel factory of the pool. */
+  private final ChannelFactory serverFactory;
+  /** The client channel factory of the pool. */
+  private final ChannelFactory clientFactory;
+  /** The next stream ID, so that the input buffers of each iteration have new input channels. */
+  private long nextStreamID = 0;
+
+  /**
+   * Create and start the pool.
+   *
+   * @throws Exception if the pool cannot start
+   */
+  private InputBufferBenchmark() throws Exception {
+    final Map<Integer, SocketInfo> addresses = new HashMap<>();
+    addresses.put(MY_ID, new SocketInfo("127.0.0.1", freePort()));
+    pool =
+        new IPCConnectionPool(
+            MY_ID,
+            addresses,
+            IPCConfigurations.createWorkerIPCServerBootstrap(
+                3000, MyriaConstants.MB, MyriaConstants.MB, MyriaConstants.KB, MyriaConstants.MB),
+            IPCConfigurations.createWorkerIPCClientBootstrap(
+                3000, MyriaConstants.MB, MyriaConstants.MB, MyriaConstants.KB, MyriaConstants.MB),
+            new TransportMessageSerializer(),
+            new QueueBasedShortMessageProcessor<TransportMessage>(
+                new LinkedBlockingQueue<IPCMessage.Data<TransportMessage>>()),
+            WINDOW,
+            WINDOW / 2,
+            0);
+    final ExecutorService executor = Executors.newCachedThreadPool();
+    serverFactory = new NioServerSocketChannelFactory(executor, executor);
+    clientFactory = new NioClientSocketChannelFactory(executor, executor);
+    pool.start(
+        serverFactory,
+        new IPCPipelineFactories.WorkerServerPipelineFactory(pool, null, IPCCompression.NONE, 0),
+        clientFactory,
+        new IPCPipelineFactories.WorkerClientPipelineFactory(pool, null, IPCCompression.NONE, 0),
+        new IPCPipelineFactories.WorkerInJVMPipelineFactory(pool),
+        new InJVMLoopbackChannelSink());
+  }
+
+  /**
+   * @return a free local port.
+   * @throws IOException if no port can be found
+   */
+  private static int freePort() throws IOException {
+    try (ServerSocket socket = new ServerSocket(0)) {
+      return socket.getLocalPort();
+    }
+  }
+
+  /**
+   * @param kind the input buffer
+   * @param sources the input channels
+   * @return a started input buffer
+   */
+  private StreamInputBuffer<Object> startBuffer(
+      final Kind kind, final ImmutableSet<StreamIOChannelID> sources) {
+    final StreamInputBuffer<Object> buffer;
+    switch (kind) {
+      case SIMPLE:
+        buffer = new SimpleBagInputBuffer<Object>(pool, sources);
+        break;
+      case FLOW_CONTROL:
+        buffer = new FlowControlBagInputBuffer<Object>(pool, sources, WINDOW, WINDOW / 2, WINDOW);
+        break;
+      default:
+        buffer = new RingBagInputBuffer<Object>(pool, sources, sources.size() * WINDOW, WINDOW);
+        break;
+    }
+    buffer.start(new Object());
+    return buffer;
+  }
+
+  /**
+   * @param kind the input buffer
+   * @param numProducers the number of producers
+   * @param numMessages the number of messages of each producer
+   * @return the number of messages per second
+   * @throws InterruptedException if interrupted
+   */
+  private double run(final Kind kind, final int numProducers, final int numMessages)
+      throws InterruptedException {
+    final long firstStreamID = nextStreamID;
+    nextStreamID += numProducers;
+    final ImmutableSet.Builder<StreamIOChannelID> sources = ImmutableSet.builder();
+    for (int p = 0; p < numProducers; ++p) {
+      sources.add(new StreamIOChannelID(firstStreamID + p, MY_ID));
+    }
+    final StreamInputBuffer<Object> buffer = startBuffer(kind, sources.build());
+    final AtomicIntegerArray inFlight = new AtomicIntegerArray(numProducers);
+
+    final Thread[] producers = new Thread[numProducers];
+    for (int p = 0; p < numProducers; ++p) {
+      final int producer = p;
+      producers[p] =
+          new Thread() {
+            @Override
+            public void run() {
+              final long streamID = firstStreamID + producer;
+              for (int i = 0; i < numMessages; ++i) {
+                while (inFlight.get(producer) >= WINDOW) {
+                  Thread.yield();
+                }
+                inFlight.incrementAndGet(producer);
+                buffer.offer(IPCMessage.StreamData.wrap(MY_ID, streamID, PAYLOAD));
+              }
+              buffer.offer(IPCMessage.StreamData.eos(MY_ID, streamID));
+            }
+          };
+    }
+
+    final long start = System.nanoTime();
+    for (Thread p : producers) {
+      p.start();
+    }
+    long received = 0;
+    if (kind == Kind.RING_DRAIN) {
+      final RingBagInputBuffer<Object> ring = (RingBagInputBuffer<Object>) buffer;
+      final List<IPCMessage.StreamData<Object>> batch = new ArrayList<>(DRAIN_BATCH);
+      while (true) {
+        batch.clear();
+        if (ring.drainTo(batch, DRAIN_BATCH) == 0) {
+          final IPCMessage.StreamData<Object> m = ring.take();
+          if (m == null) {
+            break;
+          }
+          batch.add(m);
+        }
+        for (IPCMessage.StreamData<Object> m : batch) {
+          if (m.getPayload() != null) {
+            inFlight.decrementAndGet((int) (m.getStreamID() - firstStreamID));
+            ++received;
+          }
+        }
+      }
+    } else {
+      while (true) {
+        final IPCMessage.StreamData<Object> m = buffer.take();
+        if (m == null) {
+          break;
+        }
+        if (m.getPayload() != null) {
+          inFlight.decrementAndGet((int) (m.getStreamID() - firstStreamID));
+          ++received;
+        }
+      }
+    }
+    final double seconds = (System.nanoTime() - start) / 1e9;
+    for (Thread p : producers) {
+      p.join();
+    }
+    buffer.stop();
+    pool.deRegisterStreamInput(buffer);
+    if (received != (long) numProducers * numMessages) {
+      throw new IllegalStateException("Received " + received + " messages");
+    }
+    return received / seconds;
+  }
+
+  /**
+   * @param kind the input buffer
+   * @param numProducers the number of producers
+   * @param numMessages the number of messages of each producer
+   * @return the mean and standard deviation of the message rate
+   * @throws InterruptedException if interrupted
+   */
+  private String measure(final Kind kind, final int numProducers, final int numMessages)
+      throws InterruptedException {
+    for (int i = 0; i < WARMUP_ITERATIONS; ++i) {
+      run(kind, numProducers, numMessages);
+    }
+    final double[] rates = new double[MEASURED_ITERATIONS];
+    double sum = 0;
+    for (int i = 0; i < MEASURED_ITERATIONS; ++i) {
+      rates[i] = run(kind, numProducers, numMessages);
+      sum += rates[i];
+    }
+    final double mean = sum / MEASURED_ITERATIONS;
+    double squares = 0;
+    for (double rate : rates) {
+      squares += (rate - mean) * (rate - mean);
+    }
+    return String.format(
+        "%-13s %d producers: %8.0f +- %6.0f kmsg/s",
+        kind,
+        numProducers,
+        mean / 1e3,
+        Math.sqrt(squares / MEASURED_ITERATIONS) / 1e3);
+  }
+
+  /**
+   * @param args optionally, the number of messages of each producer
+   * @throws Exception if anything fails
+   */
+  public static void main(final String[] args) throws Exception {
+    final int numMessages = args.length > 0 ? Integer.parseInt(args[0]) : 1000 * 1000;
+    final InputBufferBenchmark benchmark = new InputBufferBenchmark();
+    for (int numProducers : new int[] {1, 4}) {
+      for (Kind kind : Kind.values()) {
+        System.out.println(benchmark.measure(kind, numProducers, numMessages / numProducers));
+      }
+    }
+    benchmark.pool.shutdown().awaitUninterruptibly();
+    benchmark.serverFactory.releaseExternalResources();
+    benchmark.clientFactory.releaseExternalResources();
+  }
+}
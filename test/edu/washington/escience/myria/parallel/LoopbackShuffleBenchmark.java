@@ -0,0 +1,185 @@
+package edu.washington.escience.myria.parallel;
+
+import java.net.InetSocketAddress;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+
+import org.jboss.netty.bootstrap.ClientBootstrap;
+import org.jboss.netty.bootstrap.ServerBootstrap;
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.ChannelFuture;
+import org.jboss.netty.channel.ChannelFutureListener;
+import org.jboss.netty.channel.ChannelHandlerContext;
+import org.jboss.netty.channel.ChannelPipeline;
+import org.jboss.netty.channel.ChannelPipelineFactory;
+import org.jboss.netty.channel.Channels;
+import org.jboss.netty.channel.MessageEvent;
+import org.jboss.netty.channel.SimpleChannelUpstreamHandler;
+import org.jboss.netty.channel.socket.nio.NioClientSocketChannelFactory;
+import org.jboss.netty.channel.socket.nio.NioServerSocketChannelFactory;
+import org.jboss.netty.handler.codec.protobuf.ProtobufVarint32FrameDecoder;
+import org.jboss.netty.handler.codec.protobuf.ProtobufVarint32LengthFieldPrepender;
+
+import edu.washington.escience.myria.Schema;
+import edu.washington.escience.myria.Type;
+import edu.washington.escience.myria.parallel.ipc.GatheringFrameEncoder;
+import edu.washington.escience.myria.proto.TransportProto.TransportMessage;
+import edu.washington.escience.myria.storage.TupleBatch;
+import edu.washington.escience.myria.storage.TupleBatchBuffer;
+import edu.washington.escience.myria.util.IPCUtils;
+
+/**
+ * Measures the throughput of sending batches between two sockets over loopback, as protobuf
+ * {@link TransportMessage}s and as {@link TupleBatchFrame}s. The receiver decodes each batch and reads all its values.
+ *
+ * Run with {@code java -cp ... edu.washington.escience.myria.parallel.LoopbackShuffleBenchmark [batches]}.
+ */
+public final class LoopbackShuffleBenchmark {
+
+  /** The schema of the sent batches. */
+  private static final Schema SCHEMA =
+      Schema.ofFields(
+          "a", Type.LONG_TYPE, "b", Type.LONG_TYPE, "c", Type.DOUBLE_TYPE, "d", Type.INT_TYPE);
+
+  /** The number of writes between waits for a write to complete. */
+  private static final int WRITES_IN_FLIGHT = 16;
+
+  /** Benchmarks cannot be constructed. */
+  private LoopbackShuffleBenchmark() {}
+
+  /** @return a full batch of random tuples. */
+  private static TupleBatch randomBatch() {
+    final Random random = new Random(1);
+    final TupleBatchBuffer buffer = new TupleBatchBuffer(SCHEMA);
+    for (int i = 0; i < buffer.getBatchSize(); ++i) {
+      buffer.putLong(0, random.nextLong());
+      buffer.putLong(1, random.nextLong());
+      buffer.putDouble(2, random.nextDouble());
+      buffer.putInt(3, random.nextInt());
+    }
+    return buffer.popAny();
+  }
+
+  /** Decodes the received batches and reads their values. */
+  private static final class Receiver extends SimpleChannelUpstreamHandler {
+    /** Counts down the batches to receive. */
+    private final CountDownLatch remaining;
+    /** A checksum of the received values. */
+    private long checksum;
+
+    /** @param numBatches the number of batches to receive */
+    Receiver(final int numBatches) {
+      remaining = new CountDownLatch(numBatches);
+    }
+
+    @Override
+    public void messageReceived(final ChannelHandlerContext ctx, final MessageEvent e)
+        throws Exception {
+      final Object payload =
+          new TransportMessageSerializer()
+              .deSerialize((ChannelBuffer) e.getMessage(), null, SCHEMA);
+      final TupleBatch tb;
+      if (payload instanceof TransportMessage) {
+        tb = IPCUtils.tmToTupleBatch(((TransportMessage) payload).getDataMessage(), SCHEMA);
+      } else {
+        tb = (TupleBatch) payload;
+      }
+      for (int row = 0; row < tb.numTuples(); ++row) {
+        checksum += tb.getLong(0, row) + tb.getLong(1, row) + tb.getInt(3, row);
+        checksum += Double.doubleToLongBits(tb.getDouble(2, row));
+      }
+      remaining.countDown();
+    }
+  }
+
+  /**
+   * @param numBatches the number of batches to send
+   * @param frames whether to send {@link TupleBatchFrame}s rather than protobuf messages
+   * @return the throughput, in MB of tuples per second
+   * @throws InterruptedException if interrupted
+   */
+  private static double time(final int numBatches, final boolean frames)
+      throws InterruptedException {
+    final Receiver receiver = new Receiver(numBatches);
+    final ServerBootstrap server =
+        new ServerBootstrap(
+            new NioServerSocketChannelFactory(
+                Executors.newCachedThreadPool(), Executors.newCachedThreadPool()));
+    server.setPipelineFactory(
+        new ChannelPipelineFactory() {
+          @Override
+          public ChannelPipeline getPipeline() {
+            return Channels.pipeline(new ProtobufVarint32FrameDecoder(), receiver);
+          }
+        });
+    final Channel serverChannel = server.bind(new InetSocketAddress("127.0.0.1", 0));
+
+    final ClientBootstrap client =
+        new ClientBootstrap(
+            new NioClientSocketChannelFactory(
+                Executors.newCachedThreadPool(), Executors.newCachedThreadPool()));
+    client.setPipelineFactory(
+        new ChannelPipelineFactory() {
+          @Override
+          public ChannelPipeline getPipeline() {
+            if (frames) {
+              return Channels.pipeline(new GatheringFrameEncoder());
+            }
+            return Channels.pipeline(new ProtobufVarint32LengthFieldPrepender());
+          }
+        });
+    final Channel channel =
+        client.connect(serverChannel.getLocalAddress()).awaitUninterruptibly().getChannel();
+
+    final TupleBatch tb = randomBatch();
+    final long start = System.nanoTime();
+    for (int i = 0; i < numBatches; ++i) {
+      final ChannelBuffer payload;
+      if (frames) {
+        payload = TupleBatchFrame.encode(tb);
+      } else {
+        payload = ChannelBuffers.wrappedBuffer(tb.toTransportMessage().toByteArray());
+      }
+      final ChannelFuture future = channel.write(payload);
+      future.addListener(
+          new ChannelFutureListener() {
+            @Override
+            public void operationComplete(final ChannelFuture f) {
+              TupleBatchFrame.release(payload);
+            }
+          });
+      if (i % WRITES_IN_FLIGHT == WRITES_IN_FLIGHT - 1) {
+        future.awaitUninterruptibly();
+      }
+    }
+    receiver.remaining.await();
+    final double seconds = (System.nanoTime() - start) / 1e9;
+
+    channel.close().awaitUninterruptibly();
+    serverChannel.close().awaitUninterruptibly();
+    client.releaseExternalResources();
+    server.releaseExternalResources();
+    if (receiver.checksum == 42) {
+      System.out.println("unlikely checksum");
+    }
+    final long bytes = (long) numBatches * tb.numTuples() * (8 + 8 + 8 + 4);
+    return bytes / 1e6 / seconds;
+  }
+
+  /**
+   * @param args optionally, the number of batches to send per measurement
+   * @throws InterruptedException if interrupted
+   */
+  public static void main(final String[] args) throws InterruptedException {
+    final int numBatches = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+    /* Warm up the JIT. */
+    time(numBatches, false);
+    time(numBatches, true);
+    final double protobuf = time(numBatches, false);
+    final double frames = time(numBatches, true);
+    System.out.printf("protobuf messages: %.1f MB/s, frames: %.1f MB/s%n", protobuf, frames);
+  }
+}
@@ -0,0 +1,224 @@
+package edu.washington.escience.myria.parallel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.netty.channel.ChannelFactory;
+import org.jboss.netty.channel.socket.nio.NioClientSocketChannelFactory;
+import org.jboss.netty.channel.socket.nio.NioServerSocketChannelFactory;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableSet;
+
+import edu.washington.escience.myria.MyriaConstants;
+import edu.washington.escience.myria.parallel.ipc.IPCCompression;
+import edu.washington.escience.myria.parallel.ipc.IPCConnectionPool;
+import edu.washington.escience.myria.parallel.ipc.IPCMessage;
+import edu.washington.escience.myria.parallel.ipc.InJVMLoopbackChannelSink;
+import edu.washington.escience.myria.parallel.ipc.QueueBasedShortMessageProcessor;
+import edu.washington.escience.myria.parallel.ipc.RingBagInputBuffer;
+import edu.washington.escience.myria.parallel.ipc.StreamIOChannelID;
+import edu.washington.escience.myria.proto.TransportProto.TransportMessage;
+
+public class RingBagInputBufferTest {
+
+  /** The IPC ID of the pool, also the remote ID of the input channels. */
+  private static final int MY_ID = 1;
+
+  /** A pool to register the input buffers with. */
+  private static IPCConnectionPool pool;
+  /** The server channel factory of the pool. */
+  private static ChannelFactory serverFactory;
+  /** The client channel factory of the pool. */
+  private static ChannelFactory clientFactory;
+
+  @BeforeClass
+  public static void startPool() throws Exception {
+    final Map<Integer, SocketInfo> addresses = new HashMap<>();
+    addresses.put(MY_ID, new SocketInfo("127.0.0.1", freePort()));
+    pool =
+        new IPCConnectionPool(
+            MY_ID,
+            addresses,
+            IPCConfigurations.createWorkerIPCServerBootstrap(
+                3000, MyriaConstants.MB, MyriaConstants.MB, MyriaConstants.KB, MyriaConstants.MB),
+            IPCConfigurations.createWorkerIPCClientBootstrap(
+                3000, MyriaConstants.MB, MyriaConstants.MB, MyriaConstants.KB, MyriaConstants.MB),
+            new TransportMessageSerializer(),
+            new QueueBasedShortMessageProcessor<TransportMessage>(
+                new LinkedBlockingQueue<IPCMessage.Data<TransportMessage>>()),
+            100,
+            80,
+            0);
+    final ExecutorService executor = Executors.newCachedThreadPool();
+    serverFactory = new NioServerSocketChannelFactory(executor, executor);
+    clientFactory = new NioClientSocketChannelFactory(executor, executor);
+    pool.start(
+        serverFactory,
+        new IPCPipelineFactories.WorkerServerPipelineFactory(pool, null, IPCCompression.NONE, 0),
+        clientFactory,
+        new IPCPipelineFactories.WorkerClientPipelineFactory(pool, null, IPCCompression.NONE, 0),
+        new IPCPipelineFactories.WorkerInJVMPipelineFactory(pool),
+        new InJVMLoopbackChannelSink());
+  }
+
+  /**
+   * @return a free local port.
+   * @throws IOException if no port can be found
+   */
+  private static int freePort() throws IOException {
+    try (ServerSocket socket = new ServerSocket(0)) {
+      return socket.getLocalPort();
+    }
+  }
+
+  @AfterClass
+  public static void shutdownPool() {
+    pool.shutdown().awaitUninterruptibly();
+    serverFactory.releaseExternalResources();
+    clientFactory.releaseExternalResources();
+  }
+
+  /**
+   * @param streamIDs the streams of the input channels
+   * @param capacity the capacity of the ring
+   * @return a started input buffer
+   */
+  private static RingBagInputBuffer<Integer> startBuffer(
+      final long[] streamIDs, final int capacity) {
+    final ImmutableSet.Builder<StreamIOChannelID> sources = ImmutableSet.builder();
+    for (long streamID : streamIDs) {
+      sources.add(new StreamIOChannelID(streamID, MY_ID));
+    }
+    final RingBagInputBuffer<Integer> buffer =
+        new RingBagInputBuffer<Integer>(pool, sources.build(), capacity, 0);
+    buffer.start(new Object());
+    return buffer;
+  }
+
+  @Test
+  public void testOfferAndPoll() throws InterruptedException {
+    final RingBagInputBuffer<Integer> buffer = startBuffer(new long[] {10, 11}, 3);
+    assertEquals(4, buffer.getCapacity());
+    assertTrue(buffer.isEmpty());
+    assertNull(buffer.poll());
+    assertNull(buffer.poll(1, TimeUnit.MILLISECONDS));
+
+    /* More messages than the ring holds, the rest go to the overflow queue. */
+    for (int i = 0; i < 10; ++i) {
+      assertTrue(buffer.offer(IPCMessage.StreamData.wrap(MY_ID, 10, i)));
+    }
+    assertTrue(buffer.offer(IPCMessage.StreamData.<Integer>eos(MY_ID, 10)));
+    assertEquals(11, buffer.size());
+    assertFalse(buffer.isEOS());
+    assertEquals(Integer.valueOf(0), buffer.peek().getPayload());
+    for (int i = 0; i < 5; ++i) {
+      assertEquals(Integer.valueOf(i), buffer.poll().getPayload());
+    }
+    /* Still in order after the overflow queue is emptied. */
+    assertTrue(buffer.offer(IPCMessage.StreamData.wrap(MY_ID, 11, 100)));
+    for (int i = 5; i < 10; ++i) {
+      assertEquals(Integer.valueOf(i), buffer.take().getPayload());
+    }
+    assertNull(buffer.take().getPayload());
+    assertEquals(Integer.valueOf(100), buffer.take().getPayload());
+
+    /* Data after EOS and a second EOS are dropped. */
+    assertTrue(buffer.offer(IPCMessage.StreamData.wrap(MY_ID, 10, 1000)));
+    assertTrue(buffer.offer(IPCMessage.StreamData.<Integer>eos(MY_ID, 10)));
+    assertTrue(buffer.isEmpty());
+    assertTrue(buffer.offer(IPCMessage.StreamData.<Integer>eos(MY_ID, 11)));
+    assertTrue(buffer.isEOS());
+    assertNull(buffer.take().getPayload());
+    assertNull(buffer.take());
+    buffer.stop();
+  }
+
+  @Test
+  public void testDrainTo() {
+    final RingBagInputBuffer<Integer> buffer = startBuffer(new long[] {20}, 4);
+    for (int i = 0; i < 6; ++i) {
+      buffer.offer(IPCMessage.StreamData.wrap(MY_ID, 20, i));
+    }
+    final List<IPCMessage.StreamData<Integer>> drained = new ArrayList<>();
+    assertEquals(3, buffer.drainTo(drained, 3));
+    assertEquals(3, buffer.drainTo(drained, 10));
+    assertEquals(6, drained.size());
+    assertEquals(0, buffer.drainTo(drained, 10));
+    for (int i = 0; i < 6; ++i) {
+      assertEquals(Integer.valueOf(i), drained.get(i).getPayload());
+    }
+    buffer.stop();
+  }
+
+  @Test
+  public void testConcurrentProducers() throws InterruptedException {
+    final int numProducers = 4;
+    final int numMessages = 50000;
+    final long[] streamIDs = new long[numProducers];
+    for (int p = 0; p < numProducers; ++p) {
+      streamIDs[p] = p;
+    }
+    final RingBagInputBuffer<Integer> buffer = startBuffer(streamIDs, 64);
+    final Thread[] producers = new Thread[numProducers];
+    for (int p = 0; p < numProducers; ++p) {
+      final int streamID = p;
+      producers[p] =
+          new Thread() {
+            @Override
+            public void run() {
+              for (int i = 0; i < numMessages; ++i) {
+                buffer.offer(IPCMessage.StreamData.wrap(MY_ID, streamID, i));
+              }
+              buffer.offer(IPCMessage.StreamData.<Integer>eos(MY_ID, streamID));
+            }
+          };
+      producers[p].start();
+    }
+
+    /* Each stream is received in order, alternating between take and batched drains. */
+    final int[] next = new int[numProducers];
+    int numEOS = 0;
+    final List<IPCMessage.StreamData<Integer>> batch = new ArrayList<>();
+    while (true) {
+      batch.clear();
+      if (buffer.drainTo(batch, 16) == 0) {
+        final IPCMessage.StreamData<Integer> m = buffer.take();
+        if (m == null) {
+          break;
+        }
+        batch.add(m);
+      }
+      for (IPCMessage.StreamData<Integer> m : batch) {
+        final int streamID = (int) m.getStreamID();
+        if (m.getPayload() == null) {
+          assertEquals(numMessages, next[streamID]);
+          ++numEOS;
+        } else {
+          assertEquals(next[streamID]++, m.getPayload().intValue());
+        }
+      }
+    }
+    for (Thread p : producers) {
+      p.join();
+    }
+    assertEquals(numProducers, numEOS);
+    assertTrue(buffer.isEmpty());
+    buffer.stop();
+  }
+}
@@ -0,0 +1,309 @@
+package edu.washington.escience.myria.parallel;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.netty.channel.ChannelFactory;
+import org.jboss.netty.channel.socket.nio.NioClientSocketChannelFactory;
+import org.jboss.netty.channel.socket.nio.NioServerSocketChannelFactory;
+
+import com.google.common.collect.ImmutableSet;
+
+import edu.washington.escience.myria.MyriaConstants;
+import edu.washington.escience.myria.Schema;
+import edu.washington.escience.myria.Type;
+import edu.washington.escience.myria.parallel.ipc.FlowControlBagInputBuffer;
+import edu.washington.escience.myria.parallel.ipc.IPCCompression;
+import edu.washington.escience.myria.parallel.ipc.IPCConnectionPool;
+import edu.washington.escience.myria.parallel.ipc.IPCEvent;
+import edu.washington.escience.myria.parallel.ipc.IPCEventListener;
+import edu.washington.escience.myria.parallel.ipc.IPCMessage;
+import edu.washington.escience.myria.parallel.ipc.InJVMLoopbackChannelSink;
+import edu.washington.escience.myria.parallel.ipc.QueueBasedShortMessageProcessor;
+import edu.washington.escience.myria.parallel.ipc.StreamIOChannelID;
+import edu.washington.escience.myria.parallel.ipc.StreamOutputChannel;
+import edu.washington.escience.myria.proto.TransportProto.TransportMessage;
+import edu.washington.escience.myria.storage.TupleBatch;
+import edu.washington.escience.myria.storage.TupleBatchBuffer;
+
+/**
+ * Measures how a consumer fed by skewed producers behaves with credit-based streams and with the read of all its inputs
+ * paused when its input buffer is full. One heavy producer floods the consumer while a few light producers send a batch
+ * now and then, through loopback connections between two IPC pools, and the consumer is slower than the heavy
+ * producer. The benchmark reports how long the batches of the light producers waited and the largest size of the input
+ * buffer.
+ *
+ * Run with {@code java -cp ... edu.washington.escience.myria.parallel.SkewedProducersBenchmark [lightBatches]}.
+ */
+public final class SkewedProducersBenchmark {
+
+  /** The schema of the sent batches, the first value of a batch is when it was sent. */
+  private static final Schema SCHEMA = Schema.ofFields("a", Type.LONG_TYPE, "b", Type.LONG_TYPE);
+  /** The IPC ID of the producers. */
+  private static final int SENDER_ID = 1;
+  /** The IPC ID of the consumer. */
+  private static final int RECEIVER_ID = 2;
+  /** The number of light producers. */
+  private static final int NUM_LIGHT = 4;
+  /** The interval between the batches of a light producer, in milliseconds. */
+  private static final int LIGHT_INTERVAL_MS = 2;
+  /** How long the consumer works on a batch, in nanoseconds. */
+  private static final long CONSUME_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+  /** The soft capacity of the input buffer, as configured by default. */
+  private static final int INPUT_BUFFER_CAPACITY = 100;
+  /** The input buffer recover trigger, as configured by default. */
+  private static final int INPUT_BUFFER_RECOVER_TRIGGER = 80;
+  /** The stream credits, as configured by default. */
+  private static final int CHANNEL_CREDITS = 8;
+
+  /** Benchmarks cannot be constructed. */
+  private SkewedProducersBenchmark() {}
+
+  /**
+   * @return a free local port.
+   * @throws IOException if no port can be found
+   */
+  private static int freePort() throws IOException {
+    try (ServerSocket socket = new ServerSocket(0)) {
+      return socket.getLocalPort();
+    }
+  }
+
+  /**
+   * @param sentNanos when the batch is sent
+   * @return a full batch whose first value is sentNanos
+   */
+  private static TupleBatch batch(final long sentNanos) {
+    final TupleBatchBuffer buffer = new TupleBatchBuffer(SCHEMA);
+    for (int i = 0; i < buffer.getBatchSize(); ++i) {
+      buffer.putLong(0, sentNanos);
+      buffer.putLong(1, i);
+    }
+    return buffer.popAny();
+  }
+
+  /** An IPC pool and its channel factories. */
+  private static final class Pool {
+    /** The pool. */
+    private final IPCConnectionPool pool;
+    /** The server channel factory. */
+    private final ChannelFactory serverFactory;
+    /** The client channel factory. */
+    private final ChannelFactory clientFactory;
+
+    /**
+     * @param id the IPC ID of the pool
+     * @param addresses the addresses of all the pools
+     * @param channelCredits the stream credits, 0 to pause the reads of full input buffers instead
+     * @throws Exception if the pool cannot start
+     */
+    Pool(final int id, final Map<Integer, SocketInfo> addresses, final int channelCredits)
+        throws Exception {
+      pool =
+          new IPCConnectionPool(
+              id,
+              addresses,
+              IPCConfigurations.createWorkerIPCServerBootstrap(
+                  3000,
+                  5 * MyriaConstants.MB,
+                  2 * MyriaConstants.MB,
+                  512 * MyriaConstants.KB,
+                  5 * MyriaConstants.MB),
+              IPCConfigurations.createWorkerIPCClientBootstrap(
+                  3000,
+                  5 * MyriaConstants.MB,
+                  2 * MyriaConstants.MB,
+                  512 * MyriaConstants.KB,
+                  5 * MyriaConstants.MB),
+              new TransportMessageSerializer(),
+              new QueueBasedShortMessageProcessor<TransportMessage>(
+                  new LinkedBlockingQueue<IPCMessage.Data<TransportMessage>>()),
+              INPUT_BUFFER_CAPACITY,
+              INPUT_BUFFER_RECOVER_TRIGGER,
+              channelCredits);
+      final ExecutorService executor = Executors.newCachedThreadPool();
+      serverFactory = new NioServerSocketChannelFactory(executor, executor);
+      clientFactory = new NioClientSocketChannelFactory(executor, executor);
+      pool.start(
+          serverFactory,
+          new IPCPipelineFactories.WorkerServerPipelineFactory(pool, null, IPCCompression.NONE, 0),
+          clientFactory,
+          new IPCPipelineFactories.WorkerClientPipelineFactory(pool, null, IPCCompression.NONE, 0),
+          new IPCPipelineFactories.WorkerInJVMPipelineFactory(pool),
+          new InJVMLoopbackChannelSink());
+    }
+
+    /** Shut the pool down and release its threads. */
+    void shutdown() {
+      pool.shutdown().awaitUninterruptibly();
+      serverFactory.releaseExternalResources();
+      clientFactory.releaseExternalResources();
+    }
+  }
+
+  /** A producer, sending its batches through a stream. */
+  private static final class Producer extends Thread {
+    /** The output channel of the stream. */
+    private final StreamOutputChannel<TupleBatch> channel;
+    /** The number of batches to send. */
+    private final int numBatches;
+    /** The interval between batches in milliseconds, 0 to send them as fast as possible. */
+    private final int intervalMs;
+    /** Notified when the output is available again. */
+    private final Object outputRecovered = new Object();
+
+    /**
+     * @param channel the output channel of the stream
+     * @param numBatches the number of batches to send
+     * @param intervalMs the interval between batches in milliseconds, 0 to send them as fast as possible
+     */
+    Producer(
+        final StreamOutputChannel<TupleBatch> channel, final int numBatches, final int intervalMs) {
+      this.channel = channel;
+      this.numBatches = numBatches;
+      this.intervalMs = intervalMs;
+      channel.addListener(
+          StreamOutputChannel.OUTPUT_RECOVERED,
+          new IPCEventListener() {
+            @Override
+            public void triggered(final IPCEvent event) {
+              synchronized (outputRecovered) {
+                outputRecovered.notifyAll();
+              }
+            }
+          });
+    }
+
+    @Override
+    public void run() {
+      try {
+        final TupleBatch flood = batch(0);
+        for (int i = 0; i < numBatches; ++i) {
+          if (intervalMs > 0) {
+            Thread.sleep(intervalMs);
+          }
+          /* Wait for the output to be available, as a fragment waits to be scheduled again. */
+          synchronized (outputRecovered) {
+            while (!channel.isWritable()) {
+              outputRecovered.wait(1);
+            }
+          }
+          if (intervalMs > 0) {
+            channel.write(batch(System.nanoTime()));
+          } else {
+            channel.write(flood);
+          }
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      channel.release().awaitUninterruptibly();
+    }
+  }
+
+  /**
+   * @param lightBatches the number of batches of each light producer
+   * @param channelCredits the stream credits, 0 to pause the reads of full input buffers instead
+   * @return the results
+   * @throws Exception if anything fails
+   */
+  private static String run(final int lightBatches, final int channelCredits) throws Exception {
+    final Map<Integer, SocketInfo> addresses = new HashMap<>();
+    addresses.put(SENDER_ID, new SocketInfo("127.0.0.1", freePort()));
+    addresses.put(RECEIVER_ID, new SocketInfo("127.0.0.1", freePort()));
+    final Pool sender = new Pool(SENDER_ID, addresses, channelCredits);
+    final Pool receiver = new Pool(RECEIVER_ID, addresses, channelCredits);
+
+    final ImmutableSet.Builder<StreamIOChannelID> sources = ImmutableSet.builder();
+    for (int s = 0; s <= NUM_LIGHT; ++s) {
+      sources.add(new StreamIOChannelID(s, SENDER_ID));
+    }
+    final FlowControlBagInputBuffer<TupleBatch> inputBuffer =
+        new FlowControlBagInputBuffer<TupleBatch>(
+            receiver.pool,
+            sources.build(),
+            INPUT_BUFFER_CAPACITY,
+            INPUT_BUFFER_RECOVER_TRIGGER,
+            channelCredits);
+    inputBuffer.setAttachment(SCHEMA);
+    inputBuffer.start(new Object());
+
+    /* Stream 0 is the heavy producer, which keeps sending during the whole run of the light producers. */
+    final long lightMillis = (long) lightBatches * LIGHT_INTERVAL_MS;
+    final int heavyBatches = (int) (2 * TimeUnit.MILLISECONDS.toNanos(lightMillis) / CONSUME_NANOS);
+    final Producer[] producers = new Producer[NUM_LIGHT + 1];
+    for (int s = 0; s <= NUM_LIGHT; ++s) {
+      final StreamOutputChannel<TupleBatch> channel =
+          sender.pool.reserveLongTermConnection(RECEIVER_ID, s);
+      if (s == 0) {
+        producers[s] = new Producer(channel, heavyBatches, 0);
+      } else {
+        producers[s] = new Producer(channel, lightBatches, LIGHT_INTERVAL_MS);
+      }
+    }
+    for (Producer p : producers) {
+      p.start();
+    }
+
+    int maxSize = 0;
+    long numLight = 0;
+    long sumLightWaitNanos = 0;
+    long maxLightWaitNanos = 0;
+    final long start = System.nanoTime();
+    while (true) {
+      maxSize = Math.max(maxSize, inputBuffer.size());
+      final IPCMessage.StreamData<TupleBatch> m = inputBuffer.take();
+      if (m == null) {
+        break;
+      }
+      final TupleBatch tb = m.getPayload();
+      if (tb == null) {
+        continue;
+      }
+      final long now = System.nanoTime();
+      if (m.getStreamID() != 0) {
+        final long wait = now - tb.getLong(0, 0);
+        ++numLight;
+        sumLightWaitNanos += wait;
+        maxLightWaitNanos = Math.max(maxLightWaitNanos, wait);
+      }
+      while (System.nanoTime() - now < CONSUME_NANOS) {
+        /* Simulate the work of the consumer. */
+      }
+    }
+    final double seconds = (System.nanoTime() - start) / 1e9;
+    for (Producer p : producers) {
+      p.join();
+    }
+    inputBuffer.stop();
+    sender.shutdown();
+    receiver.shutdown();
+
+    return String.format(
+        "light batches waited %.1f ms on average, %.1f ms at most; "
+            + "largest input buffer %d batches; %.2f s in total",
+        sumLightWaitNanos / 1e6 / numLight,
+        maxLightWaitNanos / 1e6,
+        maxSize,
+        seconds);
+  }
+
+  /**
+   * @param args optionally, the number of batches of each light producer
+   * @throws Exception if anything fails
+   */
+  public static void main(final String[] args) throws Exception {
+    final int lightBatches = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+    /* Warm up the JIT. */
+    run(lightBatches / 5, CHANNEL_CREDITS);
+    run(lightBatches / 5, 0);
+    System.out.println("paused reads:     " + run(lightBatches, 0));
+    System.out.println("credit-based:     " + run(lightBatches, CHANNEL_CREDITS));
+  }
+}
@@ -0,0 +1,332 @@
+package edu.washington.escience.myria.parallel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.netty.channel.ChannelFactory;
+import org.jboss.netty.channel.socket.nio.NioClientSocketChannelFactory;
+import org.jboss.netty.channel.socket.nio.NioServerSocketChannelFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableSet;
+
+import edu.washington.escience.myria.MyriaConstants;
+import edu.washington.escience.myria.Schema;
+import edu.washington.escience.myria.Type;
+import edu.washington.escience.myria.parallel.ipc.FlowControlBagInputBuffer;
+import edu.washington.escience.myria.parallel.ipc.IPCCompression;
+import edu.washington.escience.myria.parallel.ipc.IPCConnectionPool;
+import edu.washington.escience.myria.parallel.ipc.IPCEvent;
+import edu.washington.escience.myria.parallel.ipc.IPCEventListener;
+import edu.washington.escience.myria.parallel.ipc.IPCMessage;
+import edu.washington.escience.myria.parallel.ipc.InJVMLoopbackChannelSink;
+import edu.washington.escience.myria.parallel.ipc.QueueBasedShortMessageProcessor;
+import edu.washington.escience.myria.parallel.ipc.StreamIOChannelID;
+import edu.washington.escience.myria.parallel.ipc.StreamOutputChannel;
+import edu.washington.escience.myria.proto.TransportProto.TransportMessage;
+import edu.washington.escience.myria.storage.TupleBatch;
+import edu.washington.escience.myria.storage.TupleBatchBuffer;
+
+/**
+ * Tests the credit accounting of streams between {@link StreamOutputChannel}s and a {@link FlowControlBagInputBuffer},
+ * through loopback connections between two IPC pools.
+ */
+public class StreamCreditsTest {
+
+  /** The schema of the sent batches. */
+  private static final Schema SCHEMA = Schema.ofFields("a", Type.LONG_TYPE);
+  /** The IPC ID of the producers. */
+  private static final int SENDER_ID = 1;
+  /** The IPC ID of the consumer. */
+  private static final int RECEIVER_ID = 2;
+  /** The credits of each stream. */
+  private static final int CREDITS = 4;
+  /** The soft capacity of the input buffer, smaller than the credits of both streams together. */
+  private static final int INPUT_BUFFER_CAPACITY = 3;
+  /** How long to wait for messages and credits to arrive, in milliseconds. */
+  private static final long TIMEOUT_MS = 10000;
+
+  /** The pool of the producers. */
+  private IPCConnectionPool sender;
+  /** The pool of the consumer. */
+  private IPCConnectionPool receiver;
+  /** The threads of the channel factories. */
+  private ExecutorService executor;
+  /** The channel factories of both pools. */
+  private ChannelFactory[] factories;
+  /** The input buffer of the consumer. */
+  private FlowControlBagInputBuffer<TupleBatch> inputBuffer;
+
+  /**
+   * @return a free local port.
+   * @throws IOException if no port can be found
+   */
+  private static int freePort() throws IOException {
+    try (ServerSocket socket = new ServerSocket(0)) {
+      return socket.getLocalPort();
+    }
+  }
+
+  /**
+   * @param id the IPC ID of the pool
+   * @param addresses the addresses of all the pools
+   * @return a started pool with credit-based streams
+   * @throws Exception if the pool cannot start
+   */
+  private IPCConnectionPool startPool(final int id, final Map<Integer, SocketInfo> addresses)
+      throws Exception {
+    IPCConnectionPool pool =
+        new IPCConnectionPool(
+            id,
+            addresses,
+            IPCConfigurations.createWorkerIPCServerBootstrap(
+                3000,
+                5 * MyriaConstants.MB,
+                2 * MyriaConstants.MB,
+                512 * MyriaConstants.KB,
+                5 * MyriaConstants.MB),
+            IPCConfigurations.createWorkerIPCClientBootstrap(
+                3000,
+                5 * MyriaConstants.MB,
+                2 * MyriaConstants.MB,
+                512 * MyriaConstants.KB,
+                5 * MyriaConstants.MB),
+            new TransportMessageSerializer(),
+            new QueueBasedShortMessageProcessor<TransportMessage>(
+                new LinkedBlockingQueue<IPCMessage.Data<TransportMessage>>()),
+            INPUT_BUFFER_CAPACITY,
+            INPUT_BUFFER_CAPACITY - 1,
+            CREDITS);
+    ChannelFactory serverFactory = new NioServerSocketChannelFactory(executor, executor);
+    ChannelFactory clientFactory = new NioClientSocketChannelFactory(executor, executor);
+    factories[id == SENDER_ID ? 0 : 1] = serverFactory;
+    factories[id == SENDER_ID ? 2 : 3] = clientFactory;
+    pool.start(
+        serverFactory,
+        new IPCPipelineFactories.WorkerServerPipelineFactory(pool, null, IPCCompression.NONE, 0),
+        clientFactory,
+        new IPCPipelineFactories.WorkerClientPipelineFactory(pool, null, IPCCompression.NONE, 0),
+        new IPCPipelineFactories.WorkerInJVMPipelineFactory(pool),
+        new InJVMLoopbackChannelSink());
+    return pool;
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    executor = Executors.newCachedThreadPool();
+    factories = new ChannelFactory[4];
+    Map<Integer, SocketInfo> addresses = new HashMap<>();
+    addresses.put(SENDER_ID, new SocketInfo("127.0.0.1", freePort()));
+    addresses.put(RECEIVER_ID, new SocketInfo("127.0.0.1", freePort()));
+    sender = startPool(SENDER_ID, addresses);
+    receiver = startPool(RECEIVER_ID, addresses);
+    inputBuffer =
+        new FlowControlBagInputBuffer<TupleBatch>(
+            receiver,
+            ImmutableSet.of(
+                new StreamIOChannelID(0, SENDER_ID), new StreamIOChannelID(1, SENDER_ID)),
+            INPUT_BUFFER_CAPACITY,
+            INPUT_BUFFER_CAPACITY - 1,
+            CREDITS);
+    inputBuffer.setAttachment(SCHEMA);
+    inputBuffer.start(new Object());
+  }
+
+  @After
+  public void tearDown() {
+    sender.shutdown().awaitUninterruptibly();
+    receiver.shutdown().awaitUninterruptibly();
+    inputBuffer.stop();
+    for (ChannelFactory factory : factories) {
+      if (factory != null) {
+        factory.releaseExternalResources();
+      }
+    }
+    executor.shutdownNow();
+  }
+
+  /** @return a batch of one tuple. */
+  private static TupleBatch batch() {
+    TupleBatchBuffer buffer = new TupleBatchBuffer(SCHEMA);
+    buffer.putLong(0, 1);
+    return buffer.popAny();
+  }
+
+  /**
+   * @param channel an output channel
+   * @param writable the expected writability
+   * @throws InterruptedException if interrupted while waiting
+   */
+  private static void awaitWritable(final StreamOutputChannel<?> channel, final boolean writable)
+      throws InterruptedException {
+    long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+    while (channel.isWritable() != writable && System.currentTimeMillis() < deadline) {
+      Thread.sleep(1);
+    }
+    assertEquals(writable, channel.isWritable());
+  }
+
+  /**
+   * @param count a count of events, incremented by the IPC event processor
+   * @param expected the expected count
+   * @throws InterruptedException if interrupted while waiting
+   */
+  private static void awaitCount(final AtomicInteger count, final int expected)
+      throws InterruptedException {
+    long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+    while (count.get() < expected && System.currentTimeMillis() < deadline) {
+      Thread.sleep(1);
+    }
+    assertEquals(expected, count.get());
+  }
+
+  /**
+   * @param size the expected number of messages in the input buffer
+   * @throws InterruptedException if interrupted while waiting
+   */
+  private void awaitInputBufferSize(final int size) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+    while (inputBuffer.size() < size && System.currentTimeMillis() < deadline) {
+      Thread.sleep(1);
+    }
+    assertEquals(size, inputBuffer.size());
+  }
+
+  /**
+   * @param stream the stream ID
+   * @return the output channel of the stream, once its BOS has been consumed
+   * @throws InterruptedException if interrupted while waiting
+   */
+  private StreamOutputChannel<TupleBatch> open(final int stream) throws InterruptedException {
+    StreamOutputChannel<TupleBatch> channel = sender.reserveLongTermConnection(RECEIVER_ID, stream);
+    awaitWritable(channel, true);
+    return channel;
+  }
+
+  /**
+   * Take the next data message out of the input buffer.
+   *
+   * @return the stream of the message
+   * @throws InterruptedException if interrupted while waiting
+   */
+  private long takeData() throws InterruptedException {
+    while (true) {
+      IPCMessage.StreamData<TupleBatch> m = inputBuffer.poll(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+      assertNotNull(m);
+      if (m.getPayload() != null) {
+        return m.getStreamID();
+      }
+    }
+  }
+
+  @Test
+  public void testSenderBlocksAtZeroCredits() throws InterruptedException {
+    StreamOutputChannel<TupleBatch> channel = open(0);
+    final AtomicInteger disabled = new AtomicInteger();
+    channel.addListener(
+        StreamOutputChannel.OUTPUT_DISABLED,
+        new IPCEventListener() {
+          @Override
+          public void triggered(final IPCEvent event) {
+            disabled.incrementAndGet();
+          }
+        });
+
+    for (int i = 0; i < CREDITS; ++i) {
+      assertTrue(channel.isWritable());
+      channel.write(batch()).awaitUninterruptibly();
+    }
+    /* The last credit disables the output, although the socket is still writable. */
+    assertFalse(channel.isWritable());
+    awaitCount(disabled, 1);
+    assertTrue(channel.getIOChannel().isWritable());
+
+    /* Nothing is granted while the messages are not consumed. */
+    awaitInputBufferSize(CREDITS);
+    Thread.sleep(100);
+    assertFalse(channel.isWritable());
+  }
+
+  @Test
+  public void testCreditsGrantedAtHalfWindow() throws InterruptedException {
+    StreamOutputChannel<TupleBatch> channel = open(0);
+    final AtomicInteger recovered = new AtomicInteger();
+    channel.addListener(
+        StreamOutputChannel.OUTPUT_RECOVERED,
+        new IPCEventListener() {
+          @Override
+          public void triggered(final IPCEvent event) {
+            recovered.incrementAndGet();
+          }
+        });
+    for (int i = 0; i < CREDITS; ++i) {
+      channel.write(batch());
+    }
+    assertFalse(channel.isWritable());
+
+    /* Consuming less than half of the window grants nothing. */
+    for (int i = 1; i < CREDITS / 2; ++i) {
+      assertEquals(0, takeData());
+    }
+    Thread.sleep(100);
+    assertFalse(channel.isWritable());
+    assertEquals(0, recovered.get());
+
+    /* Half of the window is granted at once, and allows exactly that many more messages. */
+    assertEquals(0, takeData());
+    awaitWritable(channel, true);
+    awaitCount(recovered, 1);
+    for (int i = 0; i < CREDITS / 2; ++i) {
+      assertTrue(channel.isWritable());
+      channel.write(batch());
+    }
+    assertFalse(channel.isWritable());
+  }
+
+  @Test
+  public void testSlowChannelDoesNotStallOthers() throws InterruptedException {
+    StreamOutputChannel<TupleBatch> slow = open(0);
+    StreamOutputChannel<TupleBatch> other = open(1);
+
+    /* The slow stream uses all its credits, and fills the input buffer beyond its capacity. */
+    for (int i = 0; i < CREDITS; ++i) {
+      slow.write(batch());
+    }
+    assertFalse(slow.isWritable());
+    awaitInputBufferSize(CREDITS);
+    assertTrue(inputBuffer.remainingCapacity() < 0);
+
+    /* The other stream still has its own credits, and its messages are still read. */
+    for (int i = 0; i < CREDITS; ++i) {
+      assertTrue(other.isWritable());
+      other.write(batch());
+    }
+    assertFalse(other.isWritable());
+    awaitInputBufferSize(2 * CREDITS);
+
+    /* Each stream is granted the credits of its own consumed messages. */
+    int numOther = 0;
+    for (int i = 0; i < 2 * CREDITS; ++i) {
+      if (takeData() == 1) {
+        ++numOther;
+      }
+    }
+    assertEquals(CREDITS, numOther);
+    awaitWritable(other, true);
+    awaitWritable(slow, true);
+  }
+}
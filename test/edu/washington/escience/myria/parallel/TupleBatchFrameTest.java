@@ -0,0 +1,144 @@
+package edu.washington.escience.myria.parallel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.jboss.netty.buffer.CompositeChannelBuffer;
+import org.junit.Test;
+
+import edu.washington.escience.myria.Schema;
+import edu.washington.escience.myria.Type;
+import edu.washington.escience.myria.column.Column;
+import edu.washington.escience.myria.column.DoubleBufferColumn;
+import edu.washington.escience.myria.column.IntBufferColumn;
+import edu.washington.escience.myria.column.LongBufferColumn;
+import edu.washington.escience.myria.column.LongColumn;
+import edu.washington.escience.myria.proto.TransportProto.TransportMessage;
+import edu.washington.escience.myria.storage.TupleBatch;
+import edu.washington.escience.myria.util.IPCUtils;
+import edu.washington.escience.myria.util.TestUtils;
+
+public class TupleBatchFrameTest {
+
+  /** The columns of random values. */
+  private static final Schema RANDOM_SCHEMA =
+      Schema.ofFields(
+          "id",
+          Type.INT_TYPE,
+          "key",
+          Type.LONG_TYPE,
+          "name",
+          Type.STRING_TYPE,
+          "weight",
+          Type.DOUBLE_TYPE,
+          "score",
+          Type.FLOAT_TYPE,
+          "flag",
+          Type.BOOLEAN_TYPE);
+
+  private static final Schema SCHEMA =
+      Schema.appendColumn(RANDOM_SCHEMA, Type.LONG_TYPE, "constant");
+
+  /** @return random tuples, followed by a column in which every row is 7. */
+  private static TupleBatch randomBatch(final int numTuples) {
+    TupleBatch tb = TestUtils.randomTupleBatch(RANDOM_SCHEMA, numTuples, 0, 5);
+    long[] constant = new long[tb.numTuples()];
+    Arrays.fill(constant, 7);
+    return tb.appendColumn("constant", new LongColumn(constant, constant.length));
+  }
+
+  /** @return a copy of a written frame, as the frame decoder hands it to the serializer. */
+  private static ChannelBuffer receive(final ChannelBuffer frame) {
+    ChannelBuffer received = ChannelBuffers.buffer(frame.readableBytes());
+    received.writeBytes(frame, frame.readerIndex(), frame.readableBytes());
+    return received;
+  }
+
+  @Test
+  public void testRoundTrip() throws Exception {
+    TransportMessageSerializer serializer = new TransportMessageSerializer();
+    for (int numTuples : new int[] {1, 100, 10000}) {
+      TupleBatch tb = randomBatch(numTuples);
+      ChannelBuffer frame = serializer.serialize(tb);
+      TupleBatch received = (TupleBatch) serializer.deSerialize(receive(frame), null, SCHEMA);
+      serializer.release(frame);
+      TestUtils.assertSameTuples(tb, received);
+    }
+  }
+
+  @Test
+  public void testRawColumnsWrapFrame() throws Exception {
+    TupleBatch tb = randomBatch(1000);
+    ChannelBuffer frame = TupleBatchFrame.encode(tb);
+    assertTrue(((CompositeChannelBuffer) frame).useGathering());
+    TupleBatch received = TupleBatchFrame.decode(receive(frame), SCHEMA);
+    TupleBatchFrame.release(frame);
+    assertTrue(received.getDataColumns().get(0) instanceof IntBufferColumn);
+    assertTrue(received.getDataColumns().get(1) instanceof LongBufferColumn);
+    assertTrue(received.getDataColumns().get(3) instanceof DoubleBufferColumn);
+    /* The constant column is encoded, not sent raw. */
+    assertTrue(!(received.getDataColumns().get(6) instanceof LongBufferColumn));
+  }
+
+  @Test
+  public void testPool() {
+    TupleBatch tb = randomBatch(1000);
+    ChannelBuffer first = TupleBatchFrame.encode(tb);
+    TupleBatchFrame.release(first);
+    int pooled = TupleBatchFrame.numPooledBuffers();
+    assertTrue(pooled > 0);
+    ChannelBuffer second = TupleBatchFrame.encode(tb);
+    assertEquals(pooled - 1, TupleBatchFrame.numPooledBuffers());
+    TupleBatchFrame.release(second);
+    TupleBatchFrame.release(second);
+    assertEquals(pooled, TupleBatchFrame.numPooledBuffers());
+  }
+
+  @Test
+  public void testTransportMessagesStillDecode() throws Exception {
+    TransportMessageSerializer serializer = new TransportMessageSerializer();
+    TransportMessage tm = IPCUtils.EOI;
+    assertEquals(tm, serializer.deSerialize(serializer.serialize(tm), null, SCHEMA));
+
+    /* Protobuf data messages from older senders. */
+    TupleBatch tb = randomBatch(100);
+    ChannelBuffer old = ChannelBuffers.wrappedBuffer(tb.toTransportMessage().toByteArray());
+    TransportMessage received = (TransportMessage) serializer.deSerialize(old, null, SCHEMA);
+    TestUtils.assertSameTuples(tb, IPCUtils.tmToTupleBatch(received.getDataMessage(), SCHEMA));
+  }
+
+  @Test
+  public void testUnknownStream() throws Exception {
+    TransportMessageSerializer serializer = new TransportMessageSerializer();
+    ChannelBuffer frame = serializer.serialize(randomBatch(10));
+    assertNull(serializer.deSerialize(receive(frame), null, null));
+  }
+
+  @Test
+  public void testJavaSerialization() throws Exception {
+    TupleBatch tb = randomBatch(100);
+    TupleBatch received = TupleBatchFrame.decode(receive(TupleBatchFrame.encode(tb)), SCHEMA);
+    for (Column<?> column : received.getDataColumns()) {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+        out.writeObject(column);
+      }
+      Column<?> copy =
+          (Column<?>)
+              new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject();
+      assertEquals(column.size(), copy.size());
+      for (int row = 0; row < column.size(); ++row) {
+        assertEquals(TestUtils.getValue(column, row), TestUtils.getValue(copy, row));
+      }
+    }
+  }
+}
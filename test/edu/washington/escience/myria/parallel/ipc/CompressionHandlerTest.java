@@ -0,0 +1,113 @@
+package edu.washington.escience.myria.parallel.ipc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.jboss.netty.handler.codec.embedder.DecoderEmbedder;
+import org.jboss.netty.handler.codec.embedder.EncoderEmbedder;
+import org.junit.Test;
+
+public class CompressionHandlerTest {
+
+  /** @return a DATA frame of the given length, compressible unless random. */
+  private static ChannelBuffer dataFrame(final int length, final boolean random) {
+    byte[] bytes = new byte[length];
+    Random r = new Random(1);
+    for (int i = 1; i < length; ++i) {
+      bytes[i] = random ? (byte) r.nextInt() : (byte) (i % 7);
+    }
+    bytes[0] = (byte) IPCMessage.Header.DATA.ordinal();
+    return ChannelBuffers.wrappedBuffer(bytes);
+  }
+
+  /** @return a CONNECT frame. */
+  private static ChannelBuffer connectFrame() {
+    ChannelBuffer frame = ChannelBuffers.buffer(5);
+    frame.writeByte(IPCMessage.Header.CONNECT.ordinal());
+    frame.writeInt(3);
+    return frame;
+  }
+
+  @Test
+  public void testRoundTrip() {
+    for (IPCCompression codec : new IPCCompression[] {IPCCompression.LZ4, IPCCompression.ZSTD}) {
+      ChannelBuffer frame = dataFrame(10000, false);
+      ChannelBuffer compressed = CompressionHandler.compress(codec, frame);
+      assertNotNull(compressed);
+      assertTrue(compressed.readableBytes() < frame.readableBytes() / 2);
+      assertEquals(
+          IPCMessage.Header.COMPRESSED_DATA.ordinal(),
+          compressed.getByte(compressed.readerIndex()));
+      assertEquals(frame, CompressionHandler.decompress(compressed));
+    }
+  }
+
+  @Test
+  public void testIncompressible() {
+    for (IPCCompression codec : new IPCCompression[] {IPCCompression.LZ4, IPCCompression.ZSTD}) {
+      assertNull(CompressionHandler.compress(codec, dataFrame(10000, true)));
+    }
+  }
+
+  @Test
+  public void testNegotiation() {
+    CompressionHandler sender = new CompressionHandler(IPCCompression.LZ4);
+    EncoderEmbedder<ChannelBuffer> out = new EncoderEmbedder<>(sender);
+    DecoderEmbedder<ChannelBuffer> in = new DecoderEmbedder<>(sender);
+
+    /* Nothing is compressed before the peer has said it uses the same codec. */
+    out.offer(connectFrame());
+    ChannelBuffer connect = out.poll();
+    assertEquals(6, connect.readableBytes());
+    assertEquals(IPCCompression.LZ4.ordinal(), connect.getByte(5));
+    out.offer(dataFrame(10000, false));
+    assertEquals(IPCMessage.Header.DATA.ordinal(), out.poll().getByte(0));
+
+    /* A peer with another codec. */
+    ChannelBuffer zstdConnect =
+        ChannelBuffers.wrappedBuffer(
+            connectFrame(),
+            ChannelBuffers.wrappedBuffer(new byte[] {(byte) IPCCompression.ZSTD.ordinal()}));
+    in.offer(zstdConnect);
+    in.poll();
+    assertEquals(IPCCompression.NONE, sender.getNegotiated());
+
+    /* A peer with the same codec: data frames are compressed, and decompressed on receipt. */
+    in.offer(connect);
+    in.poll();
+    assertEquals(IPCCompression.LZ4, sender.getNegotiated());
+    out.offer(dataFrame(10000, false));
+    ChannelBuffer compressed = out.poll();
+    assertEquals(IPCMessage.Header.COMPRESSED_DATA.ordinal(), compressed.getByte(0));
+    in.offer(compressed);
+    assertEquals(dataFrame(10000, false), in.poll());
+
+    /* Small frames are sent as they are. */
+    out.offer(dataFrame(100, false));
+    assertEquals(100, out.poll().readableBytes());
+  }
+
+  @Test
+  public void testSkipIncompressible() {
+    CompressionHandler sender = new CompressionHandler(IPCCompression.LZ4);
+    EncoderEmbedder<ChannelBuffer> out = new EncoderEmbedder<>(sender);
+    DecoderEmbedder<ChannelBuffer> in = new DecoderEmbedder<>(sender);
+    out.offer(connectFrame());
+    in.offer(out.poll());
+    in.poll();
+
+    /* After an incompressible frame, the next compressible frame is skipped. */
+    out.offer(dataFrame(10000, true));
+    assertEquals(IPCMessage.Header.DATA.ordinal(), out.poll().getByte(0));
+    out.offer(dataFrame(10000, false));
+    assertEquals(IPCMessage.Header.DATA.ordinal(), out.poll().getByte(0));
+    out.offer(dataFrame(10000, false));
+    assertEquals(IPCMessage.Header.COMPRESSED_DATA.ordinal(), out.poll().getByte(0));
+  }
+}
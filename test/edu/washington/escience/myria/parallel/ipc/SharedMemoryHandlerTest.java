@@ -0,0 +1,257 @@
+package edu.washington.escience.myria.parallel.ipc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.jboss.netty.channel.Channels;
+import org.jboss.netty.handler.codec.embedder.DecoderEmbedder;
+import org.jboss.netty.handler.codec.embedder.EncoderEmbedder;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SharedMemoryHandlerTest {
+
+  /** The directory of the ring files. */
+  private static final File DIRECTORY = new File(System.getProperty("java.io.tmpdir"));
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  /** @return a DATA frame of the given length. */
+  private static ChannelBuffer dataFrame(final int length) {
+    byte[] bytes = new byte[length];
+    for (int i = 1; i < length; ++i) {
+      bytes[i] = (byte) (i % 251);
+    }
+    bytes[0] = (byte) IPCMessage.Header.DATA.ordinal();
+    return ChannelBuffers.wrappedBuffer(bytes);
+  }
+
+  /**
+   * Deliver a SHARED_MEMORY_RING message to the receiver, and its answer to the sender.
+   *
+   * @param open the SHARED_MEMORY_RING message
+   * @param out the sender
+   * @param in the receiver
+   * @return whether the receiver opened the ring
+   */
+  private static boolean openRing(
+      final ChannelBuffer open,
+      final EncoderEmbedder<ChannelBuffer> out,
+      final DecoderEmbedder<ChannelBuffer> in) {
+    assertEquals(IPCMessage.Header.SHARED_MEMORY_RING.ordinal(), open.getByte(0));
+    in.offer(open);
+    ChannelBuffer ack = in.poll();
+    assertEquals(IPCMessage.Header.SHARED_MEMORY_RING_ACK.ordinal(), ack.getByte(0));
+    assertNull(in.poll());
+    Channels.fireMessageReceived(out.getPipeline().getChannel(), ack);
+    assertNull(out.poll());
+    return ack.getByte(1) != 0;
+  }
+
+  /**
+   * @param ringBytes the number of bytes of the ring
+   * @param colocated whether the sender is co-located
+   * @return a receiver
+   */
+  private static DecoderEmbedder<ChannelBuffer> receiver(
+      final int ringBytes, final boolean colocated) {
+    SharedMemoryHandler handler = new SharedMemoryHandler(null, ringBytes, DIRECTORY);
+    handler.setColocated(colocated);
+    return new DecoderEmbedder<>(handler);
+  }
+
+  @Test
+  public void testRingWrapAround() throws IOException {
+    SharedMemoryRing writer = SharedMemoryRing.create(DIRECTORY, 100);
+    SharedMemoryRing reader = SharedMemoryRing.open(writer.getPath(), 100);
+    assertFalse(new File(writer.getPath()).exists());
+
+    ChannelBuffer first = dataFrame(60);
+    assertEquals(0, writer.write(first));
+    /* Not enough free space until the writer is told that the reader consumed the first frame. */
+    assertEquals(-1, writer.write(dataFrame(60)));
+    assertEquals(first, reader.read(0, 60));
+    assertEquals(-1, writer.write(dataFrame(60)));
+    writer.consumed(60);
+
+    ChannelBuffer second = dataFrame(70);
+    assertEquals(60, writer.write(second));
+    assertEquals(second, reader.read(60, 70));
+    writer.close();
+    reader.close();
+  }
+
+  @Test
+  public void testSendThroughRing() {
+    SharedMemoryHandler sender = new SharedMemoryHandler(null, 64 * 1024, DIRECTORY);
+    sender.setColocated(true);
+    EncoderEmbedder<ChannelBuffer> out = new EncoderEmbedder<>(sender);
+    DecoderEmbedder<ChannelBuffer> in = receiver(64 * 1024, true);
+
+    ChannelBuffer frame = dataFrame(10000);
+    out.offer(frame.duplicate());
+    ChannelBuffer open = out.poll();
+    /* Until the receiver has opened the ring, frames go through the channel. */
+    assertEquals(frame, out.poll());
+    assertTrue(openRing(open, out, in));
+
+    out.offer(frame.duplicate());
+    ChannelBuffer shared = out.poll();
+    assertEquals(IPCMessage.Header.SHARED_MEMORY_DATA.ordinal(), shared.getByte(0));
+    assertEquals(13, shared.readableBytes());
+    in.offer(shared);
+    assertEquals(frame, in.poll());
+
+    /* Small frames and other messages go through the channel. */
+    ChannelBuffer small = dataFrame(100);
+    out.offer(small.duplicate());
+    assertEquals(small, out.poll());
+    ChannelBuffer ping = ChannelBuffers.wrappedBuffer(new byte[] {4});
+    out.offer(ping.duplicate());
+    assertEquals(ping, out.poll());
+    out.finish();
+    in.finish();
+  }
+
+  @Test
+  public void testFullRing() {
+    SharedMemoryHandler sender = new SharedMemoryHandler(null, 16 * 1024, DIRECTORY);
+    sender.setColocated(true);
+    EncoderEmbedder<ChannelBuffer> out = new EncoderEmbedder<>(sender);
+    out.offer(dataFrame(10000));
+    ChannelBuffer open = out.poll();
+    out.poll();
+    File file =
+        new File(open.toString(1 + 4, open.readableBytes() - 1 - 4, StandardCharsets.UTF_8));
+    assertTrue(openRing(open, out, receiver(16 * 1024, true)));
+    out.offer(dataFrame(10000));
+    assertEquals(IPCMessage.Header.SHARED_MEMORY_DATA.ordinal(), out.poll().getByte(0));
+
+    /* The peer has not consumed the first frame yet. */
+    ChannelBuffer frame = dataFrame(10000);
+    out.offer(frame.duplicate());
+    assertEquals(frame, out.poll());
+    /* Frames larger than the ring. */
+    ChannelBuffer large = dataFrame(20000);
+    out.offer(large.duplicate());
+    assertEquals(large, out.poll());
+
+    out.finish();
+    assertFalse(file.exists());
+  }
+
+  @Test
+  public void testConsumedPosition() {
+    SharedMemoryHandler sender = new SharedMemoryHandler(null, 16 * 1024, DIRECTORY);
+    sender.setColocated(true);
+    EncoderEmbedder<ChannelBuffer> out = new EncoderEmbedder<>(sender);
+    DecoderEmbedder<ChannelBuffer> in = receiver(16 * 1024, true);
+    out.offer(dataFrame(5000));
+    ChannelBuffer open = out.poll();
+    out.poll();
+    assertTrue(openRing(open, out, in));
+
+    ChannelBuffer frame = dataFrame(5000);
+    ChannelBuffer[] shared = new ChannelBuffer[3];
+    for (int i = 0; i < shared.length; ++i) {
+      out.offer(frame.duplicate());
+      shared[i] = out.poll();
+      assertEquals(IPCMessage.Header.SHARED_MEMORY_DATA.ordinal(), shared[i].getByte(0));
+    }
+    /* The ring is full. */
+    out.offer(frame.duplicate());
+    assertEquals(frame, out.poll());
+
+    in.offer(shared[0]);
+    assertEquals(frame, in.poll());
+    assertNull(in.poll());
+    /* Once half of the ring is consumed, its bytes are given back to the sender. */
+    in.offer(shared[1]);
+    assertEquals(frame, in.poll());
+    ChannelBuffer consumed = in.poll();
+    assertEquals(IPCMessage.Header.SHARED_MEMORY_CONSUMED.ordinal(), consumed.getByte(0));
+    assertEquals(10000, consumed.getLong(1));
+    Channels.fireMessageReceived(out.getPipeline().getChannel(), consumed);
+    assertNull(out.poll());
+
+    for (int i = 0; i < 2; ++i) {
+      out.offer(frame.duplicate());
+      assertEquals(IPCMessage.Header.SHARED_MEMORY_DATA.ordinal(), out.poll().getByte(0));
+    }
+    out.finish();
+    in.finish();
+  }
+
+  @Test
+  public void testRingRefused() {
+    SharedMemoryHandler sender = new SharedMemoryHandler(null, 64 * 1024, DIRECTORY);
+    sender.setColocated(true);
+    EncoderEmbedder<ChannelBuffer> out = new EncoderEmbedder<>(sender);
+    ChannelBuffer frame = dataFrame(10000);
+    out.offer(frame.duplicate());
+    ChannelBuffer open = out.poll();
+    assertEquals(frame, out.poll());
+    File file =
+        new File(open.toString(1 + 4, open.readableBytes() - 1 - 4, StandardCharsets.UTF_8));
+
+    /* A receiver which does not see the sender as co-located refuses the ring. */
+    assertFalse(openRing(open, out, receiver(64 * 1024, false)));
+    assertFalse(file.exists());
+    /* And the sender keeps using the channel, without offering another ring. */
+    out.offer(frame.duplicate());
+    assertEquals(frame, out.poll());
+    assertNull(out.poll());
+    out.finish();
+  }
+
+  @Test
+  public void testRingOutsideDirectory() throws IOException {
+    DecoderEmbedder<ChannelBuffer> in = receiver(100, true);
+    SharedMemoryRing elsewhere = SharedMemoryRing.create(folder.getRoot(), 100);
+    File inDirectory = File.createTempFile("other-", SharedMemoryRing.FILE_SUFFIX, DIRECTORY);
+    try {
+      for (String path :
+          new String[] {
+            elsewhere.getPath(),
+            new File(DIRECTORY, "../" + SharedMemoryRing.FILE_PREFIX + "1.ring").getPath(),
+            inDirectory.getPath()
+          }) {
+        byte[] bytes = path.getBytes(StandardCharsets.UTF_8);
+        ChannelBuffer open = ChannelBuffers.buffer(1 + 4 + bytes.length);
+        open.writeByte(IPCMessage.Header.SHARED_MEMORY_RING.ordinal());
+        open.writeInt(100);
+        open.writeBytes(bytes);
+        in.offer(open);
+        ChannelBuffer ack = in.poll();
+        assertEquals(IPCMessage.Header.SHARED_MEMORY_RING_ACK.ordinal(), ack.getByte(0));
+        assertEquals(0, ack.getByte(1));
+      }
+      /* The refused files are not mapped, and so not deleted. */
+      assertTrue(new File(elsewhere.getPath()).exists());
+      assertTrue(inDirectory.exists());
+    } finally {
+      elsewhere.close();
+      inDirectory.delete();
+    }
+    in.finish();
+  }
+
+  @Test
+  public void testNotColocated() {
+    EncoderEmbedder<ChannelBuffer> out =
+        new EncoderEmbedder<>(new SharedMemoryHandler(null, 64 * 1024, DIRECTORY));
+    ChannelBuffer frame = dataFrame(10000);
+    out.offer(frame.duplicate());
+    assertEquals(frame, out.poll());
+    out.finish();
+  }
+}
@@ -0,0 +1,65 @@
+package edu.washington.escience.myria.storage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.google.common.base.Strings;
+
+import edu.washington.escience.myria.Schema;
+import edu.washington.escience.myria.Type;
+
+public class BatchSizePolicyTest {
+
+  private static final Schema NARROW = Schema.ofFields("a", Type.INT_TYPE, "b", Type.LONG_TYPE);
+
+  private static final Schema STRINGS =
+      Schema.ofFields("id", Type.LONG_TYPE, "s", Type.STRING_TYPE, "t", Type.STRING_TYPE);
+
+  @Test
+  public void testBatchSize() {
+    BatchSizePolicy policy = new BatchSizePolicy(1024 * 1024, 50000);
+    /* 12 bytes per row. */
+    assertEquals(50000, policy.getBatchSize(NARROW));
+    /* 8 + 2 * (40 + 2 * 16) = 152 bytes per row. */
+    assertEquals(1024 * 1024 / 152, policy.getBatchSize(STRINGS));
+    /* Long strings, 8 + 2 * (40 + 2 * 1000) = 4088 bytes per row, down to the minimum. */
+    assertEquals(1024 * 1024 / 4088, policy.getBatchSize(STRINGS, 1000));
+    assertEquals(BatchSizePolicy.MIN_BATCH_SIZE, policy.getBatchSize(STRINGS, 1000000));
+    /* Blobs, one tuple at a time. */
+    assertEquals(1, policy.getBatchSize(Schema.ofFields("b", Type.BLOB_TYPE, "a", Type.INT_TYPE)));
+  }
+
+  @Test
+  public void testDefault() {
+    BatchSizePolicy policy = TupleUtils.getBatchSizePolicy();
+    assertEquals(BatchSizePolicy.DEFAULT_MAX_BATCH_SIZE, TupleUtils.getBatchSize(NARROW));
+    assertEquals(BatchSizePolicy.DEFAULT_MAX_BATCH_SIZE, TupleUtils.getBatchSize(STRINGS));
+    assertEquals(policy.getMaxBatchSize(), TupleUtils.getBatchSize(Type.STRING_TYPE));
+    assertEquals(1, TupleUtils.getBatchSize(Type.BLOB_TYPE));
+  }
+
+  @Test
+  public void testObservedStrings() {
+    TupleBatchBuffer buffer = new TupleBatchBuffer(STRINGS);
+    assertEquals(TupleUtils.getBatchSize(STRINGS), buffer.getBatchSize());
+    String longString = Strings.repeat("x", 2000);
+    int numTuples = 0;
+    while (buffer.popFilled() == null) {
+      buffer.putLong(0, numTuples++);
+      buffer.putString(1, longString);
+      buffer.putString(2, longString);
+    }
+    /* The batches after the first one are sized by the length of the strings of the first one. */
+    int expected = TupleUtils.getBatchSizePolicy().getBatchSize(STRINGS, 2000);
+    assertTrue(expected < TupleUtils.getBatchSize(STRINGS));
+    assertEquals(expected, buffer.getBatchSize());
+    for (int i = 0; i < expected; ++i) {
+      buffer.putLong(0, i);
+      buffer.putString(1, longString);
+      buffer.putString(2, longString);
+    }
+    assertEquals(expected, buffer.popFilled().numTuples());
+  }
+}
@@ -0,0 +1,78 @@
+package edu.washington.escience.myria.storage;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.washington.escience.myria.Schema;
+import edu.washington.escience.myria.Type;
+import edu.washington.escience.myria.column.builder.PrimitiveArrayPool;
+
+public class PooledColumnsTest {
+
+  private static final Schema SCHEMA =
+      Schema.ofFields("a", Type.INT_TYPE, "b", Type.DOUBLE_TYPE, "s", Type.STRING_TYPE);
+
+  @Before
+  @After
+  public void clearPool() {
+    PrimitiveArrayPool.clear();
+  }
+
+  @Test
+  public void testReleaseBatch() {
+    TupleBatchBuffer buffer = new TupleBatchBuffer(SCHEMA);
+    for (int i = 0; i < 10; ++i) {
+      buffer.putInt(0, i);
+      buffer.putDouble(1, i);
+      buffer.putString(2, "s" + i);
+    }
+    TupleBatch tb = buffer.popAny();
+    assertEquals(0, PrimitiveArrayPool.numPooled(Type.INT_TYPE));
+    tb.release();
+    assertEquals(1, PrimitiveArrayPool.numPooled(Type.INT_TYPE));
+    assertEquals(1, PrimitiveArrayPool.numPooled(Type.DOUBLE_TYPE));
+
+    /* The next batch is built in the released arrays, which were zeroed. */
+    buffer.putInt(0, 42);
+    buffer.putDouble(1, 0.5);
+    buffer.putString(2, "t");
+    assertEquals(0, PrimitiveArrayPool.numPooled(Type.INT_TYPE));
+    assertEquals(0, PrimitiveArrayPool.numPooled(Type.DOUBLE_TYPE));
+    tb = buffer.popAny();
+    assertEquals(42, tb.getInt(0, 0));
+    assertEquals(0.5, tb.getDouble(1, 0), 0);
+  }
+
+  @Test
+  public void testClearMutableTupleBuffer() {
+    int batchSize = TupleUtils.getBatchSize(SCHEMA);
+    MutableTupleBuffer buffer = new MutableTupleBuffer(SCHEMA);
+    for (int i = 0; i < batchSize * 2 + 5; ++i) {
+      buffer.putInt(0, i);
+      buffer.putDouble(1, i);
+      buffer.putString(2, "s" + i);
+    }
+    List<TupleBatch> all = buffer.getAll();
+    /* Two full batches and the batch being built. */
+    buffer.clear();
+    assertEquals(3, PrimitiveArrayPool.numPooled(Type.INT_TYPE));
+    assertEquals(3, PrimitiveArrayPool.numPooled(Type.DOUBLE_TYPE));
+
+    /* The batches returned before are copies, and stay valid. */
+    assertEquals(batchSize * 2 + 4, all.get(2).getInt(0, 4));
+
+    /* The next buffer builds its first batch in pooled arrays. */
+    buffer = new MutableTupleBuffer(SCHEMA);
+    assertEquals(2, PrimitiveArrayPool.numPooled(Type.INT_TYPE));
+    buffer.putInt(0, 1);
+    buffer.putDouble(1, 1);
+    buffer.putString(2, "s");
+    assertEquals(1, buffer.numTuples());
+    assertEquals(1, buffer.getInt(0, 0));
+  }
+}
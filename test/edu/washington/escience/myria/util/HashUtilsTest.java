@@ -0,0 +1,113 @@
+package edu.washington.escience.myria.util;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+import edu.washington.escience.myria.Schema;
+import edu.washington.escience.myria.Type;
+import edu.washington.escience.myria.storage.TupleBatch;
+
+public class HashUtilsTest {
+
+  /** The seeds of {@link HashUtils}. */
+  private static final int[] SEEDS = {
+    243, 402653189, 24593, 786433, 3145739, 12289, 49157, 6151, 98317, 1572869,
+  };
+
+  private static final Schema SCHEMA =
+      Schema.ofFields(
+          "int",
+          Type.INT_TYPE,
+          "long",
+          Type.LONG_TYPE,
+          "string",
+          Type.STRING_TYPE,
+          "double",
+          Type.DOUBLE_TYPE,
+          "float",
+          Type.FLOAT_TYPE,
+          "boolean",
+          Type.BOOLEAN_TYPE,
+          "datetime",
+          Type.DATETIME_TYPE);
+
+  private static final int NUM_ROWS = 500;
+
+  /** How rows used to be hashed, with Guava's murmur3 and {@link TypeFunnel}. */
+  private static int guavaHash(
+      final TupleBatch tb, final int[] columns, final int row, final int seed) {
+    HashFunction function = Hashing.murmur3_128(SEEDS[seed]);
+    Hasher hasher = function.newHasher();
+    for (int column : columns) {
+      switch (tb.getSchema().getColumnType(column)) {
+        case BOOLEAN_TYPE:
+          hasher.putBoolean(tb.getBoolean(column, row));
+          break;
+        case DATETIME_TYPE:
+          hasher.putObject(tb.getDateTime(column, row), TypeFunnel.INSTANCE);
+          break;
+        case DOUBLE_TYPE:
+          hasher.putDouble(tb.getDouble(column, row));
+          break;
+        case FLOAT_TYPE:
+          hasher.putFloat(tb.getFloat(column, row));
+          break;
+        case INT_TYPE:
+          hasher.putInt(tb.getInt(column, row));
+          break;
+        case LONG_TYPE:
+          hasher.putLong(tb.getLong(column, row));
+          break;
+        case STRING_TYPE:
+          hasher.putObject(tb.getString(column, row), TypeFunnel.INSTANCE);
+          break;
+        default:
+          throw new UnsupportedOperationException();
+      }
+    }
+    return hasher.hash().asInt();
+  }
+
+  @Test
+  public void testCompatibleWithGuava() {
+    TupleBatch tb = TestUtils.randomTupleBatch(SCHEMA, NUM_ROWS, 0, 7);
+    int[][] keys = {
+      {0},
+      {1},
+      {2},
+      {3},
+      {4},
+      {5},
+      {6},
+      {0, 1},
+      {2, 0},
+      {5, 2, 4},
+      {2, 2, 2},
+      {0, 1, 2, 3, 4, 5, 6},
+      {}
+    };
+    int[] hashes = new int[NUM_ROWS];
+    for (int[] key : keys) {
+      for (int seed = 0; seed < HashUtils.NUM_OF_HASHFUNCTIONS; ++seed) {
+        HashUtils.hashSubRows(tb, key, seed, hashes);
+        for (int row = 0; row < NUM_ROWS; ++row) {
+          int expected = guavaHash(tb, key, row, seed);
+          assertEquals(expected, HashUtils.hashSubRow(tb, key, row, seed));
+          assertEquals(expected, hashes[row]);
+        }
+      }
+    }
+    int[] all = {0, 1, 2, 3, 4, 5, 6};
+    for (int row = 0; row < NUM_ROWS; ++row) {
+      assertEquals(guavaHash(tb, all, row, 0), HashUtils.hashRow(tb, row));
+      assertEquals(guavaHash(tb, new int[] {2}, row, 3), HashUtils.hashValue(tb, 2, row, 3));
+      assertEquals(
+          guavaHash(tb, new int[] {2}, row, 4), HashUtils.hashString(tb.getString(2, row), 4));
+    }
+  }
+}
@@ -16,6 +16,7 @@ import java.util.Set;
 import javax.annotation.Nonnull;
 
 import org.apache.commons.lang.ArrayUtils;
+import org.joda.time.DateTime;
 import org.junit.Assert;
 import org.junit.Assume;
 
@@ -40,6 +41,9 @@ import edu.washington.escience.myria.operator.network.distribute.DistributeFunct
 import edu.washington.escience.myria.parallel.ExchangePairID;
 import edu.washington.escience.myria.parallel.SubQuery;
 import edu.washington.escience.myria.parallel.SubQueryPlan;
+import edu.washington.escience.myria.storage.ReadableColumn;
+import edu.washington.escience.myria.storage.ReadableTable;
+import edu.washington.escience.myria.storage.TupleBatch;
 import edu.washington.escience.myria.storage.TupleBatchBuffer;
 
 public final class TestUtils {
@@ -451,6 +455,131 @@ public final class TestUtils {
     return tbb;
   }
 
+  /**
+   * Generate a batch of random tuples of any schema without blobs.
+   *
+   * @param schema the schema of the tuples
+   * @param numTuples the number of tuples
+   * @param numValues if positive, the numbers, strings and times of each column take one of this many values, so that
+   *          they repeat; otherwise they are drawn from their whole range, and strings have up to 40 random characters,
+   *          not all ASCII
+   * @param seed the seed of the random values, so that the same arguments give the same tuples
+   * @return the tuples
+   */
+  public static TupleBatch randomTupleBatch(
+      final Schema schema, final int numTuples, final int numValues, final long seed) {
+    final Random random = new Random(seed);
+    final TupleBatchBuffer buffer = new TupleBatchBuffer(schema);
+    for (int row = 0; row < numTuples; ++row) {
+      for (int column = 0; column < schema.numColumns(); ++column) {
+        final int value = numValues > 0 ? random.nextInt(numValues) : 0;
+        switch (schema.getColumnType(column)) {
+          case BOOLEAN_TYPE:
+            buffer.putBoolean(column, random.nextBoolean());
+            break;
+          case DATETIME_TYPE:
+            buffer.putDateTime(
+                column,
+                new DateTime(numValues > 0 ? value * 1000L : random.nextInt() & 0xFFFFFFFL));
+            break;
+          case DOUBLE_TYPE:
+            buffer.putDouble(column, numValues > 0 ? value : random.nextDouble() - 0.5);
+            break;
+          case FLOAT_TYPE:
+            buffer.putFloat(column, numValues > 0 ? value : random.nextFloat());
+            break;
+          case INT_TYPE:
+            buffer.putInt(column, numValues > 0 ? value : random.nextInt());
+            break;
+          case LONG_TYPE:
+            buffer.putLong(column, numValues > 0 ? value : random.nextLong());
+            break;
+          case STRING_TYPE:
+            if (numValues > 0) {
+              buffer.putString(column, "value" + value);
+            } else {
+              final StringBuilder sb = new StringBuilder();
+              for (int i = random.nextInt(40); i > 0; --i) {
+                sb.append(
+                    (char)
+                        (random.nextBoolean() ? 'a' + random.nextInt(26) : random.nextInt(0xD800)));
+              }
+              buffer.putString(column, sb.toString());
+            }
+            break;
+          default:
+            throw new UnsupportedOperationException(
+                "Cannot generate values of type " + schema.getColumnType(column));
+        }
+      }
+    }
+    return buffer.popAny();
+  }
+
+  /**
+   * @param table a table
+   * @param column a column of the table
+   * @param row a row of the table
+   * @return the value of the cell, read with the getter of the type of the column
+   */
+  public static Object getValue(final ReadableTable table, final int column, final int row) {
+    return getValue(table.getSchema().getColumnType(column), table.asColumn(column), row);
+  }
+
+  /**
+   * @param column a column
+   * @param row a row of the column
+   * @return the value of the cell, read with the getter of the type of the column
+   */
+  public static Object getValue(final Column<?> column, final int row) {
+    return getValue(column.getType(), column, row);
+  }
+
+  /**
+   * @param type the type of a column
+   * @param column the column
+   * @param row a row of the column
+   * @return the value of the cell, read with the getter of the type
+   */
+  private static Object getValue(final Type type, final ReadableColumn column, final int row) {
+    switch (type) {
+      case BOOLEAN_TYPE:
+        return column.getBoolean(row);
+      case DATETIME_TYPE:
+        return column.getDateTime(row);
+      case DOUBLE_TYPE:
+        return column.getDouble(row);
+      case FLOAT_TYPE:
+        return column.getFloat(row);
+      case INT_TYPE:
+        return column.getInt(row);
+      case LONG_TYPE:
+        return column.getLong(row);
+      case STRING_TYPE:
+        return column.getString(row);
+      case BLOB_TYPE:
+        return column.getBlob(row);
+      default:
+        throw new UnsupportedOperationException("Cannot read values of type " + type);
+    }
+  }
+
+  /**
+   * Assert that two tables have the same schema and the same tuples in the same order.
+   *
+   * @param expected the expected tuples
+   * @param actual the actual tuples
+   */
+  public static void assertSameTuples(final ReadableTable expected, final ReadableTable actual) {
+    Assert.assertEquals(expected.getSchema(), actual.getSchema());
+    Assert.assertEquals(expected.numTuples(), actual.numTuples());
+    for (int column = 0; column < expected.numColumns(); ++column) {
+      for (int row = 0; row < expected.numTuples(); ++row) {
+        Assert.assertEquals(getValue(expected, column, row), getValue(actual, column, row));
+      }
+    }
+  }
+
   /**
    * Construct a SubQuery that will insert the given tuples (starting on the master) on the specified workers using the
    * specified relation key and partition function.